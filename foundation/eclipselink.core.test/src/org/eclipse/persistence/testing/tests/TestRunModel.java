@@ -148,6 +148,7 @@ public class TestRunModel extends TestModel {
             tests.add("org.eclipse.persistence.testing.tests.remote.suncorba.SunCORBARemoteModel");
             tests.add("org.eclipse.persistence.testing.tests.distributedservers.DistributedSessionBrokerServersModel");
             tests.add("org.eclipse.persistence.testing.tests.distributedservers.rcm.RCMDistributedServersModel");
+            tests.add("org.eclipse.persistence.testing.tests.distributedservers.rcm.nio.NIODistributedServersModel");
 
             // Can take a long time, can deadlock.
             tests.add("org.eclipse.persistence.testing.tests.clientserver.ClientServerTestModel");
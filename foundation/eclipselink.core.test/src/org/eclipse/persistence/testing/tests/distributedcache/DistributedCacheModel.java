@@ -39,12 +39,16 @@ public class DistributedCacheModel extends TestModel {
         suite5.addTest(new OrderedListMergeTest());
         suite5.addTest(new OrderedListMergeTest2());
         suite5.addTest(new OrderedListMergeTest3());
+        TestSuite suite6 = new TestSuite();
+        suite6.setName("Parallel Merge Test Suite");
+        suite6.addTest(new ParallelMergeTest());
 
         addTest(suite1);
         addTest(suite2);
         addTest(suite3);
         addTest(suite4);
         addTest(suite5);
+        addTest(suite6);
     }
 
     public void addRequiredSystems() {
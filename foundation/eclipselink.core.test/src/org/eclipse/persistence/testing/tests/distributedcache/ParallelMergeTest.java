@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.distributedcache;
+
+import java.util.*;
+
+import org.eclipse.persistence.internal.sessions.MergeManager;
+import org.eclipse.persistence.internal.sessions.ObjectChangeSet;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkChangeSet;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.sessions.UnitOfWork;
+import org.eclipse.persistence.testing.framework.*;
+import org.eclipse.persistence.testing.models.employee.domain.*;
+
+/**
+ * Verify that merging a change set received from cache coordination in parallel
+ * leaves the cache in the same state as merging it serially.
+ * The change set changes the direct, one to one, aggregate, direct collection and many to many attributes
+ * of every employee, so it is partitioned, and managers link some of the employees' partitions.
+ * The merge threshold is lowered so the model's data is merged in parallel.
+ */
+public class ParallelMergeTest extends TestCase {
+    protected int threads;
+    protected int threshold;
+    protected byte[] changeSetBytes;
+    protected int partitionsMerged;
+
+    public ParallelMergeTest() {
+        setDescription("Verify that merging a distributed change set in parallel results in the same cache state as merging it serially.");
+    }
+
+    public void setup() {
+        if (!MergeManager.LOCK_ON_MERGE) {
+            throw new TestWarningException("Parallel merge requires locking on merge.");
+        }
+        this.threads = MergeManager.getParallelMergeThreads();
+        this.threshold = MergeManager.PARALLEL_MERGE_THRESHOLD;
+        MergeManager.PARALLEL_MERGE_THRESHOLD = 1;
+    }
+
+    public void reset() {
+        MergeManager.setParallelMergeThreads(this.threads);
+        MergeManager.PARALLEL_MERGE_THRESHOLD = this.threshold;
+        this.changeSetBytes = null;
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+    }
+
+    /**
+     * Read the employees into an empty cache, with their related objects.
+     */
+    protected List<Employee> readEmployees() {
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+        ReadAllQuery query = new ReadAllQuery(Employee.class);
+        query.addAscendingOrdering("id");
+        List<Employee> employees = new ArrayList<Employee>((List)getSession().executeQuery(query));
+        for (Employee employee : employees) {
+            employee.getAddress();
+            employee.getManager();
+            employee.getPhoneNumbers().size();
+            employee.getProjects().size();
+        }
+        return employees;
+    }
+
+    /**
+     * Change every employee in a unit of work, and return its change set as sent by cache coordination.
+     * The unit of work is released, so the database is not changed.
+     */
+    protected byte[] buildChangeSet() throws Exception {
+        List<Employee> employees = readEmployees();
+        List<Project> projects = new ArrayList<Project>();
+        for (Employee employee : employees) {
+            for (Object project : employee.getProjects()) {
+                if (!projects.contains(project)) {
+                    projects.add((Project)project);
+                }
+            }
+        }
+        if ((employees.size() < 4) || projects.isEmpty()) {
+            throw new TestWarningException("Not enough employees and projects to partition the merge.");
+        }
+        UnitOfWork uow = getSession().acquireUnitOfWork();
+        List<Employee> clones = new ArrayList<Employee>((List)uow.registerAllObjects(employees));
+        Calendar startDate = Calendar.getInstance();
+        startDate.set(1990, 0, 1, 0, 0, 0);
+        startDate.set(Calendar.MILLISECOND, 0);
+        for (int index = 0; index < clones.size(); index++) {
+            Employee employee = clones.get(index);
+            employee.setFirstName(employee.getFirstName() + "M");
+            if (employee.getAddress() != null) {
+                employee.getAddress().setCity(employee.getAddress().getCity() + "M");
+            }
+            for (Object phone : employee.getPhoneNumbers()) {
+                ((PhoneNumber)phone).setNumber(String.valueOf(index % 10) + ((PhoneNumber)phone).getNumber().substring(1));
+            }
+            employee.addResponsibility("Merge" + index);
+            if (employee.getPeriod() != null) {
+                startDate.set(Calendar.DAY_OF_YEAR, index + 1);
+                employee.getPeriod().setStartDate(new java.sql.Date(startDate.getTimeInMillis()));
+            }
+            if ((index % 3) == 0) {
+                employee.setManager(clones.get((index + 1) % clones.size()));
+            }
+            if ((index % 4) == 0) {
+                Project project = (Project)uow.registerObject(projects.get(index % projects.size()));
+                if (employee.getProjects().contains(project)) {
+                    employee.removeProject(project);
+                } else {
+                    employee.addProject(project);
+                }
+            }
+        }
+        byte[] bytes = ((UnitOfWorkChangeSet)uow.getCurrentChanges()).getByteArrayRepresentation(getAbstractSession());
+        uow.release();
+        return bytes;
+    }
+
+    /**
+     * Merge the change set into a newly read cache as cache coordination does, and return the state of the cached employees.
+     */
+    protected List<String> merge(int threads) throws Exception {
+        MergeManager.setParallelMergeThreads(threads);
+        List<Employee> employees = readEmployees();
+        UnitOfWorkChangeSet changeSet = new UnitOfWorkChangeSet(this.changeSetBytes, getAbstractSession());
+        this.partitionsMerged = 0;
+        MergeManager manager = new MergeManager(getAbstractSession()) {
+            protected void mergeChangeSetsInParallel(List<List<ObjectChangeSet>> partitions, Set<Class> classesChanged) {
+                partitionsMerged = partitions.size();
+                super.mergeChangeSetsInParallel(partitions, classesChanged);
+            }
+        };
+        manager.mergeIntoDistributedCache();
+        manager.setCascadePolicy(MergeManager.CASCADE_ALL_PARTS);
+        manager.mergeChangesFromChangeSet(changeSet);
+        return describe(employees);
+    }
+
+    protected List<String> describe(List<Employee> employees) {
+        List<String> state = new ArrayList<String>();
+        for (Employee employee : employees) {
+            state.add(describe(employee));
+        }
+        return state;
+    }
+
+    /**
+     * Return the state of the cached employee and its related objects.
+     */
+    protected String describe(Employee employee) {
+        StringBuilder description = new StringBuilder();
+        description.append(employee.getId()).append(" ").append(employee.getFirstName()).append(" ").append(employee.getLastName());
+        if (employee.getAddress() != null) {
+            description.append(" address: ").append(employee.getAddress().getId()).append(" ").append(employee.getAddress().getCity());
+        }
+        if (employee.getManager() != null) {
+            description.append(" manager: ").append(((Employee)employee.getManager()).getId());
+        }
+        List<String> phones = new ArrayList<String>();
+        for (Object phone : employee.getPhoneNumbers()) {
+            phones.add(((PhoneNumber)phone).getType() + " " + ((PhoneNumber)phone).getNumber());
+        }
+        Collections.sort(phones);
+        description.append(" phones: ").append(phones);
+        List<String> projects = new ArrayList<String>();
+        for (Object project : employee.getProjects()) {
+            projects.add(String.valueOf(((Project)project).getId()));
+        }
+        Collections.sort(projects);
+        description.append(" projects: ").append(projects);
+        description.append(" responsibilities: ").append(employee.getResponsibilitiesList());
+        if (employee.getPeriod() != null) {
+            description.append(" period: ").append(employee.getPeriod().getStartDate()).append(" ").append(employee.getPeriod().getEndDate());
+        }
+        return description.toString();
+    }
+
+    public void test() throws Exception {
+        this.changeSetBytes = buildChangeSet();
+        List<String> original = describe(readEmployees());
+        List<String> serial = merge(1);
+        if (this.partitionsMerged != 0) {
+            throwError("The serial merge was partitioned.");
+        }
+        if (serial.equals(original)) {
+            throwError("The change set was not merged.");
+        }
+        List<String> parallel = merge(4);
+        if (this.partitionsMerged <= 1) {
+            throwError("The change set was not merged in parallel, partitions: " + this.partitionsMerged);
+        }
+        if (!parallel.equals(serial)) {
+            for (int index = 0; index < serial.size(); index++) {
+                if (!parallel.get(index).equals(serial.get(index))) {
+                    throwError("Parallel merge state: " + parallel.get(index) + " does not match serial merge state: " + serial.get(index));
+                }
+            }
+        }
+    }
+}
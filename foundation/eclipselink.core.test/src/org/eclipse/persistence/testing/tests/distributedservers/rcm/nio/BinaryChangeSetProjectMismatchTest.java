@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the 
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0 
+ * which accompanies this distribution. 
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at 
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.distributedservers.rcm.nio;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.exceptions.RemoteCommandManagerException;
+import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkChangeSet;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.UnitOfWork;
+import org.eclipse.persistence.sessions.serializers.BinaryChangeSetSerializer;
+import org.eclipse.persistence.testing.framework.TestCase;
+import org.eclipse.persistence.testing.models.employee.domain.Employee;
+
+/**
+ * Test that a change set written by the binary change set serializer is decoded by a session with the same project,
+ * and rejected by a session whose project has a renamed attribute, compressed or not,
+ * as its classes and attributes are written as their index in the project.
+ */
+public class BinaryChangeSetProjectMismatchTest extends TestCase {
+
+    public BinaryChangeSetProjectMismatchTest() {
+        setDescription("Test that binary change sets are rejected by a service with a different project.");
+    }
+
+    /**
+     * Return a session with a copy of the project, in which the employee's first name attribute is renamed.
+     * The session is not logged in, only its project is used to decode.
+     */
+    protected DatabaseSessionImpl buildChangedSession() {
+        Project project = getSession().getProject().clone();
+        Map descriptors = new HashMap(project.getDescriptors());
+        ClassDescriptor descriptor = (ClassDescriptor)project.getDescriptor(Employee.class).clone();
+        // The clone's mappings are copies, so renaming does not change the session's descriptor.
+        for (DatabaseMapping mapping : descriptor.getMappings()) {
+            if ("firstName".equals(mapping.getAttributeName())) {
+                mapping.setAttributeName("givenName");
+            }
+        }
+        descriptors.put(Employee.class, descriptor);
+        project.setDescriptors(descriptors);
+        return new DatabaseSessionImpl(project);
+    }
+
+    public void test() {
+        // Change all employees, so the change set is large enough to be compressed.
+        UnitOfWork uow = getSession().acquireUnitOfWork();
+        for (Object employee : uow.readAllObjects(Employee.class)) {
+            ((Employee)employee).setFirstName(((Employee)employee).getFirstName() + "x");
+        }
+        UnitOfWorkChangeSet changeSet = ((UnitOfWorkChangeSet)uow.getCurrentChanges()).buildSendableChangeSet();
+        uow.release();
+        if (changeSet == null) {
+            throwError("No changes to serialize.");
+        }
+        DatabaseSessionImpl changedSession = buildChangedSession();
+        for (int compressionThreshold : new int[] {-1, 0}) {
+            BinaryChangeSetSerializer serializer = new BinaryChangeSetSerializer();
+            serializer.setCompressionThreshold(compressionThreshold);
+            byte[] bytes = serializer.serialize(changeSet, getSession());
+            UnitOfWorkChangeSet decoded = (UnitOfWorkChangeSet)new BinaryChangeSetSerializer().deserialize(bytes, getSession());
+            if (decoded.getAllChangeSets().size() != changeSet.getAllChangeSets().size()) {
+                throwError("The change set was not decoded by a session with the same project.");
+            }
+            try {
+                new BinaryChangeSetSerializer().deserialize(bytes, changedSession);
+                throwError("The change set was decoded by a session with a different project, compression threshold: " + compressionThreshold);
+            } catch (RemoteCommandManagerException expected) {
+                // The project hash of the header does not match.
+            }
+        }
+    }
+}
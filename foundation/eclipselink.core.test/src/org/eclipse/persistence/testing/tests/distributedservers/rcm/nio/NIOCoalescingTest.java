@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the 
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0 
+ * which accompanies this distribution. 
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at 
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.distributedservers.rcm.nio;
+
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.coordination.ProfileMessageSentCommand;
+import org.eclipse.persistence.sessions.coordination.RemoteCommandManager;
+import org.eclipse.persistence.sessions.coordination.nio.NIOTransportManager;
+import org.eclipse.persistence.testing.framework.TestCase;
+import org.eclipse.persistence.testing.framework.TestErrorException;
+
+/**
+ * Test that the commands propagated concurrently are coalesced into fewer frames than commands,
+ * and that all of the commands are sent.
+ */
+public class NIOCoalescingTest extends TestCase {
+    public static final int THREADS = 8;
+    public static final int COMMANDS = 100;
+
+    protected long frames;
+    protected long commands;
+    protected RuntimeException error;
+
+    public NIOCoalescingTest() {
+        setDescription("Test that commands propagated concurrently by the NIO transport are coalesced into frames.");
+    }
+
+    public void test() {
+        final RemoteCommandManager cm = (RemoteCommandManager)((AbstractSession)getSession()).getCommandManager();
+        NIOTransportManager transport = (NIOTransportManager)cm.getTransportManager();
+        if (transport.getConnectionsToExternalServices().isEmpty()) {
+            throw new TestErrorException("No connection to the distributed server.");
+        }
+        long framesBefore = transport.getFramesSent();
+        long commandsBefore = transport.getCommandsSent();
+        Thread[] threads = new Thread[THREADS];
+        for (int index = 0; index < THREADS; index++) {
+            threads[index] = new Thread() {
+                public void run() {
+                    try {
+                        for (int count = 0; count < COMMANDS; count++) {
+                            // Internal command, executing it has no effect on the distributed server.
+                            cm.propagateCommand(new ProfileMessageSentCommand());
+                        }
+                    } catch (RuntimeException exception) {
+                        error = exception;
+                    }
+                }
+            };
+            threads[index].start();
+        }
+        for (int index = 0; index < THREADS; index++) {
+            try {
+                threads[index].join();
+            } catch (InterruptedException exception) {
+                throw new TestErrorException("Interrupted", exception);
+            }
+        }
+        this.frames = transport.getFramesSent() - framesBefore;
+        this.commands = transport.getCommandsSent() - commandsBefore;
+    }
+
+    public void verify() {
+        if (this.error != null) {
+            throw new TestErrorException("Propagation failed: " + this.error, this.error);
+        }
+        if (this.commands < (THREADS * COMMANDS)) {
+            throw new TestErrorException("Expected " + (THREADS * COMMANDS) + " commands to be sent, but " + this.commands + " were sent.");
+        }
+        if (this.frames >= this.commands) {
+            throw new TestErrorException("Commands were not coalesced, " + this.commands + " commands were sent in " + this.frames + " frames.");
+        }
+    }
+}
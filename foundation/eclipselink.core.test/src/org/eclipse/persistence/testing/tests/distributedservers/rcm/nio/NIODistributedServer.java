@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the 
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0 
+ * which accompanies this distribution. 
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at 
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.distributedservers.rcm.nio;
+
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.platform.server.NoServerPlatform;
+import org.eclipse.persistence.sessions.DatabaseSession;
+import org.eclipse.persistence.sessions.coordination.RemoteCommandManager;
+import org.eclipse.persistence.testing.tests.distributedservers.DistributedServer;
+
+/**
+ * Distributed server using the NIO transport, each server is a separate session in the same JVM,
+ * listening on its own port of the local host.
+ */
+public class NIODistributedServer extends DistributedServer {
+    public NIODistributedServer(DatabaseSession session) {
+        super(session);
+    }
+
+    public void run() {
+        RemoteCommandManager cm = new RemoteCommandManager((AbstractSession)session);
+        NIODistributedServersModel.configure(cm);
+        // turn on cache sync with RCM
+        ((AbstractSession)session).setShouldPropagateChanges(true);
+        cm.setServerPlatform(new NoServerPlatform(new DatabaseSessionImpl()));
+        cm.initialize();
+    }
+
+    public void stopServer() {
+        ((AbstractSession)this.session).getCommandManager().shutdown();
+    }
+}
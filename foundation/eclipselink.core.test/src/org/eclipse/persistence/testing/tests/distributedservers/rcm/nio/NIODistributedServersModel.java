@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the 
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0 
+ * which accompanies this distribution. 
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at 
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.distributedservers.rcm.nio;
+
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.sessions.DatabaseSession;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.coordination.RemoteCommandManager;
+import org.eclipse.persistence.sessions.coordination.ServiceId;
+import org.eclipse.persistence.sessions.coordination.nio.NIOTransportManager;
+import org.eclipse.persistence.sessions.serializers.BinaryChangeSetSerializer;
+import org.eclipse.persistence.testing.tests.distributedservers.DistributedServer;
+import org.eclipse.persistence.testing.tests.distributedservers.rcm.RCMDistributedServersModel;
+
+/**
+ * Runs the RCM cache synchronization tests using the NIO transport.
+ * The servers are sessions in the same JVM, found through multicast discovery, so no registry is required.
+ */
+public class NIODistributedServersModel extends RCMDistributedServersModel {
+    public NIODistributedServersModel() {
+        setDescription("Tests cache synchronization with RCM using the NIO transport.");
+    }
+
+    /**
+     * Configure the command manager to use the NIO transport on any free port of the local host.
+     * The change sets are serialized using the binary change set serializer,
+     * the RMI model tests Java serialization.
+     */
+    public static void configure(RemoteCommandManager cm) {
+        cm.setTransportManager(new NIOTransportManager(cm));
+        // set propagate command synchronously for testing
+        cm.setShouldPropagateAsynchronously(false);
+        cm.getDiscoveryManager().setAnnouncementDelay(0);
+        cm.setUrl("nio://localhost:" + ServiceId.PORT_TOKEN);
+        cm.setSerializer(new BinaryChangeSetSerializer());
+    }
+
+    public DistributedServer createDistributedServer(Session session) {
+        return new NIODistributedServer((DatabaseSession)session);
+    }
+
+    public void addTests() {
+        super.addTests();
+        addTest(new NIOCoalescingTest());
+        addTest(new NIOFrameLengthTest());
+        addTest(new BinaryChangeSetProjectMismatchTest());
+    }
+
+    public boolean requiresRegistry() {
+        return false;
+    }
+
+    public void startCacheSynchronization() {
+        RemoteCommandManager cm = new RemoteCommandManager((AbstractSession)getSession());
+        configure(cm);
+        // turn on cache sync with RCM
+        ((AbstractSession)getSession()).setShouldPropagateChanges(true);
+        cm.setServerPlatform(((DatabaseSession)getSession()).getServerPlatform());
+
+        cm.initialize();
+        // Sleep to allow RCM to startup and find each session.
+        try {
+            Thread.sleep(2000);
+        } catch (Exception ignore) {
+        }
+    }
+}
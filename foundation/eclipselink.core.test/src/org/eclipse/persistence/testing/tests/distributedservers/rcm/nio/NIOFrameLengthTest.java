@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the 
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0 
+ * which accompanies this distribution. 
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at 
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.distributedservers.rcm.nio;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.sessions.coordination.RemoteCommandManager;
+import org.eclipse.persistence.sessions.coordination.nio.NIOTransportManager;
+import org.eclipse.persistence.testing.framework.TestCase;
+import org.eclipse.persistence.testing.framework.TestErrorException;
+
+/**
+ * Test that the listener closes a connection that sends a frame length larger than the max received frame size,
+ * without allocating a buffer for it, and keeps accepting connections.
+ */
+public class NIOFrameLengthTest extends TestCase {
+    public static final int TIMEOUT = 5000;
+
+    public NIOFrameLengthTest() {
+        setDescription("Test that the NIO listener rejects frames larger than the max received frame size.");
+    }
+
+    public void test() throws Exception {
+        RemoteCommandManager cm = (RemoteCommandManager)((AbstractSession)getSession()).getCommandManager();
+        NIOTransportManager transport = (NIOTransportManager)cm.getTransportManager();
+        InetSocketAddress address = transport.parseURL(cm.getUrl());
+        Socket socket = new Socket();
+        try {
+            socket.connect(address, TIMEOUT);
+            socket.setSoTimeout(TIMEOUT);
+            DataOutputStream stream = new DataOutputStream(socket.getOutputStream());
+            stream.writeInt(transport.getMaxReceivedFrameSize() + 1);
+            stream.flush();
+            if (socket.getInputStream().read() != -1) {
+                throw new TestErrorException("The connection sending an oversized frame was not closed.");
+            }
+        } finally {
+            socket.close();
+        }
+        // An empty frame is accepted, the listener is still running.
+        socket = new Socket();
+        try {
+            socket.connect(address, TIMEOUT);
+            DataOutputStream stream = new DataOutputStream(socket.getOutputStream());
+            stream.writeInt(4);
+            stream.writeInt(0);
+            stream.flush();
+        } catch (IOException exception) {
+            throw new TestErrorException("The listener stopped accepting connections.", exception);
+        } finally {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.feature;
+
+import java.util.*;
+
+import org.eclipse.persistence.internal.databaseaccess.*;
+import org.eclipse.persistence.sessions.SessionProfiler;
+import org.eclipse.persistence.sessions.SessionProfilerAdapter;
+import org.eclipse.persistence.sessions.UnitOfWork;
+import org.eclipse.persistence.testing.framework.*;
+import org.eclipse.persistence.testing.models.employee.domain.*;
+
+/**
+ * Test the average batch size reported to the profiler when the writes of a commit complete.
+ * The phone numbers do not use sequencing, so their inserts are the only statements of the commit,
+ * and are executed in two full batches and a partial batch.
+ */
+public class BatchWriteAverageSizeTest extends TransactionalTestCase {
+    protected static int NUM_INSERTS = 12;
+    protected static int BATCH_SIZE = 5;
+    protected boolean usesBatchWriting;
+    protected boolean usesJDBCBatchWriting;
+    protected boolean shouldBindAllParameters;
+    protected DatabaseAccessor accessor;
+    protected BatchWritingMechanism previousMechanism;
+    protected ParameterizedSQLBatchWritingMechanism mechanism;
+    protected int maxBatchSize;
+    protected boolean isBatchSizeAutoTuned;
+    protected SessionProfiler previousProfiler;
+    protected List<Object> averageSizes;
+
+    public BatchWriteAverageSizeTest() {
+        setDescription("Tests the average batch size reported for a commit.");
+    }
+
+    public void setup() {
+        super.setup();
+        DatabasePlatform platform = getSession().getPlatform();
+        this.usesBatchWriting = platform.usesBatchWriting();
+        this.usesJDBCBatchWriting = platform.usesJDBCBatchWriting();
+        this.shouldBindAllParameters = platform.shouldBindAllParameters();
+        platform.setUsesBatchWriting(true);
+        platform.setUsesJDBCBatchWriting(true);
+        platform.setShouldBindAllParameters(true);
+        this.accessor = (DatabaseAccessor)getAbstractSession().getAccessor();
+        this.previousMechanism = this.accessor.getActiveBatchWritingMechanism(getAbstractSession());
+        // Use the parameterized mechanism, which records the batch sizes.
+        this.accessor.setActiveBatchWritingMechanism(null);
+        BatchWritingMechanism active = this.accessor.getActiveBatchWritingMechanism(getAbstractSession());
+        if (!(active instanceof ParameterizedSQLBatchWritingMechanism)) {
+            throw new TestWarningException("The platform uses a custom batch writing mechanism.");
+        }
+        this.mechanism = (ParameterizedSQLBatchWritingMechanism)active;
+        this.maxBatchSize = this.mechanism.getMaxBatchSize();
+        this.isBatchSizeAutoTuned = this.mechanism.isBatchSizeAutoTuned();
+        this.mechanism.setMaxBatchSize(BATCH_SIZE);
+        this.mechanism.setIsBatchSizeAutoTuned(false);
+        // Clear the counts of previous batches.
+        this.mechanism.reportAverageBatchSize(getAbstractSession());
+        this.averageSizes = new ArrayList<Object>();
+        this.previousProfiler = getSession().getProfiler();
+        getSession().setProfiler(new SessionProfilerAdapter() {
+            public void update(String operationName, Object value) {
+                if (SessionProfiler.BatchWriteAverageSize.equals(operationName)) {
+                    averageSizes.add(value);
+                }
+            }
+        });
+    }
+
+    public void reset() {
+        getSession().setProfiler(this.previousProfiler);
+        super.reset();
+        this.mechanism.setMaxBatchSize(this.maxBatchSize);
+        this.mechanism.setIsBatchSizeAutoTuned(this.isBatchSizeAutoTuned);
+        this.accessor.setActiveBatchWritingMechanism(this.previousMechanism);
+        DatabasePlatform platform = getSession().getPlatform();
+        platform.setUsesBatchWriting(this.usesBatchWriting);
+        platform.setUsesJDBCBatchWriting(this.usesJDBCBatchWriting);
+        platform.setShouldBindAllParameters(this.shouldBindAllParameters);
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+    }
+
+    public void test() {
+        UnitOfWork uow = getSession().acquireUnitOfWork();
+        Employee employee = (Employee)uow.readObject(Employee.class);
+        for (int index = 0; index < NUM_INSERTS; index++) {
+            PhoneNumber phone = new PhoneNumber("Batch" + index, "613", "5551234");
+            phone.setOwner(employee);
+            uow.registerObject(phone);
+        }
+        uow.commit();
+        // 12 inserts in batches of 5, 5 and 2.
+        List<Object> expected = new ArrayList<Object>();
+        expected.add(Double.valueOf(4.0));
+        if (!expected.equals(this.averageSizes)) {
+            throwError("Expected the average batch size: " + expected + " but was: " + this.averageSizes);
+        }
+    }
+}
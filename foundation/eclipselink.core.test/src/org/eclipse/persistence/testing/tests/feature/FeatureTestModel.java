@@ -32,7 +32,9 @@ import org.eclipse.persistence.testing.tests.expressions.ExpressionUnitTestSuite
 import org.eclipse.persistence.testing.tests.identitymaps.IdentityMapTestSuite;
 import org.eclipse.persistence.testing.tests.transactions.ReadingThroughWriteConnectionInTransactionTest;
 import org.eclipse.persistence.testing.tests.transactions.TransactionTestSuite;
+import org.eclipse.persistence.testing.tests.writing.CommitOrderByTableTest;
 import org.eclipse.persistence.testing.tests.writing.CommitOrderTest;
+import org.eclipse.persistence.testing.tests.writing.CommitPlanTest;
 import org.eclipse.persistence.testing.models.employee.relational.EmployeeSystem;
 import org.eclipse.persistence.testing.tests.sessioncache.SessionCacheTestSuite;
 
@@ -114,6 +116,8 @@ public class FeatureTestModel extends TestModel {
         addTest(new SessionCacheTestSuite());
         addTest(getSessionAPITestSuite());
         addTest(new CommitOrderTest());
+        addTest(new CommitOrderByTableTest());
+        addTest(new CommitPlanTest());
     }
 
     //SRG test set is maintained by QA only, do NOT add any new tests into it.
@@ -243,6 +247,8 @@ public class FeatureTestModel extends TestModel {
         suite.addTest(new GermanUmlautsWriteTest());
         suite.addTest(new ReconnectFlushStatementCacheTest());
         suite.addTest(new TransactionIsolationTest());
+        suite.addTest(new FetchSizeTuningTest());
+        suite.addTest(new LazyDescriptorInitializationTest());
         suite.addTest(new SessionIsConnectedFlagTest());
         suite.addTest(new ContainerIndirectionPolicySerializationTest());
 
@@ -291,6 +297,7 @@ public class FeatureTestModel extends TestModel {
         suite.addTest(new SequencingConcurrencyTest(7, 100, true, false));
         suite.addTest(new SequencingConcurrencyTest(7, 100, true, false, 2));
         suite.addTest(new SequencingConcurrencyTest(7, 100, true, true));
+        suite.addTest(new SequencePreallocationRefillTest());
         suite.addTest(new SequencingRollbackTest(true));
         suite.addTest(new SequencingRollbackTest(false));
         suite.addTest(new SequenceStringPKInsertTest());
@@ -0,0 +1,246 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.feature;
+
+import java.lang.reflect.*;
+import java.sql.*;
+import java.util.*;
+
+import org.eclipse.persistence.internal.databaseaccess.*;
+import org.eclipse.persistence.queries.*;
+import org.eclipse.persistence.services.RuntimeServices;
+import org.eclipse.persistence.services.mbean.MBeanRuntimeServices;
+import org.eclipse.persistence.testing.framework.*;
+import org.eclipse.persistence.testing.models.employee.domain.*;
+
+/**
+ * Test the fetch size auto-tuning of the FetchSizeTuner.
+ * Verify the fetch size learned from the result sizes, and its max fetch size and memory budget caps,
+ * that queries with their own fetch size, one row reads and cursors are not tuned,
+ * that a cached statement is reset to the driver's default when its SQL is no longer tuned,
+ * and the tuning statistics of the RuntimeServices.
+ */
+public class FetchSizeTuningTest extends TestCase {
+    protected FetchSizeTuner previousTuner;
+    protected boolean shouldBindAllParameters;
+    protected boolean shouldCacheAllStatements;
+    protected FetchSizeTuner tuner;
+
+    public FetchSizeTuningTest() {
+        setDescription("Tests the fetch size learned for select statements from the size of their results.");
+    }
+
+    public void setup() {
+        DatabasePlatform platform = getSession().getPlatform();
+        this.previousTuner = platform.getFetchSizeTuner();
+        this.shouldBindAllParameters = platform.shouldBindAllParameters();
+        this.shouldCacheAllStatements = platform.shouldCacheAllStatements();
+        this.tuner = new FetchSizeTuner();
+        platform.setFetchSizeTuner(this.tuner);
+        // Cache the statements, so the fetch size of a reused statement can be checked.
+        platform.setShouldBindAllParameters(true);
+        platform.setShouldCacheAllStatements(true);
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+    }
+
+    public void reset() {
+        DatabasePlatform platform = getSession().getPlatform();
+        platform.setFetchSizeTuner(this.previousTuner);
+        platform.setShouldBindAllParameters(this.shouldBindAllParameters);
+        platform.setShouldCacheAllStatements(this.shouldCacheAllStatements);
+        ((DatabaseAccessor)getAbstractSession().getAccessor()).clearStatementCache(getAbstractSession());
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+        this.tuner = null;
+    }
+
+    /**
+     * Return result set meta data with the number of columns of the display size.
+     */
+    protected ResultSetMetaData buildMetaData(final int columns, final int displaySize) {
+        return (ResultSetMetaData)Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] {ResultSetMetaData.class}, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] arguments) {
+                if (method.getName().equals("getColumnCount")) {
+                    return Integer.valueOf(columns);
+                } else if (method.getName().equals("getColumnDisplaySize")) {
+                    return Integer.valueOf(displaySize);
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    protected void checkFetchSize(FetchSizeTuner tuner, String sqlString, int expected) {
+        int fetchSize = tuner.getFetchSize(sqlString);
+        if (fetchSize != expected) {
+            throwError("The fetch size of " + sqlString + " expected: " + expected + " but was: " + fetchSize);
+        }
+    }
+
+    /**
+     * Return the number of times the SQL string's results were recorded.
+     */
+    protected long getExecutions(FetchSizeTuner tuner, String sqlString) {
+        for (Object[] row : tuner.getSummary()) {
+            if (row[0].equals(sqlString)) {
+                return ((Long)row[1]).longValue();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Return the cached statement of the SQL string.
+     */
+    protected Statement getCachedStatement(String sqlString) {
+        try {
+            Method method = DatabaseAccessor.class.getDeclaredMethod("getStatementCache", new Class[] { });
+            method.setAccessible(true);
+            Map statementCache = (Map)method.invoke(getAbstractSession().getAccessor(), new Object[] { });
+            return (Statement)statementCache.get(sqlString);
+        } catch (Exception exception) {
+            throw new TestErrorException("Failed to access the statement cache. Check java.policy file \"SupressAccessChecks\" permission required: " + exception);
+        }
+    }
+
+    public void test() throws Exception {
+        testLearnedFetchSize();
+        testQueries();
+        testRuntimeServices();
+    }
+
+    /**
+     * Test the fetch size learned from the recorded result sizes.
+     */
+    protected void testLearnedFetchSize() throws Exception {
+        FetchSizeTuner tuner = new FetchSizeTuner();
+        // The average result and the row after it are read in one round trip.
+        tuner.recordResultSize("learned", 100, buildMetaData(2, 10));
+        checkFetchSize(tuner, "learned", 101);
+        tuner.recordResultSize("learned", 200, buildMetaData(2, 10));
+        checkFetchSize(tuner, "learned", 151);
+        // Small results use the driver's default.
+        tuner.recordResultSize("small", 5, buildMetaData(2, 10));
+        checkFetchSize(tuner, "small", 0);
+        checkFetchSize(tuner, "unknown", 0);
+        // The max fetch size caps the fetch size.
+        tuner.setMaxFetchSize(50);
+        tuner.recordResultSize("max", 100, buildMetaData(2, 10));
+        checkFetchSize(tuner, "max", 50);
+        tuner.setMaxFetchSize(FetchSizeTuner.DEFAULT_MAX_FETCH_SIZE);
+        // The memory budget caps the fetch size by the row width, columns of unknown size use the default width of 16.
+        tuner.setMemoryBudget(40 * 30);
+        tuner.recordResultSize("budget", 100, buildMetaData(2, 20));
+        checkFetchSize(tuner, "budget", 30);
+        tuner.recordResultSize("unknownWidth", 100, buildMetaData(2, 0));
+        checkFetchSize(tuner, "unknownWidth", 37);
+        // Rows wider than the budget use the driver's default.
+        tuner.recordResultSize("wide", 100, buildMetaData(1, 2000));
+        checkFetchSize(tuner, "wide", 0);
+        tuner.clear();
+        checkFetchSize(tuner, "learned", 0);
+        if (tuner.getSummary().length != 0) {
+            throwError("The statistics were not cleared.");
+        }
+    }
+
+    /**
+     * Test the fetch size tuning of queries executed on the session.
+     */
+    protected void testQueries() throws Exception {
+        ReadAllQuery query = new ReadAllQuery(Employee.class);
+        List employees = (List)getSession().executeQuery(query);
+        String sqlString = query.getSQLString();
+        if (getExecutions(this.tuner, sqlString) != 1) {
+            throwError("The result size of the read all query was not recorded: " + Arrays.deepToString(this.tuner.getSummary()));
+        }
+        int expected = employees.size() + 1;
+        if (expected <= FetchSizeTuner.MIN_FETCH_SIZE) {
+            throw new TestWarningException("Not enough employees to tune the fetch size.");
+        }
+        checkFetchSize(this.tuner, sqlString, expected);
+
+        // The learned fetch size is set on the statement.
+        getSession().executeQuery(query);
+        Statement statement = getCachedStatement(sqlString);
+        if (statement == null) {
+            throwError("The read all statement was not cached.");
+        }
+        if (statement.getFetchSize() != expected) {
+            throwError("The statement fetch size expected: " + expected + " but was: " + statement.getFetchSize());
+        }
+
+        // A query with its own fetch size is not tuned.
+        ReadAllQuery fetchSizeQuery = new ReadAllQuery(Employee.class);
+        fetchSizeQuery.setFetchSize(5);
+        getSession().executeQuery(fetchSizeQuery);
+        // A cursor is not tuned, as it may not be fully read.
+        ReadAllQuery cursorQuery = new ReadAllQuery(Employee.class);
+        cursorQuery.useScrollableCursor();
+        ((ScrollableCursor)getSession().executeQuery(cursorQuery)).close();
+        if (getExecutions(this.tuner, sqlString) != 2) {
+            throwError("A query with a fetch size or a cursor was recorded: " + Arrays.deepToString(this.tuner.getSummary()));
+        }
+        // A one row read is not tuned.
+        ReadObjectQuery readObjectQuery = new ReadObjectQuery(Employee.class);
+        readObjectQuery.setSelectionCriteria(readObjectQuery.getExpressionBuilder().get("id").equal(((Employee)employees.get(0)).getId()));
+        readObjectQuery.dontCheckCache();
+        getSession().executeQuery(readObjectQuery);
+        if (this.tuner.getSummary().length != 1) {
+            throwError("The one row read was recorded: " + Arrays.deepToString(this.tuner.getSummary()));
+        }
+
+        // When the SQL is no longer tuned, its cached statement is reset to the driver's default.
+        this.tuner.setMemoryBudget(1);
+        getSession().executeQuery(query);
+        checkFetchSize(this.tuner, sqlString, 0);
+        getSession().executeQuery(query);
+        if (getCachedStatement(sqlString) != statement) {
+            throwError("The read all statement was not reused.");
+        }
+        if (statement.getFetchSize() != 0) {
+            throwError("The reused statement fetch size was not reset to the default, but was: " + statement.getFetchSize());
+        }
+        this.tuner.setMemoryBudget(FetchSizeTuner.DEFAULT_MEMORY_BUDGET);
+    }
+
+    /**
+     * Test the fetch size statistics of the runtime services.
+     */
+    protected void testRuntimeServices() {
+        RuntimeServices services = new MBeanRuntimeServices(getSession());
+        String sqlString = this.tuner.getSummary()[0][0].toString();
+        if (!services.getShouldAutoTuneFetchSize()) {
+            throwError("The runtime services do not report the fetch size auto-tuning.");
+        }
+        if (services.getFetchSizeSummary().length != this.tuner.getSummary().length) {
+            throwError("The runtime services summary does not match the tuner's statistics.");
+        }
+        if (services.getTunedFetchSize(sqlString).intValue() != this.tuner.getFetchSize(sqlString)) {
+            throwError("The runtime services fetch size does not match the tuner's fetch size.");
+        }
+        services.setFetchSizeMemoryBudget(5000);
+        if ((this.tuner.getMemoryBudget() != 5000) || (services.getFetchSizeMemoryBudget().intValue() != 5000)) {
+            throwError("The memory budget was not set through the runtime services.");
+        }
+        services.resetFetchSizeStatistics();
+        if (services.getFetchSizeSummary().length != 0) {
+            throwError("The statistics were not reset through the runtime services.");
+        }
+
+        getSession().getPlatform().setFetchSizeTuner(null);
+        if (services.getShouldAutoTuneFetchSize() || (services.getFetchSizeSummary() != null)
+                || (services.getTunedFetchSize(sqlString) != null) || (services.getFetchSizeMemoryBudget() != null)) {
+            throwError("The runtime services report fetch size auto-tuning when it is not used.");
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.feature;
+
+import java.io.StringWriter;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.sessions.*;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.SessionProfiler;
+import org.eclipse.persistence.sessions.SessionProfilerAdapter;
+import org.eclipse.persistence.testing.framework.*;
+import org.eclipse.persistence.testing.models.employee.domain.*;
+import org.eclipse.persistence.testing.models.employee.relational.EmployeeProject;
+import org.eclipse.persistence.testing.models.interfaces.Contact;
+import org.eclipse.persistence.testing.models.interfaces.Email;
+import org.eclipse.persistence.testing.models.interfaces.InterfaceWithoutTablesProject;
+import org.eclipse.persistence.tools.schemaframework.SchemaManager;
+
+/**
+ * Test the initialization of descriptors on their first use.
+ * Verify that a descriptor is initialized with the descriptors it references, its inheritance tree and the implementors of an interface,
+ * that threads accessing a descriptor for the first time concurrently all get it initialized, and it is initialized once,
+ * that the commit order includes the descriptors of each initialized batch,
+ * that generating DDL initializes all descriptors, and the number of initialized descriptors reported to the profiler.
+ * The sessions of the test are not connected, only their descriptors are initialized.
+ */
+public class LazyDescriptorInitializationTest extends TestCase {
+    protected static int NUM_THREADS = 8;
+
+    public LazyDescriptorInitializationTest() {
+        setDescription("Tests that descriptors initialized on their first use are initialized with their dependencies.");
+    }
+
+    /**
+     * Return a new session of the project, with its descriptors initialized lazily.
+     */
+    protected DatabaseSessionImpl initializeDescriptors(Project project) {
+        DatabaseSessionImpl session = new DatabaseSessionImpl(project);
+        session.setShouldInitializeDescriptorsLazily(true);
+        session.initializeDescriptors();
+        if (session.getLazyDescriptorInitializer() == null) {
+            throwError("The descriptors were not initialized lazily.");
+        }
+        return session;
+    }
+
+    /**
+     * Return the descriptor of the class, without initializing it.
+     */
+    protected ClassDescriptor getDescriptor(DatabaseSessionImpl session, Class theClass) {
+        return session.getProject().getDescriptors().get(theClass);
+    }
+
+    protected void checkInitialized(DatabaseSessionImpl session, Class theClass, boolean isInitialized) {
+        ClassDescriptor descriptor = getDescriptor(session, theClass);
+        if (session.getLazyDescriptorInitializer().isPending(descriptor) == isInitialized) {
+            throwError("The " + theClass.getName() + " descriptor was " + (isInitialized ? "not " : "") + "initialized.");
+        }
+        if (descriptor.isFullyInitialized() != isInitialized) {
+            throwError("The " + theClass.getName() + " descriptor was " + (isInitialized ? "not " : "") + "fully initialized.");
+        }
+    }
+
+    public void test() throws Exception {
+        testFirstAccess();
+        testInterfaceImplementors();
+        testConcurrentFirstAccess();
+        testCommitOrder();
+        testSchemaManager();
+        testProfiler();
+    }
+
+    /**
+     * Test that accessing a descriptor initializes its references and inheritance tree, and not the other descriptors.
+     */
+    protected void testFirstAccess() {
+        DatabaseSessionImpl session = initializeDescriptors(new EmployeeProject());
+        LazyDescriptorInitializer initializer = session.getLazyDescriptorInitializer();
+        int pendingCount = initializer.getPendingCount();
+        checkInitialized(session, Address.class, false);
+        checkInitialized(session, Employee.class, false);
+        // Aggregates are initialized at login.
+        if (initializer.isPending(getDescriptor(session, EmploymentPeriod.class))) {
+            throwError("The aggregate descriptor was not initialized at login.");
+        }
+
+        // The address does not reference other descriptors.
+        ClassDescriptor descriptor = session.getDescriptorForAlias("Address");
+        if ((descriptor != getDescriptor(session, Address.class)) || !descriptor.isFullyInitialized()) {
+            throwError("The address descriptor was not initialized by its alias.");
+        }
+        checkInitialized(session, Employee.class, false);
+        if ((initializer.getInitializedCount() != 1) || (initializer.getBatchCount() != 1) || (initializer.getPendingCount() != pendingCount - 1)) {
+            throwError("Only the address descriptor should be initialized, but initialized: " + initializer.getInitializedCount());
+        }
+
+        // The small project initializes its parent and sibling, and the team leader's references.
+        descriptor = session.getDescriptor(SmallProject.class);
+        if (!descriptor.isFullyInitialized()) {
+            throwError("The small project descriptor was not initialized.");
+        }
+        checkInitialized(session, org.eclipse.persistence.testing.models.employee.domain.Project.class, true);
+        checkInitialized(session, LargeProject.class, true);
+        checkInitialized(session, Employee.class, true);
+        checkInitialized(session, PhoneNumber.class, true);
+        if (initializer.getBatchCount() != 2) {
+            throwError("The dependencies were not initialized in one batch, batches: " + initializer.getBatchCount());
+        }
+        if (session.getDescriptor(Employee.class).getMappingForAttributeName("address").getReferenceDescriptor() != getDescriptor(session, Address.class)) {
+            throwError("The employee's address mapping was not initialized.");
+        }
+        // Accessing an initialized descriptor does not initialize a batch.
+        session.getDescriptor(Employee.class);
+        if (initializer.getBatchCount() != 2) {
+            throwError("An initialized descriptor was initialized again.");
+        }
+    }
+
+    /**
+     * Test that accessing an interface descriptor initializes its implementors, and an implementor initializes the interfaces it references.
+     */
+    protected void testInterfaceImplementors() {
+        DatabaseSessionImpl session = initializeDescriptors(new InterfaceWithoutTablesProject());
+        checkInitialized(session, Email.class, false);
+        checkInitialized(session, org.eclipse.persistence.testing.models.interfaces.Phone.class, false);
+        checkInitialized(session, org.eclipse.persistence.testing.models.interfaces.Employee.class, false);
+        session.getDescriptor(Contact.class);
+        checkInitialized(session, Email.class, true);
+        checkInitialized(session, org.eclipse.persistence.testing.models.interfaces.Phone.class, true);
+        // The contacts reference their holder interface, which the employee implements.
+        checkInitialized(session, org.eclipse.persistence.testing.models.interfaces.Employee.class, true);
+        checkInitialized(session, org.eclipse.persistence.testing.models.interfaces.Company.class, true);
+        int batchCount = session.getLazyDescriptorInitializer().getBatchCount();
+        session.getDescriptor(Contact.class);
+        if (session.getLazyDescriptorInitializer().getBatchCount() != batchCount) {
+            throwError("Accessing an interface with initialized implementors initialized a batch.");
+        }
+    }
+
+    /**
+     * Test that threads accessing a descriptor for the first time at the same time all get it fully initialized.
+     */
+    protected void testConcurrentFirstAccess() throws Exception {
+        final DatabaseSessionImpl session = initializeDescriptors(new EmployeeProject());
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<String> errors = Collections.synchronizedList(new ArrayList<String>());
+        Thread[] threads = new Thread[NUM_THREADS];
+        for (int index = 0; index < NUM_THREADS; index++) {
+            // Half of the threads access the employee, the others a project, in the same batch.
+            final Class theClass = ((index % 2) == 0) ? Employee.class : LargeProject.class;
+            threads[index] = new Thread() {
+                public void run() {
+                    try {
+                        start.await();
+                        ClassDescriptor descriptor = session.getDescriptor(theClass);
+                        if (!descriptor.isFullyInitialized()) {
+                            errors.add("The " + theClass.getName() + " descriptor was not fully initialized.");
+                        } else if (!getDescriptor(session, PhoneNumber.class).isFullyInitialized()) {
+                            errors.add("The descriptor was returned before its dependencies were initialized.");
+                        }
+                    } catch (Throwable error) {
+                        errors.add(error.toString());
+                    }
+                }
+            };
+            threads[index].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (!errors.isEmpty()) {
+            throwError("Concurrent first access failed: " + errors);
+        }
+        if (session.getLazyDescriptorInitializer().getBatchCount() != 1) {
+            throwError("The descriptors were initialized in " + session.getLazyDescriptorInitializer().getBatchCount() + " batches, expected 1.");
+        }
+    }
+
+    /**
+     * Test that the commit order includes the descriptors once they are initialized, in the order of their references.
+     */
+    protected void testCommitOrder() {
+        DatabaseSessionImpl session = initializeDescriptors(new EmployeeProject());
+        List<Class> commitOrder = session.getCommitManager().getCommitOrder();
+        if (commitOrder.contains(Employee.class) || commitOrder.contains(Address.class)) {
+            throwError("The commit order contains pending descriptors: " + commitOrder);
+        }
+        session.getDescriptor(Employee.class);
+        commitOrder = session.getCommitManager().getCommitOrder();
+        int addressIndex = commitOrder.indexOf(Address.class);
+        int employeeIndex = commitOrder.indexOf(Employee.class);
+        int phoneIndex = commitOrder.indexOf(PhoneNumber.class);
+        if ((addressIndex == -1) || (employeeIndex == -1) || (phoneIndex == -1)) {
+            throwError("The commit order does not contain the initialized descriptors: " + commitOrder);
+        }
+        if ((addressIndex > employeeIndex) || (employeeIndex > phoneIndex)) {
+            throwError("The commit order does not follow the references of the initialized descriptors: " + commitOrder);
+        }
+    }
+
+    /**
+     * Test that generating the DDL initializes all descriptors, so all tables are generated.
+     */
+    protected void testSchemaManager() {
+        DatabaseSessionImpl session = initializeDescriptors(new EmployeeProject());
+        session.getDescriptor(Address.class);
+        SchemaManager manager = new SchemaManager(session);
+        StringWriter writer = new StringWriter();
+        manager.outputDDLToWriter(writer);
+        manager.createDefaultTables(false);
+        if (session.getLazyDescriptorInitializer().getPendingCount() != 0) {
+            throwError("Generating the DDL did not initialize all descriptors.");
+        }
+        String ddl = writer.toString();
+        if ((ddl.indexOf("EMPLOYEE") == -1) || (ddl.indexOf("PHONE") == -1)) {
+            throwError("The tables of the pending descriptors were not generated: " + ddl);
+        }
+    }
+
+    /**
+     * Test the number of initialized descriptors reported to the profiler for each batch.
+     */
+    protected void testProfiler() {
+        DatabaseSessionImpl session = initializeDescriptors(new EmployeeProject());
+        final List<Object> initializedCounts = new ArrayList<Object>();
+        session.setProfiler(new SessionProfilerAdapter() {
+            public void update(String operationName, Object value) {
+                if (SessionProfiler.InitializedDescriptors.equals(operationName)) {
+                    initializedCounts.add(value);
+                }
+            }
+        });
+        LazyDescriptorInitializer initializer = session.getLazyDescriptorInitializer();
+        int descriptorsCount = initializer.getDescriptorsCount();
+        int initializedAtLogin = descriptorsCount - initializer.getPendingCount();
+        session.getDescriptor(Address.class);
+        initializer.initializeAll();
+        // Initializing all when none are pending does not report.
+        initializer.initializeAll();
+        List<Object> expected = new ArrayList<Object>();
+        expected.add(Integer.valueOf(initializedAtLogin + 1));
+        expected.add(Integer.valueOf(descriptorsCount));
+        if (!expected.equals(initializedCounts)) {
+            throwError("Expected the initialized descriptors: " + expected + " but was: " + initializedCounts);
+        }
+        if ((initializer.getInitializedCount() != descriptorsCount - initializedAtLogin) || (initializer.getBatchCount() != 2)) {
+            throwError("The initialized count: " + initializer.getInitializedCount() + " or batch count: " + initializer.getBatchCount() + " is wrong.");
+        }
+    }
+}
@@ -61,5 +61,7 @@ public class ParameterizedBatchUpdatesTestModel extends TopLinkBatchUpdatesTestM
     public void addTests() {
         super.addTests();
         addTest(new CacheStatementBatchWritingTest());
+        addTest(new PipelinedBatchWritingTest());
+        addTest(new BatchWriteAverageSizeTest());
     }
 }
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.feature;
+
+import java.util.List;
+
+import org.eclipse.persistence.exceptions.OptimisticLockException;
+import org.eclipse.persistence.expressions.ExpressionBuilder;
+import org.eclipse.persistence.internal.databaseaccess.*;
+import org.eclipse.persistence.queries.SQLCall;
+import org.eclipse.persistence.sessions.UnitOfWork;
+import org.eclipse.persistence.testing.framework.*;
+import org.eclipse.persistence.testing.models.employee.domain.*;
+
+/**
+ * Test pipelined batch writing, where each full batch is executed asynchronously.
+ * Verify that every batched row is inserted, and that an optimistic lock failure
+ * in a batch is thrown from the commit.
+ */
+public class PipelinedBatchWritingTest extends TransactionalTestCase {
+    protected static int NUM_INSERTS = 23;
+    protected static int BATCH_SIZE = 5;
+    protected boolean usesBatchWriting;
+    protected boolean usesJDBCBatchWriting;
+    protected boolean shouldBindAllParameters;
+    protected int maxBatchWritingSize;
+    protected DatabaseAccessor accessor;
+    protected BatchWritingMechanism previousMechanism;
+    protected PipelinedSQLBatchWritingMechanism mechanism;
+
+    public PipelinedBatchWritingTest() {
+        setDescription("Tests pipelined batch writing row counts and optimistic lock failures.");
+    }
+
+    public void setup() {
+        super.setup();
+        DatabasePlatform platform = getSession().getPlatform();
+        this.usesBatchWriting = platform.usesBatchWriting();
+        this.usesJDBCBatchWriting = platform.usesJDBCBatchWriting();
+        this.shouldBindAllParameters = platform.shouldBindAllParameters();
+        this.maxBatchWritingSize = platform.getMaxBatchWritingSize();
+        platform.setUsesBatchWriting(true);
+        platform.setUsesJDBCBatchWriting(true);
+        platform.setShouldBindAllParameters(true);
+        platform.setMaxBatchWritingSize(BATCH_SIZE);
+        this.accessor = (DatabaseAccessor)getAbstractSession().getAccessor();
+        this.previousMechanism = this.accessor.getActiveBatchWritingMechanism(getAbstractSession());
+        this.mechanism = new PipelinedSQLBatchWritingMechanism(this.accessor);
+        this.accessor.setActiveBatchWritingMechanism(this.mechanism);
+    }
+
+    public void reset() {
+        super.reset();
+        this.accessor.setActiveBatchWritingMechanism(this.previousMechanism);
+        DatabasePlatform platform = getSession().getPlatform();
+        platform.setUsesBatchWriting(this.usesBatchWriting);
+        platform.setUsesJDBCBatchWriting(this.usesJDBCBatchWriting);
+        platform.setShouldBindAllParameters(this.shouldBindAllParameters);
+        platform.setMaxBatchWritingSize(this.maxBatchWritingSize);
+    }
+
+    public void test() {
+        // Insert several full batches, the last partial batch is executed on commit.
+        UnitOfWork uow = getSession().acquireUnitOfWork();
+        for (int index = 0; index < NUM_INSERTS; index++) {
+            Address address = new Address();
+            address.setCity("Pipelined" + index);
+            address.setProvince("ON");
+            uow.registerObject(address);
+        }
+        uow.commit();
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+        ExpressionBuilder builder = new ExpressionBuilder();
+        List addresses = getSession().readAllObjects(Address.class, builder.get("city").like("Pipelined%"));
+        if (addresses.size() != NUM_INSERTS) {
+            throwError("Expected " + NUM_INSERTS + " inserted rows, but found " + addresses.size());
+        }
+
+        List employees = getSession().readAllObjects(Employee.class);
+        if (employees.size() <= BATCH_SIZE) {
+            throw new TestWarningException("Not enough employees to fill a batch.");
+        }
+        // Make one of the employees stale, the non parameterized update switches to dynamic batching,
+        // so flush it and switch back.
+        Employee stale = (Employee)employees.get(employees.size() / 2);
+        getAbstractSession().executeNonSelectingCall(new SQLCall("UPDATE EMPLOYEE SET VERSION = VERSION + 1 WHERE EMP_ID = " + stale.getId()));
+        this.accessor.getActiveBatchWritingMechanism(getAbstractSession()).executeBatchedStatements(getAbstractSession());
+        this.accessor.setActiveBatchWritingMechanism(this.mechanism);
+
+        uow = getSession().acquireUnitOfWork();
+        for (Object employee : employees) {
+            Employee clone = (Employee)uow.registerObject(employee);
+            clone.setFirstName(clone.getFirstName() + "P");
+        }
+        try {
+            uow.commit();
+        } catch (OptimisticLockException expected) {
+            return;
+        }
+        throwError("The optimistic lock failure in the batch was not thrown from the commit.");
+    }
+}
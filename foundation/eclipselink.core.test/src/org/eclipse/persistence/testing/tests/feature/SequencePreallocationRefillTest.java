@@ -0,0 +1,266 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.feature;
+
+import java.util.*;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.persistence.internal.databaseaccess.Accessor;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.platform.server.ServerPlatformBase;
+import org.eclipse.persistence.sequencing.PreallocationStatistics;
+import org.eclipse.persistence.sequencing.Sequence;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.server.ConnectionPool;
+import org.eclipse.persistence.sessions.server.Server;
+import org.eclipse.persistence.testing.framework.*;
+import org.eclipse.persistence.testing.models.employee.domain.Employee;
+
+/**
+ * Test the background refill of the preallocated sequence values of a ServerSession using a sequence connection pool.
+ * Verify that the refill is launched once the preallocated values fall to the refill threshold,
+ * that only one refill of the sequence is launched at a time, that only allocations by an inserting thread are counted as stalls,
+ * and that if the refill cannot be launched or fails, the inserting thread allocates the values.
+ * The refills are run on threads of the test's thread pool, so the test can wait for them, or make them fail.
+ */
+public class SequencePreallocationRefillTest extends TestCase {
+    protected static int REFILL_THRESHOLD = 50;
+    protected Server server;
+    protected RefillExecutor executor;
+    protected Sequence sequence;
+    protected String sequenceName;
+    protected int threshold;
+    protected Set<Object> values;
+
+    public SequencePreallocationRefillTest() {
+        setDescription("Tests the background refill of preallocated sequence values.");
+    }
+
+    public void setup() {
+        if (getAbstractSession().getDescriptor(Employee.class).getSequence().shouldAcquireValueAfterInsert()) {
+            throw new TestWarningException("Not a valid test against databases where the native sequencing is done entirely in the database.");
+        }
+        this.server = new Project(getSession().getDatasourceLogin().clone()).createServerSession(2, 2);
+        this.server.addDescriptors(new org.eclipse.persistence.testing.models.employee.relational.EmployeeProject());
+        this.server.getSequencingControl().setShouldUseSeparateConnection(true);
+        this.server.getSequencingControl().setMinPoolSize(2);
+        this.server.getSequencingControl().setMaxPoolSize(2);
+        this.server.setSessionLog(getSession().getSessionLog());
+        this.executor = new RefillExecutor();
+        ((ServerPlatformBase)this.server.getServerPlatform()).setThreadPool(this.executor);
+        this.server.login();
+        this.server.getSequencingControl().setPreallocationRefillThreshold(REFILL_THRESHOLD);
+        this.sequence = this.server.getDescriptor(Employee.class).getSequence();
+        this.sequenceName = this.server.getDescriptor(Employee.class).getSequenceNumberName();
+        if (this.sequence.getPreallocationSize() < 4) {
+            throw new TestWarningException("The preallocation size is too small to refill in the background.");
+        }
+        this.threshold = (this.sequence.getPreallocationSize() * REFILL_THRESHOLD) / 100;
+        this.values = new HashSet<Object>();
+    }
+
+    public void reset() {
+        if ((this.server != null) && this.server.isConnected()) {
+            this.server.logout();
+        }
+        this.server = null;
+        this.executor = null;
+        this.values = null;
+    }
+
+    /**
+     * Return the next value of the sequence, and check it was not returned before.
+     */
+    protected Object nextValue() {
+        Object value = ((AbstractSession)this.server).getSequencing().getNextValue(Employee.class);
+        if (!this.values.add(value)) {
+            throwError("Sequence value returned twice: " + value);
+        }
+        return value;
+    }
+
+    /**
+     * Consume the preallocated values until the number remaining is reached,
+     * checking that a refill is not launched while above the refill threshold.
+     */
+    protected void consume(int preallocated, int remaining) {
+        int launched = this.executor.getLaunched();
+        while (preallocated > remaining) {
+            nextValue();
+            preallocated--;
+            if ((preallocated > this.threshold) && (this.executor.getLaunched() != launched)) {
+                throwError("Refill launched with " + preallocated + " preallocated values, above the threshold of " + this.threshold);
+            }
+        }
+    }
+
+    /**
+     * Return the statistics of the sequence.
+     */
+    protected PreallocationStatistics getStatistics() {
+        return this.server.getSequencingControl().getPreallocationStatistics(this.sequenceName);
+    }
+
+    protected void checkStatistics(String state, long allocations, long backgroundAllocations, long stalls) {
+        PreallocationStatistics statistics = getStatistics();
+        if ((statistics.getAllocations() != allocations) || (statistics.getBackgroundAllocations() != backgroundAllocations)
+                || (statistics.getStalls() != stalls)) {
+            throwError(state + " expected allocations: " + allocations + " background allocations: " + backgroundAllocations
+                    + " stalls: " + stalls + " but was: " + statistics);
+        }
+    }
+
+    public void test() {
+        int size = this.sequence.getPreallocationSize();
+
+        // The first value is allocated by the inserting thread, which is a stall.
+        nextValue();
+        checkStatistics("First value", 1, 0, 1);
+        consume(size - 1, this.threshold);
+        if (this.executor.getLaunched() != 1) {
+            throwError("Refill not launched once the threshold was reached, launched: " + this.executor.getLaunched());
+        }
+
+        // Values consumed below the threshold while the refill runs, or after it, do not launch another refill.
+        for (int index = this.threshold; index > 1; index--) {
+            nextValue();
+        }
+        this.executor.waitForRefills();
+        if (this.executor.getLaunched() != 1) {
+            throwError("More than one refill launched for the sequence: " + this.executor.getLaunched());
+        }
+        checkStatistics("Background refill", 2, 1, 1);
+
+        // The refilled values are returned without the inserting thread allocating.
+        for (int index = 0; index < size; index++) {
+            nextValue();
+        }
+        this.executor.waitForRefills();
+        PreallocationStatistics statistics = getStatistics();
+        if (statistics.getStalls() != 1) {
+            throwError("Inserting thread stalled on refilled values: " + statistics);
+        }
+
+        // If the refill cannot be launched, the inserting thread allocates the values once none remain.
+        this.server.getSequencingControl().initializePreallocated();
+        long allocations = statistics.getAllocations();
+        long backgroundAllocations = statistics.getBackgroundAllocations();
+        nextValue();
+        checkStatistics("After initialize", allocations + 1, backgroundAllocations, 2);
+        int launched = this.executor.getLaunched();
+        this.executor.shouldReject = true;
+        consume(size - 1, 0);
+        nextValue();
+        this.executor.shouldReject = false;
+        if (this.executor.getLaunched() != launched) {
+            throwError("Rejected refill was launched.");
+        }
+        checkStatistics("Refill not launched", allocations + 2, backgroundAllocations, 3);
+
+        if (!this.sequence.shouldUseTransaction()) {
+            // Sequence objects do not use the sequence connection pool, so the refill cannot be made to fail.
+            return;
+        }
+        // If the refill fails, the inserting thread allocates the values once none remain.
+        // The refills fail waiting for a connection, as all of the pool's connections are in use, and their threads are interrupted.
+        consume(size - 1, this.threshold + 1);
+        ConnectionPool pool = this.server.getSequencingControl().getConnectionPool();
+        List<Accessor> connections = new ArrayList<Accessor>();
+        this.executor.shouldInterrupt = true;
+        try {
+            while (connections.size() < pool.getMaxNumberOfConnections()) {
+                connections.add(pool.acquireConnection());
+            }
+            for (int index = this.threshold + 1; index > 0; index--) {
+                nextValue();
+            }
+            this.executor.waitForRefills();
+        } finally {
+            this.executor.shouldInterrupt = false;
+            for (Accessor connection : connections) {
+                pool.releaseConnection(connection);
+            }
+        }
+        if (this.executor.getLaunched() == launched) {
+            throwError("Refill not launched once the threshold was reached.");
+        }
+        nextValue();
+        checkStatistics("Refill failed", allocations + 3, backgroundAllocations, 4);
+    }
+
+    /**
+     * Runs each refill on a new thread, so the test can wait for the refills to complete.
+     * The refills can be rejected, or run on an interrupted thread to make them fail.
+     */
+    protected static class RefillExecutor extends AbstractExecutorService {
+        protected List<Thread> threads = new ArrayList<Thread>();
+        protected volatile boolean shouldReject;
+        protected volatile boolean shouldInterrupt;
+
+        public synchronized void execute(final Runnable command) {
+            if (this.shouldReject) {
+                throw new RejectedExecutionException("Refill rejected by test.");
+            }
+            final boolean shouldInterrupt = this.shouldInterrupt;
+            Thread thread = new Thread(new Runnable() {
+                public void run() {
+                    if (shouldInterrupt) {
+                        Thread.currentThread().interrupt();
+                    }
+                    command.run();
+                }
+            });
+            this.threads.add(thread);
+            thread.start();
+        }
+
+        public synchronized int getLaunched() {
+            return this.threads.size();
+        }
+
+        public void waitForRefills() {
+            List<Thread> launched;
+            synchronized (this) {
+                launched = new ArrayList<Thread>(this.threads);
+            }
+            for (Thread thread : launched) {
+                try {
+                    thread.join();
+                } catch (InterruptedException exception) {
+                    throw new TestErrorException("Interrupted waiting for refill.", exception);
+                }
+            }
+        }
+
+        public void shutdown() {
+        }
+
+        public List<Runnable> shutdownNow() {
+            return new ArrayList<Runnable>();
+        }
+
+        public boolean isShutdown() {
+            return false;
+        }
+
+        public boolean isTerminated() {
+            return false;
+        }
+
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
@@ -57,6 +57,7 @@ public class IdentityMapTestSuite extends TestSuite {
         addTest(getCacheIdentityMapSuite());
         addTest(getSoftCacheWeakIdentityMapSuite());
         addTest(getHardCacheWeakIdentityMapSuite());
+        addTest(getOffHeapIdentityMapSuite());
         addTest(getWeakIdentityMapSuite());
         addTest(getSoftIdentityMapSuite());
         addTest(getDeleteWithGarbageCollectionTestSuite(new CacheIdentityMap(100, null, null, false)));
@@ -111,6 +112,22 @@ public class IdentityMapTestSuite extends TestSuite {
         return suite;
     }
 
+    private TestSuite getOffHeapIdentityMapSuite() {
+        TestSuite suite = new TestSuite();
+
+        suite.setName("Off Heap IdentityMap Test Suite");
+        suite.setDescription("This suite tests the functionality of the OffHeapIdentityMap");
+
+        suite.addTest(new RegisterInIdentityMapTest(OffHeapIdentityMap.class));
+        suite.addTest(new DeleteFromIdentityMapTest(OffHeapIdentityMap.class));
+        addMultipleIdentityTests(suite, new OffHeapIdentityMap(100, null, null, false));
+        suite.addTest(new SetWriteLockInIdentityMapTest(OffHeapIdentityMap.class));
+
+        suite.addTest(new OffHeapIdentityMapTest());
+
+        return suite;
+    }
+
     private TestSuite getNoIdentityMapSuite() {
         TestSuite suite = new TestSuite();
 
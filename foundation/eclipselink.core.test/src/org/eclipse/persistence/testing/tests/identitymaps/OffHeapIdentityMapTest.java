@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.identitymaps;
+
+import java.util.*;
+
+import org.eclipse.persistence.internal.identitymaps.OffHeapIdentityMap;
+import org.eclipse.persistence.testing.framework.*;
+import org.eclipse.persistence.testing.models.employee.domain.*;
+
+/**
+ * Test that objects evicted from the sub-cache of the OffHeapIdentityMap are stored off-heap,
+ * and are rebuilt from the stored row after being garbage collected.
+ */
+public class OffHeapIdentityMapTest extends TestCase {
+    protected Class originalIdentityMapClass = null;
+    protected int originalIdentityMapSize = 0;
+    protected Map<Object, String> firstNames;
+    protected int offHeapSize;
+    public static final int REFERENCE_CACHE_SIZE = 2;
+
+    public OffHeapIdentityMapTest() {
+        setDescription("Test that evicted objects are stored off-heap and rebuilt after garbage collection.");
+    }
+
+    public void setup() {
+        originalIdentityMapClass = getSession().getDescriptor(Employee.class).getIdentityMapClass();
+        originalIdentityMapSize = getSession().getDescriptor(Employee.class).getIdentityMapSize();
+        getSession().getDescriptor(Employee.class).setIdentityMapClass(OffHeapIdentityMap.class);
+        getSession().getDescriptor(Employee.class).setIdentityMapSize(REFERENCE_CACHE_SIZE);
+        getSession().getIdentityMapAccessor().initializeIdentityMaps();
+    }
+
+    public void reset() {
+        getSession().getDescriptor(Employee.class).setIdentityMapClass(originalIdentityMapClass);
+        getSession().getDescriptor(Employee.class).setIdentityMapSize(originalIdentityMapSize);
+        getSession().getIdentityMapAccessor().initializeIdentityMaps();
+    }
+
+    public void test() {
+        this.firstNames = new HashMap<Object, String>();
+        List employees = getSession().readAllObjects(Employee.class);
+        for (Iterator iterator = employees.iterator(); iterator.hasNext();) {
+            Employee employee = (Employee)iterator.next();
+            this.firstNames.put(employee.getId(), employee.getFirstName());
+        }
+        employees = null;
+        OffHeapIdentityMap map = (OffHeapIdentityMap)getAbstractSession().getIdentityMapAccessorInstance().getIdentityMap(Employee.class);
+        this.offHeapSize = map.getOffHeapSize();
+        System.gc();
+        System.gc();
+    }
+
+    public void verify() {
+        if (this.offHeapSize != (this.firstNames.size() - REFERENCE_CACHE_SIZE)) {
+            throw new TestErrorException("The evicted objects were not stored off-heap, expected: " + (this.firstNames.size() - REFERENCE_CACHE_SIZE) + " stored: " + this.offHeapSize);
+        }
+        for (Map.Entry<Object, String> entry : this.firstNames.entrySet()) {
+            Employee employee = (Employee)getSession().getIdentityMapAccessor().getFromIdentityMap(entry.getKey(), Employee.class);
+            if (employee == null) {
+                throw new TestErrorException("The object was not rebuilt from the off-heap store: " + entry.getKey());
+            }
+            if (!entry.getValue().equals(employee.getFirstName())) {
+                throw new TestErrorException("The object was not rebuilt correctly: " + employee);
+            }
+            // Relationships must be able to be triggered from the rebuilt object.
+            employee.getAddress();
+            employee.getPhoneNumbers().size();
+        }
+    }
+}
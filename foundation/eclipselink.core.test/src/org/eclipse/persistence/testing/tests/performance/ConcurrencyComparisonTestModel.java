@@ -51,6 +51,10 @@ public class ConcurrencyComparisonTestModel extends TestModel {
         addTest(new AddPhoneIsolatedConcurrentTest());
         addTest(new UpdateAnyObjectCachedConcurrentTest());
         addTest(new UpdateAnyObjectIsolatedConcurrentTest());
+        addTest(new ConnectionPoolConcurrentTest(false));
+        addTest(new ConnectionPoolConcurrentTest(true));
+        addTest(new CacheKeyReadLockConcurrentTest(false));
+        addTest(new CacheKeyReadLockConcurrentTest(true));
     }
 
     public void setup() {
@@ -65,6 +65,7 @@ public class JavaPerformanceComparisonModel extends TestModel {
         suite.addTest(new HashMapPutConcurrentTest());
         suite.addTest(new HashtablePutConcurrentTest());
         suite.addTest(new ConcurrentHashMapPutConcurrentTest());
+        suite.addTest(new ConcurrentFixedCacheConcurrentTest());
         
         return suite;
     }
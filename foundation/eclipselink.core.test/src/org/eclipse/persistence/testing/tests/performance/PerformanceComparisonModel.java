@@ -52,6 +52,7 @@ public class PerformanceComparisonModel extends TestModel {
         suite.addTest(new ReadAllvsJoinBatchTest());
         suite.addTest(new ReadAllvsBatch1mTest());
         suite.addTest(new ReadAllvsBatch21mTest());
+        suite.addTest(new ReadAllvsBatchINTest());
         suite.addTest(new ReadAllvsInMemoryTest());
         suite.addTest(new ReadAllvsConformTest());
         suite.addTest(new ReadAllComplexvsConformTest());
@@ -64,6 +65,12 @@ public class PerformanceComparisonModel extends TestModel {
         suite.addTest(new ReadAllFirstResultVsRownumFilteringTest());
         suite.addTest(new ReadAllStreamvsCursorSizeTest());
         //suite.addTest(new ReadAllvsReadAllFromResultSet());
+        suite.addTest(new ReadAllvsReadAllColumnarRowsTest());
+        suite.addTest(new ReadAllvsParallelBuildingTest());
+        suite.addTest(new ReadAllvsParameterizedConstantsTest());
+        suite.addTest(new AttributeAccessorComparisonTest());
+        suite.addTest(new LazyDescriptorInitializationComparisonTest());
+        suite.addTest(new JPQLPlanCacheComparisonTest());
         //suite.addTest(new EmulatedReadAllvsReadAllFromResultSet());
         suite.addTest(new ReadObjectPreparedvsDynamicTest());
         suite.addTest(new EmulatedReadObjectPreparedvsDynamicTest());
@@ -77,6 +84,8 @@ public class PerformanceComparisonModel extends TestModel {
         suite.setDescription("This suite tests uow/writing performance.");
 
         suite.addTest(new InsertBatchUnitOfWorkComparisonTest());
+        suite.addTest(new ChangeSetSerializationComparisonTest());
+        suite.addTest(new ParallelMergeComparisonTest());
 
         return suite;
     }
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.performance.concurrent;
+
+import org.eclipse.persistence.internal.helper.ConcurrencyManager;
+import org.eclipse.persistence.internal.identitymaps.CacheKey;
+import org.eclipse.persistence.testing.framework.*;
+
+/**
+ * This test compares the concurrency of read locking shared cache keys,
+ * using either synchronized or concurrent read locks.
+ * Each task read locks, reads and releases 10 cache keys, and every 100th task write locks one of them.
+ * This test must be run on a multi-CPU machine to be meaningful.
+ */
+public class CacheKeyReadLockConcurrentTest extends ConcurrentPerformanceComparisonTest {
+    protected boolean shouldUseConcurrentReadLocks;
+    protected boolean oldShouldUseConcurrentReadLocks;
+    protected CacheKey[] cacheKeys;
+    protected volatile int count;
+
+    public CacheKeyReadLockConcurrentTest(boolean shouldUseConcurrentReadLocks) {
+        this.shouldUseConcurrentReadLocks = shouldUseConcurrentReadLocks;
+        setMaxThreads(64);
+        if (shouldUseConcurrentReadLocks) {
+            setName("CacheKeyConcurrentReadLockConcurrentTest");
+        } else {
+            setName("CacheKeyReadLockConcurrentTest");
+        }
+        setDescription("This tests the concurrency of read locking cache keys.");
+    }
+
+    /**
+     * Build the cache keys.
+     */
+    public void setup() {
+        super.setup();
+        this.oldShouldUseConcurrentReadLocks = ConcurrencyManager.shouldUseConcurrentReadLocks();
+        ConcurrencyManager.setShouldUseConcurrentReadLocks(this.shouldUseConcurrentReadLocks);
+        this.cacheKeys = new CacheKey[10];
+        for (int index = 0; index < this.cacheKeys.length; index++) {
+            this.cacheKeys[index] = new CacheKey(Integer.valueOf(index), new Object(), null);
+        }
+    }
+
+    /**
+     * Read lock, read and release the cache keys, occasionally write lock one.
+     */
+    public void runTask() throws Exception {
+        int count = this.count++;
+        if ((count % 100) == 0) {
+            CacheKey cacheKey = this.cacheKeys[(count / 100) % this.cacheKeys.length];
+            cacheKey.acquire();
+            cacheKey.setObject(new Object());
+            cacheKey.release();
+        }
+        for (int index = 0; index < this.cacheKeys.length; index++) {
+            CacheKey cacheKey = this.cacheKeys[index];
+            cacheKey.acquireReadLock();
+            if (cacheKey.getObject() == null) {
+                throwError("Cache key object was null.");
+            }
+            cacheKey.releaseReadLock();
+        }
+    }
+
+    /**
+     * Reset the read lock setting.
+     */
+    public void reset() {
+        super.reset();
+        ConcurrencyManager.setShouldUseConcurrentReadLocks(this.oldShouldUseConcurrentReadLocks);
+    }
+}
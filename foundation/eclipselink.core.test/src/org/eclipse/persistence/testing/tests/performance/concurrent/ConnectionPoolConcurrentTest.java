@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.performance.concurrent;
+
+import org.eclipse.persistence.internal.databaseaccess.Accessor;
+import org.eclipse.persistence.sessions.server.*;
+import org.eclipse.persistence.testing.framework.*;
+
+/**
+ * This test compares the concurrency of acquiring and releasing connections from a connection pool,
+ * for either the monitor based ConnectionPool or the lock-free ConcurrentConnectionPool.
+ * The pool has 32 connections, and is run with up to 256 threads (8/64/256 are the interesting points).
+ * This test must be run on a multi-CPU machine to be meaningful.
+ */
+public class ConnectionPoolConcurrentTest extends ConcurrentPerformanceComparisonTest {
+    protected boolean isConcurrentPool;
+    protected ConnectionPool pool;
+
+    public ConnectionPoolConcurrentTest(boolean isConcurrentPool) {
+        this.isConcurrentPool = isConcurrentPool;
+        setMaxThreads(256);
+        if (isConcurrentPool) {
+            setName("ConcurrentConnectionPoolConcurrentTest");
+        } else {
+            setName("ConnectionPoolConcurrentTest");
+        }
+        setDescription("This tests the concurrency of acquiring and releasing pooled connections.");
+    }
+
+    /**
+     * Build and connect the pool.
+     */
+    public void setup() {
+        super.setup();
+        ServerSession server = (ServerSession)getServerSession();
+        if (this.isConcurrentPool) {
+            this.pool = new ConcurrentConnectionPool("benchmark", server.getDatasourceLogin(), 32, 32, 32, server);
+        } else {
+            this.pool = new ConnectionPool("benchmark", server.getDatasourceLogin(), 32, 32, 32, server);
+        }
+        this.pool.startUp();
+    }
+
+    /**
+     * Acquire and release a connection.
+     */
+    public void runTask() throws Exception {
+        Accessor connection = this.pool.acquireConnection();
+        this.pool.releaseConnection(connection);
+    }
+
+    /**
+     * Disconnect the pool.
+     */
+    public void reset() {
+        super.reset();
+        this.pool.shutDown();
+    }
+}
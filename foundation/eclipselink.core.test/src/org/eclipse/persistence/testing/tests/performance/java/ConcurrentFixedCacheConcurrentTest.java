@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.performance.java;
+
+import java.util.Random;
+
+import org.eclipse.persistence.internal.helper.ConcurrentFixedCache;
+import org.eclipse.persistence.testing.framework.*;
+
+/**
+ * Measure the concurrency of ConcurrentFixedCache, as used for the JPQL parse cache.
+ * 5000 distinct keys are accessed through a cache of 200, with 80% of the accesses going to 100 hot keys.
+ * A miss puts the key, the hot keys should stay cached, and over half of the accesses should hit.
+ */
+public class ConcurrentFixedCacheConcurrentTest extends ConcurrentPerformanceComparisonTest {
+    protected ConcurrentFixedCache cache;
+    protected String[] keys = new String[10000];
+    
+    public ConcurrentFixedCacheConcurrentTest() {
+        setDescription("Measure the concurrency and hit ratio of ConcurrentFixedCache.");
+        Random random = new Random(0);
+        for (int index = 0; index < this.keys.length; index++) {
+            if (random.nextInt(10) < 8) {
+                this.keys[index] = "Select e from Employee e where e.id = " + random.nextInt(100);
+            } else {
+                this.keys[index] = "Select e from Employee e where e.id = " + (100 + random.nextInt(4900));
+            }
+        }
+    }
+    
+    public void setup() {
+        super.setup();
+        this.cache = new ConcurrentFixedCache(200);
+        this.cache.setShouldRecordStatistics(true);
+    }
+    
+    public void runTask() throws Exception {
+        int start = (int)(Thread.currentThread().getId() % 100) * 100;
+        for (int index = start; index < start + 100; index++) {
+            String key = this.keys[index];
+            if (this.cache.get(key) == null) {
+                this.cache.put(key, key);
+            }
+        }
+    }
+
+    public void verify() {
+        int hot = 0;
+        for (int index = 0; index < 100; index++) {
+            if (this.cache.getCache().containsKey("Select e from Employee e where e.id = " + index)) {
+                hot++;
+            }
+        }
+        if (hot < 90) {
+            throw new TestErrorException("Frequently used keys were evicted, only " + hot + " of 100 are cached.");
+        }
+        long hits = this.cache.getHits();
+        long misses = this.cache.getMisses();
+        if (hits <= misses) {
+            throw new TestErrorException("Hit ratio too low, hits: " + hits + " misses: " + misses);
+        }
+        super.verify();
+    }
+}
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.performance.reading;
+
+import java.util.*;
+import org.eclipse.persistence.internal.descriptors.*;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.mappings.AttributeAccessor;
+import org.eclipse.persistence.testing.models.performance.toplink.Employee;
+import org.eclipse.persistence.testing.framework.*;
+
+/**
+ * This test compares the performance of the attribute accessors used to build objects,
+ * setting and getting the direct attributes of employees.
+ * Reflective field access (the default for non-woven classes with non-public fields) is compared to
+ * reflective get/set method access, and get/set method access through a generated accessor class.
+ */
+public class AttributeAccessorComparisonTest extends PerformanceComparisonTestCase {
+    public static String[] ATTRIBUTES = { "id", "firstName", "lastName", "salary", "version" };
+    public static int OBJECTS = 100;
+
+    protected Object[][] rows;
+    protected List<AttributeAccessor> fieldAccessors;
+
+    public AttributeAccessorComparisonTest() {
+        setDescription("This test compares the performance of reflective vs generated attribute accessors.");
+        addMethodAccessorTest();
+        addGeneratedAccessorTest();
+    }
+
+    /**
+     * Build the attribute values of the employees to build.
+     */
+    public void setup() {
+        this.rows = new Object[OBJECTS][];
+        for (int index = 0; index < OBJECTS; index++) {
+            this.rows[index] = new Object[] { Long.valueOf(index), "Bob" + index, "Smith", Integer.valueOf(index * 1000), Long.valueOf(1) };
+        }
+        this.fieldAccessors = buildFieldAccessors();
+    }
+
+    /**
+     * Set the attributes of new employees from the rows, and get them back.
+     */
+    protected void buildObjects(List<AttributeAccessor> accessors) {
+        int size = accessors.size();
+        for (int index = 0; index < OBJECTS; index++) {
+            Object[] row = this.rows[index];
+            Employee employee = new Employee();
+            for (int attribute = 0; attribute < size; attribute++) {
+                accessors.get(attribute).setAttributeValueInObject(employee, row[attribute]);
+            }
+            for (int attribute = 0; attribute < size; attribute++) {
+                if (!row[attribute].equals(accessors.get(attribute).getAttributeValueFromObject(employee))) {
+                    throwError("Attribute not set: " + ATTRIBUTES[attribute]);
+                }
+            }
+        }
+    }
+
+    protected List<AttributeAccessor> buildFieldAccessors() {
+        List<AttributeAccessor> accessors = new ArrayList<AttributeAccessor>();
+        for (String attribute : ATTRIBUTES) {
+            InstanceVariableAttributeAccessor accessor = new InstanceVariableAttributeAccessor();
+            accessor.setAttributeName(attribute);
+            accessor.initializeAttributes(Employee.class);
+            accessors.add(accessor);
+        }
+        return accessors;
+    }
+
+    protected List<AttributeAccessor> buildMethodAccessors() {
+        List<AttributeAccessor> accessors = new ArrayList<AttributeAccessor>();
+        for (String attribute : ATTRIBUTES) {
+            String suffix = Character.toUpperCase(attribute.charAt(0)) + attribute.substring(1);
+            MethodAttributeAccessor accessor = new MethodAttributeAccessor();
+            accessor.setAttributeName(attribute);
+            accessor.setGetMethodName("get" + suffix);
+            accessor.setSetMethodName("set" + suffix);
+            accessor.initializeAttributes(Employee.class);
+            accessors.add(accessor);
+        }
+        return accessors;
+    }
+
+    /**
+     * Build employees using reflective field accessors.
+     */
+    public void test() throws Exception {
+        buildObjects(this.fieldAccessors);
+    }
+
+    /**
+     * Build employees using reflective method accessors.
+     */
+    public void addMethodAccessorTest() {
+        PerformanceComparisonTestCase test = new PerformanceComparisonTestCase() {
+            List<AttributeAccessor> accessors;
+            public void startTest() {
+                this.accessors = buildMethodAccessors();
+            }
+            public void test() {
+                buildObjects(this.accessors);
+            }
+        };
+        test.setName("MethodAccessorTest");
+        addTest(test);
+    }
+
+    /**
+     * Build employees using method accessors with a generated accessor class.
+     */
+    public void addGeneratedAccessorTest() {
+        PerformanceComparisonTestCase test = new PerformanceComparisonTestCase() {
+            List<AttributeAccessor> accessors;
+            public void startTest() {
+                this.accessors = buildMethodAccessors();
+                AttributeAccessorFactory.initializeAccessors(Employee.class, this.accessors, (AbstractSession)getSession());
+                if (AttributeAccessorFactory.shouldGenerateAccessors()
+                        && (((MethodAttributeAccessor)this.accessors.get(0)).getGeneratedAccessor() == null)) {
+                    throwError("Accessor class not generated.");
+                }
+            }
+            public void test() {
+                buildObjects(this.accessors);
+            }
+        };
+        test.setName("GeneratedAccessorTest");
+        addTest(test);
+    }
+}
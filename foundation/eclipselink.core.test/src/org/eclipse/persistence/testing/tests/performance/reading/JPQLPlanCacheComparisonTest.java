@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.performance.reading;
+
+import org.eclipse.persistence.internal.queries.JPQLPlanCache;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.sessions.DatabaseRecord;
+import org.eclipse.persistence.testing.framework.*;
+
+/**
+ * This test compares the performance of parsing and preparing a JPQL query
+ * vs copying its plan from the shared JPQL plan cache and preparing the copy.
+ * The queries are not executed.
+ */
+public class JPQLPlanCacheComparisonTest extends PerformanceComparisonTestCase {
+    public static String JPQL = "Select e from Employee e join e.phoneNumbers p where e.firstName = :name and p.areaCode = '613' and e.address.city in (Select a.city from Address a where a.province = 'ON') order by e.lastName";
+
+    public JPQLPlanCacheComparisonTest() {
+        setDescription("This test compares the performance of JPQL parsing vs the JPQL plan cache.");
+        addPlanCacheTest();
+    }
+
+    public void setup() {
+        JPQLPlanCache.getSharedCache().register(getAbstractSession());
+    }
+
+    public void reset() {
+        JPQLPlanCache.getSharedCache().release(getAbstractSession());
+    }
+
+    /**
+     * Prepare the query, to include the time to prepare the copy of the plan.
+     */
+    protected void prepare(DatabaseQuery query) {
+        query.checkPrepare(getAbstractSession(), new DatabaseRecord());
+        if (query.getSQLString() == null) {
+            throwError("Query was not prepared.");
+        }
+    }
+
+    /**
+     * Parse the query.
+     */
+    public void test() throws Exception {
+        AbstractSession session = getAbstractSession();
+        prepare(session.getQueryBuilder().buildQuery(JPQL, session));
+    }
+
+    /**
+     * Copy the query's plan from the plan cache.
+     */
+    public void addPlanCacheTest() {
+        PerformanceComparisonTestCase test = new PerformanceComparisonTestCase() {
+            public void test() {
+                prepare(JPQLPlanCache.getSharedCache().buildQuery(JPQL, getAbstractSession()));
+            }
+        };
+        test.setName("PlanCacheTest");
+        addTest(test);
+    }
+}
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.performance.reading;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.internal.sessions.LazyDescriptorInitializer;
+import org.eclipse.persistence.testing.models.performance.Address;
+import org.eclipse.persistence.testing.models.performance.toplink.EmployeeProject;
+import org.eclipse.persistence.testing.framework.*;
+
+/**
+ * This test compares the performance of initializing the descriptors of a session at login
+ * vs initializing them on first use, when only the address descriptor is used.
+ * The sessions are not connected, only their descriptors are initialized.
+ */
+public class LazyDescriptorInitializationComparisonTest extends PerformanceComparisonTestCase {
+
+    public LazyDescriptorInitializationComparisonTest() {
+        setDescription("This test compares the performance of eager vs lazy descriptor initialization.");
+        addLazyInitializationTest();
+    }
+
+    /**
+     * Initialize the descriptors of a new session, and use the address descriptor.
+     */
+    protected DatabaseSessionImpl initializeDescriptors(boolean isLazy) {
+        DatabaseSessionImpl session = new DatabaseSessionImpl(new EmployeeProject());
+        session.setShouldInitializeDescriptorsLazily(isLazy);
+        session.initializeDescriptors();
+        ClassDescriptor descriptor = session.getDescriptor(Address.class);
+        if (!descriptor.isFullyInitialized()) {
+            throwError("Address descriptor not initialized.");
+        }
+        return session;
+    }
+
+    /**
+     * Initialize all descriptors at login.
+     */
+    public void test() throws Exception {
+        initializeDescriptors(false);
+    }
+
+    /**
+     * Initialize only the used descriptors.
+     */
+    public void addLazyInitializationTest() {
+        PerformanceComparisonTestCase test = new PerformanceComparisonTestCase() {
+            public void test() {
+                LazyDescriptorInitializer initializer = initializeDescriptors(true).getLazyDescriptorInitializer();
+                if (initializer.getPendingCount() == 0) {
+                    throwError("Unused descriptors were initialized.");
+                }
+            }
+        };
+        test.setName("LazyInitializationTest");
+        addTest(test);
+    }
+}
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.performance.reading;
+
+import java.util.*;
+import org.eclipse.persistence.annotations.BatchFetchType;
+import org.eclipse.persistence.queries.*;
+import org.eclipse.persistence.testing.models.performance.Address;
+import org.eclipse.persistence.testing.models.performance.toplink.*;
+import org.eclipse.persistence.testing.framework.*;
+
+/**
+ * This test compares the performance of IN batch reading a 1-1 using a small fixed batch size
+ * vs an auto-tuned batch size, and an auto-tuned batch size with the next batch prefetched.
+ * Prefetching is only used when the session is a ServerSession.
+ */
+public class ReadAllvsBatchINTest extends PerformanceComparisonTestCase {
+    public static int BATCH_SIZE = 10;
+
+    public ReadAllvsBatchINTest() {
+        setDescription("This test compares the performance of IN batch reading using a fixed vs auto-tuned batch size.");
+        addAutoTunedBatchTest();
+        addPrefetchedBatchTest();
+    }
+
+    /**
+     * Read all employees and access their addresses.
+     */
+    protected void readAll(BatchFetchPolicy policy) {
+        getSession().getIdentityMapAccessor().initializeIdentityMaps();
+        ReadAllQuery query = new ReadAllQuery(Employee.class);
+        query.setBatchFetchPolicy(policy);
+        query.addBatchReadAttribute("address");
+        List results = (List)getSession().executeQuery(query);
+        for (int index = 0; index < results.size(); index++) {
+            Employee employee = (Employee)results.get(index);
+            Address address = employee.getAddress();
+        }
+    }
+
+    protected BatchFetchPolicy buildPolicy() {
+        BatchFetchPolicy policy = new BatchFetchPolicy(BatchFetchType.IN);
+        policy.setSize(BATCH_SIZE);
+        return policy;
+    }
+
+    /**
+     * Read all employees and batch read their addresses using a fixed batch size.
+     */
+    public void test() throws Exception {
+        readAll(buildPolicy());
+    }
+
+    /**
+     * Read all employees and batch read their addresses using an auto-tuned batch size.
+     */
+    public void addAutoTunedBatchTest() {
+        PerformanceComparisonTestCase test = new PerformanceComparisonTestCase() {
+            public void test() {
+                BatchFetchPolicy policy = buildPolicy();
+                policy.setShouldAutoTuneSize(true);
+                readAll(policy);
+            }
+        };
+        test.setName("AutoTunedBatchINTest");
+        addTest(test);
+    }
+
+    /**
+     * Read all employees and batch read their addresses using an auto-tuned batch size, prefetching the next batch.
+     */
+    public void addPrefetchedBatchTest() {
+        PerformanceComparisonTestCase test = new PerformanceComparisonTestCase() {
+            public void test() {
+                BatchFetchPolicy policy = buildPolicy();
+                policy.setShouldAutoTuneSize(true);
+                policy.setShouldPrefetch(true);
+                readAll(policy);
+            }
+        };
+        test.setName("PrefetchedBatchINTest");
+        addTest(test);
+    }
+}
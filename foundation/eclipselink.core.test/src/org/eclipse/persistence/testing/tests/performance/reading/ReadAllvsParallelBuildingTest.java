@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the 
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0 
+ * which accompanies this distribution. 
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at 
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/  
+package org.eclipse.persistence.testing.tests.performance.reading;
+
+import java.util.*;
+import org.eclipse.persistence.internal.descriptors.ObjectBuilder;
+import org.eclipse.persistence.queries.*;
+import org.eclipse.persistence.testing.models.performance.Address;
+import org.eclipse.persistence.testing.models.performance.toplink.*;
+import org.eclipse.persistence.testing.framework.*;
+
+/**
+ * This test compares the performance of read all vs read all building the objects in parallel,
+ * with and without joining.
+ * The parallel building threshold is lowered so the model's data is built in parallel.
+ */
+public class ReadAllvsParallelBuildingTest extends PerformanceComparisonTestCase {
+    protected int threshold;
+
+    public ReadAllvsParallelBuildingTest() {
+        setDescription("This test compares the performance of read all vs read all building the objects in parallel.");
+        addReadAllParallelTest();
+        addReadAllJoinTest();
+        addReadAllJoinParallelTest();
+    }
+
+    /**
+     * Parallel building requires a server session.
+     */
+    public void setup() {
+        getExecutor().swapServerSession();
+        this.threshold = ObjectBuilder.parallelBuildingThreshold;
+        ObjectBuilder.parallelBuildingThreshold = 0;
+    }
+
+    public void reset() {
+        ObjectBuilder.parallelBuildingThreshold = this.threshold;
+        getExecutor().resetSession();
+    }
+
+    /**
+     * Read all employees and their addresses.
+     */
+    public void test() throws Exception {
+        executeQuery(false, false);
+    }
+
+    /**
+     * Read all employees, access their addresses, and verify the results in parallel have the same order.
+     */
+    protected void executeQuery(boolean shouldJoin, boolean shouldBuildObjectsInParallel) {
+        getSession().getIdentityMapAccessor().initializeIdentityMaps();
+        ReadAllQuery query = new ReadAllQuery(Employee.class);
+        query.addAscendingOrdering("id");
+        if (shouldJoin) {
+            query.addJoinedAttribute("address");
+        }
+        query.setShouldBuildObjectsInParallel(shouldBuildObjectsInParallel);
+        List results = (List)getSession().executeQuery(query);
+        Employee previous = null;
+        for (int index = 0; index < results.size(); index++) {
+            Employee employee = (Employee)results.get(index);
+            Address address = employee.getAddress();
+            if ((previous != null) && (previous.getId() >= employee.getId())) {
+                throwError("Results are not in order: " + previous + ", " + employee);
+            }
+            previous = employee;
+        }
+    }
+
+    /**
+     * Read all employees building the objects in parallel.
+     */
+    public void addReadAllParallelTest() {
+        PerformanceComparisonTestCase test = new PerformanceComparisonTestCase() {
+            public void test() {
+                executeQuery(false, true);
+            }
+        };
+        test.setName("ReadAllParallelTest");
+        addTest(test);
+    }
+
+    /**
+     * Read all employees and join their addresses.
+     */
+    public void addReadAllJoinTest() {
+        PerformanceComparisonTestCase test = new PerformanceComparisonTestCase() {
+            public void test() {
+                executeQuery(true, false);
+            }
+        };
+        test.setName("ReadAllJoinTest");
+        test.setAllowableDecrease(200);
+        addTest(test);
+    }
+
+    /**
+     * Read all employees and join their addresses building the objects in parallel.
+     */
+    public void addReadAllJoinParallelTest() {
+        PerformanceComparisonTestCase test = new PerformanceComparisonTestCase() {
+            public void test() {
+                executeQuery(true, true);
+            }
+        };
+        test.setName("ReadAllJoinParallelTest");
+        test.setAllowableDecrease(200);
+        addTest(test);
+    }
+}
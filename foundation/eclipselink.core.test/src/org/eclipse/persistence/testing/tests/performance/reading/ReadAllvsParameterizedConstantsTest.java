@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the 
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0 
+ * which accompanies this distribution. 
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at 
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/  
+package org.eclipse.persistence.testing.tests.performance.reading;
+
+import org.eclipse.persistence.descriptors.DescriptorQueryManager;
+import org.eclipse.persistence.expressions.*;
+import org.eclipse.persistence.queries.*;
+import org.eclipse.persistence.testing.models.performance.toplink.*;
+import org.eclipse.persistence.testing.framework.*;
+
+/**
+ * This test compares the performance of dynamic read all queries that only differ in their constant values,
+ * with and without parameterizing the constants.
+ * Without parameterizing, each query generates its SQL, with parameterizing the queries share the same cached SQL.
+ */
+public class ReadAllvsParameterizedConstantsTest extends PerformanceComparisonTestCase {
+    protected static int ITERATIONS = 100;
+
+    public ReadAllvsParameterizedConstantsTest() {
+        setDescription("This test compares the performance of dynamic read all queries with and without parameterizing their constants.");
+        addParameterizedConstantsTest();
+    }
+
+    public void reset() {
+        DescriptorQueryManager.setShouldParameterizeConstants(false);
+    }
+
+    /**
+     * Read the employees by last name and salary, with different constants each time.
+     */
+    public void test() throws Exception {
+        readAll();
+    }
+
+    /**
+     * Read the employees by last name and salary, with different constants each time.
+     */
+    protected void readAll() {
+        for (int index = 0; index < ITERATIONS; index++) {
+            ExpressionBuilder builder = new ExpressionBuilder();
+            Expression expression = builder.get("lastName").equal(String.valueOf(index)).and(builder.get("salary").greaterThan(index));
+            ReadAllQuery query = new ReadAllQuery(Employee.class, expression);
+            getSession().executeQuery(query);
+        }
+    }
+
+    /**
+     * Read the employees with the constants parameterized.
+     */
+    public void addParameterizedConstantsTest() {
+        PerformanceComparisonTestCase test = new PerformanceComparisonTestCase() {
+            public void startTest() {
+                DescriptorQueryManager.setShouldParameterizeConstants(true);
+            }
+            public void test() {
+                readAll();
+            }
+            public void endTest() {
+                DescriptorQueryManager.setShouldParameterizeConstants(false);
+            }
+        };
+        test.setName("ParameterizedConstantsTest");
+        test.setAllowableDecrease(10);
+        addTest(test);
+    }
+}
@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.performance.reading;
+
+import java.util.*;
+import org.eclipse.persistence.queries.*;
+import org.eclipse.persistence.testing.models.performance.Employee;
+import org.eclipse.persistence.testing.framework.*;
+
+/**
+ * This test compares the performance of read all vs read all fetching the rows into a columnar row buffer.
+ */
+public class ReadAllvsReadAllColumnarRowsTest extends PerformanceComparisonTestCase {
+    protected ReadAllQuery query;
+    protected ReadAllQuery columnarQuery;
+
+    public ReadAllvsReadAllColumnarRowsTest() {
+        setDescription("This test compares the performance of read all vs read all using columnar rows.");
+        addTest(buildReadAllColumnarRowsTest());
+    }
+
+    public void setup() {
+        query = new ReadAllQuery(Employee.class);
+        columnarQuery = new ReadAllQuery(Employee.class);
+        columnarQuery.setShouldUseColumnarRows(true);
+    }
+
+    /**
+     * Read all employees.
+     */
+    public void test() throws Exception {
+        List results = (List)getSession().executeQuery(query);
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+    }
+
+    /**
+     * Read all employees using columnar rows.
+     */
+    public PerformanceComparisonTestCase buildReadAllColumnarRowsTest() {
+        PerformanceComparisonTestCase test = new PerformanceComparisonTestCase() {
+            public void test() {
+                List results = (List)getSession().executeQuery(columnarQuery);
+                getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+            }
+        };
+        test.setName("ReadAllColumnarRowsTest");
+        return test;
+    }
+}
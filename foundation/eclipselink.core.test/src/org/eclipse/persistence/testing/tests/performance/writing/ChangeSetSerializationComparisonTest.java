@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.performance.writing;
+
+import java.util.*;
+import org.eclipse.persistence.sessions.*;
+import org.eclipse.persistence.sessions.serializers.*;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkChangeSet;
+import org.eclipse.persistence.testing.models.performance.toplink.Employee;
+import org.eclipse.persistence.testing.framework.*;
+
+/**
+ * Compares the serialization of the change set of updating all employees for cache coordination,
+ * using Java serialization, the binary change set serializer, and Kryo if it is on the classpath.
+ * The sizes of the serialized change sets are included in the test description.
+ */
+public class ChangeSetSerializationComparisonTest extends PerformanceComparisonTestCase {
+    protected UnitOfWorkChangeSet changeSet;
+
+    public ChangeSetSerializationComparisonTest() {
+        setDescription("Compares the serialization of the change set of updating all employees.");
+        addBinarySerializerTest();
+        addUncompressedBinarySerializerTest();
+        try {
+            Class.forName("com.esotericsoftware.kryo.Kryo");
+            addKryoSerializerTest();
+        } catch (ClassNotFoundException notAvailable) {
+            // Kryo is optional.
+        }
+    }
+
+    /**
+     * Build the change set of updating the name and salary of all employees.
+     */
+    public void setup() {
+        UnitOfWork uow = getSession().acquireUnitOfWork();
+        List employees = uow.readAllObjects(Employee.class);
+        for (Iterator iterator = employees.iterator(); iterator.hasNext(); ) {
+            Employee employee = (Employee)iterator.next();
+            employee.setFirstName(employee.getFirstName() + "x");
+            employee.setSalary(employee.getSalary() + 1);
+        }
+        this.changeSet = ((UnitOfWorkChangeSet)uow.getCurrentChanges()).buildSendableChangeSet();
+        uow.release();
+        if (this.changeSet == null) {
+            throwError("No changes to serialize.");
+        }
+        try {
+            byte[] javaBytes = this.changeSet.getByteArrayRepresentation((AbstractSession)getSession());
+            byte[] binaryBytes = new BinaryChangeSetSerializer().serialize(this.changeSet, getSession());
+            if (binaryBytes.length >= javaBytes.length) {
+                throwError("Binary change set (" + binaryBytes.length + " bytes) is not smaller than Java serialization (" + javaBytes.length + " bytes).");
+            }
+            setDescription(getDescription() + " Java: " + javaBytes.length + " bytes, binary: " + binaryBytes.length + " bytes.");
+        } catch (java.io.IOException exception) {
+            throw new TestErrorException("Serialization failed.", exception);
+        }
+    }
+
+    public void reset() {
+        this.changeSet = null;
+    }
+
+    /**
+     * Serialize and deserialize the change set using Java serialization.
+     */
+    public void test() throws Exception {
+        byte[] bytes = this.changeSet.getByteArrayRepresentation((AbstractSession)getSession());
+        verify(new UnitOfWorkChangeSet(bytes, (AbstractSession)getSession()));
+    }
+
+    /**
+     * Serialize and deserialize the change set using the serializer.
+     */
+    protected void serialize(Serializer serializer) {
+        byte[] bytes = serializer.serialize(this.changeSet, getSession());
+        verify((UnitOfWorkChangeSet)serializer.deserialize(bytes, getSession()));
+    }
+
+    protected void verify(UnitOfWorkChangeSet result) {
+        if (result.getAllChangeSets().size() != this.changeSet.getAllChangeSets().size()) {
+            throwError("Change sets do not match: " + result.getAllChangeSets().size() + " != " + this.changeSet.getAllChangeSets().size());
+        }
+    }
+
+    /**
+     * Serialize the change set using the binary change set serializer.
+     */
+    public void addBinarySerializerTest() {
+        PerformanceComparisonTestCase test = new PerformanceComparisonTestCase() {
+            BinaryChangeSetSerializer serializer = new BinaryChangeSetSerializer();
+            public void test() {
+                serialize(this.serializer);
+            }
+        };
+        test.setName("BinaryChangeSetSerializerTest");
+        addTest(test);
+    }
+
+    /**
+     * Serialize the change set using the binary change set serializer without compression.
+     */
+    public void addUncompressedBinarySerializerTest() {
+        PerformanceComparisonTestCase test = new PerformanceComparisonTestCase() {
+            BinaryChangeSetSerializer serializer = new BinaryChangeSetSerializer();
+            public void startTest() {
+                this.serializer.setCompressionThreshold(-1);
+            }
+            public void test() {
+                serialize(this.serializer);
+            }
+        };
+        test.setName("UncompressedBinaryChangeSetSerializerTest");
+        addTest(test);
+    }
+
+    /**
+     * Serialize the change set using Kryo.
+     */
+    public void addKryoSerializerTest() {
+        PerformanceComparisonTestCase test = new PerformanceComparisonTestCase() {
+            KryoSerializer serializer = new KryoSerializer();
+            public void test() {
+                serialize(this.serializer);
+            }
+        };
+        test.setName("KryoSerializerTest");
+        addTest(test);
+    }
+}
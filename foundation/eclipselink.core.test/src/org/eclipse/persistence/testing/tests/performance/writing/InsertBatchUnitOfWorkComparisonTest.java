@@ -15,6 +15,8 @@ package org.eclipse.persistence.testing.tests.performance.writing;
 import org.eclipse.persistence.sessions.*;
 import org.eclipse.persistence.queries.*;
 import org.eclipse.persistence.internal.databaseaccess.DatabaseAccessor;
+import org.eclipse.persistence.internal.databaseaccess.ParameterizedSQLBatchWritingMechanism;
+import org.eclipse.persistence.internal.databaseaccess.PipelinedSQLBatchWritingMechanism;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
 import org.eclipse.persistence.testing.models.performance.Address;
 import org.eclipse.persistence.testing.framework.*;
@@ -31,6 +33,8 @@ public class InsertBatchUnitOfWorkComparisonTest extends PerformanceComparisonTe
         addBatchWritingTest();
         addParameterizedBatchWritingTest();
         addNativeBatchWritingTest();
+        addPipelinedBatchWritingTest();
+        addAutoTunedBatchWritingTest();
         addBufferedBatchWritingTest();
         addParameterizedStatementsTest();
         addDynamicStatementsTest();
@@ -119,6 +123,64 @@ public class InsertBatchUnitOfWorkComparisonTest extends PerformanceComparisonTe
         addTest(test);
     }
 
+    /**
+     * Insert the batch with pipelined batch writing on.
+     */
+    public void addPipelinedBatchWritingTest() {
+        PerformanceComparisonTestCase test = new PerformanceComparisonTestCase() {
+            public void test() {
+                getSession().getLogin().cacheAllStatements();
+                getSession().getLogin().useBatchWriting();
+                InsertBatchUnitOfWorkComparisonTest.this.test();
+                getSession().getLogin().dontCacheAllStatements();
+                getSession().getLogin().dontUseBatchWriting();
+            }
+
+            public void startTest() {
+                getSession().getLogin().getPlatform().setBatchWritingMechanism(new PipelinedSQLBatchWritingMechanism());
+                ((DatabaseAccessor)((AbstractSession)getSession()).getAccessor()).setActiveBatchWritingMechanism(null);
+            }
+
+            public void endTest() {
+                getSession().getLogin().getPlatform().setBatchWritingMechanism(null);
+                ((DatabaseAccessor)((AbstractSession)getSession()).getAccessor()).setActiveBatchWritingMechanism(null);
+            }
+        };
+        test.setName("PipelinedBatchWritingInsertBatchTest");
+        test.setAllowableDecrease(25);
+        addTest(test);
+    }
+
+    /**
+     * Insert the batch with parameterized batch writing on, and the batch size auto-tuned.
+     */
+    public void addAutoTunedBatchWritingTest() {
+        PerformanceComparisonTestCase test = new PerformanceComparisonTestCase() {
+            public void test() {
+                getSession().getLogin().cacheAllStatements();
+                getSession().getLogin().useBatchWriting();
+                InsertBatchUnitOfWorkComparisonTest.this.test();
+                getSession().getLogin().dontCacheAllStatements();
+                getSession().getLogin().dontUseBatchWriting();
+            }
+
+            public void startTest() {
+                ParameterizedSQLBatchWritingMechanism mechanism = new ParameterizedSQLBatchWritingMechanism();
+                mechanism.setIsBatchSizeAutoTuned(true);
+                getSession().getLogin().getPlatform().setBatchWritingMechanism(mechanism);
+                ((DatabaseAccessor)((AbstractSession)getSession()).getAccessor()).setActiveBatchWritingMechanism(null);
+            }
+
+            public void endTest() {
+                getSession().getLogin().getPlatform().setBatchWritingMechanism(null);
+                ((DatabaseAccessor)((AbstractSession)getSession()).getAccessor()).setActiveBatchWritingMechanism(null);
+            }
+        };
+        test.setName("AutoTunedBatchWritingInsertBatchTest");
+        test.setAllowableDecrease(25);
+        addTest(test);
+    }
+
     /**
      * Insert the batch with batch writing on.
      */
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.performance.writing;
+
+import java.util.*;
+import org.eclipse.persistence.sessions.*;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.MergeManager;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkChangeSet;
+import org.eclipse.persistence.testing.models.performance.Address;
+import org.eclipse.persistence.testing.framework.*;
+
+/**
+ * Compares the serial and parallel merge of a large change set received from cache coordination,
+ * updating 10,000 cached addresses, while a reader thread reads the addresses from the cache.
+ * The longest time the reader was blocked by the merge locks is included in the test description.
+ */
+public class ParallelMergeComparisonTest extends PerformanceComparisonTestCase {
+    public static int OBJECTS = 10000;
+    public static long FIRST_ID = 1000000;
+
+    /** Holds the cached addresses, as the cache may be weak. */
+    protected List<Address> addresses;
+    protected UnitOfWorkChangeSet changeSet;
+    protected Reader reader;
+
+    public ParallelMergeComparisonTest() {
+        setDescription("Compares the serial and parallel merge of a large change set, and the reader stall time.");
+        addParallelMergeTest();
+    }
+
+    /**
+     * Cache the addresses and build the change set of updating their city.
+     * The addresses are not in the database, the change set is only merged into the cache.
+     */
+    public void setup() {
+        this.addresses = new ArrayList<Address>(OBJECTS);
+        for (int index = 0; index < OBJECTS; index++) {
+            Address address = new Address();
+            address.setId(FIRST_ID + index);
+            address.setCity("Ottawa");
+            address.setStreet("Hastings");
+            getSession().getIdentityMapAccessor().putInIdentityMap(address);
+            this.addresses.add(address);
+        }
+        UnitOfWork uow = getSession().acquireUnitOfWork();
+        for (int index = 0; index < OBJECTS; index++) {
+            Address address = (Address)uow.registerObject(this.addresses.get(index));
+            address.setCity("Toronto" + index);
+        }
+        this.changeSet = (UnitOfWorkChangeSet)((UnitOfWorkChangeSet)uow.getCurrentChanges()).buildSendableChangeSet();
+        uow.release();
+        if ((this.changeSet == null) || (this.changeSet.getAllChangeSets().size() != OBJECTS)) {
+            throwError("Change set does not contain the updated addresses.");
+        }
+    }
+
+    public void reset() {
+        for (int index = 0; index < OBJECTS; index++) {
+            getSession().getIdentityMapAccessor().removeFromIdentityMap(Long.valueOf(FIRST_ID + index), Address.class);
+        }
+        this.addresses = null;
+        this.changeSet = null;
+        MergeManager.setParallelMergeThreads(1);
+    }
+
+    /**
+     * Start reading the addresses from the cache.
+     */
+    public void startTest() {
+        this.reader = new Reader();
+        this.reader.start();
+    }
+
+    /**
+     * Stop the reader, and record the longest time it was blocked.
+     */
+    public void endTest() {
+        this.reader.isReading = false;
+        try {
+            this.reader.join();
+        } catch (InterruptedException exception) {
+            throw new TestErrorException("Interrupted.", exception);
+        }
+        setDescription(getDescription() + " Serial max stall: " + (this.reader.maxStall / 1000000) + "ms.");
+    }
+
+    /**
+     * Merge the change set serially.
+     */
+    public void test() throws Exception {
+        merge();
+    }
+
+    /**
+     * Merge the change set into the cache, as cache coordination does.
+     */
+    protected void merge() {
+        MergeManager manager = new MergeManager((AbstractSession)getSession());
+        manager.mergeIntoDistributedCache();
+        manager.setCascadePolicy(MergeManager.CASCADE_ALL_PARTS);
+        manager.mergeChangesFromChangeSet(this.changeSet);
+    }
+
+    /**
+     * Merge the change set in parallel.
+     */
+    public void addParallelMergeTest() {
+        PerformanceComparisonTestCase test = new PerformanceComparisonTestCase() {
+            Reader parallelReader;
+            public void startTest() {
+                MergeManager.setParallelMergeThreads(4);
+                this.parallelReader = new Reader();
+                this.parallelReader.start();
+            }
+            public void test() {
+                merge();
+            }
+            public void endTest() {
+                MergeManager.setParallelMergeThreads(1);
+                this.parallelReader.isReading = false;
+                try {
+                    this.parallelReader.join();
+                } catch (InterruptedException exception) {
+                    throw new TestErrorException("Interrupted.", exception);
+                }
+                ParallelMergeComparisonTest.this.setDescription(ParallelMergeComparisonTest.this.getDescription()
+                        + " Parallel max stall: " + (this.parallelReader.maxStall / 1000000) + "ms.");
+            }
+        };
+        test.setName("ParallelMergeTest");
+        addTest(test);
+    }
+
+    /**
+     * Reads random addresses from the cache until stopped, recording the longest read.
+     */
+    protected class Reader extends Thread {
+        public volatile boolean isReading = true;
+        public volatile long maxStall;
+
+        public void run() {
+            Random random = new Random();
+            while (this.isReading) {
+                Object id = Long.valueOf(FIRST_ID + random.nextInt(OBJECTS));
+                long start = System.nanoTime();
+                getSession().getIdentityMapAccessor().getFromIdentityMap(id, Address.class);
+                long stall = System.nanoTime() - start;
+                if (stall > this.maxStall) {
+                    this.maxStall = stall;
+                }
+            }
+        }
+    }
+}
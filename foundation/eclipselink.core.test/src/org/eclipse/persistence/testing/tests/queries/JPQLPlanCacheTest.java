@@ -0,0 +1,383 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.queries;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.*;
+
+import org.eclipse.persistence.expressions.Expression;
+import org.eclipse.persistence.internal.expressions.ExpressionIterator;
+import org.eclipse.persistence.internal.expressions.SubSelectExpression;
+import org.eclipse.persistence.internal.helper.ConversionManager;
+import org.eclipse.persistence.internal.queries.JPQLPlanCache;
+import org.eclipse.persistence.internal.sessions.*;
+import org.eclipse.persistence.queries.*;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.DatabaseRecord;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.testing.framework.*;
+import org.eclipse.persistence.testing.models.employee.domain.Employee;
+import org.eclipse.persistence.testing.models.employee.relational.EmployeeProject;
+
+/**
+ * Test the JPQLPlanCache shared by sessions with the same descriptors.
+ * Verify that a session uses the plans parsed by another session with the same descriptors,
+ * that sessions with changed descriptors or another class loader do not use them,
+ * that the copies of a plan do not share the expressions of their sub-selects, joins and report items,
+ * that the warm-up parses the named queries, and that the plans are removed when their last session logs out.
+ */
+public class JPQLPlanCacheTest extends TestCase {
+    public static String SIMPLE = "SELECT e FROM Employee e WHERE e.firstName = :name";
+    public static String SUB_SELECT = "SELECT e FROM Employee e WHERE e.salary >= (SELECT MIN(e2.salary) FROM Employee e2 WHERE e2.address.city = e.address.city) ORDER BY e.lastName";
+    public static String JOIN = "SELECT e FROM Employee e JOIN FETCH e.address LEFT JOIN e.phoneNumbers p WHERE p.areaCode = '613' OR p.areaCode IS NULL";
+    public static String REPORT = "SELECT e.lastName, a.city, COUNT(p) FROM Employee e JOIN e.address a LEFT JOIN e.phoneNumbers p GROUP BY e.lastName, a.city HAVING COUNT(p) >= 0";
+    public static String UPDATE = "UPDATE Employee e SET e.firstName = e.lastName WHERE e.firstName = 'JPQLPlanCacheTest'";
+    public static String[] WARM_UP = {
+        "SELECT e FROM Employee e WHERE e.lastName = :name",
+        "SELECT a FROM Address a WHERE a.city = :city",
+        "SELECT p FROM PhoneNumber p WHERE p.areaCode = :areaCode"};
+
+    protected JPQLPlanCache previousCache;
+    protected JPQLPlanCache cache;
+    protected List<DatabaseSessionImpl> sessions;
+    protected ClassLoader loader;
+
+    public JPQLPlanCacheTest() {
+        setDescription("Tests that the plans of the JPQL plan cache are shared by the sessions with the same descriptors.");
+    }
+
+    public void setup() {
+        this.previousCache = JPQLPlanCache.getSharedCache();
+        this.cache = new JPQLPlanCache(100);
+        JPQLPlanCache.setSharedCache(this.cache);
+        this.sessions = new ArrayList<DatabaseSessionImpl>();
+        this.loader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+    }
+
+    public void reset() {
+        for (DatabaseSessionImpl session : this.sessions) {
+            if (session.isConnected()) {
+                session.logout();
+            }
+        }
+        JPQLPlanCache.setSharedCache(this.previousCache);
+        this.sessions = null;
+        this.cache = null;
+        this.loader = null;
+    }
+
+    /**
+     * Log in a new session of the project, using the plan cache, and the class loader if not null.
+     */
+    protected DatabaseSessionImpl login(Project project, ClassLoader classLoader) {
+        project.setShouldUseJPQLPlanCache(true);
+        DatabaseLogin login = (DatabaseLogin)getSession().getLogin().clone();
+        if (classLoader != null) {
+            // The cloned platform shares the conversion manager of the test session.
+            ConversionManager conversionManager = (ConversionManager)login.getPlatform().getConversionManager().clone();
+            conversionManager.setLoader(classLoader);
+            login.getPlatform().setConversionManager(conversionManager);
+        }
+        project.setLogin(login);
+        DatabaseSessionImpl session = (DatabaseSessionImpl)project.createDatabaseSession();
+        session.setSessionLog(getSession().getSessionLog());
+        this.sessions.add(session);
+        session.login();
+        return session;
+    }
+
+    /**
+     * Return the query of the JPQL string from the cache, and check if its plan was cached.
+     */
+    protected DatabaseQuery buildQuery(String jpql, AbstractSession session, boolean isHit) {
+        long hits = this.cache.getHits();
+        long parseCount = this.cache.getParseCount();
+        DatabaseQuery query = this.cache.buildQuery(jpql, session);
+        boolean wasHit = this.cache.getHits() != hits;
+        if (wasHit != isHit) {
+            throwError("The plan of: " + jpql + " was " + (wasHit ? "" : "not ") + "found in the cache.");
+        }
+        if (wasHit == (this.cache.getParseCount() != parseCount)) {
+            throwError("The JPQL: " + jpql + " was " + (wasHit ? "parsed when found" : "not parsed when not found") + " in the cache.");
+        }
+        return query;
+    }
+
+    /**
+     * Prepare the query, and return its SQL.
+     */
+    protected List prepare(DatabaseQuery query, AbstractSession session) {
+        query.checkPrepare(session, new DatabaseRecord());
+        if (query.getSQLStrings() == null) {
+            throwError("The query was not prepared: " + query.getJPQLString());
+        }
+        return query.getSQLStrings();
+    }
+
+    protected void checkFingerprints(DatabaseSessionImpl session, DatabaseSessionImpl other, boolean isSame) {
+        String fingerprint = session.getProject().getJPQLPlanCacheFingerprint();
+        if (fingerprint == null) {
+            throwError("The fingerprint was not registered at login.");
+        }
+        if (fingerprint.equals(other.getProject().getJPQLPlanCacheFingerprint()) != isSame) {
+            throwError("The fingerprints of the sessions should be " + (isSame ? "the same." : "different."));
+        }
+    }
+
+    /**
+     * Return the sub-selects of the expression.
+     */
+    protected List<SubSelectExpression> getSubSelects(Expression expression) {
+        final List<SubSelectExpression> subSelects = new ArrayList<SubSelectExpression>();
+        new ExpressionIterator() {
+            public void iterate(Expression each) {
+                if (each instanceof SubSelectExpression) {
+                    subSelects.add((SubSelectExpression)each);
+                }
+            }
+        }.iterateOn(expression);
+        return subSelects;
+    }
+
+    /**
+     * Check that the copies do not share the same objects.
+     */
+    protected void checkNotShared(String name, List copies, List otherCopies) {
+        if ((copies != null) && (copies == otherCopies)) {
+            throwError("The copies share their " + name + ".");
+        }
+        if (((copies == null) ? 0 : copies.size()) != ((otherCopies == null) ? 0 : otherCopies.size())) {
+            throwError("The copies have different " + name + ".");
+        }
+        for (int index = 0; (copies != null) && (index < copies.size()); index++) {
+            if (copies.get(index) == otherCopies.get(index)) {
+                throwError("The copies share their " + name + ": " + copies.get(index));
+            }
+        }
+    }
+
+    /**
+     * Check that two copies of a plan do not share the expressions changed by preparing them.
+     */
+    protected void checkIsolated(DatabaseQuery copy, DatabaseQuery otherCopy) {
+        if (copy == otherCopy) {
+            throwError("The plan was not copied: " + copy.getJPQLString());
+        }
+        if (copy.getSelectionCriteria() != null) {
+            if (copy.getSelectionCriteria() == otherCopy.getSelectionCriteria()) {
+                throwError("The copies share their selection criteria: " + copy.getJPQLString());
+            }
+            List<SubSelectExpression> subSelects = getSubSelects(copy.getSelectionCriteria());
+            List<SubSelectExpression> otherSubSelects = getSubSelects(otherCopy.getSelectionCriteria());
+            checkNotShared("sub-selects", subSelects, otherSubSelects);
+            for (int index = 0; index < subSelects.size(); index++) {
+                if (subSelects.get(index).getSubQuery() == otherSubSelects.get(index).getSubQuery()) {
+                    throwError("The copies share their sub-query.");
+                }
+                ReportQuery subQuery = subSelects.get(index).getSubQuery();
+                ReportQuery otherSubQuery = otherSubSelects.get(index).getSubQuery();
+                if (subQuery.getSelectionCriteria() == otherSubQuery.getSelectionCriteria()) {
+                    throwError("The copies share their sub-query's selection criteria.");
+                }
+                checkNotShared("sub-query items", subQuery.getItems(), otherSubQuery.getItems());
+            }
+        }
+        if (copy.isObjectLevelReadQuery()) {
+            ObjectLevelReadQuery readQuery = (ObjectLevelReadQuery)copy;
+            ObjectLevelReadQuery otherReadQuery = (ObjectLevelReadQuery)otherCopy;
+            if (readQuery.getExpressionBuilder() == otherReadQuery.getExpressionBuilder()) {
+                throwError("The copies share their expression builder.");
+            }
+            checkNotShared("order by", readQuery.getOrderByExpressions(), otherReadQuery.getOrderByExpressions());
+            checkNotShared("joins", readQuery.getNonFetchJoinAttributeExpressions(), otherReadQuery.getNonFetchJoinAttributeExpressions());
+            if (readQuery.hasJoining()) {
+                checkNotShared("fetch joins", readQuery.getJoinedAttributeManager().getJoinedAttributeExpressions(),
+                    otherReadQuery.getJoinedAttributeManager().getJoinedAttributeExpressions());
+            }
+            if (readQuery.isReportQuery()) {
+                ReportQuery reportQuery = (ReportQuery)readQuery;
+                ReportQuery otherReportQuery = (ReportQuery)otherReadQuery;
+                checkNotShared("report items", reportQuery.getItems(), otherReportQuery.getItems());
+                for (int index = 0; index < reportQuery.getItems().size(); index++) {
+                    if (reportQuery.getItems().get(index).getAttributeExpression() == otherReportQuery.getItems().get(index).getAttributeExpression()) {
+                        throwError("The copies share their report item expressions.");
+                    }
+                }
+                checkNotShared("group by", reportQuery.getGroupByExpressions(), otherReportQuery.getGroupByExpressions());
+                if (reportQuery.getHavingExpression() == otherReportQuery.getHavingExpression()) {
+                    throwError("The copies share their having expression.");
+                }
+            }
+        } else if (copy.isUpdateAllQuery()) {
+            checkNotShared("update values", new ArrayList(((UpdateAllQuery)copy).getUpdateClauses().values()),
+                new ArrayList(((UpdateAllQuery)otherCopy).getUpdateClauses().values()));
+        }
+    }
+
+    public void test() {
+        testSharedPlans();
+        testChangedModel();
+        testCopyIsolation();
+        testWarmUp();
+        testReleaseOnLogout();
+    }
+
+    /**
+     * Test that a session uses the plan parsed by another session with the same descriptors.
+     */
+    protected void testSharedPlans() {
+        DatabaseSessionImpl first = login(new EmployeeProject(), null);
+        DatabaseSessionImpl second = login(new EmployeeProject(), null);
+        checkFingerprints(first, second, true);
+        DatabaseQuery parsed = buildQuery(SIMPLE, first, false);
+        DatabaseQuery copy = buildQuery(SIMPLE, second, true);
+        if ((copy == parsed) || (copy.getReferenceClass() != Employee.class)) {
+            throwError("The plan was not copied for the other session.");
+        }
+        if (!prepare(parsed, first).equals(prepare(copy, second))) {
+            throwError("The copy of the plan does not have the SQL of the parsed query: " + copy.getSQLStrings());
+        }
+        Employee employee = (Employee)first.readObject(Employee.class);
+        Vector arguments = new Vector();
+        arguments.add(employee.getFirstName());
+        List result = (List)first.executeQuery(parsed, arguments);
+        List copyResult = (List)second.executeQuery(copy, arguments);
+        if (result.isEmpty() || (result.size() != copyResult.size())) {
+            throwError("The copy of the plan read: " + copyResult.size() + " employees, but the parsed query read: " + result.size());
+        }
+    }
+
+    /**
+     * Test that sessions with other descriptors or another class loader do not use the plans.
+     */
+    protected void testChangedModel() {
+        DatabaseSessionImpl first = this.sessions.get(0);
+        Project project = new EmployeeProject();
+        project.getDescriptor(Employee.class).removeMappingForAttributeName("salary");
+        DatabaseSessionImpl changed = login(project, null);
+        checkFingerprints(first, changed, false);
+        buildQuery(SIMPLE, changed, false);
+
+        DatabaseSessionImpl otherLoader = login(new EmployeeProject(), this.loader);
+        checkFingerprints(first, otherLoader, false);
+        buildQuery(SIMPLE, otherLoader, false);
+        // Sessions of the same class loader share their plans.
+        DatabaseSessionImpl sameLoader = login(new EmployeeProject(), this.loader);
+        checkFingerprints(otherLoader, sameLoader, true);
+        buildQuery(SIMPLE, sameLoader, true);
+    }
+
+    /**
+     * Test that preparing a copy of a plan does not change the plan or the other copies.
+     */
+    protected void testCopyIsolation() {
+        DatabaseSessionImpl session = this.sessions.get(0);
+        String[] jpqlStrings = {SUB_SELECT, JOIN, REPORT, UPDATE};
+        for (String jpql : jpqlStrings) {
+            DatabaseQuery parsed = buildQuery(jpql, session, false);
+            DatabaseQuery copy = buildQuery(jpql, session, true);
+            DatabaseQuery otherCopy = buildQuery(jpql, session, true);
+            checkIsolated(copy, otherCopy);
+            checkIsolated(parsed, copy);
+            List sql = prepare(parsed, session);
+            if (!sql.equals(prepare(copy, session))) {
+                throwError("The copy has the SQL: " + copy.getSQLStrings() + " but the parsed query has: " + sql);
+            }
+            if (!sql.equals(prepare(otherCopy, session))) {
+                throwError("The other copy has the SQL: " + otherCopy.getSQLStrings() + " but the parsed query has: " + sql);
+            }
+            // Preparing the copies did not change the plan.
+            DatabaseQuery lastCopy = buildQuery(jpql, session, true);
+            checkIsolated(copy, lastCopy);
+            if (!sql.equals(prepare(lastCopy, session))) {
+                throwError("The copy after preparing the others has the SQL: " + lastCopy.getSQLStrings() + " but the parsed query has: " + sql);
+            }
+        }
+    }
+
+    /**
+     * Test that the warm-up parses all of the queries, or only the named queries.
+     * The session warms up its JPA queries at login, which are only processed by JPA.
+     */
+    protected void testWarmUp() {
+        DatabaseSessionImpl session = this.sessions.get(0);
+        List<DatabaseQuery> queries = new ArrayList<DatabaseQuery>();
+        for (int index = 0; index < WARM_UP.length; index++) {
+            ReadAllQuery query = new ReadAllQuery();
+            query.setName("warmUp" + index);
+            query.setJPQLString(WARM_UP[index]);
+            queries.add(query);
+        }
+        int size = this.cache.getSize();
+        this.cache.warmUp(queries, Arrays.asList("ALL"), session);
+        if (this.cache.getSize() != size + WARM_UP.length) {
+            throwError("The warm-up cached: " + (this.cache.getSize() - size) + " plans, expected: " + WARM_UP.length);
+        }
+        for (String jpql : WARM_UP) {
+            buildQuery(jpql, session, true);
+        }
+
+        // Only the named queries are parsed, and queries that fail to parse are ignored.
+        queries = new ArrayList<DatabaseQuery>();
+        String[] jpqlStrings = {"SELECT e FROM Employee e WHERE e.id = :id", "SELECT e FROM Employee e WHERE e.id > :id", "SELECT x FROM Unknown x"};
+        for (int index = 0; index < jpqlStrings.length; index++) {
+            ReadAllQuery query = new ReadAllQuery();
+            query.setName("named" + index);
+            query.setJPQLString(jpqlStrings[index]);
+            queries.add(query);
+        }
+        size = this.cache.getSize();
+        this.cache.warmUp(queries, Arrays.asList("named0", "named2"), session);
+        if (this.cache.getSize() != size + 1) {
+            throwError("The warm-up of the named queries cached: " + (this.cache.getSize() - size) + " plans, expected: 1");
+        }
+        buildQuery(jpqlStrings[0], session, true);
+        buildQuery(jpqlStrings[1], session, false);
+    }
+
+    /**
+     * Test that the plans of a fingerprint are removed when its last session logs out, and the other plans are kept.
+     */
+    protected void testReleaseOnLogout() {
+        DatabaseSessionImpl first = this.sessions.get(0);
+        String fingerprint = first.getProject().getJPQLPlanCacheFingerprint();
+        DatabaseSessionImpl sameLoader = null;
+        List<DatabaseSessionImpl> sameFingerprint = new ArrayList<DatabaseSessionImpl>();
+        for (DatabaseSessionImpl session : this.sessions) {
+            if (fingerprint.equals(session.getProject().getJPQLPlanCacheFingerprint())) {
+                sameFingerprint.add(session);
+            } else if (session.getDatasourcePlatform().getConversionManager().getLoader() == this.loader) {
+                sameLoader = session;
+            }
+        }
+        int size = this.cache.getSize();
+        for (int index = 0; index < sameFingerprint.size() - 1; index++) {
+            sameFingerprint.get(index).logout();
+        }
+        if (this.cache.getSize() != size) {
+            throwError("Plans were removed while a session still uses them.");
+        }
+        sameFingerprint.get(sameFingerprint.size() - 1).logout();
+        // The simple plans of the changed model and the other class loader are kept.
+        if (this.cache.getSize() != 2) {
+            throwError("The plans of the logged out sessions were not removed, plans: " + this.cache.getSize());
+        }
+        buildQuery(SIMPLE, sameLoader, true);
+        DatabaseSessionImpl session = login(new EmployeeProject(), null);
+        if (!fingerprint.equals(session.getProject().getJPQLPlanCacheFingerprint())) {
+            throwError("The fingerprint of the descriptors changed.");
+        }
+        buildQuery(SIMPLE, session, false);
+    }
+}
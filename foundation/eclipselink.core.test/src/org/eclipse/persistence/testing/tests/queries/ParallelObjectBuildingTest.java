@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.queries;
+
+import java.util.*;
+
+import org.eclipse.persistence.descriptors.DescriptorEvent;
+import org.eclipse.persistence.descriptors.DescriptorEventAdapter;
+import org.eclipse.persistence.descriptors.DescriptorEventManager;
+import org.eclipse.persistence.internal.descriptors.ObjectBuilder;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.sessions.server.Server;
+import org.eclipse.persistence.testing.framework.*;
+import org.eclipse.persistence.testing.models.employee.domain.*;
+
+/**
+ * Verify that building the objects of a read all query in parallel returns the same results as building them serially:
+ * the same order, the same cached instances, each employee once with a joined 1-m,
+ * the subclasses of an inheritance hierarchy, and that an error building an object on another thread is thrown.
+ * The threshold and chunk size are lowered so the model's data is built by several threads.
+ */
+public class ParallelObjectBuildingTest extends TestCase {
+    protected Server server;
+    protected int threshold;
+    protected int chunkSize;
+
+    public ParallelObjectBuildingTest() {
+        setDescription("Verify that building objects in parallel returns the same results as building them serially.");
+    }
+
+    /**
+     * Parallel building requires a server session.
+     */
+    public void setup() {
+        if (Runtime.getRuntime().availableProcessors() < 2) {
+            throw new TestWarningException("Parallel object building requires more than one processor.");
+        }
+        this.threshold = ObjectBuilder.parallelBuildingThreshold;
+        this.chunkSize = ObjectBuilder.parallelBuildingChunkSize;
+        ObjectBuilder.parallelBuildingThreshold = 0;
+        ObjectBuilder.parallelBuildingChunkSize = 1;
+        this.server = getSession().getProject().createServerSession();
+        this.server.setSessionLog(getSession().getSessionLog());
+        this.server.login();
+    }
+
+    public void reset() {
+        ObjectBuilder.parallelBuildingThreshold = this.threshold;
+        ObjectBuilder.parallelBuildingChunkSize = this.chunkSize;
+        if ((this.server != null) && this.server.isConnected()) {
+            this.server.logout();
+        }
+        this.server = null;
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+    }
+
+    /**
+     * Execute a copy of the query, building its objects in parallel or serially.
+     */
+    protected List read(ReadAllQuery query, boolean shouldBuildObjectsInParallel) {
+        ReadAllQuery copy = (ReadAllQuery)query.clone();
+        copy.setShouldBuildObjectsInParallel(shouldBuildObjectsInParallel);
+        return (List)this.server.executeQuery(copy);
+    }
+
+    public void test() {
+        // The objects built in parallel are cached, so a serial read returns the same instances in the same order.
+        ReadAllQuery query = new ReadAllQuery(Employee.class);
+        query.addAscendingOrdering("id");
+        this.server.getIdentityMapAccessor().initializeAllIdentityMaps();
+        List parallel = read(query, true);
+        List serial = read(query, false);
+        if (parallel.size() != serial.size()) {
+            throwError("Parallel result size: " + parallel.size() + " does not match serial: " + serial.size());
+        }
+        for (int index = 0; index < serial.size(); index++) {
+            if (parallel.get(index) != serial.get(index)) {
+                throwError("Parallel result at " + index + ": " + parallel.get(index) + " is not the cached instance: " + serial.get(index));
+            }
+        }
+
+        // With a joined 1-m each employee is built once from its duplicate rows, with all of its phone numbers.
+        query = new ReadAllQuery(Employee.class);
+        query.addAscendingOrdering("id");
+        query.addJoinedAttribute(query.getExpressionBuilder().anyOfAllowingNone("phoneNumbers"));
+        this.server.getIdentityMapAccessor().initializeAllIdentityMaps();
+        parallel = read(query, true);
+        List<String> parallelPhones = new ArrayList<String>();
+        for (Object employee : parallel) {
+            parallelPhones.add(((Employee)employee).getId() + ":" + ((Employee)employee).getPhoneNumbers().size());
+        }
+        this.server.getIdentityMapAccessor().initializeAllIdentityMaps();
+        serial = read(query, false);
+        List<String> serialPhones = new ArrayList<String>();
+        for (Object employee : serial) {
+            serialPhones.add(((Employee)employee).getId() + ":" + ((Employee)employee).getPhoneNumbers().size());
+        }
+        if (!parallelPhones.equals(serialPhones)) {
+            throwError("Joined parallel result: " + parallelPhones + " does not match serial: " + serialPhones);
+        }
+
+        // The rows of each subclass are built as the subclass.
+        query = new ReadAllQuery(Project.class);
+        query.addAscendingOrdering("id");
+        this.server.getIdentityMapAccessor().initializeAllIdentityMaps();
+        parallel = read(query, true);
+        List<String> parallelProjects = new ArrayList<String>();
+        for (Object project : parallel) {
+            parallelProjects.add(((Project)project).getId() + ":" + project.getClass().getName());
+        }
+        this.server.getIdentityMapAccessor().initializeAllIdentityMaps();
+        serial = read(query, false);
+        List<String> serialProjects = new ArrayList<String>();
+        for (Object project : serial) {
+            serialProjects.add(((Project)project).getId() + ":" + project.getClass().getName());
+        }
+        if (!parallelProjects.equals(serialProjects)) {
+            throwError("Inheritance parallel result: " + parallelProjects + " does not match serial: " + serialProjects);
+        }
+
+        // An error building the last employee, in the last chunk, is thrown to the caller.
+        query = new ReadAllQuery(Employee.class);
+        query.addAscendingOrdering("id");
+        final Employee last = (Employee)read(query, false).get(0);
+        final RuntimeException failure = new RuntimeException("Parallel building failure.");
+        DescriptorEventAdapter listener = new DescriptorEventAdapter() {
+            public void postBuild(DescriptorEvent event) {
+                if (((Employee)event.getSource()).getId().equals(last.getId())) {
+                    throw failure;
+                }
+            }
+        };
+        DescriptorEventManager eventManager = this.server.getDescriptor(Employee.class).getEventManager();
+        eventManager.addListener(listener);
+        try {
+            this.server.getIdentityMapAccessor().initializeAllIdentityMaps();
+            query = new ReadAllQuery(Employee.class);
+            query.addDescendingOrdering("id");
+            try {
+                read(query, true);
+            } catch (RuntimeException exception) {
+                if (exception != failure) {
+                    throw exception;
+                }
+                return;
+            }
+            throwError("The error building an object in parallel was not thrown.");
+        } finally {
+            eventManager.removeListener(listener);
+        }
+    }
+}
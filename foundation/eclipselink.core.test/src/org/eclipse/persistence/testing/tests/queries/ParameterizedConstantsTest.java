@@ -0,0 +1,242 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.queries;
+
+import java.util.*;
+
+import org.eclipse.persistence.descriptors.DescriptorQueryManager;
+import org.eclipse.persistence.expressions.*;
+import org.eclipse.persistence.queries.*;
+import org.eclipse.persistence.sessions.UnitOfWork;
+import org.eclipse.persistence.testing.framework.*;
+import org.eclipse.persistence.testing.models.employee.domain.*;
+
+/**
+ * Test parameterizing the constants of dynamic queries.
+ * Verify that the results are the same with and without parameterizing for each kind of comparison and constant,
+ * that queries of different shapes do not share their cached SQL, and queries of the same shape bind their own constants,
+ * that conforming in a unit of work uses the constants,
+ * and that a query re-executed with new selection criteria does not use the constants of its previous criteria.
+ */
+public class ParameterizedConstantsTest extends TestCase {
+    protected boolean shouldParameterizeConstants;
+
+    public ParameterizedConstantsTest() {
+        setDescription("Tests that parameterizing the constants of dynamic queries does not change their results.");
+    }
+
+    public void setup() {
+        if (!getSession().getPlatform().shouldBindLiterals()) {
+            throw new TestWarningException("Constants are only parameterized if the platform binds literals.");
+        }
+        this.shouldParameterizeConstants = DescriptorQueryManager.shouldParameterizeConstants();
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+    }
+
+    public void reset() {
+        DescriptorQueryManager.setShouldParameterizeConstants(this.shouldParameterizeConstants);
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+    }
+
+    /**
+     * Return the ids of the employees.
+     */
+    protected Set getIds(Collection employees) {
+        Set ids = new HashSet();
+        for (Object employee : employees) {
+            ids.add(((Employee)employee).getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Return the ids of the employees read by the criteria.
+     */
+    protected Set readIds(Expression criteria, boolean shouldParameterizeConstants) {
+        DescriptorQueryManager.setShouldParameterizeConstants(shouldParameterizeConstants);
+        ReadAllQuery query = new ReadAllQuery(Employee.class, criteria);
+        Set ids = getIds((Collection)getSession().executeQuery(query));
+        if (shouldParameterizeConstants && (query.getParameterizedConstants() == null)) {
+            throwError("The constants of the query were not parameterized: " + criteria);
+        }
+        if (!shouldParameterizeConstants && (query.getParameterizedConstants() != null)) {
+            throwError("The constants of the query were parameterized when not enabled: " + criteria);
+        }
+        return ids;
+    }
+
+    /**
+     * Check that the criteria reads the same employees with and without parameterizing its constants.
+     */
+    protected void checkResults(String name, Expression criteria) {
+        Set expected = readIds(criteria, false);
+        if (expected.isEmpty()) {
+            throwError(name + " read no employees, so does not test the comparison.");
+        }
+        Set ids = readIds((Expression)criteria.clone(), true);
+        if (!expected.equals(ids)) {
+            throwError(name + " read: " + ids + " with parameterized constants, but expected: " + expected);
+        }
+    }
+
+    public void test() {
+        testComparisons();
+        testQueryShapes();
+        testConforming();
+        testSetSelectionCriteria();
+    }
+
+    /**
+     * Test each comparison and type of constant.
+     */
+    protected void testComparisons() {
+        Employee employee = (Employee)getSession().readObject(Employee.class, new ExpressionBuilder().get("period").notNull());
+        ExpressionBuilder builder = new ExpressionBuilder();
+        checkResults("Equal", builder.get("lastName").equal(employee.getLastName()));
+        builder = new ExpressionBuilder();
+        checkResults("Not equal", builder.get("lastName").notEqual(employee.getLastName()));
+        builder = new ExpressionBuilder();
+        checkResults("Less than", builder.get("salary").lessThan(employee.getSalary() + 1));
+        builder = new ExpressionBuilder();
+        checkResults("Like", builder.get("firstName").like(employee.getFirstName().substring(0, 1) + "%"));
+        builder = new ExpressionBuilder();
+        checkResults("Date", builder.get("period").get("startDate").lessThanEqual(employee.getPeriod().getStartDate()));
+        builder = new ExpressionBuilder();
+        checkResults("Converted", builder.get("gender").equal(employee.getGender()));
+        builder = new ExpressionBuilder();
+        checkResults("Character", builder.getField("GENDER").equal(Character.valueOf("Male".equals(employee.getGender()) ? 'M' : 'F')));
+        builder = new ExpressionBuilder();
+        checkResults("Constant first", builder.value(employee.getLastName()).equal(builder.get("lastName")));
+    }
+
+    /**
+     * Test that queries of different shapes are not shared, and queries of the same shape bind their own constants.
+     */
+    protected void testQueryShapes() {
+        List employees = getSession().readAllObjects(Employee.class);
+        Employee first = (Employee)employees.get(0);
+        Employee second = null;
+        for (Object employee : employees) {
+            if (!((Employee)employee).getLastName().equals(first.getLastName())
+                    && !((Employee)employee).getFirstName().equals(first.getFirstName())) {
+                second = (Employee)employee;
+                break;
+            }
+        }
+        if (second == null) {
+            throw new TestWarningException("Not enough employees with different names.");
+        }
+        for (int index = 0; index < 2; index++) {
+            // Executed twice, so the second execution prepares from the cached queries.
+            ExpressionBuilder builder = new ExpressionBuilder();
+            Set byLastName = readIds(builder.get("lastName").equal(first.getLastName()), true);
+            builder = new ExpressionBuilder();
+            Set byFirstName = readIds(builder.get("firstName").equal(second.getFirstName()), true);
+            builder = new ExpressionBuilder();
+            Set byOtherLastName = readIds(builder.get("lastName").equal(second.getLastName()), true);
+            builder = new ExpressionBuilder();
+            Set byLastNameLike = readIds(builder.get("lastName").like(second.getLastName()), true);
+            if (!byLastName.contains(first.getId()) || byLastName.contains(second.getId())) {
+                throwError("The last name query read: " + byLastName);
+            }
+            if (!byFirstName.contains(second.getId()) || byFirstName.contains(first.getId())) {
+                throwError("The first name query used the SQL of another shape, and read: " + byFirstName);
+            }
+            if (!byOtherLastName.contains(second.getId()) || byOtherLastName.contains(first.getId())) {
+                throwError("The query of the same shape did not bind its own constant, and read: " + byOtherLastName);
+            }
+            if (!byOtherLastName.equals(byLastNameLike)) {
+                throwError("The like query read: " + byLastNameLike + " but the equal query read: " + byOtherLastName);
+            }
+        }
+    }
+
+    /**
+     * Test that conforming in a unit of work compares the objects to the parameterized constants.
+     */
+    protected void testConforming() {
+        DescriptorQueryManager.setShouldParameterizeConstants(true);
+        UnitOfWork uow = getSession().acquireUnitOfWork();
+        try {
+            Employee employee = (Employee)uow.readObject(Employee.class);
+            employee.setLastName("Conforming");
+            ExpressionBuilder builder = new ExpressionBuilder();
+            ReadAllQuery query = new ReadAllQuery(Employee.class, builder.get("lastName").equal("Conforming"));
+            query.conformResultsInUnitOfWork();
+            List result = (List)uow.executeQuery(query);
+            if ((result.size() != 1) || (result.get(0) != employee)) {
+                throwError("The changed employee was not conformed: " + result);
+            }
+            builder = new ExpressionBuilder();
+            query = new ReadAllQuery(Employee.class, builder.get("lastName").notEqual("Conforming"));
+            query.conformResultsInUnitOfWork();
+            result = (List)uow.executeQuery(query);
+            if (result.contains(employee)) {
+                throwError("The changed employee was conformed to not equal its last name.");
+            }
+        } finally {
+            uow.release();
+        }
+    }
+
+    /**
+     * Test that a query re-executed with new selection criteria uses the constants of its new criteria.
+     */
+    protected void testSetSelectionCriteria() {
+        DescriptorQueryManager.setShouldParameterizeConstants(true);
+        Employee employee = (Employee)getSession().readObject(Employee.class);
+        ReadAllQuery query = new ReadAllQuery(Employee.class);
+        ExpressionBuilder builder = query.getExpressionBuilder();
+        query.setSelectionCriteria(builder.get("lastName").equal(employee.getLastName()));
+        Set byLastName = getIds((Collection)getSession().executeQuery(query));
+        if (!byLastName.contains(employee.getId())) {
+            throwError("The last name query read: " + byLastName);
+        }
+
+        query.setSelectionCriteria(builder.get("firstName").equal(employee.getFirstName()));
+        if (query.getParameterizedConstants() != null) {
+            throwError("The constants of the previous criteria were kept.");
+        }
+        Set byFirstName = getIds((Collection)getSession().executeQuery(query));
+        DescriptorQueryManager.setShouldParameterizeConstants(false);
+        Set expected = getIds(getSession().readAllObjects(Employee.class, new ExpressionBuilder().get("firstName").equal(employee.getFirstName())));
+        DescriptorQueryManager.setShouldParameterizeConstants(true);
+        if (!expected.equals(byFirstName)) {
+            throwError("The query with new criteria read: " + byFirstName + " but expected: " + expected);
+        }
+
+        // Criteria without constants do not use the constants of the previous criteria.
+        query.setSelectionCriteria(builder.get("address").notNull());
+        Set withAddress = getIds((Collection)getSession().executeQuery(query));
+        if (query.getParameterizedConstants() != null) {
+            throwError("The query without constants has parameterized constants: " + query.getParameterizedConstants());
+        }
+        DescriptorQueryManager.setShouldParameterizeConstants(false);
+        expected = getIds(getSession().readAllObjects(Employee.class, new ExpressionBuilder().get("address").notNull()));
+        DescriptorQueryManager.setShouldParameterizeConstants(true);
+        if (!expected.equals(withAddress)) {
+            throwError("The query without constants read: " + withAddress + " but expected: " + expected);
+        }
+
+        // A deep clone of a prepared query keeps its constants.
+        query.setSelectionCriteria(builder.get("lastName").equal(employee.getLastName()));
+        getSession().executeQuery(query);
+        ReadAllQuery clone = (ReadAllQuery)query.deepClone();
+        if (clone.getParameterizedConstants() != query.getParameterizedConstants()) {
+            throwError("The deep clone did not keep the constants of its criteria.");
+        }
+        if (!getIds((Collection)getSession().executeQuery(clone)).equals(byLastName)) {
+            throwError("The deep clone did not read the same employees.");
+        }
+    }
+}
@@ -289,6 +289,10 @@ public class QueryFrameworkTestSuite extends TestSuite {
         addTest(new FirstResultAndMaxRowsTest(2, 5, 3));
 
         addTest(new QueryCacheTest());
+        addTest(new ParallelObjectBuildingTest());
+        addTest(new SQLResultCacheTest());
+        addTest(new ParameterizedConstantsTest());
+        addTest(new JPQLPlanCacheTest());
 
         // Created for Bug 4318924
         addTest(new TranslatedStringsTest());
@@ -0,0 +1,306 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.queries;
+
+import java.util.*;
+
+import org.eclipse.persistence.expressions.ExpressionBuilder;
+import org.eclipse.persistence.internal.sessions.*;
+import org.eclipse.persistence.queries.*;
+import org.eclipse.persistence.sessions.UnitOfWork;
+import org.eclipse.persistence.testing.framework.*;
+import org.eclipse.persistence.testing.models.employee.domain.*;
+
+/**
+ * Test the SQLResultCache of data read queries.
+ * Verify that a repeated SQL string and bind parameters are read from the cache,
+ * that the results of the written tables are removed by a commit, a data modify query, update all and delete all queries,
+ * a change set received from cache coordination, and objects inserted, updated or deleted directly by the session,
+ * and that results of other tables are kept,
+ * that the cache is not used in a transaction or by a unit of work with an early transaction,
+ * and that the number of results and their rows are bounded.
+ */
+public class SQLResultCacheTest extends TestCase {
+    protected SQLResultCache previousCache;
+    protected SQLResultCache cache;
+    protected DataReadQuery employeeQuery;
+    protected DataReadQuery addressQuery;
+    protected DataReadQuery phoneQuery;
+    protected Employee employee;
+
+    public SQLResultCacheTest() {
+        setDescription("Tests that the SQL result cache reuses results until their tables are written.");
+    }
+
+    public void setup() {
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+        this.previousCache = getAbstractSession().getSQLResultCache();
+        this.cache = new SQLResultCache();
+        getAbstractSession().setSQLResultCache(this.cache);
+        this.employeeQuery = new DataReadQuery(new SQLCall("SELECT F_NAME FROM EMPLOYEE WHERE EMP_ID = #EMP_ID"));
+        this.employeeQuery.addArgument("EMP_ID");
+        this.addressQuery = new DataReadQuery(new SQLCall("SELECT CITY FROM ADDRESS WHERE ADDRESS_ID = #ADDRESS_ID"));
+        this.addressQuery.addArgument("ADDRESS_ID");
+        this.phoneQuery = new DataReadQuery(new SQLCall("SELECT AREA_CODE, P_NUMBER FROM PHONE"));
+        ExpressionBuilder builder = new ExpressionBuilder();
+        this.employee = (Employee)getSession().readObject(Employee.class, builder.get("address").notNull());
+    }
+
+    public void reset() {
+        getAbstractSession().setSQLResultCache(this.previousCache);
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+        this.cache = null;
+        this.employee = null;
+    }
+
+    /**
+     * Execute the query with the argument, and check if its result was read from the cache.
+     */
+    protected List read(DatabaseQuery query, Object argument, boolean isHit, String description) {
+        Vector arguments = new Vector();
+        if (argument != null) {
+            arguments.add(argument);
+        }
+        long hits = this.cache.getResults().getHits();
+        List result = (List)getSession().executeQuery(query, arguments);
+        boolean wasHit = this.cache.getResults().getHits() != hits;
+        if (wasHit != isHit) {
+            throwError(description + ": the result was " + (wasHit ? "" : "not ") + "read from the cache.");
+        }
+        return result;
+    }
+
+    /**
+     * Return the values of the rows, as rows are not compared by value.
+     */
+    protected List<List> getValues(List rows) {
+        List<List> values = new ArrayList<List>();
+        for (Object row : rows) {
+            values.add(new ArrayList(((AbstractRecord)row).getValues()));
+        }
+        return values;
+    }
+
+    protected Object getAddressId() {
+        return this.employee.getAddress().getId();
+    }
+
+    public void test() {
+        testHits();
+        testCommit();
+        testModifyQueries();
+        testCacheCoordination();
+        testTransactions();
+        testDirectSessionWrites();
+        testSizeBound();
+    }
+
+    /**
+     * Test that the same SQL string and bind parameters are read from the cache, and others are not.
+     */
+    protected void testHits() {
+        List first = read(this.employeeQuery, this.employee.getId(), false, "First read");
+        List second = read(this.employeeQuery, this.employee.getId(), true, "Repeated read");
+        if (!getValues(first).equals(getValues(second))) {
+            throwError("The cached result: " + second + " does not match the read result: " + first);
+        }
+        // The cached rows are copied, so changing a result does not change the cache.
+        ((AbstractRecord)second.get(0)).put("F_NAME", "Changed");
+        List third = read(this.employeeQuery, this.employee.getId(), true, "Read after changing a result");
+        if (!getValues(first).equals(getValues(third))) {
+            throwError("The cached result was changed through a returned result: " + third);
+        }
+        Employee other = (Employee)getSession().readObject(Employee.class, new ExpressionBuilder().get("id").notEqual(this.employee.getId()));
+        read(this.employeeQuery, other.getId(), false, "Read with other bind parameters");
+        read(this.employeeQuery, other.getId(), true, "Repeated read with other bind parameters");
+    }
+
+    /**
+     * Test that a commit removes the results of the committed tables, and keeps the others.
+     */
+    protected void testCommit() {
+        read(this.employeeQuery, this.employee.getId(), true, "Read before commit");
+        read(this.addressQuery, getAddressId(), false, "First address read");
+        String firstName = this.employee.getFirstName();
+        UnitOfWork uow = getSession().acquireUnitOfWork();
+        Employee clone = (Employee)uow.registerObject(this.employee);
+        clone.setFirstName(firstName + "X");
+        uow.commit();
+        List result = read(this.employeeQuery, this.employee.getId(), false, "Read after commit");
+        if (!(firstName + "X").equals(((AbstractRecord)result.get(0)).get("F_NAME"))) {
+            throwError("The committed name was not read: " + result);
+        }
+        read(this.addressQuery, getAddressId(), true, "Address read after employee commit");
+
+        // Restoring the name with a data modify query removes the results of the table it writes.
+        DataModifyQuery restore = new DataModifyQuery(new SQLCall("UPDATE EMPLOYEE SET F_NAME = #F_NAME WHERE EMP_ID = #EMP_ID"));
+        restore.addArgument("F_NAME");
+        restore.addArgument("EMP_ID");
+        Vector arguments = new Vector();
+        arguments.add(firstName);
+        arguments.add(this.employee.getId());
+        getSession().executeQuery(restore, arguments);
+        result = read(this.employeeQuery, this.employee.getId(), false, "Read after data modify query");
+        if (!firstName.equals(((AbstractRecord)result.get(0)).get("F_NAME"))) {
+            throwError("The restored name was not read: " + result);
+        }
+        read(this.addressQuery, getAddressId(), true, "Address read after employee data modify query");
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+    }
+
+    /**
+     * Test that update all and delete all queries remove the results of their reference class tables.
+     */
+    protected void testModifyQueries() {
+        read(this.employeeQuery, this.employee.getId(), true, "Read before update all");
+        // Update the name to its own value, as the update is not rolled back.
+        UpdateAllQuery updateAll = new UpdateAllQuery(Employee.class);
+        updateAll.setSelectionCriteria(updateAll.getExpressionBuilder().get("id").equal(this.employee.getId()));
+        updateAll.addUpdate("firstName", this.employee.getFirstName());
+        getSession().executeQuery(updateAll);
+        read(this.employeeQuery, this.employee.getId(), false, "Read after update all");
+        read(this.addressQuery, getAddressId(), true, "Address read after update all");
+
+        read(this.phoneQuery, null, false, "First phone read");
+        read(this.phoneQuery, null, true, "Repeated phone read");
+        // Delete no phones, the results are removed when the query is executed.
+        DeleteAllQuery deleteAll = new DeleteAllQuery(PhoneNumber.class);
+        deleteAll.setSelectionCriteria(deleteAll.getExpressionBuilder().get("areaCode").equal("DeleteAllSQLResultCache"));
+        getSession().executeQuery(deleteAll);
+        read(this.phoneQuery, null, false, "Phone read after delete all");
+        read(this.employeeQuery, this.employee.getId(), true, "Employee read after phone delete all");
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+    }
+
+    /**
+     * Test that merging a change set received from cache coordination removes the results of its tables.
+     */
+    protected void testCacheCoordination() {
+        read(this.employeeQuery, this.employee.getId(), true, "Read before merge");
+        read(this.addressQuery, getAddressId(), true, "Address read before merge");
+        // Build the change set of a released unit of work, as if it was committed by another server.
+        this.employee = (Employee)getSession().readObject(this.employee);
+        UnitOfWork uow = getSession().acquireUnitOfWork();
+        Employee clone = (Employee)uow.registerObject(this.employee);
+        clone.setFirstName(clone.getFirstName() + "M");
+        byte[] bytes;
+        try {
+            bytes = ((UnitOfWorkChangeSet)uow.getCurrentChanges()).getByteArrayRepresentation(getAbstractSession());
+        } catch (Exception exception) {
+            throw new TestErrorException("Failed to serialize the change set.", exception);
+        }
+        uow.release();
+        MergeManager manager = new MergeManager(getAbstractSession());
+        manager.mergeIntoDistributedCache();
+        manager.setCascadePolicy(MergeManager.CASCADE_ALL_PARTS);
+        try {
+            manager.mergeChangesFromChangeSet(new UnitOfWorkChangeSet(bytes, getAbstractSession()));
+        } catch (Exception exception) {
+            throw new TestErrorException("Failed to merge the change set.", exception);
+        }
+        read(this.employeeQuery, this.employee.getId(), false, "Read after merge");
+        read(this.addressQuery, getAddressId(), true, "Address read after employee merge");
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+        this.employee = (Employee)getSession().readObject(this.employee);
+    }
+
+    /**
+     * Test that the cache is not read or populated in a transaction.
+     */
+    protected void testTransactions() {
+        read(this.employeeQuery, this.employee.getId(), true, "Read before transaction");
+        int size = this.cache.getResults().getCache().size();
+        getAbstractSession().beginTransaction();
+        try {
+            read(this.employeeQuery, this.employee.getId(), false, "Read in transaction");
+            read(this.phoneQuery, null, false, "Phone read in transaction");
+            read(this.phoneQuery, null, false, "Repeated phone read in transaction");
+        } finally {
+            getAbstractSession().rollbackTransaction();
+        }
+        UnitOfWork uow = getSession().acquireUnitOfWork();
+        try {
+            uow.beginEarlyTransaction();
+            Vector arguments = new Vector();
+            arguments.add(this.employee.getId());
+            long hits = this.cache.getResults().getHits();
+            uow.executeQuery(this.employeeQuery, arguments);
+            uow.executeQuery(this.employeeQuery, arguments);
+            if (this.cache.getResults().getHits() != hits) {
+                throwError("The cache was read by a unit of work with an early transaction.");
+            }
+        } finally {
+            uow.release();
+        }
+        if (this.cache.getResults().getCache().size() != size) {
+            throwError("Results were cached in a transaction.");
+        }
+        read(this.employeeQuery, this.employee.getId(), true, "Read after transaction");
+    }
+
+    /**
+     * Test that objects inserted, updated and deleted by the session, outside of a unit of work,
+     * remove the results of their tables, and keep the others.
+     */
+    protected void testDirectSessionWrites() {
+        read(this.addressQuery, getAddressId(), true, "Address read before direct insert");
+        Address address = new Address();
+        address.setCity("SQLResultCache");
+        getDatabaseSession().insertObject(address);
+        read(this.addressQuery, getAddressId(), false, "Address read after direct insert");
+        read(this.employeeQuery, this.employee.getId(), true, "Employee read after direct address insert");
+        List result = read(this.addressQuery, address.getId(), false, "Read of the inserted address");
+        if ((result.size() != 1) || !"SQLResultCache".equals(((AbstractRecord)result.get(0)).get("CITY"))) {
+            throwError("The inserted address was not read: " + result);
+        }
+        getDatabaseSession().deleteObject(address);
+        result = read(this.addressQuery, address.getId(), false, "Read of the deleted address");
+        if (!result.isEmpty()) {
+            throwError("The deleted address was read: " + result);
+        }
+
+        String firstName = this.employee.getFirstName();
+        this.employee.setFirstName(firstName + "D");
+        getDatabaseSession().updateObject(this.employee);
+        result = read(this.employeeQuery, this.employee.getId(), false, "Read after direct update");
+        if (!(firstName + "D").equals(((AbstractRecord)result.get(0)).get("F_NAME"))) {
+            throwError("The updated name was not read: " + result);
+        }
+        this.employee.setFirstName(firstName);
+        getDatabaseSession().updateObject(this.employee);
+        read(this.employeeQuery, this.employee.getId(), false, "Read after restoring the direct update");
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+    }
+
+    /**
+     * Test that the number of cached results and their rows are bounded.
+     */
+    protected void testSizeBound() {
+        this.cache = new SQLResultCache(2);
+        getAbstractSession().setSQLResultCache(this.cache);
+        List employees = getSession().readAllObjects(Employee.class);
+        if (employees.size() < 3) {
+            throw new TestWarningException("Not enough employees to exceed the cache size.");
+        }
+        for (int index = 0; index < 3; index++) {
+            read(this.employeeQuery, ((Employee)employees.get(index)).getId(), false, "Read of employee " + index);
+        }
+        if ((this.cache.getResults().getCache().size() > 2) || (this.cache.getResults().getEvictions() == 0)) {
+            throwError("The cache exceeded its size: " + this.cache.getResults().getCache().size());
+        }
+        this.cache.setMaxRows(1);
+        DataReadQuery allEmployees = new DataReadQuery(new SQLCall("SELECT EMP_ID FROM EMPLOYEE"));
+        read(allEmployees, null, false, "Read of more than the max rows");
+        read(allEmployees, null, false, "Repeated read of more than the max rows");
+    }
+}
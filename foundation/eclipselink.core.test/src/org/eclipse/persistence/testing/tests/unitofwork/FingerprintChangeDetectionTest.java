@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.unitofwork;
+
+import java.util.*;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.changetracking.FingerprintChangeDetectionPolicy;
+import org.eclipse.persistence.descriptors.changetracking.ObjectChangePolicy;
+import org.eclipse.persistence.expressions.ExpressionBuilder;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
+import org.eclipse.persistence.sessions.changesets.ObjectChangeSet;
+import org.eclipse.persistence.testing.framework.*;
+import org.eclipse.persistence.testing.models.employee.domain.*;
+
+/**
+ * Test the FingerprintChangeDetectionPolicy.
+ * Address and PhoneNumber only have direct and one to one mappings, so are snapshot,
+ * Employee has collection and aggregate mappings, so is compared to a backup clone.
+ * Verify that unchanged objects have no change set, that only the changed attributes are recorded,
+ * that collection and aggregate changes are detected through the backup clone,
+ * that reverted objects are refreshed from their original and their snapshot rebuilt,
+ * and that the snapshots are rebuilt on commit and resume, and removed when the object is unregistered or the unit of work is cleared.
+ */
+public class FingerprintChangeDetectionTest extends TransactionalTestCase {
+    protected Map<Class, ObjectChangePolicy> originalPolicies;
+
+    public FingerprintChangeDetectionTest() {
+        setDescription("Tests change detection using the FingerprintChangeDetectionPolicy.");
+    }
+
+    public void setup() {
+        super.setup();
+        this.originalPolicies = new HashMap<Class, ObjectChangePolicy>();
+        for (Class type : new Class[] {Address.class, PhoneNumber.class, Employee.class}) {
+            ClassDescriptor descriptor = getSession().getDescriptor(type);
+            this.originalPolicies.put(type, descriptor.getObjectChangePolicy());
+            FingerprintChangeDetectionPolicy policy = new FingerprintChangeDetectionPolicy();
+            descriptor.setObjectChangePolicy(policy);
+            policy.initialize(getAbstractSession(), descriptor);
+        }
+    }
+
+    public void reset() {
+        for (Map.Entry<Class, ObjectChangePolicy> entry : this.originalPolicies.entrySet()) {
+            getSession().getDescriptor(entry.getKey()).setObjectChangePolicy(entry.getValue());
+        }
+        super.reset();
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+    }
+
+    /**
+     * Return the names of the attributes changed in the clone, or null if it has no changes.
+     */
+    protected List<String> getChangedAttributeNames(UnitOfWorkImpl uow, Object clone) {
+        ObjectChangeSet changes = uow.getCurrentChanges().getObjectChangeSetForClone(clone);
+        if (changes == null) {
+            return null;
+        }
+        if (changes.getChangedAttributeNames().isEmpty()) {
+            return null;
+        }
+        List<String> names = new ArrayList<String>(changes.getChangedAttributeNames());
+        Collections.sort(names);
+        return names;
+    }
+
+    protected void checkChanges(UnitOfWorkImpl uow, Object clone, List<String> expected) {
+        List<String> changed = getChangedAttributeNames(uow, clone);
+        if ((expected == null) ? (changed != null) : !expected.equals(changed)) {
+            throwError("Changed attributes of " + clone + " expected: " + expected + " but were: " + changed);
+        }
+    }
+
+    public void test() {
+        if (!((FingerprintChangeDetectionPolicy)getSession().getDescriptor(Address.class).getObjectChangePolicy()).usesSnapshot(getSession().getDescriptor(Address.class))) {
+            throwError("Address should be snapshot, as it only has direct mappings.");
+        }
+        if (((FingerprintChangeDetectionPolicy)getSession().getDescriptor(Employee.class).getObjectChangePolicy()).usesSnapshot(getSession().getDescriptor(Employee.class))) {
+            throwError("Employee should be backup cloned, as it has collection and aggregate mappings.");
+        }
+        UnitOfWorkImpl uow = (UnitOfWorkImpl)getSession().acquireUnitOfWork();
+        ExpressionBuilder builder = new ExpressionBuilder();
+        Employee employee = (Employee)uow.readObject(Employee.class, builder.get("address").notNull().and(builder.notEmpty("phoneNumbers")));
+        Employee otherEmployee = (Employee)uow.readObject(Employee.class, new ExpressionBuilder().get("id").notEqual(employee.getId()));
+        Address address = employee.getAddress();
+        PhoneNumber phone = (PhoneNumber)employee.getPhoneNumbers().get(0);
+
+        // The snapshot objects are their own backup clone, and have a snapshot.
+        if ((uow.getBackupClone(address) != address) || !uow.getCloneSnapshots().containsKey(address)) {
+            throwError("The address was not snapshot.");
+        }
+        if ((uow.getBackupClone(employee) == employee) || uow.getCloneSnapshots().containsKey(employee)) {
+            throwError("The employee was snapshot instead of backup cloned.");
+        }
+
+        // Unchanged snapshot objects have no change set.
+        if ((uow.getCurrentChanges().getObjectChangeSetForClone(address) != null)
+                || (uow.getCurrentChanges().getObjectChangeSetForClone(phone) != null)) {
+            throwError("A change set was built for an unchanged snapshot object.");
+        }
+        checkChanges(uow, employee, null);
+
+        // Only the changed direct attribute is recorded.
+        String city = address.getCity();
+        address.setCity(city + "X");
+        checkChanges(uow, address, Arrays.asList("city"));
+        // Changing the attribute back to its value is not a change.
+        address.setCity(city);
+        checkChanges(uow, address, null);
+        address.setCity(city + "X");
+
+        // A changed one to one target is recorded.
+        phone.setOwner(otherEmployee);
+        checkChanges(uow, phone, Arrays.asList("owner"));
+        phone.setOwner(employee);
+        checkChanges(uow, phone, null);
+
+        // Collection and aggregate changes are detected through the backup clone.
+        employee.addResponsibility("Fingerprint");
+        checkChanges(uow, employee, Arrays.asList("responsibilitiesList"));
+        Calendar startDate = Calendar.getInstance();
+        startDate.set(1990, 0, 1, 0, 0, 0);
+        startDate.set(Calendar.MILLISECOND, 0);
+        employee.getPeriod().setStartDate(new java.sql.Date(startDate.getTimeInMillis()));
+        checkChanges(uow, employee, Arrays.asList("period", "responsibilitiesList"));
+
+        // Commit and resume rebuilds the snapshots, so the committed changes are not detected again.
+        uow.commitAndResume();
+        checkChanges(uow, address, null);
+        checkChanges(uow, employee, null);
+        if (uow.getBackupClone(address) != address) {
+            throwError("The address was backup cloned after commit and resume.");
+        }
+        address.setStreet(address.getStreet() + "X");
+        checkChanges(uow, address, Arrays.asList("street"));
+
+        // Reverting refreshes the object from its original, and rebuilds its snapshot.
+        String street = ((Address)getSession().readObject(address)).getStreet();
+        uow.revertObject(address);
+        if (!street.equals(address.getStreet())) {
+            throwError("The address was not reverted: " + address.getStreet());
+        }
+        checkChanges(uow, address, null);
+        address.setStreet(street + "Y");
+        uow.revertAndResume();
+        if (!street.equals(address.getStreet())) {
+            throwError("The address was not reverted by revert and resume: " + address.getStreet());
+        }
+        checkChanges(uow, address, null);
+        address.setStreet(street + "X");
+
+        // Unregistering an object removes its snapshot.
+        UnitOfWorkImpl otherUow = (UnitOfWorkImpl)getSession().acquireUnitOfWork();
+        Address otherAddress = (Address)otherUow.registerObject(getSession().readObject(address));
+        if (!otherUow.getCloneSnapshots().containsKey(otherAddress)) {
+            throwError("The registered address was not snapshot.");
+        }
+        otherUow.unregisterObject(otherAddress);
+        if (otherUow.getCloneSnapshots().containsKey(otherAddress)) {
+            throwError("The snapshot of the unregistered address was not removed.");
+        }
+        otherUow.release();
+
+        // Clearing the unit of work removes the snapshots.
+        uow.clear(true);
+        if (!uow.getCloneSnapshots().isEmpty()) {
+            throwError("Snapshots not cleared with the unit of work: " + uow.getCloneSnapshots().size());
+        }
+        uow.release();
+
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+        Address committed = (Address)getSession().readObject(address);
+        if (!committed.getCity().equals(city + "X")) {
+            throwError("The address change was not written: " + committed.getCity());
+        }
+        Employee committedEmployee = (Employee)getSession().readObject(employee);
+        if (!committedEmployee.getResponsibilitiesList().contains("Fingerprint")
+                || !committedEmployee.getPeriod().getStartDate().equals(employee.getPeriod().getStartDate())) {
+            throwError("The employee changes were not written: " + committedEmployee);
+        }
+    }
+}
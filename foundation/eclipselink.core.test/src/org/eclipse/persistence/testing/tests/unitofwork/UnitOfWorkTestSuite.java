@@ -217,6 +217,8 @@ public class UnitOfWorkTestSuite extends TestSuite {
         addTest(new NestedUOWWithNewObjectRegisteredTwiceTest());
         
         addTest(new NestedUnitOfWorkReadOnlyClassTest());
+
+        addTest(new FingerprintChangeDetectionTest());
     }
     
     /**
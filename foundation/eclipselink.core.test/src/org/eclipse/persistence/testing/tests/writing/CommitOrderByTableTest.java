@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.writing;
+
+import java.util.*;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.sessions.CommitManager;
+import org.eclipse.persistence.internal.sessions.CommitPlanner;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.mappings.ForeignReferenceMapping;
+import org.eclipse.persistence.testing.framework.*;
+import org.eclipse.persistence.testing.models.employee.domain.*;
+
+/**
+ * Test the plan order of the CommitPlanner when grouping classes by table.
+ * Verify that the plan order has every class of the commit order,
+ * that every mapping and specified constraint dependency is in the same order as in the commit order,
+ * and that the unrelated project classes, which share the project table, are grouped together.
+ */
+public class CommitOrderByTableTest extends TestCase {
+    protected boolean shouldGroupByTable;
+
+    public CommitOrderByTableTest() {
+        setDescription("Tests that grouping the commit order by table keeps the order of every dependency.");
+    }
+
+    public void setup() {
+        this.shouldGroupByTable = CommitPlanner.shouldGroupByTable();
+        CommitPlanner.setShouldGroupByTable(true);
+    }
+
+    public void reset() {
+        CommitPlanner.setShouldGroupByTable(this.shouldGroupByTable);
+    }
+
+    /**
+     * Return the class and the classes of its subclasses, as a dependency on a class is a dependency on its subclasses.
+     */
+    protected List<Class> withAllSubclasses(Class theClass) {
+        List<Class> classes = new ArrayList<Class>();
+        classes.add(theClass);
+        ClassDescriptor descriptor = getSession().getDescriptor(theClass);
+        if ((descriptor != null) && descriptor.hasInheritance()) {
+            for (ClassDescriptor child : descriptor.getInheritancePolicy().getAllChildDescriptors()) {
+                classes.add(child.getJavaClass());
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * Check that the dependent classes are in the same order in the plan order as in the commit order.
+     */
+    protected void checkDependency(Class theClass, Class dependentClass, List<Class> commitOrder, List<Class> planOrder) {
+        int first = commitOrder.indexOf(theClass);
+        int second = commitOrder.indexOf(dependentClass);
+        if ((first == -1) || (second == -1) || (first == second)) {
+            return;
+        }
+        if ((first < second) != (planOrder.indexOf(theClass) < planOrder.indexOf(dependentClass))) {
+            throwError("The dependency between " + theClass + " and " + dependentClass + " is not in the commit order.");
+        }
+    }
+
+    public void test() {
+        CommitManager commitManager = new CommitManager(getAbstractSession());
+        commitManager.initializeCommitOrder();
+        List<Class> commitOrder = commitManager.getCommitOrder();
+        List<Class> planOrder = Arrays.asList(commitManager.getCommitPlanner().getPlanOrder());
+        if ((planOrder.size() != commitOrder.size()) || !planOrder.containsAll(commitOrder)) {
+            throwError("The plan order: " + planOrder + " does not have the classes of the commit order: " + commitOrder);
+        }
+
+        for (Class theClass : commitOrder) {
+            ClassDescriptor descriptor = getSession().getDescriptor(theClass);
+            for (DatabaseMapping mapping : descriptor.getMappings()) {
+                if (mapping.isForeignReferenceMapping()
+                        && (mapping.hasConstraintDependency() || mapping.hasInverseConstraintDependency())) {
+                    for (Class dependentClass : withAllSubclasses(((ForeignReferenceMapping)mapping).getReferenceClass())) {
+                        checkDependency(theClass, dependentClass, commitOrder, planOrder);
+                    }
+                }
+            }
+            for (Object constraintClass : descriptor.getConstraintDependencies()) {
+                for (Class dependentClass : withAllSubclasses((Class)constraintClass)) {
+                    checkDependency(theClass, dependentClass, commitOrder, planOrder);
+                }
+            }
+        }
+
+        // The projects do not depend on each other, so are written together.
+        int[] projectIndexes = new int[] {planOrder.indexOf(Project.class), planOrder.indexOf(LargeProject.class), planOrder.indexOf(SmallProject.class)};
+        Arrays.sort(projectIndexes);
+        if ((projectIndexes[0] == -1) || ((projectIndexes[2] - projectIndexes[0]) != 2)) {
+            throwError("The project classes of the project table are not grouped: " + planOrder);
+        }
+    }
+}
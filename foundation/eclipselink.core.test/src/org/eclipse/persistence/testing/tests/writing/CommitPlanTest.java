@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.writing;
+
+import java.util.*;
+
+import org.eclipse.persistence.expressions.ExpressionBuilder;
+import org.eclipse.persistence.internal.sessions.CommitPlanner;
+import org.eclipse.persistence.sessions.UnitOfWork;
+import org.eclipse.persistence.testing.framework.*;
+import org.eclipse.persistence.testing.models.employee.domain.*;
+
+/**
+ * Test the commit plans of the CommitPlanner.
+ * Verify that a commit's plan only has the classes it changed, including an inheritance subclass,
+ * and classes only reached through new objects that are not registered, in the plan order,
+ * that the plan is cached for the same set of classes,
+ * and that the delete plan is the reverse of the plan order.
+ */
+public class CommitPlanTest extends TransactionalTestCase {
+    protected CommitPlanner planner;
+
+    public CommitPlanTest() {
+        setDescription("Tests that a commit plan only has the changed classes in the plan order, and that the delete plan is reversed.");
+    }
+
+    public void setup() {
+        super.setup();
+        this.planner = getAbstractSession().getCommitManager().getCommitPlanner();
+        if (this.planner == null) {
+            throwError("The commit planner was not initialized with the commit order.");
+        }
+    }
+
+    public void reset() {
+        super.reset();
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+        this.planner = null;
+    }
+
+    /**
+     * Return the only plan in the cache, which is the plan of the last commit as the cache was cleared before it.
+     */
+    protected Class[] getCommittedPlan(Map plans) {
+        if (plans.size() != 1) {
+            throwError("Expected the commit to use one plan, but the plans were: " + plans.size());
+        }
+        return (Class[])plans.values().iterator().next();
+    }
+
+    /**
+     * Check that the plan has the expected classes, in the plan order, or its reverse.
+     */
+    protected void checkPlan(String name, Class[] plan, Set<Class> expected, boolean isReversed) {
+        if ((plan.length != expected.size()) || !expected.containsAll(Arrays.asList(plan))) {
+            throwError(name + " plan expected classes: " + expected + " but was: " + Arrays.asList(plan));
+        }
+        List<Class> planOrder = Arrays.asList(this.planner.getPlanOrder());
+        for (int index = 1; index < plan.length; index++) {
+            int previous = planOrder.indexOf(plan[index - 1]);
+            int next = planOrder.indexOf(plan[index]);
+            if (isReversed ? (previous < next) : (previous > next)) {
+                throwError(name + " plan is not in the plan order: " + Arrays.asList(plan) + " plan order: " + planOrder);
+            }
+        }
+    }
+
+    public void test() {
+        Set<Class> expected = new HashSet<Class>(Arrays.asList(new Class[] {Employee.class, Address.class, PhoneNumber.class, LargeProject.class}));
+
+        // Change an employee, register a new subclass project,
+        // and add a new employee with a new address and phone that are not registered, so are only reached through the new employee.
+        UnitOfWork uow = getSession().acquireUnitOfWork();
+        ExpressionBuilder builder = new ExpressionBuilder();
+        Employee employee = (Employee)uow.readObject(Employee.class, builder.get("address").notNull());
+        employee.setFirstName(employee.getFirstName() + "P");
+        LargeProject project = new LargeProject();
+        project.setName("CommitPlan");
+        project.setBudget(1000);
+        uow.registerObject(project);
+        Employee newEmployee = new Employee();
+        newEmployee.setFirstName("Commit");
+        newEmployee.setLastName("Plan");
+        newEmployee.setMale();
+        Address address = new Address();
+        address.setCity("Ottawa");
+        address.setCountry("Canada");
+        newEmployee.setAddress(address);
+        newEmployee.addPhoneNumber(new PhoneNumber("Plan", "613", "5551234"));
+        employee.addManagedEmployee(newEmployee);
+        this.planner.getPlans().getCache().clear();
+        uow.commit();
+
+        Class[] plan = getCommittedPlan(this.planner.getPlans().getCache());
+        checkPlan("Commit", plan, expected, false);
+        // The same set of classes, however they were changed, uses the cached plan.
+        if (this.planner.getCommitPlan(Arrays.asList(new Class[] {LargeProject.class, Employee.class}), Arrays.asList(new Class[] {PhoneNumber.class, Address.class})) != plan) {
+            throwError("The plan was not cached for the same set of classes.");
+        }
+
+        // Delete the new objects, their classes are deleted in the reverse of the plan order, so the foreign key constraints are not violated.
+        uow = getSession().acquireUnitOfWork();
+        newEmployee = (Employee)uow.readObject(newEmployee);
+        List deleted = new ArrayList();
+        deleted.add(uow.readObject(project));
+        deleted.add(newEmployee.getAddress());
+        deleted.addAll(newEmployee.getPhoneNumbers());
+        deleted.add(newEmployee);
+        ((Employee)newEmployee.getManager()).removeManagedEmployee(newEmployee);
+        uow.deleteAllObjects(deleted);
+        this.planner.getDeletePlans().getCache().clear();
+        uow.commit();
+
+        Class[] deletePlan = getCommittedPlan(this.planner.getDeletePlans().getCache());
+        checkPlan("Delete", deletePlan, expected, true);
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+        if (getSession().readObject(newEmployee) != null) {
+            throwError("The employee was not deleted.");
+        }
+    }
+}
@@ -62,6 +62,15 @@ public enum CacheType {
      */
     HARD_WEAK,
 
+    /**
+     * Similar to the HARD_WEAK identity map except that objects evicted from
+     * the sub-cache have their rows stored outside of the Java heap, and are
+     * rebuilt from the stored row on a cache hit instead of being read from the database.
+     * The off-heap size in bytes can be set using the
+     * "eclipselink.cache.off-heap-size" @Property, the default is 64MB.
+     */
+    OFF_HEAP,
+
     /**
      * A cache identity map maintains a fixed number of objects
      * specified by the application. Objects are removed from the cache
@@ -31,6 +31,9 @@ import org.eclipse.persistence.internal.databaseaccess.BatchWritingMechanism;
  * <li>JDBC - JDBC batch API's are used (dynamic, or parameterized).
  * <li>Bufferred - dynamic SQL is concatenated into a batch SQL string.
  * <li>Oracle-JDBC - Oracle JDBC batch API's are used (allows row count to be returned for optimistic locking).
+ * <li>Pipelined - JDBC batch API's are used, and each full parameterized batch is executed asynchronously
+ * while the next batch is built. Errors are thrown on the next batch execution or on commit.
+ * Batches are executed synchronously when JTA is used.
  * <li>&ltcustom-class&gt - A custom class that extends the BatchWritingMechansim class.
  * </ul>
  * @see BatchWritingMechanism
@@ -40,6 +43,7 @@ public class BatchWriting {
     public static final String  JDBC = "JDBC";
     public static final String  Buffered = "Buffered";
     public static final String  OracleJDBC = "Oracle-JDBC";
+    public static final String  Pipelined = "Pipelined";
  
     public static final String DEFAULT = None;
 }
@@ -27,4 +27,6 @@ public class CacheCoordinationProtocol {
     public static final String RMIIIOP = "rmi-iiop";
     public static final String JMS = "jms";
     public static final String JMSPublishing = "jms-publishing";
+    /** NIO sockets, commands sent within the coalescing window are written as a single frame. */
+    public static final String NIO = "nio";
 }
@@ -67,6 +67,15 @@ public class CacheType {
      */
     public static final String  HardWeak = "HardWeak";    
 
+    /**
+     * An OffHeap cache holds all objects in use by the application,
+     * and a fixed size sub-cache of MRU objects using normal (hard) references.
+     * The rows of objects evicted from the sub-cache are stored outside of the Java heap,
+     * and are rebuilt from the stored row on a cache hit.
+     * This guarantees object identity, allows configurable garbage collection, and provides a large caching benefit without a large heap.
+     */
+    public static final String  OffHeap = "OffHeap";
+
     /**
      * A Soft cache holds all objects read by the application.
      * It does not allow any garbage collection.     * 
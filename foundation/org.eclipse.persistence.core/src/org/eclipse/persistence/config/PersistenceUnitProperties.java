@@ -233,6 +233,55 @@ public class PersistenceUnitProperties {
      * @see ParserValidationType
      */
     public static final String JPQL_VALIDATION = "eclipselink.jpql.validation";
+
+    /**
+     * The <code>"eclipselink.jpql.parse-cache-size"</code> property configures the
+     * number of parsed JPQL queries cached by the persistence unit.
+     * When the cache is full the least frequently used queries are removed.
+     * Valid values are:
+     * <ul>
+     * <li>"200" (DEFAULT)
+     * <li>"0" - disables the JPQL parse cache
+     * </ul>
+     * 
+     * @see org.eclipse.persistence.sessions.Project#setJPQLParseCacheMaxSize(int)
+     */
+    public static final String JPQL_PARSE_CACHE_SIZE = "eclipselink.jpql.parse-cache-size";
+
+    /**
+     * The <code>"eclipselink.jpql.plan-cache"</code> property configures if
+     * parsed JPQL queries are shared with the other persistence units of the
+     * same class loader that have the same entities, such as when a persistence
+     * unit is refreshed or deployed multiple times.
+     * Queries are only parsed once by all of the persistence units, each
+     * persistence unit uses a copy of the parsed query.
+     * The plan cache is only used by the Hermes JPQL parser, its size is set
+     * by the "eclipselink.jpql.plan-cache-size" system property.
+     * Valid values are:
+     * <ul>
+     * <li>"false" (DEFAULT)
+     * <li>"true" - share parsed JPQL queries
+     * </ul>
+     * 
+     * @see org.eclipse.persistence.sessions.Project#setShouldUseJPQLPlanCache(boolean)
+     * @see org.eclipse.persistence.config.SystemProperties#JPQL_PLAN_CACHE_SIZE
+     */
+    public static final String JPQL_PLAN_CACHE = "eclipselink.jpql.plan-cache";
+
+    /**
+     * The <code>"eclipselink.jpql.plan-cache.warm-up"</code> property configures
+     * the named queries parsed in parallel into the JPQL plan cache at deployment,
+     * so they are not parsed one at a time when the persistence unit processes them.
+     * This requires the "eclipselink.jpql.plan-cache" property.
+     * Valid values are:
+     * <ul>
+     * <li>"all" - parse all of the JPQL named queries
+     * <li>a comma separated list of named query names
+     * </ul>
+     * 
+     * @see org.eclipse.persistence.sessions.Project#setJPQLPlanCacheWarmUpQueries(java.util.Collection)
+     */
+    public static final String JPQL_PLAN_CACHE_WARM_UP = "eclipselink.jpql.plan-cache.warm-up";
     
     /**
      * The <code>"wait"</code> property.
@@ -318,7 +367,29 @@ public class PersistenceUnitProperties {
      * @see #CONNECTION_POOL_READ
      */
     public static final String CONNECTION_POOL_SHARED = "shared";
-    
+
+    /**
+     * The <code>"concurrent"</code> property.
+     * This can be append to any connection pool property,
+     * i.e. <code>"eclipselink.connection-pool.default.concurrent"</code>
+     * Configures whether the exclusive connection pool should use a lock-free
+     * {@link org.eclipse.persistence.sessions.server.ConcurrentConnectionPool}
+     * instead of serializing all clients through the pool's monitor.
+     * Connections are acquired from a lock-free stack with per-thread affinity,
+     * and waiting clients are served in FIFO order.
+     * <p>
+     * This property is ignored in case external connection pools are used,
+     * or for a shared read connection pool.
+     * <p>
+     * Values (case insensitive):
+     * <ul>
+     * <li>"false" (DEFAULT): indicates the monitor based connection pool is used
+     * <li>"true": indicates the concurrent connection pool is used
+     * </ul>
+     * @see #CONNECTION_POOL
+     */
+    public static final String CONNECTION_POOL_CONCURRENT = "concurrent";
+
     /**
      * The <code>"url"</code> property.
      * This can be append to a connection pool property,
@@ -402,6 +473,7 @@ public class PersistenceUnitProperties {
      * <li> "wait" - amount of time to wait for a connection from the pool.
      * <li> "url" - JDBC URL for the connection.
      * <li> "shared" - only for the read connection pool, shares read connections across threads.
+     * <li> "concurrent" - use a lock-free connection pool instead of synchronizing on the pool.
      * <li> "jtaDataSource" - JTA DataSource name to use for the connection, if different than the default.
      * <li> "nonJtaDataSource" - non JTA DataSource name to use for the connection, if different than the default.
      * <li> "user" - user to use for the connection, if different than the default.
@@ -426,6 +498,7 @@ public class PersistenceUnitProperties {
      * @see #CONNECTION_POOL_JTA_DATA_SOURCE
      * @see #CONNECTION_POOL_NON_JTA_DATA_SOURCE
      * @see #CONNECTION_POOL_SHARED
+     * @see #CONNECTION_POOL_CONCURRENT
      * @see org.eclipse.persistence.sessions.server.ConnectionPool
      */
     public static final String CONNECTION_POOL = "eclipselink.connection-pool.";
@@ -1715,6 +1788,22 @@ public class PersistenceUnitProperties {
      * If this property is set to true, then TABLE sequencing will be used instead.
      */
     public static final String SEQUENCING_SEQUENCE_DEFAULT = "eclipselink.sequencing.default-sequence-to-table";
+
+    /**
+     * The <code>"eclipselink.sequencing.preallocation-refill-threshold"</code> property
+     * enables the background refill of preallocated sequence values.
+     * When the number of preallocated values of a sequence falls to this percentage of its preallocation size,
+     * the next values are allocated in the background, so inserts do not wait for the sequence to be allocated.
+     * This applies to table sequencing using a sequence connection pool, and to native sequence objects.
+     * <p>Values:
+     * <ul>
+     * <li>"0" (DEFAULT) - values are allocated when none remain
+     * <li>a percentage, i.e. "25"
+     * </ul>
+     * @see #CONNECTION_POOL_SEQUENCE
+     * @see org.eclipse.persistence.sequencing.SequencingControl#setPreallocationRefillThreshold(int)
+     */
+    public static final String SEQUENCING_PREALLOCATION_REFILL_THRESHOLD = "eclipselink.sequencing.preallocation-refill-threshold";
     
     /**
      * The <code>"eclipselink.session.customizer"</code> property configures a
@@ -1789,6 +1878,9 @@ public class PersistenceUnitProperties {
      * batch writing.
      * <li>"Oracle-JDBC": use Oracle's native batch writing. This requires the
      * use of an Oracle JDBC driver.
+     * <li>"Pipelined": use JDBC batch writing, and execute each full batch asynchronously
+     * on the transaction's connection while the next batch is built.
+     * Batches are executed synchronously when JTA is used, as the connection is bound to the transaction's thread.
      * <li>&ltcustom-class&gt - A custom class that extends the BatchWritingMechansim class.
      * <li>"None" (DEFAULT): do not use batch writing (turn it off).
      * </ul>
@@ -1809,6 +1901,89 @@ public class PersistenceUnitProperties {
      */
     public static final String BATCH_WRITING_SIZE = "eclipselink.jdbc.batch-writing.size";
 
+    /**
+     * The <code>"eclipselink.jdbc.batch-writing.auto-tune"</code> property
+     * configures if the parameterized batch size is tuned to the measured batch execution time.
+     * The batch size is adjusted to maximize the number of statements written per second,
+     * up to the batch writing size, or 1000 if no size is set.
+     * The current batch size and batch execution time are reported to the session profiler.
+     * <p>
+     * Values (case insensitive):
+     * <ul>
+     * <li>"false" (DEFAULT)
+     * <li>"true"
+     * </ul>
+     * 
+     * @see #BATCH_WRITING
+     * @see #BATCH_WRITING_SIZE
+     */
+    public static final String BATCH_WRITING_AUTO_TUNE = "eclipselink.jdbc.batch-writing.auto-tune";
+
+    /**
+     * The <code>"eclipselink.jdbc.fetch-size.auto-tune"</code> property
+     * configures if the JDBC fetch size of select statements is tuned to the size of their previous results.
+     * The fetch size of each SQL string is set to read its average result in one round trip,
+     * up to 1000 rows and 1MB of estimated row data, instead of the driver's default.
+     * Queries that set their fetch size using the "eclipselink.jdbc.fetch-size" hint are not tuned.
+     * The learned fetch sizes can be monitored through RuntimeServices.
+     * <p>
+     * Values (case insensitive):
+     * <ul>
+     * <li>"false" (DEFAULT)
+     * <li>"true"
+     * </ul>
+     * 
+     * @see org.eclipse.persistence.config.QueryHints#JDBC_FETCH_SIZE
+     */
+    public static final String JDBC_FETCH_SIZE_AUTO_TUNE = "eclipselink.jdbc.fetch-size.auto-tune";
+
+    /**
+     * The <code>"eclipselink.jdbc.result-cache-size"</code> property configures the
+     * number of data and report query results cached by their SQL string and bind parameters.
+     * A cached result is removed when any table its SQL string reads is written by the persistence unit,
+     * or by a change received through cache coordination.
+     * Results are not cached in a transaction, and results of more than 1000 rows are not cached.
+     * Changes made to the database outside of the persistence unit are not detected,
+     * so this should only be enabled if all writes to the cached tables are through the persistence unit.
+     * The cache statistics can be monitored through RuntimeServices.
+     * Valid values are:
+     * <ul>
+     * <li>"0" (DEFAULT) - disables the result cache
+     * <li>a positive number of results
+     * </ul>
+     * 
+     * @see org.eclipse.persistence.internal.sessions.SQLResultCache
+     */
+    public static final String JDBC_RESULT_CACHE_SIZE = "eclipselink.jdbc.result-cache-size";
+
+    /**
+     * The <code>"eclipselink.jdbc.update-call-cache-size"</code> property configures the
+     * number of update SQL calls cached by each entity, by the fields they update.
+     * When the cache is full the least frequently used calls are removed.
+     * Valid values are:
+     * <ul>
+     * <li>"10" (DEFAULT)
+     * <li>"0" - disables the update call cache
+     * </ul>
+     * 
+     * @see org.eclipse.persistence.descriptors.DescriptorQueryManager#setUpdateCallCacheSize(int)
+     */
+    public static final String UPDATE_CALL_CACHE_SIZE = "eclipselink.jdbc.update-call-cache-size";
+
+    /**
+     * The <code>"eclipselink.jdbc.expression-query-cache-size"</code> property configures the
+     * number of prepared dynamic expression queries cached by each entity, to avoid regenerating their SQL.
+     * When the cache is full the least frequently used queries are removed.
+     * Valid values are:
+     * <ul>
+     * <li>"20" (DEFAULT)
+     * <li>"0" - disables the expression query cache
+     * </ul>
+     * 
+     * @see org.eclipse.persistence.descriptors.DescriptorQueryManager#setExpressionQueryCacheMaxSize(int)
+     */
+    public static final String EXPRESSION_QUERY_CACHE_SIZE = "eclipselink.jdbc.expression-query-cache-size";
+
     /**
      * The <code>"eclipselink.persistencexml"</code> property specifies the full
      * resource name to look for the persistence XML files in. If not specified
@@ -1891,6 +2066,7 @@ public class PersistenceUnitProperties {
      * Values (case insensitive):
      * <ul>
      * <li>"java-serialization": Use {@link FileBasedProjectCache}
+     * <li>"memory-mapped": Use {@link MappedFileProjectCache}
      * <li>Custom ProjectCacheAccessor - Specify a custom class name which
      * implements {@link ProjectCacheAccessor}
      * </ul>
@@ -1915,6 +2091,19 @@ public class PersistenceUnitProperties {
      */
     public static final String PROJECT_CACHE_FILE = "eclipselink.project-cache.java-serialization.file-location";
 
+    /**
+     * The property <code>"eclipselink.project-cache.memory-mapped.file-location"</code>
+     * 
+     * <p>Specifies the name of the file to read/write the binary project cache representing the application's
+     * metadata.  The file is memory-mapped when read, and each descriptor is read from its own block.</p>
+     * 
+     * <p>This property should be used in conjunction with 
+     * <code>"eclipselink.project-cache"</code> set to <code>"memory-mapped"</code>.</p>
+     * 
+     * @see #PROJECT_CACHE
+     */
+    public static final String PROJECT_CACHE_MAPPED_FILE = "eclipselink.project-cache.memory-mapped.file-location";
+
     /**
      * The <code>"eclipselink.temporal.mutable"</code> property configures the
      * default for detecting changes to temporal field (Date, Calendar). Default
@@ -2030,6 +2219,45 @@ public class PersistenceUnitProperties {
      * Values: A boolean value of "True" or (default "False").
      */
     public static final String DEPLOY_ON_STARTUP = "eclipselink.deploy-on-startup";
+
+    /**
+     * The <code>"eclipselink.metadata.loading-threads"</code> property configures
+     * the number of threads reading the classes of the persistence unit
+     * during deployment.
+     * <p>
+     * The class files are read and parsed on the server platform's threads,
+     * which reduces the deployment time of persistence units with many classes.
+     * The descriptors are still processed on the deploying thread.
+     * This is also the number of threads reading the descriptors of a
+     * <code>"memory-mapped"</code> project cache.
+     * <p>
+     * Values: A string containing a positive integer value (default "1").
+     * "1" reads the classes serially.
+     */
+    public static final String METADATA_LOADING_THREADS = "eclipselink.metadata.loading-threads";
+
+    /**
+     * The <code>"eclipselink.descriptor.lazy-initialization"</code> property configures
+     * if the descriptors of the persistence unit are initialized on their first
+     * use, instead of when the persistence unit is deployed.
+     * <p>
+     * This reduces the deployment time and memory of persistence units with many
+     * entities when the application only uses some of them.  An entity's descriptor
+     * is initialized with the descriptors it depends on the first time it is used,
+     * such as by a query or a persist.  Named queries are prepared at deployment,
+     * so the descriptors they query are always initialized.
+     * The metamodel and the static metamodel classes are initialized when the
+     * metamodel is first requested, and DDL generation initializes all descriptors.
+     * <p>
+     * Values (case insensitive):
+     * <ul>
+     * <li>"false" (DEFAULT)
+     * <li>"true"
+     * </ul>
+     * 
+     * @see org.eclipse.persistence.internal.sessions.DatabaseSessionImpl#setShouldInitializeDescriptorsLazily(boolean)
+     */
+    public static final String LAZY_DESCRIPTOR_INITIALIZATION = "eclipselink.descriptor.lazy-initialization";
     
     /**
      * The <code>"eclipselink.validation-only"</code> property validates deployment
@@ -2442,6 +2670,21 @@ public class PersistenceUnitProperties {
      */
     public static final String QUERY_TIMEOUT = "javax.persistence.query.timeout";
 
+    /**
+     * The <code>"eclipselink.query.parallel-object-building"</code> property configures
+     * the default for building the objects of large read all results on several threads.
+     * This can be overridden per query using the query hint of the same name.
+     * <p>
+     * Values (case insensitive):
+     * <ul>
+     * <li>"false" (DEFAULT)
+     * <li>"true"
+     * </ul>
+     * 
+     * @see QueryHints#PARALLEL_OBJECT_BUILDING
+     */
+    public static final String PARALLEL_OBJECT_BUILDING = QueryHints.PARALLEL_OBJECT_BUILDING;
+
     /**
      * The <code>"eclipselink.persistence-context.close-on-commit"</code>
      * property specifies that the EntityManager will be closed or not used
@@ -2557,6 +2800,7 @@ public class PersistenceUnitProperties {
      * <li>"jms-publishing"
      * <li>"rmi"
      * <li>"rmi-iiop"
+     * <li>"nio"
      * <li>a <package.class> name of a subclass implementation of the TransportManager abstract class.
      * </ul>
      * by default the cache is not coordinated.
@@ -2682,6 +2926,21 @@ public class PersistenceUnitProperties {
      */
     public static final String COORDINATION_RMI_URL = "eclipselink.cache.coordination.rmi.url";
 
+    /**
+     * The <code>"eclipselink.cache.coordination.nio.coalescing-window"</code>
+     * property configures cache coordination for a clustered environment. Only
+     * used for NIO coordination. Sets the number of milliseconds the commands sent
+     * to a cluster member are coalesced, before they are written as a single frame.
+     * Default is 2 milliseconds.
+     * <p>
+     * NIO coordination uses the RMI announcement-delay, multicast-group, multicast-group.port,
+     * packet-time-to-live and url properties for discovery, its URL is of the form "nio://host:port".
+     * 
+     * @see #COORDINATION_PROTOCOL
+     * @see org.eclipse.persistence.sessions.coordination.nio.NIOTransportManager#setCoalescingWindow(int)
+     */
+    public static final String COORDINATION_NIO_COALESCING_WINDOW = "eclipselink.cache.coordination.nio.coalescing-window";
+
     /**
      * The <code>"eclipselink.cache.coordination.naming-service"</code> property
      * configures cache coordination for a clustered environment. Set the naming
@@ -2780,6 +3039,20 @@ public class PersistenceUnitProperties {
      */
     public static final String COORDINATION_CHANNEL = "eclipselink.cache.coordination.channel";
 
+    /**
+     * The <code>"eclipselink.cache.coordination.serializer"</code> property
+     * configures cache coordination for a clustered environment. Set the
+     * class name of the Serializer used to serialize the change sets sent to the cluster,
+     * i.e. "org.eclipse.persistence.sessions.serializers.BinaryChangeSetSerializer"
+     * for a compact binary encoding of the change sets.
+     * All server's in the cluster must use the same serializer.
+     * By default Java serialization is used.
+     * 
+     * @see #COORDINATION_PROTOCOL
+     * @see org.eclipse.persistence.sessions.coordination.RemoteCommandManager#setSerializer(org.eclipse.persistence.sessions.serializers.Serializer)
+     */
+    public static final String COORDINATION_SERIALIZER = "eclipselink.cache.coordination.serializer";
+
     /**
      * Indicates if it's a composite persistence unit ("true").
      * The property must be specified in persistence.xml of a composite persistence unit.
@@ -287,6 +287,29 @@ public class QueryHints {
      * @see org.eclipse.persistence.queries.ObjectLevelReadQuery#setBatchFetchSize(int)
      */
     public static final String BATCH_SIZE = "eclipselink.batch.size";
+
+    /**
+     * "eclipselink.batch.auto-tune"
+     * <p>Configures the batch size for batch fetching using the IN batch type to be tuned
+     * to the measured time to select each batch, starting from the batch size.
+     * The size is limited to the number of values the database platform allows in an IN list.
+     * Valid values are defined in HintValues ("TRUE", "FALSE").
+     * The default is false.
+     * @see #BATCH_SIZE
+     * @see org.eclipse.persistence.queries.BatchFetchPolicy#setShouldAutoTuneSize(boolean)
+     */
+    public static final String BATCH_AUTO_TUNE = "eclipselink.batch.auto-tune";
+
+    /**
+     * "eclipselink.batch.prefetch"
+     * <p>Configures batch fetching using the IN batch type to select the next batch
+     * in the background on a read connection, while the current batch is used.
+     * Valid values are defined in HintValues ("TRUE", "FALSE").
+     * The default is false.
+     * @see #BATCH_TYPE
+     * @see org.eclipse.persistence.queries.BatchFetchPolicy#setShouldPrefetch(boolean)
+     */
+    public static final String BATCH_PREFETCH = "eclipselink.batch.prefetch";
     
     /**
      * "eclipselink.join-fetch"
@@ -347,6 +370,31 @@ public class QueryHints {
      */
     public static final String JDBC_FETCH_SIZE = "eclipselink.jdbc.fetch-size";
     
+    /**
+     * "eclipselink.jdbc.columnar-rows"
+     * <p>Configures the query to fetch its result-set into a columnar row buffer.
+     * Numeric columns are read into primitive arrays instead of boxed values and an Object[] per row,
+     * and primitive direct mapped attributes are set from the buffer without boxing.
+     * This can reduce the allocation for queries that return large result-sets.
+     * Valid values are:  HintValues.FALSE, HintValues.TRUE,
+     * "" could be used instead of default value HintValues.FALSE
+     * @see org.eclipse.persistence.queries.ObjectLevelReadQuery#setShouldUseColumnarRows(boolean)
+     */
+    public static final String COLUMNAR_ROWS = "eclipselink.jdbc.columnar-rows";
+    
+    /**
+     * "eclipselink.query.parallel-object-building"
+     * <p>Configures a read all query to build its objects from the fetched rows on several threads.
+     * This is only used for large results that are not read in a unit of work (or are read-only),
+     * do not use batch fetching or query result caching, and are executed on a server or client session.
+     * The threads are obtained from the server platform.
+     * Valid values are:  HintValues.FALSE, HintValues.TRUE,
+     * "" could be used instead of default value HintValues.FALSE
+     * @see org.eclipse.persistence.queries.ObjectLevelReadQuery#setShouldBuildObjectsInParallel(boolean)
+     * @see PersistenceUnitProperties#PARALLEL_OBJECT_BUILDING
+     */
+    public static final String PARALLEL_OBJECT_BUILDING = "eclipselink.query.parallel-object-building";
+    
     /**
      * "eclipselink.jdbc.max-rows"
      * <p>Configures the JDBC max-rows, if the query returns more rows than the max-rows
@@ -59,4 +59,73 @@ public class SystemProperties {
      */
 
     public static final String RECORD_STACK_ON_LOCK = "eclipselink.cache.record-stack-on-lock";
+
+    /**
+     * Setting this property to "true" will cause EclipseLink to acquire and release cache key read locks
+     * without synchronizing on the cache key, when the cache key is not locked by a writer.
+     * This improves the concurrency of reading shared objects, such as when registering objects in a unit of work.
+     * Writers validate the lock after acquiring it, and only wake waiting threads when required.
+     * 
+     * This can also be set in code statically through ConcurrencyManager.setShouldUseConcurrentReadLocks(true),
+     * before any session is logged in.
+     */
+    public static final String CONCURRENT_READ_LOCKS = "eclipselink.cache.concurrent-read-locks";
+
+    /**
+     * Setting this property to "false" will stop EclipseLink generating an accessor class for each descriptor's class
+     * when the descriptor is initialized.  The accessor class is used to access public attributes and get/set methods
+     * without reflection, for classes that are not woven.
+     * 
+     * This can also be set in code statically through AttributeAccessorFactory.setShouldGenerateAccessors(false),
+     * before any session is logged in.
+     */
+    public static final String ACCESSOR_GENERATION = "eclipselink.accessor.generation";
+
+    /**
+     * Setting this property to a number greater than 1 will cause EclipseLink to merge large change sets
+     * received from cache coordination using that number of threads.  The change set is partitioned into
+     * groups of objects that do not reference each other, and each partition is locked and merged separately,
+     * so readers of the changed objects are blocked for less time.  By default change sets are merged serially.
+     * As each partition is unlocked once merged, readers can see part of a distributed transaction merged.
+     * 
+     * This can also be set in code statically through MergeManager.setParallelMergeThreads(int).
+     */
+    public static final String PARALLEL_MERGE_THREADS = "eclipselink.cache.parallel-merge-threads";
+
+    /**
+     * Setting this property to "true" will cause EclipseLink to write the classes of the same table consecutively
+     * in a commit, where the dependencies between the classes allow it, so more of their statements can be batched
+     * when batch writing is used.  Classes without a dependency between them may be written in a different order
+     * than the default commit order, so this should not be used if the database has constraints between tables
+     * that are not defined by the mappings or the descriptors' constraint dependencies.
+     * 
+     * This can also be set in code statically through CommitPlanner.setShouldGroupByTable(true),
+     * before any session is logged in.
+     */
+    public static final String COMMIT_ORDER_BY_TABLE = "eclipselink.commit.order-by-table";
+
+    /**
+     * This property can be set to parameterize the constants of dynamic expression queries.
+     * <p>
+     * Setting this property to "true" will cause EclipseLink to replace the constant values compared to
+     * attributes in the selection criteria of dynamic expression and criteria queries by parameters,
+     * so queries that only differ in their constant values share the same cached SQL,
+     * instead of each query generating its own SQL.  The constant values are bound on execution.
+     * The size of the cache can be configured through DescriptorQueryManager.setExpressionQueryCacheMaxSize().
+     * 
+     * This can also be set in code statically through DescriptorQueryManager.setShouldParameterizeConstants(true).
+     */
+    public static final String QUERY_PARAMETERIZE_CONSTANTS = "eclipselink.query.parameterize-constants";
+
+    /**
+     * This property can be set to configure the maximum number of parsed JPQL queries
+     * cached in the JPQL plan cache shared by all sessions.
+     * <p>
+     * The plan cache is used by the persistence units that enable it,
+     * through the "eclipselink.jpql.plan-cache" persistence unit property.
+     * When the cache is full the least frequently used queries are removed.  The default is 1000.
+     * 
+     * This can also be set in code statically through JPQLPlanCache.setSharedCache(new JPQLPlanCache(size)).
+     */
+    public static final String JPQL_PLAN_CACHE_SIZE = "eclipselink.jpql.plan-cache-size";
 }
@@ -980,6 +980,18 @@ public class CachePolicy implements Cloneable, Serializable {
     public void useHardCacheWeakIdentityMap() {
         setIdentityMapClass(ClassConstants.HardCacheWeakIdentityMap_Class);
     }
+
+    /**
+     * PUBLIC:
+     * Set the class of identity map to be the off-heap identity map.
+     * This map holds a fixed sized hard cache of the most recently used objects,
+     * and stores the rows of the other objects outside of the Java heap, rebuilding them on a cache hit.
+     * The off-heap size in bytes can be set through the descriptor property "eclipselink.cache.off-heap-size".
+     * The default is the "SoftCacheWeakIdentityMap".
+     */
+    public void useOffHeapIdentityMap() {
+        setIdentityMapClass(ClassConstants.OffHeapIdentityMap_Class);
+    }
     
     /**
      * PUBLIC:
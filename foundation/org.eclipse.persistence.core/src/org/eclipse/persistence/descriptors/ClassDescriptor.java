@@ -3833,6 +3833,8 @@ public class ClassDescriptor extends CoreDescriptor<AttributeGroup, DescriptorEv
                 session.getIntegrityChecker().handleError(exception);
             }
         }
+        // PERF: Generate an accessor class to avoid reflection for non-woven classes.
+        AttributeAccessorFactory.initializeAccessors(this, session);
 
         validateBeforeInitialization(session);
 
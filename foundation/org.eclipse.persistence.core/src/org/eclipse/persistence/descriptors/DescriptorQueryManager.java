@@ -33,6 +33,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Vector;
+import org.eclipse.persistence.config.SystemProperties;
 import org.eclipse.persistence.exceptions.ConversionException;
 import org.eclipse.persistence.exceptions.DescriptorException;
 import org.eclipse.persistence.expressions.Expression;
@@ -106,6 +107,8 @@ public class DescriptorQueryManager implements Cloneable, Serializable {
     protected transient ConcurrentFixedCache cachedUpdateCalls;
     /** PERF: Expression query call cache for avoiding regenerated dynamic query SQL. */
     protected transient ConcurrentFixedCache cachedExpressionQueries;
+    /** PERF: Allow the constants of dynamic queries to be parameterized, so queries of the same shape share their cached SQL. */
+    protected static boolean shouldParameterizeConstants = "true".equalsIgnoreCase(System.getProperty(SystemProperties.QUERY_PARAMETERIZE_CONSTANTS));
 
     /**
      * queryTimeout has three possible settings: DefaultTimeout, NoTimeout, and 1..N
@@ -150,6 +153,27 @@ public class DescriptorQueryManager implements Cloneable, Serializable {
         return getCachedExpressionQueries().getMaxSize();
     }
 
+    /**
+     * ADVANCED:
+     * Return if the constants compared in the selection criteria of dynamic queries are replaced by parameters.
+     */
+    public static boolean shouldParameterizeConstants() {
+        return shouldParameterizeConstants;
+    }
+
+    /**
+     * ADVANCED:
+     * Set if the constants compared in the selection criteria of dynamic queries are replaced by parameters.
+     * The expression query cache only caches the SQL of equal queries, so by default dynamic queries
+     * that only differ in their constant values each generate their SQL.
+     * If set, the constants compared to attributes are replaced by parameters when the query is prepared,
+     * so queries of the same shape are equal, and share the same cached SQL, and the constants are bound on execution.
+     * This is only used if the platform binds literals.
+     */
+    public static void setShouldParameterizeConstants(boolean shouldParameterizeConstants) {
+        DescriptorQueryManager.shouldParameterizeConstants = shouldParameterizeConstants;
+    }
+
     /**
      * PUBLIC:
      * Add the query to the descriptor queries with the given name
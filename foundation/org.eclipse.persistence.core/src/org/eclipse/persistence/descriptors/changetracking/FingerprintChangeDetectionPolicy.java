@@ -0,0 +1,483 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.descriptors.changetracking;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.indirection.ValueHolderInterface;
+import org.eclipse.persistence.internal.descriptors.ObjectBuilder;
+import org.eclipse.persistence.internal.helper.ClassConstants;
+import org.eclipse.persistence.internal.helper.Helper;
+import org.eclipse.persistence.internal.indirection.BasicIndirectionPolicy;
+import org.eclipse.persistence.internal.indirection.NoIndirectionPolicy;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.ObjectChangeSet;
+import org.eclipse.persistence.internal.sessions.ObjectReferenceChangeRecord;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkChangeSet;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.mappings.ObjectReferenceMapping;
+import org.eclipse.persistence.mappings.foundation.AbstractDirectMapping;
+
+/**
+ * PUBLIC:
+ * A FingerprintChangeDetectionPolicy defers all change detection to the UnitOfWork's
+ * change detection process, as the DeferredChangeDetectionPolicy does,
+ * but instead of keeping a backup clone of each registered object, it keeps a compact snapshot of the object:
+ * a 64 bit fingerprint of the value of each direct attribute (including the contents of arrays, dates and calendars),
+ * and the targets of its one to one relationships.
+ * Objects whose snapshot is unchanged are ignored without building a change set,
+ * and only the attributes whose fingerprint or target changed are compared and recorded for changed objects.
+ * This reduces the memory and commit cost of units of work with many registered, mostly unchanged objects,
+ * such as long lived RepeatableWriteUnitOfWorks, and does not require weaving.
+ * <p>
+ * The snapshot is only used for descriptors whose mappings are all direct to field mappings of a fingerprinted type
+ * (strings, numbers, booleans, characters, enums, dates, calendars, byte and char arrays),
+ * or one to one mappings that are not private owned, without fetch groups or field locking.
+ * The objects of other descriptors are compared to a backup clone, as by the DeferredChangeDetectionPolicy.
+ * <p>
+ * As the old values are not kept, the object is its own backup clone (as with the AttributeChangeTrackingPolicy),
+ * so is the backup clone seen in update events, and direct attribute change records do not have an old value.
+ * As the fingerprint is of the value's content, in place changes to arrays and dates are detected
+ * even if their mapping is not mutable.
+ * Two values of an attribute with the same fingerprint are considered equal,
+ * the chance of a change not being detected because of this is negligible (2^-64).
+ * <p>
+ * Reverting an object (revertObject, revertAndResume) does not use the backup clone with any policy,
+ * the clone is refreshed from its original in the parent session, then its snapshot is rebuilt from the reverted state.
+ * So, as with the other policies, only objects whose original is held by the parent can be reverted,
+ * an object that is not in the parent's cache is left unchanged.
+ * The snapshot is removed when the object is unregistered, or the unit of work is cleared.
+ * @see DeferredChangeDetectionPolicy
+ * @see AttributeChangeTrackingPolicy
+ */
+public class FingerprintChangeDetectionPolicy extends DeferredChangeDetectionPolicy {
+    /** FNV-1a 64 bit offset basis and prime, used to fingerprint attribute values. */
+    protected static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    protected static final long FNV_PRIME = 0x100000001b3L;
+
+    /** The fingerprinted mappings of each descriptor using the policy, descriptors that require a backup clone are not included. */
+    protected transient Map<ClassDescriptor, FingerprintedMappings> fingerprintedMappings = new ConcurrentHashMap<ClassDescriptor, FingerprintedMappings>();
+
+    /**
+     * INTERNAL:
+     * Determine if the descriptor's objects can be snapshot instead of backup cloned.
+     */
+    @Override
+    public void initialize(AbstractSession session, ClassDescriptor descriptor) {
+        super.initialize(session, descriptor);
+        if (this.fingerprintedMappings == null) {
+            this.fingerprintedMappings = new ConcurrentHashMap<ClassDescriptor, FingerprintedMappings>();
+        }
+        FingerprintedMappings mappings = buildFingerprintedMappings(descriptor);
+        if (mappings == null) {
+            this.fingerprintedMappings.remove(descriptor);
+        } else {
+            this.fingerprintedMappings.put(descriptor, mappings);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Return the descriptor's direct and one to one mappings,
+     * or null if the descriptor has other mappings or features that require a backup clone.
+     */
+    protected FingerprintedMappings buildFingerprintedMappings(ClassDescriptor descriptor) {
+        if (descriptor.isDescriptorTypeAggregate() || descriptor.hasFetchGroupManager() || descriptor.usesFieldLocking()
+                || descriptor.hasMappingsPostCalculateChanges()) {
+            return null;
+        }
+        List<AbstractDirectMapping> directMappings = new ArrayList<AbstractDirectMapping>();
+        List<ObjectReferenceMapping> referenceMappings = new ArrayList<ObjectReferenceMapping>();
+        for (DatabaseMapping mapping : descriptor.getMappings()) {
+            if (mapping.isDirectToFieldMapping() && (mapping instanceof AbstractDirectMapping)
+                    && isFingerprinted(((AbstractDirectMapping)mapping).getAttributeClassification())) {
+                directMappings.add((AbstractDirectMapping)mapping);
+            } else if (mapping.isOneToOneMapping() && !mapping.isPrivateOwned()
+                    && ((((ObjectReferenceMapping)mapping).getIndirectionPolicy() instanceof NoIndirectionPolicy)
+                            || (((ObjectReferenceMapping)mapping).getIndirectionPolicy() instanceof BasicIndirectionPolicy))) {
+                referenceMappings.add((ObjectReferenceMapping)mapping);
+            } else {
+                return null;
+            }
+        }
+        return new FingerprintedMappings(directMappings, referenceMappings);
+    }
+
+    /**
+     * INTERNAL:
+     * Return if the values of the attribute type are fingerprinted by their content.
+     * Other types may be mutable, or define an equality the fingerprint cannot represent, so require a backup clone.
+     */
+    protected boolean isFingerprinted(Class type) {
+        if (type == null) {
+            return false;
+        }
+        type = Helper.getObjectClass(type);
+        return (type == ClassConstants.STRING) || (type == ClassConstants.LONG) || (type == ClassConstants.INTEGER)
+                || (type == ClassConstants.SHORT) || (type == ClassConstants.BYTE) || (type == ClassConstants.DOUBLE)
+                || (type == ClassConstants.FLOAT) || (type == ClassConstants.BOOLEAN) || (type == ClassConstants.CHAR)
+                || (type == ClassConstants.BIGDECIMAL) || (type == ClassConstants.BIGINTEGER)
+                || (type == ClassConstants.APBYTE) || (type == ClassConstants.APCHAR)
+                || (type == ClassConstants.ABYTE) || (type == ClassConstants.ACHAR)
+                || ClassConstants.UTILDATE.isAssignableFrom(type) || ClassConstants.CALENDAR.isAssignableFrom(type)
+                || type.isEnum();
+    }
+
+    /**
+     * INTERNAL:
+     * Return the fingerprinted mappings of the descriptor, or null if its objects are backup cloned.
+     */
+    protected FingerprintedMappings getFingerprintedMappings(ClassDescriptor descriptor) {
+        // Not initialized after serialization.
+        if (this.fingerprintedMappings == null) {
+            return null;
+        }
+        return this.fingerprintedMappings.get(descriptor);
+    }
+
+    /**
+     * INTERNAL:
+     * Return if the descriptor's objects are snapshot instead of backup cloned.
+     */
+    public boolean usesSnapshot(ClassDescriptor descriptor) {
+        return getFingerprintedMappings(descriptor) != null;
+    }
+
+    /**
+     * INTERNAL:
+     * Record the snapshot of the clone, and return the clone as its own backup clone.
+     * Objects of descriptors that do not support snapshots are backup cloned.
+     */
+    @Override
+    public Object buildBackupClone(Object clone, ObjectBuilder builder, UnitOfWorkImpl uow) {
+        FingerprintedMappings mappings = getFingerprintedMappings(builder.getDescriptor());
+        if (mappings == null) {
+            return super.buildBackupClone(clone, builder, uow);
+        }
+        uow.getCloneSnapshots().put(clone, buildSnapshot(clone, mappings, uow));
+        return clone;
+    }
+
+    /**
+     * INTERNAL:
+     * Called after the clone was reverted from its original, rebuild its snapshot from the reverted state,
+     * so the reverted attributes are not detected as changes.
+     */
+    @Override
+    public void revertChanges(Object clone, ClassDescriptor descriptor, UnitOfWorkImpl uow, Map cloneMapping, boolean forRefresh) {
+        FingerprintedMappings mappings = getFingerprintedMappings(descriptor);
+        if (mappings == null) {
+            super.revertChanges(clone, descriptor, uow, cloneMapping, forRefresh);
+            return;
+        }
+        cloneMapping.put(clone, clone);
+        uow.getCloneSnapshots().put(clone, buildSnapshot(clone, mappings, uow));
+        clearChanges(clone, uow, descriptor, forRefresh);
+    }
+
+    /**
+     * INTERNAL:
+     * Build the snapshot of the clone's current state.
+     */
+    protected Snapshot buildSnapshot(Object clone, FingerprintedMappings mappings, UnitOfWorkImpl uow) {
+        AbstractDirectMapping[] directMappings = mappings.directMappings;
+        long[] fingerprints = new long[directMappings.length];
+        for (int index = 0; index < directMappings.length; index++) {
+            fingerprints[index] = fingerprint(directMappings[index].getAttributeValueFromObject(clone));
+        }
+        ObjectReferenceMapping[] referenceMappings = mappings.referenceMappings;
+        Object[] references = null;
+        if (referenceMappings.length > 0) {
+            references = new Object[referenceMappings.length];
+            for (int index = 0; index < referenceMappings.length; index++) {
+                ObjectReferenceMapping mapping = referenceMappings[index];
+                Object attributeValue = mapping.getAttributeValueFromObject(clone);
+                if (attributeValue != null) {
+                    // An uninstantiated value holder records its value in the backup value holder when instantiated.
+                    references[index] = mapping.getIndirectionPolicy().backupCloneAttribute(attributeValue, clone, null, uow);
+                }
+            }
+        }
+        return new Snapshot(fingerprints, references);
+    }
+
+    /**
+     * INTERNAL:
+     * PERF: Calculate change for the existing object, avoids check for new since already know.
+     * If the object's snapshot is unchanged, and its change set cannot be forced by events, locking or cascading,
+     * no change set is built.
+     */
+    @Override
+    public ObjectChangeSet calculateChangesForExistingObject(Object clone, UnitOfWorkChangeSet changeSet, UnitOfWorkImpl unitOfWork, ClassDescriptor descriptor, boolean shouldRaiseEvent) {
+        FingerprintedMappings mappings = getFingerprintedMappings(descriptor);
+        if ((mappings != null) && !(shouldRaiseEvent && descriptor.getEventManager().hasAnyEventListeners())
+                && ((descriptor.getCMPPolicy() == null) || !descriptor.getCMPPolicy().getForceUpdate())
+                && !(unitOfWork.hasOptimisticReadLockObjects() && unitOfWork.getOptimisticReadLockObjects().containsKey(clone))
+                && ((changeSet == null) || (changeSet.getObjectChangeSetForClone(clone) == null))) {
+            Snapshot snapshot = (Snapshot)unitOfWork.getCloneSnapshots().get(clone);
+            if ((snapshot != null) && !hasChanged(clone, snapshot, mappings, unitOfWork)) {
+                return null;
+            }
+        }
+        return super.calculateChangesForExistingObject(clone, changeSet, unitOfWork, descriptor, shouldRaiseEvent);
+    }
+
+    /**
+     * INTERNAL:
+     * Return if any of the clone's direct attribute fingerprints or references differ from its snapshot.
+     */
+    protected boolean hasChanged(Object clone, Snapshot snapshot, FingerprintedMappings mappings, AbstractSession session) {
+        AbstractDirectMapping[] directMappings = mappings.directMappings;
+        long[] fingerprints = snapshot.fingerprints;
+        for (int index = 0; index < directMappings.length; index++) {
+            if (fingerprint(directMappings[index].getAttributeValueFromObject(clone)) != fingerprints[index]) {
+                return true;
+            }
+        }
+        ObjectReferenceMapping[] referenceMappings = mappings.referenceMappings;
+        for (int index = 0; index < referenceMappings.length; index++) {
+            if (hasReferenceChanged(referenceMappings[index], clone, snapshot.references[index], session)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * INTERNAL:
+     * Create the ObjectChangeSet by comparing the clone to its snapshot.
+     * Objects that are new or backup cloned are compared to their backup clone.
+     */
+    @Override
+    public ObjectChangeSet createObjectChangeSet(Object clone, Object backUp, UnitOfWorkChangeSet changeSet, boolean isNew, AbstractSession session, ClassDescriptor descriptor) {
+        FingerprintedMappings mappings = getFingerprintedMappings(descriptor);
+        if (isNew || (backUp != clone) || (mappings == null)) {
+            return super.createObjectChangeSet(clone, backUp, changeSet, isNew, session, descriptor);
+        }
+        return createObjectChangeSetThroughSnapshot(clone, changeSet, session, descriptor, mappings);
+    }
+
+    /**
+     * INTERNAL:
+     * Create the ObjectChangeSet of an existing object, recording the attributes that differ from its snapshot.
+     * If the object has no snapshot all of its attributes are recorded.
+     */
+    protected ObjectChangeSet createObjectChangeSetThroughSnapshot(Object clone, UnitOfWorkChangeSet changeSet, AbstractSession session, ClassDescriptor descriptor, FingerprintedMappings mappings) {
+        ObjectChangeSet changes = descriptor.getObjectBuilder().createObjectChangeSet(clone, changeSet, false, true, session);
+        if (descriptor.usesOptimisticLocking() && (changes.getId() != null)) {
+            changes.setOptimisticLockingPolicyAndInitialWriteLockValue(descriptor.getOptimisticLockingPolicy(), session);
+        }
+        Snapshot snapshot = null;
+        if (session.isUnitOfWork()) {
+            snapshot = (Snapshot)((UnitOfWorkImpl)session).getCloneSnapshots().get(clone);
+        }
+        AbstractDirectMapping[] directMappings = mappings.directMappings;
+        for (int index = 0; index < directMappings.length; index++) {
+            AbstractDirectMapping mapping = directMappings[index];
+            if ((snapshot == null) || (fingerprint(mapping.getAttributeValueFromObject(clone)) != snapshot.fingerprints[index])) {
+                changes.addChange(mapping.buildChangeRecord(clone, changes, session));
+            }
+        }
+        ObjectReferenceMapping[] referenceMappings = mappings.referenceMappings;
+        for (int index = 0; index < referenceMappings.length; index++) {
+            ObjectReferenceMapping mapping = referenceMappings[index];
+            if (snapshot == null) {
+                if (mapping.getIndirectionPolicy().objectIsInstantiated(mapping.getAttributeValueFromObject(clone))) {
+                    changes.addChange(mapping.buildChangeRecord(clone, changes, session));
+                }
+            } else if (hasReferenceChanged(mapping, clone, snapshot.references[index], session)) {
+                ObjectReferenceChangeRecord record = mapping.internalBuildChangeRecord(mapping.getRealAttributeValueFromObject(clone, session), changes, session);
+                record.setOldValue(getBackupReferenceValue(snapshot.references[index]));
+                changes.addChange(record);
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * INTERNAL:
+     * Return if the target of the clone's reference differs from the snapshot's backup of the reference.
+     * @see ObjectReferenceMapping#compareForChange(Object, Object, ObjectChangeSet, AbstractSession)
+     */
+    protected boolean hasReferenceChanged(ObjectReferenceMapping mapping, Object clone, Object backupAttribute, AbstractSession session) {
+        Object cloneAttribute = mapping.getAttributeValueFromObject(clone);
+        if (cloneAttribute == null) {
+            return getBackupReferenceValue(backupAttribute) != null;
+        }
+        if (!mapping.getIndirectionPolicy().objectIsInstantiated(cloneAttribute)) {
+            // The clone's value holder was never triggered so there will be no change.
+            return false;
+        }
+        return mapping.getRealAttributeValueFromAttribute(cloneAttribute, clone, session) != getBackupReferenceValue(backupAttribute);
+    }
+
+    /**
+     * INTERNAL:
+     * Return the target of the snapshot's backup of a reference.
+     * The backup is a plain value holder, it must not be unwrapped through the object, as weaved indirection would.
+     */
+    protected Object getBackupReferenceValue(Object backupAttribute) {
+        if (backupAttribute instanceof ValueHolderInterface) {
+            return ((ValueHolderInterface)backupAttribute).getValue();
+        }
+        return backupAttribute;
+    }
+
+    /**
+     * INTERNAL:
+     * Rebuild the snapshot of the clone after its changes have been written.
+     */
+    @Override
+    public void updateWithChanges(Object clone, ObjectChangeSet objectChangeSet, UnitOfWorkImpl uow, ClassDescriptor descriptor) {
+        FingerprintedMappings mappings = getFingerprintedMappings(descriptor);
+        if (mappings == null) {
+            super.updateWithChanges(clone, objectChangeSet, uow, descriptor);
+            return;
+        }
+        if (objectChangeSet == null) {
+            return;
+        }
+        Map cloneMapping = uow.getCloneMapping();
+        if (cloneMapping.get(clone) != null) {
+            // A new object's backup clone is replaced by the clone itself.
+            cloneMapping.put(clone, clone);
+            uow.getCloneSnapshots().put(clone, buildSnapshot(clone, mappings, uow));
+        }
+        clearChanges(clone, uow, descriptor, false);
+    }
+
+    /**
+     * Return the 64 bit fingerprint of the attribute value, 0 for null.
+     * Equal values of the fingerprinted types have equal fingerprints.
+     */
+    public static long fingerprint(Object value) {
+        if (value == null) {
+            return 0L;
+        }
+        long hash = FNV_OFFSET;
+        if (value instanceof String) {
+            return hash((String)value, hash);
+        }
+        Class type = value.getClass();
+        if ((type == ClassConstants.LONG) || (type == ClassConstants.INTEGER) || (type == ClassConstants.SHORT) || (type == ClassConstants.BYTE)) {
+            return hash(((Number)value).longValue(), hash);
+        } else if ((type == ClassConstants.DOUBLE) || (type == ClassConstants.FLOAT)) {
+            return hash(Double.doubleToLongBits(((Number)value).doubleValue()), hash);
+        } else if (type == ClassConstants.BOOLEAN) {
+            return hash(((Boolean)value).booleanValue() ? 1L : 2L, hash);
+        } else if (type == ClassConstants.CHAR) {
+            return hash(((Character)value).charValue(), hash);
+        } else if (type == ClassConstants.BIGDECIMAL) {
+            // BigDecimal equality includes the scale.
+            BigDecimal decimal = (BigDecimal)value;
+            return hash(decimal.unscaledValue().toByteArray(), hash(decimal.scale(), hash));
+        } else if (type == ClassConstants.BIGINTEGER) {
+            return hash(((BigInteger)value).toByteArray(), hash);
+        } else if (type == ClassConstants.APBYTE) {
+            return hash((byte[])value, hash);
+        } else if (type == ClassConstants.APCHAR) {
+            char[] chars = (char[])value;
+            for (int index = 0; index < chars.length; index++) {
+                hash = (hash ^ chars[index]) * FNV_PRIME;
+            }
+            return hash(chars.length, hash);
+        } else if (type == ClassConstants.ABYTE) {
+            Byte[] bytes = (Byte[])value;
+            for (int index = 0; index < bytes.length; index++) {
+                hash = hash(fingerprint(bytes[index]), hash);
+            }
+            return hash(bytes.length, hash);
+        } else if (type == ClassConstants.ACHAR) {
+            Character[] chars = (Character[])value;
+            for (int index = 0; index < chars.length; index++) {
+                hash = hash(fingerprint(chars[index]), hash);
+            }
+            return hash(chars.length, hash);
+        } else if (value instanceof Date) {
+            hash = hash(((Date)value).getTime(), hash);
+            if (value instanceof Timestamp) {
+                hash = hash(((Timestamp)value).getNanos(), hash);
+            }
+            return hash;
+        } else if (value instanceof Calendar) {
+            Calendar calendar = (Calendar)value;
+            return hash(calendar.getTimeZone().getID(), hash(calendar.getTimeInMillis(), hash));
+        } else if (value instanceof Enum) {
+            return hash(((Enum)value).ordinal(), hash(type.getName(), hash));
+        }
+        // Other types are only fingerprinted if the attribute type is fingerprinted, such as a Number.
+        return hash(value.hashCode(), hash(type.getName(), hash));
+    }
+
+    protected static long hash(long value, long hash) {
+        for (int index = 0; index < 8; index++) {
+            hash = (hash ^ (value & 0xFF)) * FNV_PRIME;
+            value = value >>> 8;
+        }
+        return hash;
+    }
+
+    protected static long hash(String value, long hash) {
+        int length = value.length();
+        for (int index = 0; index < length; index++) {
+            hash = (hash ^ value.charAt(index)) * FNV_PRIME;
+        }
+        return hash(length, hash);
+    }
+
+    protected static long hash(byte[] value, long hash) {
+        for (int index = 0; index < value.length; index++) {
+            hash = (hash ^ (value[index] & 0xFF)) * FNV_PRIME;
+        }
+        return hash(value.length, hash);
+    }
+
+    /**
+     * INTERNAL:
+     * The mappings of a descriptor that are recorded in the snapshot.
+     */
+    protected static class FingerprintedMappings {
+        protected AbstractDirectMapping[] directMappings;
+        protected ObjectReferenceMapping[] referenceMappings;
+
+        public FingerprintedMappings(List<AbstractDirectMapping> directMappings, List<ObjectReferenceMapping> referenceMappings) {
+            this.directMappings = directMappings.toArray(new AbstractDirectMapping[directMappings.size()]);
+            this.referenceMappings = referenceMappings.toArray(new ObjectReferenceMapping[referenceMappings.size()]);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * The snapshot of a registered object,
+     * the fingerprints of its direct attributes, and the backup of its references.
+     */
+    protected static class Snapshot {
+        protected long[] fingerprints;
+        protected Object[] references;
+
+        public Snapshot(long[] fingerprints, Object[] references) {
+            this.fingerprints = fingerprints;
+            this.references = references;
+        }
+    }
+}
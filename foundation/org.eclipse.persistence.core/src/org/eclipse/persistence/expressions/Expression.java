@@ -3247,6 +3247,18 @@ public abstract class Expression implements Serializable, Cloneable {
         return notExists(subQuery);
     }
 
+    /**
+     * INTERNAL:
+     * Return the expression with its compared constant values replaced by parameters,
+     * adding the parameter fields and constant values to the row.
+     * The expression is not modified, a copy is returned if any constant was replaced.
+     * This allows dynamic queries that only differ in their constant values to share the same SQL.
+     * By default the expression has no constants that can be replaced.
+     */
+    public Expression parameterizeConstants(AbstractRecord constants, AbstractSession session) {
+        return this;
+    }
+
     /**
      * INTERNAL:
      * Normalize into a structure that is printable.
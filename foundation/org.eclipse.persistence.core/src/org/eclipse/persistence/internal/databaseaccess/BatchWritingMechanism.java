@@ -16,6 +16,7 @@ import java.io.Serializable;
 
 import org.eclipse.persistence.descriptors.DescriptorQueryManager;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.sessions.SessionProfiler;
 
 /**
  * INTERNAL:
@@ -53,6 +54,11 @@ public abstract class BatchWritingMechanism implements Cloneable, Serializable {
     /** Allow for the batch size to be set as many database have strict limits. **/
     protected int maxBatchSize;
 
+    /** The number of statements executed since the batch size was last reported. */
+    protected int batchedStatementsCount;
+    /** The number of batches executed since the batch size was last reported, a statement executed alone is a batch of one. */
+    protected int executedBatchesCount;
+
     public int getMaxBatchSize() {
         return maxBatchSize;
     }
@@ -93,6 +99,29 @@ public abstract class BatchWritingMechanism implements Cloneable, Serializable {
     	queryTimeoutCache = DescriptorQueryManager.NoTimeout;
     }
     
+    /**
+     * INTERNAL:
+     * Record the execution of a batch of the number of statements.
+     */
+    protected void recordBatch(int statements) {
+        this.batchedStatementsCount += statements;
+        this.executedBatchesCount++;
+    }
+
+    /**
+     * INTERNAL:
+     * Report the average number of statements per batch executed since the last report to the session profiler,
+     * as "Info:BatchWriteAverageSize", and reset the counts.
+     * This is called when the writes of a commit have completed.
+     */
+    public void reportAverageBatchSize(AbstractSession session) {
+        if (this.executedBatchesCount > 0) {
+            session.updateProfile(SessionProfiler.BatchWriteAverageSize, Double.valueOf((double)this.batchedStatementsCount / this.executedBatchesCount));
+            this.batchedStatementsCount = 0;
+            this.executedBatchesCount = 0;
+        }
+    }
+
     /**
      * INTERNAL:
      * Sets the accessor that this mechanism will use
@@ -0,0 +1,344 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.databaseaccess;
+
+import java.lang.reflect.Field;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import org.eclipse.persistence.internal.helper.ClassConstants;
+import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Columnar buffer for the rows of a result-set.
+ * <p>Each column is stored in its own array, numeric columns are read into primitive arrays
+ * through the direct JDBC get methods, so no boxed values or Object[] are allocated per row.
+ * Other columns are read through the accessor as usual.
+ * The rows are accessed through ColumnarRecord views that only box values when they are accessed.
+ * A buffer holds a fixed number of rows, once full the next buffer is created from it, so the arrays are never copied,
+ * and a row that is kept after the fetch only keeps its own buffer.
+ * @see org.eclipse.persistence.internal.sessions.ColumnarRecord
+ */
+public class ColumnarRowBuffer {
+    public static final int OBJECT = 0;
+    public static final int LONG = 1;
+    public static final int INT = 2;
+    public static final int DOUBLE = 3;
+    public static final int FLOAT = 4;
+    public static final int SHORT = 5;
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    protected DatabaseField[] fieldsArray;
+    protected int[] types;
+    /** The column arrays, long[], int[], double[], float[], short[] or Object[] depending on the column type. */
+    protected Object[] columns;
+    /** The null flags for the primitive columns, only allocated once a column has a null value. */
+    protected boolean[][] nulls;
+    protected int size;
+    protected int capacity;
+
+    protected DatabaseAccessor accessor;
+    protected DatabasePlatform platform;
+    protected ResultSetMetaData metaData;
+
+    public ColumnarRowBuffer(DatabaseField[] fieldsArray, ResultSetMetaData metaData, DatabaseAccessor accessor) throws SQLException {
+        this.fieldsArray = fieldsArray;
+        this.metaData = metaData;
+        this.accessor = accessor;
+        this.platform = accessor.getPlatform();
+        int length = fieldsArray.length;
+        this.types = new int[length];
+        for (int index = 0; index < length; index++) {
+            this.types[index] = columnType(fieldsArray[index], index + 1);
+        }
+        initialize(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create the next buffer for the same result-set.
+     */
+    protected ColumnarRowBuffer(ColumnarRowBuffer previous) {
+        this.fieldsArray = previous.fieldsArray;
+        this.metaData = previous.metaData;
+        this.accessor = previous.accessor;
+        this.platform = previous.platform;
+        this.types = previous.types;
+        initialize(previous.capacity);
+    }
+
+    protected void initialize(int capacity) {
+        int length = this.types.length;
+        this.columns = new Object[length];
+        this.nulls = new boolean[length][];
+        this.capacity = capacity;
+        for (int index = 0; index < length; index++) {
+            this.columns[index] = newColumn(this.types[index], capacity);
+        }
+    }
+
+    /**
+     * Return the column type for the field, primitive types are only used for numeric JDBC types,
+     * the same as the accessor's optimized data conversion.
+     */
+    protected int columnType(DatabaseField field, int columnNumber) throws SQLException {
+        // Field can be null for fetch groups.
+        if ((field == null) || (field.type == null)) {
+            return OBJECT;
+        }
+        int sqlType = field.sqlType;
+        if (sqlType == DatabaseField.NULL_SQL_TYPE) {
+            sqlType = this.metaData.getColumnType(columnNumber);
+            field.setSqlType(sqlType);
+        }
+        if ((sqlType == Types.VARCHAR) || (sqlType == Types.CHAR) || (sqlType == Types.NVARCHAR) || (sqlType == Types.NCHAR)) {
+            return OBJECT;
+        }
+        Class fieldType = field.type;
+        if ((fieldType == ClassConstants.PLONG) || (fieldType == ClassConstants.LONG)) {
+            return LONG;
+        } else if ((fieldType == ClassConstants.PINT) || (fieldType == ClassConstants.INTEGER)) {
+            return INT;
+        } else if ((fieldType == ClassConstants.PDOUBLE) || (fieldType == ClassConstants.DOUBLE)) {
+            return DOUBLE;
+        } else if ((fieldType == ClassConstants.PFLOAT) || (fieldType == ClassConstants.FLOAT)) {
+            return FLOAT;
+        } else if ((fieldType == ClassConstants.PSHORT) || (fieldType == ClassConstants.SHORT)) {
+            return SHORT;
+        }
+        return OBJECT;
+    }
+
+    protected Object newColumn(int type, int capacity) {
+        switch (type) {
+            case LONG:
+                return new long[capacity];
+            case INT:
+                return new int[capacity];
+            case DOUBLE:
+                return new double[capacity];
+            case FLOAT:
+                return new float[capacity];
+            case SHORT:
+                return new short[capacity];
+            default:
+                return new Object[capacity];
+        }
+    }
+
+    /**
+     * Return if the buffer has no room for another row.
+     */
+    public boolean isFull() {
+        return this.size == this.capacity;
+    }
+
+    /**
+     * Return a new empty buffer for the rest of the result-set.
+     */
+    public ColumnarRowBuffer nextBuffer() {
+        return new ColumnarRowBuffer(this);
+    }
+
+    /**
+     * Flag the column value of the row as null.
+     */
+    protected void setNull(int row, int column) {
+        boolean[] nullColumn = this.nulls[column];
+        if (nullColumn == null) {
+            nullColumn = new boolean[this.capacity];
+            this.nulls[column] = nullColumn;
+        }
+        nullColumn[row] = true;
+    }
+
+    /**
+     * Read the current row of the result-set into the buffer and return its row index.
+     * The buffer must not be full.
+     * PERF: This method must be highly optimized.
+     */
+    public int fetchRow(ResultSet resultSet, AbstractSession session) throws SQLException {
+        int row = this.size;
+        DatabaseField[] fieldsArray = this.fieldsArray;
+        int[] types = this.types;
+        Object[] columns = this.columns;
+        for (int index = 0; index < types.length; index++) {
+            int columnNumber = index + 1;
+            switch (types[index]) {
+                case LONG:
+                    long longValue = resultSet.getLong(columnNumber);
+                    ((long[])columns[index])[row] = longValue;
+                    if ((longValue == 0l) && resultSet.wasNull()) {
+                        setNull(row, index);
+                    }
+                    break;
+                case INT:
+                    int intValue = resultSet.getInt(columnNumber);
+                    ((int[])columns[index])[row] = intValue;
+                    if ((intValue == 0) && resultSet.wasNull()) {
+                        setNull(row, index);
+                    }
+                    break;
+                case DOUBLE:
+                    double doubleValue = resultSet.getDouble(columnNumber);
+                    ((double[])columns[index])[row] = doubleValue;
+                    if ((doubleValue == 0d) && resultSet.wasNull()) {
+                        setNull(row, index);
+                    }
+                    break;
+                case FLOAT:
+                    float floatValue = resultSet.getFloat(columnNumber);
+                    ((float[])columns[index])[row] = floatValue;
+                    if ((floatValue == 0f) && resultSet.wasNull()) {
+                        setNull(row, index);
+                    }
+                    break;
+                case SHORT:
+                    short shortValue = resultSet.getShort(columnNumber);
+                    ((short[])columns[index])[row] = shortValue;
+                    if ((shortValue == 0) && resultSet.wasNull()) {
+                        setNull(row, index);
+                    }
+                    break;
+                default:
+                    DatabaseField field = fieldsArray[index];
+                    // Field can be null for fetch groups.
+                    if (field != null) {
+                        ((Object[])columns[index])[row] = this.accessor.getObject(resultSet, field, this.metaData, columnNumber, this.platform, true, session);
+                    }
+            }
+        }
+        this.size = row + 1;
+        return row;
+    }
+
+    /**
+     * Return the number of rows in the buffer.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Return the type of the column.
+     */
+    public int getColumnType(int column) {
+        return this.types[column];
+    }
+
+    /**
+     * Return if the column value of the row is null.
+     */
+    public boolean isNull(int row, int column) {
+        if (this.types[column] == OBJECT) {
+            return ((Object[])this.columns[column])[row] == null;
+        }
+        boolean[] nullColumn = this.nulls[column];
+        return (nullColumn != null) && nullColumn[row];
+    }
+
+    /**
+     * Return the column value of the row, primitive values are boxed.
+     */
+    public Object getValue(int row, int column) {
+        boolean[] nullColumn = this.nulls[column];
+        if ((nullColumn != null) && nullColumn[row]) {
+            return null;
+        }
+        switch (this.types[column]) {
+            case LONG:
+                return Long.valueOf(((long[])this.columns[column])[row]);
+            case INT:
+                return Integer.valueOf(((int[])this.columns[column])[row]);
+            case DOUBLE:
+                return Double.valueOf(((double[])this.columns[column])[row]);
+            case FLOAT:
+                return Float.valueOf(((float[])this.columns[column])[row]);
+            case SHORT:
+                return Short.valueOf(((short[])this.columns[column])[row]);
+            default:
+                return ((Object[])this.columns[column])[row];
+        }
+    }
+
+    /**
+     * Return the values of the row.
+     */
+    public Object[] getValues(int row) {
+        int length = this.types.length;
+        Object[] values = new Object[length];
+        for (int index = 0; index < length; index++) {
+            values[index] = getValue(row, index);
+        }
+        return values;
+    }
+
+    /**
+     * Set the column value of the row into the primitive field of the object, without boxing the value.
+     * Return false if the value is null or the column type does not match the field type,
+     * in which case the value must be set through the boxed value.
+     */
+    public boolean setValueInField(int row, int column, Field attributeField, Object object) throws IllegalAccessException {
+        boolean[] nullColumn = this.nulls[column];
+        if ((nullColumn != null) && nullColumn[row]) {
+            return false;
+        }
+        Class type = attributeField.getType();
+        switch (this.types[column]) {
+            case LONG:
+                if (type == ClassConstants.PLONG) {
+                    attributeField.setLong(object, ((long[])this.columns[column])[row]);
+                    return true;
+                }
+                break;
+            case INT:
+                if (type == ClassConstants.PINT) {
+                    attributeField.setInt(object, ((int[])this.columns[column])[row]);
+                    return true;
+                }
+                break;
+            case DOUBLE:
+                if (type == ClassConstants.PDOUBLE) {
+                    attributeField.setDouble(object, ((double[])this.columns[column])[row]);
+                    return true;
+                }
+                break;
+            case FLOAT:
+                if (type == ClassConstants.PFLOAT) {
+                    attributeField.setFloat(object, ((float[])this.columns[column])[row]);
+                    return true;
+                }
+                break;
+            case SHORT:
+                if (type == ClassConstants.PSHORT) {
+                    attributeField.setShort(object, ((short[])this.columns[column])[row]);
+                    return true;
+                }
+                break;
+        }
+        return false;
+    }
+
+    /**
+     * Release the result-set state once all of the rows have been fetched.
+     */
+    public void endFetch() {
+        this.accessor = null;
+        this.platform = null;
+        this.metaData = null;
+    }
+}
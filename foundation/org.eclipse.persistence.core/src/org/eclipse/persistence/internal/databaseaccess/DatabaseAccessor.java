@@ -49,6 +49,7 @@ import java.util.Vector;
 // EclipseLink imports
 import org.eclipse.persistence.queries.Call;
 import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.queries.ObjectLevelReadQuery;
 import org.eclipse.persistence.sessions.DatabaseLogin;
 import org.eclipse.persistence.exceptions.DatabaseException;
 import org.eclipse.persistence.exceptions.QueryException;
@@ -63,6 +64,7 @@ import org.eclipse.persistence.internal.localization.ToStringLocalization;
 import org.eclipse.persistence.internal.sessions.AbstractRecord;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
 import org.eclipse.persistence.internal.sessions.ArrayRecord;
+import org.eclipse.persistence.internal.sessions.ColumnarRecord;
 import org.eclipse.persistence.logging.SessionLog;
 import org.eclipse.persistence.sessions.Login;
 import org.eclipse.persistence.sessions.SessionProfiler;
@@ -638,6 +640,16 @@ public class DatabaseAccessor extends DatasourceAccessor {
                 result = session.getPlatform().executeStoredProcedure(dbCall, (PreparedStatement)statement, this, session);
                 this.storedProcedureStatementsCount++;
             } else {
+                FetchSizeTuner fetchSizeTuner = getPlatform().getFetchSizeTuner();
+                if ((fetchSizeTuner != null) && (dbCall.getResultSetFetchSize() == 0) && !dbCall.isOneRowReturned() && !dbCall.isCursorReturned()) {
+                    int fetchSize = fetchSizeTuner.getFetchSize(dbCall.getSQLString());
+                    if (fetchSize > 0) {
+                        statement.setFetchSize(fetchSize);
+                    } else if ((statement == this.dynamicStatement) || (dbCall.usesBinding(session) && dbCall.shouldCacheStatement(session))) {
+                        // A reused statement may still have a previously tuned fetch size, so reset it to the driver's default.
+                        statement.setFetchSize(0);
+                    }
+                }
                 resultSet = executeSelect(dbCall, statement, session);                
                 this.readStatementsCount++;
                 if (!dbCall.shouldIgnoreFirstRowSetting() && dbCall.getFirstResult() != 0) {
@@ -758,6 +770,22 @@ public class DatabaseAccessor extends DatasourceAccessor {
                             // If using threading return the cursored list,
                             // do not close the result or statement as the rows are being fetched by the thread.
                             return buildThreadCursoredResult(call, resultSet, statement, metaData, session);
+                        } else if (shouldUseColumnarRows(call)) {
+                            // PERF: Fetch into primitive column arrays to avoid the values array and boxing per row.
+                            results = new Vector(16);
+                            Vector fields = call.getFields();
+                            DatabaseField[] fieldsArray = call.getFieldsArray();
+                            ColumnarRowBuffer buffer = new ColumnarRowBuffer(fieldsArray, metaData, this);
+                            while (hasNext) {
+                                if (buffer.isFull()) {
+                                    ColumnarRowBuffer fullBuffer = buffer;
+                                    buffer = fullBuffer.nextBuffer();
+                                    fullBuffer.endFetch();
+                                }
+                                results.add(new ColumnarRecord(fields, fieldsArray, buffer, buffer.fetchRow(resultSet, session)));
+                                hasNext = resultSet.next();
+                            }
+                            buffer.endFetch();
                         } else {
                             results = new Vector(16);
                             while (hasNext) {
@@ -782,6 +810,12 @@ public class DatabaseAccessor extends DatasourceAccessor {
                             ((List)result).addAll(results);
                         }
                     }
+                    if (!hasMultipleResultsSets && !call.isCursorReturned()) {
+                        FetchSizeTuner fetchSizeTuner = getPlatform().getFetchSizeTuner();
+                        if ((fetchSizeTuner != null) && (call.getResultSetFetchSize() == 0)) {
+                            fetchSizeTuner.recordResultSize(call.getSQLString(), results.size(), metaData);
+                        }
+                    }
                     if (hasMultipleResultsSets) {
                         hasMoreResultsSets = statement.getMoreResults();
                         if (hasMoreResultsSets) {
@@ -910,10 +944,26 @@ public class DatabaseAccessor extends DatasourceAccessor {
      */
     protected int executeJDK12BatchStatement(Statement statement, DatabaseCall dbCall, AbstractSession session, boolean isStatementPrepared) throws DatabaseException {
         int returnValue =0;
+        Exception error = null;
         try {
             //bug 4241441: executeBatch moved to the platform, and result returned to batch mechanism
             returnValue = this.getPlatform().executeBatch(statement, isStatementPrepared);
         } catch (SQLException exception) {
+            error = exception;
+        } catch (RuntimeException exception) {
+            error = exception;
+        }
+        completeJDK12BatchStatement(statement, dbCall, session, error);
+        return returnValue;
+    }
+
+    /**
+     * Release the batched statement after its execution, or close it and throw the execution error.
+     * This must be called by the thread using the accessor, the batch may have been executed by another thread.
+     */
+    protected void completeJDK12BatchStatement(Statement statement, DatabaseCall dbCall, AbstractSession session, Exception error) throws DatabaseException {
+        if (error instanceof SQLException) {
+            SQLException exception = (SQLException)error;
             //If this is a connection from an external pool then closeStatement will close the connection.
             //we must test the connection before that happens.
             DatabaseException commException = processExceptionForCommError(session, exception, dbCall);
@@ -924,13 +974,13 @@ public class DatabaseAccessor extends DatasourceAccessor {
             }
 
             throw DatabaseException.sqlException(exception, this, session, false);
-        } catch (RuntimeException exception) {
+        } else if (error != null) {
             try {// Ensure that the statement is closed, but still ensure that the real exception is thrown.
                 closeStatement(statement, session, dbCall);
             } catch (SQLException closeException) {
             }
 
-            throw exception;
+            throw (RuntimeException)error;
         }
 
         // This is in a separate try block to ensure that the real exception is not masked by the close exception.
@@ -947,7 +997,6 @@ public class DatabaseAccessor extends DatasourceAccessor {
             if (commException != null) throw commException;
             throw DatabaseException.sqlException(exception, this, session, false);
         }
-        return returnValue;
     }
 
     /**
@@ -1047,6 +1096,17 @@ public class DatabaseAccessor extends DatasourceAccessor {
         return new DatabaseRecord(fields, values);
     }
 
+    /**
+     * Return if the call's rows should be fetched into a columnar row buffer.
+     * This requires the query to be configured to use columnar rows, and the platform to optimize data conversion,
+     * as the buffer reads the numeric values through the direct JDBC get methods.
+     */
+    protected boolean shouldUseColumnarRows(DatabaseCall call) {
+        DatabaseQuery query = call.getQuery();
+        return (query != null) && query.isObjectLevelReadQuery() && ((ObjectLevelReadQuery)query).shouldUseColumnarRows()
+                && (call.getFieldsArray() != null) && getPlatform().shouldOptimizeDataConversion();
+    }
+
     /**
      * Return a new DatabaseRow.<p>
      * Populate the row from the data in cursor. The fields representing the results
@@ -1099,6 +1159,10 @@ public class DatabaseAccessor extends DatasourceAccessor {
             if (((DatabasePlatform)this.platform).getBatchWritingMechanism() != null) {
                 this.activeBatchWritingMechanism = ((DatabasePlatform)this.platform).getBatchWritingMechanism().clone();
                 this.activeBatchWritingMechanism.setAccessor(this, session);
+                // A custom parameterized mechanism must also be used when switching back from dynamic SQL.
+                if (this.activeBatchWritingMechanism instanceof ParameterizedSQLBatchWritingMechanism) {
+                    this.parameterizedMechanism = (ParameterizedSQLBatchWritingMechanism)this.activeBatchWritingMechanism;
+                }
             } else {
                 this.activeBatchWritingMechanism = getParameterizedMechanism();
             }
@@ -1828,6 +1892,9 @@ public class DatabaseAccessor extends DatasourceAccessor {
     public void writesCompleted(AbstractSession session) {
         if (isConnected && isInBatchWritingMode(session)) {
             getActiveBatchWritingMechanism(session).executeBatchedStatements(session);
+            if (this.parameterizedMechanism != null) {
+                this.parameterizedMechanism.reportAverageBatchSize(session);
+            }
         }
     }
 }
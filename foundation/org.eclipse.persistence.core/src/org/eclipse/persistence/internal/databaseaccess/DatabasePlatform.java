@@ -143,6 +143,12 @@ public class DatabasePlatform extends DatasourcePlatform {
 
     /** Allow for the batch size to be set as many database have strict limits. **/
     protected int maxBatchWritingSize;
+
+    /** Allow the parameterized batch size to be tuned to the measured batch execution time, up to the max batch writing size. **/
+    protected boolean shouldAutoTuneBatchWritingSize;
+
+    /** Learns the fetch size of each select statement from its previous results, if fetch size auto-tuning is used. **/
+    protected FetchSizeTuner fetchSizeTuner;
     
     /** used for casting of input parameters in certain DBs **/
     protected int castSizeForVarcharParameter;
@@ -189,6 +195,8 @@ public class DatabasePlatform extends DatasourcePlatform {
      */
     public static int DEFAULT_MAX_BATCH_WRITING_SIZE = 32000;
     public static int DEFAULT_PARAMETERIZED_MAX_BATCH_WRITING_SIZE = 100;
+    /** The largest parameterized batch size auto-tuning will use when no max batch writing size is set. */
+    public static int DEFAULT_AUTO_TUNED_MAX_BATCH_WRITING_SIZE = 1000;
     
     /** Timeout used is isValid() check for dead connections. */
     public static int IS_VALID_TIMEOUT = 0;
@@ -908,6 +916,8 @@ public class DatabasePlatform extends DatasourcePlatform {
         databasePlatform.setTransactionIsolation(getTransactionIsolation());
         databasePlatform.setBatchWritingMechanism(getBatchWritingMechanism());
         databasePlatform.setMaxBatchWritingSize(getMaxBatchWritingSize());
+        databasePlatform.setShouldAutoTuneBatchWritingSize(shouldAutoTuneBatchWritingSize());
+        databasePlatform.setFetchSizeTuner(getFetchSizeTuner());
         databasePlatform.setShouldForceFieldNamesToUpperCase(shouldForceFieldNamesToUpperCase());
         databasePlatform.setShouldOptimizeDataConversion(shouldOptimizeDataConversion());
         databasePlatform.setStringBindingSize(getStringBindingSize());
@@ -1311,6 +1321,16 @@ public class DatabasePlatform extends DatasourcePlatform {
     public int getMaxIndexNameSize() {
         return getMaxFieldNameSize();
     }
+
+    /**
+     * INTERNAL:
+     * returns the maximum number of values that can be used in an IN list
+     * on this platform, or 0 if there is no limit.
+     * This limits the size of auto-tuned IN batch fetching.
+     */
+    public int getMaxInListSize() {
+        return 0;
+    }
     
     /**
      * INTERNAL:
@@ -1776,6 +1796,65 @@ public class DatabasePlatform extends DatasourcePlatform {
         this.maxBatchWritingSize = maxBatchWritingSize;
     }
 
+    /**
+     * PUBLIC:
+     * Return if the parameterized batch size is tuned to the measured batch execution time.
+     */
+    public boolean shouldAutoTuneBatchWritingSize() {
+        return shouldAutoTuneBatchWritingSize;
+    }
+
+    /**
+     * PUBLIC:
+     * Set if the parameterized batch size should be tuned to the measured batch execution time.
+     * The batch size is adjusted to maximize the number of statements executed per second,
+     * between 10 and the max batch writing size, or 1000 if no max batch writing size is set.
+     * The current batch size is reported to the session profiler as "Info:BatchWriteSize".
+     */
+    public void setShouldAutoTuneBatchWritingSize(boolean shouldAutoTuneBatchWritingSize) {
+        this.shouldAutoTuneBatchWritingSize = shouldAutoTuneBatchWritingSize;
+    }
+
+    /**
+     * PUBLIC:
+     * Return if the fetch size of select statements is tuned to the size of their previous results.
+     */
+    public boolean shouldAutoTuneFetchSize() {
+        return this.fetchSizeTuner != null;
+    }
+
+    /**
+     * PUBLIC:
+     * Set if the fetch size of select statements should be tuned to the size of their previous results.
+     * The fetch size of each SQL string is set to read its average result in one round trip,
+     * up to 1000 rows and 1MB of estimated row data, instead of the driver's default.
+     * Queries that set their own fetch size are not tuned.
+     * This must be set before login, as the learned fetch sizes are shared by the platform's copies.
+     */
+    public void setShouldAutoTuneFetchSize(boolean shouldAutoTuneFetchSize) {
+        if (!shouldAutoTuneFetchSize) {
+            this.fetchSizeTuner = null;
+        } else if (this.fetchSizeTuner == null) {
+            this.fetchSizeTuner = new FetchSizeTuner();
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Return the fetch size tuner, or null if fetch size auto-tuning is not used.
+     */
+    public FetchSizeTuner getFetchSizeTuner() {
+        return fetchSizeTuner;
+    }
+
+    /**
+     * INTERNAL:
+     * Set the fetch size tuner, null disables fetch size auto-tuning.
+     */
+    public void setFetchSizeTuner(FetchSizeTuner fetchSizeTuner) {
+        this.fetchSizeTuner = fetchSizeTuner;
+    }
+
     public void setSequenceCounterFieldName(String name) {
         if (getDefaultSequence() instanceof TableSequence) {
             ((TableSequence)getDefaultSequence()).setCounterFieldName(name);
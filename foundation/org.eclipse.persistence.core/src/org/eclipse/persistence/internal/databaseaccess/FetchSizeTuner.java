@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.databaseaccess;
+
+import java.io.Serializable;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.persistence.internal.helper.ConcurrentFixedCache;
+
+/**
+ * INTERNAL:
+ * Learns the JDBC fetch size of each select SQL string from the sizes of its previous results.
+ * <p>
+ * Most drivers fetch a small number of rows per round trip by default (10 for Oracle),
+ * so large results require many round trips.  The tuner records the average number of rows
+ * and the estimated row width of each SQL string's results, and uses a fetch size that
+ * reads the average result in a single round trip, bounded by the max fetch size and by the memory budget
+ * divided by the row width.  Results smaller than the min fetch size use the driver's default.
+ * <p>
+ * The statistics are kept for a fixed number of SQL strings, the least frequently used are removed.
+ * The tuner is shared by the platform's clones, so all of the session's connections use the same statistics.
+ * Queries that set their own fetch size are not tuned.
+ * @see DatabasePlatform#setShouldAutoTuneFetchSize(boolean)
+ */
+public class FetchSizeTuner implements Serializable {
+    /** The default number of SQL strings statistics are kept for. */
+    public static int DEFAULT_MAX_STATEMENTS = 1000;
+    /** The default largest fetch size. */
+    public static int DEFAULT_MAX_FETCH_SIZE = 1000;
+    /** The default number of bytes the rows of a fetch can use. */
+    public static int DEFAULT_MEMORY_BUDGET = 1024 * 1024;
+    /** Fetch sizes below this size are not set, as the driver's default is used. */
+    public static int MIN_FETCH_SIZE = 10;
+    /** The width used for columns with an unknown or unbounded display size. */
+    protected static final int DEFAULT_COLUMN_WIDTH = 16;
+    /** The width used for columns with a large display size, as large values are usually not fully fetched. */
+    protected static final int MAX_COLUMN_WIDTH = 4000;
+    /** The number of executions averaged equally, after which the average weighs recent results more. */
+    protected static final int AVERAGE_WINDOW = 8;
+
+    /** The statistics of each SQL string. */
+    protected ConcurrentFixedCache statistics;
+    /** The largest fetch size used. */
+    protected int maxFetchSize;
+    /** The number of bytes the rows of a fetch can use. */
+    protected int memoryBudget;
+
+    public FetchSizeTuner() {
+        this.statistics = new ConcurrentFixedCache(DEFAULT_MAX_STATEMENTS);
+        this.maxFetchSize = DEFAULT_MAX_FETCH_SIZE;
+        this.memoryBudget = DEFAULT_MEMORY_BUDGET;
+    }
+
+    /**
+     * Return the learned fetch size of the SQL string, or 0 to use the driver's default.
+     */
+    public int getFetchSize(String sqlString) {
+        FetchStatistics sqlStatistics = (FetchStatistics)this.statistics.getCache().get(sqlString);
+        if (sqlStatistics == null) {
+            return 0;
+        }
+        return sqlStatistics.fetchSize;
+    }
+
+    /**
+     * Record the number of rows of a result of the SQL string, and update its fetch size.
+     * The row width is estimated from the result set's meta data the first time the SQL string is recorded.
+     */
+    public void recordResultSize(String sqlString, int rows, ResultSetMetaData metaData) throws SQLException {
+        FetchStatistics sqlStatistics = (FetchStatistics)this.statistics.get(sqlString);
+        if (sqlStatistics == null) {
+            sqlStatistics = new FetchStatistics(estimateRowWidth(metaData));
+            this.statistics.put(sqlString, sqlStatistics);
+        }
+        synchronized (sqlStatistics) {
+            sqlStatistics.executions++;
+            sqlStatistics.averageRows += (rows - sqlStatistics.averageRows) / Math.min(sqlStatistics.executions, AVERAGE_WINDOW);
+            sqlStatistics.fetchSize = computeFetchSize(sqlStatistics);
+        }
+    }
+
+    /**
+     * Return the fetch size to read the average result in one round trip, within the max fetch size and memory budget.
+     * One more row than the average is fetched, so the end of the result is found without another round trip.
+     */
+    protected int computeFetchSize(FetchStatistics sqlStatistics) {
+        int fetchSize = (int)Math.min(Math.ceil(sqlStatistics.averageRows) + 1, this.maxFetchSize);
+        fetchSize = Math.min(fetchSize, Math.max(this.memoryBudget / sqlStatistics.rowWidth, 1));
+        if (fetchSize <= MIN_FETCH_SIZE) {
+            return 0;
+        }
+        return fetchSize;
+    }
+
+    /**
+     * Return the estimated number of bytes of a row, from the display size of its columns.
+     */
+    protected int estimateRowWidth(ResultSetMetaData metaData) throws SQLException {
+        int width = 0;
+        int columns = metaData.getColumnCount();
+        for (int index = 1; index <= columns; index++) {
+            int columnWidth = metaData.getColumnDisplaySize(index);
+            if (columnWidth <= 0) {
+                columnWidth = DEFAULT_COLUMN_WIDTH;
+            }
+            width += Math.min(columnWidth, MAX_COLUMN_WIDTH);
+        }
+        return Math.max(width, 1);
+    }
+
+    /**
+     * Return a summary of the statistics of each SQL string.
+     * Each row contains: ["SQL", "Executions", "Average Rows", "Row Width", "Fetch Size"]
+     */
+    public Object[][] getSummary() {
+        List<Object[]> rows = new ArrayList<Object[]>();
+        for (Map.Entry<String, FetchStatistics> entry : ((Map<String, FetchStatistics>)this.statistics.getCache()).entrySet()) {
+            FetchStatistics sqlStatistics = entry.getValue();
+            synchronized (sqlStatistics) {
+                rows.add(new Object[] {entry.getKey(), Long.valueOf(sqlStatistics.executions), Double.valueOf(sqlStatistics.averageRows),
+                    Integer.valueOf(sqlStatistics.rowWidth), Integer.valueOf(sqlStatistics.fetchSize)});
+            }
+        }
+        return rows.toArray(new Object[rows.size()][]);
+    }
+
+    /**
+     * Remove the statistics of all SQL strings.
+     */
+    public void clear() {
+        this.statistics.getCache().clear();
+    }
+
+    /**
+     * Return the statistics of each SQL string.
+     */
+    public ConcurrentFixedCache getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Return the largest fetch size used.
+     */
+    public int getMaxFetchSize() {
+        return maxFetchSize;
+    }
+
+    /**
+     * Set the largest fetch size used.
+     */
+    public void setMaxFetchSize(int maxFetchSize) {
+        this.maxFetchSize = maxFetchSize;
+    }
+
+    /**
+     * Return the number of bytes the rows of a fetch can use.
+     */
+    public int getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Set the number of bytes the rows of a fetch can use.
+     * The fetch size of wide rows is reduced so a fetch does not use more memory.
+     */
+    public void setMemoryBudget(int memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * INTERNAL:
+     * The result statistics of a SQL string.
+     */
+    protected static class FetchStatistics implements Serializable {
+        protected long executions;
+        protected double averageRows;
+        protected final int rowWidth;
+        protected volatile int fetchSize;
+
+        protected FetchStatistics(int rowWidth) {
+            this.rowWidth = rowWidth;
+        }
+    }
+}
@@ -47,6 +47,18 @@ public class ParameterizedSQLBatchWritingMechanism extends BatchWritingMechanism
      */
     protected List<List> parameters;
     protected DatabaseCall lastCallAppended;
+
+    /** The smallest batch size auto-tuning will use. */
+    public static int MIN_AUTO_TUNED_BATCH_SIZE = 10;
+
+    /** Set if the batch size is tuned to the measured batch execution time. */
+    protected boolean isBatchSizeAutoTuned;
+    /** The largest batch size auto-tuning will use. */
+    protected int batchSizeLimit;
+    /** The statements per nanosecond of the last full batch, used to decide the next tuning step. */
+    protected double previousThroughput;
+    /** The direction of the last tuning step. */
+    protected boolean isBatchSizeIncreasing = true;
     
     public ParameterizedSQLBatchWritingMechanism() {
         super();
@@ -55,10 +67,45 @@ public class ParameterizedSQLBatchWritingMechanism extends BatchWritingMechanism
     public ParameterizedSQLBatchWritingMechanism(DatabaseAccessor databaseAccessor) {
         this.databaseAccessor = databaseAccessor;
         this.parameters = new ArrayList();
-        this.maxBatchSize = this.databaseAccessor.getLogin().getPlatform().getMaxBatchWritingSize();
+        initializeBatchSize();
+    }
+
+    /**
+     * INTERNAL:
+     * Sets the accessor that this mechanism will use.
+     * Used when this mechanism is a custom mechanism cloned from the platform.
+     */
+    @Override
+    public void setAccessor(DatabaseAccessor accessor, AbstractSession session) {
+        super.setAccessor(accessor, session);
+        this.parameters = new ArrayList();
+        initializeBatchSize();
+    }
+
+    /**
+     * INTERNAL:
+     * Initialize the max batch size and auto-tuning from the platform.
+     */
+    protected void initializeBatchSize() {
+        DatabasePlatform platform = (DatabasePlatform)this.databaseAccessor.getLogin().getPlatform();
+        int platformSize = platform.getMaxBatchWritingSize();
         if (this.maxBatchSize == 0) {
-            // the max size was not set on the platform - use default
-            this.maxBatchSize = DatabasePlatform.DEFAULT_PARAMETERIZED_MAX_BATCH_WRITING_SIZE;
+            this.maxBatchSize = platformSize;
+            if (this.maxBatchSize == 0) {
+                // the max size was not set on the platform - use default
+                this.maxBatchSize = DatabasePlatform.DEFAULT_PARAMETERIZED_MAX_BATCH_WRITING_SIZE;
+            }
+        }
+        this.isBatchSizeAutoTuned = this.isBatchSizeAutoTuned || platform.shouldAutoTuneBatchWritingSize();
+        if (this.isBatchSizeAutoTuned && (this.batchSizeLimit == 0)) {
+            // The dynamic SQL default size is not a statement count.
+            if ((platformSize == 0) || (platformSize == DatabasePlatform.DEFAULT_MAX_BATCH_WRITING_SIZE)) {
+                this.batchSizeLimit = DatabasePlatform.DEFAULT_AUTO_TUNED_MAX_BATCH_WRITING_SIZE;
+            } else {
+                this.batchSizeLimit = platformSize;
+                // Start below the limit, to allow tuning in both directions.
+                this.maxBatchSize = Math.min(platformSize, DatabasePlatform.DEFAULT_PARAMETERIZED_MAX_BATCH_WRITING_SIZE);
+            }
         }
     }
 
@@ -79,7 +126,7 @@ public class ParameterizedSQLBatchWritingMechanism extends BatchWritingMechanism
                 if (this.previousCall.getSQLString().equals(dbCall.getSQLString()) && (this.parameters.size() < this.maxBatchSize)) {
                     this.parameters.add(dbCall.getParameters());
                 } else {
-                    executeBatchedStatements(session);
+                    flushBatchedStatements(session);
                     this.previousCall = dbCall;
                     this.parameters.add(dbCall.getParameters());
                 }
@@ -115,6 +162,15 @@ public class ParameterizedSQLBatchWritingMechanism extends BatchWritingMechanism
         this.lastCallAppended = null;
     }
 
+    /**
+     * INTERNAL:
+     * Execute the batched statements because the batch is full, or a different statement is being batched.
+     * Subclasses may execute the batch asynchronously.
+     */
+    protected void flushBatchedStatements(AbstractSession session) {
+        executeBatchedStatements(session);
+    }
+
     /**
      * INTERNAL:
      * This method is used by the DatabaseAccessor to clear the batched statements in the
@@ -126,6 +182,7 @@ public class ParameterizedSQLBatchWritingMechanism extends BatchWritingMechanism
         }
         if (this.parameters.size() == 1) {
             // If only one call, just execute normally.
+            recordBatch(1);
             try {
                 int rowCount = (Integer)this.databaseAccessor.basicExecuteCall(this.previousCall, null, session, false);          
                 if (this.previousCall.hasOptimisticLock()) {                    
@@ -139,20 +196,16 @@ public class ParameterizedSQLBatchWritingMechanism extends BatchWritingMechanism
             return;
         }
 
+        int batchSize = this.parameters.size();
+        boolean isFullBatch = batchSize >= this.maxBatchSize;
+        recordBatch(batchSize);
+        long startTime = 0;
+        if (this.isBatchSizeAutoTuned) {
+            startTime = System.nanoTime();
+        }
         try {
             this.databaseAccessor.incrementCallCount(session);// Decrement occurs in close.
-
-            if (session.shouldLog(SessionLog.FINE, SessionLog.SQL)) {
-                session.log(SessionLog.FINER, SessionLog.SQL, "begin_batch_statements", null, this.databaseAccessor);
-                session.log(SessionLog.FINE, SessionLog.SQL, this.previousCall.getSQLString(), null, this.databaseAccessor, false);
-                // took this logging part from SQLCall
-                for (List callParameters : this.parameters) {
-                    StringWriter writer = new StringWriter();
-                    DatabaseCall.appendLogParameters(callParameters, this.databaseAccessor, writer, session);                
-                    session.log(SessionLog.FINE, SessionLog.SQL, writer.toString(), null, this.databaseAccessor, false);
-                }
-                session.log(SessionLog.FINER, SessionLog.SQL, "end_batch_statements", null, this.databaseAccessor);
-            }
+            logBatchedStatements(session);
             
             //bug 4241441: need to keep track of rows modified and throw opti lock exception if needed
             PreparedStatement statement = prepareBatchStatements(session);
@@ -163,6 +216,9 @@ public class ParameterizedSQLBatchWritingMechanism extends BatchWritingMechanism
             if (this.previousCall.hasOptimisticLock() && (this.executionCount != this.statementCount)) {
                 throw OptimisticLockException.batchStatementExecutionFailure();
             }
+            if (this.isBatchSizeAutoTuned && isFullBatch) {
+                updateBatchSize(session, batchSize, System.nanoTime() - startTime);
+            }
         } finally {
             // Reset the batched sql string
             //we MUST clear the mechanism here in order to append the new statement.
@@ -170,6 +226,66 @@ public class ParameterizedSQLBatchWritingMechanism extends BatchWritingMechanism
         }
     }
 
+    /**
+     * INTERNAL:
+     * Log the batched statement and each of its parameter lists.
+     */
+    protected void logBatchedStatements(AbstractSession session) {
+        if (session.shouldLog(SessionLog.FINE, SessionLog.SQL)) {
+            session.log(SessionLog.FINER, SessionLog.SQL, "begin_batch_statements", null, this.databaseAccessor);
+            session.log(SessionLog.FINE, SessionLog.SQL, this.previousCall.getSQLString(), null, this.databaseAccessor, false);
+            // took this logging part from SQLCall
+            for (List callParameters : this.parameters) {
+                StringWriter writer = new StringWriter();
+                DatabaseCall.appendLogParameters(callParameters, this.databaseAccessor, writer, session);                
+                session.log(SessionLog.FINE, SessionLog.SQL, writer.toString(), null, this.databaseAccessor, false);
+            }
+            session.log(SessionLog.FINER, SessionLog.SQL, "end_batch_statements", null, this.databaseAccessor);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Tune the batch size from the execution time of a full batch.
+     * The batch size is moved in the same direction while the statements executed per second increase,
+     * and reversed when they decrease, between MIN_AUTO_TUNED_BATCH_SIZE and the batch size limit.
+     */
+    protected void updateBatchSize(AbstractSession session, int batchSize, long time) {
+        if (time <= 0) {
+            return;
+        }
+        double throughput = (double)batchSize / time;
+        if (throughput < this.previousThroughput) {
+            this.isBatchSizeIncreasing = !this.isBatchSizeIncreasing;
+        }
+        this.previousThroughput = throughput;
+        int newSize;
+        if (this.isBatchSizeIncreasing) {
+            newSize = Math.min(this.batchSizeLimit, batchSize + (batchSize / 2));
+        } else {
+            newSize = Math.max(MIN_AUTO_TUNED_BATCH_SIZE, batchSize - (batchSize / 4));
+        }
+        this.maxBatchSize = newSize;
+        session.updateProfile(SessionProfiler.BatchWriteSize, Integer.valueOf(newSize));
+        session.updateProfile(SessionProfiler.BatchWriteTime, Long.valueOf(time / 1000000));
+    }
+
+    public boolean isBatchSizeAutoTuned() {
+        return isBatchSizeAutoTuned;
+    }
+
+    public void setIsBatchSizeAutoTuned(boolean isBatchSizeAutoTuned) {
+        this.isBatchSizeAutoTuned = isBatchSizeAutoTuned;
+    }
+
+    public int getBatchSizeLimit() {
+        return batchSizeLimit;
+    }
+
+    public void setBatchSizeLimit(int batchSizeLimit) {
+        this.batchSizeLimit = batchSizeLimit;
+    }
+
     /**
      * INTERNAL:
      * Swaps out the Mechanism for the other Mechanism
@@ -0,0 +1,254 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.databaseaccess;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.eclipse.persistence.descriptors.DescriptorQueryManager;
+import org.eclipse.persistence.exceptions.OptimisticLockException;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+
+/**
+ * INTERNAL:
+ * PipelinedSQLBatchWritingMechanism is a parameterized batch writing mechanism that executes
+ * each full batch asynchronously, while the committing thread continues to batch the next statements.
+ * <p>The accessor and session are only used by the committing thread.
+ * It prepares the statement, binds and adds the batched parameters, then hands the statement off to a thread
+ * from the server platform that only executes the JDBC batch.
+ * The statement is handed back when the committing thread next needs the connection (the next batch,
+ * a non batchable statement, the commit or rollback), where its statement is released, and its row count
+ * and any error, such as an optimistic lock failure, are processed and thrown.
+ * So the connection is never used concurrently, only by the two threads in turn.
+ * <p>This requires the JDBC driver to allow a statement to be executed by a thread other than the one that
+ * prepared it, which JDBC drivers generally support for connections from an internal or external
+ * (non-JTA) connection pool.
+ * A connection used with JTA (an external transaction controller) is bound to the thread of the transaction,
+ * so in that case, and for a batch of a single statement, the batch is executed synchronously.
+ * <p>This is configured using the "eclipselink.jdbc.batch-writing" property value "Pipelined",
+ * and can be combined with batch size auto-tuning.
+ * @see org.eclipse.persistence.config.BatchWriting#Pipelined
+ */
+public class PipelinedSQLBatchWritingMechanism extends ParameterizedSQLBatchWritingMechanism {
+
+    /** The batch currently being executed, or null. */
+    protected transient BatchExecution executingBatch;
+
+    public PipelinedSQLBatchWritingMechanism() {
+        super();
+    }
+
+    public PipelinedSQLBatchWritingMechanism(DatabaseAccessor databaseAccessor) {
+        super(databaseAccessor);
+    }
+
+    /**
+     * INTERNAL:
+     * Prepare the full batch and execute it asynchronously, after completing the previous batch.
+     */
+    @Override
+    protected void flushBatchedStatements(AbstractSession session) {
+        if (this.parameters.isEmpty()) {
+            return;
+        }
+        waitForExecutingBatch(session);
+        if ((this.parameters.size() == 1) || this.databaseAccessor.usesExternalTransactionController()) {
+            super.executeBatchedStatements(session);
+            return;
+        }
+        int batchSize = this.parameters.size();
+        boolean isFullBatch = batchSize >= this.maxBatchSize;
+        recordBatch(batchSize);
+        BatchExecution execution = null;
+        try {
+            this.databaseAccessor.incrementCallCount(session);// Decrement occurs in close.
+            logBatchedStatements(session);
+            PreparedStatement statement = prepareBatchStatements(session);
+            execution = new BatchExecution(statement, session, this.lastCallAppended, batchSize, isFullBatch);
+            execution.statementCount = this.statementCount;
+            execution.executionCount = this.executionCount;
+        } finally {
+            super.clear();
+        }
+        this.executingBatch = execution;
+        session.getServerPlatform().launchContainerRunnable(execution);
+    }
+
+    /**
+     * INTERNAL:
+     * Complete the executing batch, then execute the batched statements.
+     * This is used before a non batchable statement is executed, and on commit.
+     */
+    @Override
+    public void executeBatchedStatements(AbstractSession session) {
+        waitForExecutingBatch(session);
+        super.executeBatchedStatements(session);
+    }
+
+    /**
+     * INTERNAL:
+     * Complete the executing batch, then clear the batched statements.
+     * This is used on rollback, so any error from the executing batch is ignored.
+     */
+    @Override
+    public void clear() {
+        BatchExecution execution = this.executingBatch;
+        if (execution != null) {
+            this.executingBatch = null;
+            execution.waitForCompletion();
+            try {
+                completeExecution(execution);
+            } catch (RuntimeException ignore) {
+                // The transaction is being rolled back.
+            }
+        }
+        super.clear();
+    }
+
+    /**
+     * INTERNAL:
+     * Complete the executing batch before switching to dynamic SQL.
+     */
+    @Override
+    protected void switchMechanisms(AbstractSession session, DatabaseCall dbCall) {
+        waitForExecutingBatch(session);
+        super.switchMechanisms(session, dbCall);
+    }
+
+    /**
+     * INTERNAL:
+     * Wait for the executing batch to complete, release its statement,
+     * and throw any error that occurred executing it.
+     * Tune the batch size from the batch's execution time.
+     */
+    protected void waitForExecutingBatch(AbstractSession session) {
+        BatchExecution execution = this.executingBatch;
+        if (execution == null) {
+            return;
+        }
+        this.executingBatch = null;
+        execution.waitForCompletion();
+        try {
+            completeExecution(execution);
+        } catch (RuntimeException exception) {
+            // Any batched statements depend on the failed batch, and will be rolled back.
+            super.clear();
+            throw exception;
+        }
+        if (this.isBatchSizeAutoTuned && execution.isFullBatch) {
+            updateBatchSize(session, execution.batchSize, execution.time);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Release or close the executed batch's statement and check its row count.
+     * This is called by the committing thread, once the execution is complete.
+     */
+    protected void completeExecution(BatchExecution execution) {
+        if (execution.fatalError != null) {
+            try {
+                this.databaseAccessor.closeStatement(execution.statement, execution.session, execution.call);
+            } catch (SQLException closeException) {
+            }
+            throw execution.fatalError;
+        }
+        this.databaseAccessor.completeJDK12BatchStatement(execution.statement, execution.call, execution.session, execution.error);
+        this.databaseAccessor.writeStatementsCount++;
+        if (execution.call.hasOptimisticLock() && (execution.executionCount != execution.statementCount)) {
+            throw OptimisticLockException.batchStatementExecutionFailure();
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * The mechanism will be cloned to be set into each accessor.
+     */
+    @Override
+    public PipelinedSQLBatchWritingMechanism clone() {
+        PipelinedSQLBatchWritingMechanism clone = (PipelinedSQLBatchWritingMechanism)super.clone();
+        clone.executingBatch = null;
+        clone.queryTimeoutCache = DescriptorQueryManager.NoTimeout;
+        return clone;
+    }
+
+    /**
+     * INTERNAL:
+     * Executes a prepared batch statement, and records its execution time, row count and any error.
+     * Only the statement is used by the executing thread, not the accessor or session.
+     */
+    protected static class BatchExecution implements Runnable {
+        protected PreparedStatement statement;
+        protected DatabasePlatform platform;
+        protected AbstractSession session;
+        protected DatabaseCall call;
+        protected int batchSize;
+        protected boolean isFullBatch;
+        protected int statementCount;
+        protected int executionCount;
+        protected boolean isComplete;
+        protected long time;
+        protected Exception error;
+        protected Error fatalError;
+
+        public BatchExecution(PreparedStatement statement, AbstractSession session, DatabaseCall call, int batchSize, boolean isFullBatch) {
+            this.statement = statement;
+            this.platform = session.getPlatform();
+            this.session = session;
+            this.call = call;
+            this.batchSize = batchSize;
+            this.isFullBatch = isFullBatch;
+        }
+
+        public void run() {
+            long startTime = System.nanoTime();
+            int rowCount = 0;
+            Exception error = null;
+            Error fatalError = null;
+            try {
+                rowCount = this.platform.executeBatch(this.statement, true);
+            } catch (Exception exception) {
+                error = exception;
+            } catch (Error exception) {
+                fatalError = exception;
+            }
+            synchronized (this) {
+                this.time = System.nanoTime() - startTime;
+                // += is used as native batch writing can return a row count before execution.
+                this.executionCount += rowCount;
+                this.error = error;
+                this.fatalError = fatalError;
+                this.isComplete = true;
+                notifyAll();
+            }
+        }
+
+        /**
+         * Wait for the batch to complete.
+         * The connection cannot be used until the execution completes, so interrupts are deferred.
+         */
+        public synchronized void waitForCompletion() {
+            boolean isInterrupted = false;
+            while (!this.isComplete) {
+                try {
+                    wait();
+                } catch (InterruptedException exception) {
+                    isInterrupted = true;
+                }
+            }
+            if (isInterrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
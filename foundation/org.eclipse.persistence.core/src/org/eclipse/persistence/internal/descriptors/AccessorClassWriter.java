@@ -0,0 +1,237 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.descriptors;
+
+//javase imports
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+
+//EclipseLink imports
+import org.eclipse.persistence.internal.helper.ClassConstants;
+import org.eclipse.persistence.internal.helper.Helper;
+import org.eclipse.persistence.internal.libraries.asm.ClassWriter;
+import org.eclipse.persistence.internal.libraries.asm.Label;
+import org.eclipse.persistence.internal.libraries.asm.MethodVisitor;
+import org.eclipse.persistence.internal.libraries.asm.Type;
+import org.eclipse.persistence.mappings.AttributeAccessor;
+
+import static org.eclipse.persistence.internal.libraries.asm.Opcodes.ACC_FINAL;
+import static org.eclipse.persistence.internal.libraries.asm.Opcodes.ACC_PUBLIC;
+import static org.eclipse.persistence.internal.libraries.asm.Opcodes.ACC_SUPER;
+import static org.eclipse.persistence.internal.libraries.asm.Opcodes.ACC_SYNTHETIC;
+import static org.eclipse.persistence.internal.libraries.asm.Opcodes.ALOAD;
+import static org.eclipse.persistence.internal.libraries.asm.Opcodes.ARETURN;
+import static org.eclipse.persistence.internal.libraries.asm.Opcodes.ATHROW;
+import static org.eclipse.persistence.internal.libraries.asm.Opcodes.CHECKCAST;
+import static org.eclipse.persistence.internal.libraries.asm.Opcodes.DUP;
+import static org.eclipse.persistence.internal.libraries.asm.Opcodes.GETFIELD;
+import static org.eclipse.persistence.internal.libraries.asm.Opcodes.ICONST_0;
+import static org.eclipse.persistence.internal.libraries.asm.Opcodes.ICONST_1;
+import static org.eclipse.persistence.internal.libraries.asm.Opcodes.IFEQ;
+import static org.eclipse.persistence.internal.libraries.asm.Opcodes.IFNULL;
+import static org.eclipse.persistence.internal.libraries.asm.Opcodes.ILOAD;
+import static org.eclipse.persistence.internal.libraries.asm.Opcodes.INSTANCEOF;
+import static org.eclipse.persistence.internal.libraries.asm.Opcodes.INVOKESPECIAL;
+import static org.eclipse.persistence.internal.libraries.asm.Opcodes.INVOKESTATIC;
+import static org.eclipse.persistence.internal.libraries.asm.Opcodes.INVOKEVIRTUAL;
+import static org.eclipse.persistence.internal.libraries.asm.Opcodes.IRETURN;
+import static org.eclipse.persistence.internal.libraries.asm.Opcodes.NEW;
+import static org.eclipse.persistence.internal.libraries.asm.Opcodes.POP;
+import static org.eclipse.persistence.internal.libraries.asm.Opcodes.POP2;
+import static org.eclipse.persistence.internal.libraries.asm.Opcodes.PUTFIELD;
+import static org.eclipse.persistence.internal.libraries.asm.Opcodes.RETURN;
+import static org.eclipse.persistence.internal.libraries.asm.Opcodes.V1_5;
+
+/**
+ * INTERNAL:
+ * Writes the bytes of the accessor class of a descriptor's class,
+ * implementing {@link GeneratedAccessor} for a list of instance variable and method attribute accessors.
+ * The attribute at each index is accessed using a direct field access or method call,
+ * boxing and unboxing primitive values.
+ * <p>
+ * The accessors must only access public, non-static members of public classes,
+ * as the generated class is defined by its own class loader.
+ * @see AttributeAccessorFactory
+ */
+public class AccessorClassWriter {
+    protected static final String OBJECT = "java/lang/Object";
+    protected static final String GET_DESCRIPTOR = "(Ljava/lang/Object;I)Ljava/lang/Object;";
+    protected static final String SET_DESCRIPTOR = "(Ljava/lang/Object;ILjava/lang/Object;)Z";
+
+    /**
+     * Return the bytes of the accessor class of the name, accessing the accessors' attributes by their index in the list.
+     */
+    public byte[] writeClass(String className, List<AttributeAccessor> accessors) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_5, ACC_PUBLIC + ACC_FINAL + ACC_SUPER + ACC_SYNTHETIC, className.replace('.', '/'), null, OBJECT,
+                new String[] { Type.getInternalName(GeneratedAccessor.class) });
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, OBJECT, "<init>", "()V");
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        writeGet(cw, accessors);
+        writeSet(cw, accessors);
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    /**
+     * Write the get method, switching on the index to get the value of the attribute.
+     */
+    protected void writeGet(ClassWriter cw, List<AttributeAccessor> accessors) {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "get", GET_DESCRIPTOR, null, null);
+        int size = accessors.size();
+        Label defaultLabel = new Label();
+        Label[] labels = new Label[size];
+        for (int index = 0; index < size; index++) {
+            labels[index] = new Label();
+        }
+        mv.visitVarInsn(ILOAD, 2);
+        mv.visitTableSwitchInsn(0, size - 1, defaultLabel, labels);
+        for (int index = 0; index < size; index++) {
+            mv.visitLabel(labels[index]);
+            AttributeAccessor accessor = accessors.get(index);
+            Class type;
+            if (accessor.isInstanceVariableAttributeAccessor()) {
+                Field field = ((InstanceVariableAttributeAccessor)accessor).getAttributeField();
+                String owner = Type.getInternalName(field.getDeclaringClass());
+                type = field.getType();
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitTypeInsn(CHECKCAST, owner);
+                mv.visitFieldInsn(GETFIELD, owner, field.getName(), Type.getDescriptor(type));
+            } else {
+                Method method = ((MethodAttributeAccessor)accessor).getGetMethod();
+                String owner = Type.getInternalName(method.getDeclaringClass());
+                type = method.getReturnType();
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitTypeInsn(CHECKCAST, owner);
+                mv.visitMethodInsn(INVOKEVIRTUAL, owner, method.getName(), Type.getMethodDescriptor(method));
+            }
+            if (type.isPrimitive()) {
+                Class wrapper = Helper.getObjectClass(type);
+                mv.visitMethodInsn(INVOKESTATIC, Type.getInternalName(wrapper), "valueOf",
+                        "(" + Type.getDescriptor(type) + ")" + Type.getDescriptor(wrapper));
+            }
+            mv.visitInsn(ARETURN);
+        }
+        mv.visitLabel(defaultLabel);
+        writeThrowIndexOutOfBounds(mv);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * Write the set method, switching on the index to set the value of the attribute.
+     * False is returned without setting the value if the object or value is not of the attribute's types,
+     * or a method accessor has no set method, so the value can be set reflectively, with any conversion or error.
+     */
+    protected void writeSet(ClassWriter cw, List<AttributeAccessor> accessors) {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "set", SET_DESCRIPTOR, null, null);
+        int size = accessors.size();
+        Label defaultLabel = new Label();
+        Label notSetLabel = new Label();
+        Label[] labels = new Label[size];
+        for (int index = 0; index < size; index++) {
+            AttributeAccessor accessor = accessors.get(index);
+            if (accessor.isMethodAttributeAccessor() && (((MethodAttributeAccessor)accessor).getSetMethod() == null)) {
+                labels[index] = notSetLabel;
+            } else {
+                labels[index] = new Label();
+            }
+        }
+        mv.visitVarInsn(ILOAD, 2);
+        mv.visitTableSwitchInsn(0, size - 1, defaultLabel, labels);
+        for (int index = 0; index < size; index++) {
+            if (labels[index] == notSetLabel) {
+                continue;
+            }
+            mv.visitLabel(labels[index]);
+            AttributeAccessor accessor = accessors.get(index);
+            Field field = null;
+            Method method = null;
+            Class owner;
+            Class type;
+            if (accessor.isInstanceVariableAttributeAccessor()) {
+                field = ((InstanceVariableAttributeAccessor)accessor).getAttributeField();
+                owner = field.getDeclaringClass();
+                type = field.getType();
+            } else {
+                method = ((MethodAttributeAccessor)accessor).getSetMethod();
+                owner = method.getDeclaringClass();
+                type = method.getParameterTypes()[0];
+            }
+            String ownerName = Type.getInternalName(owner);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitTypeInsn(INSTANCEOF, ownerName);
+            mv.visitJumpInsn(IFEQ, notSetLabel);
+            if (type.isPrimitive()) {
+                // Null is converted to the primitive's default reflectively.
+                mv.visitVarInsn(ALOAD, 3);
+                mv.visitTypeInsn(INSTANCEOF, Type.getInternalName(Helper.getObjectClass(type)));
+                mv.visitJumpInsn(IFEQ, notSetLabel);
+            } else if (type != ClassConstants.OBJECT) {
+                Label valueLabel = new Label();
+                mv.visitVarInsn(ALOAD, 3);
+                mv.visitJumpInsn(IFNULL, valueLabel);
+                mv.visitVarInsn(ALOAD, 3);
+                mv.visitTypeInsn(INSTANCEOF, Type.getInternalName(type));
+                mv.visitJumpInsn(IFEQ, notSetLabel);
+                mv.visitLabel(valueLabel);
+            }
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitTypeInsn(CHECKCAST, ownerName);
+            mv.visitVarInsn(ALOAD, 3);
+            if (type.isPrimitive()) {
+                String wrapperName = Type.getInternalName(Helper.getObjectClass(type));
+                mv.visitTypeInsn(CHECKCAST, wrapperName);
+                mv.visitMethodInsn(INVOKEVIRTUAL, wrapperName, type.getName() + "Value", "()" + Type.getDescriptor(type));
+            } else if (type != ClassConstants.OBJECT) {
+                mv.visitTypeInsn(CHECKCAST, Type.getInternalName(type));
+            }
+            if (field != null) {
+                mv.visitFieldInsn(PUTFIELD, ownerName, field.getName(), Type.getDescriptor(type));
+            } else {
+                mv.visitMethodInsn(INVOKEVIRTUAL, ownerName, method.getName(), Type.getMethodDescriptor(method));
+                // Allow set methods that return a value.
+                Class returnType = method.getReturnType();
+                if ((returnType == long.class) || (returnType == double.class)) {
+                    mv.visitInsn(POP2);
+                } else if (returnType != void.class) {
+                    mv.visitInsn(POP);
+                }
+            }
+            mv.visitInsn(ICONST_1);
+            mv.visitInsn(IRETURN);
+        }
+        mv.visitLabel(notSetLabel);
+        mv.visitInsn(ICONST_0);
+        mv.visitInsn(IRETURN);
+        mv.visitLabel(defaultLabel);
+        writeThrowIndexOutOfBounds(mv);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    protected void writeThrowIndexOutOfBounds(MethodVisitor mv) {
+        mv.visitTypeInsn(NEW, "java/lang/IndexOutOfBoundsException");
+        mv.visitInsn(DUP);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/IndexOutOfBoundsException", "<init>", "()V");
+        mv.visitInsn(ATHROW);
+    }
+}
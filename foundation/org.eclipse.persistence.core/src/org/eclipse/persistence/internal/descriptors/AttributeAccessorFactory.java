@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.descriptors;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.persistence.config.SystemProperties;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.security.PrivilegedAccessHelper;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.mappings.AttributeAccessor;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+
+/**
+ * INTERNAL:
+ * Generates an accessor class for a descriptor's class when the descriptor is initialized,
+ * so its mappings' instance variable and method accessors can access the attributes without reflection.
+ * <p>
+ * The accessor class is only used for the public instance fields and get/set methods of public classes,
+ * other attributes continue to be accessed reflectively, as are all attributes when a security manager is used,
+ * or if the ASM library is not available.
+ * Woven classes do not require a generated accessor, as they are accessed through the PersistenceObject interface.
+ * <p>
+ * Generation is enabled by default, it can be disabled using the "eclipselink.accessor.generation" system property.
+ * @see SystemProperties#ACCESSOR_GENERATION
+ */
+public class AttributeAccessorFactory {
+    /** The suffix of the name of the accessor class of a class. */
+    public static final String ACCESSOR_CLASS_SUFFIX = "_persistence_accessor";
+
+    /** Allow generation of accessor classes to be disabled. */
+    protected static boolean shouldGenerateAccessors = !"false".equalsIgnoreCase(System.getProperty(SystemProperties.ACCESSOR_GENERATION));
+
+    /**
+     * Return if accessor classes are generated for descriptors' classes.
+     */
+    public static boolean shouldGenerateAccessors() {
+        return shouldGenerateAccessors;
+    }
+
+    /**
+     * Set if accessor classes are generated for descriptors' classes.
+     * This only affects descriptors initialized afterwards.
+     */
+    public static void setShouldGenerateAccessors(boolean shouldGenerateAccessors) {
+        AttributeAccessorFactory.shouldGenerateAccessors = shouldGenerateAccessors;
+    }
+
+    /**
+     * Generate the accessor class of the descriptor's class, and set it in the mappings' accessors that can use it.
+     * This must be called after the mappings' accessors have been initialized.
+     * Any error generating the class is logged, and the attributes are accessed reflectively.
+     */
+    public static void initializeAccessors(ClassDescriptor descriptor, AbstractSession session) {
+        if (!shouldGenerateAccessors || PrivilegedAccessHelper.shouldUsePrivilegedAccess()) {
+            return;
+        }
+        Class javaClass = descriptor.getJavaClass();
+        if (javaClass == null) {
+            return;
+        }
+        List<AttributeAccessor> accessors = new ArrayList<AttributeAccessor>();
+        for (DatabaseMapping mapping : descriptor.getMappings()) {
+            AttributeAccessor accessor = mapping.getAttributeAccessor();
+            if ((accessor != null) && !accessors.contains(accessor)) {
+                accessors.add(accessor);
+            }
+        }
+        initializeAccessors(javaClass, accessors, session);
+    }
+
+    /**
+     * Generate the accessor class of the class, and set it in the initialized accessors that can use it.
+     * Any error generating the class is logged, and the attributes are accessed reflectively.
+     */
+    public static void initializeAccessors(Class javaClass, List<AttributeAccessor> allAccessors, AbstractSession session) {
+        if (!shouldGenerateAccessors || PrivilegedAccessHelper.shouldUsePrivilegedAccess() || (javaClass.getClassLoader() == null)) {
+            return;
+        }
+        List<AttributeAccessor> accessors = new ArrayList<AttributeAccessor>(allAccessors.size());
+        for (AttributeAccessor accessor : allAccessors) {
+            if (canGenerateAccessor(accessor, javaClass.getClassLoader())) {
+                accessors.add(accessor);
+            }
+        }
+        if (accessors.isEmpty()) {
+            return;
+        }
+        String className = javaClass.getName() + ACCESSOR_CLASS_SUFFIX;
+        try {
+            byte[] bytes = new AccessorClassWriter().writeClass(className, accessors);
+            Class accessorClass = new AccessorClassLoader(javaClass.getClassLoader()).defineAccessorClass(className, bytes);
+            GeneratedAccessor generatedAccessor = (GeneratedAccessor)accessorClass.newInstance();
+            for (int index = 0; index < accessors.size(); index++) {
+                AttributeAccessor accessor = accessors.get(index);
+                if (accessor.isInstanceVariableAttributeAccessor()) {
+                    ((InstanceVariableAttributeAccessor)accessor).setGeneratedAccessor(generatedAccessor, index);
+                } else {
+                    ((MethodAttributeAccessor)accessor).setGeneratedAccessor(generatedAccessor, index);
+                }
+            }
+            if (session.shouldLog(SessionLog.FINEST, SessionLog.WEAVER)) {
+                session.log(SessionLog.FINEST, SessionLog.WEAVER, "generated_accessor_class", new Object[] { className, Integer.valueOf(accessors.size()) });
+            }
+        } catch (NoClassDefFoundError missingLibrary) {
+            // ASM is an optional dependency.
+            shouldGenerateAccessors = false;
+            session.logThrowable(SessionLog.FINEST, SessionLog.WEAVER, missingLibrary);
+        } catch (LinkageError error) {
+            session.logThrowable(SessionLog.FINEST, SessionLog.WEAVER, error);
+        } catch (Exception exception) {
+            session.logThrowable(SessionLog.FINEST, SessionLog.WEAVER, exception);
+        }
+    }
+
+    /**
+     * Return if the accessor's attribute can be accessed by the generated accessor class.
+     * Subclasses of the instance variable and method accessors access their attributes differently, so are not supported.
+     */
+    protected static boolean canGenerateAccessor(AttributeAccessor accessor, ClassLoader loader) {
+        if ((accessor.getClass() == InstanceVariableAttributeAccessor.class) && accessor.isInitialized()) {
+            Field field = ((InstanceVariableAttributeAccessor)accessor).getAttributeField();
+            int modifiers = field.getModifiers();
+            return Modifier.isPublic(modifiers) && !Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers)
+                    && isAccessible(field.getDeclaringClass(), loader) && isAccessible(field.getType(), loader);
+        } else if ((accessor.getClass() == MethodAttributeAccessor.class) && (((MethodAttributeAccessor)accessor).getGetMethod() != null)) {
+            Method getMethod = ((MethodAttributeAccessor)accessor).getGetMethod();
+            if (!isAccessible(getMethod, loader) || (getMethod.getParameterTypes().length != 0)
+                    || (getMethod.getReturnType() == void.class) || !isAccessible(getMethod.getReturnType(), loader)) {
+                return false;
+            }
+            Method setMethod = ((MethodAttributeAccessor)accessor).getSetMethod();
+            if (setMethod != null) {
+                Class[] parameterTypes = setMethod.getParameterTypes();
+                return isAccessible(setMethod, loader) && (parameterTypes.length == 1) && isAccessible(parameterTypes[0], loader);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Return if the method is public and non-static, of an accessible class.
+     */
+    protected static boolean isAccessible(Method method, ClassLoader loader) {
+        int modifiers = method.getModifiers();
+        return Modifier.isPublic(modifiers) && !Modifier.isStatic(modifiers)
+                && !method.getDeclaringClass().isInterface() && isAccessible(method.getDeclaringClass(), loader);
+    }
+
+    /**
+     * Return if the type is primitive, or public and resolved to the same class by the class loader,
+     * so it can be referenced from the generated class.
+     */
+    protected static boolean isAccessible(Class type, ClassLoader loader) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive()) {
+            return true;
+        }
+        for (Class declaringClass = type; declaringClass != null; declaringClass = declaringClass.getDeclaringClass()) {
+            if (!Modifier.isPublic(declaringClass.getModifiers())) {
+                return false;
+            }
+        }
+        try {
+            return Class.forName(type.getName(), false, loader) == type;
+        } catch (ClassNotFoundException notVisible) {
+            return false;
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Defines the accessor class of a class, as a child of the class's loader.
+     * The GeneratedAccessor interface is resolved from EclipseLink, as the class's loader may not see it.
+     */
+    protected static class AccessorClassLoader extends ClassLoader {
+        public AccessorClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String className, boolean resolve) throws ClassNotFoundException {
+            if (className.equals(GeneratedAccessor.class.getName())) {
+                return GeneratedAccessor.class;
+            }
+            return super.loadClass(className, resolve);
+        }
+
+        public Class defineAccessorClass(String className, byte[] bytes) {
+            return defineClass(className, bytes, 0, bytes.length);
+        }
+    }
+}
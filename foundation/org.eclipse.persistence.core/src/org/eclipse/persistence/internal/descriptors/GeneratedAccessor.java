@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.descriptors;
+
+/**
+ * INTERNAL:
+ * Implemented by the accessor classes generated for a descriptor's class.
+ * Each attribute is accessed by its index, using a field access or method call instead of reflection.
+ * The caller must ensure the object is an instance of the attribute's class when getting the value.
+ * @see AttributeAccessorFactory
+ */
+public interface GeneratedAccessor {
+
+    /**
+     * Return the value of the attribute at the index from the object.
+     */
+    Object get(Object object, int index);
+
+    /**
+     * Set the value of the attribute at the index in the object.
+     * Return false if the value was not set, as the object is not an instance of the attribute's class,
+     * or the value is not an instance of the attribute's type (or its wrapper for primitives),
+     * so the value must be set reflectively, with any conversion or error.
+     */
+    boolean set(Object object, int index, Object value);
+}
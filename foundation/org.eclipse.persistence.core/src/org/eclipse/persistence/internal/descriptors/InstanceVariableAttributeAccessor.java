@@ -33,6 +33,11 @@ public class InstanceVariableAttributeAccessor extends AttributeAccessor {
     /** The attribute name of an object is converted to Field type to access it reflectively */
     protected transient Field attributeField;
 
+    /** PERF: The accessor class generated for the attribute's class, used instead of reflection if set. */
+    protected transient GeneratedAccessor generatedAccessor;
+    /** The index of the attribute in the generated accessor. */
+    protected transient int generatedAccessorIndex;
+
     /**
      * Returns the class type of the attribute.
      */
@@ -63,6 +68,10 @@ public class InstanceVariableAttributeAccessor extends AttributeAccessor {
      * Returns the value of the attribute on the specified object.
      */
     public Object getAttributeValueFromObject(Object anObject) throws DescriptorException {
+        // PERF: Avoid reflection if an accessor class was generated.
+        if ((this.generatedAccessor != null) && this.attributeField.getDeclaringClass().isInstance(anObject)) {
+            return this.generatedAccessor.get(anObject, this.generatedAccessorIndex);
+        }
         try {
             // PERF: Direct variable access.
             if (PrivilegedAccessHelper.shouldUsePrivilegedAccess()){
@@ -96,6 +105,7 @@ public class InstanceVariableAttributeAccessor extends AttributeAccessor {
         if (getAttributeName() == null) {
             throw DescriptorException.attributeNameNotSpecified();
         }
+        this.generatedAccessor = null;
         try {
             setAttributeField(Helper.getField(theJavaClass, getAttributeName()));
         } catch (NoSuchFieldException exception) {
@@ -117,6 +127,24 @@ public class InstanceVariableAttributeAccessor extends AttributeAccessor {
         return true;
     }
     
+    /**
+     * INTERNAL:
+     * Return the accessor class generated for the attribute's class, or null if reflection is used.
+     */
+    public GeneratedAccessor getGeneratedAccessor() {
+        return generatedAccessor;
+    }
+
+    /**
+     * INTERNAL:
+     * Set the accessor class generated for the attribute's class, and the index of the attribute in it.
+     * @see AttributeAccessorFactory
+     */
+    public void setGeneratedAccessor(GeneratedAccessor generatedAccessor, int index) {
+        this.generatedAccessorIndex = index;
+        this.generatedAccessor = generatedAccessor;
+    }
+
     /**
      * Sets the value of the attributeField.
      */
@@ -128,6 +156,10 @@ public class InstanceVariableAttributeAccessor extends AttributeAccessor {
      * Sets the value of the instance variable in the object to the value.
      */
     public void setAttributeValueInObject(Object anObject, Object value) throws DescriptorException {
+        // PERF: Avoid reflection if an accessor class was generated, unless the value requires conversion.
+        if ((this.generatedAccessor != null) && this.generatedAccessor.set(anObject, this.generatedAccessorIndex, value)) {
+            return;
+        }
          try {
             // PERF: Direct variable access.
             if (PrivilegedAccessHelper.shouldUsePrivilegedAccess()){
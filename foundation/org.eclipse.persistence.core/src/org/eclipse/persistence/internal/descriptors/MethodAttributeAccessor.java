@@ -42,6 +42,11 @@ public class MethodAttributeAccessor extends AttributeAccessor {
     protected String getMethodName;
     protected transient Method setMethod;
     protected transient Method getMethod;
+
+    /** PERF: The accessor class generated for the attribute's class, used instead of reflection if set. */
+    protected transient GeneratedAccessor generatedAccessor;
+    /** The index of the attribute in the generated accessor. */
+    protected transient int generatedAccessorIndex;
     
     /**
      * Return the return type of the method accessor.
@@ -58,6 +63,14 @@ public class MethodAttributeAccessor extends AttributeAccessor {
      * Gets the value of an instance variable in the object.
      */
     public Object getAttributeValueFromObject(Object anObject) throws DescriptorException {
+        // PERF: Avoid reflection if an accessor class was generated.
+        if ((this.generatedAccessor != null) && this.getMethod.getDeclaringClass().isInstance(anObject)) {
+            try {
+                return this.generatedAccessor.get(anObject, this.generatedAccessorIndex);
+            } catch (Exception exception) {
+                throw DescriptorException.targetInvocationWhileGettingValueThruMethodAccessor(getGetMethodName(), anObject.getClass().getName(), exception);
+            }
+        }
         return getAttributeValueFromObject(anObject, (Object[]) null);
     }
     
@@ -189,6 +202,7 @@ public class MethodAttributeAccessor extends AttributeAccessor {
         if (getAttributeName() == null) {
             throw DescriptorException.attributeNameNotSpecified();
         }
+        this.generatedAccessor = null;
         try {
             setGetMethod(Helper.getDeclaredMethod(theJavaClass, getGetMethodName(), getParameterTypes));
             
@@ -223,6 +237,18 @@ public class MethodAttributeAccessor extends AttributeAccessor {
      * Sets the value of the instance variable in the object to the value.
      */
     public void setAttributeValueInObject(Object domainObject, Object attributeValue) throws DescriptorException {
+        // PERF: Avoid reflection if an accessor class was generated, unless the value requires conversion.
+        if (this.generatedAccessor != null) {
+            boolean isSet;
+            try {
+                isSet = this.generatedAccessor.set(domainObject, this.generatedAccessorIndex, attributeValue);
+            } catch (Exception exception) {
+                throw DescriptorException.targetInvocationWhileSettingValueThruMethodAccessor(getSetMethodName(), attributeValue, exception);
+            }
+            if (isSet) {
+                return;
+            }
+        }
         setAttributeValueInObject(domainObject, attributeValue, new Object[] {attributeValue});
     }
     
@@ -311,6 +337,24 @@ public class MethodAttributeAccessor extends AttributeAccessor {
         }
     }
 
+    /**
+     * INTERNAL:
+     * Return the accessor class generated for the attribute's class, or null if reflection is used.
+     */
+    public GeneratedAccessor getGeneratedAccessor() {
+        return generatedAccessor;
+    }
+
+    /**
+     * INTERNAL:
+     * Set the accessor class generated for the attribute's class, and the index of the attribute in it.
+     * @see AttributeAccessorFactory
+     */
+    public void setGeneratedAccessor(GeneratedAccessor generatedAccessor, int index) {
+        this.generatedAccessorIndex = index;
+        this.generatedAccessor = generatedAccessor;
+    }
+
     /**
      * Set the accessor method for the attribute accessor.
      */
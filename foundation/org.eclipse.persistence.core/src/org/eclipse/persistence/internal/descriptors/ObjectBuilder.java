@@ -60,6 +60,7 @@ import org.eclipse.persistence.mappings.foundation.*;
 import org.eclipse.persistence.queries.*;
 import org.eclipse.persistence.mappings.querykeys.*;
 import org.eclipse.persistence.sessions.remote.*;
+import org.eclipse.persistence.sessions.server.ClientSession;
 import org.eclipse.persistence.sessions.CopyGroup;
 import org.eclipse.persistence.sessions.SessionProfiler;
 import org.eclipse.persistence.sessions.DatabaseRecord;
@@ -73,6 +74,11 @@ import org.eclipse.persistence.sessions.DatabaseRecord;
  * @since TOPLink/Java 1.0
  */
 public class ObjectBuilder extends CoreObjectBuilder<AbstractRecord, AbstractSession, DatabaseField, DatabaseMapping> implements Cloneable, Serializable {
+    /** PERF: Minimum number of rows for a read all query to build its objects in parallel. */
+    public static int parallelBuildingThreshold = 1000;
+    /** PERF: Number of rows built by a thread at a time when building in parallel. */
+    public static int parallelBuildingChunkSize = 256;
+    
     protected ClassDescriptor descriptor;
     /** Mappings keyed by attribute name. */
     protected Map<String, DatabaseMapping> mappingsByAttribute;
@@ -448,13 +454,32 @@ public class ObjectBuilder extends CoreObjectBuilder<AbstractRecord, AbstractSes
         // PERF: Cache if all mappings should be read.
         boolean readAllMappings = query.shouldReadAllMappings();
         boolean isTargetProtected = targetSession.isProtectedSession();
+        // PERF: Primitive direct attributes can be set from a columnar row without boxing.
+        ColumnarRecord columnarRow = null;
+        boolean isColumnarRowReferenced = false;
+        if (databaseRow instanceof ColumnarRecord) {
+            columnarRow = (ColumnarRecord)databaseRow;
+        }
         int size = mappings.size();
         for (int index = 0; index < size; index++) {
             DatabaseMapping mapping = (DatabaseMapping)mappings.get(index);
             if (readAllMappings || query.shouldReadMapping(mapping, executionFetchGroup)) {
+                if (columnarRow != null) {
+                    if (mapping.isAbstractDirectMapping()) {
+                        if (((AbstractDirectMapping)mapping).readPrimitiveFromRowIntoObject(columnarRow, domainObject)) {
+                            continue;
+                        }
+                    } else {
+                        isColumnarRowReferenced = true;
+                    }
+                }
                 mapping.readFromRowIntoObject(databaseRow, joinManager, domainObject, cacheKey, query, targetSession, isTargetProtected);
             }
         }
+        // Relationships may keep the row (i.e. for indirection), so it must not keep the entire result-set's buffer.
+        if (isColumnarRowReferenced) {
+            columnarRow.loadValuesFromBuffer();
+        }
 
         // PERF: Avoid events if no listeners.
         if (this.descriptor.hasEventManager()) {
@@ -1154,6 +1179,11 @@ public class ObjectBuilder extends CoreObjectBuilder<AbstractRecord, AbstractSes
                 if (query.hasJoining()) {
                     joinManager = query.getJoinedAttributeManager();
                 }
+                // PERF: Large results can be built on several threads, the objects are still added in the order of the rows.
+                Object[] builtObjects = null;
+                if (shouldBuildObjectsInParallel(query, session, size)) {
+                    builtObjects = buildObjectsInParallel(query, databaseRows, joinManager, session, inheritancePolicy, shouldUseWrapperPolicy);
+                }
                 ContainerPolicy policy = query.getContainerPolicy();
                 if (policy.shouldAddAll()) {
                     List domainObjectsIn = new ArrayList(size);
@@ -1162,8 +1192,12 @@ public class ObjectBuilder extends CoreObjectBuilder<AbstractRecord, AbstractSes
                         AbstractRecord databaseRow = (AbstractRecord)databaseRows.get(index);
                         // PERF: 1-m joining nulls out duplicate rows.
                         if (databaseRow != null) {
-                            domainObjectsIn.add(buildObject(query, databaseRow, joinManager, session, this.descriptor, inheritancePolicy,
-                                    isUnitOfWork, shouldCacheQueryResults, shouldUseWrapperPolicy));
+                            if (builtObjects == null) {
+                                domainObjectsIn.add(buildObject(query, databaseRow, joinManager, session, this.descriptor, inheritancePolicy,
+                                        isUnitOfWork, shouldCacheQueryResults, shouldUseWrapperPolicy));
+                            } else {
+                                domainObjectsIn.add(builtObjects[index]);
+                            }
                             databaseRowsIn.add(databaseRow);
                         }
                     }
@@ -1174,8 +1208,13 @@ public class ObjectBuilder extends CoreObjectBuilder<AbstractRecord, AbstractSes
                         AbstractRecord databaseRow = (AbstractRecord)databaseRows.get(index);
                         // PERF: 1-m joining nulls out duplicate rows.
                         if (databaseRow != null) {
-                            Object domainObject = buildObject(query, databaseRow, joinManager, session, this.descriptor, inheritancePolicy,
-                                    isUnitOfWork, shouldCacheQueryResults, shouldUseWrapperPolicy);
+                            Object domainObject;
+                            if (builtObjects == null) {
+                                domainObject = buildObject(query, databaseRow, joinManager, session, this.descriptor, inheritancePolicy,
+                                        isUnitOfWork, shouldCacheQueryResults, shouldUseWrapperPolicy);
+                            } else {
+                                domainObject = builtObjects[index];
+                            }
                             if (quickAdd) {
                                 ((Collection)domainObjects).add(domainObject);
                             } else {
@@ -1192,6 +1231,85 @@ public class ObjectBuilder extends CoreObjectBuilder<AbstractRecord, AbstractSes
         return domainObjects;
     }
 
+    /**
+     * Return if the objects for the rows of the read all query can be built in parallel.
+     * The query or session must enable parallel building, and the result must be large enough to be worth splitting.
+     * Parallel building is not used in a unit of work (the clones are registered in unsynchronized maps),
+     * with batch fetching or query result caching (their state is not thread safe),
+     * or if the session's connection could be required concurrently by relationships read while building.
+     */
+    protected boolean shouldBuildObjectsInParallel(ReadAllQuery query, AbstractSession session, int size) {
+        if ((size < parallelBuildingThreshold) || session.isUnitOfWork() || query.shouldCacheQueryResults() || query.hasBatchReadAttributes()) {
+            return false;
+        }
+        Boolean shouldBuildObjectsInParallel = query.shouldBuildObjectsInParallel();
+        if (shouldBuildObjectsInParallel == null) {
+            if (!session.shouldBuildObjectsInParallel()) {
+                return false;
+            }
+        } else if (!shouldBuildObjectsInParallel.booleanValue()) {
+            return false;
+        }
+        if (Runtime.getRuntime().availableProcessors() < 2) {
+            return false;
+        }
+        if (hasBatchFetchedAttributes()) {
+            return false;
+        }
+        if (this.descriptor.hasInheritance()) {
+            for (ClassDescriptor childDescriptor : this.descriptor.getInheritancePolicy().getAllChildDescriptors()) {
+                if (childDescriptor.getObjectBuilder().hasBatchFetchedAttributes()) {
+                    return false;
+                }
+            }
+        }
+        // Each thread reading a relationship must be able to use its own connection.
+        if (session.isClientSession()) {
+            ClientSession clientSession = (ClientSession)session;
+            if (clientSession.hasWriteConnection() || clientSession.isExclusiveConnectionRequired()) {
+                return false;
+            }
+        } else if (!session.isServerSession()) {
+            return false;
+        }
+        // If the query is executed while building another object, the building threads could wait on the locks held by this thread.
+        return ConcurrencyManager.getDeferredLockManager(Thread.currentThread()) == null;
+    }
+
+    /**
+     * Build the objects for the rows on several threads, and return them in the order of the rows.
+     * The rows are split into chunks, each thread builds the next chunk until all have been built.
+     * The calling thread also builds chunks, the other threads are obtained from the server platform.
+     * The objects are built in the session's cache as usual, so cache key locking is the same as for concurrent queries.
+     * The joined rows are already processed, so are only read while building.
+     */
+    protected Object[] buildObjectsInParallel(final ReadAllQuery query, final List databaseRows, final JoinedAttributeManager joinManager,
+            final AbstractSession session, final InheritancePolicy inheritancePolicy, final boolean shouldUseWrapperPolicy) {
+        final int size = databaseRows.size();
+        final Object[] domainObjects = new Object[size];
+        final int chunkSize = parallelBuildingChunkSize;
+        int chunks = ((size - 1) / chunkSize) + 1;
+        List<Integer> chunkIndexes = new ArrayList<Integer>(chunks);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            chunkIndexes.add(Integer.valueOf(chunk));
+        }
+        ParallelWork<Integer> builder = new ParallelWork<Integer>(chunkIndexes) {
+            protected void process(Integer chunk) {
+                int end = Math.min(size, (chunk.intValue() + 1) * chunkSize);
+                for (int index = chunk.intValue() * chunkSize; index < end; index++) {
+                    AbstractRecord databaseRow = (AbstractRecord)databaseRows.get(index);
+                    // PERF: 1-m joining nulls out duplicate rows.
+                    if (databaseRow != null) {
+                        domainObjects[index] = buildObject(query, databaseRow, joinManager, session, descriptor, inheritancePolicy,
+                                false, false, shouldUseWrapperPolicy);
+                    }
+                }
+            }
+        };
+        builder.execute(session, Runtime.getRuntime().availableProcessors());
+        return domainObjects;
+    }
+
     /**
      * Version of buildObjectsInto method that takes call instead of rows.
      * Return a container which contains the instances of the receivers javaClass.
@@ -19,6 +19,8 @@ import org.eclipse.persistence.history.*;
 import org.eclipse.persistence.internal.helper.*;
 import org.eclipse.persistence.expressions.*;
 import org.eclipse.persistence.internal.databaseaccess.*;
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
 
 /**
  * Abstract class for expression that have exactly two children, such as and/or and relations.
@@ -268,6 +270,32 @@ public abstract class CompoundExpression extends Expression {
         }
     }
 
+    /**
+     * INTERNAL:
+     * Return the expression with the compared constant values of its children replaced by parameters.
+     */
+    public Expression parameterizeConstants(AbstractRecord constants, AbstractSession session) {
+        Expression first = (this.firstChild == null) ? null : this.firstChild.parameterizeConstants(constants, session);
+        Expression second = (this.secondChild == null) ? null : this.secondChild.parameterizeConstants(constants, session);
+        return copyWithChildren(first, second);
+    }
+
+    /**
+     * INTERNAL:
+     * Return a copy of the expression with the children, or the expression if the children are the same.
+     */
+    protected Expression copyWithChildren(Expression first, Expression second) {
+        if ((first == this.firstChild) && (second == this.secondChild)) {
+            return this;
+        }
+        CompoundExpression copy = (CompoundExpression)shallowClone();
+        // The hash-code is cached, and must be recomputed for the new children.
+        copy.hashCode = 0;
+        copy.setFirstChild(first);
+        copy.setSecondChild(second);
+        return copy;
+    }
+
     /**
      * INTERNAL:
      * Print SQL
@@ -515,6 +515,33 @@ public class FunctionExpression extends BaseExpression {
         }
     }
 
+    /**
+     * INTERNAL:
+     * Return the expression with a constant compared by like to an attribute or field replaced by a parameter.
+     * Like is a function, the other comparisons are relations.
+     * @see RelationExpression#parameterizeConstants(AbstractRecord, AbstractSession)
+     */
+    public Expression parameterizeConstants(AbstractRecord constants, AbstractSession session) {
+        int selector = this.operator.getSelector();
+        if (((selector != ExpressionOperator.Like) && (selector != ExpressionOperator.NotLike)) || (this.children.size() != 2)) {
+            return this;
+        }
+        if (!RelationExpression.isParameterizableAttribute((Expression)this.children.get(0), session)) {
+            return this;
+        }
+        Expression constant = (Expression)this.children.get(1);
+        Expression parameter = RelationExpression.parameterizeConstant(constant, constants);
+        if (parameter == constant) {
+            return this;
+        }
+        FunctionExpression copy = (FunctionExpression)shallowClone();
+        // The hash-code is cached, and must be recomputed for the new child.
+        copy.hashCode = 0;
+        copy.children = NonSynchronizedVector.newInstance(this.children);
+        copy.children.set(1, parameter);
+        return copy;
+    }
+
     /**
      * INTERNAL:
      * Print SQL using the operator.
@@ -31,6 +31,9 @@ import org.eclipse.persistence.descriptors.ClassDescriptor;
  */
 public class ParameterExpression extends BaseExpression {
 
+    /** The name prefix of the parameters that replace the constants of a dynamic query, followed by their index. */
+    public static final String CONSTANT_PARAMETER_PREFIX = "$constant";
+
     /** The parameter field or name. */
     protected DatabaseField field;
 
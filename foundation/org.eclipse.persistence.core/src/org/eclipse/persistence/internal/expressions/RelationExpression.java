@@ -530,6 +530,73 @@ public class RelationExpression extends CompoundExpression {
         return null;
     }
     
+    /**
+     * INTERNAL:
+     * Return the expression with a constant compared to an attribute or field replaced by a parameter.
+     * Only basic comparisons are parameterized, and only constants of basic types, as objects,
+     * collections and null are compared differently depending on their value.
+     */
+    public Expression parameterizeConstants(AbstractRecord constants, AbstractSession session) {
+        int selector = this.operator.getSelector();
+        if ((selector != ExpressionOperator.Equal) && (selector != ExpressionOperator.NotEqual)
+                && (selector != ExpressionOperator.LessThan) && (selector != ExpressionOperator.LessThanEqual)
+                && (selector != ExpressionOperator.GreaterThan) && (selector != ExpressionOperator.GreaterThanEqual)
+                && (selector != ExpressionOperator.Like) && (selector != ExpressionOperator.NotLike)) {
+            return this;
+        }
+        if (isParameterizableAttribute(this.firstChild, session)) {
+            return copyWithChildren(this.firstChild, parameterizeConstant(this.secondChild, constants));
+        } else if (isParameterizableAttribute(this.secondChild, session)) {
+            return copyWithChildren(parameterizeConstant(this.firstChild, constants), this.secondChild);
+        }
+        return this;
+    }
+
+    /**
+     * INTERNAL:
+     * Return if the expression is a direct attribute or a field, that a parameter can be compared to.
+     */
+    protected static boolean isParameterizableAttribute(Expression expression, AbstractSession session) {
+        if ((expression == null) || expression.isFieldExpression()) {
+            return expression != null;
+        }
+        if (!expression.isQueryKeyExpression()) {
+            return false;
+        }
+        // Base must have a session and class set in its builder to call isAttribute.
+        ExpressionBuilder builder = expression.getBuilder();
+        if (builder.getQueryClass() == null) {
+            return false;
+        }
+        if (builder.getSession() == null) {
+            // The caller's builder is not modified, the attribute is checked on a copy built on a new builder with the session.
+            ExpressionBuilder builderCopy = new ExpressionBuilder(builder.getQueryClass());
+            builderCopy.setSession(session.getRootSession(null));
+            expression = expression.rebuildOn(builderCopy);
+        }
+        return ((QueryKeyExpression)expression).isAttribute();
+    }
+
+    /**
+     * INTERNAL:
+     * Return a parameter for the constant, adding its value to the constants row,
+     * or the expression if it is not a constant of a basic type.
+     */
+    protected static Expression parameterizeConstant(Expression expression, AbstractRecord constants) {
+        if ((expression == null) || !expression.isConstantExpression()) {
+            return expression;
+        }
+        ConstantExpression constant = (ConstantExpression)expression;
+        Object value = constant.getValue();
+        if (!((value instanceof String) || (value instanceof Number) || (value instanceof java.util.Date)
+                || (value instanceof Calendar) || (value instanceof Character))) {
+            return expression;
+        }
+        DatabaseField field = new DatabaseField(ParameterExpression.CONSTANT_PARAMETER_PREFIX + constants.size());
+        constants.put(field, value);
+        return new ParameterExpression(field, constant.getLocalBase());
+    }
+
     /**
      * INTERNAL:
      * Check for object comparison as this requires for the expression to be replaced by the object comparison.
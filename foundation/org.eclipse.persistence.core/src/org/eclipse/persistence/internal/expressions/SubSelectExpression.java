@@ -74,6 +74,14 @@ public class SubSelectExpression extends BaseExpression {
         return subQuery;
     }
 
+    /**
+     * INTERNAL:
+     * Return the outer query's expression counted by a count sub-select, or null.
+     */
+    public Expression getCriteriaBase() {
+        return criteriaBase;
+    }
+
     /**
      * INTERNAL:
      * This method creates a report query that counts the number of values in baseExpression.anyOf(attribute)
@@ -15,6 +15,7 @@ package org.eclipse.persistence.internal.helper;
 import java.io.*;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 import org.eclipse.persistence.config.SystemProperties;
 import org.eclipse.persistence.exceptions.*;
@@ -37,9 +38,9 @@ import org.eclipse.persistence.logging.*;
  */
 public class ConcurrencyManager implements Serializable {
     
-    protected int numberOfReaders;
+    protected volatile int numberOfReaders;
     protected int depth;
-    protected int numberOfWritersWaiting;
+    protected volatile int numberOfWritersWaiting;
     protected volatile transient Thread activeThread;
     public static Map<Thread, DeferredLockManager> deferredLockManagers = initializeDeferredLockManagers();
     protected boolean lockedByMergeManager;
@@ -47,6 +48,11 @@ public class ConcurrencyManager implements Serializable {
     protected static boolean shouldTrackStack = System.getProperty(SystemProperties.RECORD_STACK_ON_LOCK) != null;
     protected Exception stack;
 
+    /** Allow read locks to be acquired and released without synchronizing when not locked by a writer. */
+    protected static boolean shouldUseConcurrentReadLocks = "true".equalsIgnoreCase(System.getProperty(SystemProperties.CONCURRENT_READ_LOCKS));
+    /** Used to update the number of readers atomically, as concurrent readers do not synchronize. */
+    protected static final AtomicIntegerFieldUpdater<ConcurrencyManager> numberOfReadersUpdater = AtomicIntegerFieldUpdater.newUpdater(ConcurrencyManager.class, "numberOfReaders");
+
     /**
      * Initialize the newly allocated instance of this class.
      * Set the depth to zero.
@@ -73,26 +79,45 @@ public class ConcurrencyManager implements Serializable {
      * called with true from the merge process, if true then the refresh will not refresh the object
      */
     public synchronized void acquire(boolean forMerge) throws ConcurrencyException {
-        while (((this.activeThread != null) || (this.numberOfReaders > 0)) && (this.activeThread != Thread.currentThread())) {
+        Thread currentThread = Thread.currentThread();
+        while ((this.activeThread != currentThread) && !tryAcquireActiveThread(currentThread)) {
             // This must be in a while as multiple threads may be released, or another thread may rush the acquire after one is released.
             try {
                 this.numberOfWritersWaiting++;
-                wait();
+                // Concurrent readers only notify if a writer is waiting, so check again once waiting.
+                if ((this.activeThread != null) || (this.numberOfReaders > 0)) {
+                    wait();
+                }
                 this.numberOfWritersWaiting--;
             } catch (InterruptedException exception) {
                 throw ConcurrencyException.waitWasInterrupted(exception.getMessage());
             }
         }
-        if (this.activeThread == null) {
-            this.activeThread = Thread.currentThread();
-            if (shouldTrackStack){
-                this.stack = new Exception();
-            }
-        }
         this.lockedByMergeManager = forMerge;
         this.depth++;
     }
 
+    /**
+     * If the lock is free, set the current thread as the active thread and return true.
+     * Concurrent readers increment the number of readers before checking the active thread,
+     * so the number of readers is checked again after setting it, and the lock released if a reader got in.
+     * This must be called while synchronized.
+     */
+    protected boolean tryAcquireActiveThread(Thread currentThread) {
+        if ((this.activeThread != null) || (this.numberOfReaders > 0)) {
+            return false;
+        }
+        this.activeThread = currentThread;
+        if (this.numberOfReaders > 0) {
+            this.activeThread = null;
+            return false;
+        }
+        if (shouldTrackStack){
+            this.stack = new Exception();
+        }
+        return true;
+    }
+
     /**
      * If the lock is not acquired already acquire it and return true.
      * If it has been acquired already return false
@@ -109,7 +134,8 @@ public class ConcurrencyManager implements Serializable {
      * called with true from the merge process, if true then the refresh will not refresh the object
      */
     public synchronized boolean acquireNoWait(boolean forMerge) throws ConcurrencyException {
-        if ((this.activeThread == null && this.numberOfReaders == 0) || (this.activeThread == Thread.currentThread())) {
+        Thread currentThread = Thread.currentThread();
+        if ((this.activeThread == currentThread) || tryAcquireActiveThread(currentThread)) {
             //if I own the lock increment depth
             acquire(forMerge);
             return true;
@@ -125,7 +151,8 @@ public class ConcurrencyManager implements Serializable {
      * called with true from the merge process, if true then the refresh will not refresh the object
      */
     public synchronized boolean acquireWithWait(boolean forMerge, int wait) throws ConcurrencyException {
-        if ((this.activeThread == null && this.numberOfReaders == 0) || (this.activeThread == Thread.currentThread())) {
+        Thread currentThread = Thread.currentThread();
+        if ((this.activeThread == currentThread) || tryAcquireActiveThread(currentThread)) {
             //if I own the lock increment depth
             acquire(forMerge);
             return true;
@@ -135,7 +162,7 @@ public class ConcurrencyManager implements Serializable {
             } catch (InterruptedException e) {
                 return false;
             }
-            if ((this.activeThread == null && this.numberOfReaders == 0) || (this.activeThread == Thread.currentThread())){
+            if ((this.activeThread == currentThread) || tryAcquireActiveThread(currentThread)){
                 acquire(forMerge);
                 return true;
             }
@@ -151,7 +178,7 @@ public class ConcurrencyManager implements Serializable {
      */
     public synchronized boolean acquireIfUnownedNoWait(boolean forMerge) throws ConcurrencyException {
         // Only acquire lock if active thread is null. Do not check current thread. 
-        if (this.activeThread == null && this.numberOfReaders == 0) {
+        if (tryAcquireActiveThread(Thread.currentThread())) {
              // if lock is unowned increment depth
             acquire(forMerge);
             return true;
@@ -172,28 +199,37 @@ public class ConcurrencyManager implements Serializable {
         }
         lockManager.incrementDepth();
         synchronized (this) {
-            while (this.numberOfReaders != 0) {
-                // There are readers of this object, wait until they are done before determining if
-                //there are any other writers.  If not we will wait on the readers for acquire.  If another
-                //thread is also waiting on the acquire then a deadlock could occur.  See bug 3049635
-                //We could release all active locks before releasing deferred but the object may not be finished building
-                //we could make the readers get a hard lock, but then we would just build a deferred lock even though
-                //the object is not being built.
-                try {
-                    this.numberOfWritersWaiting++;
-                    wait();
-                    this.numberOfWritersWaiting--;
-                } catch (InterruptedException exception) {
-                    throw ConcurrencyException.waitWasInterrupted(exception.getMessage());
+            while (true) {
+                while (this.numberOfReaders != 0) {
+                    // There are readers of this object, wait until they are done before determining if
+                    //there are any other writers.  If not we will wait on the readers for acquire.  If another
+                    //thread is also waiting on the acquire then a deadlock could occur.  See bug 3049635
+                    //We could release all active locks before releasing deferred but the object may not be finished building
+                    //we could make the readers get a hard lock, but then we would just build a deferred lock even though
+                    //the object is not being built.
+                    try {
+                        this.numberOfWritersWaiting++;
+                        if (this.numberOfReaders != 0) {
+                            wait();
+                        }
+                        this.numberOfWritersWaiting--;
+                    } catch (InterruptedException exception) {
+                        throw ConcurrencyException.waitWasInterrupted(exception.getMessage());
+                    }
                 }
-            }
-            if ((this.activeThread == currentThread) || (!isAcquired())) {
-                lockManager.addActiveLock(this);
-                acquire();
-            } else {
-                lockManager.addDeferredLock(this);
-                if (AbstractSessionLog.getLog().shouldLog(SessionLog.FINER) && this instanceof CacheKey) {
-                    AbstractSessionLog.getLog().log(SessionLog.FINER, SessionLog.CACHE, "acquiring_deferred_lock", ((CacheKey)this).getObject(), currentThread.getName());
+                if ((this.activeThread == currentThread) || (!isAcquired())) {
+                    // A concurrent reader may have got in, if so wait on the readers again.
+                    if ((this.activeThread == currentThread) || tryAcquireActiveThread(currentThread)) {
+                        lockManager.addActiveLock(this);
+                        acquire();
+                        return;
+                    }
+                } else {
+                    lockManager.addDeferredLock(this);
+                    if (AbstractSessionLog.getLog().shouldLog(SessionLog.FINER) && this instanceof CacheKey) {
+                        AbstractSessionLog.getLog().log(SessionLog.FINER, SessionLog.CACHE, "acquiring_deferred_lock", ((CacheKey)this).getObject(), currentThread.getName());
+                    }
+                    return;
                 }
             }
         }
@@ -229,28 +265,60 @@ public class ConcurrencyManager implements Serializable {
      * Wait on any writer.
      * Allow concurrent reads.
      */
-    public synchronized void acquireReadLock() throws ConcurrencyException {
-        // Cannot check for starving writers as will lead to deadlocks.
-        while ((this.activeThread != null) && (this.activeThread != Thread.currentThread())) {
-            try {
-                wait();
-            } catch (InterruptedException exception) {
-                throw ConcurrencyException.waitWasInterrupted(exception.getMessage());
+    public void acquireReadLock() throws ConcurrencyException {
+        Thread currentThread = Thread.currentThread();
+        // PERF: Avoid synchronizing if not locked by a writer.
+        if (shouldUseConcurrentReadLocks && tryAcquireReadLock(currentThread)) {
+            return;
+        }
+        synchronized (this) {
+            // Cannot check for starving writers as will lead to deadlocks.
+            while ((this.activeThread != null) && (this.activeThread != currentThread)) {
+                try {
+                    wait();
+                } catch (InterruptedException exception) {
+                    throw ConcurrencyException.waitWasInterrupted(exception.getMessage());
+                }
             }
+            numberOfReadersUpdater.incrementAndGet(this);
         }
-        this.numberOfReaders++;
     }
 
     /**
      * If this is acquired return false otherwise acquire readlock and return true
      */
-    public synchronized boolean acquireReadLockNoWait() {
-        if ((this.activeThread == null) || (this.activeThread == Thread.currentThread())) {
-            acquireReadLock();
-            return true;
-        } else {
+    public boolean acquireReadLockNoWait() {
+        if (shouldUseConcurrentReadLocks) {
+            return tryAcquireReadLock(Thread.currentThread());
+        }
+        synchronized (this) {
+            if ((this.activeThread == null) || (this.activeThread == Thread.currentThread())) {
+                acquireReadLock();
+                return true;
+            } else {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Acquire a read lock without synchronizing if not locked by another thread, return if acquired.
+     * The number of readers is incremented before checking the active thread again,
+     * a writer sets the active thread before checking the number of readers, so one of the two always backs out.
+     */
+    protected boolean tryAcquireReadLock(Thread currentThread) {
+        Thread activeThread = this.activeThread;
+        if ((activeThread != null) && (activeThread != currentThread)) {
             return false;
         }
+        numberOfReadersUpdater.incrementAndGet(this);
+        activeThread = this.activeThread;
+        if ((activeThread == null) || (activeThread == currentThread)) {
+            return true;
+        }
+        // A writer got in, back out.
+        decrementNumberOfReaders();
+        return false;
     }
 
     /**
@@ -463,14 +531,42 @@ public class ConcurrencyManager implements Serializable {
      * Decrement the number of readers.
      * Used to allow concurrent reads.
      */
-    public synchronized void releaseReadLock() throws ConcurrencyException {
-        if (this.numberOfReaders == 0) {
-            throw ConcurrencyException.signalAttemptedBeforeWait();
-        } else {
-            this.numberOfReaders--;
+    public void releaseReadLock() throws ConcurrencyException {
+        // PERF: Avoid synchronizing unless a writer is waiting.
+        if (shouldUseConcurrentReadLocks) {
+            decrementNumberOfReaders();
+            return;
         }
-        if (this.numberOfReaders == 0) {
-            notifyAll();
+        synchronized (this) {
+            if (this.numberOfReaders == 0) {
+                throw ConcurrencyException.signalAttemptedBeforeWait();
+            } else {
+                numberOfReadersUpdater.decrementAndGet(this);
+            }
+            if (this.numberOfReaders == 0) {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Decrement the number of readers without synchronizing,
+     * and notify the waiting writers if this was the last reader.
+     * The number of readers is decremented before checking for waiting writers,
+     * a writer increments the number waiting before checking the number of readers, so a writer is never missed.
+     */
+    protected void decrementNumberOfReaders() throws ConcurrencyException {
+        int readers;
+        do {
+            readers = this.numberOfReaders;
+            if (readers == 0) {
+                throw ConcurrencyException.signalAttemptedBeforeWait();
+            }
+        } while (!numberOfReadersUpdater.compareAndSet(this, readers, readers - 1));
+        if ((readers == 1) && (this.numberOfWritersWaiting > 0)) {
+            synchronized (this) {
+                notifyAll();
+            }
         }
     }
 
@@ -563,5 +659,21 @@ public class ConcurrencyManager implements Serializable {
     public static void setShouldTrackStack(boolean shouldTrackStack) {
         ConcurrencyManager.shouldTrackStack = shouldTrackStack;
     }
+
+    public static boolean shouldUseConcurrentReadLocks() {
+        return shouldUseConcurrentReadLocks;
+    }
+
+    /**
+     * INTERNAL:
+     * Set if read locks should be acquired and released without synchronizing when not locked by a writer.
+     * This must be set before any locks are acquired, i.e. before login.
+     * 
+     * There is also a system level property for this setting. "eclipselink.cache.concurrent-read-locks"
+     * @param shouldUseConcurrentReadLocks
+     */
+    public static void setShouldUseConcurrentReadLocks(boolean shouldUseConcurrentReadLocks) {
+        ConcurrencyManager.shouldUseConcurrentReadLocks = shouldUseConcurrentReadLocks;
+    }
     
 }
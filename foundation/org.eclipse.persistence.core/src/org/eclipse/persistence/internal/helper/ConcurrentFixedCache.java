@@ -15,17 +15,57 @@ package org.eclipse.persistence.internal.helper;
 import java.io.Serializable;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Provide a concurrent fixed size caching mechanism.
  * This is used for caching EJBQL parsed queries, Update calls,
  * and other places a fixed size cache is needed.
  * The default fixed size is 100.
+ * <p>
+ * Eviction is frequency based (TinyLFU).
+ * The access frequency of every key looked up or put (including keys that are not in the cache)
+ * is recorded in a small count-min sketch of 4 bit counters, which are halved periodically so old
+ * accesses decay. When the cache exceeds its size the least frequently used entries are evicted in
+ * a batch, so a stream of one-off keys cannot flush out the frequently used ones.
+ * Misses and puts are always recorded in the sketch, hits only for a sample of the keys,
+ * so gets of cached keys rarely write to shared memory.
+ * <p>
+ * Eviction counts are always recorded. Hit and miss counts are only recorded if statistics are enabled,
+ * the counts are striped by thread so concurrent gets do not contend on a single counter.
  */
 public class ConcurrentFixedCache implements Serializable {
+    /** Number of sketch counters per key. */
+    protected static final int DEPTH = 4;
+    /** Seeds used to compute the counter indexes of a key. */
+    protected static final long[] SEEDS = new long[] {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    /** Mask used to halve all of the 4 bit counters in a long at once. */
+    protected static final long RESET_MASK = 0x7777777777777777L;
+    /** One in 4 hits is recorded in the sketch. */
+    protected static final int HIT_SAMPLE_MASK = 3;
+    /** Number of stripes of the hit and miss counts. */
+    protected static final int STRIPES = 8;
+    /** Distance between the counts of two stripes, so each stripe has its own cache line. */
+    protected static final int STRIPE_WIDTH = 8;
+
     protected int maxSize;
     protected Map cache;
 
+    /** Count-min sketch of 4 bit counters, 16 per long. */
+    protected long[] sketch;
+    /** Number of accesses recorded since the sketch was last halved. */
+    protected int sampleCount;
+    /** Number of accesses after which the sketch is halved. */
+    protected int sampleSize;
+    /** Ensures only a single thread evicts at a time. */
+    protected AtomicBoolean isEvicting;
+
+    /** The hit and miss counts of each stripe, null unless statistics are recorded. */
+    protected AtomicLongArray counts;
+    protected AtomicLong evictions;
+
     /**
      * Create a new concurrent cache, with a fixed size of 100.
      */
@@ -39,7 +79,9 @@ public class ConcurrentFixedCache implements Serializable {
     public ConcurrentFixedCache(int maxSize) {
         // PERF: Use a concurrent map to allow concurrent gets.
         this.cache = new ConcurrentHashMap(maxSize);
-        this.maxSize = maxSize;
+        this.isEvicting = new AtomicBoolean();
+        this.evictions = new AtomicLong();
+        setMaxSize(maxSize);
     }
 
     /**
@@ -51,11 +93,18 @@ public class ConcurrentFixedCache implements Serializable {
 
     /**
      * Set the fixed size of the parse cache.
-     * When the size is exceeded, subsequent EJBQL will not be cached.
+     * When the size is exceeded, the least frequently used entries are removed.
      * The default size is 100;
      */
     public void setMaxSize(int maxSize) {
         this.maxSize = maxSize;
+        int length = 1;
+        while ((length * 16) < (Math.max(maxSize, 1) * DEPTH)) {
+            length = length << 1;
+        }
+        this.sketch = new long[length];
+        this.sampleCount = 0;
+        this.sampleSize = Math.max(maxSize, 1) * 10;
     }
 
     /**
@@ -63,34 +112,234 @@ public class ConcurrentFixedCache implements Serializable {
      * If the EJBQL has not been cached, null is returned.
      */
     public Object get(Object key) {
-        return this.cache.get(key);
+        Object value = this.cache.get(key);
+        if (this.maxSize == 0) {
+            return value;
+        }
+        if (value == null) {
+            recordAccess(key);
+        } else {
+            recordHit(key);
+        }
+        AtomicLongArray counts = this.counts;
+        if (counts != null) {
+            int stripe = ((int)Thread.currentThread().getId() & (STRIPES - 1)) * STRIPE_WIDTH;
+            if (value == null) {
+                counts.incrementAndGet(stripe + 1);
+            } else {
+                counts.incrementAndGet(stripe);
+            }
+        }
+        return value;
     }
 
     /**
      * Add the value to the cache.
-     * Remove the
+     * If the cache is full, the least frequently used entries are removed.
      */
     public void put(Object key, Object value) {
         if (this.maxSize == 0) {
             return;
         }
-        this.cache.put(key, value);
-        // Currently just removes the first one encountered, not LRU,
-        // this is not ideal, but the most concurrent and quickest way to ensure fixed size.
+        if (this.cache.put(key, value) == null) {
+            recordAccess(key);
+        }
         if (this.cache.size() > this.maxSize) {
+            evict(key);
+        }
+    }
+
+    /**
+     * Remove the least frequently used entries until the cache is back under its fixed size.
+     * To amortize the cost of scanning the cache, a small batch of extra entries is removed.
+     * The key just put in is only removed if it is less frequently used than the others.
+     */
+    protected void evict(final Object newKey) {
+        // If another thread is already evicting, let it do the work.
+        if (!this.isEvicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int size = this.cache.size();
+            int target = this.maxSize - (this.maxSize / 32);
+            if (size <= this.maxSize) {
+                return;
+            }
+            final Object[] keys = new Object[size + 16];
+            final int[] frequencies = new int[keys.length];
+            int count = 0;
             Iterator iterator = this.cache.keySet().iterator();
-            try {
-                while ((this.cache.size() > this.maxSize) && iterator.hasNext()) {
-                    Object next = iterator.next();
-                    // Do not remove what was just put in.
-                    if (next != key) {
-                        this.cache.remove(next);
+            while (iterator.hasNext() && (count < keys.length)) {
+                keys[count] = iterator.next();
+                count++;
+            }
+            Integer[] order = new Integer[count];
+            for (int index = 0; index < count; index++) {
+                order[index] = Integer.valueOf(index);
+                frequencies[index] = frequency(keys[index]);
+            }
+            // Least frequent first, on a tie keep the new key.
+            Arrays.sort(order, new Comparator<Integer>() {
+                public int compare(Integer first, Integer second) {
+                    int result = frequencies[first.intValue()] - frequencies[second.intValue()];
+                    if (result == 0) {
+                        if (keys[first.intValue()] == newKey) {
+                            return 1;
+                        } else if (keys[second.intValue()] == newKey) {
+                            return -1;
+                        }
                     }
+                    return result;
                 }
-            } catch (Exception alreadyGone) {
-                // Ignore.
+            });
+            for (int index = 0; (index < count) && (this.cache.size() > target); index++) {
+                if (this.cache.remove(keys[order[index].intValue()]) != null) {
+                    this.evictions.incrementAndGet();
+                }
+            }
+        } finally {
+            this.isEvicting.set(false);
+        }
+    }
+
+    /**
+     * Record a hit in the sketch for a sample of the keys.
+     * The sampled keys are those whose hash matches the current phase, which changes with each access recorded.
+     * Misses and puts are always recorded, so the phase moves on as entries are cached and evicted,
+     * and over time the hits of every cached key are sampled alike.
+     */
+    protected void recordHit(Object key) {
+        if (((spread(key.hashCode()) + this.sampleCount) & HIT_SAMPLE_MASK) == 0) {
+            recordAccess(key);
+        }
+    }
+
+    /**
+     * Increment the sketch counters for the key.
+     * Updates are not synchronized, a lost increment only makes the estimate less accurate.
+     */
+    protected void recordAccess(Object key) {
+        long[] sketch = this.sketch;
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int depth = 0; depth < DEPTH; depth++) {
+            int index = indexOf(hash, depth, sketch.length);
+            int offset = counterOffset(hash, depth);
+            long value = sketch[index];
+            if (((value >>> offset) & 0xfL) != 0xfL) {
+                sketch[index] = value + (1L << offset);
+                added = true;
+            }
+        }
+        if (added && (++this.sampleCount >= this.sampleSize)) {
+            reset(sketch);
+        }
+    }
+
+    /**
+     * Return the estimated access frequency of the key, the minimum of its counters.
+     */
+    protected int frequency(Object key) {
+        long[] sketch = this.sketch;
+        int hash = spread(key.hashCode());
+        int frequency = 0xf;
+        for (int depth = 0; depth < DEPTH; depth++) {
+            int index = indexOf(hash, depth, sketch.length);
+            int count = (int)((sketch[index] >>> counterOffset(hash, depth)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Halve all of the counters, so the frequencies favor recent accesses.
+     */
+    protected void reset(long[] sketch) {
+        for (int index = 0; index < sketch.length; index++) {
+            sketch[index] = (sketch[index] >>> 1) & RESET_MASK;
+        }
+        this.sampleCount = this.sampleCount / 2;
+    }
+
+    protected static int spread(int hash) {
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+
+    protected static int indexOf(int hash, int depth, int length) {
+        long value = (hash + SEEDS[depth]) * SEEDS[depth];
+        value += value >>> 32;
+        return ((int)value) & (length - 1);
+    }
+
+    protected static int counterOffset(int hash, int depth) {
+        // Each depth uses a different group of 4 counters in the long.
+        return (((hash >>> (depth << 3)) & 3) + (depth << 2)) << 2;
+    }
+
+    /**
+     * Return if the hit and miss counts are recorded.
+     */
+    public boolean shouldRecordStatistics() {
+        return this.counts != null;
+    }
+
+    /**
+     * Set if the hit and miss counts are recorded, by default they are not.
+     */
+    public void setShouldRecordStatistics(boolean shouldRecordStatistics) {
+        if (!shouldRecordStatistics) {
+            this.counts = null;
+        } else if (this.counts == null) {
+            this.counts = new AtomicLongArray(STRIPES * STRIPE_WIDTH);
+        }
+    }
+
+    /**
+     * Return the number of cache hits, 0 unless statistics are recorded.
+     */
+    public long getHits() {
+        return sumCounts(0);
+    }
+
+    /**
+     * Return the number of cache misses, 0 unless statistics are recorded.
+     */
+    public long getMisses() {
+        return sumCounts(1);
+    }
+
+    protected long sumCounts(int offset) {
+        AtomicLongArray counts = this.counts;
+        if (counts == null) {
+            return 0;
+        }
+        long sum = 0;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            sum += counts.get(stripe * STRIPE_WIDTH + offset);
+        }
+        return sum;
+    }
+
+    /**
+     * Return the number of entries removed to keep the cache within its fixed size.
+     */
+    public long getEvictions() {
+        return this.evictions.get();
+    }
+
+    /**
+     * Reset the hit, miss and eviction counts.
+     */
+    public void resetStatistics() {
+        AtomicLongArray counts = this.counts;
+        if (counts != null) {
+            for (int index = 0; index < counts.length(); index++) {
+                counts.set(index, 0);
             }
         }
+        this.evictions.set(0);
     }
 
     /**
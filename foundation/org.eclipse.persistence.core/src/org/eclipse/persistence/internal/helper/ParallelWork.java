@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.helper;
+
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+
+/**
+ * INTERNAL:
+ * Processes a collection of items on the calling thread and on threads from the server platform.
+ * Each thread that runs the work processes the next queued item until none remain.
+ * <p>The calling thread always processes items, so the work completes even if no other thread is available.
+ * It then waits until every item is processed, as the items may still be in use by the other threads,
+ * so an interrupt is deferred until the work is complete.
+ * The first exception or error stops the processing of the remaining items, and is thrown by the calling thread.
+ */
+public abstract class ParallelWork<T> implements Runnable {
+    protected Queue<T> items;
+    /** The number of items not yet processed. */
+    protected int remaining;
+    /** The first exception or error of an item. */
+    protected volatile Throwable failure;
+
+    public ParallelWork(Collection<T> items) {
+        this.items = new ConcurrentLinkedQueue<T>(items);
+        this.remaining = items.size();
+    }
+
+    /**
+     * Process the item, this is called concurrently by each thread.
+     */
+    protected abstract void process(T item);
+
+    /**
+     * Process the items using up to the number of threads, including the calling thread,
+     * wait until all items are processed, and throw the first failure.
+     * Return the number of threads used.
+     */
+    public int execute(AbstractSession session, int threads) {
+        int launched = 0;
+        int maxLaunched = Math.min(threads, this.remaining) - 1;
+        while (launched < maxLaunched) {
+            try {
+                session.getServerPlatform().launchContainerRunnable(this);
+            } catch (RuntimeException notLaunched) {
+                // The items are processed by the threads already running.
+                break;
+            }
+            launched++;
+        }
+        run();
+        waitForCompletion();
+        return launched + 1;
+    }
+
+    public void run() {
+        T item = this.items.poll();
+        while (item != null) {
+            try {
+                if (this.failure == null) {
+                    process(item);
+                }
+            } catch (Throwable throwable) {
+                synchronized (this) {
+                    if (this.failure == null) {
+                        this.failure = throwable;
+                    }
+                }
+            } finally {
+                synchronized (this) {
+                    this.remaining--;
+                    if (this.remaining == 0) {
+                        notifyAll();
+                    }
+                }
+            }
+            item = this.items.poll();
+        }
+    }
+
+    /**
+     * Wait until all items are processed, and throw the first failure.
+     * An interrupt is deferred until then, and the thread's interrupt status restored.
+     */
+    public void waitForCompletion() {
+        boolean isInterrupted = false;
+        synchronized (this) {
+            while (this.remaining > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException exception) {
+                    isInterrupted = true;
+                }
+            }
+        }
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (this.failure instanceof RuntimeException) {
+            throw (RuntimeException)this.failure;
+        } else if (this.failure instanceof Error) {
+            throw (Error)this.failure;
+        }
+    }
+}
@@ -229,6 +229,15 @@ public class WriteLockManager {
      * Returns true if all required locks were acquired
      */
     public void acquireRequiredLocks(MergeManager mergeManager, UnitOfWorkChangeSet changeSet) {
+        acquireRequiredLocks(mergeManager, changeSet.getAllChangeSets().values());
+    }
+
+    /**
+     * INTERNAL:
+     * Acquire the locks for the object change sets, such as a partition of a change set merged in parallel.
+     * The mergeManager must be the active mergemanager for the calling thread.
+     */
+    public void acquireRequiredLocks(MergeManager mergeManager, Collection<ObjectChangeSet> changeSets) {
         if (!MergeManager.LOCK_ON_MERGE) {//lockOnMerge is a backdoor and not public
             return;
         }
@@ -251,7 +260,7 @@ public class WriteLockManager {
                 locksToAcquire = false;
                 //first access the changeSet and begin to acquire locks
                 ClassDescriptor descriptor = null;
-                for (ObjectChangeSet objectChangeSet : changeSet.getAllChangeSets().values()) {
+                for (ObjectChangeSet objectChangeSet : changeSets) {
                     // No Need to acquire locks for invalidated objects.
                     if ((mergeManager.shouldMergeChangesIntoDistributedCache() && (objectChangeSet.getSynchronizationType() == ClassDescriptor.INVALIDATE_CHANGED_OBJECTS))
                             || objectChangeSet.getId() == null) {
@@ -363,6 +363,8 @@ public class IdentityMapManager implements Serializable, Cloneable {
                 return new FullIdentityMap(size, descriptor, this.session, isIsolated);
             } else if (identityMapClass == ClassConstants.CacheIdentityMap_Class) {
                 return new CacheIdentityMap(size, descriptor, this.session, isIsolated);
+            } else if (identityMapClass == ClassConstants.OffHeapIdentityMap_Class) {
+                return new OffHeapIdentityMap(size, descriptor, this.session, isIsolated);
             }
         }
         try {
@@ -0,0 +1,589 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.identitymaps;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.helper.linkedlist.*;
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.mappings.DatabaseMapping.WriteType;
+import org.eclipse.persistence.queries.ReadObjectQuery;
+import org.eclipse.persistence.sessions.DatabaseRecord;
+
+/**
+ * <p><b>Purpose</b>: An OffHeapIdentityMap holds a fixed number of the most recently used objects in memory,
+ * and stores the rows of the least recently used objects outside of the Java heap.
+ * Objects that are no longer used are weakly referenced, as in the weak identity map,
+ * when an object has been garbage collected it is rebuilt from its stored row on its next cache hit,
+ * instead of being read from the database.
+ * This allows a large cache without the garbage collection cost of a large heap.
+ * <p><b>Responsibilities</b>:<ul>
+ * <li> Guarantees identity
+ * <li> Allows garbage collection
+ * <li> Maintains a fixed size (max size) cache of LRU objects in memory
+ * <li> Stores the rows of evicted objects off-heap in direct byte buffers, up to a fixed number of bytes
+ * <li> When the off-heap store is full the oldest rows are evicted
+ * </ul>
+ * The off-heap size in bytes defaults to 64MB, and can be set through the descriptor property
+ * "eclipselink.cache.off-heap-size".
+ * Objects that are partially fetched (fetch groups), or that have values that are not serializable, are not stored.
+ * @see OffHeapStore
+ */
+public class OffHeapIdentityMap extends WeakIdentityMap {
+    /** Descriptor property to configure the off-heap size in bytes. */
+    public static final String OFF_HEAP_SIZE = "eclipselink.cache.off-heap-size";
+
+    /** Default off-heap size in bytes, 64MB. */
+    public static final long DEFAULT_OFF_HEAP_SIZE = 64L * 1024 * 1024;
+
+    /** Value type tags. */
+    protected static final byte NULL = 0;
+    protected static final byte STRING = 1;
+    protected static final byte INTEGER = 2;
+    protected static final byte LONG = 3;
+    protected static final byte DOUBLE = 4;
+    protected static final byte FLOAT = 5;
+    protected static final byte SHORT = 6;
+    protected static final byte BYTE = 7;
+    protected static final byte BOOLEAN = 8;
+    protected static final byte CHARACTER = 9;
+    protected static final byte BIG_DECIMAL = 10;
+    protected static final byte BIG_INTEGER = 11;
+    protected static final byte BYTES = 12;
+    protected static final byte TIMESTAMP = 13;
+    protected static final byte SQL_DATE = 14;
+    protected static final byte TIME = 15;
+    protected static final byte DATE = 16;
+    protected static final byte SERIALIZED = 17;
+
+    /** The most recently used cache keys hold hard references to their objects, the rest are only weakly referenced. */
+    protected ExposedNodeLinkedList referenceCache;
+
+    /** Rows of evicted objects. */
+    protected OffHeapStore store;
+
+    /** Classes of the stored objects, the row stores the index into this list to avoid storing the class name. */
+    protected List<Class> storedClasses;
+
+    public OffHeapIdentityMap(int size, ClassDescriptor descriptor, AbstractSession session, boolean isIsolated) {
+        super(size, descriptor, session, isIsolated);
+        this.referenceCache = new ExposedNodeLinkedList();
+        this.storedClasses = new ArrayList<Class>();
+        long offHeapSize = DEFAULT_OFF_HEAP_SIZE;
+        if (descriptor != null) {
+            Object value = descriptor.getProperty(OFF_HEAP_SIZE);
+            if (value != null) {
+                offHeapSize = Long.valueOf(value.toString().trim());
+            }
+        }
+        this.store = new OffHeapStore(offHeapSize, OffHeapStore.DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Use an OffHeapCacheKey that stores its linked list node to manage the LRU sub-cache of references.
+     */
+    @Override
+    public CacheKey createCacheKey(Object primaryKey, Object object, Object writeLockValue, long readTime) {
+        return new OffHeapCacheKey(primaryKey, object, writeLockValue, readTime, isIsolated);
+    }
+
+    /**
+     * Return the cache key matching the primary key.
+     * If the key's object was garbage collected, or the key was removed, but its row is stored off-heap,
+     * rebuild the object from the row.
+     */
+    @Override
+    public CacheKey getCacheKey(Object searchKey, boolean forMerge) {
+        CacheKey cacheKey = this.cacheKeys.get(searchKey);
+        if ((cacheKey != null) && (cacheKey.getObject() != null)) {
+            if (((OffHeapCacheKey)cacheKey).isOffHeap) {
+                // Accessing the object makes it current again, the stored row may become stale.
+                cacheKey.updateAccess();
+            }
+            return cacheKey;
+        }
+        // Do not replace a key that is being built.
+        if ((cacheKey != null) && (cacheKey.getActiveThread() != null)) {
+            return cacheKey;
+        }
+        byte[] bytes = this.store.get(searchKey);
+        if (bytes == null) {
+            return cacheKey;
+        }
+        // Remove the row before building, in case building the object's relationships looks up the same key.
+        this.store.remove(searchKey);
+        CacheKey newCacheKey = buildCacheKey(searchKey, bytes);
+        if (newCacheKey == null) {
+            return cacheKey;
+        }
+        if (cacheKey == null) {
+            CacheKey existingCacheKey = putCacheKeyIfAbsent(newCacheKey);
+            if (existingCacheKey != null) {
+                return existingCacheKey;
+            }
+        } else {
+            newCacheKey.setOwningMap(this);
+            if (!((ConcurrentMap)this.cacheKeys).replace(searchKey, cacheKey, newCacheKey)) {
+                newCacheKey.setOwningMap(null);
+                return this.cacheKeys.get(searchKey);
+            }
+            cacheKey.setOwningMap(null);
+        }
+        newCacheKey.updateAccess();
+        return newCacheKey;
+    }
+
+    /**
+     * Return the linked reference cache.
+     */
+    public ExposedNodeLinkedList getReferenceCache() {
+        return referenceCache;
+    }
+
+    /**
+     * Return the off-heap store.
+     */
+    public OffHeapStore getStore() {
+        return store;
+    }
+
+    /**
+     * Return the number of rows stored off-heap.
+     */
+    public int getOffHeapSize() {
+        return this.store.getSize();
+    }
+
+    /**
+     * Return the number of bytes used by the rows stored off-heap.
+     */
+    public long getOffHeapUsedBytes() {
+        return this.store.getUsedBytes();
+    }
+
+    /**
+     * Return the number of off-heap rows evicted to make space for newer rows.
+     */
+    public long getOffHeapEvictions() {
+        return this.store.getEvictions();
+    }
+
+    /**
+     * Remove the cache key from the map, the sub-cache list, and the off-heap store.
+     */
+    @Override
+    public Object remove(CacheKey cacheKey) {
+        if (cacheKey == null) {
+            return null;
+        }
+        synchronized (this.referenceCache) {
+            LinkedNode node = ((OffHeapCacheKey)cacheKey).referenceNode;
+            if (node != null) {
+                this.referenceCache.remove(node);
+                ((OffHeapCacheKey)cacheKey).referenceNode = null;
+            }
+        }
+        this.store.remove(cacheKey.getKey());
+        return super.remove(cacheKey);
+    }
+
+    /**
+     * Store the object in the cache at its primary key, and add to sub-cache list.
+     */
+    @Override
+    public CacheKey put(Object primaryKey, Object object, Object writeLockValue, long readTime) {
+        this.store.remove(primaryKey);
+        CacheKey cacheKey = super.put(primaryKey, object, writeLockValue, readTime);
+        cacheKey.updateAccess();
+        return cacheKey;
+    }
+
+    /**
+     * This method will be used to update the max cache size.
+     */
+    @Override
+    public synchronized void updateMaxSize(int maxSize) {
+        setMaxSize(maxSize);
+        evict();
+    }
+
+    /**
+     * Evict the LRU cache keys if the max size is exceeded, and store their rows off-heap.
+     */
+    protected void evict() {
+        List<OffHeapCacheKey> evicted = null;
+        synchronized (this.referenceCache) {
+            while (this.referenceCache.size() > this.maxSize) {
+                OffHeapCacheKey cacheKey = (OffHeapCacheKey)this.referenceCache.removeLast();
+                cacheKey.referenceNode = null;
+                if (evicted == null) {
+                    evicted = new ArrayList<OffHeapCacheKey>();
+                }
+                evicted.add(cacheKey);
+            }
+        }
+        // Building the row is done outside of the list lock.
+        if (evicted != null) {
+            for (OffHeapCacheKey cacheKey : evicted) {
+                offload(cacheKey);
+            }
+        }
+    }
+
+    /**
+     * Store the cache key's object row off-heap and release the hard reference to the object.
+     * The object is not stored if it is locked, partially fetched, or cannot be stored.
+     */
+    protected void offload(OffHeapCacheKey cacheKey) {
+        byte[] bytes = null;
+        if (cacheKey.acquireReadLockNoWait()) {
+            try {
+                if (cacheKey.getInvalidationState() != CacheKey.CACHE_KEY_INVALID) {
+                    bytes = buildBytes(cacheKey);
+                }
+            } finally {
+                cacheKey.releaseReadLock();
+            }
+        }
+        synchronized (this.referenceCache) {
+            // The key may have been accessed again while the row was built.
+            if (cacheKey.referenceNode == null) {
+                if ((bytes != null) && (cacheKey.getOwningMap() == this) && this.store.put(cacheKey.getKey(), bytes)) {
+                    cacheKey.isOffHeap = true;
+                }
+                cacheKey.hardReference = null;
+            }
+        }
+    }
+
+    /**
+     * Return the row of the cache key's object as bytes, or null if it cannot be stored.
+     */
+    protected byte[] buildBytes(CacheKey cacheKey) {
+        Object object = cacheKey.getObject();
+        if (object == null) {
+            return null;
+        }
+        ClassDescriptor concreteDescriptor = this.descriptor;
+        if ((concreteDescriptor == null) || (this.session == null)) {
+            return null;
+        }
+        if (concreteDescriptor.hasInheritance() || (object.getClass() != concreteDescriptor.getJavaClass())) {
+            concreteDescriptor = this.session.getDescriptor(object);
+        }
+        if ((concreteDescriptor == null) || (concreteDescriptor.hasFetchGroupManager() && concreteDescriptor.getFetchGroupManager().isPartialObject(object))) {
+            return null;
+        }
+        try {
+            AbstractRecord row = concreteDescriptor.getObjectBuilder().buildRow(object, this.session, WriteType.UNDEFINED);
+            List<DatabaseField> fields = concreteDescriptor.getAllFields();
+            ByteArrayOutputStream byteStream = new ByteArrayOutputStream(128);
+            DataOutputStream stream = new DataOutputStream(byteStream);
+            stream.writeShort(getClassIndex(object.getClass()));
+            stream.writeLong(cacheKey.getReadTime());
+            writeValue(stream, cacheKey.getWriteLockValue());
+            int size = fields.size();
+            for (int index = 0; index < size; index++) {
+                DatabaseField field = fields.get(index);
+                if (row.containsKey(field)) {
+                    stream.writeShort(index);
+                    writeValue(stream, row.get(field));
+                }
+            }
+            stream.writeShort(-1);
+            stream.flush();
+            return byteStream.toByteArray();
+        } catch (IOException exception) {
+            // The row has a value that cannot be serialized, do not store the object.
+            this.session.logThrowable(SessionLog.FINEST, SessionLog.CACHE, exception);
+            return null;
+        }
+    }
+
+    /**
+     * Rebuild the object from the bytes of its row, and return a new cache key for it.
+     * Return null if the object could not be built, in which case the object will be read from the database.
+     */
+    protected CacheKey buildCacheKey(Object primaryKey, byte[] bytes) {
+        try {
+            DataInputStream stream = new DataInputStream(new ByteArrayInputStream(bytes));
+            Class javaClass = null;
+            int classIndex = stream.readShort();
+            synchronized (this.storedClasses) {
+                javaClass = this.storedClasses.get(classIndex);
+            }
+            long readTime = stream.readLong();
+            Object writeLockValue = readValue(stream);
+            ClassDescriptor concreteDescriptor = this.session.getDescriptor(javaClass);
+            List<DatabaseField> fields = concreteDescriptor.getAllFields();
+            DatabaseRecord row = new DatabaseRecord(fields.size());
+            int index = stream.readShort();
+            while (index != -1) {
+                row.add(fields.get(index), readValue(stream));
+                index = stream.readShort();
+            }
+            ReadObjectQuery query = new ReadObjectQuery(javaClass);
+            query.setDescriptor(concreteDescriptor);
+            query.setSession(this.session);
+            Object object = concreteDescriptor.getObjectBuilder().buildNewInstance();
+            CacheKey cacheKey = createCacheKey(primaryKey, object, writeLockValue, readTime);
+            cacheKey.setRecord(row);
+            concreteDescriptor.getObjectBuilder().buildAttributesIntoObject(object, cacheKey, row, query, null, null, false, this.session);
+            cacheKey.setRecord(null);
+            return cacheKey;
+        } catch (IOException exception) {
+            this.session.logThrowable(SessionLog.FINEST, SessionLog.CACHE, exception);
+            return null;
+        } catch (ClassNotFoundException exception) {
+            this.session.logThrowable(SessionLog.FINEST, SessionLog.CACHE, exception);
+            return null;
+        }
+    }
+
+    /**
+     * Return the index of the class in the stored classes.
+     */
+    protected int getClassIndex(Class javaClass) {
+        synchronized (this.storedClasses) {
+            int index = this.storedClasses.indexOf(javaClass);
+            if (index == -1) {
+                index = this.storedClasses.size();
+                this.storedClasses.add(javaClass);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Write the type tag and value.
+     */
+    protected void writeValue(DataOutputStream stream, Object value) throws IOException {
+        if (value == null) {
+            stream.writeByte(NULL);
+        } else if (value instanceof String) {
+            stream.writeByte(STRING);
+            // writeUTF is limited to 64k bytes.
+            byte[] bytes = ((String)value).getBytes("UTF-8");
+            stream.writeInt(bytes.length);
+            stream.write(bytes);
+        } else if (value instanceof Integer) {
+            stream.writeByte(INTEGER);
+            stream.writeInt((Integer)value);
+        } else if (value instanceof Long) {
+            stream.writeByte(LONG);
+            stream.writeLong((Long)value);
+        } else if (value instanceof Double) {
+            stream.writeByte(DOUBLE);
+            stream.writeDouble((Double)value);
+        } else if (value instanceof Float) {
+            stream.writeByte(FLOAT);
+            stream.writeFloat((Float)value);
+        } else if (value instanceof Short) {
+            stream.writeByte(SHORT);
+            stream.writeShort((Short)value);
+        } else if (value instanceof Byte) {
+            stream.writeByte(BYTE);
+            stream.writeByte((Byte)value);
+        } else if (value instanceof Boolean) {
+            stream.writeByte(BOOLEAN);
+            stream.writeBoolean((Boolean)value);
+        } else if (value instanceof Character) {
+            stream.writeByte(CHARACTER);
+            stream.writeChar((Character)value);
+        } else if (value.getClass() == BigDecimal.class) {
+            stream.writeByte(BIG_DECIMAL);
+            byte[] bytes = ((BigDecimal)value).unscaledValue().toByteArray();
+            stream.writeInt(((BigDecimal)value).scale());
+            stream.writeInt(bytes.length);
+            stream.write(bytes);
+        } else if (value.getClass() == BigInteger.class) {
+            stream.writeByte(BIG_INTEGER);
+            byte[] bytes = ((BigInteger)value).toByteArray();
+            stream.writeInt(bytes.length);
+            stream.write(bytes);
+        } else if (value instanceof byte[]) {
+            stream.writeByte(BYTES);
+            stream.writeInt(((byte[])value).length);
+            stream.write((byte[])value);
+        } else if (value.getClass() == java.sql.Timestamp.class) {
+            stream.writeByte(TIMESTAMP);
+            stream.writeLong(((java.sql.Timestamp)value).getTime());
+            stream.writeInt(((java.sql.Timestamp)value).getNanos());
+        } else if (value.getClass() == java.sql.Date.class) {
+            stream.writeByte(SQL_DATE);
+            stream.writeLong(((java.sql.Date)value).getTime());
+        } else if (value.getClass() == java.sql.Time.class) {
+            stream.writeByte(TIME);
+            stream.writeLong(((java.sql.Time)value).getTime());
+        } else if (value.getClass() == java.util.Date.class) {
+            stream.writeByte(DATE);
+            stream.writeLong(((java.util.Date)value).getTime());
+        } else if (value instanceof Serializable) {
+            stream.writeByte(SERIALIZED);
+            ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+            ObjectOutputStream objectStream = new ObjectOutputStream(byteStream);
+            objectStream.writeObject(value);
+            objectStream.close();
+            byte[] bytes = byteStream.toByteArray();
+            stream.writeInt(bytes.length);
+            stream.write(bytes);
+        } else {
+            throw new NotSerializableException(value.getClass().getName());
+        }
+    }
+
+    /**
+     * Read the type tag and value.
+     */
+    protected Object readValue(DataInputStream stream) throws IOException, ClassNotFoundException {
+        byte type = stream.readByte();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return new String(readBytes(stream), "UTF-8");
+            case INTEGER:
+                return Integer.valueOf(stream.readInt());
+            case LONG:
+                return Long.valueOf(stream.readLong());
+            case DOUBLE:
+                return Double.valueOf(stream.readDouble());
+            case FLOAT:
+                return Float.valueOf(stream.readFloat());
+            case SHORT:
+                return Short.valueOf(stream.readShort());
+            case BYTE:
+                return Byte.valueOf(stream.readByte());
+            case BOOLEAN:
+                return Boolean.valueOf(stream.readBoolean());
+            case CHARACTER:
+                return Character.valueOf(stream.readChar());
+            case BIG_DECIMAL:
+                int scale = stream.readInt();
+                return new BigDecimal(new BigInteger(readBytes(stream)), scale);
+            case BIG_INTEGER:
+                return new BigInteger(readBytes(stream));
+            case BYTES:
+                return readBytes(stream);
+            case TIMESTAMP:
+                java.sql.Timestamp timestamp = new java.sql.Timestamp(stream.readLong());
+                timestamp.setNanos(stream.readInt());
+                return timestamp;
+            case SQL_DATE:
+                return new java.sql.Date(stream.readLong());
+            case TIME:
+                return new java.sql.Time(stream.readLong());
+            case DATE:
+                return new java.util.Date(stream.readLong());
+            case SERIALIZED:
+                ObjectInputStream objectStream = new ObjectInputStream(new ByteArrayInputStream(readBytes(stream)));
+                try {
+                    return objectStream.readObject();
+                } finally {
+                    objectStream.close();
+                }
+            default:
+                throw new StreamCorruptedException(String.valueOf(type));
+        }
+    }
+
+    protected byte[] readBytes(DataInputStream stream) throws IOException {
+        byte[] bytes = new byte[stream.readInt()];
+        stream.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Inner class to define the specialized weak cache key.
+     * Holds a hard reference to its object while in the LRU sub-cache,
+     * and keeps track of the linked list node to allow quick repositioning.
+     */
+    public class OffHeapCacheKey extends WeakCacheKey {
+        protected LinkedNode referenceNode;
+        protected Object hardReference;
+        /** Set when the row has been stored off-heap, the object is then only weakly referenced. */
+        protected volatile boolean isOffHeap;
+
+        public OffHeapCacheKey(Object primaryKey, Object object, Object writeLockValue, long readTime, boolean isIsolated) {
+            super(primaryKey, object, writeLockValue, readTime, isIsolated);
+        }
+
+        public LinkedNode getReferenceCacheNode() {
+            return referenceNode;
+        }
+
+        public boolean isOffHeap() {
+            return isOffHeap;
+        }
+
+        /**
+         * Notifies that cache key that it has been accessed.
+         * Move the cache key to the front of the LRU sub-cache, and remove any stored row as it may become stale.
+         */
+        @Override
+        public void updateAccess() {
+            Object object = getObject();
+            if (object == null) {
+                return;
+            }
+            // PERF: Synchronize on the linked list.
+            synchronized (referenceCache) {
+                this.hardReference = object;
+                if (this.isOffHeap) {
+                    this.isOffHeap = false;
+                    store.remove(this.key);
+                }
+                if (this.referenceNode == null) {
+                    this.referenceNode = referenceCache.addFirst(this);
+                } else {
+                    // This is a fast constant time operations because of the linked list usage.
+                    referenceCache.moveFirst(this.referenceNode);
+                }
+            }
+            if (referenceCache.size() > maxSize) {
+                evict();
+            }
+        }
+
+        /**
+         * A changed object must be rebuilt from the database, so also remove its stored row.
+         */
+        @Override
+        public void setInvalidationState(int invalidationState) {
+            super.setInvalidationState(invalidationState);
+            if ((invalidationState == CACHE_KEY_INVALID) && this.isOffHeap) {
+                synchronized (referenceCache) {
+                    this.isOffHeap = false;
+                    store.remove(this.key);
+                }
+            }
+        }
+
+        @Override
+        public void setObject(Object object) {
+            super.setObject(object);
+            // Keys in the LRU sub-cache hold their object.
+            if (this.referenceNode != null) {
+                this.hardReference = object;
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.identitymaps;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Stores byte arrays by key outside of the Java heap, in direct byte buffers.
+ * <p>The store is a fixed capacity ring of segments, entries are appended at the write position,
+ * and when the store is full the oldest entries are evicted as their space is overwritten.
+ * Only the index of keys to positions is held in the heap.
+ * @see OffHeapIdentityMap
+ */
+public class OffHeapStore {
+    /** Default segment size, 64MB. */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    /** Segments are allocated as the write position first reaches them. */
+    protected ByteBuffer[] segments;
+    protected int segmentSize;
+    protected long capacity;
+    /** Position the next entry will be written at. */
+    protected long position;
+    /** Entries by key. */
+    protected Map<Object, Entry> index;
+    /** Entries in write order, including removed entries whose space has not been reused yet. */
+    protected LinkedList<Entry> entries;
+    protected long usedBytes;
+    protected long evictions;
+
+    /**
+     * Create a store of the capacity in bytes, rounded up to a multiple of the segment size.
+     */
+    public OffHeapStore(long capacity, int segmentSize) {
+        this.segmentSize = (int)Math.min(segmentSize, Math.max(capacity, 1024));
+        int numberOfSegments = (int)((Math.max(capacity, 1024) + this.segmentSize - 1) / this.segmentSize);
+        this.segments = new ByteBuffer[numberOfSegments];
+        this.capacity = (long)numberOfSegments * this.segmentSize;
+        this.index = new HashMap<Object, Entry>();
+        this.entries = new LinkedList<Entry>();
+    }
+
+    /**
+     * Store the bytes for the key, replacing any existing entry.
+     * Return false if the bytes are larger than a segment and could not be stored.
+     */
+    public synchronized boolean put(Object key, byte[] bytes) {
+        remove(key);
+        int length = bytes.length;
+        if (length > this.segmentSize) {
+            return false;
+        }
+        // Entries do not span segments.
+        int offset = (int)(this.position % this.segmentSize);
+        if ((offset + length) > this.segmentSize) {
+            this.position = this.position - offset + this.segmentSize;
+        }
+        if ((this.position + length) > this.capacity) {
+            this.position = 0;
+        }
+        // Evict the oldest entries occupying the space.
+        long end = this.position + length;
+        while (!this.entries.isEmpty()) {
+            Entry oldest = this.entries.getFirst();
+            if ((oldest.position >= end) || ((oldest.position + oldest.length) <= this.position)) {
+                break;
+            }
+            this.entries.removeFirst();
+            if (!oldest.isRemoved) {
+                this.index.remove(oldest.key);
+                this.usedBytes = this.usedBytes - oldest.length;
+                this.evictions++;
+            }
+        }
+        ByteBuffer segment = getSegment(this.position);
+        segment.position((int)(this.position % this.segmentSize));
+        segment.put(bytes);
+        Entry entry = new Entry(key, this.position, length);
+        this.index.put(key, entry);
+        this.entries.addLast(entry);
+        this.usedBytes = this.usedBytes + length;
+        this.position = end;
+        return true;
+    }
+
+    /**
+     * Return a copy of the bytes stored for the key, or null.
+     */
+    public synchronized byte[] get(Object key) {
+        Entry entry = this.index.get(key);
+        if (entry == null) {
+            return null;
+        }
+        byte[] bytes = new byte[entry.length];
+        ByteBuffer segment = getSegment(entry.position);
+        segment.position((int)(entry.position % this.segmentSize));
+        segment.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Return if bytes are stored for the key.
+     */
+    public synchronized boolean containsKey(Object key) {
+        return this.index.containsKey(key);
+    }
+
+    /**
+     * Remove the entry for the key, return if it existed.
+     * Its space is reused when the write position reaches it.
+     */
+    public synchronized boolean remove(Object key) {
+        Entry entry = this.index.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        entry.isRemoved = true;
+        this.usedBytes = this.usedBytes - entry.length;
+        return true;
+    }
+
+    /**
+     * Remove all entries, the segments are kept.
+     */
+    public synchronized void clear() {
+        this.index.clear();
+        this.entries.clear();
+        this.position = 0;
+        this.usedBytes = 0;
+    }
+
+    protected ByteBuffer getSegment(long position) {
+        int segmentIndex = (int)(position / this.segmentSize);
+        ByteBuffer segment = this.segments[segmentIndex];
+        if (segment == null) {
+            segment = ByteBuffer.allocateDirect(this.segmentSize);
+            this.segments[segmentIndex] = segment;
+        }
+        return segment;
+    }
+
+    /**
+     * Return the capacity in bytes.
+     */
+    public long getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Return the number of bytes allocated for segments.
+     */
+    public synchronized long getAllocatedBytes() {
+        long allocated = 0;
+        for (int index = 0; index < this.segments.length; index++) {
+            if (this.segments[index] != null) {
+                allocated = allocated + this.segmentSize;
+            }
+        }
+        return allocated;
+    }
+
+    /**
+     * Return the number of bytes used by stored entries.
+     */
+    public synchronized long getUsedBytes() {
+        return this.usedBytes;
+    }
+
+    /**
+     * Return the number of stored entries.
+     */
+    public synchronized int getSize() {
+        return this.index.size();
+    }
+
+    /**
+     * Return the number of entries evicted to make space for new entries.
+     */
+    public synchronized long getEvictions() {
+        return this.evictions;
+    }
+
+    /**
+     * Position and length of an entry.
+     */
+    protected static class Entry {
+        protected Object key;
+        protected long position;
+        protected int length;
+        protected boolean isRemoved;
+
+        protected Entry(Object key, long position, int length) {
+            this.key = key;
+            this.position = position;
+            this.length = length;
+        }
+    }
+}
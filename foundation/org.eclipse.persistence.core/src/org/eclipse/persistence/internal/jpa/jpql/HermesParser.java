@@ -297,6 +297,15 @@ public final class HermesParser implements JPAQueryBuilder {
 		}
 	}
 
+	/**
+	 * Returns the validation level used to validate the JPQL queries.
+	 *
+	 * @return One of the constants defined in {@link ParserValidationType}
+	 */
+	public String getValidationLevel() {
+		return validationLevel;
+	}
+
 	private ResourceBundle resourceBundle() {
 		return ResourceBundle.getBundle(JPQLQueryProblemResourceBundle.class.getName());
 	}
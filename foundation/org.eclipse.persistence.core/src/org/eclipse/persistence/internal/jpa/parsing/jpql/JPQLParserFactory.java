@@ -15,6 +15,7 @@ package org.eclipse.persistence.internal.jpa.parsing.jpql;
 import org.eclipse.persistence.internal.jpa.parsing.JPQLParseTree;
 import org.eclipse.persistence.queries.ObjectLevelReadQuery;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.sessions.SessionProfiler;
 import org.eclipse.persistence.queries.DatabaseQuery;
 
 /**
@@ -52,9 +53,11 @@ public class JPQLParserFactory {
             JPQLParseTree parseTree = parser.getParseTree();
             parseTree.populateQuery(query, session);
             if (isCacheable) {
+                session.incrementProfile(SessionProfiler.JpqlParseCacheMisses);
                 session.getProject().getJPQLParseCache().put(jpqlString, query);
             }
         } else {
+            session.incrementProfile(SessionProfiler.JpqlParseCacheHits);
             query.prepareFromQuery(cachedQuery);
             query.setIsPrepared(true);
         }
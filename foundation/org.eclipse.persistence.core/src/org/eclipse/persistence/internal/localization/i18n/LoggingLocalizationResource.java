@@ -138,6 +138,8 @@ public class LoggingLocalizationResource extends ListResourceBundle {
         { "error_executing_remote_command", "{0} command failed due to: {1}" },
         { "problem_adding_connection", "Could not add remote connection from {0} due to error: {1}" },
         { "problem_reconnect_to_jms", "Could not reconnect to JMS Topic name {0} due to error: {1}" },        
+        { "nio_listener_stopped_on_error", "Warning: {0} stopped due to error: {1}" },
+        { "nio_invalid_frame_length", "Warning: closed the connection from {0}, the frame length {1} is invalid or larger than the max received frame size {2}." },
 
         { "toplink_severe", "[EL Severe]: " },
         { "toplink_warning", "[EL Warning]: " },
@@ -411,7 +413,7 @@ public class LoggingLocalizationResource extends ListResourceBundle {
         { "persistence_unit_processor_null_temp_classloader", "The classLoader for PersistenceLoadProcessor [{0}] is null. Weaving has been disabled for this session. EclipseLink may be unable to get a spec mandated temporary class loader from the server, you may be able to use static weaving as an optional workaround. "},        
         { "persistence_unit_processor_npe_temp_classloader", "The classLoader [{0}] for PersistenceLoadProcessor [{1}] is causing a NPE on loadClass. Switching classLoader to [{2}].  Weaving has been disabled for this session. EclipseLink may be unable to get a spec mandated temporary class loader from the server, you may be able to use static weaving as an optional workaround. "},
         { "persistence_unit_processor_jboss_temp_classloader_bypassed", "The temporary classLoader for PersistenceLoadProcessor [{0}] is not available.  Switching classLoader to [{1}].  Weaving has been disabled for this session. EclipseLink may be unable to get a spec mandated temporary class loader from the server, you may be able to use static weaving as an optional workaround. "},        
-        { "persistence_unit_processor_sap_temp_classloader_bypassed", "The temporary classLoader for PersistenceLoadProcessor [{0}] is not available.  Switching classLoader to [{1}].  Weaving has been disabled for this session. EclipseLink may be unable to get a spec mandated temporary class loader from the server, you may be able to use static weaving as an optional workaround. "},        
+        { "persistence_unit_processor_sap_temp_classloader_bypassed", "The temporary classLoader for PersistenceLoadProcessor [{0}] is not available.  Switching classLoader to [{1}].  Weaving has been disabled for this session. EclipseLink may be unable to get a spec mandated temporary class loader from the server, you may be able to use static weaving as an optional workaround. "},        
         { "persistence_unit_processor_error_in_class_forname_weaving_disabled", "The classLoader [{0}]: failed to load class [{1}]. Weaving has been disabled for this session. EclipseLink may be unable to get a spec mandated temporary class loader from the server, you may be able to use static weaving as an optional workaround. "},        
         { "entity_manager_sets_property_while_context_is_active", "Property {0} is set into EntityManager when active persistence context already exists, it will be processed and take effect only when a new active persistence context is created. To create a new active persistence context the existing one should be removed - that could be done by calling clear method on the EntityManager."},
         { "osgi_initializer_failed", "Construction of environment specific OSGi initializer, [{0}] failed with message: [{1}]."},
@@ -755,7 +757,9 @@ public class LoggingLocalizationResource extends ListResourceBundle {
         { "metamodel_type_collection_empty_during_lookup.MSGID", "TOP-50251" },        
         { "entity_not_available_during_merge.MSGID", "TOP-50247"},
         
-        { "unknown_ddl_generation_property.MSGID", "TOP-50252" }
+        { "unknown_ddl_generation_property.MSGID", "TOP-50252" },
+        { "nio_listener_stopped_on_error.MSGID", "TOP-50253" },
+        { "nio_invalid_frame_length.MSGID", "TOP-50254" }
         
         /**
          * Note: Each MSGID and TOP-NNNNN key above must have a corresponding 
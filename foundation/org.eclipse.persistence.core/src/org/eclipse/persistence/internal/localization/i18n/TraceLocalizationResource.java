@@ -146,6 +146,7 @@ public class TraceLocalizationResource extends ListResourceBundle {
                                            { "sequencing_afterTransactionCommitted", "local sequencing preallocation is copied to preallocation after transaction commit" },
                                            { "sequencing_afterTransactionRolledBack", "local sequencing preallocation is discarded after transaction roll back" },
                                            { "sequencing_preallocation", "sequencing preallocation for {0}: objects: {1} , first: {2}, last: {3}" },
+                                           { "sequencing_background_preallocation", "background sequencing preallocation for {0}: objects: {1} , first: {2}, last: {3}" },
                                            { "starting_rcm", "Starting Remote Command Manager {0}" },
                                            { "stopping_rcm", "Stopping Remote Command Manager {0}" },
                                            { "initializing_discovery_resources", "Initializing discovery resources - group={0} port={1}" },
@@ -171,6 +172,12 @@ public class TraceLocalizationResource extends ListResourceBundle {
                                            { "discovery_manager_stopped", "RCM Discovery Manager stopped" },
                                            { "announcement_sent", "RCM service announcement sent out to cluster" },
                                            { "announcement_received", "RCM service announcement received from {0}" },
+                                           { "nio_local_connection_bound", "RCM NIO transport listening for commands at {0}" },
+                                           { "nio_invalid_url", "RCM NIO transport could not connect to invalid URL {0}" },
+                                           { "project_cache_version_mismatch", "The project cache file {0} was written by a different version and is ignored." },
+                                           { "lazy_descriptors_initialized", "Initialized {0} descriptors on first use of [{1}], {2} descriptors are not initialized." },
+                                           { "lazy_descriptor_initialization", "Descriptors are initialized on first use, {0} of {1} descriptors were initialized at login." },
+                                           { "jpql_plan_cache_warm_up", "Parsed {0} named queries into the JPQL plan cache in {1} ms using {2} threads." },
                                            { "creating_session_broker", "Creating session broker: {0}" },
                                            { "creating_database_session", "Creating database session: {0}" },
                                            { "creating_server_session", "Creating server session: {0}" },
@@ -251,6 +258,7 @@ public class TraceLocalizationResource extends ListResourceBundle {
                                            { "weaved_changetracker", "Weaved change tracking (ChangeTracker) [{0}]."},
                                            { "weaved_persistenceentity", "Weaved persistence (PersistenceEntity) [{0}]."},
                                            { "weaved_rest", "Weaved REST [{0}]."},
+                                           { "generated_accessor_class", "Generated accessor class [{0}] for [{1}] attributes."},
                                            { "cmp_init_invoke_predeploy", "JavaSECMPInitializer - predeploying {0}."},
                                            { "cmp_init_register_transformer", "JavaSECMPInitializer - registering transformer for {0}."},
                                            { "cmp_init_tempLoader_created", "JavaSECMPInitializer - created temporary ClassLoader: {0}."},
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.oxm.record.json;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Compact JSON value read by the JSONTokenizer.
+ * <p>An OBJECT has PAIR children, a PAIR has the name as its text and the value as its only child,
+ * an ARRAY has value children, STRING and NUMBER values have their (unescaped) text.
+ * TRUE, FALSE and NULL are shared constants.
+ */
+final class JSONNode {
+
+    public static final int OBJECT = 0;
+    public static final int PAIR = 1;
+    public static final int ARRAY = 2;
+    public static final int STRING = 3;
+    public static final int NUMBER = 4;
+    public static final int TRUE = 5;
+    public static final int FALSE = 6;
+    public static final int NULL = 7;
+
+    public static final JSONNode TRUE_VALUE = new JSONNode(TRUE, null);
+    public static final JSONNode FALSE_VALUE = new JSONNode(FALSE, null);
+    public static final JSONNode NULL_VALUE = new JSONNode(NULL, null);
+
+    private static final List<JSONNode> NO_CHILDREN = new ArrayList<JSONNode>(0);
+
+    private final int type;
+    private final String text;
+    private List<JSONNode> children;
+
+    public JSONNode(int type, String text) {
+        this.type = type;
+        this.text = text;
+        this.children = NO_CHILDREN;
+    }
+
+    public int getType() {
+        return type;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public int getChildCount() {
+        return children.size();
+    }
+
+    public JSONNode getChild(int index) {
+        return children.get(index);
+    }
+
+    /**
+     * Return the value of a PAIR.
+     */
+    public JSONNode getValue() {
+        return children.get(0);
+    }
+
+    public void addChild(JSONNode child) {
+        if (children == NO_CHILDREN) {
+            if (type == PAIR) {
+                children = new ArrayList<JSONNode>(1);
+            } else {
+                children = new ArrayList<JSONNode>();
+            }
+        }
+        children.add(child);
+    }
+}
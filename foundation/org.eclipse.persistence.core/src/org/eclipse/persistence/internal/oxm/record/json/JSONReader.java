@@ -16,6 +16,8 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
@@ -27,14 +29,6 @@ import java.util.Properties;
 import javax.xml.namespace.QName;
 
 import org.eclipse.persistence.exceptions.XMLMarshalException;
-import org.eclipse.persistence.internal.libraries.antlr.runtime.ANTLRInputStream;
-import org.eclipse.persistence.internal.libraries.antlr.runtime.ANTLRReaderStream;
-import org.eclipse.persistence.internal.libraries.antlr.runtime.CharStream;
-import org.eclipse.persistence.internal.libraries.antlr.runtime.RecognitionException;
-import org.eclipse.persistence.internal.libraries.antlr.runtime.TokenRewriteStream;
-import org.eclipse.persistence.internal.libraries.antlr.runtime.TokenStream;
-import org.eclipse.persistence.internal.libraries.antlr.runtime.tree.CommonTree;
-import org.eclipse.persistence.internal.libraries.antlr.runtime.tree.Tree;
 import org.eclipse.persistence.internal.oxm.CollectionGroupingElementNodeValue;
 import org.eclipse.persistence.internal.oxm.Constants;
 import org.eclipse.persistence.internal.oxm.ContainerValue;
@@ -60,6 +54,12 @@ import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
 import org.xml.sax.helpers.AttributesImpl;
 
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Report the content of a JSON document as SAX events.
+ * <p>Each object is read in whole before its element is started, as any of its pairs, wherever it is in the object,
+ * may be reported as an attribute of the element. The items of a root array are read and unmarshalled one at a time.
+ */
 public class JSONReader extends XMLReaderAdapter {
 
     private static final String TRUE = "true";
@@ -71,6 +71,7 @@ public class JSONReader extends XMLReaderAdapter {
     private String textWrapper;
     private Class unmarshalClass;
     private boolean isInCollection;
+    private JSONTokenizer tokenizer;
 
     public JSONReader(String attrPrefix, NamespaceResolver nr, boolean namespaceAware, boolean includeRoot, Character namespaceSeparator, ErrorHandler errorHandler, String textWrapper){
         this(attrPrefix, nr, namespaceAware, includeRoot, namespaceSeparator, errorHandler, textWrapper, null);        
@@ -98,41 +99,161 @@ public class JSONReader extends XMLReaderAdapter {
 
 	@Override
     public void parse(InputSource input) throws IOException, SAXException {
-        try {
-            CharStream charStream;
-            InputStream inputStream = null;
-            if(null != input.getByteStream()) {
-                charStream = new ANTLRInputStream(input.getByteStream());
-            } else if (null != input.getCharacterStream()){
-                charStream = new ANTLRReaderStream(input.getCharacterStream());
-            } else {
+        Reader reader;
+        InputStream inputStream = null;
+        if(null != input.getByteStream()) {
+            reader = createReader(input.getByteStream(), input.getEncoding());
+        } else if (null != input.getCharacterStream()){
+            reader = input.getCharacterStream();
+        } else {
+            try {
+                URL url = new URL(input.getSystemId());
+                inputStream = url.openStream();
+            } catch(MalformedURLException malformedURLException) {
                 try {
-                    URL url = new URL(input.getSystemId());
-                    inputStream = url.openStream();
-                } catch(MalformedURLException malformedURLException) {
-                    try {
-                        inputStream = new FileInputStream(input.getSystemId());
-                    } catch(FileNotFoundException fileNotFoundException) {
-                        throw malformedURLException;
-                    }
+                    inputStream = new FileInputStream(input.getSystemId());
+                } catch(FileNotFoundException fileNotFoundException) {
+                    throw malformedURLException;
                 }
-                charStream = new ANTLRInputStream(inputStream);
             }
-            JSONLexer lexer = new JSONLexer(charStream);
-            TokenRewriteStream tokens = new TokenRewriteStream(lexer);
-            ExtendedJSONParser parser = new ExtendedJSONParser(tokens, input, getErrorHandler());                 
-            CommonTree commonTree = (CommonTree) parser.message().getTree();
-            parseRoot(commonTree);
+            reader = createReader(inputStream, input.getEncoding());
+        }
+        JSONTokenizer tokenizer = new JSONTokenizer(reader, input, getErrorHandler());
+        this.tokenizer = tokenizer;
+        try {
+            int token = tokenizer.nextToken();
+            if(token == JSONTokenizer.START_OBJECT) {
+                parseRoot(readObject());
+            } else if(token == JSONTokenizer.START_ARRAY) {
+                parseRootArray();
+            } else {
+                throw tokenizer.error("expected an object or an array");
+            }
+        } catch(SAXParseException e) {
+            // The error handler did not throw the syntax error, parsing stops at the error.
+            if(e != tokenizer.getIgnoredError()) {
+                throw e;
+            }
+        } finally {
+            this.tokenizer = null;
             if(null != inputStream) {
                 inputStream.close();
             }
-        } catch(RecognitionException e) {
-            SAXParseException saxParseException = new SAXParseException(e.getLocalizedMessage(), input.getPublicId(), input.getSystemId(), e.line, e.index, e);
-            getErrorHandler().fatalError(saxParseException);
-        } catch(SAXExceptionWrapper e){
-    	   throw e.getCause();
         }
-       }
+    }
+
+    private static Reader createReader(InputStream inputStream, String encoding) throws IOException {
+        if(null == encoding) {
+            return new InputStreamReader(inputStream);
+        }
+        return new InputStreamReader(inputStream, encoding);
+    }
+
+    /**
+     * Read the value starting with the token in whole.
+     */
+    private JSONNode readValue(int token) throws IOException, SAXException {
+        switch(token) {
+        case JSONTokenizer.START_OBJECT:
+            return readObject();
+        case JSONTokenizer.START_ARRAY:
+            return readArray(tokenizer.nextToken());
+        case JSONTokenizer.STRING:
+            return new JSONNode(JSONNode.STRING, tokenizer.getText());
+        case JSONTokenizer.NUMBER:
+            return new JSONNode(JSONNode.NUMBER, tokenizer.getText());
+        case JSONTokenizer.TRUE:
+            return JSONNode.TRUE_VALUE;
+        case JSONTokenizer.FALSE:
+            return JSONNode.FALSE_VALUE;
+        case JSONTokenizer.NULL:
+            return JSONNode.NULL_VALUE;
+        default:
+            throw tokenizer.error("expected a value");
+        }
+    }
+
+    private JSONNode readObject() throws IOException, SAXException {
+        JSONNode object = new JSONNode(JSONNode.OBJECT, null);
+        int token = tokenizer.nextToken();
+        if(token != JSONTokenizer.END_OBJECT) {
+            readPairs(object, token);
+        }
+        return object;
+    }
+
+    /**
+     * Read the name and the colon of a pair, starting with the token of the name.
+     */
+    private String readName(int token) throws IOException, SAXException {
+        if(token != JSONTokenizer.STRING) {
+            throw tokenizer.error("expected a name");
+        }
+        String name = tokenizer.getText();
+        if(tokenizer.nextToken() != JSONTokenizer.COLON) {
+            throw tokenizer.error("expected ':'");
+        }
+        return name;
+    }
+
+    /**
+     * Read the pairs of an object up to its end, starting with the token of the first name.
+     */
+    private void readPairs(JSONNode object, int token) throws IOException, SAXException {
+        while(true) {
+            JSONNode pair = new JSONNode(JSONNode.PAIR, readName(token));
+            pair.addChild(readValue(tokenizer.nextToken()));
+            object.addChild(pair);
+            token = tokenizer.nextToken();
+            if(token == JSONTokenizer.END_OBJECT) {
+                return;
+            } else if(token != JSONTokenizer.COMMA) {
+                throw tokenizer.error("expected ',' or '}'");
+            }
+            token = tokenizer.nextToken();
+        }
+    }
+
+    /**
+     * Read the array up to its end, starting with the token that follows '['.
+     */
+    private JSONNode readArray(int token) throws IOException, SAXException {
+        JSONNode array = new JSONNode(JSONNode.ARRAY, null);
+        readItems(array, token);
+        return array;
+    }
+
+    private void readItems(JSONNode array, int token) throws IOException, SAXException {
+        if(token == JSONTokenizer.END_ARRAY) {
+            return;
+        }
+        while(true) {
+            array.addChild(readValue(token));
+            token = tokenizer.nextToken();
+            if(token == JSONTokenizer.END_ARRAY) {
+                return;
+            } else if(token != JSONTokenizer.COMMA) {
+                throw tokenizer.error("expected ',' or ']'");
+            }
+            token = tokenizer.nextToken();
+        }
+    }
+
+    /**
+     * Read the token that follows an array item, return the token that starts the next item or END_ARRAY.
+     */
+    private int readItemSeparator() throws IOException, SAXException {
+        int token = tokenizer.nextToken();
+        if(token == JSONTokenizer.COMMA) {
+            token = tokenizer.nextToken();
+            if(token == JSONTokenizer.END_ARRAY) {
+                throw tokenizer.error("expected a value");
+            }
+        } else if(token != JSONTokenizer.END_ARRAY) {
+            throw tokenizer.error("expected ',' or ']'");
+        }
+        return token;
+    }
 
     @Override
     public void parse(String systemId) {
@@ -145,8 +266,36 @@ public class JSONReader extends XMLReaderAdapter {
         }
     }
 
-    private void parseRoot(Tree tree) throws SAXException {
-    	
+    /**
+     * The elements of a root array are read and unmarshalled one at a time,
+     * each is unmarshalled like a root object.
+     */
+    private void parseRootArray() throws IOException, SAXException {
+        startPrefixMappings();
+        SAXUnmarshallerHandler rootContentHandler = null;  
+        if(getContentHandler() instanceof SAXUnmarshallerHandler) {
+            rootContentHandler = (SAXUnmarshallerHandler)getContentHandler();
+        }
+        List list = new ArrayList();
+        int token = tokenizer.nextToken();
+        if(token != JSONTokenizer.END_ARRAY) {
+            while(true) {
+                if(token == JSONTokenizer.START_ARRAY) {
+                    parseRootArray();
+                } else {
+                    parseRoot(readValue(token));
+                }
+                addRootArrayItem(list);
+                token = readItemSeparator();
+                if(token == JSONTokenizer.END_ARRAY) {
+                    break;
+                }
+            }
+        }
+        setRootArrayResult(list, rootContentHandler);
+    }
+
+    private void startPrefixMappings() throws SAXException {
     	if(namespaces != null){
     		Map <String, String> namespacePairs = namespaces.getPrefixesToNamespaces();
     		Iterator<String> keys = namespacePairs.keySet().iterator();
@@ -155,96 +304,134 @@ public class JSONReader extends XMLReaderAdapter {
     			contentHandler.startPrefixMapping(nextKey, namespacePairs.get(nextKey));	
     		}
     	}
+    }
+
+    /**
+     * Parse a root object, or the simple value of a root array item which has no content.
+     */
+    private void parseRoot(JSONNode tree) throws IOException, SAXException {
+    	
+    	startPrefixMappings();
     		    	
-    	if(tree.getType() == JSONLexer.OBJECT){
+    	if(tree.getType() == JSONNode.OBJECT){
     	    contentHandler.startDocument();
     		int children = tree.getChildCount();
     		if(children == 0 && unmarshalClass == null){
     			return;
     		}
     		if(includeRoot){
-    			parse((CommonTree) tree.getChild(0));
+    			// Only the first pair is the root.
+    			if(children > 0){
+    				parse(tree.getChild(0));
+    			}
     		}else{
     			if(children == 1){
-    				CommonTree ct = (CommonTree) tree.getChild(0);
-    				if(ct != null && ct.getType() == JSONLexer.NULL){
+    				JSONNode ct = tree.getChild(0);
+    				if(ct != null && ct.getType() == JSONNode.NULL){
     					contentHandler.setNil(true);
     				}
+    			}
     			contentHandler.startElement(Constants.EMPTY_STRING, Constants.EMPTY_STRING, null, attributes.setTree(tree, attributePrefix, namespaces, namespaceSeparator, namespaceAware));
-    				parse(ct);
-	    			contentHandler.endElement(Constants.EMPTY_STRING,Constants.EMPTY_STRING, null);
-    			}else{
-	    			contentHandler.startElement(Constants.EMPTY_STRING, Constants.EMPTY_STRING, null, attributes.setTree(tree, attributePrefix, namespaces, namespaceSeparator, namespaceAware));
-	    			for(int x=0, size=children; x<size; x++) {
-	    	           parse((CommonTree) tree.getChild(x));
-	    	        }
+    			parse(tree);
     			contentHandler.endElement(Constants.EMPTY_STRING,Constants.EMPTY_STRING, null);
-    			}
     		}
     		contentHandler.endDocument();
-        } else if(tree.getType() == JSONLexer.ARRAY){
-        	
-        	SAXUnmarshallerHandler rootContentHandler = null;  
-      	    if(getContentHandler() instanceof SAXUnmarshallerHandler) {
-      		  rootContentHandler = (SAXUnmarshallerHandler)getContentHandler();
-      	    }
-      	
-            int size = tree.getChildCount();
-            List list = new ArrayList(size);
-            for(int x=0; x<size; x++) {
-                parseRoot(tree.getChild(x));
-                if(getContentHandler() instanceof SAXUnmarshallerHandler) {
-                    SAXUnmarshallerHandler saxUnmarshallerHandler = (SAXUnmarshallerHandler) contentHandler;
-                    list.add(saxUnmarshallerHandler.getObject());
-                    saxUnmarshallerHandler.setObject(null);
-                } else if(getContentHandler() instanceof UnmarshalRecord) {
-                    UnmarshalRecord unmarshalRecord = (UnmarshalRecord) contentHandler;
-                    Object unmarshalledObject = unmarshalRecord.getCurrentObject();
-                    if(includeRoot && unmarshalClass != null){
-                        if(!(unmarshalledObject instanceof Root)) {
-                            Root xmlRoot = unmarshalRecord.createRoot();
-                            xmlRoot.setNamespaceURI(unmarshalRecord.getRootElementNamespaceUri());
-                            xmlRoot.setLocalName(unmarshalRecord.getLocalName());
-                            xmlRoot.setObject(unmarshalledObject);
-                            unmarshalledObject = xmlRoot;
-                        }
-                    }
-                    list.add(unmarshalledObject);
-                    unmarshalRecord.setCurrentObject(null);
-                    unmarshalRecord.setRootElementName(null);
-            		unmarshalRecord.setLocalName(null);
+        }
+    }
+
+    /**
+     * Add the object unmarshalled for the current root array item to the list.
+     */
+    private void addRootArrayItem(List list) {
+        if(getContentHandler() instanceof SAXUnmarshallerHandler) {
+            SAXUnmarshallerHandler saxUnmarshallerHandler = (SAXUnmarshallerHandler) contentHandler;
+            list.add(saxUnmarshallerHandler.getObject());
+            saxUnmarshallerHandler.setObject(null);
+        } else if(getContentHandler() instanceof UnmarshalRecord) {
+            UnmarshalRecord unmarshalRecord = (UnmarshalRecord) contentHandler;
+            Object unmarshalledObject = unmarshalRecord.getCurrentObject();
+            if(includeRoot && unmarshalClass != null){
+                if(!(unmarshalledObject instanceof Root)) {
+                    Root xmlRoot = unmarshalRecord.createRoot();
+                    xmlRoot.setNamespaceURI(unmarshalRecord.getRootElementNamespaceUri());
+                    xmlRoot.setLocalName(unmarshalRecord.getLocalName());
+                    xmlRoot.setObject(unmarshalledObject);
+                    unmarshalledObject = xmlRoot;
                 }
             }
-            if(getContentHandler() instanceof SAXUnmarshallerHandler) {
-                ((SAXUnmarshallerHandler) getContentHandler()).setObject(list);
-            } else if(getContentHandler() instanceof UnmarshalRecord) {
-                ((UnmarshalRecord) getContentHandler()).setCurrentObject(list);
-               	((UnmarshalRecord) getContentHandler()).setRootElementName(Constants.EMPTY_STRING);
-               	((UnmarshalRecord) getContentHandler()).setLocalName(Constants.EMPTY_STRING);
-                if(rootContentHandler != null){
-                	rootContentHandler.setObject(list);
-                }
+            list.add(unmarshalledObject);
+            unmarshalRecord.setCurrentObject(null);
+            unmarshalRecord.setRootElementName(null);
+            unmarshalRecord.setLocalName(null);
+        }
+    }
+
+    /**
+     * Set the list of objects unmarshalled from a root array as the result.
+     */
+    private void setRootArrayResult(List list, SAXUnmarshallerHandler rootContentHandler) {
+        if(getContentHandler() instanceof SAXUnmarshallerHandler) {
+            ((SAXUnmarshallerHandler) getContentHandler()).setObject(list);
+        } else if(getContentHandler() instanceof UnmarshalRecord) {
+            ((UnmarshalRecord) getContentHandler()).setCurrentObject(list);
+            ((UnmarshalRecord) getContentHandler()).setRootElementName(Constants.EMPTY_STRING);
+            ((UnmarshalRecord) getContentHandler()).setLocalName(Constants.EMPTY_STRING);
+            if(rootContentHandler != null){
+                rootContentHandler.setObject(list);
             }
-            
         }
     }
     
-    private void parse(Tree tree) throws SAXException {
+    private void parse(JSONNode tree) throws IOException, SAXException {
     	if(tree == null){
     		return;
     	}
     	
         switch(tree.getType()) {
-        case JSONLexer.PAIR: {
-            Tree valueTree = tree.getChild(1);
-            if(valueTree.getType() == JSONLexer.ARRAY) {
-                parse(valueTree);
-            } else {            	
-                Tree stringTree = tree.getChild(0);
-                String qualifiedName = stringTree.getText().substring(1, stringTree.getText().length() - 1);
+        case JSONNode.PAIR: {
+            parsePair(tree.getText(), tree.getValue());
+            break;
+        }
+        case JSONNode.STRING:
+        case JSONNode.NUMBER: {
+            contentHandler.characters(tree.getText());
+            break;
+        }
+        case JSONNode.TRUE: {
+            contentHandler.characters(TRUE);
+            break;
+        }
+        case JSONNode.FALSE: {
+            contentHandler.characters(FALSE);
+            break;
+        }
+        case JSONNode.NULL: {
+            break;
+        }
+        case JSONNode.ARRAY: {
+            // Arrays are parsed by parseArray, with the name their items are reported with.
+            break;
+        }
+        default: {
+            for(int x=0, size=tree.getChildCount(); x<size; x++) {
+                parse(tree.getChild(x));
+            }
+        }
+        }
+    }
+
+    private void parsePair(String qualifiedName, JSONNode valueTree) throws IOException, SAXException {
+        if(valueTree.getType() == JSONNode.ARRAY) {
+            parseArray(valueTree, qualifiedName);
+        } else {
+            parseElement(qualifiedName, valueTree);
+        }
+    }
+
+    private void parseElement(String qualifiedName, JSONNode valueTree) throws IOException, SAXException {
                 String localName = qualifiedName;
                 if(attributePrefix != null && qualifiedName.startsWith(attributePrefix)){
-                	break;
+                	return;
                 }
                 String uri = Constants.EMPTY_STRING;
  
@@ -262,7 +449,7 @@ public class JSONReader extends XMLReaderAdapter {
                             localName = localName.substring(nsIndex + 1);
                         }
                         if(localName.equals(Constants.SCHEMA_TYPE_ATTRIBUTE) && uri.equals(javax.xml.XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI)){
-                            break;
+                            return;
                         }   
                     }else{
                         uri = namespaces.getDefaultNamespaceURI();
@@ -272,85 +459,66 @@ public class JSONReader extends XMLReaderAdapter {
                 if(contentHandler instanceof XMLRootRecord || contentHandler instanceof DeferredContentHandler){
                 	//if its not namespaceAware don't report the "type" child as it is will be read by the xsi:type lookup
                 	if(!namespaceAware && localName.equals(Constants.SCHEMA_TYPE_ATTRIBUTE)){
-                		break;
+                		return;
                     }
                 	if(textWrapper != null && textWrapper.equals(localName)){
                     	parse(valueTree);
-                    	break;
+                    	return;
                     }
                 }else if(contentHandler instanceof UnmarshalRecord && ((UnmarshalRecord)contentHandler).getXPathNode() != null){
                 	if(!namespaceAware && localName.equals(Constants.SCHEMA_TYPE_ATTRIBUTE) && !((UnmarshalRecord)contentHandler).getXPathNode().hasTypeChild()){
-                		break;
+                		return;
                 	}
                 	boolean isTextValue = isTextValue(localName);
                 	if(isTextValue){
                 		  parse(valueTree);
-             		      break;
+             		      return;
                 	}
                 }
-                if(valueTree != null && valueTree.getType() == JSONLexer.NULL){
+                if(valueTree != null && valueTree.getType() == JSONNode.NULL){
                 	contentHandler.setNil(true);
                 }
              
                 contentHandler.startElement(uri, localName, localName, attributes.setTree(valueTree, attributePrefix, namespaces, namespaceSeparator, namespaceAware));
                 parse(valueTree);
                 contentHandler.endElement(uri, localName, localName);                
-            }
-            break;
-        }
-        case JSONLexer.STRING: {
-            String string = string(tree.getChild(0).getText());
-            contentHandler.characters(string);
-            break;
-        }
-        case JSONLexer.NUMBER: {
-            contentHandler.characters(tree.getChild(0).getText());
-            break;
-        }
-        case JSONLexer.TRUE: {
-            contentHandler.characters(TRUE);
-            break;
-        }
-        case JSONLexer.FALSE: {
-            contentHandler.characters(FALSE);
-            break;
-        }
-        case JSONLexer.NULL: {
-            break;
+    }
+    
+    /**
+     * Parse the array value of the pair named parentLocalName, each item is reported as an element of that name.
+     * The items of an array nested in the array are reported as elements of the same name within the item element.
+     */
+    private void parseArray(JSONNode tree, String parentLocalName) throws IOException, SAXException {
+        if(attributePrefix != null && parentLocalName.startsWith(attributePrefix)){
+        	return;
         }
-        case JSONLexer.ARRAY: {
-            Tree parentStringTree = tree.getParent().getChild(0);
-            String parentLocalName = parentStringTree.getText().substring(1, parentStringTree.getText().length() - 1);
-            
-            if(attributePrefix != null && parentLocalName.startsWith(attributePrefix)){
-            	break;
-            }
-            
-            String uri = Constants.EMPTY_STRING;
-            if(namespaceAware && namespaces != null){                
-                if(parentLocalName.length() > 2){
-                	int nsIndex = parentLocalName.indexOf(namespaceSeparator, 1);
-                	if(nsIndex > -1){
-                		String prefix = parentLocalName.substring(0, nsIndex);
-                		uri = namespaces.resolveNamespacePrefix(prefix);                		
-                	}
-                	if(uri == null){
-                        uri = namespaces.getDefaultNamespaceURI();
-                    }else{
-                        parentLocalName = parentLocalName.substring(nsIndex + 1);
-                    }
-                }else{
+        String qualifiedName = parentLocalName;
+        
+        String uri = Constants.EMPTY_STRING;
+        if(namespaceAware && namespaces != null){                
+            if(parentLocalName.length() > 2){
+            	int nsIndex = parentLocalName.indexOf(namespaceSeparator, 1);
+            	if(nsIndex > -1){
+            		String prefix = parentLocalName.substring(0, nsIndex);
+            		uri = namespaces.resolveNamespacePrefix(prefix);                		
+            	}
+            	if(uri == null){
                     uri = namespaces.getDefaultNamespaceURI();
-                }  
-            }         
-                             
+                }else{
+                    parentLocalName = parentLocalName.substring(nsIndex + 1);
+                }
+            }else{
+                uri = namespaces.getDefaultNamespaceURI();
+            }  
+        }         
+                         
         	boolean isTextValue = isTextValue(parentLocalName);           
-            int size = tree.getChildCount();
-            if(size == 0){       
-            	if(contentHandler instanceof UnmarshalRecord){
-            		UnmarshalRecord ur = (UnmarshalRecord)contentHandler;            	    
-                    XPathNode node = ur.getNonAttributeXPathNode(uri, parentLocalName, parentLocalName, null);
-                    if(node != null){
+        int size = tree.getChildCount();
+        if(size == 0){       
+        	if(contentHandler instanceof UnmarshalRecord){
+        		UnmarshalRecord ur = (UnmarshalRecord)contentHandler;            	    
+                XPathNode node = ur.getNonAttributeXPathNode(uri, parentLocalName, parentLocalName, null);
+                if(node != null){
 	                    NodeValue nv = node.getNodeValue();
 	                    if(nv == null && node.getTextNode() != null){
 	                    	nv = node.getTextNode().getUnmarshalNodeValue();
@@ -358,92 +526,96 @@ public class JSONReader extends XMLReaderAdapter {
 	                    if(nv != null && nv.isContainerValue()){
 	                    	ur.getContainerInstance(((ContainerValue)nv));
 	                    }
-                    }
-            	}
-            }
-            startCollection();
-            
-            if(size == 1){
-				CommonTree ct = (CommonTree) tree.getChild(0);
-				if(ct != null && ct.getType() == JSONLexer.NULL){
+                }
+        	}
+        }
+        startCollection();
+        
+        if(size == 1){
+				JSONNode ct = tree.getChild(0);
+				if(ct != null && ct.getType() == JSONNode.NULL){
 					contentHandler.setNil(true);
 				}
 				if(!isTextValue){
 		         	   contentHandler.startElement(uri, parentLocalName, parentLocalName, attributes.setTree(ct, attributePrefix, namespaces, namespaceSeparator, namespaceAware));
 		         	   }
-		               parse(ct);
+		               parseItem(ct, qualifiedName);
 		               if(!isTextValue){
 		                  contentHandler.endElement(uri, parentLocalName, parentLocalName);
 		               }
 			}else{
-            
+        
 			XPathFragment groupingXPathFragment = null;
 			XPathFragment itemXPathFragment = null;
-            if(contentHandler instanceof UnmarshalRecord) {
-                UnmarshalRecord unmarshalRecord = (UnmarshalRecord) contentHandler;
-                if(unmarshalRecord.getUnmarshaller().isWrapperAsCollectionName()) {
-                    XPathNode unmarshalRecordXPathNode = unmarshalRecord.getXPathNode();
-                    if(null != unmarshalRecordXPathNode) {
-                        XPathFragment currentFragment = new XPathFragment();
-                        currentFragment.setLocalName(parentLocalName);
-                        currentFragment.setNamespaceURI(uri);
-                        currentFragment.setNamespaceAware(namespaceAware);
-                        XPathNode groupingXPathNode = unmarshalRecordXPathNode.getNonAttributeChildrenMap().get(currentFragment);
-                        if(groupingXPathNode != null) {
-                            if(groupingXPathNode.getUnmarshalNodeValue() instanceof CollectionGroupingElementNodeValue) {
-                                groupingXPathFragment = groupingXPathNode.getXPathFragment();
-                                contentHandler.startElement(uri, parentLocalName, parentLocalName, new AttributesImpl());
-                                XPathNode itemXPathNode = groupingXPathNode.getNonAttributeChildren().get(0);
-                                itemXPathFragment = itemXPathNode.getXPathFragment();
-                            } else if(groupingXPathNode.getUnmarshalNodeValue() == null) {
-                                XPathNode itemXPathNode = groupingXPathNode.getNonAttributeChildren().get(0);
-                                if(itemXPathNode != null) {
-                                    if(((MappingNodeValue)itemXPathNode.getUnmarshalNodeValue()).isContainerValue()) {
-                                        groupingXPathFragment = groupingXPathNode.getXPathFragment();
-                                        contentHandler.startElement(uri, parentLocalName, parentLocalName, new AttributesImpl());
-                                         itemXPathFragment = itemXPathNode.getXPathFragment();
-                                    }
+        if(contentHandler instanceof UnmarshalRecord) {
+            UnmarshalRecord unmarshalRecord = (UnmarshalRecord) contentHandler;
+            if(unmarshalRecord.getUnmarshaller().isWrapperAsCollectionName()) {
+                XPathNode unmarshalRecordXPathNode = unmarshalRecord.getXPathNode();
+                if(null != unmarshalRecordXPathNode) {
+                    XPathFragment currentFragment = new XPathFragment();
+                    currentFragment.setLocalName(parentLocalName);
+                    currentFragment.setNamespaceURI(uri);
+                    currentFragment.setNamespaceAware(namespaceAware);
+                    XPathNode groupingXPathNode = unmarshalRecordXPathNode.getNonAttributeChildrenMap().get(currentFragment);
+                    if(groupingXPathNode != null) {
+                        if(groupingXPathNode.getUnmarshalNodeValue() instanceof CollectionGroupingElementNodeValue) {
+                            groupingXPathFragment = groupingXPathNode.getXPathFragment();
+                            contentHandler.startElement(uri, parentLocalName, parentLocalName, new AttributesImpl());
+                            XPathNode itemXPathNode = groupingXPathNode.getNonAttributeChildren().get(0);
+                            itemXPathFragment = itemXPathNode.getXPathFragment();
+                        } else if(groupingXPathNode.getUnmarshalNodeValue() == null) {
+                            XPathNode itemXPathNode = groupingXPathNode.getNonAttributeChildren().get(0);
+                            if(itemXPathNode != null) {
+                                if(((MappingNodeValue)itemXPathNode.getUnmarshalNodeValue()).isContainerValue()) {
+                                    groupingXPathFragment = groupingXPathNode.getXPathFragment();
+                                    contentHandler.startElement(uri, parentLocalName, parentLocalName, new AttributesImpl());
+                                     itemXPathFragment = itemXPathNode.getXPathFragment();
                                 }
                             }
                         }
                     }
                 }
             }
-            for(int x=0; x<size; x++) {
-        	   CommonTree nextChildTree = (CommonTree) tree.getChild(x);
-        	   if(nextChildTree.getType() == JSONLexer.NULL){
+        }
+        for(int x=0; x<size; x++) {
+        	   JSONNode nextChildTree = tree.getChild(x);
+        	   if(nextChildTree.getType() == JSONNode.NULL){
         		   ((UnmarshalRecord)contentHandler).setNil(true);
         	   }
         	   if(!isTextValue){
         	       if(null != itemXPathFragment) {
-                       contentHandler.startElement(itemXPathFragment.getNamespaceURI(), itemXPathFragment.getLocalName(), itemXPathFragment.getLocalName(), attributes.setTree(nextChildTree, attributePrefix, namespaces, namespaceSeparator, namespaceAware));
+                   contentHandler.startElement(itemXPathFragment.getNamespaceURI(), itemXPathFragment.getLocalName(), itemXPathFragment.getLocalName(), attributes.setTree(nextChildTree, attributePrefix, namespaces, namespaceSeparator, namespaceAware));
         	       } else {
         	           contentHandler.startElement(uri, parentLocalName, parentLocalName, attributes.setTree(nextChildTree, attributePrefix, namespaces, namespaceSeparator, namespaceAware));
         	       }
         	   }
-               parse(nextChildTree);
-               if(!isTextValue){
-                   if(null != itemXPathFragment) {
-                       contentHandler.endElement(uri, itemXPathFragment.getLocalName(), itemXPathFragment.getLocalName());
-                   } else {
-                       contentHandler.endElement(uri, parentLocalName, parentLocalName);
-                   }
+           parseItem(nextChildTree, qualifiedName);
+           if(!isTextValue){
+               if(null != itemXPathFragment) {
+                   contentHandler.endElement(uri, itemXPathFragment.getLocalName(), itemXPathFragment.getLocalName());
+               } else {
+                   contentHandler.endElement(uri, parentLocalName, parentLocalName);
                }
-            }
-            if(null != groupingXPathFragment) {
-                contentHandler.endElement(uri, groupingXPathFragment.getLocalName(), groupingXPathFragment.getLocalName());
-            }
-            }
-            endCollection();
-
-            break;
+           }
         }
-        default: {
-            for(int x=0, size=tree.getChildCount(); x<size; x++) {
-                parse((CommonTree) tree.getChild(x));
-            }
+        if(null != groupingXPathFragment) {
+            contentHandler.endElement(uri, groupingXPathFragment.getLocalName(), groupingXPathFragment.getLocalName());
         }
         }
+        endCollection();
+    }
+
+    /**
+     * Parse the content of an array item, the items of a nested array are reported with the name of the array.
+     */
+    private void parseItem(JSONNode item, String qualifiedName) throws IOException, SAXException {
+        if(item.getType() == JSONNode.ARRAY) {
+            parseArray(item, qualifiedName);
+            // The enclosing array continues.
+            startCollection();
+        } else {
+            parse(item);
+        }
     }
     
     public boolean isNullRepresentedByXsiNil(AbstractNullPolicy nullPolicy){
@@ -475,82 +647,6 @@ public class JSONReader extends XMLReaderAdapter {
     			&& textWrapper != null && textWrapper.equals(localName));
     }
     
-    private static String string(String string) {
-    	string = string.substring(1, string.length()-1);
-    	string = string.replace("\r\n", "\n");
-    	String returnString = "";                
-        
-    	int slashIndex = string.indexOf('\\');
-             
-        if(slashIndex == -1){
-            return string;
-        }
-      
-        int position = 0;
-        while(slashIndex > -1){              	        	
-        	String subString = string.substring(position, slashIndex);
-            returnString += subString;
-            position = slashIndex;
-            
-            char nextChar = string.charAt(slashIndex + 1);
-            switch (nextChar){
-               case 'b':{
-            	   position += 2;
-                   returnString += '\b';
-                   break;
-               }
-               case 'r':{
-            	   position += 2;
-                   returnString += '\r';
-                   break;
-               }
-               case 'f':{
-            	   position += 2;
-                   returnString += '\f';
-                   break;
-               }
-               case 'n':{
-            	   position += 2;
-                   returnString += '\n';
-                   break;
-               }
-               case 't': {
-            	   position += 2;
-                   returnString += '\t';
-                   break;
-               }
-               case '"': {
-            	    position += 2;
-                    returnString += '"';
-                    break;
-               }
-               case '\\':{
-            	   position += 2;
-                   returnString += '\\';
-                   break;
-               }
-               case '/':{
-            	   position += 2;
-                   returnString += '/';
-                   break;
-               }
-               case 'u':{
-            	   position += 6;
-                   String hexValue = string.substring(slashIndex+2, slashIndex+6);
-                   returnString += Character.toString((char)Integer.parseInt(hexValue, 16));
-                   break;
-               }
-            }            
-            slashIndex = string.indexOf('\\', position);
-        }
-        //If there is content after the last '\' then append it.
-        if(position < string.length()){
-        	String subString = string.substring(position, string.length());
-        	returnString += subString;
-        }
-        return returnString;
-    }
-    
     /**
      * INTERNAL:
      * @since 2.4
@@ -599,13 +695,13 @@ public class JSONReader extends XMLReaderAdapter {
     
     private static class JSONAttributes extends IndexedAttributeList {
 
-        private Tree tree;
+        private JSONNode tree;
         private String attributePrefix;
         private char namespaceSeparator;
         private NamespaceResolver namespaces;
         private boolean namespaceAware;
 
-        public JSONAttributes setTree(Tree tree, String attributePrefix, NamespaceResolver nr, char namespaceSeparator, boolean namespaceAware) {
+        public JSONAttributes setTree(JSONNode tree, String attributePrefix, NamespaceResolver nr, char namespaceSeparator, boolean namespaceAware) {
             reset();
             this.tree = tree;
             this.attributePrefix = attributePrefix;
@@ -615,26 +711,26 @@ public class JSONReader extends XMLReaderAdapter {
             return this;
         }
                
-        private void addSimpleAttribute(List attributes, String uri, String attributeLocalName,Tree childValueTree){
+        private void addSimpleAttribute(List attributes, String uri, String attributeLocalName,JSONNode childValueTree){
         	 switch(childValueTree.getType()) {
-             case JSONLexer.STRING: {                 
-                 String stringValue = JSONReader.string(childValueTree.getChild(0).getText());
+             case JSONNode.STRING: {                 
+                 String stringValue = childValueTree.getText();
             	 attributes.add(new Attribute(uri, attributeLocalName, attributeLocalName, stringValue));
                  break;
              }
-             case JSONLexer.NUMBER: {
-                 attributes.add(new Attribute(uri, attributeLocalName, attributeLocalName, childValueTree.getChild(0).getText()));
+             case JSONNode.NUMBER: {
+                 attributes.add(new Attribute(uri, attributeLocalName, attributeLocalName, childValueTree.getText()));
                  break;
              }
-             case JSONLexer.TRUE: {
+             case JSONNode.TRUE: {
                  attributes.add(new Attribute(uri, attributeLocalName, attributeLocalName, TRUE));
                  break;
              }
-             case JSONLexer.FALSE: {
+             case JSONNode.FALSE: {
                  attributes.add(new Attribute(uri, attributeLocalName, attributeLocalName, FALSE));
                  break;
              }
-             case JSONLexer.NULL: {
+             case JSONNode.NULL: {
                  attributes.add(new Attribute(uri, attributeLocalName, attributeLocalName, Constants.EMPTY_STRING));
                  break;
              } 
@@ -666,20 +762,20 @@ public class JSONReader extends XMLReaderAdapter {
         protected Attribute[] attributes() {
             if(null == attributes) {
                 
-            	if(tree.getType() == JSONLexer.NULL){
+            	if(tree.getType() == JSONNode.NULL){
             		return NO_ATTRIBUTES;
             	}
-                if(tree.getType() == JSONLexer.OBJECT) {
+                if(tree.getType() == JSONNode.OBJECT) {
                     ArrayList<Attribute> attributesList = new ArrayList<Attribute>(tree.getChildCount());
                     for(int x=0; x<tree.getChildCount(); x++) {
-                        Tree childTree = tree.getChild(x);
-                        String attributeLocalName = childTree.getChild(0).getText().substring(1, childTree.getChild(0).getText().length() - 1);
+                        JSONNode childTree = tree.getChild(x);
+                        String attributeLocalName = childTree.getText();
 
                         if(attributePrefix != null){
                             if(attributeLocalName.startsWith(attributePrefix)){
                                 attributeLocalName = attributeLocalName.substring(attributePrefix.length());
                             }else{
-                                break;
+                                continue;
                             }
                         }
 
@@ -702,14 +798,14 @@ public class JSONReader extends XMLReaderAdapter {
                             }
                         }
 
-                        Tree childValueTree = childTree.getChild(1);
-                        if(childValueTree.getType() == JSONLexer.ARRAY){
+                        JSONNode childValueTree = childTree.getValue();
+                        if(childValueTree.getType() == JSONNode.ARRAY){
                         	int size = childValueTree.getChildCount();
                         	if(size == 0){                 
                         		attributesList.add(new Attribute(uri, attributeLocalName, attributeLocalName, ""));
                         	}
                             for(int y=0; y<size; y++) {
-                                CommonTree nextChildTree = (CommonTree) childValueTree.getChild(y);
+                                JSONNode nextChildTree = childValueTree.getChild(y);
                                 addSimpleAttribute(attributesList, uri, attributeLocalName, nextChildTree);
                             }
                         }else{
@@ -727,43 +823,4 @@ public class JSONReader extends XMLReaderAdapter {
 
     }
 
-    /**
-     * JSONParser is a generated class and maybe regenerated.
-     * this is a subclass to throw errors that may occur instead of just logging them.
-     */
-    private static class ExtendedJSONParser extends JSONParser {
-       
-    	private InputSource inputSource;
-    	private ErrorHandler errorHandler;
-    	
-    	public ExtendedJSONParser(TokenStream input, InputSource inputSource, ErrorHandler errorHandler) {
-    		super(input);
-    		this.inputSource = inputSource;
-    		this.errorHandler = errorHandler;
-    	}
-    	
-    	public void displayRecognitionError(String[] tokenNames,RecognitionException re){    		
-    		super.displayRecognitionError(tokenNames, re);
-    		SAXParseException saxParseException = new SAXParseException(re.getLocalizedMessage(), inputSource.getPublicId(),inputSource.getSystemId(), re.line, re.index, re);
-    		try {
-                    errorHandler.fatalError(saxParseException);
-                } catch (SAXException e) {				
-                    throw new SAXExceptionWrapper(e);
-                }    		
-    	}    	
-    }
-    
-    //Runtime exception to wrap a SAXException
-    private static class SAXExceptionWrapper extends RuntimeException {
-    	
-    	SAXExceptionWrapper(SAXException e){
-    		super(e);
-    	}
-    	
-    	public SAXException getCause() {
-            return (SAXException)super.getCause();
-        }
-   
-    }
-
 }
\ No newline at end of file
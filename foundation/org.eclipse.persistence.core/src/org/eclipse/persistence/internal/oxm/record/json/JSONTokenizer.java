@@ -0,0 +1,305 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.oxm.record.json;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Single pass, pull based JSON tokenizer.
+ * <p>Characters are read from the Reader in chunks, so the input is never held in memory as a whole.
+ * String values are unescaped as they are read.
+ */
+class JSONTokenizer {
+
+    public static final int END_DOCUMENT = -1;
+    public static final int START_OBJECT = 1;
+    public static final int END_OBJECT = 2;
+    public static final int START_ARRAY = 3;
+    public static final int END_ARRAY = 4;
+    public static final int COLON = 5;
+    public static final int COMMA = 6;
+    public static final int STRING = 7;
+    public static final int NUMBER = 8;
+    public static final int TRUE = 9;
+    public static final int FALSE = 10;
+    public static final int NULL = 11;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private final InputSource inputSource;
+    private final ErrorHandler errorHandler;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+    private int line;
+    private int column;
+    private final StringBuilder text;
+    private SAXParseException ignoredError;
+
+    public JSONTokenizer(Reader reader, InputSource inputSource, ErrorHandler errorHandler) {
+        this.reader = reader;
+        this.inputSource = inputSource;
+        this.errorHandler = errorHandler;
+        this.buffer = new char[BUFFER_SIZE];
+        this.line = 1;
+        this.text = new StringBuilder();
+    }
+
+    /**
+     * Return the text of the last STRING or NUMBER token.
+     */
+    public String getText() {
+        return this.text.toString();
+    }
+
+    /**
+     * Read the next token.
+     */
+    public int nextToken() throws IOException, SAXException {
+        int next = read();
+        while (next == ' ' || next == '\n' || next == '\r' || next == '\t' || next == '\f') {
+            next = read();
+        }
+        switch (next) {
+            case -1:
+                return END_DOCUMENT;
+            case '{':
+                return START_OBJECT;
+            case '}':
+                return END_OBJECT;
+            case '[':
+                return START_ARRAY;
+            case ']':
+                return END_ARRAY;
+            case ':':
+                return COLON;
+            case ',':
+                return COMMA;
+            case '"':
+                readString();
+                return STRING;
+            case 't':
+                readLiteral("rue");
+                return TRUE;
+            case 'f':
+                readLiteral("alse");
+                return FALSE;
+            case 'n':
+                readLiteral("ull");
+                return NULL;
+            default:
+                if (next == '-' || (next >= '0' && next <= '9')) {
+                    readNumber(next);
+                    return NUMBER;
+                }
+                throw error("unexpected character '" + (char)next + "'");
+        }
+    }
+
+    /**
+     * Report a syntax error at the current position to the error handler, and return the exception to be thrown.
+     * If the error handler does not throw the error it is remembered as the ignored error,
+     * parsing stops at the error without an exception.
+     */
+    public SAXParseException error(String message) throws SAXException {
+        SAXParseException exception = new SAXParseException("line " + this.line + ":" + this.column + " " + message, this.inputSource.getPublicId(), this.inputSource.getSystemId(), this.line, this.column);
+        if (this.errorHandler != null) {
+            this.errorHandler.fatalError(exception);
+            this.ignoredError = exception;
+        }
+        return exception;
+    }
+
+    /**
+     * Return the syntax error that was reported to the error handler, which did not throw it.
+     */
+    public SAXParseException getIgnoredError() {
+        return this.ignoredError;
+    }
+
+    private int read() throws IOException {
+        if (this.position == this.limit) {
+            this.limit = this.reader.read(this.buffer, 0, BUFFER_SIZE);
+            this.position = 0;
+            if (this.limit <= 0) {
+                this.limit = 0;
+                return -1;
+            }
+        }
+        char next = this.buffer[this.position++];
+        if (next == '\n') {
+            this.line++;
+            this.column = 0;
+        } else {
+            this.column++;
+        }
+        return next;
+    }
+
+    /**
+     * Return the next character without consuming it.
+     */
+    private int peek() throws IOException {
+        if (this.position == this.limit) {
+            this.limit = this.reader.read(this.buffer, 0, BUFFER_SIZE);
+            this.position = 0;
+            if (this.limit <= 0) {
+                this.limit = 0;
+                return -1;
+            }
+        }
+        return this.buffer[this.position];
+    }
+
+    private void readLiteral(String rest) throws IOException, SAXException {
+        for (int index = 0; index < rest.length(); index++) {
+            if (read() != rest.charAt(index)) {
+                throw error("invalid literal, expected true, false or null");
+            }
+        }
+    }
+
+    private void readNumber(int first) throws IOException, SAXException {
+        StringBuilder text = this.text;
+        text.setLength(0);
+        text.append((char)first);
+        if (first == '-') {
+            if (!isDigit(peek())) {
+                throw error("invalid number");
+            }
+        }
+        readDigits();
+        if (peek() == '.') {
+            text.append((char)read());
+            if (!isDigit(peek())) {
+                throw error("invalid number");
+            }
+            readDigits();
+        }
+        int next = peek();
+        if (next == 'e' || next == 'E') {
+            text.append((char)read());
+            next = peek();
+            if (next == '+' || next == '-') {
+                text.append((char)read());
+            }
+            if (!isDigit(peek())) {
+                throw error("invalid number");
+            }
+            readDigits();
+        }
+    }
+
+    private void readDigits() throws IOException {
+        while (isDigit(peek())) {
+            this.text.append((char)read());
+        }
+    }
+
+    private static boolean isDigit(int next) {
+        return next >= '0' && next <= '9';
+    }
+
+    private void readString() throws IOException, SAXException {
+        StringBuilder text = this.text;
+        text.setLength(0);
+        while (true) {
+            // PERF: Copy runs of unescaped characters directly from the buffer.
+            int start = this.position;
+            char[] buffer = this.buffer;
+            int limit = this.limit;
+            int index = start;
+            while (index < limit) {
+                char next = buffer[index];
+                if (next == '"' || next == '\\' || next == '\r' || next == '\n') {
+                    break;
+                }
+                index++;
+            }
+            if (index > start) {
+                text.append(buffer, start, index - start);
+                this.column += index - start;
+                this.position = index;
+            }
+            int next = read();
+            switch (next) {
+                case -1:
+                    throw error("unterminated string");
+                case '"':
+                    return;
+                case '\r':
+                    // Line breaks inside a string are normalized to '\n'.
+                    if (peek() != '\n') {
+                        text.append('\r');
+                    }
+                    break;
+                case '\\':
+                    readEscape();
+                    break;
+                default:
+                    text.append((char)next);
+            }
+        }
+    }
+
+    private void readEscape() throws IOException, SAXException {
+        int next = read();
+        switch (next) {
+            case '"':
+                this.text.append('"');
+                break;
+            case '\\':
+                this.text.append('\\');
+                break;
+            case '/':
+                this.text.append('/');
+                break;
+            case 'b':
+                this.text.append('\b');
+                break;
+            case 'f':
+                this.text.append('\f');
+                break;
+            case 'n':
+                this.text.append('\n');
+                break;
+            case 'r':
+                this.text.append('\r');
+                break;
+            case 't':
+                this.text.append('\t');
+                break;
+            case 'u':
+                int value = 0;
+                for (int index = 0; index < 4; index++) {
+                    int digit = Character.digit(read(), 16);
+                    if (digit == -1) {
+                        throw error("invalid unicode escape");
+                    }
+                    value = (value << 4) + digit;
+                }
+                this.text.append((char)value);
+                break;
+            default:
+                throw error("invalid escape sequence");
+        }
+    }
+}
@@ -483,6 +483,7 @@ public abstract class DatabaseQueryMechanism implements Cloneable, Serializable
             // CR#3237
             // Call insert with a boolean that tells it to reprepare if the user has altered the modify row.
             insertObject(modifyRowSize != modifyRow.size());
+            invalidateSQLResults();
 
             // register the object before post insert to resolve possible cycles
             registerObjectInIdentityMap(object, descriptor, session);
@@ -935,6 +936,7 @@ public abstract class DatabaseQueryMechanism implements Cloneable, Serializable
                 QueryMonitor.incrementUpdate(getWriteObjectQuery());
             }
             int rowCount = updateObject().intValue();
+            invalidateSQLResults();
 
             if (rowCount < 1) {
                 if (session.hasEventManager()) {
@@ -962,6 +964,26 @@ public abstract class DatabaseQueryMechanism implements Cloneable, Serializable
         }
     }
 
+    /**
+     * INTERNAL:
+     * Remove the results of the session's SQL result cache that read the tables written by the descriptor's objects,
+     * after an object is inserted, updated or deleted directly by the session.
+     * The writes of a unit of work are invalidated by its commit, once its transaction is committed.
+     */
+    public void invalidateSQLResults() {
+        AbstractSession session = getSession();
+        if (session.isUnitOfWork()) {
+            return;
+        }
+        SQLResultCache resultCache = session.getSQLResultCache();
+        if (resultCache == null) {
+            return;
+        }
+        Set<String> writtenTables = new HashSet<String>();
+        resultCache.addWrittenTables(getDescriptor(), writtenTables);
+        resultCache.invalidateTables(writtenTables);
+    }
+
     /**
      * Update the object.
      * This is used by the unit-of-work update.
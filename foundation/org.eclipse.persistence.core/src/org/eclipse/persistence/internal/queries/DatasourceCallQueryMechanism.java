@@ -26,6 +26,8 @@ import org.eclipse.persistence.exceptions.*;
 import org.eclipse.persistence.queries.*;
 import org.eclipse.persistence.internal.sessions.AbstractRecord;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.SQLResultCache;
+import org.eclipse.persistence.sessions.SessionProfiler;
 import org.eclipse.persistence.mappings.DatabaseMapping.WriteType;
 
 /**
@@ -239,9 +241,44 @@ public class DatasourceCallQueryMechanism extends DatabaseQueryMechanism {
         DatasourceCall clonedCall = (DatasourceCall)databaseCall.clone();
         clonedCall.setQuery(this.query);
         clonedCall.translate(this.query.getTranslationRow(), getModifyRow(), sessionToUse);
+        SQLResultCache resultCache = sessionToUse.getSQLResultCache();
+        if ((resultCache != null) && isResultCacheable(clonedCall, sessionToUse)) {
+            Object key = resultCache.buildKey((DatabaseCall)clonedCall, sessionToUse);
+            if (key != null) {
+                Vector rows = resultCache.getResult(key);
+                if (rows != null) {
+                    sessionToUse.incrementProfile(SessionProfiler.SqlResultCacheHits, this.query);
+                    return rows;
+                }
+                sessionToUse.incrementProfile(SessionProfiler.SqlResultCacheMisses, this.query);
+                long invalidationCount = resultCache.getInvalidationCount();
+                Object result = sessionToUse.executeCall(clonedCall, this.query.getTranslationRow(), this.query);
+                if (result instanceof Vector) {
+                    resultCache.putResult(key, (Vector)result, invalidationCount);
+                }
+                return result;
+            }
+        }
         return sessionToUse.executeCall(clonedCall, this.query.getTranslationRow(), this.query);
     }
 
+    /**
+     * Return if the result of the translated call can be read from and put in the session's SQL result cache.
+     * Only the rows of data and report queries are cached, and not in a transaction, as the transaction's
+     * own writes would not be seen, or for locking, cursored or stored procedure calls.
+     */
+    protected boolean isResultCacheable(DatasourceCall call, AbstractSession sessionToUse) {
+        if (!(this.query.isDataReadQuery() || this.query.isReportQuery())
+                || (this.query.isObjectBuildingQuery() && ((ObjectBuildingQuery)this.query).isLockQuery())) {
+            return false;
+        }
+        if (!(call instanceof DatabaseCall) || call.isStoredProcedureCall() || call.isOneRowReturned()
+                || call.isCursorReturned() || ((DatabaseCall)call).hasMultipleResultSets()) {
+            return false;
+        }
+        return !sessionToUse.isInTransaction() && !sessionToUse.isIsolatedClientSession() && !sessionToUse.isExclusiveIsolatedClientSession();
+    }
+
     /**
      * Execute a non selecting call.
      * @exception  DatabaseException - an error has occurred on the database.
@@ -0,0 +1,601 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.queries;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.persistence.config.SystemProperties;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.expressions.Expression;
+import org.eclipse.persistence.expressions.ExpressionBuilder;
+import org.eclipse.persistence.internal.expressions.SubSelectExpression;
+import org.eclipse.persistence.internal.helper.ConcurrentFixedCache;
+import org.eclipse.persistence.internal.helper.IdentityWeakHashMap;
+import org.eclipse.persistence.internal.helper.ParallelWork;
+import org.eclipse.persistence.internal.jpa.jpql.HermesParser;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.mappings.AggregateMapping;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.mappings.ForeignReferenceMapping;
+import org.eclipse.persistence.mappings.foundation.AbstractDirectMapping;
+import org.eclipse.persistence.queries.*;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.SessionProfiler;
+
+/**
+ * INTERNAL:
+ * Caches the queries parsed from JPQL strings, shared by all sessions with the same descriptors,
+ * so the persistence unit of each tenant, or each deployment of a persistence unit,
+ * does not parse the same JPQL again.
+ * <p>
+ * A plan is the query built by the JPQL parser, before it is prepared.  The plans are keyed by the JPQL string,
+ * the parser's validation level, and the fingerprint of the project's descriptors.  The fingerprint is a digest of
+ * the descriptors' classes, aliases, inheritance and mappings, and of the unique id of their class loader,
+ * so a plan is only used by sessions that parse its JPQL to the same query.
+ * A plan does not reference the session or descriptors it was parsed with,
+ * each use returns a copy of the plan with its own expressions, which the session prepares as usual.
+ * <p>
+ * The cache is bounded, the least frequently used plans are removed.  The plans of a fingerprint are removed
+ * when the last session using it logs out, so the cache does not hold the classes of undeployed applications.
+ * Only the queries of the Hermes parser are cached, other parsers parse each JPQL string.
+ * @see Project#setShouldUseJPQLPlanCache(boolean)
+ * @see SystemProperties#JPQL_PLAN_CACHE_SIZE
+ */
+public class JPQLPlanCache {
+    /** The default maximum number of cached plans. */
+    public static int DEFAULT_MAX_SIZE = 1000;
+    /** The warm-up query name that selects all of the named JPQL queries. */
+    public static final String ALL_QUERIES = "all";
+
+    /** The cache shared by all sessions. */
+    protected static JPQLPlanCache sharedCache = new JPQLPlanCache(parseMaxSize(System.getProperty(SystemProperties.JPQL_PLAN_CACHE_SIZE)));
+
+    /** The cached plans, keyed by PlanKey. */
+    protected ConcurrentFixedCache plans;
+    /** The number of logged in sessions using each fingerprint. */
+    protected Map<String, Integer> sessionCounts;
+    /** The unique id of each class loader of the fingerprints, weak so the cache does not hold undeployed class loaders. */
+    protected Map<ClassLoader, Long> loaderIds;
+    /** The id of the next class loader, ids are not reused so a new class loader never has the id of a collected one. */
+    protected long nextLoaderId;
+    /** The number of JPQL strings parsed on cache misses. */
+    protected AtomicLong parseCount;
+    /** The total nanoseconds spent parsing on cache misses. */
+    protected AtomicLong parseTime;
+
+    public JPQLPlanCache(int maxSize) {
+        this.plans = new ConcurrentFixedCache(maxSize);
+        this.plans.setShouldRecordStatistics(true);
+        this.sessionCounts = new HashMap<String, Integer>();
+        this.loaderIds = new IdentityWeakHashMap<ClassLoader, Long>();
+        this.nextLoaderId = 1;
+        this.parseCount = new AtomicLong();
+        this.parseTime = new AtomicLong();
+    }
+
+    /**
+     * Return the cache shared by all sessions.
+     */
+    public static JPQLPlanCache getSharedCache() {
+        return sharedCache;
+    }
+
+    /**
+     * Set the cache shared by all sessions.
+     * Sessions already logged in must log in again to use the new cache.
+     */
+    public static void setSharedCache(JPQLPlanCache cache) {
+        sharedCache = cache;
+    }
+
+    /**
+     * Return the maximum number of plans from the system property value, or the default if not a number.
+     */
+    protected static int parseMaxSize(String value) {
+        if (value == null) {
+            return DEFAULT_MAX_SIZE;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException exception) {
+            return DEFAULT_MAX_SIZE;
+        }
+    }
+
+    /**
+     * Register the logged in session, computing the fingerprint of its project's descriptors.
+     */
+    public synchronized void register(AbstractSession session) {
+        String fingerprint = buildFingerprint(session);
+        session.getProject().setJPQLPlanCacheFingerprint(fingerprint);
+        Integer count = this.sessionCounts.get(fingerprint);
+        this.sessionCounts.put(fingerprint, Integer.valueOf((count == null) ? 1 : count.intValue() + 1));
+    }
+
+    /**
+     * Release the logged out session, removing the plans of its fingerprint if no other session uses it.
+     */
+    public synchronized void release(AbstractSession session) {
+        String fingerprint = session.getProject().getJPQLPlanCacheFingerprint();
+        Integer count = (fingerprint == null) ? null : this.sessionCounts.get(fingerprint);
+        if (count == null) {
+            return;
+        }
+        if (count.intValue() > 1) {
+            this.sessionCounts.put(fingerprint, Integer.valueOf(count.intValue() - 1));
+            return;
+        }
+        this.sessionCounts.remove(fingerprint);
+        Iterator keys = this.plans.getCache().keySet().iterator();
+        while (keys.hasNext()) {
+            if (((PlanKey)keys.next()).fingerprint.equals(fingerprint)) {
+                keys.remove();
+            }
+        }
+    }
+
+    /**
+     * Return the query for the JPQL string, a copy of the cached plan if one exists,
+     * otherwise the query parsed by the session's query builder, caching its plan.
+     * The query is not prepared.
+     */
+    public DatabaseQuery buildQuery(String jpql, AbstractSession session) {
+        JPAQueryBuilder queryBuilder = session.getQueryBuilder();
+        PlanKey key = buildKey(jpql, queryBuilder, session);
+        if (key == null) {
+            return parse(jpql, queryBuilder, session);
+        }
+        DatabaseQuery plan = (DatabaseQuery)this.plans.get(key);
+        // The classes of the plan must be the session's, in case descriptors were added after the fingerprint.
+        if ((plan != null) && (session.getDescriptor(plan.getReferenceClass()) != null)) {
+            session.incrementProfile(SessionProfiler.JpqlPlanCacheHits);
+            return copyPlan(plan);
+        }
+        session.incrementProfile(SessionProfiler.JpqlPlanCacheMisses);
+        DatabaseQuery query = parse(jpql, queryBuilder, session);
+        plan = buildPlan(query);
+        if (plan != null) {
+            this.plans.put(key, plan);
+        }
+        return query;
+    }
+
+    /**
+     * Parse the JPQL strings of the named queries in parallel, caching their plans,
+     * so the queries are not parsed when the session processes them.
+     * The query names can include ALL_QUERIES to parse all of the JPQL queries.
+     * Queries that fail to parse are ignored, their error is reported when the session processes them.
+     */
+    public void warmUp(List<DatabaseQuery> queries, Collection<String> queryNames, AbstractSession session) {
+        JPAQueryBuilder queryBuilder = session.getQueryBuilder();
+        boolean isAll = false;
+        for (String queryName : queryNames) {
+            if (ALL_QUERIES.equalsIgnoreCase(queryName)) {
+                isAll = true;
+            }
+        }
+        Map<PlanKey, String> jpqlStrings = new LinkedHashMap<PlanKey, String>();
+        for (DatabaseQuery query : queries) {
+            String jpql = query.getJPQLString();
+            if ((jpql != null) && (isAll || queryNames.contains(query.getName()))) {
+                PlanKey key = buildKey(jpql, queryBuilder, session);
+                if ((key != null) && !this.plans.getCache().containsKey(key)) {
+                    jpqlStrings.put(key, jpql);
+                }
+            }
+        }
+        if (jpqlStrings.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        int threads = new ParallelParse(jpqlStrings, queryBuilder, session).execute(session, Runtime.getRuntime().availableProcessors());
+        if (session.shouldLog(SessionLog.FINER, SessionLog.QUERY)) {
+            session.log(SessionLog.FINER, SessionLog.QUERY, "jpql_plan_cache_warm_up",
+                new Object[] {Integer.valueOf(jpqlStrings.size()), Long.valueOf((System.nanoTime() - start) / 1000000), Integer.valueOf(threads)});
+        }
+    }
+
+    /**
+     * Return the key of the JPQL string's plan for the session,
+     * or null if the session's query builder is not cached.
+     */
+    protected PlanKey buildKey(String jpql, JPAQueryBuilder queryBuilder, AbstractSession session) {
+        if (!(queryBuilder instanceof HermesParser)) {
+            return null;
+        }
+        String fingerprint = session.getProject().getJPQLPlanCacheFingerprint();
+        if (fingerprint == null) {
+            fingerprint = buildFingerprint(session);
+            session.getProject().setJPQLPlanCacheFingerprint(fingerprint);
+        }
+        return new PlanKey(fingerprint, ((HermesParser)queryBuilder).getValidationLevel(), jpql);
+    }
+
+    /**
+     * Parse the JPQL string, recording the parse time.
+     */
+    protected DatabaseQuery parse(String jpql, JPAQueryBuilder queryBuilder, AbstractSession session) {
+        long start = System.nanoTime();
+        session.startOperationProfile(SessionProfiler.JpqlParse, null, SessionProfiler.ALL);
+        try {
+            return queryBuilder.buildQuery(jpql, session);
+        } finally {
+            session.endOperationProfile(SessionProfiler.JpqlParse, null, SessionProfiler.ALL);
+            this.parseCount.incrementAndGet();
+            this.parseTime.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Return the plan of the parsed query, or null if the query cannot be shared.
+     * The plan is a copy of the query without its session and descriptors, including the descriptors of its sub-queries.
+     * This must be called before the query is prepared, as preparing sets descriptors in its expressions.
+     */
+    protected DatabaseQuery buildPlan(DatabaseQuery query) {
+        if (!isShareable(query)) {
+            return null;
+        }
+        Map alreadyDone = new IdentityHashMap();
+        DatabaseQuery plan = copyPlan(query, alreadyDone);
+        detach(plan);
+        for (Object expression : alreadyDone.values()) {
+            if (expression instanceof SubSelectExpression) {
+                // Count sub-selects (SIZE) keep the parsed query's expression, which is not copied.
+                if (((SubSelectExpression)expression).getCriteriaBase() != null) {
+                    return null;
+                }
+                detach(((SubSelectExpression)expression).getSubQuery());
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Remove the session and descriptor from the query.
+     */
+    protected void detach(DatabaseQuery query) {
+        query.setSession(null);
+        query.setDescriptor(null);
+    }
+
+    /**
+     * Return if the parsed query only uses the features copied by copyPlan().
+     * The JPQL parser does not set the other features, they are set on the query afterwards, such as by hints.
+     */
+    protected boolean isShareable(DatabaseQuery query) {
+        Class queryClass = query.getClass();
+        if ((queryClass == UpdateAllQuery.class) || (queryClass == DeleteAllQuery.class)) {
+            return true;
+        }
+        if ((queryClass != ReadAllQuery.class) && (queryClass != ReportQuery.class)) {
+            return false;
+        }
+        ReadAllQuery readQuery = (ReadAllQuery)query;
+        // Report queries have a shared no lock clause by default.
+        if (readQuery.isLockQuery() || readQuery.hasBatchReadAttributes() || readQuery.hasAdditionalFields()
+                || readQuery.hasPartialAttributeExpressions() || readQuery.hasUnionExpressions() || readQuery.hasFetchGroup()
+                || readQuery.hasHierarchicalExpressions()) {
+            return false;
+        }
+        if (readQuery.isReportQuery()) {
+            for (ReportItem item : ((ReportQuery)readQuery).getItems()) {
+                if (item.hasJoining()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return a copy of the plan with its own expressions, so preparing the copy does not change the plan.
+     */
+    public DatabaseQuery copyPlan(DatabaseQuery plan) {
+        return copyPlan(plan, new IdentityHashMap());
+    }
+
+    /**
+     * Return a copy of the query with its own expressions, copying all of the query's expressions with the same map,
+     * so they keep sharing the same builders.  The query must be shareable.
+     */
+    protected DatabaseQuery copyPlan(DatabaseQuery query, Map alreadyDone) {
+        DatabaseQuery copy = (DatabaseQuery)query.clone();
+        // The default builder is first initialized from the query's selection criteria if not set.
+        if (copy.isObjectLevelReadQuery()) {
+            ObjectLevelReadQuery readQuery = (ObjectLevelReadQuery)copy;
+            readQuery.setExpressionBuilder((ExpressionBuilder)readQuery.getExpressionBuilder().copiedVersionFrom(alreadyDone));
+        } else if (copy.isModifyAllQuery()) {
+            ModifyAllQuery modifyQuery = (ModifyAllQuery)copy;
+            modifyQuery.setExpressionBuilder((ExpressionBuilder)modifyQuery.getExpressionBuilder().copiedVersionFrom(alreadyDone));
+        }
+        if (copy.getSelectionCriteria() != null) {
+            ((ExpressionQueryMechanism)copy.getQueryMechanism()).setSelectionCriteria(copy.getSelectionCriteria().copiedVersionFrom(alreadyDone));
+        }
+        if (copy.getQueryMechanism().isJPQLCallQueryMechanism()) {
+            ((JPQLCallQueryMechanism)copy.getQueryMechanism()).getJPQLCall().setQuery(copy);
+        }
+        if (copy.isObjectLevelReadQuery()) {
+            ObjectLevelReadQuery readQuery = (ObjectLevelReadQuery)copy;
+            if (readQuery.hasOrderByExpressions()) {
+                copyExpressions(readQuery.getOrderByExpressions(), alreadyDone);
+            }
+            if (readQuery.hasNonFetchJoinedAttributeExpressions()) {
+                copyExpressions(readQuery.getNonFetchJoinAttributeExpressions(), alreadyDone);
+            }
+            if (readQuery.hasJoining()) {
+                JoinedAttributeManager joinManager = readQuery.getJoinedAttributeManager();
+                copyExpressions(joinManager.getJoinedAttributeExpressions(), alreadyDone);
+                copyExpressions(joinManager.getJoinedMappingExpressions(), alreadyDone);
+                copyExpressions(joinManager.getJoinedAttributes(), alreadyDone);
+                if (joinManager.getBaseExpressionBuilder() != null) {
+                    joinManager.setBaseExpressionBuilder((ExpressionBuilder)joinManager.getBaseExpressionBuilder().copiedVersionFrom(alreadyDone));
+                }
+            }
+            if (readQuery.isReportQuery()) {
+                ReportQuery reportQuery = (ReportQuery)readQuery;
+                reportQuery.setItems(copyItems(reportQuery.getItems(), alreadyDone));
+                if (reportQuery.hasGroupByExpressions()) {
+                    copyExpressions(reportQuery.getGroupByExpressions(), alreadyDone);
+                }
+                if (reportQuery.getHavingExpression() != null) {
+                    reportQuery.setHavingExpression(reportQuery.getHavingExpression().copiedVersionFrom(alreadyDone));
+                }
+            }
+        } else if (copy.isUpdateAllQuery()) {
+            UpdateAllQuery updateQuery = (UpdateAllQuery)copy;
+            if (updateQuery.getUpdateClauses() != null) {
+                HashMap updateClauses = new HashMap(updateQuery.getUpdateClauses().size());
+                for (Iterator iterator = updateQuery.getUpdateClauses().entrySet().iterator(); iterator.hasNext();) {
+                    Map.Entry entry = (Map.Entry)iterator.next();
+                    updateClauses.put(copyValue(entry.getKey(), alreadyDone), copyValue(entry.getValue(), alreadyDone));
+                }
+                updateQuery.setUpdateClauses(updateClauses);
+            }
+        }
+        // Sub-queries copy their report items, but not the joins of their from clause.
+        for (Object expression : new ArrayList(alreadyDone.values())) {
+            if (expression instanceof SubSelectExpression) {
+                ReportQuery subQuery = ((SubSelectExpression)expression).getSubQuery();
+                if (subQuery.hasNonFetchJoinedAttributeExpressions()) {
+                    copyExpressions(subQuery.getNonFetchJoinAttributeExpressions(), alreadyDone);
+                }
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Replace the expressions of the list by their copies.
+     */
+    protected void copyExpressions(List<Expression> expressions, Map alreadyDone) {
+        for (int index = 0; index < expressions.size(); index++) {
+            expressions.set(index, expressions.get(index).copiedVersionFrom(alreadyDone));
+        }
+    }
+
+    /**
+     * Return a copy of the value if it is an expression.
+     */
+    protected Object copyValue(Object value, Map alreadyDone) {
+        if (value instanceof Expression) {
+            return ((Expression)value).copiedVersionFrom(alreadyDone);
+        }
+        return value;
+    }
+
+    /**
+     * Return copies of the report items, with copies of their expressions.
+     */
+    protected List<ReportItem> copyItems(List<ReportItem> items, Map alreadyDone) {
+        List<ReportItem> copies = new ArrayList<ReportItem>(items.size());
+        for (ReportItem item : items) {
+            ReportItem copy = (ReportItem)item.clone();
+            if (copy.getAttributeExpression() != null) {
+                copy.setAttributeExpression(copy.getAttributeExpression().copiedVersionFrom(alreadyDone));
+            }
+            if (copy.isConstructorItem()) {
+                ConstructorReportItem constructorItem = (ConstructorReportItem)copy;
+                constructorItem.setReportItems(copyItems(constructorItem.getReportItems(), alreadyDone));
+            }
+            copies.add(copy);
+        }
+        return copies;
+    }
+
+    /**
+     * Return the fingerprint of the session's descriptors.
+     * It is the digest of the descriptors' class names, aliases, parent classes, and mappings,
+     * and of the id of the class loader, in the order of the class names.
+     */
+    protected String buildFingerprint(AbstractSession session) {
+        Map<String, ClassDescriptor> descriptors = new TreeMap<String, ClassDescriptor>();
+        for (ClassDescriptor descriptor : session.getProject().getOrderedDescriptors()) {
+            descriptors.put(descriptor.getJavaClassName(), descriptor);
+        }
+        StringBuilder model = new StringBuilder();
+        model.append(getLoaderId(session.getDatasourcePlatform().getConversionManager().getLoader()));
+        for (ClassDescriptor descriptor : descriptors.values()) {
+            model.append('\n').append(descriptor.getJavaClassName()).append(':').append(descriptor.getAlias());
+            if (descriptor.hasInheritance()) {
+                model.append(':').append(descriptor.getInheritancePolicy().getParentClassName());
+            }
+            for (DatabaseMapping mapping : descriptor.getMappings()) {
+                model.append(';').append(mapping.getAttributeName()).append(',').append(mapping.getClass().getName());
+                if (mapping.isForeignReferenceMapping()) {
+                    model.append(',').append(((ForeignReferenceMapping)mapping).getReferenceClassName());
+                } else if (mapping.isAggregateMapping()) {
+                    model.append(',').append(((AggregateMapping)mapping).getReferenceClassName());
+                } else if (mapping.isAbstractDirectMapping() && (((AbstractDirectMapping)mapping).getConverter() != null)) {
+                    model.append(',').append(((AbstractDirectMapping)mapping).getConverter().getClass().getName());
+                }
+            }
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(model.toString().getBytes("UTF-8"));
+            StringBuilder fingerprint = new StringBuilder(digest.length * 2);
+            for (byte value : digest) {
+                fingerprint.append(Character.forDigit((value >> 4) & 0xf, 16)).append(Character.forDigit(value & 0xf, 16));
+            }
+            return fingerprint.toString();
+        } catch (NoSuchAlgorithmException exception) {
+            return model.toString();
+        } catch (java.io.UnsupportedEncodingException exception) {
+            return model.toString();
+        }
+    }
+
+    /**
+     * Return the unique id of the class loader, so the fingerprints of different class loaders are different.
+     * The identity hash code of a class loader is not unique.
+     */
+    protected synchronized long getLoaderId(ClassLoader loader) {
+        if (loader == null) {
+            return 0;
+        }
+        Long id = this.loaderIds.get(loader);
+        if (id == null) {
+            id = Long.valueOf(this.nextLoaderId++);
+            this.loaderIds.put(loader, id);
+        }
+        return id.longValue();
+    }
+
+    /**
+     * Return the number of cached plans.
+     */
+    public int getSize() {
+        return this.plans.getCache().size();
+    }
+
+    /**
+     * Return the maximum number of cached plans.
+     */
+    public int getMaxSize() {
+        return this.plans.getMaxSize();
+    }
+
+    /**
+     * Return the number of JPQL strings found in the cache.
+     */
+    public long getHits() {
+        return this.plans.getHits();
+    }
+
+    /**
+     * Return the number of JPQL strings not found in the cache.
+     */
+    public long getMisses() {
+        return this.plans.getMisses();
+    }
+
+    /**
+     * Return the number of plans removed to keep the cache within its maximum size.
+     */
+    public long getEvictions() {
+        return this.plans.getEvictions();
+    }
+
+    /**
+     * Return the number of JPQL strings parsed by the cache.
+     */
+    public long getParseCount() {
+        return this.parseCount.get();
+    }
+
+    /**
+     * Return the total milliseconds spent parsing JPQL strings by the cache.
+     */
+    public long getParseTime() {
+        return this.parseTime.get() / 1000000;
+    }
+
+    /**
+     * Reset the hit, miss, eviction and parse counts.
+     */
+    public void resetStatistics() {
+        this.plans.resetStatistics();
+        this.parseCount.set(0);
+        this.parseTime.set(0);
+    }
+
+    /**
+     * Remove all of the plans.
+     */
+    public void clear() {
+        this.plans.getCache().clear();
+    }
+
+    /**
+     * INTERNAL:
+     * The key of a plan, the fingerprint of the descriptors, the parser's validation level, and the JPQL string.
+     */
+    protected static class PlanKey {
+        protected final String fingerprint;
+        protected final String validationLevel;
+        protected final String jpql;
+        protected final int hashCode;
+
+        protected PlanKey(String fingerprint, String validationLevel, String jpql) {
+            this.fingerprint = fingerprint;
+            this.validationLevel = validationLevel;
+            this.jpql = jpql;
+            this.hashCode = (fingerprint.hashCode() * 31) + jpql.hashCode();
+        }
+
+        public boolean equals(Object object) {
+            if (this == object) {
+                return true;
+            }
+            if (!(object instanceof PlanKey)) {
+                return false;
+            }
+            PlanKey key = (PlanKey)object;
+            return (this.hashCode == key.hashCode) && this.jpql.equals(key.jpql) && this.fingerprint.equals(key.fingerprint)
+                && ((this.validationLevel == null) ? (key.validationLevel == null) : this.validationLevel.equals(key.validationLevel));
+        }
+
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Parses the queued JPQL strings of a warm-up, on each thread that runs it, until none remain.
+     */
+    protected class ParallelParse extends ParallelWork<Map.Entry<PlanKey, String>> {
+        protected JPAQueryBuilder queryBuilder;
+        protected AbstractSession session;
+
+        public ParallelParse(Map<PlanKey, String> jpqlStrings, JPAQueryBuilder queryBuilder, AbstractSession session) {
+            super(jpqlStrings.entrySet());
+            this.queryBuilder = queryBuilder;
+            this.session = session;
+        }
+
+        protected void process(Map.Entry<PlanKey, String> entry) {
+            try {
+                DatabaseQuery plan = buildPlan(parse(entry.getValue(), this.queryBuilder, this.session));
+                if (plan != null) {
+                    plans.put(entry.getKey(), plan);
+                }
+            } catch (RuntimeException ignore) {
+                // The error is reported when the session processes the query.
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.queries;
+
+import java.util.List;
+
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.mappings.ForeignReferenceMapping;
+import org.eclipse.persistence.queries.ReadAllQuery;
+
+/**
+ * INTERNAL:
+ * The next IN batch of a batch fetched mapping, selected in the background on a read connection
+ * while the objects of the current batch are built and used.
+ * <p>The rows are only used by the batch query execution whose batch parameter is this batch's foreign key values.
+ * If the batch is not required, or the select fails, the batch is selected as normal when required.
+ * @see org.eclipse.persistence.queries.BatchFetchPolicy#setShouldPrefetch(boolean)
+ */
+public class PrefetchedBatch implements Runnable {
+    /** The clone of the batch query, executing on the server session. */
+    protected ReadAllQuery query;
+    /** The IN parameter values of the batch. */
+    protected List foreignKeyValues;
+    protected List<AbstractRecord> rows;
+    protected boolean isStarted;
+    protected boolean isCancelled;
+    protected boolean isComplete;
+    /** The time in nanoseconds to select the rows. */
+    protected long time;
+
+    public PrefetchedBatch(ReadAllQuery query, List foreignKeyValues) {
+        this.query = query;
+        this.foreignKeyValues = foreignKeyValues;
+    }
+
+    public void run() {
+        synchronized (this) {
+            if (this.isCancelled) {
+                return;
+            }
+            this.isStarted = true;
+        }
+        long startTime = System.nanoTime();
+        List<AbstractRecord> rows = null;
+        try {
+            rows = this.query.getQueryMechanism().selectAllRows();
+        } catch (RuntimeException exception) {
+            // The batch is selected again when required, and any error thrown then.
+            this.query.getSession().logThrowable(SessionLog.FINEST, SessionLog.QUERY, exception);
+        }
+        synchronized (this) {
+            this.time = System.nanoTime() - startTime;
+            this.rows = rows;
+            this.isComplete = true;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Return if this batch is the batch parameter of the translation row.
+     */
+    public boolean isBatchFor(AbstractRecord translationRow) {
+        return (translationRow != null) && (translationRow.get(ForeignReferenceMapping.QUERY_BATCH_PARAMETER) == this.foreignKeyValues);
+    }
+
+    /**
+     * Wait for the select to complete and return the rows, or null if the select failed.
+     * If the select has not been started yet, it is cancelled and null is returned,
+     * so the batch is selected by the calling thread instead of waiting for a free thread.
+     */
+    public synchronized List<AbstractRecord> getRows() {
+        if (!this.isStarted) {
+            this.isCancelled = true;
+            return null;
+        }
+        boolean isInterrupted = false;
+        while (!this.isComplete) {
+            try {
+                wait();
+            } catch (InterruptedException exception) {
+                isInterrupted = true;
+            }
+        }
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return this.rows;
+    }
+
+    /**
+     * Cancel the select if it has not been started, the batch is not required.
+     */
+    public synchronized void cancel() {
+        this.isCancelled = true;
+    }
+
+    /**
+     * Return if the rows were selected.
+     */
+    public synchronized boolean hasRows() {
+        return this.isComplete && (this.rows != null);
+    }
+
+    public List getForeignKeyValues() {
+        return foreignKeyValues;
+    }
+
+    /**
+     * Return the time in nanoseconds to select the rows.
+     */
+    public synchronized long getTime() {
+        return time;
+    }
+}
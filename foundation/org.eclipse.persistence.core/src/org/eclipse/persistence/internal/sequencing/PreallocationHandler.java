@@ -14,6 +14,7 @@ package org.eclipse.persistence.internal.sequencing;
 
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Handles the storage and allocation of sequence values.
@@ -38,7 +39,7 @@ class PreallocationHandler implements SequencingLogInOut {
             synchronized (preallocatedSequences) {
                 sequences = preallocatedSequences.get(sequenceName);
                 if (sequences == null) {
-                    sequences = new ConcurrentLinkedQueue();
+                    sequences = new PreallocatedQueue();
                     preallocatedSequences.put(sequenceName, sequences);
                 }
             }
@@ -46,6 +47,18 @@ class PreallocationHandler implements SequencingLogInOut {
         return sequences;
     }
 
+    /**
+     * Return the number of preallocated values for the sequence name.
+     * This is approximate if values are concurrently allocated or added.
+     */
+    public int getPreallocatedCount(String sequenceName) {
+        Queue sequences = preallocatedSequences.get(sequenceName);
+        if (sequences == null) {
+            return 0;
+        }
+        return ((PreallocatedQueue)sequences).getCount();
+    }
+
     // SequencingLogInOut
     public void onConnect() {
         initializePreallocated();
@@ -85,4 +98,45 @@ class PreallocationHandler implements SequencingLogInOut {
     public void setPreallocated(String seqName, Vector sequences) {
         getPreallocated(seqName).addAll(sequences);
     }
+
+    /**
+     * Queue of the preallocated values of a sequence, that also counts its values,
+     * as the size of a ConcurrentLinkedQueue is not constant time.
+     * The count is used to refill the values before the queue is empty.
+     */
+    static class PreallocatedQueue extends ConcurrentLinkedQueue {
+        protected AtomicInteger count = new AtomicInteger();
+
+        public boolean offer(Object value) {
+            boolean isAdded = super.offer(value);
+            if (isAdded) {
+                this.count.incrementAndGet();
+            }
+            return isAdded;
+        }
+
+        public boolean add(Object value) {
+            return offer(value);
+        }
+
+        public boolean addAll(Collection values) {
+            boolean isAdded = false;
+            for (Object value : values) {
+                isAdded = offer(value) || isAdded;
+            }
+            return isAdded;
+        }
+
+        public Object poll() {
+            Object value = super.poll();
+            if (value != null) {
+                this.count.decrementAndGet();
+            }
+            return value;
+        }
+
+        public int getCount() {
+            return this.count.get();
+        }
+    }
 }
@@ -14,6 +14,7 @@ package org.eclipse.persistence.internal.sequencing;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.persistence.sequencing.*;
 import org.eclipse.persistence.sessions.Login;
@@ -114,6 +115,10 @@ class SequencingManager implements SequencingHome, SequencingServer, SequencingC
     private int maxPoolSize = -1;
     private int initialPoolSize = -1;
     private ConnectionPool connectionPool;
+    private int preallocationRefillThreshold;
+    private ConcurrentMap<String, PreallocationStatistics> preallocationStatistics = new ConcurrentHashMap<String, PreallocationStatistics>();
+    // Names of the sequences being refilled in the background.
+    private ConcurrentMap<String, Boolean> refills = new ConcurrentHashMap<String, Boolean>();
 
     public SequencingManager(DatabaseSessionImpl ownerSession) {
         this.ownerSession = ownerSession;
@@ -278,6 +283,113 @@ class SequencingManager implements SequencingHome, SequencingServer, SequencingC
         }
     }
 
+    public int getPreallocationRefillThreshold() {
+        return preallocationRefillThreshold;
+    }
+
+    public void setPreallocationRefillThreshold(int percentage) {
+        this.preallocationRefillThreshold = percentage;
+    }
+
+    public PreallocationStatistics getPreallocationStatistics(String seqName) {
+        return this.preallocationStatistics.get(seqName);
+    }
+
+    public Map<String, PreallocationStatistics> getPreallocationStatistics() {
+        return Collections.unmodifiableMap(this.preallocationStatistics);
+    }
+
+    /**
+     * Return the statistics of the sequence.
+     * If there are not any, new statistics are registered.
+     */
+    protected PreallocationStatistics getStatistics(String seqName) {
+        PreallocationStatistics statistics = this.preallocationStatistics.get(seqName);
+        if (statistics == null) {
+            statistics = new PreallocationStatistics(seqName);
+            PreallocationStatistics existing = this.preallocationStatistics.putIfAbsent(seqName, statistics);
+            if (existing != null) {
+                statistics = existing;
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Allocate the next values of the sequence from the database using the state, and record the time taken.
+     */
+    protected Vector allocate(RefillableState state, Sequence sequence, AbstractSession writeSession, boolean isBackground) {
+        long start = System.nanoTime();
+        Vector sequences = state.allocate(sequence, writeSession);
+        getStatistics(sequence.getName()).allocated(System.nanoTime() - start, isBackground);
+        return sequences;
+    }
+
+    /**
+     * If background refill is enabled, and the number of preallocated values of the sequence
+     * has fallen to the refill threshold, allocate the next values in the background,
+     * so the inserting threads do not have to wait for them.
+     * Only one refill of a sequence is done at a time.
+     */
+    protected void checkPreallocationRefill(final RefillableState state, final Sequence sequence) {
+        if ((this.preallocationRefillThreshold <= 0) || !getOwnerSession().isServerSession()) {
+            return;
+        }
+        final String seqName = sequence.getName();
+        final int threshold = (sequence.getPreallocationSize() * this.preallocationRefillThreshold) / 100;
+        if (getPreallocationHandler().getPreallocatedCount(seqName) > threshold) {
+            return;
+        }
+        if (this.refills.putIfAbsent(seqName, Boolean.TRUE) != null) {
+            return;
+        }
+        try {
+            getOwnerSession().getServerPlatform().launchContainerRunnable(new Runnable() {
+                public void run() {
+                    refillPreallocated(state, sequence, threshold);
+                }
+            });
+        } catch (RuntimeException exception) {
+            // The values are allocated by the inserting thread once none remain.
+            this.refills.remove(seqName);
+            getOwnerSession().logThrowable(SessionLog.FINEST, SessionLog.SEQUENCING, exception);
+        }
+    }
+
+    /**
+     * Allocate the next values of the sequence and add them to the preallocated values,
+     * unless the values were allocated by an inserting thread in the meantime.
+     */
+    protected void refillPreallocated(RefillableState state, Sequence sequence, int threshold) {
+        String seqName = sequence.getName();
+        try {
+            PreallocationHandler handler = getPreallocationHandler();
+            if ((handler == null) || !isConnected()) {
+                return;
+            }
+            ConcurrencyManager lock = acquireLock(seqName);
+            try {
+                if (handler.getPreallocatedCount(seqName) > threshold) {
+                    return;
+                }
+                Vector sequences = allocate(state, sequence, getOwnerSession(), true);
+                handler.setPreallocated(seqName, sequences);
+                if (getOwnerSession().shouldLog(SessionLog.FINEST, SessionLog.SEQUENCING)) {
+                    Object[] args = { seqName, Integer.valueOf(sequences.size()), sequences.firstElement(), sequences.lastElement() };
+                    getOwnerSession().log(SessionLog.FINEST, SessionLog.SEQUENCING, "sequencing_background_preallocation", args);
+                }
+            } finally {
+                lock.release();
+            }
+        } catch (RuntimeException exception) {
+            // Sequencing may have been disconnected, or the allocation failed,
+            // in which case the inserting thread allocates the values once none remain and reports the error.
+            getOwnerSession().logThrowable(SessionLog.WARNING, SessionLog.SEQUENCING, exception);
+        } finally {
+            this.refills.remove(seqName);
+        }
+    }
+
     protected void setLocks(Map locks) {
         this.locks = locks;
     }
@@ -339,6 +451,17 @@ class SequencingManager implements SequencingHome, SequencingServer, SequencingC
         }
     }
 
+    /**
+     * A state that allocates the values of a sequence independently of the write session's connection and transaction,
+     * so the values can also be allocated by a background thread.
+     */
+    interface RefillableState {
+        /**
+         * Allocate the next preallocation size values of the sequence from the database.
+         */
+        Vector allocate(Sequence sequence, AbstractSession writeSession);
+    }
+
     /**
      * Uses preallocation, uses transaction, no separate connection.
      * This is used for a DatabaseSession, or a ServerSession not using native sequencing,
@@ -428,6 +551,7 @@ class SequencingManager implements SequencingHome, SequencingServer, SequencingC
                 if (sequenceValue != null) {
                     return sequenceValue;
                 }
+                getStatistics(seqName).stalled();
                 // KeepLocked indicates whether the sequence lock should be kept for the whole duration of this method.
                 // Of course the lock should be released in any case when the method returns or throws an exception.
                 // This is only used if a sequence transaction was begun by the unit of work,
@@ -552,7 +676,7 @@ class SequencingManager implements SequencingHome, SequencingServer, SequencingC
      * This is used in a ServerSession with a sequence connection pool.
      * This is typically the default behavior.
      */
-    class Preallocation_Transaction_Accessor_State extends State {
+    class Preallocation_Transaction_Accessor_State extends State implements RefillableState {
         public Object getNextValue(Sequence sequence, AbstractSession writeSession) {
             String seqName = sequence.getName();
             if(sequence.getPreallocationSize() > 1) {
@@ -560,8 +684,10 @@ class SequencingManager implements SequencingHome, SequencingServer, SequencingC
                 // First try to get the next sequence value without locking.
                 Object sequenceValue = sequencesForName.poll();
                 if (sequenceValue != null) {
+                    checkPreallocationRefill(this, sequence);
                     return sequenceValue;
                 }
+                getStatistics(seqName).stalled();
                 // Sequences are empty, so must lock and allocate next batch of sequences.
                 ConcurrencyManager lock = acquireLock(seqName);
                 try {
@@ -569,60 +695,47 @@ class SequencingManager implements SequencingHome, SequencingServer, SequencingC
                     if (sequenceValue != null) {
                         return sequenceValue;
                     }
-                    // note that accessor.getLogin().shouldUseExternalTransactionController()
-                    // should be set to false
-                    Accessor accessor = getConnectionHandler().acquireAccessor();
-                    try {
-                        accessor.beginTransaction(writeSession);
-                        try {
-                            Vector sequences = sequence.getGeneratedVector(accessor, writeSession);
-                            accessor.commitTransaction(writeSession);
-                            // Remove the first value before adding to the global cache to ensure this thread gets one.
-                            sequenceValue = sequences.remove(0);
-                            // copy remaining values to global cache.
-                            getPreallocationHandler().setPreallocated(seqName, sequences);
-                            logDebugPreallocation(seqName, sequenceValue, sequences);
-                        } catch (RuntimeException ex) {
-                            try {
-                                // make sure to rollback the transaction we've begun
-                                accessor.rollbackTransaction(writeSession);
-                            } catch (Exception rollbackException) {
-                                // ignore rollback exception
-                            }
-                            // don't eat the original exception
-                            throw ex;
-                        }
-                    } finally {
-                        getConnectionHandler().releaseAccessor(accessor);
-                    }
+                    Vector sequences = SequencingManager.this.allocate(this, sequence, writeSession, false);
+                    // Remove the first value before adding to the global cache to ensure this thread gets one.
+                    sequenceValue = sequences.remove(0);
+                    // copy remaining values to global cache.
+                    getPreallocationHandler().setPreallocated(seqName, sequences);
+                    logDebugPreallocation(seqName, sequenceValue, sequences);
                 } finally {
                     lock.release();
                 }
                 return sequenceValue;
             } else {
-                // note that accessor.getLogin().shouldUseExternalTransactionController()
-                // should be set to false
-                Accessor accessor = getConnectionHandler().acquireAccessor();
+                // preallocation size is 1 - just return the first (and only) element of the allocated vector.
+                return allocate(sequence, writeSession).firstElement();
+            }
+        }
+
+        /**
+         * Allocate the values in a separate transaction on a connection of the sequence connection pool.
+         */
+        public Vector allocate(Sequence sequence, AbstractSession writeSession) {
+            // note that accessor.getLogin().shouldUseExternalTransactionController()
+            // should be set to false
+            Accessor accessor = getConnectionHandler().acquireAccessor();
+            try {
+                accessor.beginTransaction(writeSession);
                 try {
-                    accessor.beginTransaction(writeSession);
+                    Vector sequences = sequence.getGeneratedVector(accessor, writeSession);
+                    accessor.commitTransaction(writeSession);
+                    return sequences;
+                } catch (RuntimeException ex) {
                     try {
-                        // preallocation size is 1 - just return the first (and only) element of the allocated vector.
-                        Object sequenceValue = sequence.getGeneratedVector(accessor, writeSession).firstElement();
-                        accessor.commitTransaction(writeSession);
-                        return sequenceValue;
-                    } catch (RuntimeException ex) {
-                        try {
-                            // make sure to rollback the transaction we've begun
-                            accessor.rollbackTransaction(writeSession);
-                        } catch (Exception rollbackException) {
-                            // ignore rollback exception
-                        }
-                        // don't eat the original exception
-                        throw ex;
+                        // make sure to rollback the transaction we've begun
+                        accessor.rollbackTransaction(writeSession);
+                    } catch (Exception rollbackException) {
+                        // ignore rollback exception
                     }
-                } finally {
-                    getConnectionHandler().releaseAccessor(accessor);
+                    // don't eat the original exception
+                    throw ex;
                 }
+            } finally {
+                getConnectionHandler().releaseAccessor(accessor);
             }
         }
     }
@@ -632,7 +745,7 @@ class SequencingManager implements SequencingHome, SequencingServer, SequencingC
      * This is used by native sequence objects.
      * No transaction is required as sequence objects are non-transactional.
      */
-    class Preallocation_NoTransaction_State extends State {
+    class Preallocation_NoTransaction_State extends State implements RefillableState {
         public Object getNextValue(Sequence sequence, AbstractSession writeSession) {
             String seqName = sequence.getName();
             if(sequence.getPreallocationSize() > 1) {
@@ -640,8 +753,10 @@ class SequencingManager implements SequencingHome, SequencingServer, SequencingC
                 // First try to get the next sequence value without locking.
                 Object sequenceValue = sequencesForName.poll();
                 if (sequenceValue != null) {
+                    checkPreallocationRefill(this, sequence);
                     return sequenceValue;
                 }
+                getStatistics(seqName).stalled();
                 // Sequences are empty, so must lock and allocate next batch of sequences.
                 ConcurrencyManager lock = acquireLock(seqName);
                 try {
@@ -649,7 +764,7 @@ class SequencingManager implements SequencingHome, SequencingServer, SequencingC
                     if (sequenceValue != null) {
                         return sequenceValue;
                     }
-                    Vector sequences = sequence.getGeneratedVector(null, writeSession);
+                    Vector sequences = SequencingManager.this.allocate(this, sequence, writeSession, false);
                     // Remove the first value before adding to the global cache to ensure this thread gets one.
                     sequenceValue = sequences.remove(0);
                     // copy remaining values to global cache.
@@ -661,9 +776,16 @@ class SequencingManager implements SequencingHome, SequencingServer, SequencingC
                 return sequenceValue;
             } else {
                 // preallocation size is 1 - just return the first (and only) element of the allocated vector.
-                return sequence.getGeneratedVector(null, writeSession).firstElement();
+                return allocate(sequence, writeSession).firstElement();
             }
         }
+
+        /**
+         * Select the next values of the sequence object, the increment of which is the preallocation size.
+         */
+        public Vector allocate(Sequence sequence, AbstractSession writeSession) {
+            return sequence.getGeneratedVector(null, writeSession);
+        }
     }
 
     /**
@@ -845,6 +967,7 @@ class SequencingManager implements SequencingHome, SequencingServer, SequencingC
         }
         setLocks(null);
         clearStates();
+        this.refills.clear();
 
         if (getConnectionHandler() != null) {
             getConnectionHandler().onDisconnect();
@@ -72,6 +72,7 @@ import org.eclipse.persistence.mappings.ForeignReferenceMapping;
 import org.eclipse.persistence.mappings.foundation.AbstractTransformationMapping;
 import org.eclipse.persistence.sessions.DatabaseLogin;
 import org.eclipse.persistence.internal.queries.JoinedAttributeManager;
+import org.eclipse.persistence.internal.queries.JPQLPlanCache;
 import org.eclipse.persistence.internal.security.PrivilegedAccessHelper;
 import org.eclipse.persistence.internal.security.PrivilegedClassForName;
 import org.eclipse.persistence.internal.security.PrivilegedNewInstanceFromClass;
@@ -146,6 +147,9 @@ public abstract class AbstractSession extends CoreAbstractSession<ClassDescripto
      */
     protected Map<String, AttributeGroup> attributeGroups;
 
+    /** Caches the results of data and report queries by SQL string, if enabled. */
+    transient protected SQLResultCache sqlResultCache;
+
     /** Stores predefined not yet parsed JPQL queries.*/
     protected boolean jpaQueriesProcessed = false;
 
@@ -191,6 +195,9 @@ public abstract class AbstractSession extends CoreAbstractSession<ClassDescripto
     /** PERF: cache descriptors from project. */
     transient protected Map<Class, ClassDescriptor> descriptors;
     
+    /** Initializes the descriptors on first use, if the descriptors are initialized lazily. */
+    transient protected LazyDescriptorInitializer lazyDescriptorInitializer;
+    
     /** PERF: cache table per tenant descriptors needing to be initialized per EM */
     transient protected List<ClassDescriptor> tablePerTenantDescriptors;
     
@@ -290,6 +297,11 @@ public abstract class AbstractSession extends CoreAbstractSession<ClassDescripto
      */
     protected Boolean shouldOptimizeResultSetAccess; 
     
+    /** Indicates whether ReadAllQuery should by default build the objects of large results on several threads. 
+     * If not set then parent's flag is used, if none set then parallel building is not used.
+     */
+    protected Boolean shouldBuildObjectsInParallel; 
+    
     /**
      * INTERNAL:
      * Create and return a new session.
@@ -899,6 +911,23 @@ public abstract class AbstractSession extends CoreAbstractSession<ClassDescripto
         this.descriptors = null;
     }
 
+    /**
+     * INTERNAL:
+     * Return the initializer of the descriptors not initialized at login, or null if all descriptors were initialized at login.
+     * @see DatabaseSessionImpl#setShouldInitializeDescriptorsLazily(boolean)
+     */
+    public LazyDescriptorInitializer getLazyDescriptorInitializer() {
+        return lazyDescriptorInitializer;
+    }
+
+    /**
+     * INTERNAL:
+     * Set the initializer of the descriptors not initialized at login.
+     */
+    public void setLazyDescriptorInitializer(LazyDescriptorInitializer lazyDescriptorInitializer) {
+        this.lazyDescriptorInitializer = lazyDescriptorInitializer;
+    }
+
     /**
      * PUBLIC:
      * Clear the profiler, this will end the current profile operation.
@@ -2153,6 +2182,29 @@ public abstract class AbstractSession extends CoreAbstractSession<ClassDescripto
         return null;
     }
 
+    /**
+     * INTERNAL:
+     * Return the cache of data and report query results, shared with the root session,
+     * or null if results are not cached.
+     */
+    public SQLResultCache getSQLResultCache() {
+        AbstractSession parent = getParent();
+        if (parent != null) {
+            return parent.getSQLResultCache();
+        }
+        return this.sqlResultCache;
+    }
+
+    /**
+     * INTERNAL:
+     * Set the cache of data and report query results.
+     * This must be set on the root session, null disables caching.
+     * @see SQLResultCache
+     */
+    public void setSQLResultCache(SQLResultCache sqlResultCache) {
+        this.sqlResultCache = sqlResultCache;
+    }
+
     /**
      * INTERNAL:
      * Gets the next link in the chain of sessions followed by a query's check
@@ -2326,7 +2378,11 @@ public abstract class AbstractSession extends CoreAbstractSession<ClassDescripto
      * UnitOfWork delegates this to the parent
      */
     public ClassDescriptor getClassDescriptorForAlias(String alias) {
-        return project.getDescriptorForAlias(alias);
+        ClassDescriptor descriptor = project.getDescriptorForAlias(alias);
+        if ((descriptor != null) && (this.lazyDescriptorInitializer != null)) {
+            this.lazyDescriptorInitializer.initialize(descriptor);
+        }
+        return descriptor;
     }
 
     /**
@@ -2388,6 +2444,15 @@ public abstract class AbstractSession extends CoreAbstractSession<ClassDescripto
             }
         }
 
+        // Initialize the descriptor on first use, if the descriptors are initialized lazily.
+        if ((this.lazyDescriptorInitializer != null) && (descriptor != null) && !descriptor.isFullyInitialized()) {
+            this.lazyDescriptorInitializer.initialize(descriptor);
+            if (!this.lazyDescriptorInitializer.isInitialized(descriptor)) {
+                // Being initialized by this thread, so must not be cached for other threads.
+                return descriptor;
+            }
+        }
+
         // Cache for optimization.
         this.lastDescriptorAccessed = descriptor;
 
@@ -2421,10 +2486,12 @@ public abstract class AbstractSession extends CoreAbstractSession<ClassDescripto
         // The project descriptor will be not initialized.
         ClassDescriptor desc = project.getDescriptorForAlias(alias);
         if (desc != null && this.descriptors != null) {
-            return this.descriptors.get(desc.getJavaClass());
-        } else {
-            return desc;
+            desc = this.descriptors.get(desc.getJavaClass());
+        }
+        if ((desc != null) && (this.lazyDescriptorInitializer != null)) {
+            this.lazyDescriptorInitializer.initialize(desc);
         }
+        return desc;
     }
     
     /**
@@ -4257,6 +4324,11 @@ public abstract class AbstractSession extends CoreAbstractSession<ClassDescripto
      */
     protected void processJPAQueries() {
         if (! jpaQueriesProcessed) {
+            // PERF: Parse the JPQL of the named queries in parallel, so processing them uses the parsed queries.
+            if (getProject().shouldUseJPQLPlanCache() && (getProject().getJPQLPlanCacheWarmUpQueries() != null)) {
+                JPQLPlanCache.getSharedCache().warmUp(getJPAQueries(), getProject().getJPQLPlanCacheWarmUpQueries(), this);
+            }
+            
             // Process the JPA queries that do not query table per tenant entities.
             for (DatabaseQuery jpaQuery : getJPAQueries()) {
                 processJPAQuery(jpaQuery);
@@ -5203,4 +5275,31 @@ public abstract class AbstractSession extends CoreAbstractSession<ClassDescripto
            }
        }
    }   
+   
+   /**
+    * ADVANCED:
+    * Set to indicate whether ReadAllQuery should by default build the objects of large results on several threads. 
+    * If not set then parent's flag is used, if none set then parallel building is not used.
+    * @see ObjectLevelReadQuery#setShouldBuildObjectsInParallel(boolean)
+    */
+   public void setShouldBuildObjectsInParallel(boolean shouldBuildObjectsInParallel) {
+       this.shouldBuildObjectsInParallel = shouldBuildObjectsInParallel;
+   }
+   
+   /**
+    * ADVANCED:
+    * Indicates whether ReadAllQuery should by default build the objects of large results on several threads. 
+    * If not set then parent's flag is used, if none set then parallel building is not used.
+    */
+   public boolean shouldBuildObjectsInParallel() {
+       if (this.shouldBuildObjectsInParallel != null) {
+           return this.shouldBuildObjectsInParallel.booleanValue();
+       } else {
+           if (getParent() != null) {
+               return getParent().shouldBuildObjectsInParallel();
+           } else {
+               return false;
+           }
+       }
+   }   
 }
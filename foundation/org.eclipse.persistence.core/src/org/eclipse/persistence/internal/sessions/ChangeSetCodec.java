@@ -0,0 +1,967 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.sessions;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.helper.ConversionManager;
+import org.eclipse.persistence.internal.helper.CustomObjectInputStream;
+import org.eclipse.persistence.internal.identitymaps.CacheId;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.changesets.ChangeRecord;
+
+/**
+ * INTERNAL:
+ * <p>
+ * <b>Purpose</b>: Encode the UnitOfWorkChangeSet sent by cache coordination in a compact binary form.
+ * <p>
+ * <b>Description</b>: The encoding contains the same information as the serialized change set,
+ * but the classes and attributes are written as their index in the project's sorted class names,
+ * and the descriptor's sorted attribute names, and the ids, versions and direct values are written in a typed binary form,
+ * integral numbers as variable length integers.
+ * Change records other than direct, object reference and aggregate records are written using Java serialization,
+ * the object change sets they reference are written as their index.
+ * Both the sending and receiving sessions must have the same project,
+ * the hash of the project's class and attribute names is written by the serializer to detect a different project.
+ * <p>
+ * The encoding is the number of object change sets, the number of serialized change records,
+ * the indexes of the change sets and deleted objects, the object change sets in index order,
+ * then the serialized change records.
+ * <p>
+ * The codec caches the class and attribute indexes of the project, it is thread-safe.
+ */
+public class ChangeSetCodec {
+
+    /** Value tags. */
+    protected static final int NULL = 0;
+    protected static final int STRING = 1;
+    protected static final int INTEGER = 2;
+    protected static final int LONG = 3;
+    protected static final int SHORT = 4;
+    protected static final int BYTE = 5;
+    protected static final int TRUE = 6;
+    protected static final int FALSE = 7;
+    protected static final int DOUBLE = 8;
+    protected static final int FLOAT = 9;
+    protected static final int CHARACTER = 10;
+    protected static final int BIG_DECIMAL = 11;
+    protected static final int BIG_INTEGER = 12;
+    protected static final int BYTES = 13;
+    protected static final int DATE = 14;
+    protected static final int SQL_DATE = 15;
+    protected static final int TIME = 16;
+    protected static final int TIMESTAMP = 17;
+    protected static final int CACHE_ID = 18;
+    protected static final int ENUM = 19;
+    protected static final int CHANGE_SET = 20;
+    /** Any other value is written using Java serialization. */
+    protected static final int SERIALIZED = 21;
+
+    /** Change record tags. */
+    protected static final int SERIALIZED_RECORD = 0;
+    protected static final int DIRECT_RECORD = 1;
+    protected static final int REFERENCE_RECORD = 2;
+    protected static final int AGGREGATE_RECORD = 3;
+
+    /** Object change set flags. */
+    protected static final int SHOULD_BE_DELETED = 1;
+    protected static final int IS_INVALID = 2;
+    protected static final int IS_NEW = 4;
+    protected static final int IS_AGGREGATE = 8;
+    protected static final int HAS_VERSION_CHANGE = 16;
+    protected static final int HAS_MODIFY_VERSION_FIELD = 32;
+    protected static final int SHOULD_MODIFY_VERSION_FIELD = 64;
+    protected static final int IS_COMPLETE = 128;
+
+    /** The class and attribute indexes of the last project used, rebuilt if the project changes. */
+    protected volatile ProjectIndex projectIndex;
+
+    /**
+     * Encode the change set's all change sets and deleted objects.
+     */
+    public byte[] encode(UnitOfWorkChangeSet changeSet, AbstractSession session) throws IOException {
+        Encoder encoder = new Encoder(getProjectIndex(session));
+        return encoder.encode(changeSet);
+    }
+
+    /**
+     * Decode the bytes of the encoding into a change set.
+     */
+    public UnitOfWorkChangeSet decode(byte[] bytes, int offset, int length, AbstractSession session) throws IOException, ClassNotFoundException {
+        Decoder decoder = new Decoder(getProjectIndex(session), session, bytes, offset, length);
+        return decoder.decode();
+    }
+
+    /**
+     * Return the hash of the class and attribute names of the session's project.
+     * Projects with the same hash have the same class and attribute indexes, so can decode each other's encodings.
+     */
+    public long getProjectHash(AbstractSession session) {
+        return getProjectIndex(session).hash;
+    }
+
+    /**
+     * Return the class and attribute indexes of the session's project.
+     */
+    protected ProjectIndex getProjectIndex(AbstractSession session) {
+        Project project = session.getProject();
+        ProjectIndex index = this.projectIndex;
+        if ((index == null) || (index.project != project) || (index.size != project.getDescriptors().size())) {
+            index = new ProjectIndex(project);
+            this.projectIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * INTERNAL:
+     * The sorted class names of a project's descriptors, and the sorted attribute names of each descriptor's mappings.
+     */
+    protected static class ProjectIndex {
+        /** FNV-1a 64 bit offset basis and prime, used to hash the class and attribute names. */
+        protected static final long FNV_OFFSET = 0xcbf29ce484222325L;
+        protected static final long FNV_PRIME = 0x100000001b3L;
+
+        protected Project project;
+        protected int size;
+        protected String[] classNames;
+        protected Map<String, Integer> classIndexes;
+        protected Map<String, ClassDescriptor> descriptors;
+        /** The attribute names of each class. */
+        protected Map<String, AttributeIndex> attributeIndexes;
+        /** The hash of the class names, and the attribute names of each class, in index order. */
+        protected long hash;
+
+        protected ProjectIndex(Project project) {
+            this.project = project;
+            Map<Class, ClassDescriptor> projectDescriptors = project.getDescriptors();
+            this.size = projectDescriptors.size();
+            this.descriptors = new HashMap<String, ClassDescriptor>(this.size);
+            for (ClassDescriptor descriptor : projectDescriptors.values()) {
+                if (descriptor.getJavaClassName() != null) {
+                    this.descriptors.put(descriptor.getJavaClassName(), descriptor);
+                }
+            }
+            this.classNames = this.descriptors.keySet().toArray(new String[this.descriptors.size()]);
+            Arrays.sort(this.classNames);
+            this.classIndexes = new HashMap<String, Integer>(this.classNames.length);
+            for (int index = 0; index < this.classNames.length; index++) {
+                this.classIndexes.put(this.classNames[index], index);
+            }
+            this.attributeIndexes = new ConcurrentHashMap<String, AttributeIndex>();
+            long hash = FNV_OFFSET;
+            for (String className : this.classNames) {
+                hash = hash(className, hash);
+                AttributeIndex attributeIndex = getAttributeIndex(className);
+                for (String attributeName : attributeIndex.attributeNames) {
+                    hash = hash(attributeName, hash);
+                }
+                // Separate the attributes of each class.
+                hash = (hash ^ 0x20000) * FNV_PRIME;
+            }
+            this.hash = hash;
+        }
+
+        protected static long hash(String value, long hash) {
+            int length = value.length();
+            for (int index = 0; index < length; index++) {
+                hash = (hash ^ value.charAt(index)) * FNV_PRIME;
+            }
+            // Separate the names, the length is not a character.
+            return (hash ^ 0x10000) * FNV_PRIME;
+        }
+
+        /**
+         * Return the attribute names of the class, or null if the class has no descriptor.
+         */
+        protected AttributeIndex getAttributeIndex(String className) {
+            if (className == null) {
+                return null;
+            }
+            AttributeIndex index = this.attributeIndexes.get(className);
+            if (index == null) {
+                ClassDescriptor descriptor = this.descriptors.get(className);
+                if (descriptor == null) {
+                    return null;
+                }
+                index = new AttributeIndex(descriptor);
+                this.attributeIndexes.put(className, index);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * The sorted attribute names of a descriptor's mappings.
+     */
+    protected static class AttributeIndex {
+        protected String[] attributeNames;
+        protected Map<String, Integer> indexes;
+
+        protected AttributeIndex(ClassDescriptor descriptor) {
+            List<String> names = new ArrayList<String>(descriptor.getMappings().size());
+            for (DatabaseMapping mapping : descriptor.getMappings()) {
+                if ((mapping.getAttributeName() != null) && !names.contains(mapping.getAttributeName())) {
+                    names.add(mapping.getAttributeName());
+                }
+            }
+            this.attributeNames = names.toArray(new String[names.size()]);
+            Arrays.sort(this.attributeNames);
+            this.indexes = new HashMap<String, Integer>(this.attributeNames.length);
+            for (int index = 0; index < this.attributeNames.length; index++) {
+                this.indexes.put(this.attributeNames[index], index);
+            }
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Reference to an object change set by its index, written in place of the change set in serialized change records.
+     */
+    protected static class ChangeSetReference implements Serializable {
+        protected int index;
+
+        protected ChangeSetReference(int index) {
+            this.index = index;
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Growable byte buffer with variable length integer encoding.
+     */
+    protected static class Output extends OutputStream {
+        protected byte[] buffer = new byte[1024];
+        protected int size;
+
+        protected void ensureCapacity(int extra) {
+            if (this.size + extra > this.buffer.length) {
+                this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length * 2, this.size + extra));
+            }
+        }
+
+        public void write(int value) {
+            ensureCapacity(1);
+            this.buffer[this.size++] = (byte)value;
+        }
+
+        public void write(byte[] bytes, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, offset, this.buffer, this.size, length);
+            this.size = this.size + length;
+        }
+
+        /** Write an unsigned variable length integer, 7 bits per byte. */
+        protected void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                this.buffer[this.size++] = (byte)((value & 0x7F) | 0x80);
+                value = value >>> 7;
+            }
+            this.buffer[this.size++] = (byte)value;
+        }
+
+        protected void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        /** Write a signed variable length integer, zigzag encoded so small negative values are also small. */
+        protected void writeSignedVarLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        protected void writeFixedLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift = shift - 8) {
+                this.buffer[this.size++] = (byte)(value >>> shift);
+            }
+        }
+
+        protected void writeBytes(byte[] bytes) {
+            writeVarInt(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+
+        /** Write the string as UTF-8, the length is written plus one so null is 0. */
+        protected void writeString(String value) throws IOException {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            byte[] bytes = value.getBytes("UTF-8");
+            writeVarInt(bytes.length + 1);
+            write(bytes, 0, bytes.length);
+        }
+
+        protected byte[] toByteArray() {
+            return Arrays.copyOf(this.buffer, this.size);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Reader of the encoding written by Output.
+     */
+    protected static class Input {
+        protected byte[] buffer;
+        protected int position;
+        protected int end;
+
+        protected Input(byte[] buffer, int offset, int length) {
+            this.buffer = buffer;
+            this.position = offset;
+            this.end = offset + length;
+        }
+
+        protected int read() throws IOException {
+            if (this.position >= this.end) {
+                throw new IOException("unexpected end of change set");
+            }
+            return this.buffer[this.position++] & 0xFF;
+        }
+
+        protected long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift = shift + 7) {
+                int next = read();
+                value = value | ((long)(next & 0x7F) << shift);
+                if ((next & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("invalid variable length integer");
+        }
+
+        protected int readVarInt() throws IOException {
+            return (int)readVarLong();
+        }
+
+        protected long readSignedVarLong() throws IOException {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        protected long readFixedLong() throws IOException {
+            long value = 0;
+            for (int index = 0; index < 8; index++) {
+                value = (value << 8) | read();
+            }
+            return value;
+        }
+
+        protected byte[] readBytes() throws IOException {
+            int length = readVarInt();
+            checkLength(length);
+            byte[] bytes = Arrays.copyOfRange(this.buffer, this.position, this.position + length);
+            this.position = this.position + length;
+            return bytes;
+        }
+
+        protected String readString() throws IOException {
+            int length = readVarInt();
+            if (length == 0) {
+                return null;
+            }
+            length = length - 1;
+            checkLength(length);
+            String value = new String(this.buffer, this.position, length, "UTF-8");
+            this.position = this.position + length;
+            return value;
+        }
+
+        protected void checkLength(int length) throws IOException {
+            if ((length < 0) || (length > (this.end - this.position))) {
+                throw new IOException("unexpected end of change set");
+            }
+        }
+
+        protected InputStream remainingStream() {
+            return new ByteArrayInputStream(this.buffer, this.position, this.end - this.position);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Encodes a single change set, the object change sets are numbered in the order they are first referenced.
+     */
+    protected static class Encoder {
+        protected ProjectIndex projectIndex;
+        protected Output output;
+        protected Map<ObjectChangeSet, Integer> changeSetIndexes;
+        protected List<ObjectChangeSet> changeSets;
+        protected List<ChangeRecord> serializedRecords;
+        protected ByteArrayOutputStream serializedBytes;
+        protected ObjectOutputStream serializedStream;
+
+        protected Encoder(ProjectIndex projectIndex) {
+            this.projectIndex = projectIndex;
+            this.output = new Output();
+            this.changeSetIndexes = new IdentityHashMap<ObjectChangeSet, Integer>();
+            this.changeSets = new ArrayList<ObjectChangeSet>();
+            this.serializedRecords = new ArrayList<ChangeRecord>();
+        }
+
+        protected byte[] encode(UnitOfWorkChangeSet changeSet) throws IOException {
+            Map<ObjectChangeSet, ObjectChangeSet> allChangeSets = changeSet.getAllChangeSets();
+            this.output.writeVarInt(allChangeSets.size());
+            for (ObjectChangeSet objectChangeSet : allChangeSets.keySet()) {
+                this.output.writeVarInt(indexOf(objectChangeSet));
+            }
+            Map<ObjectChangeSet, ObjectChangeSet> deletedObjects = changeSet.getDeletedObjects();
+            this.output.writeVarInt(deletedObjects.size());
+            for (ObjectChangeSet objectChangeSet : deletedObjects.keySet()) {
+                this.output.writeVarInt(indexOf(objectChangeSet));
+            }
+            // Serializing records may reference further change sets, which may have further records.
+            int written = 0;
+            int recordsWritten = 0;
+            while ((written < this.changeSets.size()) || (recordsWritten < this.serializedRecords.size())) {
+                while (written < this.changeSets.size()) {
+                    writeChangeSet(this.changeSets.get(written));
+                    written++;
+                }
+                if (recordsWritten < this.serializedRecords.size()) {
+                    if (this.serializedStream == null) {
+                        this.serializedBytes = new ByteArrayOutputStream();
+                        this.serializedStream = new ChangeSetReferenceOutputStream(this.serializedBytes, this);
+                    }
+                    while (recordsWritten < this.serializedRecords.size()) {
+                        this.serializedStream.writeObject(this.serializedRecords.get(recordsWritten));
+                        recordsWritten++;
+                    }
+                }
+            }
+            Output header = new Output();
+            header.writeVarInt(this.changeSets.size());
+            header.writeVarInt(this.serializedRecords.size());
+            header.write(this.output.buffer, 0, this.output.size);
+            if (this.serializedStream != null) {
+                this.serializedStream.close();
+                byte[] bytes = this.serializedBytes.toByteArray();
+                header.write(bytes, 0, bytes.length);
+            }
+            return header.toByteArray();
+        }
+
+        /**
+         * Return the index of the change set, assigning the next index if it has not been referenced.
+         */
+        protected int indexOf(ObjectChangeSet changeSet) {
+            Integer index = this.changeSetIndexes.get(changeSet);
+            if (index == null) {
+                index = this.changeSets.size();
+                this.changeSetIndexes.put(changeSet, index);
+                this.changeSets.add(changeSet);
+            }
+            return index;
+        }
+
+        protected void writeChangeSet(ObjectChangeSet changeSet) throws IOException {
+            boolean isComplete = !changeSet.shouldSerializeIdentityOnly();
+            if (isComplete) {
+                changeSet.prepareChangesForSerialization();
+            }
+            int flags = 0;
+            if (changeSet.shouldBeDeleted) {
+                flags = flags | SHOULD_BE_DELETED;
+            }
+            if (changeSet.isInvalid) {
+                flags = flags | IS_INVALID;
+            }
+            if (changeSet.isNew) {
+                flags = flags | IS_NEW;
+            }
+            if (changeSet.isAggregate) {
+                flags = flags | IS_AGGREGATE;
+            }
+            if (changeSet.hasVersionChange) {
+                flags = flags | HAS_VERSION_CHANGE;
+            }
+            if (changeSet.shouldModifyVersionField != null) {
+                flags = flags | HAS_MODIFY_VERSION_FIELD;
+                if (changeSet.shouldModifyVersionField.booleanValue()) {
+                    flags = flags | SHOULD_MODIFY_VERSION_FIELD;
+                }
+            }
+            if (isComplete) {
+                flags = flags | IS_COMPLETE;
+            }
+            this.output.write(flags);
+            // Same as Java serialization, only the low byte is written.
+            this.output.write(changeSet.cacheSynchronizationType);
+            Integer classIndex = null;
+            if (changeSet.className != null) {
+                classIndex = this.projectIndex.classIndexes.get(changeSet.className);
+            }
+            if (classIndex == null) {
+                this.output.writeVarInt(0);
+                this.output.writeString(changeSet.className);
+            } else {
+                this.output.writeVarInt(classIndex + 1);
+            }
+            writeValue(changeSet.id);
+            writeValue(changeSet.writeLockValue);
+            writeValue(changeSet.initialWriteLockValue);
+            if (!isComplete) {
+                return;
+            }
+            List<ChangeRecord> changes = changeSet.changes;
+            if (changes == null) {
+                this.output.writeVarInt(0);
+            } else {
+                this.output.writeVarInt(changes.size() + 1);
+                AttributeIndex attributeIndex = this.projectIndex.getAttributeIndex(changeSet.className);
+                for (ChangeRecord change : changes) {
+                    writeChangeRecord((org.eclipse.persistence.internal.sessions.ChangeRecord)change, changeSet, attributeIndex);
+                }
+            }
+            writeValue(changeSet.oldKey);
+            writeValue(changeSet.newKey);
+        }
+
+        protected void writeChangeRecord(org.eclipse.persistence.internal.sessions.ChangeRecord record, ObjectChangeSet owner, AttributeIndex attributeIndex) throws IOException {
+            Class recordClass = record.getClass();
+            if ((record.owner != owner)
+                    || ((recordClass != DirectToFieldChangeRecord.class) && (recordClass != ObjectReferenceChangeRecord.class) && (recordClass != AggregateChangeRecord.class))) {
+                this.output.write(SERIALIZED_RECORD);
+                this.output.writeVarInt(this.serializedRecords.size());
+                this.serializedRecords.add(record);
+                return;
+            }
+            if (recordClass == DirectToFieldChangeRecord.class) {
+                this.output.write(DIRECT_RECORD);
+                writeAttribute(record.attribute, attributeIndex);
+                writeValue(((DirectToFieldChangeRecord)record).newValue);
+            } else if (recordClass == ObjectReferenceChangeRecord.class) {
+                this.output.write(REFERENCE_RECORD);
+                writeAttribute(record.attribute, attributeIndex);
+                writeChangeSetReference(((ObjectReferenceChangeRecord)record).newValue);
+            } else {
+                this.output.write(AGGREGATE_RECORD);
+                writeAttribute(record.attribute, attributeIndex);
+                writeChangeSetReference((ObjectChangeSet)((AggregateChangeRecord)record).changedObject);
+            }
+        }
+
+        /**
+         * Write the index plus one of the attribute, or 0 and its name if it is not a mapped attribute.
+         */
+        protected void writeAttribute(String attribute, AttributeIndex attributeIndex) throws IOException {
+            Integer index = null;
+            if ((attributeIndex != null) && (attribute != null)) {
+                index = attributeIndex.indexes.get(attribute);
+            }
+            if (index == null) {
+                this.output.writeVarInt(0);
+                this.output.writeString(attribute);
+            } else {
+                this.output.writeVarInt(index + 1);
+            }
+        }
+
+        /**
+         * Write the index plus one of the change set, or 0 for null.
+         */
+        protected void writeChangeSetReference(ObjectChangeSet changeSet) {
+            if (changeSet == null) {
+                this.output.writeVarInt(0);
+            } else {
+                this.output.writeVarInt(indexOf(changeSet) + 1);
+            }
+        }
+
+        protected void writeValue(Object value) throws IOException {
+            if (value == null) {
+                this.output.write(NULL);
+                return;
+            }
+            Class type = value.getClass();
+            if (type == String.class) {
+                this.output.write(STRING);
+                this.output.writeString((String)value);
+            } else if (type == Integer.class) {
+                this.output.write(INTEGER);
+                this.output.writeSignedVarLong(((Integer)value).intValue());
+            } else if (type == Long.class) {
+                this.output.write(LONG);
+                this.output.writeSignedVarLong(((Long)value).longValue());
+            } else if (type == CacheId.class) {
+                Object[] primaryKey = ((CacheId)value).getPrimaryKey();
+                this.output.write(CACHE_ID);
+                this.output.writeVarInt(primaryKey.length);
+                for (Object keyValue : primaryKey) {
+                    writeValue(keyValue);
+                }
+            } else if (type == Short.class) {
+                this.output.write(SHORT);
+                this.output.writeSignedVarLong(((Short)value).shortValue());
+            } else if (type == Byte.class) {
+                this.output.write(BYTE);
+                this.output.write(((Byte)value).byteValue());
+            } else if (type == Boolean.class) {
+                this.output.write(((Boolean)value).booleanValue() ? TRUE : FALSE);
+            } else if (type == Double.class) {
+                this.output.write(DOUBLE);
+                this.output.writeFixedLong(Double.doubleToLongBits(((Double)value).doubleValue()));
+            } else if (type == Float.class) {
+                this.output.write(FLOAT);
+                this.output.writeVarInt(Float.floatToIntBits(((Float)value).floatValue()));
+            } else if (type == Character.class) {
+                this.output.write(CHARACTER);
+                this.output.writeVarInt(((Character)value).charValue());
+            } else if (type == BigDecimal.class) {
+                this.output.write(BIG_DECIMAL);
+                this.output.writeBytes(((BigDecimal)value).unscaledValue().toByteArray());
+                this.output.writeSignedVarLong(((BigDecimal)value).scale());
+            } else if (type == BigInteger.class) {
+                this.output.write(BIG_INTEGER);
+                this.output.writeBytes(((BigInteger)value).toByteArray());
+            } else if (type == byte[].class) {
+                this.output.write(BYTES);
+                this.output.writeBytes((byte[])value);
+            } else if (type == java.util.Date.class) {
+                this.output.write(DATE);
+                this.output.writeSignedVarLong(((java.util.Date)value).getTime());
+            } else if (type == java.sql.Date.class) {
+                this.output.write(SQL_DATE);
+                this.output.writeSignedVarLong(((java.util.Date)value).getTime());
+            } else if (type == java.sql.Time.class) {
+                this.output.write(TIME);
+                this.output.writeSignedVarLong(((java.util.Date)value).getTime());
+            } else if (type == java.sql.Timestamp.class) {
+                this.output.write(TIMESTAMP);
+                this.output.writeSignedVarLong(((java.sql.Timestamp)value).getTime());
+                this.output.writeVarInt(((java.sql.Timestamp)value).getNanos());
+            } else if (value instanceof Enum) {
+                this.output.write(ENUM);
+                this.output.writeString(((Enum)value).getDeclaringClass().getName());
+                this.output.writeString(((Enum)value).name());
+            } else if (value instanceof ObjectChangeSet) {
+                this.output.write(CHANGE_SET);
+                this.output.writeVarInt(indexOf((ObjectChangeSet)value));
+            } else {
+                // Values are self contained, only change records can reference change sets.
+                this.output.write(SERIALIZED);
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                ObjectOutputStream stream = new ObjectOutputStream(bytes);
+                stream.writeObject(value);
+                stream.close();
+                this.output.writeBytes(bytes.toByteArray());
+            }
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Serializes change records, writing the object change sets they reference as their index.
+     */
+    protected static class ChangeSetReferenceOutputStream extends ObjectOutputStream {
+        protected Encoder encoder;
+
+        protected ChangeSetReferenceOutputStream(OutputStream stream, Encoder encoder) throws IOException {
+            super(stream);
+            this.encoder = encoder;
+            enableReplaceObject(true);
+        }
+
+        protected Object replaceObject(Object object) throws IOException {
+            if (object instanceof ObjectChangeSet) {
+                return new ChangeSetReference(this.encoder.indexOf((ObjectChangeSet)object));
+            }
+            return object;
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Reads serialized change records, resolving the references to the decoded object change sets.
+     */
+    protected static class ChangeSetReferenceInputStream extends CustomObjectInputStream {
+        protected ObjectChangeSet[] changeSets;
+
+        protected ChangeSetReferenceInputStream(InputStream stream, AbstractSession session, ObjectChangeSet[] changeSets) throws IOException {
+            super(stream, session);
+            this.changeSets = changeSets;
+            enableResolveObject(true);
+        }
+
+        protected Object resolveObject(Object object) throws IOException {
+            if (object instanceof ChangeSetReference) {
+                return this.changeSets[((ChangeSetReference)object).index];
+            }
+            return object;
+        }
+
+        public Class resolveClass(ObjectStreamClass classDesc) throws ClassNotFoundException, IOException {
+            if (classDesc.getName().equals(ChangeSetReference.class.getName())) {
+                return ChangeSetReference.class;
+            }
+            return super.resolveClass(classDesc);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Decodes a single change set.
+     * The object change sets are decoded before the serialized change records,
+     * as the records may hash the change sets they reference.
+     */
+    protected static class Decoder {
+        protected ProjectIndex projectIndex;
+        protected AbstractSession session;
+        protected Input input;
+        protected ObjectChangeSet[] changeSets;
+        /** The position in its owner's changes of each serialized record. */
+        protected List[] serializedRecordOwners;
+        protected int[] serializedRecordPositions;
+
+        protected Decoder(ProjectIndex projectIndex, AbstractSession session, byte[] bytes, int offset, int length) {
+            this.projectIndex = projectIndex;
+            this.session = session;
+            this.input = new Input(bytes, offset, length);
+        }
+
+        protected UnitOfWorkChangeSet decode() throws IOException, ClassNotFoundException {
+            int numberOfChangeSets = this.input.readVarInt();
+            int numberOfRecords = this.input.readVarInt();
+            this.input.checkLength(numberOfChangeSets);
+            this.changeSets = new ObjectChangeSet[numberOfChangeSets];
+            for (int index = 0; index < numberOfChangeSets; index++) {
+                this.changeSets[index] = new ObjectChangeSet();
+            }
+            this.serializedRecordOwners = new List[numberOfRecords];
+            this.serializedRecordPositions = new int[numberOfRecords];
+            UnitOfWorkChangeSet changeSet = new UnitOfWorkChangeSet();
+            int size = this.input.readVarInt();
+            Map<ObjectChangeSet, ObjectChangeSet> allChangeSets = new IdentityHashMap<ObjectChangeSet, ObjectChangeSet>(size);
+            for (int index = 0; index < size; index++) {
+                ObjectChangeSet objectChangeSet = readChangeSetIndex();
+                allChangeSets.put(objectChangeSet, objectChangeSet);
+            }
+            size = this.input.readVarInt();
+            Map<ObjectChangeSet, ObjectChangeSet> deletedObjects = new IdentityHashMap<ObjectChangeSet, ObjectChangeSet>(size);
+            for (int index = 0; index < size; index++) {
+                ObjectChangeSet objectChangeSet = readChangeSetIndex();
+                deletedObjects.put(objectChangeSet, objectChangeSet);
+            }
+            for (int index = 0; index < numberOfChangeSets; index++) {
+                readChangeSet(this.changeSets[index]);
+            }
+            if (numberOfRecords > 0) {
+                ObjectInputStream stream = new ChangeSetReferenceInputStream(this.input.remainingStream(), this.session, this.changeSets);
+                for (int index = 0; index < numberOfRecords; index++) {
+                    Object record = stream.readObject();
+                    if (this.serializedRecordOwners[index] == null) {
+                        throw new IOException("invalid change record index");
+                    }
+                    this.serializedRecordOwners[index].set(this.serializedRecordPositions[index], record);
+                }
+                stream.close();
+            }
+            // bug 4416412: allChangeSets set directly instead of using setInternalAllChangeSets
+            changeSet.allChangeSets = allChangeSets;
+            changeSet.deletedObjects = deletedObjects;
+            return changeSet;
+        }
+
+        protected ObjectChangeSet readChangeSetIndex() throws IOException {
+            int index = this.input.readVarInt();
+            if ((index < 0) || (index >= this.changeSets.length)) {
+                throw new IOException("invalid change set index");
+            }
+            return this.changeSets[index];
+        }
+
+        protected ObjectChangeSet readChangeSetReference() throws IOException {
+            int index = this.input.readVarInt();
+            if (index == 0) {
+                return null;
+            }
+            if (index > this.changeSets.length) {
+                throw new IOException("invalid change set index");
+            }
+            return this.changeSets[index - 1];
+        }
+
+        protected void readChangeSet(ObjectChangeSet changeSet) throws IOException, ClassNotFoundException {
+            int flags = this.input.read();
+            // bug 3526981 - avoid side effects of setter methods by directly assigning variables
+            changeSet.cacheSynchronizationType = this.input.read();
+            changeSet.shouldBeDeleted = (flags & SHOULD_BE_DELETED) != 0;
+            changeSet.isInvalid = (flags & IS_INVALID) != 0;
+            changeSet.isNew = (flags & IS_NEW) != 0;
+            changeSet.isAggregate = (flags & IS_AGGREGATE) != 0;
+            changeSet.hasVersionChange = (flags & HAS_VERSION_CHANGE) != 0;
+            if ((flags & HAS_MODIFY_VERSION_FIELD) != 0) {
+                changeSet.shouldModifyVersionField = Boolean.valueOf((flags & SHOULD_MODIFY_VERSION_FIELD) != 0);
+            }
+            int classIndex = this.input.readVarInt();
+            if (classIndex == 0) {
+                changeSet.className = this.input.readString();
+            } else if (classIndex > this.projectIndex.classNames.length) {
+                throw new IOException("invalid class index");
+            } else {
+                changeSet.className = this.projectIndex.classNames[classIndex - 1];
+            }
+            changeSet.id = readValue();
+            changeSet.writeLockValue = readValue();
+            changeSet.initialWriteLockValue = readValue();
+            if ((flags & IS_COMPLETE) == 0) {
+                return;
+            }
+            int size = this.input.readVarInt();
+            if (size > 0) {
+                size = size - 1;
+                this.input.checkLength(size);
+                List<ChangeRecord> changes = new ArrayList<ChangeRecord>(size);
+                AttributeIndex attributeIndex = this.projectIndex.getAttributeIndex(changeSet.className);
+                for (int index = 0; index < size; index++) {
+                    changes.add(readChangeRecord(changeSet, attributeIndex, changes));
+                }
+                changeSet.changes = changes;
+            }
+            changeSet.oldKey = readValue();
+            changeSet.newKey = readValue();
+        }
+
+        protected ChangeRecord readChangeRecord(ObjectChangeSet owner, AttributeIndex attributeIndex, List<ChangeRecord> changes) throws IOException, ClassNotFoundException {
+            int tag = this.input.read();
+            if (tag == SERIALIZED_RECORD) {
+                int index = this.input.readVarInt();
+                if ((index < 0) || (index >= this.serializedRecordOwners.length)) {
+                    throw new IOException("invalid change record index");
+                }
+                this.serializedRecordOwners[index] = changes;
+                this.serializedRecordPositions[index] = changes.size();
+                // Replaced once the serialized records are read.
+                return null;
+            }
+            String attribute = readAttribute(attributeIndex);
+            if (tag == DIRECT_RECORD) {
+                DirectToFieldChangeRecord record = new DirectToFieldChangeRecord(owner);
+                record.attribute = attribute;
+                record.newValue = readValue();
+                return record;
+            } else if (tag == REFERENCE_RECORD) {
+                ObjectReferenceChangeRecord record = new ObjectReferenceChangeRecord(owner);
+                record.attribute = attribute;
+                record.newValue = readChangeSetReference();
+                return record;
+            } else if (tag == AGGREGATE_RECORD) {
+                AggregateChangeRecord record = new AggregateChangeRecord(owner);
+                record.attribute = attribute;
+                record.changedObject = readChangeSetReference();
+                return record;
+            }
+            throw new IOException("invalid change record tag: " + tag);
+        }
+
+        protected String readAttribute(AttributeIndex attributeIndex) throws IOException {
+            int index = this.input.readVarInt();
+            if (index == 0) {
+                return this.input.readString();
+            }
+            if ((attributeIndex == null) || (index > attributeIndex.attributeNames.length)) {
+                throw new IOException("invalid attribute index");
+            }
+            return attributeIndex.attributeNames[index - 1];
+        }
+
+        protected Object readValue() throws IOException, ClassNotFoundException {
+            int tag = this.input.read();
+            switch (tag) {
+            case NULL:
+                return null;
+            case STRING:
+                return this.input.readString();
+            case INTEGER:
+                return Integer.valueOf((int)this.input.readSignedVarLong());
+            case LONG:
+                return Long.valueOf(this.input.readSignedVarLong());
+            case CACHE_ID:
+                int length = this.input.readVarInt();
+                this.input.checkLength(length);
+                Object[] primaryKey = new Object[length];
+                for (int index = 0; index < length; index++) {
+                    primaryKey[index] = readValue();
+                }
+                return new CacheId(primaryKey);
+            case SHORT:
+                return Short.valueOf((short)this.input.readSignedVarLong());
+            case BYTE:
+                return Byte.valueOf((byte)this.input.read());
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case DOUBLE:
+                return Double.valueOf(Double.longBitsToDouble(this.input.readFixedLong()));
+            case FLOAT:
+                return Float.valueOf(Float.intBitsToFloat(this.input.readVarInt()));
+            case CHARACTER:
+                return Character.valueOf((char)this.input.readVarInt());
+            case BIG_DECIMAL:
+                BigInteger unscaledValue = new BigInteger(this.input.readBytes());
+                return new BigDecimal(unscaledValue, (int)this.input.readSignedVarLong());
+            case BIG_INTEGER:
+                return new BigInteger(this.input.readBytes());
+            case BYTES:
+                return this.input.readBytes();
+            case DATE:
+                return new java.util.Date(this.input.readSignedVarLong());
+            case SQL_DATE:
+                return new java.sql.Date(this.input.readSignedVarLong());
+            case TIME:
+                return new java.sql.Time(this.input.readSignedVarLong());
+            case TIMESTAMP:
+                java.sql.Timestamp timestamp = new java.sql.Timestamp(this.input.readSignedVarLong());
+                timestamp.setNanos(this.input.readVarInt());
+                return timestamp;
+            case ENUM:
+                ConversionManager conversionManager = this.session.getDatasourcePlatform().getConversionManager();
+                Class enumClass = conversionManager.convertClassNameToClass(this.input.readString());
+                return Enum.valueOf(enumClass, this.input.readString());
+            case CHANGE_SET:
+                return readChangeSetIndex();
+            case SERIALIZED:
+                byte[] bytes = this.input.readBytes();
+                ObjectInputStream stream = new CustomObjectInputStream(new ByteArrayInputStream(bytes), this.session);
+                Object value = stream.readObject();
+                stream.close();
+                return value;
+            default:
+                throw new IOException("invalid value tag: " + tag);
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.sessions;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Field;
+import java.util.Vector;
+
+import org.eclipse.persistence.exceptions.DescriptorException;
+import org.eclipse.persistence.internal.databaseaccess.ColumnarRowBuffer;
+import org.eclipse.persistence.internal.helper.DatabaseField;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Row view of a ColumnarRowBuffer.
+ * <p>Values are read from the buffer, and only boxed when accessed.
+ * Primitive attributes can be set directly from the buffer using setPrimitiveValueInField.
+ * Any method that requires the values array loads the values from the buffer and releases the buffer.
+ * @see org.eclipse.persistence.internal.databaseaccess.ColumnarRowBuffer
+ */
+public class ColumnarRecord extends ArrayRecord {
+    transient protected ColumnarRowBuffer buffer;
+    transient protected int rowIndex;
+
+    protected ColumnarRecord() {
+        super();
+    }
+
+    public ColumnarRecord(Vector fields, DatabaseField[] fieldsArray, ColumnarRowBuffer buffer, int rowIndex) {
+        super(fields, fieldsArray, null);
+        this.buffer = buffer;
+        this.rowIndex = rowIndex;
+    }
+
+    /**
+     * Indicates whether the values are still in the buffer.
+     */
+    public boolean hasBuffer() {
+        return this.buffer != null;
+    }
+
+    /**
+     * Load the values of the row from the buffer and release the buffer.
+     */
+    public void loadValuesFromBuffer() {
+        if (this.buffer != null) {
+            this.valuesArray = this.buffer.getValues(this.rowIndex);
+            this.buffer = null;
+        }
+    }
+
+    /**
+     * Return the index of the field in the row, or -1 if the row does not contain the field.
+     */
+    protected int getColumnIndex(DatabaseField key) {
+        // Optimize check.
+        int index = key.index;
+        if ((index >= 0) && (index < this.size)) {
+            DatabaseField field = this.fieldsArray[index];
+            if ((field == key) || field.equals(key)) {
+                return index;
+            }
+        }
+        for (int fieldIndex = 0; fieldIndex < this.size; fieldIndex++) {
+            DatabaseField field = this.fieldsArray[fieldIndex];
+            if ((field == key) || field.equals(key)) {
+                // PERF: If the fields index was not set, then set it.
+                if (index == -1) {
+                    key.setIndex(fieldIndex);
+                }
+                return fieldIndex;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * INTERNAL:
+     * Set the value of the field directly into the primitive attribute field of the object, without boxing the value.
+     * Return false if the value cannot be set directly, in which case the value must be set through get().
+     */
+    public boolean setPrimitiveValueInField(DatabaseField key, Field attributeField, Object object) {
+        if (this.buffer == null) {
+            return false;
+        }
+        int index = getColumnIndex(key);
+        if (index == -1) {
+            return false;
+        }
+        try {
+            return this.buffer.setValueInField(this.rowIndex, index, attributeField, object);
+        } catch (IllegalAccessException exception) {
+            throw DescriptorException.illegalAccessWhileSettingValueThruInstanceVariableAccessor(attributeField.getName(), object.getClass().getName(), this.buffer.getValue(this.rowIndex, index), exception);
+        }
+    }
+
+    /**
+     * Reset the fields and values from the arrays.
+     * This removes the optimization if a non-optimized method is called.
+     */
+    @Override
+    protected void checkValues() {
+        loadValuesFromBuffer();
+        super.checkValues();
+    }
+
+    /**
+     * PUBLIC:
+     * Clear the contents of the row.
+     */
+    @Override
+    public void clear() {
+        this.buffer = null;
+        super.clear();
+    }
+
+    /**
+     * PUBLIC:
+     * Check if the value is contained in the row.
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        loadValuesFromBuffer();
+        return super.containsValue(value);
+    }
+
+    /**
+     * INTERNAL:
+     * Retrieve the value for the field. If missing null is returned.
+     */
+    @Override
+    public Object get(DatabaseField key) {
+        if (this.buffer != null) {
+            int index = getColumnIndex(key);
+            if (index == -1) {
+                return null;
+            }
+            return this.buffer.getValue(this.rowIndex, index);
+        }
+        return super.get(key);
+    }
+
+    /**
+     * INTERNAL:
+     * Retrieve the value for the field. If missing DatabaseRow.noEntry is returned.
+     */
+    @Override
+    public Object getIndicatingNoEntry(DatabaseField key) {
+        if (this.buffer != null) {
+            int index = getColumnIndex(key);
+            if (index == -1) {
+                return AbstractRecord.noEntry;
+            }
+            return this.buffer.getValue(this.rowIndex, index);
+        }
+        return super.getIndicatingNoEntry(key);
+    }
+
+    /**
+     * INTERNAL:
+     * replaces the value at index with value
+     */
+    @Override
+    public void replaceAt(Object value, int index) {
+        loadValuesFromBuffer();
+        super.replaceAt(value, index);
+    }
+
+    /**
+     * The values must be loaded from the buffer before the row is serialized.
+     */
+    private void writeObject(ObjectOutputStream stream) throws IOException {
+        loadValuesFromBuffer();
+        stream.defaultWriteObject();
+    }
+
+    @Override
+    public String toString() {
+        loadValuesFromBuffer();
+        return super.toString();
+    }
+}
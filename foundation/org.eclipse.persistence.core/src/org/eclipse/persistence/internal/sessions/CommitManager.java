@@ -29,6 +29,9 @@ public class CommitManager {
     /** Order based on mapping foreign key constraints on how to insert objects by class. */
     protected List<Class> commitOrder;
 
+    /** Caches the plan of the classes to write for each set of changed classes, shared with units of work. */
+    protected CommitPlanner commitPlanner;
+
     /**
      * This tracks the commit state for the objects, PENDING, PRE, POST, COMPLETE.
      * The key is the object and the value is the state.
@@ -130,12 +133,21 @@ public class CommitManager {
                     commitChangedObjectsForClassWithChangeSet(uowChangeSet, theClass);
                 }
             } else {
-                // The commit order is all of the classes ordered by dependencies, this is done for deadlock avoidance.
-                List commitOrder = getCommitOrder();
-                int size = commitOrder.size();
-                for (int index = 0; index < size; index++) {
-                    Class theClass = (Class)commitOrder.get(index);
-                    commitAllObjectsForClassWithChangeSet(uowChangeSet, theClass);
+                CommitPlanner planner = getCommitPlanner();
+                if (planner != null) {
+                    // PERF: Only process the changed classes, in the cached plan order.
+                    Class[] plan = planner.getCommitPlan(uowChangeSet.getObjectChanges().keySet(), uowChangeSet.getNewObjectChangeSets().keySet());
+                    for (int index = 0; index < plan.length; index++) {
+                        commitAllObjectsForClassWithChangeSet(uowChangeSet, plan[index]);
+                    }
+                } else {
+                    // The commit order is all of the classes ordered by dependencies, this is done for deadlock avoidance.
+                    List commitOrder = getCommitOrder();
+                    int size = commitOrder.size();
+                    for (int index = 0; index < size; index++) {
+                        Class theClass = (Class)commitOrder.get(index);
+                        commitAllObjectsForClassWithChangeSet(uowChangeSet, theClass);
+                    }
                 }
             }
 
@@ -161,6 +173,14 @@ public class CommitManager {
                 }
             }
 
+            Set<String> writtenTables = null;
+            SQLResultCache resultCache = this.session.getSQLResultCache();
+            if (resultCache != null) {
+                writtenTables = new HashSet<String>();
+                resultCache.addWrittenTables(uowChangeSet.getObjectChanges().keySet(), this.session, writtenTables);
+                resultCache.addWrittenTables(uowChangeSet.getNewObjectChangeSets().keySet(), this.session, writtenTables);
+            }
+
             if (hasObjectsToDelete()) {
                 // These are orphaned objects, to be deleted from private ownership updates.
                 // TODO: These should be added to the unit of work deleted so they are deleted in the correct order.
@@ -168,11 +188,18 @@ public class CommitManager {
                 int size = objects.size();
                 reinitialize();
                 for (int index = 0; index < size; index++) {
-                    this.session.deleteObject(objects.get(index));
+                    Object object = objects.get(index);
+                    if ((writtenTables != null) && (this.session.getDescriptor(object) != null)) {
+                        resultCache.addWrittenTables(this.session.getDescriptor(object), writtenTables);
+                    }
+                    this.session.deleteObject(object);
                 }
             }
             
             this.session.commitTransaction();
+            if (writtenTables != null) {
+                invalidateSQLResults(resultCache, writtenTables);
+            }
         } catch (RuntimeException exception) {
             this.session.rollbackTransaction();
             throw exception;
@@ -284,14 +311,32 @@ public class CommitManager {
             if (objects.size() == 1) {                
                 deleteAllObjects(objects.get(0).getClass(), objects, session);                
             } else {
-                List commitOrder = getCommitOrder();
-                for (int orderIndex = commitOrder.size() - 1; orderIndex >= 0; orderIndex--) {
-                    Class theClass = (Class)commitOrder.get(orderIndex);
-                    deleteAllObjects(theClass, objects, session);
+                CommitPlanner planner = getCommitPlanner();
+                if (planner != null) {
+                    Class[] plan = planner.getDeletePlan(objects);
+                    for (int index = 0; index < plan.length; index++) {
+                        deleteAllObjects(plan[index], objects, session);
+                    }
+                } else {
+                    List commitOrder = getCommitOrder();
+                    for (int orderIndex = commitOrder.size() - 1; orderIndex >= 0; orderIndex--) {
+                        Class theClass = (Class)commitOrder.get(orderIndex);
+                        deleteAllObjects(theClass, objects, session);
+                    }
                 }
             }
 
             session.commitTransaction();
+            SQLResultCache resultCache = session.getSQLResultCache();
+            if (resultCache != null) {
+                Set<Class> classes = new HashSet<Class>();
+                for (Object object : objects) {
+                    classes.add(object.getClass());
+                }
+                Set<String> writtenTables = new HashSet<String>();
+                resultCache.addWrittenTables(classes, session, writtenTables);
+                invalidateSQLResults(resultCache, writtenTables);
+            }
         } catch (RuntimeException exception) {
             try {
                 session.rollbackTransaction();
@@ -304,6 +349,18 @@ public class CommitManager {
         }
     }
 
+    /**
+     * Remove the results of the session's SQL result cache that read the tables written by the commit.
+     * In a unit of work the tables are removed again when it merges, after its transaction is committed,
+     * as the results may have been read by other sessions while the tables were being written.
+     */
+    protected void invalidateSQLResults(SQLResultCache resultCache, Set<String> writtenTables) {
+        resultCache.invalidateTables(writtenTables);
+        if (this.session.isUnitOfWork()) {
+            ((UnitOfWorkImpl)this.session).addWrittenSQLResultTables(writtenTables);
+        }
+    }
+
     /**
      * Delete all of the objects with the matching class.
      */
@@ -369,6 +426,27 @@ public class CommitManager {
         return this.commitOrder;
     }
 
+    /**
+     * INTERNAL:
+     * Return the planner of the classes to write for the commit order, or null if it has not been initialized.
+     * A planner set for a different commit order is not used.
+     */
+    public CommitPlanner getCommitPlanner() {
+        CommitPlanner planner = this.commitPlanner;
+        if ((planner == null) || (planner.getCommitOrder() != this.commitOrder)) {
+            return null;
+        }
+        return planner;
+    }
+
+    /**
+     * INTERNAL:
+     * Set the planner of the classes to write for the commit order.
+     */
+    public void setCommitPlanner(CommitPlanner commitPlanner) {
+        this.commitPlanner = commitPlanner;
+    }
+
     /**
      * Return the map of states of the objects being committed.
      * The states are defined as static Integers (PENDING, PRE, POST, COMPLETE).
@@ -456,6 +534,15 @@ public class CommitManager {
 
         // Must ensure uniqueness, some descriptor my be register twice for interfaces.
         descriptors = Helper.addAllUniqueToVector(new Vector(descriptors.size()), descriptors);
+        // Descriptors not yet initialized lazily are added when they are initialized, as their mappings are not initialized.
+        LazyDescriptorInitializer lazyInitializer = getSession().getLazyDescriptorInitializer();
+        if (lazyInitializer != null) {
+            for (Iterator iterator = descriptors.iterator(); iterator.hasNext();) {
+                if (lazyInitializer.isPending((ClassDescriptor)iterator.next())) {
+                    iterator.remove();
+                }
+            }
+        }
         Object[] descriptorsArray = new Object[descriptors.size()];
         for (int index = 0; index < descriptors.size(); index++) {
             descriptorsArray[index] = descriptors.elementAt(index);
@@ -466,18 +553,50 @@ public class CommitManager {
             descriptors.addElement(descriptorsArray[index]);
         }
 
+        Map<Class, Set<Class>> dependencies = new HashMap<Class, Set<Class>>(descriptors.size());
         CommitOrderCalculator calculator = new CommitOrderCalculator(getSession());
         calculator.addNodes(descriptors);
         calculator.calculateMappingDependencies();
         calculator.orderCommits();
+        addDependencies(calculator, dependencies);
         descriptors = calculator.getOrderedDescriptors();
 
         calculator = new CommitOrderCalculator(getSession());
         calculator.addNodes(descriptors);
         calculator.calculateSpecifiedDependencies();
         calculator.orderCommits();
+        addDependencies(calculator, dependencies);
 
-        setCommitOrder(calculator.getOrderedClasses());
+        List<Class> commitOrder = calculator.getOrderedClasses();
+        setCommitOrder(commitOrder);
+        setCommitPlanner(new CommitPlanner(commitOrder, dependencies, getSession()));
+    }
+
+    /**
+     * Add the dependencies between the calculator's nodes to the map of each class's dependent classes.
+     * The dependencies are added in both directions, as the commit order decides their direction.
+     */
+    protected void addDependencies(CommitOrderCalculator calculator, Map<Class, Set<Class>> dependencies) {
+        for (Object node : calculator.getNodes()) {
+            Class theClass = ((CommitOrderDependencyNode)node).getDescriptor().getJavaClass();
+            for (Object relatedNode : ((CommitOrderDependencyNode)node).getRelatedNodes()) {
+                Class relatedClass = ((CommitOrderDependencyNode)relatedNode).getDescriptor().getJavaClass();
+                addDependency(theClass, relatedClass, dependencies);
+                addDependency(relatedClass, theClass, dependencies);
+            }
+        }
+    }
+
+    /**
+     * Add the dependent class to the class's dependencies.
+     */
+    protected void addDependency(Class theClass, Class dependentClass, Map<Class, Set<Class>> dependencies) {
+        Set<Class> classDependencies = dependencies.get(theClass);
+        if (classDependencies == null) {
+            classDependencies = new HashSet<Class>();
+            dependencies.put(theClass, classDependencies);
+        }
+        classDependencies.add(dependentClass);
     }
 
     /**
@@ -0,0 +1,241 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.sessions;
+
+import java.util.*;
+
+import org.eclipse.persistence.config.SystemProperties;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.helper.ConcurrentFixedCache;
+import org.eclipse.persistence.internal.helper.DatabaseTable;
+
+/**
+ * INTERNAL:
+ * Caches the commit plan of each set of classes written by a commit,
+ * so a commit only processes the classes it changed, instead of every class in the commit order.
+ * <p>
+ * A plan is the changed classes in the plan order, which is computed once from the commit order and its dependencies.
+ * As every plan follows the same order, the classes are always written in a consistent order for deadlock avoidance.
+ * By default the plan order is the commit order.  If grouping by table is enabled,
+ * classes are moved next to the previous class of the same primary table when no dependency is between them,
+ * so their statements are consecutive and can be batched together.
+ * <p>
+ * The plans are keyed by the bit set of their classes' indexes, and are immutable.
+ * The planner is shared by the session's commit manager and the commit managers of its units of work.
+ * @see CommitManager#commitAllObjectsWithChangeSet(UnitOfWorkChangeSet)
+ * @see SystemProperties#COMMIT_ORDER_BY_TABLE
+ */
+public class CommitPlanner {
+    /** The maximum number of cached plans. */
+    public static int MAX_COMMIT_PLANS = 256;
+
+    /** Allow the plan order to group classes by table. */
+    protected static boolean shouldGroupByTable = "true".equalsIgnoreCase(System.getProperty(SystemProperties.COMMIT_ORDER_BY_TABLE));
+
+    /** The commit order the plans were built from. */
+    protected List<Class> commitOrder;
+    /** The classes of the commit order, in the plan order. */
+    protected Class[] planOrder;
+    /** The index of each class in the plan order. */
+    protected Map<Class, Integer> indexes;
+    /** The cached commit plans, keyed by the bit set of their classes' indexes. */
+    protected ConcurrentFixedCache plans;
+    /** The cached delete plans, keyed by the bit set of their classes' indexes. */
+    protected ConcurrentFixedCache deletePlans;
+
+    /**
+     * Return if the plan order groups classes by table.
+     */
+    public static boolean shouldGroupByTable() {
+        return shouldGroupByTable;
+    }
+
+    /**
+     * Set if the plan order groups classes by table.
+     * This only affects commit orders initialized afterwards.
+     */
+    public static void setShouldGroupByTable(boolean shouldGroupByTable) {
+        CommitPlanner.shouldGroupByTable = shouldGroupByTable;
+    }
+
+    /**
+     * Build the planner for the commit order.
+     * The dependencies map each class to the classes it must be written before or after,
+     * the order between dependent classes is the order in the commit order.
+     */
+    public CommitPlanner(List<Class> commitOrder, Map<Class, Set<Class>> dependencies, AbstractSession session) {
+        this.commitOrder = commitOrder;
+        if (shouldGroupByTable) {
+            this.planOrder = buildTableOrder(commitOrder, dependencies, session);
+        } else {
+            this.planOrder = commitOrder.toArray(new Class[commitOrder.size()]);
+        }
+        this.indexes = new HashMap<Class, Integer>(this.planOrder.length);
+        for (int index = 0; index < this.planOrder.length; index++) {
+            this.indexes.put(this.planOrder[index], Integer.valueOf(index));
+        }
+        this.plans = new ConcurrentFixedCache(MAX_COMMIT_PLANS);
+        this.deletePlans = new ConcurrentFixedCache(MAX_COMMIT_PLANS);
+    }
+
+    /**
+     * Return the commit order the plans were built from.
+     */
+    public List<Class> getCommitOrder() {
+        return commitOrder;
+    }
+
+    /**
+     * Return the classes of the commit order in the plan order.
+     */
+    public Class[] getPlanOrder() {
+        return planOrder;
+    }
+
+    /**
+     * Return the cached commit plans.
+     */
+    public ConcurrentFixedCache getPlans() {
+        return plans;
+    }
+
+    /**
+     * Return the cached delete plans.
+     */
+    public ConcurrentFixedCache getDeletePlans() {
+        return deletePlans;
+    }
+
+    /**
+     * Return the plan to write the changed and new classes.
+     * Classes that are not in the commit order are not included, as they are not written.
+     * The plan is shared, and must not be modified.
+     */
+    public Class[] getCommitPlan(Collection<Class> changedClasses, Collection<Class> newClasses) {
+        BitSet key = new BitSet(this.planOrder.length);
+        addIndexes(key, changedClasses);
+        addIndexes(key, newClasses);
+        return getPlan(key, this.plans, false);
+    }
+
+    /**
+     * Return the plan to delete the objects, in the reverse of the plan order.
+     * Classes that are not in the commit order are not included, as they are not deleted.
+     * The plan is shared, and must not be modified.
+     */
+    public Class[] getDeletePlan(List objects) {
+        BitSet key = new BitSet(this.planOrder.length);
+        int size = objects.size();
+        for (int index = 0; index < size; index++) {
+            Integer classIndex = this.indexes.get(objects.get(index).getClass());
+            if (classIndex != null) {
+                key.set(classIndex.intValue());
+            }
+        }
+        return getPlan(key, this.deletePlans, true);
+    }
+
+    /**
+     * Return the plan for the bit set of indexes from the cache, building and caching it if required.
+     */
+    protected Class[] getPlan(BitSet key, ConcurrentFixedCache cache, boolean isReversed) {
+        Class[] plan = (Class[])cache.get(key);
+        if (plan == null) {
+            int size = key.cardinality();
+            plan = new Class[size];
+            int planIndex = isReversed ? size - 1 : 0;
+            for (int index = key.nextSetBit(0); index >= 0; index = key.nextSetBit(index + 1)) {
+                plan[planIndex] = this.planOrder[index];
+                planIndex = isReversed ? planIndex - 1 : planIndex + 1;
+            }
+            cache.put(key, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Set the indexes of the classes in the key.
+     */
+    protected void addIndexes(BitSet key, Collection<Class> classes) {
+        for (Class theClass : classes) {
+            Integer index = this.indexes.get(theClass);
+            if (index != null) {
+                key.set(index.intValue());
+            }
+        }
+    }
+
+    /**
+     * Return the commit order, reordered so classes of the same primary table are consecutive where possible.
+     * Each class is written after all of its dependencies that are before it in the commit order,
+     * choosing the next class of the previous class's table if one is available, otherwise the next class in the commit order.
+     */
+    protected Class[] buildTableOrder(List<Class> commitOrder, Map<Class, Set<Class>> dependencies, AbstractSession session) {
+        int size = commitOrder.size();
+        Map<Class, Integer> commitIndexes = new HashMap<Class, Integer>(size);
+        for (int index = 0; index < size; index++) {
+            commitIndexes.put(commitOrder.get(index), Integer.valueOf(index));
+        }
+        DatabaseTable[] tables = new DatabaseTable[size];
+        // The number of dependencies to write before each class, and the classes that depend on each class.
+        int[] remaining = new int[size];
+        List<Integer>[] dependents = new List[size];
+        for (int index = 0; index < size; index++) {
+            Class theClass = commitOrder.get(index);
+            ClassDescriptor descriptor = session.getDescriptor(theClass);
+            // The first table is written first, the default table of a subclass with its own table is the subclass's table.
+            if ((descriptor != null) && !descriptor.isAggregateDescriptor() && !descriptor.getTables().isEmpty()) {
+                tables[index] = descriptor.getTables().get(0);
+            }
+            Set<Class> classDependencies = dependencies.get(theClass);
+            if (classDependencies != null) {
+                for (Class dependency : classDependencies) {
+                    Integer dependencyIndex = commitIndexes.get(dependency);
+                    if ((dependencyIndex != null) && (dependencyIndex.intValue() < index)) {
+                        remaining[index]++;
+                        if (dependents[dependencyIndex.intValue()] == null) {
+                            dependents[dependencyIndex.intValue()] = new ArrayList<Integer>();
+                        }
+                        dependents[dependencyIndex.intValue()].add(Integer.valueOf(index));
+                    }
+                }
+            }
+        }
+        Class[] order = new Class[size];
+        boolean[] isWritten = new boolean[size];
+        DatabaseTable previousTable = null;
+        for (int orderIndex = 0; orderIndex < size; orderIndex++) {
+            int next = -1;
+            for (int index = 0; index < size; index++) {
+                if (!isWritten[index] && (remaining[index] == 0)) {
+                    if (next == -1) {
+                        next = index;
+                    }
+                    if ((previousTable == null) || ((tables[index] != null) && previousTable.equals(tables[index]))) {
+                        next = index;
+                        break;
+                    }
+                }
+            }
+            isWritten[next] = true;
+            order[orderIndex] = commitOrder.get(next);
+            previousTable = tables[next];
+            if (dependents[next] != null) {
+                for (Integer dependent : dependents[next]) {
+                    remaining[dependent.intValue()]--;
+                }
+            }
+        }
+        return order;
+    }
+}
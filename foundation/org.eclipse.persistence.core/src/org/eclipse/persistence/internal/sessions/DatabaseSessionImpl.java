@@ -31,6 +31,7 @@ import org.eclipse.persistence.descriptors.ClassDescriptor;
 import org.eclipse.persistence.descriptors.partitioning.PartitioningPolicy;
 import org.eclipse.persistence.exceptions.*;
 import org.eclipse.persistence.internal.helper.DBPlatformHelper;
+import org.eclipse.persistence.internal.queries.JPQLPlanCache;
 import org.eclipse.persistence.internal.databaseaccess.Platform;
 import org.eclipse.persistence.internal.sequencing.Sequencing;
 import org.eclipse.persistence.internal.sequencing.SequencingHome;
@@ -98,6 +99,11 @@ public class DatabaseSessionImpl extends AbstractSession implements org.eclipse.
      * Stores the tuner used to tune the configuration of this session.
      */
     protected SessionTuner tuner;
+    
+    /**
+     * Indicates whether the descriptors are initialized on their first use, instead of at login.
+     */
+    protected boolean shouldInitializeDescriptorsLazily;
 
     /**
      * INTERNAL:
@@ -559,12 +565,21 @@ public class DatabaseSessionImpl extends AbstractSession implements org.eclipse.
      * Normally the descriptors are added before login, then initialized on login.
      */
     public void initializeDescriptors() {
-        // Must clone to avoid modification of the map while enumerating.
-        initializeDescriptors((Map)((HashMap)getDescriptors()).clone(), true);
+        if (this.shouldInitializeDescriptorsLazily && !isBroker()) {
+            initializeDescriptorsLazily();
+        } else {
+            this.lazyDescriptorInitializer = null;
+            // Must clone to avoid modification of the map while enumerating.
+            initializeDescriptors((Map)((HashMap)getDescriptors()).clone(), true);
+        }
         // Initialize partitioning policies.
         for (PartitioningPolicy policy : getProject().getPartitioningPolicies().values()) {
             policy.initialize(this);
         }
+        // Register the descriptors' fingerprint with the shared JPQL plan cache, before the named queries are parsed.
+        if (getProject().shouldUseJPQLPlanCache() && !isBroker()) {
+            JPQLPlanCache.getSharedCache().register(this);
+        }
         // Process JPA named queries and add as session queries,
         // this must be done after descriptor init as requires to parse the JPQL.
         processJPAQueries();
@@ -587,6 +602,35 @@ public class DatabaseSessionImpl extends AbstractSession implements org.eclipse.
             getAttributeGroups().put(group.getName(), group);
             this.getDescriptor(group.getType()).addAttributeGroup(group);
         }
+        if ((this.lazyDescriptorInitializer != null) && shouldLog(SessionLog.FINER, SessionLog.METADATA)) {
+            LazyDescriptorInitializer initializer = this.lazyDescriptorInitializer;
+            int descriptorsCount = initializer.getDescriptorsCount();
+            log(SessionLog.FINER, SessionLog.METADATA, "lazy_descriptor_initialization",
+                new Object[] {Integer.valueOf(descriptorsCount - initializer.getPendingCount()), Integer.valueOf(descriptorsCount)});
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Initialize sequencing and the descriptors that are not initialized lazily,
+     * the other descriptors are initialized on their first use by the lazy descriptor initializer.
+     * Aggregate, interface and table per tenant descriptors are initialized at login as usual,
+     * and descriptors already initialized by a previous login are re-initialized.
+     */
+    protected void initializeDescriptorsLazily() {
+        List<ClassDescriptor> descriptors = new ArrayList<ClassDescriptor>(getDescriptors().values());
+        List<ClassDescriptor> eagerDescriptors = new ArrayList<ClassDescriptor>();
+        List<ClassDescriptor> pendingDescriptors = new ArrayList<ClassDescriptor>();
+        for (ClassDescriptor descriptor : descriptors) {
+            if (!descriptor.isFullyInitialized() && descriptor.requiresInitialization(getSessionForClass(descriptor.getJavaClass()))) {
+                pendingDescriptors.add(descriptor);
+            } else {
+                eagerDescriptors.add(descriptor);
+            }
+        }
+        initializeSequencing();
+        this.lazyDescriptorInitializer = new LazyDescriptorInitializer(this, descriptors, pendingDescriptors);
+        initializeDescriptors(eagerDescriptors, false);
     }
 
     /**
@@ -910,6 +954,10 @@ public class DatabaseSessionImpl extends AbstractSession implements org.eclipse.
         // We're logging out so turn off change propagation.
         setShouldPropagateChanges(false);
         
+        if (getProject().shouldUseJPQLPlanCache() && !isBroker()) {
+            JPQLPlanCache.getSharedCache().release(this);
+        }
+        
         if (!hasBroker()) {
             if (getCommandManager() != null) {
                 getCommandManager().shutdown();
@@ -1027,4 +1075,27 @@ public class DatabaseSessionImpl extends AbstractSession implements org.eclipse.
     public void setTuner(SessionTuner tuner) {
         this.tuner = tuner;
     }
+    
+    /**
+     * ADVANCED:
+     * Return if the descriptors are initialized on their first use, instead of at login.
+     */
+    public boolean shouldInitializeDescriptorsLazily() {
+        return shouldInitializeDescriptorsLazily;
+    }
+    
+    /**
+     * ADVANCED:
+     * Set if the descriptors are initialized on their first use, instead of at login.
+     * This reduces the login time and memory of large projects when only some of their classes are used.
+     * A descriptor is initialized with the descriptors it depends on the first time it is accessed from the session,
+     * such as by a query, or when an object of its class is registered or merged.
+     * Descriptors that are used directly without accessing them from the session must be initialized first,
+     * using the lazy descriptor initializer's initializeAll().
+     * Must be set before login, and is not supported by session brokers.
+     * @see #getLazyDescriptorInitializer()
+     */
+    public void setShouldInitializeDescriptorsLazily(boolean shouldInitializeDescriptorsLazily) {
+        this.shouldInitializeDescriptorsLazily = shouldInitializeDescriptorsLazily;
+    }
 }
@@ -0,0 +1,288 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.sessions;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.helper.IdentityHashSet;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.mappings.AggregateMapping;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.mappings.ForeignReferenceMapping;
+import org.eclipse.persistence.sessions.SessionProfiler;
+
+/**
+ * INTERNAL:
+ * Initializes the session's descriptors on their first use, instead of at login.
+ * <p>
+ * The descriptors not initialized at login are pending.  When a pending descriptor is first accessed from the session,
+ * it is initialized together with all of the pending descriptors it depends on:
+ * its inheritance hierarchy, the reference classes of its mappings and their aggregates, its constraint dependencies,
+ * and the implementors of referenced interfaces, transitively.  The batch is initialized as the session initializes added descriptors, so the commit order is recomputed.
+ * <p>
+ * Batches are initialized one at a time.  Other threads accessing a descriptor of the batch wait until the batch is initialized,
+ * the initializing thread can access the batch's descriptors while it initializes them.
+ * Descriptors that failed to initialize are not retried.
+ * @see DatabaseSessionImpl#setShouldInitializeDescriptorsLazily(boolean)
+ */
+public class LazyDescriptorInitializer {
+    /** The session that owns the descriptors. */
+    protected DatabaseSessionImpl session;
+    /** The descriptors waiting to be initialized, and those of the batch being initialized. */
+    protected Set<ClassDescriptor> pending;
+    /** The descriptors of the batch being initialized, only accessed by the thread holding the lock. */
+    protected Set<ClassDescriptor> initializing;
+    /** The child descriptors of each descriptor with inheritance. */
+    protected Map<Class, List<ClassDescriptor>> children;
+    /** The descriptors implementing each interface. */
+    protected Map<Class, List<ClassDescriptor>> implementors;
+    /** The number of descriptors. */
+    protected int descriptorsCount;
+    /** The number of descriptors initialized by the initializer. */
+    protected volatile int initializedCount;
+    /** The number of batches initialized by the initializer. */
+    protected volatile int batchCount;
+
+    /**
+     * Create the initializer for the pending descriptors, from all of the session's descriptors.
+     */
+    public LazyDescriptorInitializer(DatabaseSessionImpl session, Collection<ClassDescriptor> descriptors, Collection<ClassDescriptor> pendingDescriptors) {
+        this.session = session;
+        this.pending = Collections.newSetFromMap(new ConcurrentHashMap<ClassDescriptor, Boolean>(pendingDescriptors.size()));
+        this.pending.addAll(pendingDescriptors);
+        this.initializing = new IdentityHashSet();
+        this.children = new HashMap<Class, List<ClassDescriptor>>();
+        this.implementors = new HashMap<Class, List<ClassDescriptor>>();
+        Set<ClassDescriptor> uniqueDescriptors = new IdentityHashSet(descriptors.size());
+        for (ClassDescriptor descriptor : descriptors) {
+            // Descriptors registered for several classes are only counted once.
+            if (!uniqueDescriptors.add(descriptor)) {
+                continue;
+            }
+            if (descriptor.hasInheritance() && (descriptor.getInheritancePolicy().getParentClass() != null)) {
+                addTo(this.children, descriptor.getInheritancePolicy().getParentClass(), descriptor);
+            }
+            if (descriptor.hasInterfacePolicy()) {
+                for (Object parentInterface : descriptor.getInterfacePolicy().getParentInterfaces()) {
+                    addTo(this.implementors, (Class)parentInterface, descriptor);
+                }
+            }
+        }
+        this.descriptorsCount = uniqueDescriptors.size();
+    }
+
+    /**
+     * Add the descriptor to the list of the class.
+     */
+    protected void addTo(Map<Class, List<ClassDescriptor>> descriptors, Class theClass, ClassDescriptor descriptor) {
+        List<ClassDescriptor> classDescriptors = descriptors.get(theClass);
+        if (classDescriptors == null) {
+            classDescriptors = new ArrayList<ClassDescriptor>();
+            descriptors.put(theClass, classDescriptors);
+        }
+        classDescriptors.add(descriptor);
+    }
+
+    /**
+     * Return if the descriptor is not waiting for or being lazily initialized.
+     * Descriptors that are not initialized lazily are always initialized.
+     */
+    public boolean isInitialized(ClassDescriptor descriptor) {
+        return !this.pending.contains(descriptor);
+    }
+
+    /**
+     * Return if the descriptor is waiting to be initialized.
+     * The descriptors of the batch being initialized by the current thread are not pending.
+     */
+    public boolean isPending(ClassDescriptor descriptor) {
+        if (!this.pending.contains(descriptor)) {
+            return false;
+        }
+        return !(Thread.holdsLock(this) && this.initializing.contains(descriptor));
+    }
+
+    /**
+     * Initialize the descriptor and the pending descriptors it depends on, if it is pending.
+     * Interface descriptors are not initialized, so the pending implementors of an interface are initialized when it is accessed.
+     * If another thread is initializing the descriptor, wait until it is initialized.
+     */
+    public void initialize(ClassDescriptor descriptor) {
+        if (!this.pending.contains(descriptor) && !hasPendingImplementors(descriptor)) {
+            return;
+        }
+        synchronized (this) {
+            if (this.initializing.contains(descriptor) || (!this.pending.contains(descriptor) && !hasPendingImplementors(descriptor))) {
+                return;
+            }
+            List<ClassDescriptor> batch = new ArrayList<ClassDescriptor>();
+            collectDependencies(descriptor, batch, new IdentityHashSet());
+            if (!batch.isEmpty()) {
+                initializeBatch(batch, descriptor);
+            }
+        }
+    }
+
+    /**
+     * Return if the descriptor is an interface descriptor with pending implementors,
+     * including the implementors of its sub-interfaces.
+     */
+    protected boolean hasPendingImplementors(ClassDescriptor descriptor) {
+        if (!descriptor.isDescriptorForInterface()) {
+            return false;
+        }
+        List<ClassDescriptor> classImplementors = this.implementors.get(descriptor.getJavaClass());
+        if (classImplementors != null) {
+            for (ClassDescriptor implementor : classImplementors) {
+                if (this.pending.contains(implementor) || hasPendingImplementors(implementor)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Initialize all of the pending descriptors.
+     * This is required before using the descriptors without accessing them from the session, such as to build the metamodel or generate DDL.
+     */
+    public void initializeAll() {
+        if (this.pending.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            List<ClassDescriptor> batch = new ArrayList<ClassDescriptor>();
+            for (ClassDescriptor descriptor : this.pending) {
+                if (!this.initializing.contains(descriptor)) {
+                    batch.add(descriptor);
+                }
+            }
+            if (!batch.isEmpty()) {
+                initializeBatch(batch, null);
+            }
+        }
+    }
+
+    /**
+     * Initialize the batch of descriptors, the lock must be held.
+     * The descriptors stay pending until the batch is initialized, so other threads wait for them.
+     */
+    protected void initializeBatch(List<ClassDescriptor> batch, ClassDescriptor accessedDescriptor) {
+        this.initializing.addAll(batch);
+        try {
+            this.session.initializeDescriptors(batch, false);
+        } finally {
+            for (ClassDescriptor descriptor : batch) {
+                this.initializing.remove(descriptor);
+                this.pending.remove(descriptor);
+            }
+            this.initializedCount = this.initializedCount + batch.size();
+            this.batchCount++;
+        }
+        this.session.updateProfile(SessionProfiler.InitializedDescriptors, Integer.valueOf(this.descriptorsCount - this.pending.size()));
+        if (this.session.shouldLog(SessionLog.FINER, SessionLog.METADATA)) {
+            Object accessedClass = (accessedDescriptor == null) ? "all" : accessedDescriptor.getJavaClassName();
+            this.session.log(SessionLog.FINER, SessionLog.METADATA, "lazy_descriptors_initialized",
+                new Object[] {Integer.valueOf(batch.size()), accessedClass, Integer.valueOf(this.pending.size())});
+        }
+    }
+
+    /**
+     * Add the descriptor and the pending descriptors it depends on to the batch.
+     * Descriptors that are not pending are traversed for their aggregates and inheritance, but not added.
+     */
+    protected void collectDependencies(ClassDescriptor descriptor, List<ClassDescriptor> batch, Set<ClassDescriptor> visited) {
+        if ((descriptor == null) || !visited.add(descriptor)) {
+            return;
+        }
+        boolean isPending = this.pending.contains(descriptor) && !this.initializing.contains(descriptor);
+        if (isPending) {
+            batch.add(descriptor);
+        } else if (descriptor.isFullyInitialized()) {
+            // Its references were initialized with it.
+            return;
+        }
+        if (descriptor.hasInheritance()) {
+            Class parentClass = descriptor.getInheritancePolicy().getParentClass();
+            if (parentClass != null) {
+                collectDependencies(getDescriptor(parentClass), batch, visited);
+            }
+        }
+        collectDescriptors(this.children.get(descriptor.getJavaClass()), batch, visited);
+        if (descriptor.isDescriptorForInterface()) {
+            collectDescriptors(this.implementors.get(descriptor.getJavaClass()), batch, visited);
+        }
+        for (DatabaseMapping mapping : descriptor.getMappings()) {
+            Class referenceClass = null;
+            if (mapping.isForeignReferenceMapping()) {
+                referenceClass = ((ForeignReferenceMapping)mapping).getReferenceClass();
+            } else if (mapping.isAggregateMapping()) {
+                referenceClass = ((AggregateMapping)mapping).getReferenceClass();
+            }
+            if (referenceClass != null) {
+                collectDependencies(getDescriptor(referenceClass), batch, visited);
+            }
+        }
+        for (Object dependency : descriptor.getConstraintDependencies()) {
+            collectDependencies(getDescriptor((Class)dependency), batch, visited);
+        }
+    }
+
+    /**
+     * Add the descriptors and their dependencies to the batch.
+     */
+    protected void collectDescriptors(List<ClassDescriptor> descriptors, List<ClassDescriptor> batch, Set<ClassDescriptor> visited) {
+        if (descriptors != null) {
+            for (ClassDescriptor descriptor : descriptors) {
+                collectDependencies(descriptor, batch, visited);
+            }
+        }
+    }
+
+    /**
+     * Return the descriptor of the class, without initializing it.
+     */
+    protected ClassDescriptor getDescriptor(Class theClass) {
+        return this.session.getProject().getDescriptors().get(theClass);
+    }
+
+    /**
+     * Return the number of descriptors waiting to be initialized.
+     */
+    public int getPendingCount() {
+        return this.pending.size();
+    }
+
+    /**
+     * Return the number of descriptors initialized on their first use.
+     */
+    public int getInitializedCount() {
+        return this.initializedCount;
+    }
+
+    /**
+     * Return the number of batches of dependent descriptors initialized on first use.
+     */
+    public int getBatchCount() {
+        return this.batchCount;
+    }
+
+    /**
+     * Return the number of descriptors of the session.
+     */
+    public int getDescriptorsCount() {
+        return this.descriptorsCount;
+    }
+}
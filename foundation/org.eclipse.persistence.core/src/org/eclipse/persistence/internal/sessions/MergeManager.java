@@ -20,12 +20,15 @@ package org.eclipse.persistence.internal.sessions;
 
 import java.util.*;
 
+import org.eclipse.persistence.config.SystemProperties;
 import org.eclipse.persistence.descriptors.ClassDescriptor;
 import org.eclipse.persistence.descriptors.VersionLockingPolicy;
 import org.eclipse.persistence.internal.descriptors.ObjectBuilder;
 import org.eclipse.persistence.internal.descriptors.OptimisticLockingPolicy;
 import org.eclipse.persistence.internal.descriptors.PersistenceEntity;
 import org.eclipse.persistence.exceptions.*;
+import org.eclipse.persistence.internal.helper.ParallelWork;
+import org.eclipse.persistence.internal.helper.WriteLockManager;
 import org.eclipse.persistence.internal.helper.linkedlist.LinkedNode;
 import org.eclipse.persistence.queries.DoesExistQuery;
 import org.eclipse.persistence.sessions.remote.*;
@@ -85,6 +88,15 @@ public class MergeManager {
     
     /** Backdoor to disable merge locks. */
     public static boolean LOCK_ON_MERGE = true;
+
+    /** The number of threads merging a large distributed change set, 1 (the default) merges serially. */
+    protected static int parallelMergeThreads = parseParallelMergeThreads(System.getProperty(SystemProperties.PARALLEL_MERGE_THREADS));
+
+    /** The minimum number of object change sets in a distributed change set for it to be merged in parallel. */
+    public static int PARALLEL_MERGE_THRESHOLD = 100;
+
+    /** The number of partitions per thread of a parallel merge, to balance the partitions between the threads. */
+    protected static final int PARTITIONS_PER_THREAD = 4;
     
     /** Stored so that all objects merged by a merge manager can have the same readTime. */
     protected long systemTime = 0;
@@ -422,25 +434,14 @@ public class MergeManager {
             if (this.session.hasEventManager()) {
                 this.session.getEventManager().preDistributedMergeUnitOfWorkChangeSet(uowChangeSet);
             }
-            // Iterate over each clone and let the object build merge to clones into the originals.
-            this.session.getIdentityMapAccessorInstance().getWriteLockManager().acquireRequiredLocks(this, uowChangeSet);
-            Iterator objectChangeEnum = uowChangeSet.getAllChangeSets().keySet().iterator();
             Set<Class> classesChanged = new HashSet<Class>();
-            while (objectChangeEnum.hasNext()) {
-                ObjectChangeSet objectChangeSet = (ObjectChangeSet)objectChangeEnum.next();
-                // Don't read the object here.  If it is null then we won't merge it at this stage, unless it
-                // is being referenced which will force the load later.
-                Object object = objectChangeSet.getTargetVersionOfSourceObject(this, this.session, false);
-                if (object != null) {
-                    mergeChanges(object, objectChangeSet, this.session);
-                    this.session.incrementProfile(SessionProfiler.ChangeSetsProcessed);
-                } else if (objectChangeSet.isNew()) {
-                    mergeNewObjectIntoCache(objectChangeSet);
-                    this.session.incrementProfile(SessionProfiler.ChangeSetsProcessed);
-                } else {
-                    this.session.incrementProfile(SessionProfiler.ChangeSetsNotProcessed);
-                }
-                classesChanged.add(objectChangeSet.getClassType(this.session));
+            List<List<ObjectChangeSet>> partitions = buildMergePartitions(uowChangeSet);
+            if (partitions == null) {
+                // Iterate over each clone and let the object build merge to clones into the originals.
+                this.session.getIdentityMapAccessorInstance().getWriteLockManager().acquireRequiredLocks(this, uowChangeSet);
+                mergeChangeSets(uowChangeSet.getAllChangeSets().keySet(), classesChanged);
+            } else {
+                mergeChangeSetsInParallel(partitions, classesChanged);
             }
             if (uowChangeSet.hasDeletedObjects()) {
                 Iterator deletedObjects = uowChangeSet.getDeletedObjects().values().iterator();
@@ -454,6 +455,13 @@ public class MergeManager {
             for (Class changedClass : classesChanged) {
                 this.session.getIdentityMapAccessorInstance().invalidateQueryCache(changedClass);
             }
+            // The results of the SQL result cache that read the changed tables are stale.
+            SQLResultCache resultCache = this.session.getSQLResultCache();
+            if (resultCache != null) {
+                Set<String> writtenTables = new HashSet<String>();
+                resultCache.addWrittenTables(classesChanged, this.session, writtenTables);
+                resultCache.invalidateTables(writtenTables);
+            }
         } catch (RuntimeException exception) {
             this.session.handleException(exception);
         } finally {
@@ -466,6 +474,146 @@ public class MergeManager {
         }
     }
 
+    /**
+     * INTERNAL:
+     * Merge the object change sets into the session's cache, adding their classes to the changed classes.
+     * The change sets must already be locked.
+     */
+    protected void mergeChangeSets(Collection<ObjectChangeSet> changeSets, Set<Class> classesChanged) {
+        for (ObjectChangeSet objectChangeSet : changeSets) {
+            // Don't read the object here.  If it is null then we won't merge it at this stage, unless it
+            // is being referenced which will force the load later.
+            Object object = objectChangeSet.getTargetVersionOfSourceObject(this, this.session, false);
+            if (object != null) {
+                mergeChanges(object, objectChangeSet, this.session);
+                this.session.incrementProfile(SessionProfiler.ChangeSetsProcessed);
+            } else if (objectChangeSet.isNew()) {
+                mergeNewObjectIntoCache(objectChangeSet);
+                this.session.incrementProfile(SessionProfiler.ChangeSetsProcessed);
+            } else {
+                this.session.incrementProfile(SessionProfiler.ChangeSetsNotProcessed);
+            }
+            classesChanged.add(objectChangeSet.getClassType(this.session));
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Return the partitions of the change set to merge in parallel, or null if it should be merged serially.
+     * The change set is only merged in parallel if enabled, large enough, merge locks are used,
+     * and the cache isolation does not lock the entire cache.
+     * @see MergePartitioner
+     */
+    protected List<List<ObjectChangeSet>> buildMergePartitions(UnitOfWorkChangeSet uowChangeSet) {
+        int threads = parallelMergeThreads;
+        Map<ObjectChangeSet, ObjectChangeSet> changeSets = uowChangeSet.getAllChangeSets();
+        if ((threads <= 1) || (changeSets.size() < PARALLEL_MERGE_THRESHOLD) || !LOCK_ON_MERGE
+                || (this.session.getServerPlatform() == null) || this.session.getDatasourceLogin().shouldSynchronizedReadOnWrite()
+                || this.session.getDatasourceLogin().shouldSynchronizeWrites()) {
+            return null;
+        }
+        int partitionCount = threads * PARTITIONS_PER_THREAD;
+        int maxPartitionSize = (changeSets.size() + partitionCount - 1) / partitionCount;
+        List<List<ObjectChangeSet>> partitions = new MergePartitioner().partition(changeSets.keySet(), maxPartitionSize);
+        if (partitions.size() <= 1) {
+            return null;
+        }
+        return partitions;
+    }
+
+    /**
+     * INTERNAL:
+     * Merge the partitions of the change set in parallel, adding their classes to the changed classes.
+     * Each partition is locked, merged and released by its own merge manager, using the write lock manager,
+     * so readers are only blocked by the locks of the partitions being merged.
+     * The partitions do not reference each other, so no partition waits on another partition's locks.
+     * The merging thread merges partitions along with the server platform's threads,
+     * so the merge completes even if no other thread is available.
+     * The first exception stops the merge of the remaining partitions and is thrown.
+     */
+    protected void mergeChangeSetsInParallel(List<List<ObjectChangeSet>> partitions, Set<Class> classesChanged) {
+        for (List<ObjectChangeSet> partition : partitions) {
+            for (ObjectChangeSet objectChangeSet : partition) {
+                classesChanged.add(objectChangeSet.getClassType(this.session));
+            }
+        }
+        new PartitionedMerge(partitions).execute(this.session, parallelMergeThreads);
+    }
+
+    /**
+     * INTERNAL:
+     * Lock and merge the partition of the change set, using a new merge manager for its locks.
+     */
+    protected void mergePartition(List<ObjectChangeSet> partition) {
+        MergeManager manager = new MergeManager(this.session);
+        manager.setMergePolicy(this.mergePolicy);
+        manager.setCascadePolicy(this.cascadePolicy);
+        manager.systemTime = getSystemTime();
+        WriteLockManager lockManager = this.session.getIdentityMapAccessorInstance().getWriteLockManager();
+        try {
+            lockManager.acquireRequiredLocks(manager, partition);
+            manager.mergeChangeSets(partition, new HashSet<Class>());
+        } finally {
+            lockManager.releaseAllAcquiredLocks(manager);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Merges the queued partitions of a change set, on each thread that runs it, until none remain.
+     */
+    protected class PartitionedMerge extends ParallelWork<List<ObjectChangeSet>> {
+        public PartitionedMerge(List<List<ObjectChangeSet>> partitions) {
+            super(partitions);
+        }
+
+        protected void process(List<ObjectChangeSet> partition) {
+            mergePartition(partition);
+        }
+    }
+
+    /**
+     * PUBLIC:
+     * Return the number of threads merging a large change set received from cache coordination.
+     * 1, the default, merges serially.
+     */
+    public static int getParallelMergeThreads() {
+        return parallelMergeThreads;
+    }
+
+    /**
+     * PUBLIC:
+     * Set the number of threads merging a large change set received from cache coordination.
+     * The change set is partitioned into groups of objects that do not reference each other,
+     * each partition is locked and merged separately, on the server platform's threads.
+     * This reduces the time that readers of the changed objects are blocked by the merge.
+     * 1, the default, merges serially, locking all changed objects until the merge completes.
+     * <p>As each partition is unlocked once it is merged, a reader can see part of the distributed transaction merged,
+     * objects of merged partitions with their new state, and objects of partitions not yet merged with their old state.
+     * Objects that reference each other through the changes are in the same partition, so are always seen consistently.
+     * Only use a parallel merge if the application does not require the cache to reflect remote transactions atomically.
+     * 
+     * There is also a system level property for this setting. "eclipselink.cache.parallel-merge-threads"
+     * @see SystemProperties#PARALLEL_MERGE_THREADS
+     */
+    public static void setParallelMergeThreads(int threads) {
+        parallelMergeThreads = threads;
+    }
+
+    /**
+     * Return the number of threads from the system property value, or 1 if not a number.
+     */
+    protected static int parseParallelMergeThreads(String value) {
+        if (value == null) {
+            return 1;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException exception) {
+            return 1;
+        }
+    }
+
     /**
      * Merge the changes specified within the changeSet into the cache.
      * The object passed in is the original object from the cache.
@@ -1098,7 +1246,7 @@ public class MergeManager {
             this.mergedNewObjects.put(object, object);
         }
         return object;
-    }
+    }
 
     /**
      * Check if the new object's version has been set, if so, then it was an existing object that was deleted.
@@ -0,0 +1,204 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.sessions;
+
+import java.util.*;
+
+import org.eclipse.persistence.sessions.changesets.ChangeRecord;
+
+/**
+ * INTERNAL:
+ * Partitions the object change sets of a distributed merge, so the partitions can be merged in parallel.
+ * <p>
+ * Change sets that reference each other, directly or through their aggregates, are always in the same partition,
+ * so no object is locked, built or merged by two partitions.
+ * Change sets with change records of an unknown type are all put in the same partition.
+ * The independent groups of change sets are then ordered by class and packed into partitions of a maximum size,
+ * so each partition mostly merges into the same identity map.  A group larger than the maximum size is not split.
+ * @see MergeManager#mergeChangesFromChangeSet(UnitOfWorkChangeSet)
+ */
+public class MergePartitioner {
+    /** Map of each class name to the map of each change set's id to its index in the parents. */
+    protected Map<String, Map<Object, Integer>> indexes;
+    /** The number of indexes. */
+    protected int size;
+    /** The parent index of each change set index, a change set is the root of its group if it is its own parent. */
+    protected int[] parents;
+    /** The index of the group of the change sets with unknown change records, or -1. */
+    protected int unknownIndex;
+
+    public MergePartitioner() {
+        this.indexes = new HashMap<String, Map<Object, Integer>>();
+        this.parents = new int[32];
+        this.unknownIndex = -1;
+    }
+
+    /**
+     * Return the partitions of the change sets, each of at most the maximum size unless a group of dependent change sets is larger.
+     */
+    public List<List<ObjectChangeSet>> partition(Collection<ObjectChangeSet> changeSets, int maxPartitionSize) {
+        for (ObjectChangeSet changeSet : changeSets) {
+            joinReferences(indexOf(changeSet), changeSet);
+        }
+        // Collect each group in the order of its first change set, ordering the groups by class.
+        Map<Integer, List<ObjectChangeSet>> groups = new HashMap<Integer, List<ObjectChangeSet>>();
+        Map<String, List<List<ObjectChangeSet>>> groupsByClass = new TreeMap<String, List<List<ObjectChangeSet>>>();
+        for (ObjectChangeSet changeSet : changeSets) {
+            Integer root = Integer.valueOf(find(indexOf(changeSet)));
+            List<ObjectChangeSet> group = groups.get(root);
+            if (group == null) {
+                group = new ArrayList<ObjectChangeSet>();
+                groups.put(root, group);
+                String className = changeSet.getClassName();
+                List<List<ObjectChangeSet>> classGroups = groupsByClass.get(className);
+                if (classGroups == null) {
+                    classGroups = new ArrayList<List<ObjectChangeSet>>();
+                    groupsByClass.put(className, classGroups);
+                }
+                classGroups.add(group);
+            }
+            group.add(changeSet);
+        }
+        List<List<ObjectChangeSet>> partitions = new ArrayList<List<ObjectChangeSet>>();
+        List<ObjectChangeSet> partition = null;
+        for (List<List<ObjectChangeSet>> classGroups : groupsByClass.values()) {
+            for (List<ObjectChangeSet> group : classGroups) {
+                if ((partition == null) || ((partition.size() + group.size()) > maxPartitionSize)) {
+                    if (group.size() >= maxPartitionSize) {
+                        partitions.add(group);
+                        continue;
+                    }
+                    partition = new ArrayList<ObjectChangeSet>(maxPartitionSize);
+                    partitions.add(partition);
+                }
+                partition.addAll(group);
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * Join the change set's group with the groups of the change sets referenced by its change records.
+     */
+    protected void joinReferences(int index, ObjectChangeSet changeSet) {
+        List<ChangeRecord> changes = changeSet.getChanges();
+        int size = changes.size();
+        for (int changeIndex = 0; changeIndex < size; changeIndex++) {
+            ChangeRecord record = changes.get(changeIndex);
+            if ((record instanceof DirectToFieldChangeRecord) || (record instanceof DirectCollectionChangeRecord)
+                    || (record instanceof DirectMapChangeRecord) || (record instanceof TransformationMappingChangeRecord)) {
+                continue;
+            } else if (record instanceof ObjectReferenceChangeRecord) {
+                join(index, (ObjectChangeSet)((ObjectReferenceChangeRecord)record).getNewValue());
+            } else if (record instanceof AggregateChangeRecord) {
+                ObjectChangeSet aggregate = (ObjectChangeSet)((AggregateChangeRecord)record).getChangedObject();
+                if (aggregate != null) {
+                    joinReferences(index, aggregate);
+                }
+            } else if (record instanceof AggregateCollectionChangeRecord) {
+                for (Object aggregate : ((AggregateCollectionChangeRecord)record).getChangedValues()) {
+                    joinReferences(index, (ObjectChangeSet)aggregate);
+                }
+            } else if (record instanceof CollectionChangeRecord) {
+                CollectionChangeRecord collectionRecord = (CollectionChangeRecord)record;
+                for (ObjectChangeSet reference : collectionRecord.getAddObjectList().keySet()) {
+                    join(index, reference);
+                }
+                for (ObjectChangeSet reference : collectionRecord.getRemoveObjectList().keySet()) {
+                    join(index, reference);
+                }
+                for (ObjectChangeSet reference : collectionRecord.getAddOverFlow()) {
+                    join(index, reference);
+                }
+                for (ObjectChangeSet reference : collectionRecord.getOrderedAddObjects()) {
+                    join(index, reference);
+                }
+                for (ObjectChangeSet reference : collectionRecord.getOrderedRemoveObjects().values()) {
+                    join(index, reference);
+                }
+            } else {
+                // Unknown references, merge with all other unknown change sets.
+                if (this.unknownIndex == -1) {
+                    this.unknownIndex = index;
+                } else {
+                    union(index, this.unknownIndex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Join the change set's group with the group of the referenced change set.
+     */
+    protected void join(int index, ObjectChangeSet reference) {
+        if (reference != null) {
+            union(index, indexOf(reference));
+        }
+    }
+
+    /**
+     * Return the index of the change set, adding it if new.
+     * Change sets for the same object are the same change set.
+     */
+    protected int indexOf(ObjectChangeSet changeSet) {
+        // New objects without an id are compared by identity.
+        Object id = changeSet.getId();
+        if (id == null) {
+            id = changeSet;
+        }
+        Map<Object, Integer> classIndexes = this.indexes.get(changeSet.getClassName());
+        if (classIndexes == null) {
+            classIndexes = new HashMap<Object, Integer>();
+            this.indexes.put(changeSet.getClassName(), classIndexes);
+        }
+        Integer index = classIndexes.get(id);
+        if (index == null) {
+            int size = this.size;
+            if (size == this.parents.length) {
+                this.parents = Arrays.copyOf(this.parents, size * 2);
+            }
+            this.parents[size] = size;
+            classIndexes.put(id, Integer.valueOf(size));
+            this.size++;
+            return size;
+        }
+        return index.intValue();
+    }
+
+    /**
+     * Return the index of the root of the index's group, compressing the path to it.
+     */
+    protected int find(int index) {
+        int root = index;
+        while (this.parents[root] != root) {
+            root = this.parents[root];
+        }
+        while (this.parents[index] != root) {
+            int parent = this.parents[index];
+            this.parents[index] = root;
+            index = parent;
+        }
+        return root;
+    }
+
+    /**
+     * Join the groups of the two indexes.
+     */
+    protected void union(int index, int otherIndex) {
+        int root = find(index);
+        int otherRoot = find(otherIndex);
+        if (root != otherRoot) {
+            this.parents[otherRoot] = root;
+        }
+    }
+}
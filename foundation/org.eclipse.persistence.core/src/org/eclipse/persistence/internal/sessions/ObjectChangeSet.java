@@ -1022,7 +1022,7 @@ public class ObjectChangeSet implements Serializable, Comparable<ObjectChangeSet
         stream.writeBoolean(this.isAggregate);
         stream.writeObject(this.shouldModifyVersionField);
         stream.writeBoolean(this.hasVersionChange);
-        if (this.shouldBeDeleted || (this.cacheSynchronizationType == ClassDescriptor.DO_NOT_SEND_CHANGES) || (this.cacheSynchronizationType == ClassDescriptor.INVALIDATE_CHANGED_OBJECTS)) {
+        if (shouldSerializeIdentityOnly()) {
             writeIdentityInformation(stream);
         } else {
             writeCompleteChangeSet(stream);
@@ -1046,6 +1046,28 @@ public class ObjectChangeSet implements Serializable, Comparable<ObjectChangeSet
      * Helper method to readObject.  Completely write this ObjectChangeSet to the stream
      */
     public void writeCompleteChangeSet(java.io.ObjectOutputStream stream) throws java.io.IOException {
+        prepareChangesForSerialization();
+        writeIdentityInformation(stream);
+        stream.writeObject(this.changes);
+        stream.writeObject(this.oldKey);
+        stream.writeObject(this.newKey);
+    }
+
+    /**
+     * INTERNAL:
+     * Return if only the information necessary to identify this ObjectChangeSet is serialized,
+     * not its changes, this depends on the type of cache synchronization.
+     */
+    public boolean shouldSerializeIdentityOnly() {
+        return this.shouldBeDeleted || (this.cacheSynchronizationType == ClassDescriptor.DO_NOT_SEND_CHANGES) || (this.cacheSynchronizationType == ClassDescriptor.INVALIDATE_CHANGED_OBJECTS);
+    }
+
+    /**
+     * INTERNAL:
+     * Before a complete change set is serialized, a new object's changes are computed for all of its attributes,
+     * as a new object has no changes.
+     */
+    public void prepareChangesForSerialization() {
         if (this.isNew && ((this.changes == null) || this.changes.isEmpty())) {
             AbstractSession unitOfWork = this.unitOfWorkChangeSet.getSession();
             // Full change set is only required for cache coordination, not remote.
@@ -1067,10 +1089,6 @@ public class ObjectChangeSet implements Serializable, Comparable<ObjectChangeSet
                 }
             }
         }
-        writeIdentityInformation(stream);
-        stream.writeObject(this.changes);
-        stream.writeObject(this.oldKey);
-        stream.writeObject(this.newKey);
     }
 
     /**
@@ -566,6 +566,7 @@ public class PropertiesHandler {
                 {CacheType.Soft, pcg + "SoftIdentityMap"},
                 {CacheType.SoftWeak, pcg + "SoftCacheWeakIdentityMap"},
                 {CacheType.HardWeak, pcg + "HardCacheWeakIdentityMap"},
+                {CacheType.OffHeap, pcg + "OffHeapIdentityMap"},
                 {CacheType.Full, pcg + "FullIdentityMap"},
                 {CacheType.NONE, pcg + "NoIdentityMap"}
             };
@@ -596,7 +597,8 @@ public class PropertiesHandler {
                 BatchWriting.None,
                 BatchWriting.JDBC,
                 BatchWriting.Buffered,
-                BatchWriting.OracleJDBC
+                BatchWriting.OracleJDBC,
+                BatchWriting.Pipelined
             };
         }
     }
@@ -0,0 +1,380 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.sessions;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.databaseaccess.BindCallCustomParameter;
+import org.eclipse.persistence.internal.databaseaccess.DatabaseCall;
+import org.eclipse.persistence.internal.databaseaccess.DatasourceCall;
+import org.eclipse.persistence.internal.helper.ConcurrentFixedCache;
+import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.helper.DatabaseTable;
+import org.eclipse.persistence.internal.identitymaps.CacheId;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.mappings.DirectCollectionMapping;
+import org.eclipse.persistence.mappings.ManyToManyMapping;
+import org.eclipse.persistence.mappings.OneToOneMapping;
+
+/**
+ * INTERNAL:
+ * Caches the rows of data and report query results, keyed by their SQL string and bind parameters.
+ * <p>
+ * Each result records the tables its SQL string reads, and is removed when any of those tables is written,
+ * by a commit of the session, a modify query, or a change set received from cache coordination.
+ * Only SQL strings that read at least one table mapped by the session's descriptors are cached,
+ * so reads of sequences and database functions are never cached.
+ * Tables are matched by name in the SQL string, so a result may be removed by a write to a table of the same name
+ * in another schema, but it is never kept after a write through the session.
+ * Writes made outside of the session (and of cache coordination) are not detected.
+ * <p>
+ * The cache is shared by the root session and its client sessions and units of work.
+ * It is not used while the session is in a transaction, or by isolated client sessions.
+ * The number of results is bounded, the least frequently used are removed, and results with
+ * more than the max rows are not cached.
+ * @see org.eclipse.persistence.internal.queries.DatasourceCallQueryMechanism
+ */
+public class SQLResultCache implements Serializable {
+    /** The default number of results cached. */
+    public static int DEFAULT_MAX_RESULTS = 100;
+    /** The default largest number of rows of a cached result. */
+    public static int DEFAULT_MAX_ROWS = 1000;
+    /** Marks SQL strings that do not read a mapped table. */
+    protected static final String[] NO_TABLES = new String[0];
+
+    /** The cached results, keyed by SQL string and bind parameters. */
+    protected ConcurrentFixedCache results;
+    /** The mapped tables read by each SQL string. */
+    protected ConcurrentFixedCache sqlTables;
+    /** The tables written by each descriptor's objects. */
+    protected Map<ClassDescriptor, Set<String>> writtenTables;
+    /** The names of the tables mapped by the session's descriptors. */
+    protected volatile Set<String> mappedTables;
+    /** The largest number of rows of a cached result. */
+    protected int maxRows;
+    /** The number of invalidations, results read before an invalidation are not cached after it. */
+    protected AtomicLong invalidations;
+    /** The number of results removed by invalidations. */
+    protected AtomicLong invalidatedResults;
+
+    public SQLResultCache() {
+        this(DEFAULT_MAX_RESULTS);
+    }
+
+    public SQLResultCache(int maxResults) {
+        this.results = new ConcurrentFixedCache(maxResults);
+        this.results.setShouldRecordStatistics(true);
+        this.sqlTables = new ConcurrentFixedCache(Math.max(maxResults, DEFAULT_MAX_RESULTS));
+        this.writtenTables = new ConcurrentHashMap<ClassDescriptor, Set<String>>();
+        this.maxRows = DEFAULT_MAX_ROWS;
+        this.invalidations = new AtomicLong();
+        this.invalidatedResults = new AtomicLong();
+    }
+
+    /**
+     * Return the key of the call's result, or null if the call cannot be cached.
+     * The call must have been translated.
+     */
+    public Object buildKey(DatabaseCall call, AbstractSession session) {
+        String sqlString = call.getSQLString();
+        if ((sqlString == null) || (getTables(sqlString, session).length == 0)) {
+            return null;
+        }
+        List parameters = call.getParameters();
+        int size = (parameters == null) ? 0 : parameters.size();
+        Object[] key = new Object[size + 3];
+        key[0] = sqlString;
+        key[1] = Integer.valueOf(call.getFirstResult());
+        key[2] = Integer.valueOf(call.getMaxRows());
+        for (int index = 0; index < size; index++) {
+            Object parameter = parameters.get(index);
+            // Output and custom parameters do not compare their values.
+            if ((parameter instanceof DatabaseField) || (parameter instanceof BindCallCustomParameter)) {
+                return null;
+            }
+            key[index + 3] = parameter;
+        }
+        return new CacheId(key);
+    }
+
+    /**
+     * Return a copy of the cached rows of the key, or null if not cached.
+     */
+    public Vector getResult(Object key) {
+        CachedResult result = (CachedResult)this.results.get(key);
+        if (result == null) {
+            return null;
+        }
+        int size = result.rows.length;
+        Vector rows = new Vector(size);
+        for (int index = 0; index < size; index++) {
+            rows.add(result.rows[index].clone());
+        }
+        return rows;
+    }
+
+    /**
+     * Return the invalidation count, to be read before executing a call whose result will be cached.
+     */
+    public long getInvalidationCount() {
+        return this.invalidations.get();
+    }
+
+    /**
+     * Cache a copy of the rows of the key's call, if no invalidation occurred since the call was executed.
+     */
+    public void putResult(Object key, Vector rows, long invalidationCount) {
+        int size = rows.size();
+        if ((size > this.maxRows) || (invalidationCount != this.invalidations.get())) {
+            return;
+        }
+        AbstractRecord[] copy = new AbstractRecord[size];
+        for (int index = 0; index < size; index++) {
+            copy[index] = ((AbstractRecord)rows.get(index)).clone();
+        }
+        String sqlString = (String)((CacheId)key).getPrimaryKey()[0];
+        this.results.put(key, new CachedResult(copy, (String[])this.sqlTables.getCache().get(sqlString)));
+        // An invalidation may have scanned the results before the put.
+        if (invalidationCount != this.invalidations.get()) {
+            this.results.getCache().remove(key);
+        }
+    }
+
+    /**
+     * Return the names of the mapped tables read by the SQL string.
+     */
+    protected String[] getTables(String sqlString, AbstractSession session) {
+        String[] tables = (String[])this.sqlTables.get(sqlString);
+        if (tables == null) {
+            Set<String> mappedTables = getMappedTables(session);
+            Set<String> readTables = new HashSet<String>();
+            StringBuilder token = new StringBuilder();
+            int length = sqlString.length();
+            for (int index = 0; index <= length; index++) {
+                char next = (index < length) ? sqlString.charAt(index) : ' ';
+                if (Character.isLetterOrDigit(next) || (next == '_') || (next == '$') || (next == '#') || (next == '.')) {
+                    token.append(Character.toUpperCase(next));
+                } else if (token.length() > 0) {
+                    String name = token.toString();
+                    if (mappedTables.contains(name)) {
+                        readTables.add(name);
+                    }
+                    int dot = name.lastIndexOf('.');
+                    if ((dot != -1) && mappedTables.contains(name.substring(dot + 1))) {
+                        readTables.add(name.substring(dot + 1));
+                    }
+                    token.setLength(0);
+                }
+            }
+            tables = readTables.isEmpty() ? NO_TABLES : readTables.toArray(new String[readTables.size()]);
+            this.sqlTables.put(sqlString, tables);
+        }
+        return tables;
+    }
+
+    /**
+     * Return the names of the tables written by the session's descriptors.
+     */
+    protected Set<String> getMappedTables(AbstractSession session) {
+        Set<String> mappedTables = this.mappedTables;
+        if (mappedTables == null) {
+            mappedTables = new HashSet<String>();
+            for (ClassDescriptor descriptor : session.getDescriptors().values()) {
+                addWrittenTables(descriptor, mappedTables);
+            }
+            this.mappedTables = mappedTables;
+        }
+        return mappedTables;
+    }
+
+    /**
+     * Add the names of the tables written by the descriptor's objects,
+     * its own tables and the relation and reference tables of its mappings.
+     */
+    public void addWrittenTables(ClassDescriptor descriptor, Set<String> tableNames) {
+        Set<String> tables = this.writtenTables.get(descriptor);
+        if (tables == null) {
+            tables = new HashSet<String>();
+            addTables(descriptor, tables);
+            for (DatabaseMapping mapping : descriptor.getMappings()) {
+                if (mapping.isManyToManyMapping()) {
+                    addTable(((ManyToManyMapping)mapping).getRelationTable(), tables);
+                } else if (mapping.isDirectCollectionMapping()) {
+                    addTable(((DirectCollectionMapping)mapping).getReferenceTable(), tables);
+                } else if (mapping.isOneToOneMapping() && ((OneToOneMapping)mapping).hasRelationTable()) {
+                    addTable(((OneToOneMapping)mapping).getRelationTable(), tables);
+                } else if (mapping.isOneToManyMapping() || mapping.isAggregateCollectionMapping()) {
+                    // Target foreign keys and aggregate collections are written by the source object.
+                    addTables(mapping.getReferenceDescriptor(), tables);
+                }
+            }
+            this.writtenTables.put(descriptor, tables);
+        }
+        tableNames.addAll(tables);
+    }
+
+    /**
+     * Add the names of the descriptor's tables.
+     */
+    protected void addTables(ClassDescriptor descriptor, Set<String> tableNames) {
+        if (descriptor != null) {
+            for (DatabaseTable table : descriptor.getTables()) {
+                addTable(table, tableNames);
+            }
+        }
+    }
+
+    /**
+     * Add the table's name, and its qualified name if qualified.
+     */
+    public static void addTable(DatabaseTable table, Set<String> tableNames) {
+        if ((table != null) && (table.getName() != null)) {
+            tableNames.add(table.getName().toUpperCase());
+            if ((table.getTableQualifier() != null) && (table.getTableQualifier().length() > 0)) {
+                tableNames.add(table.getQualifiedName().toUpperCase());
+            }
+        }
+    }
+
+    /**
+     * Add the names of the tables written by the classes' objects.
+     */
+    public void addWrittenTables(Collection<Class> classes, AbstractSession session, Set<String> tableNames) {
+        for (Class theClass : classes) {
+            ClassDescriptor descriptor = session.getDescriptor(theClass);
+            if (descriptor != null) {
+                addWrittenTables(descriptor, tableNames);
+            }
+        }
+    }
+
+    /**
+     * Return the names of the mapped tables written by the modify call, or null if any table may be written.
+     * Stored procedures may write any table, a SQL string can only write the tables it contains.
+     */
+    public Set<String> getWrittenTables(DatasourceCall call, AbstractSession session) {
+        if (!(call instanceof DatabaseCall) || call.isStoredProcedureCall()) {
+            return null;
+        }
+        String sqlString = ((DatabaseCall)call).getSQLString();
+        if (sqlString == null) {
+            return null;
+        }
+        return new HashSet<String>(Arrays.asList(getTables(sqlString, session)));
+    }
+
+    /**
+     * Remove the results that read any of the tables, or all results if the tables are null.
+     */
+    public void invalidateTables(Set<String> tableNames) {
+        if (tableNames == null) {
+            invalidateAll();
+            return;
+        }
+        if (tableNames.isEmpty()) {
+            return;
+        }
+        this.invalidations.incrementAndGet();
+        Iterator<CachedResult> iterator = this.results.getCache().values().iterator();
+        while (iterator.hasNext()) {
+            String[] tables = iterator.next().tables;
+            if (tables == null) {
+                iterator.remove();
+                this.invalidatedResults.incrementAndGet();
+                continue;
+            }
+            for (String table : tables) {
+                if (tableNames.contains(table)) {
+                    iterator.remove();
+                    this.invalidatedResults.incrementAndGet();
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove all results, such as after a native SQL modify query, which may write any table.
+     */
+    public void invalidateAll() {
+        this.invalidations.incrementAndGet();
+        int size = this.results.getCache().size();
+        this.results.getCache().clear();
+        this.invalidatedResults.addAndGet(size);
+    }
+
+    /**
+     * Remove all results and the tables of all descriptors and SQL strings, such as after descriptors are added.
+     */
+    public void clear() {
+        invalidateAll();
+        this.sqlTables.getCache().clear();
+        this.writtenTables.clear();
+        this.mappedTables = null;
+    }
+
+    /**
+     * Return the cached results.
+     */
+    public ConcurrentFixedCache getResults() {
+        return results;
+    }
+
+    /**
+     * Return the number of results removed by invalidations.
+     */
+    public long getInvalidatedResults() {
+        return this.invalidatedResults.get();
+    }
+
+    /**
+     * Reset the hit, miss, eviction and invalidation counts.
+     */
+    public void resetStatistics() {
+        this.results.resetStatistics();
+        this.invalidatedResults.set(0);
+    }
+
+    /**
+     * Return the largest number of rows of a cached result.
+     */
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    /**
+     * Set the largest number of rows of a cached result.
+     * Larger results are not cached, to bound the memory used by the cache.
+     */
+    public void setMaxRows(int maxRows) {
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * INTERNAL:
+     * The rows of a cached result and the tables read by its SQL string.
+     */
+    protected static class CachedResult implements Serializable {
+        protected final AbstractRecord[] rows;
+        protected final String[] tables;
+
+        protected CachedResult(AbstractRecord[] rows, String[] tables) {
+            this.rows = rows;
+            this.tables = tables;
+        }
+    }
+}
@@ -323,9 +323,26 @@ public class UnitOfWorkChangeSet implements Serializable, org.eclipse.persistenc
      * byte array is used by Cache Synchronization for more efficient serialization.
      */
     public byte[] getByteArrayRepresentation(AbstractSession session) throws java.io.IOException {
+        UnitOfWorkChangeSet sendableChangeSet = buildSendableChangeSet();
+        // Do not write if nothing to write i.e. only does inserts
+        if (sendableChangeSet == null) {
+            return null;
+        }
         ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
         ObjectOutputStream objectOut = new ObjectOutputStream(byteOut);
         //bug 4416412: Map sent instead of Vector
+        objectOut.writeObject(sendableChangeSet.allChangeSets);
+        objectOut.writeObject(sendableChangeSet.deletedObjects);
+        return byteOut.toByteArray();
+    }
+
+    /**
+     * INTERNAL:
+     * Return a change set containing only the object change sets that are sent by cache coordination,
+     * or null if there are none.
+     * The object change sets are not copied, and the change set has only its all change sets and deleted objects.
+     */
+    public UnitOfWorkChangeSet buildSendableChangeSet() {
         Map writableChangeSets = new IdentityHashMap();
 
         Iterator iterator = getAllChangeSets().values().iterator();
@@ -361,13 +378,13 @@ public class UnitOfWorkChangeSet implements Serializable, org.eclipse.persistenc
             }
         }
 
-        // Do not write if nothing to write i.e. only does inserts
         if (writableChangeSets.isEmpty() && sendableDeletedObjects.isEmpty()) {
             return null;
         }
-        objectOut.writeObject(writableChangeSets);
-        objectOut.writeObject(sendableDeletedObjects);
-        return byteOut.toByteArray();
+        UnitOfWorkChangeSet sendableChangeSet = new UnitOfWorkChangeSet(this.session);
+        sendableChangeSet.allChangeSets = writableChangeSets;
+        sendableChangeSet.deletedObjects = sendableDeletedObjects;
+        return sendableChangeSet;
     }
 
     /**
@@ -103,6 +103,8 @@ public class UnitOfWorkImpl extends AbstractSession implements org.eclipse.persi
 
     /** Map of all the clones.  The key contains the clone of the object. */
     protected Map<Object, Object> cloneMapping;
+    /** Map of clones to their change detection snapshots, used instead of backup clones by the FingerprintChangeDetectionPolicy. */
+    protected Map<Object, Object> cloneSnapshots;
     protected Map<Object, Object> newObjectsCloneToOriginal;
     protected Map<Object, Object> newObjectsOriginalToClone;
     /**
@@ -249,6 +251,12 @@ public class UnitOfWorkImpl extends AbstractSession implements org.eclipse.persi
      */
     protected boolean wasNonObjectLevelModifyQueryExecuted;
 
+    /** The tables written by the unit of work, removed again from the SQL result cache when it merges. */
+    protected Set<String> writtenSQLResultTables;
+
+    /** If the unit of work may have written any table, such as by a stored procedure. */
+    protected boolean shouldInvalidateAllSQLResults;
+
     /**
      * True if the value holder for the joined attribute should be triggered.
      * Required by ejb30 fetch join.
@@ -340,6 +348,7 @@ public class UnitOfWorkImpl extends AbstractSession implements org.eclipse.persi
             this.eventManager.postAcquireUnitOfWork();
         }
         this.descriptors = parent.getDescriptors();
+        this.lazyDescriptorInitializer = parent.getLazyDescriptorInitializer();
         incrementProfile(SessionProfiler.UowCreated);
         // PERF: Cache the write-lock check to avoid cost of checking in every register/clone.
         this.shouldCheckWriteLock = getParent().getDatasourceLogin().shouldSynchronizedReadOnWrite() || getParent().getDatasourceLogin().shouldSynchronizeWrites();
@@ -1333,7 +1342,9 @@ public class UnitOfWorkImpl extends AbstractSession implements org.eclipse.persi
             if (hasRemovedObjects()) {
                 for (Iterator removedObjects = getRemovedObjects().values().iterator();
                          removedObjects.hasNext();) {
-                    ((UnitOfWorkImpl)this.parent).getCloneMapping().remove(removedObjects.next());
+                    Object removedObject = removedObjects.next();
+                    ((UnitOfWorkImpl)this.parent).getCloneMapping().remove(removedObject);
+                    ((UnitOfWorkImpl)this.parent).removeCloneSnapshot(removedObject);
                 }
             }
         } finally {
@@ -1891,6 +1902,7 @@ public class UnitOfWorkImpl extends AbstractSession implements org.eclipse.persi
             this.commitManager = new CommitManager(this);
             // Initialize the commit manager
             this.commitManager.setCommitOrder(this.parent.getCommitManager().getCommitOrder());
+            this.commitManager.setCommitPlanner(this.parent.getCommitManager().getCommitPlanner());
         }
         return this.commitManager;
     }
@@ -2134,6 +2146,29 @@ public class UnitOfWorkImpl extends AbstractSession implements org.eclipse.persi
         return cloneMapping;
     }
 
+    /**
+     * INTERNAL:
+     * Return the map of clones to their change detection snapshots.
+     * @see org.eclipse.persistence.descriptors.changetracking.FingerprintChangeDetectionPolicy
+     */
+    public Map<Object, Object> getCloneSnapshots() {
+        if (this.cloneSnapshots == null) {
+            this.cloneSnapshots = createMap();
+        }
+        return this.cloneSnapshots;
+    }
+
+    /**
+     * INTERNAL:
+     * Remove the snapshot of the clone, if it has one, when it is no longer registered.
+     */
+    public void removeCloneSnapshot(Object clone) {
+        // PERF: Avoid initialization of the snapshots if none.
+        if (this.cloneSnapshots != null) {
+            this.cloneSnapshots.remove(clone);
+        }
+    }
+
     /**
      * INTERNAL:
      * Return if the unit of work has any clones.
@@ -3219,6 +3254,7 @@ public class UnitOfWorkImpl extends AbstractSession implements org.eclipse.persi
      * INTERNAL: Merge the changes to all objects to the parent.
      */
     protected void mergeChangesIntoParent() {
+        invalidateWrittenSQLResults();
         UnitOfWorkChangeSet uowChangeSet = (UnitOfWorkChangeSet)getUnitOfWorkChangeSet();
         if (uowChangeSet == null) {
             // No changes.
@@ -3716,6 +3752,7 @@ public class UnitOfWorkImpl extends AbstractSession implements org.eclipse.persi
                      removedObjects.hasNext();) {
                 Object removedObject = removedObjects.next();
                 getCloneMapping().remove(removedObject);
+                removeCloneSnapshot(removedObject);
                 // PERF: Avoid initialization of new objects if none.
                 if (hasNewObjects()) {
                     Object referenceObjectToRemove = getNewObjectsCloneToOriginal().get(removedObject);
@@ -4587,6 +4624,7 @@ public class UnitOfWorkImpl extends AbstractSession implements org.eclipse.persi
 
                 // De-register the object.
                 getCloneMapping().remove(clone);
+                removeCloneSnapshot(clone);
             }
             if (getUnitOfWorkChangeSet() != null) {
                 ((UnitOfWorkChangeSet)getUnitOfWorkChangeSet()).getNewObjectChangeSets().clear();
@@ -5295,6 +5333,7 @@ public class UnitOfWorkImpl extends AbstractSession implements org.eclipse.persi
                 // If object exists in IM remove it from the IM and also from clone mapping.
                 getIdentityMapAccessorInstance().removeFromIdentityMap(deletedObject);
                 cloneMapping.remove(deletedObject);
+                removeCloneSnapshot(deletedObject);
             }
         }
         this.objectsDeletedDuringCommit = null;
@@ -5365,6 +5404,7 @@ public class UnitOfWorkImpl extends AbstractSession implements org.eclipse.persi
                     getIdentityMapAccessorInstance().removeFromIdentityMap(primaryKey, object.getClass(), getCurrentDescriptor(), object);
                 }
                 getCloneMapping().remove(object);
+                removeCloneSnapshot(object);
                 
                 //remove from deleted objects.
                 if (hasDeletedObjects()) {
@@ -5676,6 +5716,49 @@ public class UnitOfWorkImpl extends AbstractSession implements org.eclipse.persi
         return preDeleteComplete;
     }
 
+    /**
+     * INTERNAL:
+     * Record the tables written by the unit of work, or null if any table may have been written.
+     * The tables are removed from the SQL result cache when the unit of work merges,
+     * as results read by other sessions before its transaction committed are stale.
+     */
+    public void addWrittenSQLResultTables(Set<String> tableNames) {
+        if (tableNames == null) {
+            this.shouldInvalidateAllSQLResults = true;
+        } else if (!tableNames.isEmpty()) {
+            if (this.writtenSQLResultTables == null) {
+                this.writtenSQLResultTables = new HashSet<String>();
+            }
+            this.writtenSQLResultTables.addAll(tableNames);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Remove the results that read the tables written by the unit of work from the SQL result cache.
+     * A nested unit of work passes the tables to its parent, as they are not committed until the parent commits.
+     */
+    protected void invalidateWrittenSQLResults() {
+        if ((this.writtenSQLResultTables == null) && !this.shouldInvalidateAllSQLResults) {
+            return;
+        }
+        if (this.isNestedUnitOfWork) {
+            UnitOfWorkImpl parentUnitOfWork = (UnitOfWorkImpl)this.parent;
+            if (this.shouldInvalidateAllSQLResults) {
+                parentUnitOfWork.addWrittenSQLResultTables(null);
+            } else {
+                parentUnitOfWork.addWrittenSQLResultTables(this.writtenSQLResultTables);
+            }
+        } else {
+            SQLResultCache resultCache = getSQLResultCache();
+            if (resultCache != null) {
+                resultCache.invalidateTables(this.shouldInvalidateAllSQLResults ? null : this.writtenSQLResultTables);
+            }
+        }
+        this.writtenSQLResultTables = null;
+        this.shouldInvalidateAllSQLResults = false;
+    }
+
     /**
      * INTERNAL:
      * True if either DataModifyQuery or ModifyAllQuery was executed.
@@ -5721,6 +5804,7 @@ public class UnitOfWorkImpl extends AbstractSession implements org.eclipse.persi
     public void clear(boolean shouldClearCache) {
         this.cloneToOriginals = null;
         this.cloneMapping = null;
+        this.cloneSnapshots = null;
         this.newObjectsCloneToOriginal = null;
         this.newObjectsOriginalToClone = null;
         this.deletedObjects = null;
@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.sessions.coordination.nio;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+
+import org.eclipse.persistence.exceptions.RemoteCommandManagerException;
+import org.eclipse.persistence.internal.helper.CustomObjectInputStream;
+import org.eclipse.persistence.internal.helper.Helper;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.coordination.Command;
+import org.eclipse.persistence.sessions.coordination.RemoteCommandManager;
+
+/**
+ * INTERNAL:
+ * <p>
+ * <b>Purpose</b>: Receive the commands sent to the local service of the NIOTransportManager.
+ * <p>
+ * <b>Description</b>: A single thread accepts the connections from the remote services and reads their frames
+ * using a non-blocking selector. The commands of a frame are processed by the listener thread in the order they were sent,
+ * so the changes from a service are merged in the order they were committed.
+ * @see NIORemoteConnection
+ */
+public class NIOCommandListener implements Runnable {
+    /** Initial size of the read buffer of a connection, it grows to the size of the largest frame. */
+    public static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+
+    protected RemoteCommandManager rcm;
+    /** Frames with a larger length are rejected, and their connection closed. */
+    protected int maxFrameSize;
+    protected Selector selector;
+    protected ServerSocketChannel serverChannel;
+    protected volatile boolean isStopped;
+    protected volatile boolean isRunning;
+
+    /**
+     * Bind the server socket to the address.
+     */
+    public NIOCommandListener(RemoteCommandManager rcm, InetSocketAddress address, int maxFrameSize) throws IOException {
+        this.rcm = rcm;
+        this.maxFrameSize = maxFrameSize;
+        this.selector = Selector.open();
+        try {
+            this.serverChannel = ServerSocketChannel.open();
+            this.serverChannel.socket().setReuseAddress(true);
+            this.serverChannel.socket().bind(address);
+            this.serverChannel.configureBlocking(false);
+            this.serverChannel.register(this.selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException exception) {
+            closeResources();
+            throw exception;
+        }
+    }
+
+    /**
+     * Return the port the server socket is bound to.
+     */
+    public int getLocalPort() {
+        return this.serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Accept connections and read frames until stopped.
+     */
+    public void run() {
+        this.isRunning = true;
+        try {
+            while (!this.isStopped) {
+                this.selector.select();
+                Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else if (key.isReadable()) {
+                        read(key);
+                    }
+                }
+            }
+        } catch (Exception exception) {
+            if (!this.isStopped) {
+                Object[] args = { toString(), exception };
+                this.rcm.logWarning("nio_listener_stopped_on_error", args);
+            }
+        } finally {
+            this.isRunning = false;
+            closeResources();
+        }
+    }
+
+    /**
+     * Accept a connection from a remote service.
+     */
+    protected void accept() throws IOException {
+        SocketChannel channel = this.serverChannel.accept();
+        if (channel != null) {
+            channel.configureBlocking(false);
+            channel.register(this.selector, SelectionKey.OP_READ, ByteBuffer.allocate(DEFAULT_BUFFER_SIZE));
+        }
+    }
+
+    /**
+     * Read from the connection, and process any complete frames.
+     * The connection is closed if the remote service closed it, on error,
+     * or if the length of a frame is smaller than its command count or larger than the max frame size.
+     */
+    protected void read(SelectionKey key) {
+        SocketChannel channel = (SocketChannel)key.channel();
+        ByteBuffer buffer = (ByteBuffer)key.attachment();
+        try {
+            int count = channel.read(buffer);
+            if (count < 0) {
+                close(key);
+                return;
+            }
+            buffer.flip();
+            while (buffer.remaining() >= 4) {
+                int length = buffer.getInt(buffer.position());
+                if ((length < 4) || (length > this.maxFrameSize)) {
+                    Object[] args = { channel.socket().getRemoteSocketAddress(), String.valueOf(length), String.valueOf(this.maxFrameSize) };
+                    this.rcm.logWarning("nio_invalid_frame_length", args);
+                    close(key);
+                    return;
+                }
+                if (buffer.remaining() < (4 + length)) {
+                    break;
+                }
+                buffer.getInt();
+                int end = buffer.position() + length;
+                processFrame(buffer, end);
+                buffer.position(end);
+            }
+            buffer.compact();
+            // Grow the buffer if the next frame is larger, its length was checked against the max frame size.
+            if ((buffer.position() >= 4) && (buffer.getInt(0) + 4 > buffer.capacity())) {
+                ByteBuffer largerBuffer = ByteBuffer.allocate(buffer.getInt(0) + 4);
+                buffer.flip();
+                largerBuffer.put(buffer);
+                key.attach(largerBuffer);
+            }
+        } catch (IOException exception) {
+            close(key);
+        }
+    }
+
+    /**
+     * Process the commands of the frame, the buffer is positioned after the frame length.
+     */
+    protected void processFrame(ByteBuffer buffer, int end) {
+        int numberOfCommands = buffer.getInt();
+        for (int index = 0; (index < numberOfCommands) && (buffer.position() < end); index++) {
+            int length = buffer.getInt();
+            int position = buffer.position();
+            if ((length < 0) || (length > end - position)) {
+                // The command does not fit in the frame, skip the rest of the frame.
+                break;
+            }
+            buffer.position(position + length);
+            Command command = null;
+            try {
+                ObjectInputStream stream;
+                ByteArrayInputStream byteStream = new ByteArrayInputStream(buffer.array(), buffer.arrayOffset() + position, length);
+                if (this.rcm.isCommandProcessorASession()) {
+                    stream = new CustomObjectInputStream(byteStream, (Session)this.rcm.getCommandProcessor());
+                } else {
+                    stream = new ObjectInputStream(byteStream);
+                }
+                command = (Command)stream.readObject();
+                stream.close();
+            } catch (Exception exception) {
+                try {
+                    this.rcm.handleException(RemoteCommandManagerException.errorDeserializeRemoteCommand(toString(), null, exception));
+                } catch (RuntimeException ignore) {
+                    // The listener thread has no caller to throw to.
+                }
+                continue;
+            }
+            try {
+                this.rcm.processCommandFromRemoteConnection(command);
+            } catch (Exception exception) {
+                Object[] args = { Helper.getShortClassName(command), Helper.printStackTraceToString(exception) };
+                this.rcm.logWarning("error_executing_remote_command", args);
+            }
+        }
+    }
+
+    protected void close(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ignore) {
+            // Closing.
+        }
+    }
+
+    /**
+     * Stop the listener thread, and close the server socket and connections.
+     */
+    public void stop() {
+        this.isStopped = true;
+        if (this.isRunning) {
+            this.selector.wakeup();
+        } else {
+            closeResources();
+        }
+    }
+
+    protected synchronized void closeResources() {
+        if (this.selector != null) {
+            if (this.selector.isOpen()) {
+                for (SelectionKey key : this.selector.keys()) {
+                    try {
+                        key.channel().close();
+                    } catch (IOException ignore) {
+                        // Closing.
+                    }
+                }
+            }
+            try {
+                this.selector.close();
+            } catch (IOException ignore) {
+                // Closing.
+            }
+        }
+        if (this.serverChannel != null) {
+            try {
+                this.serverChannel.close();
+            } catch (IOException ignore) {
+                // Closing.
+            }
+        }
+    }
+
+    public String toString() {
+        return "NIOCommandListener[" + this.rcm.getServiceId() + "]";
+    }
+}
@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.sessions.coordination.nio;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.persistence.exceptions.CommunicationException;
+import org.eclipse.persistence.internal.sessions.coordination.RemoteConnection;
+import org.eclipse.persistence.sessions.coordination.Command;
+import org.eclipse.persistence.sessions.coordination.nio.NIOTransportManager;
+
+/**
+ * INTERNAL:
+ * <p>
+ * <b>Purpose</b>: Connection to a remote service of the NIOTransportManager.
+ * <p>
+ * <b>Description</b>: Commands are serialized by the calling thread and added to the current frame of the connection.
+ * The thread that starts a frame waits for the coalescing window, then writes all of the frame's commands
+ * to the socket in one write, the other threads wait until the frame is written.
+ * A frame is the frame length, the number of commands, then the length and serialized bytes of each command.
+ * The socket is opened on the first write, and reopened on the next write if a write fails.
+ */
+public class NIORemoteConnection extends RemoteConnection {
+
+    protected transient NIOTransportManager transportManager;
+    protected InetSocketAddress address;
+    protected transient SocketChannel channel;
+    /** The frame commands are currently added to, null if no frame is waiting to be written. */
+    protected transient Frame currentFrame;
+    /** Lock used to write one frame at a time. */
+    protected transient Object writeLock;
+    protected transient boolean isClosed;
+
+    public NIORemoteConnection(NIOTransportManager transportManager, InetSocketAddress address) {
+        this.transportManager = transportManager;
+        this.address = address;
+        this.writeLock = new Object();
+    }
+
+    /**
+     * INTERNAL:
+     * Add the command to the current frame, and return once the frame has been written.
+     * Return null, as the command is executed asynchronously by the remote service.
+     */
+    public Object executeCommand(Command command) throws CommunicationException {
+        byte[] bytes;
+        try {
+            ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+            ObjectOutputStream objectStream = new ObjectOutputStream(byteStream);
+            objectStream.writeObject(command);
+            objectStream.close();
+            bytes = byteStream.toByteArray();
+        } catch (IOException exception) {
+            throw CommunicationException.errorSendingMessage(this.serviceId.getId(), exception);
+        }
+        Frame frame;
+        boolean isWriter = false;
+        synchronized (this) {
+            if (this.isClosed) {
+                throw CommunicationException.errorSendingMessage(this.serviceId.getId(), new IOException("connection closed"));
+            }
+            frame = this.currentFrame;
+            if ((frame == null) || (frame.size >= this.transportManager.getMaxFrameSize())) {
+                frame = new Frame();
+                this.currentFrame = frame;
+                isWriter = true;
+            }
+            frame.add(bytes);
+        }
+        if (isWriter) {
+            int window = this.transportManager.getCoalescingWindow();
+            if (window > 0) {
+                try {
+                    Thread.sleep(window);
+                } catch (InterruptedException exception) {
+                    // Write what has been coalesced, and keep the interrupt for the caller.
+                    Thread.currentThread().interrupt();
+                }
+            }
+            synchronized (this) {
+                if (this.currentFrame == frame) {
+                    this.currentFrame = null;
+                }
+            }
+            IOException error = null;
+            try {
+                writeFrame(frame);
+            } catch (IOException exception) {
+                error = exception;
+            }
+            frame.written(error);
+        } else {
+            try {
+                frame.waitUntilWritten();
+            } catch (InterruptedException exception) {
+                throw CommunicationException.errorSendingMessage(this.serviceId.getId(), exception);
+            }
+        }
+        if (frame.error != null) {
+            throw CommunicationException.errorSendingMessage(this.serviceId.getId(), frame.error);
+        }
+        return null;
+    }
+
+    /**
+     * Write the frame to the socket, opening the socket if required.
+     * The socket is closed if the write fails.
+     */
+    protected void writeFrame(Frame frame) throws IOException {
+        ByteBuffer buffer = frame.toByteBuffer();
+        synchronized (this.writeLock) {
+            try {
+                if (this.channel == null) {
+                    this.channel = SocketChannel.open(this.address);
+                    this.channel.socket().setTcpNoDelay(true);
+                }
+                while (buffer.hasRemaining()) {
+                    this.channel.write(buffer);
+                }
+            } catch (IOException exception) {
+                closeChannel();
+                throw exception;
+            }
+        }
+        this.transportManager.frameSent(frame.commands.size());
+    }
+
+    protected void closeChannel() {
+        if (this.channel != null) {
+            try {
+                this.channel.close();
+            } catch (IOException ignore) {
+                // Closing.
+            }
+            this.channel = null;
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Close the socket.
+     */
+    public void close() {
+        synchronized (this) {
+            this.isClosed = true;
+        }
+        synchronized (this.writeLock) {
+            closeChannel();
+        }
+    }
+
+    public String toString() {
+        return "NIORemoteConnection[" + this.serviceId + "]";
+    }
+
+    /**
+     * INTERNAL:
+     * The commands written to a service in a single write.
+     */
+    protected static class Frame {
+        protected List<byte[]> commands = new ArrayList<byte[]>();
+        /** The number of bytes of the commands. */
+        protected int size;
+        protected boolean isWritten;
+        protected IOException error;
+
+        protected void add(byte[] command) {
+            this.commands.add(command);
+            this.size = this.size + command.length;
+        }
+
+        protected ByteBuffer toByteBuffer() {
+            int length = 4 + (this.commands.size() * 4) + this.size;
+            ByteBuffer buffer = ByteBuffer.allocate(4 + length);
+            buffer.putInt(length);
+            buffer.putInt(this.commands.size());
+            for (byte[] command : this.commands) {
+                buffer.putInt(command.length);
+                buffer.put(command);
+            }
+            buffer.flip();
+            return buffer;
+        }
+
+        protected synchronized void written(IOException error) {
+            this.error = error;
+            this.isWritten = true;
+            notifyAll();
+        }
+
+        protected synchronized void waitUntilWritten() throws InterruptedException {
+            while (!this.isWritten) {
+                wait();
+            }
+        }
+    }
+}
@@ -50,6 +50,7 @@ import org.eclipse.persistence.internal.descriptors.InstanceVariableAttributeAcc
 import org.eclipse.persistence.internal.descriptors.MethodAttributeAccessor;
 import org.eclipse.persistence.internal.expressions.ForUpdateOfClause;
 import org.eclipse.persistence.internal.expressions.ObjectExpression;
+import org.eclipse.persistence.internal.databaseaccess.DatabasePlatform;
 import org.eclipse.persistence.internal.helper.ClassConstants;
 import org.eclipse.persistence.internal.helper.DatabaseField;
 import org.eclipse.persistence.internal.helper.Helper;
@@ -65,6 +66,7 @@ import org.eclipse.persistence.internal.indirection.NoIndirectionPolicy;
 import org.eclipse.persistence.internal.indirection.WeavedObjectBasicIndirectionPolicy;
 import org.eclipse.persistence.internal.queries.AttributeItem;
 import org.eclipse.persistence.internal.queries.JoinedAttributeManager;
+import org.eclipse.persistence.internal.queries.PrefetchedBatch;
 import org.eclipse.persistence.internal.security.PrivilegedAccessHelper;
 import org.eclipse.persistence.internal.security.PrivilegedClassForName;
 import org.eclipse.persistence.internal.sessions.AbstractRecord;
@@ -553,13 +555,18 @@ public abstract class ForeignReferenceMapping extends DatabaseMapping {
             // In case of IN the batch including this row may not have been executed yet.
             if (result == null) {
                 AbstractRecord translationRow = originalQuery.getTranslationRow();
+                int batchSize = 0;
+                List foreignKeyValues = null;
+                List<AbstractRecord> remainingParentRows = null;
+                PrefetchedBatch prefetchedBatch = null;
                 // Execute query and index resulting object sets by key.
                 if (originalPolicy.isIN()) {
                     // Need to extract all foreign key values from all parent rows for IN parameter.
                     List<AbstractRecord> parentRows = originalPolicy.getDataResults(this);
                     // Execute queries by batch if too many rows.
                     int rowsSize = parentRows.size();
-                    int size = Math.min(rowsSize, originalPolicy.getSize());
+                    batchSize = originalPolicy.getSize(getMaxInListSize(session));
+                    int size = Math.min(rowsSize, batchSize);
                     if (size == 0) {
                         return null;
                     }
@@ -568,7 +575,7 @@ public abstract class ForeignReferenceMapping extends DatabaseMapping {
                         // If only fetching a page, need to make sure the row we want is in the page.
                         startIndex = parentRows.indexOf(sourceRow);
                     }
-                    List foreignKeyValues = new ArrayList(size);
+                    foreignKeyValues = new ArrayList(size);
                     Set foreignKeys = new HashSet(size);
                     int index = 0;
                     int offset = startIndex;
@@ -598,13 +605,7 @@ public abstract class ForeignReferenceMapping extends DatabaseMapping {
                                     if (foreignKeys.contains(foreignKey)) {
                                         count--;
                                     } else {
-                                        Object[] key = ((CacheId)foreignKey).getPrimaryKey();
-                                        Object foreignKeyValue = key[0];
-                                        // Support composite keys using nested IN.
-                                        if (key.length > 1) {
-                                            foreignKeyValue = Arrays.asList(key);
-                                        }
-                                        foreignKeyValues.add(foreignKeyValue);
+                                        foreignKeyValues.add(extractBatchKeyValue(foreignKey));
                                         foreignKeys.add(foreignKey);
                                     }
                                 }
@@ -613,7 +614,6 @@ public abstract class ForeignReferenceMapping extends DatabaseMapping {
                         index++;
                     }
                     // Need to compute remaining rows, this is tricky because a page in the middle could have been processed.
-                    List<AbstractRecord> remainingParentRows = null;
                     if (startIndex == 0) {
                         // Tail
                         remainingParentRows = new ArrayList(parentRows.subList(index, rowsSize));
@@ -631,6 +631,17 @@ public abstract class ForeignReferenceMapping extends DatabaseMapping {
                         }
                     }
                     originalPolicy.setDataResults(this, remainingParentRows);
+                    // Use the batch selected in the background if it is this batch.
+                    prefetchedBatch = originalPolicy.removePrefetchedBatch(this);
+                    if (prefetchedBatch != null) {
+                        if (prefetchedBatch.getForeignKeyValues().equals(foreignKeyValues)) {
+                            foreignKeyValues = prefetchedBatch.getForeignKeyValues();
+                            ((ReadAllQuery)batchQuery).setPrefetchedBatch(prefetchedBatch);
+                        } else {
+                            prefetchedBatch.cancel();
+                            prefetchedBatch = null;
+                        }
+                    }
                     translationRow = translationRow.clone();
                     translationRow.put(QUERY_BATCH_PARAMETER, foreignKeyValues);
                     // Register each id as null, in case it has no relationship.
@@ -640,7 +651,29 @@ public abstract class ForeignReferenceMapping extends DatabaseMapping {
                 } else if (batchQuery.isReadAllQuery() && ((ReadAllQuery)batchQuery).getBatchFetchPolicy().isIN()) {
                     throw QueryException.originalQueryMustUseBatchIN(this, originalQuery);
                 }
-                executeBatchQuery(batchQuery, parentCacheKey, batchedObjects, session, translationRow);
+                long startTime = System.nanoTime();
+                try {
+                    executeBatchQuery(batchQuery, parentCacheKey, batchedObjects, session, translationRow);
+                } finally {
+                    if (prefetchedBatch != null) {
+                        ((ReadAllQuery)batchQuery).setPrefetchedBatch(null);
+                    }
+                }
+                if (originalPolicy.isIN()) {
+                    if (originalPolicy.shouldAutoTuneSize() && (foreignKeyValues.size() >= batchSize)) {
+                        // If the batch was selected in the background only the select time is measured.
+                        long time;
+                        if ((prefetchedBatch != null) && prefetchedBatch.hasRows()) {
+                            time = prefetchedBatch.getTime();
+                        } else {
+                            time = System.nanoTime() - startTime;
+                        }
+                        originalPolicy.updateSize(batchSize, time, getMaxInListSize(session));
+                    }
+                    if (originalPolicy.shouldPrefetch() && !remainingParentRows.isEmpty()) {
+                        prefetchBatch(batchQuery, remainingParentRows, batchedObjects, originalQuery, session);
+                    }
+                }
                 batchQuery.setSession(null);
             }
         }
@@ -652,6 +685,85 @@ public abstract class ForeignReferenceMapping extends DatabaseMapping {
         }
     }
 
+    /**
+     * INTERNAL:
+     * Return the IN parameter value of the batch key.
+     * Composite keys are supported using nested IN.
+     */
+    protected Object extractBatchKeyValue(Object foreignKey) {
+        Object[] key = ((CacheId)foreignKey).getPrimaryKey();
+        if (key.length > 1) {
+            return Arrays.asList(key);
+        }
+        return key[0];
+    }
+
+    /**
+     * INTERNAL:
+     * Return the number of values the platform allows in an IN list, or 0 if not limited.
+     */
+    protected int getMaxInListSize(AbstractSession session) {
+        if (session.getDatasourcePlatform() instanceof DatabasePlatform) {
+            return ((DatabasePlatform)session.getDatasourcePlatform()).getMaxInListSize();
+        }
+        return 0;
+    }
+
+    /**
+     * INTERNAL:
+     * Select the IN batch of the next remaining parent rows in the background on a read connection,
+     * while the objects of the current batch are built and used.
+     * The batch is only used if it is the next batch required, which it is when the parents are used in order.
+     * This is only done for queries executing on a ServerSession, as executing on a client session
+     * in a transaction, or any other session, must use the session's connection.
+     */
+    protected void prefetchBatch(ReadQuery batchQuery, List<AbstractRecord> parentRows, Map batchedObjects, ObjectLevelReadQuery originalQuery, AbstractSession session) {
+        if (!batchQuery.isReadAllQuery() || !batchQuery.isPrepared()) {
+            return;
+        }
+        ReadAllQuery query = (ReadAllQuery)batchQuery;
+        AbstractSession executionSession = session.getExecutionSession(query);
+        ClassDescriptor descriptor = query.getDescriptor();
+        if (!executionSession.isServerSession() || query.isLockQuery() || query.usesResultSetAccessOptimization()
+                || query.getContainerPolicy().overridesRead() || descriptor.isDescriptorForInterface() || descriptor.hasTablePerClassPolicy()) {
+            return;
+        }
+        BatchFetchPolicy policy = originalQuery.getBatchFetchPolicy();
+        int size = policy.getSize(getMaxInListSize(session));
+        List foreignKeyValues = new ArrayList(size);
+        Set foreignKeys = new HashSet(size);
+        for (AbstractRecord row : parentRows) {
+            if (foreignKeyValues.size() >= size) {
+                break;
+            }
+            if (row != null) {
+                Object foreignKey = extractBatchKeyFromRow(row, session);
+                if ((foreignKey != null) && !foreignKeys.contains(foreignKey)
+                        && (checkCacheForBatchKey(row, foreignKey, batchedObjects, batchQuery, originalQuery, session) == null)) {
+                    foreignKeyValues.add(extractBatchKeyValue(foreignKey));
+                    foreignKeys.add(foreignKey);
+                }
+            }
+        }
+        if (foreignKeyValues.isEmpty()) {
+            return;
+        }
+        AbstractRecord translationRow = originalQuery.getTranslationRow().clone();
+        translationRow.put(QUERY_BATCH_PARAMETER, foreignKeyValues);
+        if (!query.shouldPrepare(translationRow, executionSession)) {
+            return;
+        }
+        ReadAllQuery prefetchQuery = (ReadAllQuery)query.clone();
+        prefetchQuery.setIsExecutionClone(true);
+        prefetchQuery.setAccessors(null);
+        prefetchQuery.setTranslationRow(translationRow);
+        prefetchQuery.setSession(executionSession);
+        prefetchQuery.prepareForExecution();
+        PrefetchedBatch batch = new PrefetchedBatch(prefetchQuery, foreignKeyValues);
+        policy.setPrefetchedBatch(this, batch);
+        executionSession.getServerPlatform().launchContainerRunnable(batch);
+    }
+
     /**
      * INTERNAL:
      * Extract the batch key value from the source row.
@@ -932,6 +1044,9 @@ public abstract class ForeignReferenceMapping extends DatabaseMapping {
 
         batchQuery.setBatchFetchType(batchType);
         batchQuery.setBatchFetchSize(query.getBatchFetchPolicy().getSize());
+        batchQuery.getBatchFetchPolicy().setShouldAutoTuneSize(query.getBatchFetchPolicy().shouldAutoTuneSize());
+        batchQuery.getBatchFetchPolicy().setMaxSize(query.getBatchFetchPolicy().getMaxSize());
+        batchQuery.getBatchFetchPolicy().setShouldPrefetch(query.getBatchFetchPolicy().shouldPrefetch());
         // Allow subclasses to further prepare.
         postPrepareNestedBatchQuery(batchQuery, query);
         
@@ -15,6 +15,7 @@
  ******************************************************************************/  
 package org.eclipse.persistence.mappings.foundation;
 
+import java.lang.reflect.Field;
 import java.security.AccessController;
 import java.security.PrivilegedActionException;
 import java.util.*;
@@ -87,6 +88,9 @@ public abstract class AbstractDirectMapping extends AbstractColumnMapping implem
      */
     protected Boolean isMutable;
 
+    /** PERF: The attribute field if primitive values can be set directly from a columnar row, otherwise null. */
+    protected transient Field primitiveAttributeField;
+
     /**
      * Default constructor.
      */
@@ -975,6 +979,15 @@ public abstract class AbstractDirectMapping extends AbstractColumnMapping implem
         if (getField().getSqlType() == java.sql.Types.STRUCT) {
             getDescriptor().setIsNativeConnectionRequired(true);
         }
+        
+        // PERF: Primitive attributes using field access can be set from a columnar row without boxing,
+        // if the value is not converted, or the cached value used for protected isolation.
+        this.primitiveAttributeField = null;
+        if (!hasConverter() && (this.attributeClassification != null) && this.attributeClassification.isPrimitive()
+                && (getAttributeAccessor().getClass() == InstanceVariableAttributeAccessor.class)
+                && !getDescriptor().getCachePolicy().isProtectedIsolation() && !PrivilegedAccessHelper.shouldUsePrivilegedAccess()) {
+            this.primitiveAttributeField = ((InstanceVariableAttributeAccessor)getAttributeAccessor()).getAttributeField();
+        }
     }
     
     /**
@@ -1217,6 +1230,19 @@ public abstract class AbstractDirectMapping extends AbstractColumnMapping implem
         return attributeValue;
     }
 
+    /**
+     * INTERNAL:
+     * Set the primitive attribute value directly from the columnar row, without boxing the value.
+     * Return false if the value cannot be set directly, in which case the mapping must be read from the row normally.
+     * PERF: Used for building objects from a columnar row buffer.
+     */
+    public boolean readPrimitiveFromRowIntoObject(ColumnarRecord row, Object targetObject) {
+        if (this.primitiveAttributeField == null) {
+            return false;
+        }
+        return row.setPrimitiveValueInField(this.field, this.primitiveAttributeField, targetObject);
+    }
+
     /**
      * INTERNAL:
      * Returns the value for the mapping directly from the result-set.
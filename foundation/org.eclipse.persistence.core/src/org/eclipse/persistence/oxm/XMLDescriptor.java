@@ -30,6 +30,7 @@ import org.eclipse.persistence.descriptors.InheritancePolicy;
 import org.eclipse.persistence.exceptions.DatabaseException;
 import org.eclipse.persistence.exceptions.DescriptorException;
 import org.eclipse.persistence.exceptions.XMLMarshalException;
+import org.eclipse.persistence.internal.descriptors.AttributeAccessorFactory;
 import org.eclipse.persistence.internal.descriptors.InstantiationPolicy;
 import org.eclipse.persistence.internal.descriptors.ObjectBuilder;
 import org.eclipse.persistence.internal.helper.DatabaseField;
@@ -561,6 +562,8 @@ public class XMLDescriptor extends ClassDescriptor implements Descriptor<Attribu
                 session.getIntegrityChecker().handleError(exception);
             }
         }
+        // PERF: Generate an accessor class to avoid reflection.
+        AttributeAccessorFactory.initializeAccessors(this, session);
 
         getCachePolicy().useNoIdentityMap();
         getQueryManager().getDoesExistQuery().setExistencePolicy(DoesExistQuery.CheckDatabase);
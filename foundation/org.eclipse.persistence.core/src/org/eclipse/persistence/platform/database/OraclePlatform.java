@@ -357,6 +357,16 @@ public class OraclePlatform extends org.eclipse.persistence.platform.database.Da
         return 30;
     }
 
+    /**
+     * INTERNAL:
+     * returns the maximum number of values that can be used in an IN list
+     * on this platform.
+     */
+    @Override
+    public int getMaxInListSize() {
+        return 1000;
+    }
+
     /**
      * Return the catalog information through using the native SQL catalog selects.
      * This is required because many JDBC driver do not support meta-data.
@@ -238,6 +238,16 @@ public class SQLServerPlatform extends org.eclipse.persistence.platform.database
         return 22;
     }
 
+    /**
+     * INTERNAL:
+     * returns the maximum number of values that can be used in an IN list
+     * on this platform, SQL Server allows 2100 parameters in a statement.
+     */
+    @Override
+    public int getMaxInListSize() {
+        return 2000;
+    }
+
     /**
      * Return the catalog information through using the native SQL catalog selects.
      * This is required because many JDBC driver do not support meta-data.
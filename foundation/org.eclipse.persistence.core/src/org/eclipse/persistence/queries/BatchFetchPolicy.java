@@ -15,6 +15,7 @@ package org.eclipse.persistence.queries;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
 
@@ -22,6 +23,7 @@ import org.eclipse.persistence.annotations.BatchFetchType;
 import org.eclipse.persistence.descriptors.ClassDescriptor;
 import org.eclipse.persistence.expressions.Expression;
 import org.eclipse.persistence.internal.expressions.QueryKeyExpression;
+import org.eclipse.persistence.internal.queries.PrefetchedBatch;
 import org.eclipse.persistence.internal.sessions.AbstractRecord;
 import org.eclipse.persistence.mappings.DatabaseMapping;
 
@@ -32,6 +34,11 @@ import org.eclipse.persistence.mappings.DatabaseMapping;
  * @author James Sutherland
  */
 public class BatchFetchPolicy implements Serializable, Cloneable {
+    /** The smallest IN batch size auto-tuning will use. */
+    public static int MIN_AUTO_TUNED_SIZE = 10;
+    /** The largest IN batch size auto-tuning will use if no max size is set. */
+    public static int DEFAULT_AUTO_TUNED_MAX_SIZE = 5000;
+
     /** Define the type of batch fetching to use. */
     protected BatchFetchType type;
     /** Define the batch size for IN style batch fetching. */
@@ -48,6 +55,18 @@ public class BatchFetchPolicy implements Serializable, Cloneable {
     protected transient Map<Object, List<AbstractRecord>> dataResults;
     /** Stores temporary map of batched objects (this queries results). */
     protected transient Map<Object, Object> batchObjects;
+    /** Define if the IN batch size is tuned to the measured batch select time. */
+    protected boolean shouldAutoTuneSize;
+    /** Define the largest IN batch size auto-tuning will use, 0 uses the default. */
+    protected int maxSize;
+    /** Define if the next IN batch is selected in the background while the current batch is used. */
+    protected boolean shouldPrefetch;
+    /** The keys selected per nanosecond in the last full IN batch, used to decide the next tuning step. */
+    protected transient double previousThroughput;
+    /** The direction of the last tuning step. */
+    protected transient boolean isSizeIncreasing = true;
+    /** Stores the next IN batch being selected in the background per batched mapping. */
+    protected transient Map<Object, PrefetchedBatch> prefetchedBatches;
 
     public BatchFetchPolicy() {
         this.type = BatchFetchType.JOIN;
@@ -119,6 +138,119 @@ public class BatchFetchPolicy implements Serializable, Cloneable {
         this.size = size;
     }
 
+    /**
+     * Return if the IN batch size is tuned to the measured batch select time.
+     */
+    public boolean shouldAutoTuneSize() {
+        return shouldAutoTuneSize;
+    }
+
+    /**
+     * Set if the IN batch size should be tuned to the measured batch select time.
+     * Starting from the batch size, the size is adjusted after each full batch to maximize the number
+     * of keys selected per second, between 10 and the max size.
+     * The max size is also limited to the number of values the database platform allows in an IN list.
+     * This reduces the number of batches for large results when the database can select large batches efficiently.
+     */
+    public void setShouldAutoTuneSize(boolean shouldAutoTuneSize) {
+        this.shouldAutoTuneSize = shouldAutoTuneSize;
+    }
+
+    /**
+     * Return the largest IN batch size auto-tuning will use.
+     */
+    public int getMaxSize() {
+        if (this.maxSize <= 0) {
+            return DEFAULT_AUTO_TUNED_MAX_SIZE;
+        }
+        return maxSize;
+    }
+
+    /**
+     * Set the largest IN batch size auto-tuning will use, the default is 5000.
+     */
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Return if the next IN batch is selected in the background while the current batch is used.
+     */
+    public boolean shouldPrefetch() {
+        return shouldPrefetch;
+    }
+
+    /**
+     * Set if the next IN batch should be selected in the background while the current batch is used.
+     * When a batch is fetched, the batch for the next parent rows is selected on a read connection
+     * by a thread from the server platform, so iterating over the parents does not wait for each batch.
+     * This is only used when the query is executed on a ServerSession outside of a transaction,
+     * and uses an additional read connection while the batch is selected.
+     */
+    public void setShouldPrefetch(boolean shouldPrefetch) {
+        this.shouldPrefetch = shouldPrefetch;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the IN batch size to use, limited to the platform's IN list limit if auto-tuning.
+     */
+    public int getSize(int platformLimit) {
+        if (this.shouldAutoTuneSize && (platformLimit > 0)) {
+            return Math.min(this.size, platformLimit);
+        }
+        return this.size;
+    }
+
+    /**
+     * INTERNAL:
+     * Tune the IN batch size from the time to select a full batch.
+     * The size is moved in the same direction while the keys selected per second increase,
+     * and reversed when they decrease, between MIN_AUTO_TUNED_SIZE and the max size,
+     * or the platform's IN list limit if smaller.
+     */
+    public synchronized void updateSize(int batchSize, long time, int platformLimit) {
+        if (time <= 0) {
+            return;
+        }
+        double throughput = (double)batchSize / time;
+        if (throughput < this.previousThroughput) {
+            this.isSizeIncreasing = !this.isSizeIncreasing;
+        }
+        this.previousThroughput = throughput;
+        int limit = getMaxSize();
+        if ((platformLimit > 0) && (platformLimit < limit)) {
+            limit = platformLimit;
+        }
+        if (this.isSizeIncreasing) {
+            this.size = Math.min(limit, batchSize + (batchSize / 2));
+        } else {
+            this.size = Math.max(MIN_AUTO_TUNED_SIZE, batchSize - (batchSize / 4));
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Return and remove the IN batch being selected in the background for the mapping.
+     */
+    public synchronized PrefetchedBatch removePrefetchedBatch(DatabaseMapping mapping) {
+        if (this.prefetchedBatches == null) {
+            return null;
+        }
+        return this.prefetchedBatches.remove(mapping);
+    }
+
+    /**
+     * INTERNAL:
+     * Set the IN batch being selected in the background for the mapping.
+     */
+    public synchronized void setPrefetchedBatch(DatabaseMapping mapping, PrefetchedBatch batch) {
+        if (this.prefetchedBatches == null) {
+            this.prefetchedBatches = new Hashtable<Object, PrefetchedBatch>();
+        }
+        this.prefetchedBatches.put(mapping, batch);
+    }
+
     /**
      * PERF: Return the internally stored prepared mapping queries.
      */
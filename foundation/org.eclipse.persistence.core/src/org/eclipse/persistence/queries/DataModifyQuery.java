@@ -12,7 +12,13 @@
  ******************************************************************************/  
 package org.eclipse.persistence.queries;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.eclipse.persistence.exceptions.*;
+import org.eclipse.persistence.internal.databaseaccess.DatasourceCall;
+import org.eclipse.persistence.internal.sessions.SQLResultCache;
 import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
 
 /**
@@ -82,7 +88,38 @@ public class DataModifyQuery extends ModifyQuery {
             }
             unitOfWork.setWasNonObjectLevelModifyQueryExecuted(true);
         }
-        return getQueryMechanism().executeNoSelect();
+        Object result = getQueryMechanism().executeNoSelect();
+        invalidateSQLResults();
+        return result;
+    }
+
+    /**
+     * INTERNAL:
+     * Remove the results of the session's SQL result cache that read the tables written by the query's calls.
+     * All results are removed if the written tables are not known, such as for stored procedures.
+     */
+    protected void invalidateSQLResults() {
+        SQLResultCache resultCache = this.session.getSQLResultCache();
+        if (resultCache == null) {
+            return;
+        }
+        Set<String> writtenTables = new HashSet<String>();
+        List calls = getDatasourceCalls();
+        for (Object call : calls) {
+            Set<String> callTables = resultCache.getWrittenTables((DatasourceCall)call, this.session);
+            if (callTables == null) {
+                writtenTables = null;
+                break;
+            }
+            writtenTables.addAll(callTables);
+        }
+        if (calls.isEmpty()) {
+            writtenTables = null;
+        }
+        resultCache.invalidateTables(writtenTables);
+        if (this.session.isUnitOfWork()) {
+            ((UnitOfWorkImpl)this.session).addWrittenSQLResultTables(writtenTables);
+        }
     }
 
     /**
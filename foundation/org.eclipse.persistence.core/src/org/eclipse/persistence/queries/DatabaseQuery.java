@@ -178,6 +178,12 @@ public abstract class DatabaseQuery implements Cloneable, Serializable {
      */
     protected AbstractRecord translationRow;
 
+    /**
+     * The constant values of the selection criteria that were replaced by parameters,
+     * these are added to the translation row on execution.
+     */
+    protected AbstractRecord parameterizedConstants;
+
     /**
      * Internal flag used to bypass user define queries when executing one for
      * custom sql/query support.
@@ -833,7 +839,7 @@ public abstract class DatabaseQuery implements Cloneable, Serializable {
 
         // This allows the query to check the cache or return early without
         // doing any work.
-        Object earlyReturn = queryToExecute.checkEarlyReturn(session, translationRow);
+        Object earlyReturn = queryToExecute.checkEarlyReturn(session, queryToExecute.addParameterizedConstants(translationRow));
         // If know not to exist (checkCacheOnly, deleted, null primary key),
         // return null.
         if (earlyReturn == InvalidObject.instance) {
@@ -875,6 +881,7 @@ public abstract class DatabaseQuery implements Cloneable, Serializable {
         if ((this.argumentValues != null) && (!this.argumentValues.isEmpty()) && translationRow.isEmpty()) {
             translationRow = rowFromArguments(this.argumentValues, session);
         }
+        translationRow = queryToExecute.addParameterizedConstants(translationRow);
         queryToExecute.setTranslationRow(translationRow);
 
         // If the prepare has been disable the clone is prepare dynamically to
@@ -1511,6 +1518,38 @@ public abstract class DatabaseQuery implements Cloneable, Serializable {
         return calls;
     }
 
+    /**
+     * INTERNAL: Return the constant values of the selection criteria that were
+     * replaced by parameters, or null.
+     */
+    public AbstractRecord getParameterizedConstants() {
+        return parameterizedConstants;
+    }
+
+    /**
+     * INTERNAL: Set the constant values of the selection criteria that were
+     * replaced by parameters, these are added to the translation row on execution.
+     */
+    public void setParameterizedConstants(AbstractRecord parameterizedConstants) {
+        this.parameterizedConstants = parameterizedConstants;
+    }
+
+    /**
+     * INTERNAL: Return the translation row with the parameterized constant values added.
+     * The row is not modified, a new row is returned if the query has parameterized constants.
+     */
+    protected AbstractRecord addParameterizedConstants(AbstractRecord translationRow) {
+        if (this.parameterizedConstants == null) {
+            return translationRow;
+        }
+        AbstractRecord row = new DatabaseRecord(this.parameterizedConstants.size() + ((translationRow == null) ? 0 : translationRow.size()));
+        if (translationRow != null) {
+            row.mergeFrom(translationRow);
+        }
+        row.mergeFrom(this.parameterizedConstants);
+        return row;
+    }
+
     /**
      * INTERNAL: Return the row for translation
      */
@@ -1844,6 +1883,7 @@ public abstract class DatabaseQuery implements Cloneable, Serializable {
         this.argumentTypes = query.argumentTypes;
         this.argumentTypeNames = query.argumentTypeNames;
         this.argumentValues = query.argumentValues;
+        this.parameterizedConstants = query.parameterizedConstants;
         this.queryTimeout = query.queryTimeout;
         this.redirector = query.redirector;
         this.sessionName = query.sessionName;
@@ -2295,6 +2335,10 @@ public abstract class DatabaseQuery implements Cloneable, Serializable {
         if ((expression == null) && (!getQueryMechanism().isExpressionQueryMechanism())) {
             return;
         }
+        if (expression != getSelectionCriteria()) {
+            // The constants replaced by parameters belong to the previous criteria.
+            this.parameterizedConstants = null;
+        }
         if (!getQueryMechanism().isExpressionQueryMechanism()) {
             setQueryMechanism(new ExpressionQueryMechanism(this, expression));
         } else {
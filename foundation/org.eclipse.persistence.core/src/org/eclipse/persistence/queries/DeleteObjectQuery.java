@@ -216,6 +216,7 @@ public class DeleteObjectQuery extends ObjectLevelModifyQuery {
                 rowCount = 1;
             } else {
                 rowCount = getQueryMechanism().deleteObject().intValue();
+                getQueryMechanism().invalidateSQLResults();
             }
 
             if (rowCount < 1) {
@@ -14,11 +14,16 @@
  ******************************************************************************/  
 package org.eclipse.persistence.queries;
 
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
 import org.eclipse.persistence.exceptions.*;
 import org.eclipse.persistence.expressions.*;
 import org.eclipse.persistence.internal.queries.DatabaseQueryMechanism;
 import org.eclipse.persistence.internal.queries.ExpressionQueryMechanism;
 import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.internal.sessions.SQLResultCache;
 import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
 
@@ -223,6 +228,32 @@ public abstract class ModifyAllQuery extends ModifyQuery {
         if (shouldInvalidateCache() && ! shouldStoreBypassCache()) {
             invalidateCache();
         }
+        invalidateSQLResults();
+    }
+
+    /**
+     * INTERNAL:
+     * Remove the results of the session's SQL result cache that read the tables of the reference class and its subclasses.
+     * This is done even if the cache usage is none, as the results are rows, not objects.
+     */
+    protected void invalidateSQLResults() {
+        SQLResultCache resultCache = getSession().getSQLResultCache();
+        if (resultCache == null) {
+            return;
+        }
+        ClassDescriptor descriptor = getDescriptor();
+        if (descriptor == null) {
+            resultCache.invalidateAll();
+            return;
+        }
+        Set<String> tableNames = new HashSet<String>();
+        resultCache.addWrittenTables(descriptor, tableNames);
+        if (descriptor.hasInheritance()) {
+            for (ClassDescriptor childDescriptor : descriptor.getInheritancePolicy().getAllChildDescriptors()) {
+                resultCache.addWrittenTables(childDescriptor, tableNames);
+            }
+        }
+        resultCache.invalidateTables(tableNames);
     }
 
     /**
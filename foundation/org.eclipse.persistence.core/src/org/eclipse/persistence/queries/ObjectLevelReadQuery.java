@@ -36,6 +36,7 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.persistence.annotations.BatchFetchType;
 import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.DescriptorQueryManager;
 import org.eclipse.persistence.descriptors.FetchGroupManager;
 import org.eclipse.persistence.descriptors.VersionLockingPolicy;
 import org.eclipse.persistence.exceptions.DatabaseException;
@@ -45,6 +46,8 @@ import org.eclipse.persistence.expressions.Expression;
 import org.eclipse.persistence.expressions.ExpressionBuilder;
 import org.eclipse.persistence.history.AsOfClause;
 import org.eclipse.persistence.internal.databaseaccess.DatabaseCall;
+import org.eclipse.persistence.internal.databaseaccess.DatabasePlatform;
+import org.eclipse.persistence.internal.databaseaccess.Platform;
 import org.eclipse.persistence.internal.descriptors.OptimisticLockingPolicy;
 import org.eclipse.persistence.internal.expressions.FieldExpression;
 import org.eclipse.persistence.internal.expressions.ForUpdateClause;
@@ -67,6 +70,7 @@ import org.eclipse.persistence.logging.SessionLog;
 import org.eclipse.persistence.mappings.CollectionMapping;
 import org.eclipse.persistence.mappings.DatabaseMapping;
 import org.eclipse.persistence.mappings.ForeignReferenceMapping;
+import org.eclipse.persistence.sessions.DatabaseRecord;
 
 /**
  * <p><b>Purpose</b>:
@@ -183,6 +187,12 @@ public abstract class ObjectLevelReadQuery extends ObjectBuildingQuery {
     /** PERF: Indicates whether the query is actually using ResultSet optimization. If isResultSetOptimizedQuery==null set automatically before executing call. */
     protected transient Boolean usesResultSetAccessOptimization;
     
+    /** PERF: Allow the result-set to be fetched into a columnar row buffer to avoid boxing primitive values. */
+    protected boolean shouldUseColumnarRows = false;
+    
+    /** PERF: Allow the objects of a large result to be built on several threads, if not set the session default is used. */
+    protected Boolean shouldBuildObjectsInParallel;
+    
     /** PERF: Allow queries to be defined as read-only in unit of work execution. */
     protected boolean isReadOnly = false;
     
@@ -491,6 +501,8 @@ public abstract class ObjectLevelReadQuery extends ObjectBuildingQuery {
         ObjectLevelReadQuery clone = (ObjectLevelReadQuery)clone();
         if (getSelectionCriteria() != null) {
             clone.setSelectionCriteria((Expression)getSelectionCriteria().clone());
+            // The cloned criteria has the same parameters as the criteria, so requires its constants.
+            clone.setParameterizedConstants(getParameterizedConstants());
         } 
         if (defaultBuilder != null) {
             clone.defaultBuilder = (ExpressionBuilder)defaultBuilder.clone();
@@ -1937,6 +1949,9 @@ public abstract class ObjectLevelReadQuery extends ObjectBuildingQuery {
         boolean isCacheable = isExpressionQuery() && (!getQueryMechanism().isJPQLCallQueryMechanism()) && isDefaultPropertiesQuery() && (!getSession().isHistoricalSession());
         DatabaseQuery cachedQuery = null;
         if (isCacheable) {
+            if (DescriptorQueryManager.shouldParameterizeConstants() && isReadAllQuery()) {
+                parameterizeConstants();
+            }
             cachedQuery = this.descriptor.getQueryManager().getCachedExpressionQuery(this);
         } else {
             return false;
@@ -1951,6 +1966,49 @@ public abstract class ObjectLevelReadQuery extends ObjectBuildingQuery {
         return false;
     }
 
+    /**
+     * INTERNAL:
+     * Replace the constant values compared in the selection criteria by parameters,
+     * so queries that only differ in their constant values are equal, and share the same cached SQL.
+     * The constant values are added to the translation row when the query is executed.
+     * The constants are only parameterized if the platform binds literals.
+     * @see DescriptorQueryManager#setShouldParameterizeConstants(boolean)
+     */
+    protected void parameterizeConstants() {
+        Expression selectionCriteria = getSelectionCriteria();
+        if (selectionCriteria == null) {
+            return;
+        }
+        Platform platform = getSession().getPlatform(this.descriptor.getJavaClass());
+        if (!(platform instanceof DatabasePlatform) || !((DatabasePlatform)platform).shouldBindLiterals()) {
+            return;
+        }
+        // Expression may not have been initialized, the builder's class is required to find the attributes,
+        // but must be reset after, as only builders without a class are equal for the expression query cache.
+        ExpressionBuilder builder = getExpressionBuilder();
+        boolean isBuilderInitialized = (builder.getQueryClass() != null) || (builder != selectionCriteria.getBuilder());
+        AbstractSession builderSession = builder.getSession();
+        if (!isBuilderInitialized) {
+            builder.setSession(getSession().getRootSession(null));
+            builder.setQueryClassAndDescriptor(this.descriptor.getJavaClass(), this.descriptor);
+        }
+        AbstractRecord constants = new DatabaseRecord();
+        Expression parameterizedCriteria = null;
+        try {
+            parameterizedCriteria = selectionCriteria.parameterizeConstants(constants, getSession());
+        } finally {
+            if (!isBuilderInitialized) {
+                builder.setQueryClass(null);
+                builder.setSession(builderSession);
+            }
+        }
+        if (parameterizedCriteria != selectionCriteria) {
+            // The query is being prepared, so the criteria is set directly to not un-prepare it.
+            ((ExpressionQueryMechanism)getQueryMechanism()).setSelectionCriteria(parameterizedCriteria);
+            this.parameterizedConstants = constants;
+        }
+    }
+
     /**
      * INTERNAL:
      * Copy all setting from the query.
@@ -1966,6 +2024,8 @@ public abstract class ObjectLevelReadQuery extends ObjectBuildingQuery {
             this.cacheUsage = readQuery.cacheUsage;
             this.isReadOnly = readQuery.isReadOnly;
             this.isResultSetOptimizedQuery = readQuery.isResultSetOptimizedQuery;
+            this.shouldUseColumnarRows = readQuery.shouldUseColumnarRows;
+            this.shouldBuildObjectsInParallel = readQuery.shouldBuildObjectsInParallel;
             this.shouldIncludeData = readQuery.shouldIncludeData;
             this.inMemoryQueryIndirectionPolicy = readQuery.inMemoryQueryIndirectionPolicy;
             this.lockModeType = readQuery.lockModeType;
@@ -2716,6 +2776,49 @@ public abstract class ObjectLevelReadQuery extends ObjectBuildingQuery {
         return this.isResultSetOptimizedQuery;
     }
     
+    /**
+     * ADVANCED:
+     * Return if the query result-set should be fetched into a columnar row buffer.
+     * Numeric columns are read into primitive arrays, and primitive direct mapped attributes
+     * using field access are set from the buffer without boxing.
+     */
+    public boolean shouldUseColumnarRows() {
+        return this.shouldUseColumnarRows;
+    }
+    
+    /**
+     * ADVANCED:
+     * Set if the query result-set should be fetched into a columnar row buffer.
+     * Numeric columns are read into primitive arrays, and primitive direct mapped attributes
+     * using field access are set from the buffer without boxing.
+     * This can reduce the allocation for queries that return large result-sets.
+     */
+    public void setShouldUseColumnarRows(boolean shouldUseColumnarRows) {
+        this.shouldUseColumnarRows = shouldUseColumnarRows;
+    }
+    
+    /**
+     * ADVANCED:
+     * Return if the objects of a large read all result should be built on several threads.
+     * If not set then the session's flag is used.
+     */
+    public Boolean shouldBuildObjectsInParallel() {
+        return this.shouldBuildObjectsInParallel;
+    }
+    
+    /**
+     * ADVANCED:
+     * Set if the objects of a large read all result should be built on several threads.
+     * The rows are fetched as usual, then split into chunks that are built concurrently,
+     * the results are added to the collection in the order of the rows.
+     * The threads are obtained from the server platform.
+     * This is ignored if the query is executed in a unit of work (unless read-only),
+     * uses batch fetching or caches its results, or if the session is not a server or client session.
+     */
+    public void setShouldBuildObjectsInParallel(boolean shouldBuildObjectsInParallel) {
+        this.shouldBuildObjectsInParallel = shouldBuildObjectsInParallel;
+    }
+    
     /**
      * ADVANCED:
      * Return if the query result set access should be optimized.
@@ -55,6 +55,9 @@ public class ReadAllQuery extends ObjectLevelReadQuery {
     protected Expression connectByExpression;
     protected List<Expression> orderSiblingsByExpressions;
 
+    /** Stores the IN batch selected in the background for a batch fetch query. */
+    protected transient PrefetchedBatch prefetchedBatch;
+
     /**
      * PUBLIC:
      * Return a new read all query.
@@ -474,7 +477,14 @@ public class ReadAllQuery extends ObjectLevelReadQuery {
                     }
                 }                
             } else {
-                List<AbstractRecord> rows = getQueryMechanism().selectAllRows();
+                List<AbstractRecord> rows = null;
+                // Batch fetching in IN may have selected the batch in the background.
+                if ((this.prefetchedBatch != null) && this.prefetchedBatch.isBatchFor(this.translationRow)) {
+                    rows = this.prefetchedBatch.getRows();
+                }
+                if (rows == null) {
+                    rows = getQueryMechanism().selectAllRows();
+                }
                 this.executionTime = System.currentTimeMillis();
                 
                 // If using 1-m joins, must set all rows.
@@ -777,6 +787,23 @@ public class ReadAllQuery extends ObjectLevelReadQuery {
         }
     }
 
+    /**
+     * INTERNAL:
+     * Return the IN batch selected in the background for a batch fetch query.
+     */
+    public PrefetchedBatch getPrefetchedBatch() {
+        return prefetchedBatch;
+    }
+
+    /**
+     * INTERNAL:
+     * Set the IN batch selected in the background for a batch fetch query.
+     * The rows are used if the batch parameter of the translation row is the batch.
+     */
+    public void setPrefetchedBatch(PrefetchedBatch prefetchedBatch) {
+        this.prefetchedBatch = prefetchedBatch;
+    }
+
     /**
      * INTERNAL:
      * Prepare the mechanism.
@@ -174,6 +174,14 @@ public class UpdateAllQuery extends ModifyAllQuery {
         return m_updateClauses;
     }
 
+    /**
+     * INTERNAL:
+     * Set the updates stored for an update all query.
+     */
+    public void setUpdateClauses(HashMap updateClauses) {
+        m_updateClauses = updateClauses;
+    }
+
     /**
      * INTERNAL:
      * Return true if this is an update all query.
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.sequencing;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.persistence.tools.profiler.LatencyHistogram;
+
+/**
+ * <p>
+ * <b>Purpose</b>: Statistics of the allocation of the preallocated values of a sequence.
+ * <p>
+ * <b>Description</b>: Records the number and time of the allocations of sequence values from the database,
+ * and the number of stalls, the times a sequence value was requested when no values were preallocated,
+ * so the requesting thread had to wait for values to be allocated.
+ * With background refill enabled, stalls should only occur if values are requested faster than they can be allocated.
+ * The statistics are recorded from when sequencing is connected.
+ *
+ * @see SequencingControl#getPreallocationStatistics(String)
+ * @see SequencingControl#setPreallocationRefillThreshold(int)
+ */
+public class PreallocationStatistics implements Serializable {
+    protected String sequenceName;
+    protected AtomicLong allocations;
+    protected AtomicLong backgroundAllocations;
+    protected AtomicLong stalls;
+    protected LatencyHistogram allocationTimes;
+
+    public PreallocationStatistics(String sequenceName) {
+        this.sequenceName = sequenceName;
+        this.allocations = new AtomicLong();
+        this.backgroundAllocations = new AtomicLong();
+        this.stalls = new AtomicLong();
+        this.allocationTimes = new LatencyHistogram();
+    }
+
+    /**
+     * INTERNAL:
+     * Record that values were allocated from the database, taking the time in nanoseconds.
+     */
+    public void allocated(long time, boolean isBackground) {
+        this.allocations.incrementAndGet();
+        if (isBackground) {
+            this.backgroundAllocations.incrementAndGet();
+        }
+        this.allocationTimes.record(time);
+    }
+
+    /**
+     * INTERNAL:
+     * Record that a value was requested when no values were preallocated.
+     */
+    public void stalled() {
+        this.stalls.incrementAndGet();
+    }
+
+    /**
+     * PUBLIC:
+     * Return the name of the sequence.
+     */
+    public String getSequenceName() {
+        return sequenceName;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the number of times values were allocated from the database.
+     */
+    public long getAllocations() {
+        return this.allocations.get();
+    }
+
+    /**
+     * PUBLIC:
+     * Return the number of times values were allocated from the database in the background.
+     */
+    public long getBackgroundAllocations() {
+        return this.backgroundAllocations.get();
+    }
+
+    /**
+     * PUBLIC:
+     * Return the number of times a value was requested when no values were preallocated.
+     */
+    public long getStalls() {
+        return this.stalls.get();
+    }
+
+    /**
+     * PUBLIC:
+     * Return the histogram of the times in nanoseconds to allocate values from the database.
+     */
+    public LatencyHistogram getAllocationTimes() {
+        return allocationTimes;
+    }
+
+    public String toString() {
+        return "PreallocationStatistics(" + this.sequenceName + ", allocations=" + getAllocations()
+            + ", background=" + getBackgroundAllocations() + ", stalls=" + getStalls() + ", " + this.allocationTimes + ")";
+    }
+}
@@ -12,6 +12,8 @@
  ******************************************************************************/  
 package org.eclipse.persistence.sequencing;
 
+import java.util.Map;
+
 import org.eclipse.persistence.sessions.Login;
 import org.eclipse.persistence.sessions.server.ConnectionPool;
 
@@ -198,4 +200,35 @@ public interface SequencingControl {
      * @see Sequence
      */
     void initializePreallocated(String seqName);
+
+    /**
+     * PUBLIC:
+     * Return the percentage of a sequence's preallocation size
+     * at or below which its preallocated values are refilled in the background.
+     */
+    int getPreallocationRefillThreshold();
+
+    /**
+     * PUBLIC:
+     * Set the percentage of a sequence's preallocation size at or below which its preallocated values
+     * are refilled in the background, so inserts do not wait for the next values to be allocated.
+     * Background refill is only used by a ServerSession, for sequences allocated using a sequence connection pool,
+     * or sequence objects (native sequencing), as values allocated in the unit of work's transaction cannot be refilled.
+     * Values may be allocated earlier than required, so more values may be unused when the session is logged out.
+     * By default is 0, values are only allocated once none remain.
+     */
+    void setPreallocationRefillThreshold(int percentage);
+
+    /**
+     * PUBLIC:
+     * Return the preallocation statistics of the sequence name,
+     * or null if no values have been requested from the sequence since sequencing was connected.
+     */
+    PreallocationStatistics getPreallocationStatistics(String seqName);
+
+    /**
+     * PUBLIC:
+     * Return the preallocation statistics of all of the sequences values have been requested from.
+     */
+    Map<String, PreallocationStatistics> getPreallocationStatistics();
 }
@@ -22,6 +22,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.TreeMap;
 import java.util.Vector;
 import java.util.regex.PatternSyntaxException;
 
@@ -39,6 +40,7 @@ import org.eclipse.persistence.descriptors.ClassDescriptor;
 import org.eclipse.persistence.internal.databaseaccess.DatabaseAccessor;
 import org.eclipse.persistence.internal.databaseaccess.DatabasePlatform;
 import org.eclipse.persistence.internal.databaseaccess.DatasourcePlatform;
+import org.eclipse.persistence.internal.databaseaccess.FetchSizeTuner;
 import org.eclipse.persistence.internal.helper.ClassConstants;
 import org.eclipse.persistence.internal.helper.Helper;
 import org.eclipse.persistence.internal.identitymaps.CacheIdentityMap;
@@ -50,8 +52,10 @@ import org.eclipse.persistence.internal.identitymaps.NoIdentityMap;
 import org.eclipse.persistence.internal.identitymaps.SoftCacheWeakIdentityMap;
 import org.eclipse.persistence.internal.identitymaps.SoftIdentityMap;
 import org.eclipse.persistence.internal.identitymaps.WeakIdentityMap;
+import org.eclipse.persistence.internal.queries.JPQLPlanCache;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
 import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.internal.sessions.SQLResultCache;
 import org.eclipse.persistence.logging.AbstractSessionLog;
 import org.eclipse.persistence.logging.DefaultSessionLog;
 import org.eclipse.persistence.logging.JavaLog;
@@ -62,6 +66,8 @@ import org.eclipse.persistence.sessions.DefaultConnector;
 import org.eclipse.persistence.sessions.Session;
 import org.eclipse.persistence.sessions.server.ConnectionPool;
 import org.eclipse.persistence.sessions.server.ServerSession;
+import org.eclipse.persistence.tools.profiler.LatencyHistogram;
+import org.eclipse.persistence.tools.profiler.PerformanceMonitor;
 import org.eclipse.persistence.tools.profiler.PerformanceProfiler;
 
 
@@ -163,6 +169,94 @@ public abstract class RuntimeServices {
         return false;
     }
 
+    /**
+     *        This method is used to turn on Performance Monitoring, this records the latency percentiles,
+     * rows read and cache hit ratio of each query, with less overhead than Performance Profiling
+     */
+    public void setShouldMonitorPerformance(boolean shouldMonitor) {
+        if (shouldMonitor && !getShouldMonitorPerformance()) {
+            getSession().setProfiler(new PerformanceMonitor());
+        } else if (!shouldMonitor && getShouldMonitorPerformance()) {
+            getSession().setProfiler(null);
+        }
+    }
+
+    /**
+     *     This method will return if performance monitoring is turned on or not
+     */
+    public boolean getShouldMonitorPerformance() {
+        return getSession().getProfiler() instanceof PerformanceMonitor;
+    }
+
+    /**
+     * Provide an instance of 2 Dimensional Array simulating tabular format information about the latency of
+     * each query executed, if performance monitoring is used.
+     *
+     * The 2 Dimensional array contains each item with values being row object array. Each row object array 
+     * represents a query's monitor name and statistics, times are in nanoseconds:
+     * ["Query Name", "Count", "Mean", "50th Percentile", "99th Percentile", "99.9th Percentile", "Max", "Rows Read", "Cache Hit Ratio"]
+     */
+    public Object[][] getQueryLatencySummary() {
+        if (!getShouldMonitorPerformance()) {
+            return null;
+        }
+        PerformanceMonitor monitor = (PerformanceMonitor)getSession().getProfiler();
+        List<Object[]> rows = new ArrayList<Object[]>();
+        for (String queryName : monitor.getQueryNames()) {
+            LatencyHistogram histogram = monitor.getQueryLatencyHistogram(queryName);
+            if (histogram != null) {
+                rows.add(new Object[] {queryName, histogram.getCount(), histogram.getMean(), histogram.getValueAtPercentile(50),
+                    histogram.getValueAtPercentile(99), histogram.getValueAtPercentile(99.9), histogram.getMax(),
+                    monitor.getRowsRead(queryName), monitor.getCacheHitRatio(queryName)});
+            }
+        }
+        return rows.toArray(new Object[rows.size()][]);
+    }
+
+    /**
+     * Provide an instance of 2 Dimensional Array simulating tabular format information about the latency of
+     * each timed operation, if performance monitoring is used.
+     *
+     * The 2 Dimensional array contains each item with values being row object array. Each row object array 
+     * represents an operation's name and statistics, times are in nanoseconds:
+     * ["Operation Name", "Count", "Mean", "50th Percentile", "99th Percentile", "99.9th Percentile", "Max"]
+     */
+    public Object[][] getOperationLatencySummary() {
+        if (!getShouldMonitorPerformance()) {
+            return null;
+        }
+        PerformanceMonitor monitor = (PerformanceMonitor)getSession().getProfiler();
+        Map<String, LatencyHistogram> histograms = new TreeMap<String, LatencyHistogram>(monitor.getLatencyHistograms());
+        Object[][] rows = new Object[histograms.size()][];
+        int index = 0;
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            rows[index++] = new Object[] {entry.getKey(), histogram.getCount(), histogram.getMean(), histogram.getValueAtPercentile(50),
+                histogram.getValueAtPercentile(99), histogram.getValueAtPercentile(99.9), histogram.getMax()};
+        }
+        return rows;
+    }
+
+    /**
+     *     Method returns the time in nanoseconds at the percentile (0 to 100) of the latency of the operation or query monitor name,
+     * i.e. "Timer:ReadAllQuery:Employee:findAll", if performance monitoring is used
+     */
+    public Long getLatencyPercentile(String operationName, double percentile) {
+        if (!getShouldMonitorPerformance()) {
+            return null;
+        }
+        return Long.valueOf(((PerformanceMonitor)getSession().getProfiler()).getLatencyPercentile(operationName, percentile));
+    }
+
+    /**
+     *     This method clears the statistics recorded by performance monitoring
+     */
+    public void resetPerformanceMonitorStatistics() {
+        if (getShouldMonitorPerformance()) {
+            ((PerformanceMonitor)getSession().getProfiler()).resetStatistics();
+        }
+    }
+
     /**
      *     Method used to set if statements should be cached.  Please note that Statements can not be cached when
      * using an external connection pool
@@ -214,6 +308,278 @@ public abstract class RuntimeServices {
         return ((DatasourcePlatform)getSession().getDatasourcePlatform()).getSequencePreallocationSize();
     }
 
+    /**
+     *        Method returns the maximum number of parsed JPQL queries cached
+     */
+    public int getJPQLParseCacheMaxSize() {
+        return getSession().getProject().getJPQLParseCacheMaxSize();
+    }
+
+    /**
+     * This method provide access for setting the maximum number of parsed JPQL queries cached.
+     * The parse cache is cleared.
+     */
+    public void setJPQLParseCacheMaxSize(int size) {
+        getSession().getProject().setJPQLParseCacheMaxSize(size);
+    }
+
+    /**
+     *        Method returns the number of parsed JPQL queries currently cached
+     */
+    public Integer getJPQLParseCacheSize() {
+        return Integer.valueOf(getSession().getProject().getJPQLParseCache().getCache().size());
+    }
+
+    /**
+     *        Method returns the number of JPQL queries found in the parse cache
+     */
+    public Long getJPQLParseCacheHits() {
+        return Long.valueOf(getSession().getProject().getJPQLParseCache().getHits());
+    }
+
+    /**
+     *        Method returns the number of JPQL queries not found in the parse cache
+     */
+    public Long getJPQLParseCacheMisses() {
+        return Long.valueOf(getSession().getProject().getJPQLParseCache().getMisses());
+    }
+
+    /**
+     *        Method returns the number of parsed JPQL queries removed from the parse cache because it was full
+     */
+    public Long getJPQLParseCacheEvictions() {
+        return Long.valueOf(getSession().getProject().getJPQLParseCache().getEvictions());
+    }
+
+    /**
+     * This method resets the JPQL parse cache hit, miss and eviction counts
+     */
+    public void resetJPQLParseCacheStatistics() {
+        getSession().getProject().getJPQLParseCache().resetStatistics();
+    }
+
+    /**
+     *        Method returns the number of JPQL query plans currently cached in the plan cache shared by all sessions
+     */
+    public Integer getJPQLPlanCacheSize() {
+        return Integer.valueOf(JPQLPlanCache.getSharedCache().getSize());
+    }
+
+    /**
+     *        Method returns the maximum number of JPQL query plans cached in the shared plan cache
+     */
+    public int getJPQLPlanCacheMaxSize() {
+        return JPQLPlanCache.getSharedCache().getMaxSize();
+    }
+
+    /**
+     *        Method returns the number of JPQL queries found in the shared plan cache
+     */
+    public Long getJPQLPlanCacheHits() {
+        return Long.valueOf(JPQLPlanCache.getSharedCache().getHits());
+    }
+
+    /**
+     *        Method returns the number of JPQL queries not found in the shared plan cache
+     */
+    public Long getJPQLPlanCacheMisses() {
+        return Long.valueOf(JPQLPlanCache.getSharedCache().getMisses());
+    }
+
+    /**
+     *        Method returns the number of JPQL query plans removed from the shared plan cache because it was full
+     */
+    public Long getJPQLPlanCacheEvictions() {
+        return Long.valueOf(JPQLPlanCache.getSharedCache().getEvictions());
+    }
+
+    /**
+     *        Method returns the number of JPQL queries parsed by the shared plan cache
+     */
+    public Long getJPQLParseCount() {
+        return Long.valueOf(JPQLPlanCache.getSharedCache().getParseCount());
+    }
+
+    /**
+     *        Method returns the total time in milliseconds spent parsing JPQL queries by the shared plan cache
+     */
+    public Long getJPQLParseTime() {
+        return Long.valueOf(JPQLPlanCache.getSharedCache().getParseTime());
+    }
+
+    /**
+     * This method resets the JPQL plan cache hit, miss, eviction and parse counts
+     */
+    public void resetJPQLPlanCacheStatistics() {
+        JPQLPlanCache.getSharedCache().resetStatistics();
+    }
+
+    /**
+     * This method removes all of the query plans from the shared JPQL plan cache
+     */
+    public void clearJPQLPlanCache() {
+        JPQLPlanCache.getSharedCache().clear();
+    }
+
+    /**
+     *     This method will return if the fetch size of select statements is tuned to the size of their previous results
+     */
+    public boolean getShouldAutoTuneFetchSize() {
+        return getFetchSizeTuner() != null;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the session's fetch size tuner, or null if fetch size auto-tuning is not used.
+     */
+    protected FetchSizeTuner getFetchSizeTuner() {
+        if (getSession().getDatasourcePlatform() instanceof DatabasePlatform) {
+            return ((DatabasePlatform)getSession().getDatasourcePlatform()).getFetchSizeTuner();
+        }
+        return null;
+    }
+
+    /**
+     * Provide an instance of 2 Dimensional Array simulating tabular format information about the fetch size
+     * learned for each select SQL string, if fetch size auto-tuning is used.
+     *
+     * The 2 Dimensional array contains each item with values being row object array. Each row object array 
+     * represents a SQL string's statistics, the row width is the estimated number of bytes of a row:
+     * ["SQL", "Executions", "Average Rows", "Row Width", "Fetch Size"]
+     */
+    public Object[][] getFetchSizeSummary() {
+        FetchSizeTuner tuner = getFetchSizeTuner();
+        if (tuner == null) {
+            return null;
+        }
+        return tuner.getSummary();
+    }
+
+    /**
+     *     Method returns the fetch size learned for the SQL string, 0 if the driver's default is used
+     */
+    public Integer getTunedFetchSize(String sqlString) {
+        FetchSizeTuner tuner = getFetchSizeTuner();
+        if (tuner == null) {
+            return null;
+        }
+        return Integer.valueOf(tuner.getFetchSize(sqlString));
+    }
+
+    /**
+     *     Method returns the maximum number of bytes of estimated row data a tuned fetch can read
+     */
+    public Integer getFetchSizeMemoryBudget() {
+        FetchSizeTuner tuner = getFetchSizeTuner();
+        if (tuner == null) {
+            return null;
+        }
+        return Integer.valueOf(tuner.getMemoryBudget());
+    }
+
+    /**
+     * This method provide access for setting the maximum number of bytes of estimated row data a tuned fetch can read.
+     * The fetch sizes are updated as statements are executed.
+     */
+    public void setFetchSizeMemoryBudget(int memoryBudget) {
+        FetchSizeTuner tuner = getFetchSizeTuner();
+        if (tuner != null) {
+            tuner.setMemoryBudget(memoryBudget);
+        }
+    }
+
+    /**
+     *     This method clears the fetch sizes learned for each select SQL string
+     */
+    public void resetFetchSizeStatistics() {
+        FetchSizeTuner tuner = getFetchSizeTuner();
+        if (tuner != null) {
+            tuner.clear();
+        }
+    }
+
+    /**
+     *     This method will return if the results of data and report queries are cached by SQL string
+     */
+    public boolean getUsesSQLResultCache() {
+        return getSession().getSQLResultCache() != null;
+    }
+
+    /**
+     *        Method returns the number of query results currently in the SQL result cache
+     */
+    public Integer getSQLResultCacheSize() {
+        SQLResultCache resultCache = getSession().getSQLResultCache();
+        if (resultCache == null) {
+            return null;
+        }
+        return Integer.valueOf(resultCache.getResults().getCache().size());
+    }
+
+    /**
+     *        Method returns the number of query results found in the SQL result cache
+     */
+    public Long getSQLResultCacheHits() {
+        SQLResultCache resultCache = getSession().getSQLResultCache();
+        if (resultCache == null) {
+            return null;
+        }
+        return Long.valueOf(resultCache.getResults().getHits());
+    }
+
+    /**
+     *        Method returns the number of query results not found in the SQL result cache
+     */
+    public Long getSQLResultCacheMisses() {
+        SQLResultCache resultCache = getSession().getSQLResultCache();
+        if (resultCache == null) {
+            return null;
+        }
+        return Long.valueOf(resultCache.getResults().getMisses());
+    }
+
+    /**
+     *        Method returns the number of query results removed from the SQL result cache because it was full
+     */
+    public Long getSQLResultCacheEvictions() {
+        SQLResultCache resultCache = getSession().getSQLResultCache();
+        if (resultCache == null) {
+            return null;
+        }
+        return Long.valueOf(resultCache.getResults().getEvictions());
+    }
+
+    /**
+     *        Method returns the number of query results removed from the SQL result cache because a table they read was written
+     */
+    public Long getSQLResultCacheInvalidations() {
+        SQLResultCache resultCache = getSession().getSQLResultCache();
+        if (resultCache == null) {
+            return null;
+        }
+        return Long.valueOf(resultCache.getInvalidatedResults());
+    }
+
+    /**
+     * This method resets the SQL result cache hit, miss, eviction and invalidation counts
+     */
+    public void resetSQLResultCacheStatistics() {
+        SQLResultCache resultCache = getSession().getSQLResultCache();
+        if (resultCache != null) {
+            resultCache.resetStatistics();
+        }
+    }
+
+    /**
+     *     This method removes all query results from the SQL result cache
+     */
+    public void clearSQLResultCache() {
+        SQLResultCache resultCache = getSession().getSQLResultCache();
+        if (resultCache != null) {
+            resultCache.invalidateAll();
+        }
+    }
+
     /**
      *     This method allows the client to set the pool size for a particular pool, based on the pool name
      * @param poolName the name of the pool to be updated.
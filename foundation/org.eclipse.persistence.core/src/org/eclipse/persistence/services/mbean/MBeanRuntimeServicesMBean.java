@@ -55,6 +55,42 @@ public interface MBeanRuntimeServicesMBean {
      */
     public boolean getShouldLogPerformanceProfiler();
 
+    /**
+     *        This method is used to turn on Performance Monitoring, this records the latency percentiles,
+     * rows read and cache hit ratio of each query
+     */
+    public void setShouldMonitorPerformance(boolean shouldMonitor);
+
+    /**
+     *     This method will return if performance monitoring is turned on or not
+     */
+    public boolean getShouldMonitorPerformance();
+
+    /**
+     *     Provide a 2 Dimensional Array of the latency of each query executed, if performance monitoring is used.
+     * Each row contains, times in nanoseconds:
+     * ["Query Name", "Count", "Mean", "50th Percentile", "99th Percentile", "99.9th Percentile", "Max", "Rows Read", "Cache Hit Ratio"]
+     */
+    public Object[][] getQueryLatencySummary();
+
+    /**
+     *     Provide a 2 Dimensional Array of the latency of each timed operation, if performance monitoring is used.
+     * Each row contains, times in nanoseconds:
+     * ["Operation Name", "Count", "Mean", "50th Percentile", "99th Percentile", "99.9th Percentile", "Max"]
+     */
+    public Object[][] getOperationLatencySummary();
+
+    /**
+     *     Method returns the time in nanoseconds at the percentile (0 to 100) of the latency of the operation or query monitor name,
+     * if performance monitoring is used
+     */
+    public Long getLatencyPercentile(String operationName, double percentile);
+
+    /**
+     *     This method clears the statistics recorded by performance monitoring
+     */
+    public void resetPerformanceMonitorStatistics();
+
     /**
      *     Method used to set if statements should be cached.  Please note that Statements can not be cached when
      * using an external connection pool
@@ -86,6 +122,158 @@ public interface MBeanRuntimeServicesMBean {
      */
     public int getSequencePreallocationSize();
 
+    /**
+     *        Method returns the maximum number of parsed JPQL queries cached
+     */
+    public int getJPQLParseCacheMaxSize();
+
+    /**
+     *     This method provides access for setting the maximum number of parsed JPQL queries cached
+     */
+    public void setJPQLParseCacheMaxSize(int size);
+
+    /**
+     *        Method returns the number of parsed JPQL queries currently cached
+     */
+    public Integer getJPQLParseCacheSize();
+
+    /**
+     *        Method returns the number of JPQL queries found in the parse cache
+     */
+    public Long getJPQLParseCacheHits();
+
+    /**
+     *        Method returns the number of JPQL queries not found in the parse cache
+     */
+    public Long getJPQLParseCacheMisses();
+
+    /**
+     *        Method returns the number of parsed JPQL queries removed from the parse cache because it was full
+     */
+    public Long getJPQLParseCacheEvictions();
+
+    /**
+     *     This method resets the JPQL parse cache hit, miss and eviction counts
+     */
+    public void resetJPQLParseCacheStatistics();
+
+    /**
+     *        Method returns the number of JPQL query plans currently cached in the plan cache shared by all sessions
+     */
+    public Integer getJPQLPlanCacheSize();
+
+    /**
+     *        Method returns the maximum number of JPQL query plans cached in the shared plan cache
+     */
+    public int getJPQLPlanCacheMaxSize();
+
+    /**
+     *        Method returns the number of JPQL queries found in the shared plan cache
+     */
+    public Long getJPQLPlanCacheHits();
+
+    /**
+     *        Method returns the number of JPQL queries not found in the shared plan cache
+     */
+    public Long getJPQLPlanCacheMisses();
+
+    /**
+     *        Method returns the number of JPQL query plans removed from the shared plan cache because it was full
+     */
+    public Long getJPQLPlanCacheEvictions();
+
+    /**
+     *        Method returns the number of JPQL queries parsed by the shared plan cache
+     */
+    public Long getJPQLParseCount();
+
+    /**
+     *        Method returns the total time in milliseconds spent parsing JPQL queries by the shared plan cache
+     */
+    public Long getJPQLParseTime();
+
+    /**
+     *     This method resets the JPQL plan cache hit, miss, eviction and parse counts
+     */
+    public void resetJPQLPlanCacheStatistics();
+
+    /**
+     *     This method removes all of the query plans from the shared JPQL plan cache
+     */
+    public void clearJPQLPlanCache();
+
+    /**
+     *     This method will return if the fetch size of select statements is tuned to the size of their previous results
+     */
+    public boolean getShouldAutoTuneFetchSize();
+
+    /**
+     *     Provide a 2 Dimensional Array of the fetch size learned for each select SQL string, if fetch size auto-tuning is used.
+     * Each row contains, the row width in bytes:
+     * ["SQL", "Executions", "Average Rows", "Row Width", "Fetch Size"]
+     */
+    public Object[][] getFetchSizeSummary();
+
+    /**
+     *     Method returns the fetch size learned for the SQL string, 0 if the driver's default is used
+     */
+    public Integer getTunedFetchSize(String sqlString);
+
+    /**
+     *     Method returns the maximum number of bytes of estimated row data a tuned fetch can read
+     */
+    public Integer getFetchSizeMemoryBudget();
+
+    /**
+     *     This method provides access for setting the maximum number of bytes of estimated row data a tuned fetch can read
+     */
+    public void setFetchSizeMemoryBudget(int memoryBudget);
+
+    /**
+     *     This method clears the fetch sizes learned for each select SQL string
+     */
+    public void resetFetchSizeStatistics();
+
+    /**
+     *     This method will return if the results of data and report queries are cached by SQL string
+     */
+    public boolean getUsesSQLResultCache();
+
+    /**
+     *        Method returns the number of query results currently in the SQL result cache
+     */
+    public Integer getSQLResultCacheSize();
+
+    /**
+     *        Method returns the number of query results found in the SQL result cache
+     */
+    public Long getSQLResultCacheHits();
+
+    /**
+     *        Method returns the number of query results not found in the SQL result cache
+     */
+    public Long getSQLResultCacheMisses();
+
+    /**
+     *        Method returns the number of query results removed from the SQL result cache because it was full
+     */
+    public Long getSQLResultCacheEvictions();
+
+    /**
+     *        Method returns the number of query results removed from the SQL result cache because a table they read was written
+     */
+    public Long getSQLResultCacheInvalidations();
+
+    /**
+     * This method resets the SQL result cache hit, miss, eviction and invalidation counts
+     */
+    public void resetSQLResultCacheStatistics();
+
+    /**
+     *     This method removes all query results from the SQL result cache
+     */
+    public void clearSQLResultCache();
+
     /**
      *     This method allows the client to set the pool size for a particular pool, based on the pool name
      */
@@ -97,6 +97,15 @@ public class Project extends CoreProject<ClassDescriptor, Login, DatabaseSession
     /** PERF: Provide an JPQL parse cache to optimize dynamic JPQL. */
     protected transient ConcurrentFixedCache jpqlParseCache;
 
+    /** PERF: Allow the parsed JPQL queries to be shared with other projects with the same descriptors. */
+    protected boolean shouldUseJPQLPlanCache = false;
+
+    /** The names of the named queries parsed in parallel into the shared JPQL plan cache on login. */
+    protected Collection<String> jpqlPlanCacheWarmUpQueries;
+
+    /** The fingerprint of the descriptors, keying the project's plans in the shared JPQL plan cache. */
+    protected transient String jpqlPlanCacheFingerprint;
+
     /** Define the default setting for configuring if dates and calendars are mutable. */
     protected boolean defaultTemporalMutable = false;
     
@@ -182,7 +191,7 @@ public class Project extends CoreProject<ClassDescriptor, Login, DatabaseSession
         this.hasIsolatedClasses = false;
         this.hasGenericHistorySupport = false;
         this.hasProxyIndirection = false;
-        this.jpqlParseCache = new ConcurrentFixedCache(200);
+        this.jpqlParseCache = buildJPQLParseCache(200);
         this.queries = new ArrayList<DatabaseQuery>();
         this.mappedSuperclassDescriptors = new HashMap<String, ClassDescriptor>(2);
         this.metamodelIdClassMap = new HashMap<String, List<String>>();
@@ -280,18 +289,29 @@ public class Project extends CoreProject<ClassDescriptor, Login, DatabaseSession
      */
     public ConcurrentFixedCache getJPQLParseCache() {
         if (jpqlParseCache==null) {
-            jpqlParseCache = new ConcurrentFixedCache(200);
+            jpqlParseCache = buildJPQLParseCache(200);
         }
         return jpqlParseCache;
     }
 
+    /**
+     * INTERNAL:
+     * Build a JPQL parse cache of the max size.
+     * Its hit and miss counts are recorded, they are monitored through RuntimeServices.
+     */
+    protected ConcurrentFixedCache buildJPQLParseCache(int maxSize) {
+        ConcurrentFixedCache cache = new ConcurrentFixedCache(maxSize);
+        cache.setShouldRecordStatistics(true);
+        return cache;
+    }
+
     /**
      * ADVANCED:
      * Set the JPQL parse cache max size.
      * This is used to optimize dynamic JPQL.
      */
     public void setJPQLParseCacheMaxSize(int maxSize) {
-        setJPQLParseCache(new ConcurrentFixedCache(maxSize));
+        setJPQLParseCache(buildJPQLParseCache(maxSize));
     }
 
     /**
@@ -312,6 +332,61 @@ public class Project extends CoreProject<ClassDescriptor, Login, DatabaseSession
         this.jpqlParseCache = jpqlParseCache;
     }
 
+    /**
+     * ADVANCED:
+     * Return if the parsed JPQL queries are shared with other projects with the same descriptors.
+     * @see org.eclipse.persistence.internal.queries.JPQLPlanCache
+     */
+    public boolean shouldUseJPQLPlanCache() {
+        return shouldUseJPQLPlanCache;
+    }
+
+    /**
+     * ADVANCED:
+     * Set if the parsed JPQL queries are shared with other projects with the same descriptors.
+     * The queries are cached in the JPQL plan cache shared by all sessions, so the persistence units
+     * of each tenant, or each deployment of a persistence unit, do not parse the same JPQL again.
+     * @see org.eclipse.persistence.internal.queries.JPQLPlanCache
+     */
+    public void setShouldUseJPQLPlanCache(boolean shouldUseJPQLPlanCache) {
+        this.shouldUseJPQLPlanCache = shouldUseJPQLPlanCache;
+    }
+
+    /**
+     * ADVANCED:
+     * Return the names of the named queries parsed into the shared JPQL plan cache on login.
+     */
+    public Collection<String> getJPQLPlanCacheWarmUpQueries() {
+        return jpqlPlanCacheWarmUpQueries;
+    }
+
+    /**
+     * ADVANCED:
+     * Set the names of the named queries parsed in parallel into the shared JPQL plan cache on login,
+     * "all" parses all of the named JPQL queries.
+     * This reduces the login time of projects with many named queries, as the queries are parsed in parallel
+     * before the session processes them, and the queries of other projects with the same descriptors are not parsed again.
+     */
+    public void setJPQLPlanCacheWarmUpQueries(Collection<String> jpqlPlanCacheWarmUpQueries) {
+        this.jpqlPlanCacheWarmUpQueries = jpqlPlanCacheWarmUpQueries;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the fingerprint of the descriptors, keying the project's plans in the shared JPQL plan cache.
+     */
+    public String getJPQLPlanCacheFingerprint() {
+        return jpqlPlanCacheFingerprint;
+    }
+
+    /**
+     * INTERNAL:
+     * Set the fingerprint of the descriptors, keying the project's plans in the shared JPQL plan cache.
+     */
+    public void setJPQLPlanCacheFingerprint(String jpqlPlanCacheFingerprint) {
+        this.jpqlPlanCacheFingerprint = jpqlPlanCacheFingerprint;
+    }
+
     /**
      * INTERNAL:
      * List of queries that upon initialization are copied over to the session
@@ -33,6 +33,10 @@ public interface SessionProfiler {
     public static final String LoginTime = "Info:LoginTime";
     public static final String RcmStatus = "Info:CacheCoordinationStatus";
     public static final String CacheSize = "Info:CacheSize";//TODO
+    public static final String BatchWriteSize = "Info:BatchWriteSize";
+    public static final String BatchWriteTime = "Info:BatchWriteTime";
+    public static final String BatchWriteAverageSize = "Info:BatchWriteAverageSize";
+    public static final String InitializedDescriptors = "Info:InitializedDescriptors";
     
     public static final String ClientSessionCreated = "Counter:ClientSessionCreates";
     public static final String ClientSessionReleased = "Counter:ClientSessionReleases";
@@ -50,10 +54,17 @@ public interface SessionProfiler {
     public static final String CacheMisses = "Counter:CacheMisses";
     public static final String ChangeSetsProcessed = "Counter:ChangesProcessed";
     public static final String ChangeSetsNotProcessed = "Counter:ChangesNotProcessed";
+    public static final String JpqlParseCacheHits = "Counter:JPQLParseCacheHits";
+    public static final String JpqlParseCacheMisses = "Counter:JPQLParseCacheMisses";
+    public static final String JpqlPlanCacheHits = "Counter:JPQLPlanCacheHits";
+    public static final String JpqlPlanCacheMisses = "Counter:JPQLPlanCacheMisses";
+    public static final String SqlResultCacheHits = "Counter:SQLResultCacheHits";
+    public static final String SqlResultCacheMisses = "Counter:SQLResultCacheMisses";
     
     public static final String DescriptorEvent = "Timer:DescriptorEvents";
     public static final String SessionEvent = "Timer:SessionEvents";
     public static final String QueryPreparation = "Timer:QueryPreparation";
+    public static final String JpqlParse = "Timer:JPQLParse";
     public static final String SqlGeneration = "Timer:SqlGeneration";
     public static final String SqlPrepare = "Timer:SqlPrepare";
     public static final String StatementExecute = "Timer:StatementExecute";
@@ -14,6 +14,7 @@ package org.eclipse.persistence.sessions.coordination;
 
 import org.eclipse.persistence.exceptions.CommunicationException;
 import org.eclipse.persistence.internal.sessions.*;
+import org.eclipse.persistence.sessions.serializers.Serializer;
 
 /**
  * <p>
@@ -39,6 +40,11 @@ public class MergeChangeSetCommand extends Command {
      */
     public UnitOfWorkChangeSet getChangeSet(AbstractSession session) {
         if ((changeSet == null) && (changeSetBytes != null)) {
+            Serializer serializer = getSerializer(session);
+            if (serializer != null) {
+                changeSet = (UnitOfWorkChangeSet)serializer.deserialize(changeSetBytes, session);
+                return changeSet;
+            }
             try {
                 changeSet = new UnitOfWorkChangeSet(changeSetBytes, session);
             } catch (java.io.IOException exception) {
@@ -64,10 +70,37 @@ public class MergeChangeSetCommand extends Command {
      * @return false if converted byte array is null.  Otherwise, return true.
      */
     public boolean convertChangeSetToByteArray(AbstractSession session) throws java.io.IOException {
-        changeSetBytes = changeSet.getByteArrayRepresentation(session);
+        Serializer serializer = getSerializer(session);
+        if (serializer == null) {
+            changeSetBytes = changeSet.getByteArrayRepresentation(session);
+        } else {
+            UnitOfWorkChangeSet sendableChangeSet = changeSet.buildSendableChangeSet();
+            if (sendableChangeSet == null) {
+                changeSetBytes = null;
+            } else {
+                changeSetBytes = serializer.serialize(sendableChangeSet, session);
+            }
+        }
         return changeSetBytes != null;
     }
 
+    /**
+     * INTERNAL:
+     * Return the serializer of the session's remote command manager, or null to use Java serialization.
+     * A unit of work uses its parent's command manager.
+     */
+    protected Serializer getSerializer(AbstractSession session) {
+        AbstractSession commandSession = session;
+        while ((commandSession.getCommandManager() == null) && (commandSession.getParent() != null)) {
+            commandSession = commandSession.getParent();
+        }
+        CommandManager commandManager = commandSession.getCommandManager();
+        if (commandManager instanceof RemoteCommandManager) {
+            return ((RemoteCommandManager)commandManager).getSerializer();
+        }
+        return null;
+    }
+
     /**
      * INTERNAL:
      * This method will be invoked by the RCM only when the CommandProcessor is a
@@ -23,6 +23,7 @@ import org.eclipse.persistence.internal.localization.TraceLocalization;
 import org.eclipse.persistence.internal.sessions.coordination.*;
 import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
 import org.eclipse.persistence.sessions.*;
+import org.eclipse.persistence.sessions.serializers.Serializer;
 import org.eclipse.persistence.platform.server.ServerPlatform;
 import java.net.InetAddress;
 
@@ -85,6 +86,9 @@ public class RemoteCommandManager implements org.eclipse.persistence.sessions.co
     /** Used for converting commands between EclipseLink Command and app command formats */
     protected CommandConverter commandConverter;
 
+    /** Used for serializing the change sets of cache synchronization, if null Java serialization is used */
+    protected Serializer serializer;
+
     /** Determines whether propagation should be synchronous or asynchronous */
     protected boolean isAsynchronous;
 
@@ -325,6 +329,26 @@ public class RemoteCommandManager implements org.eclipse.persistence.sessions.co
         commandConverter = newCommandConverter;
     }
 
+    /**
+     * PUBLIC:
+     * Return the serializer used to serialize the change sets of cache synchronization.
+     */
+    public Serializer getSerializer() {
+        return serializer;
+    }
+
+    /**
+     * PUBLIC:
+     * Set the serializer used to serialize the change sets of cache synchronization.
+     * By default (null) the change sets are serialized using Java serialization.
+     * The BinaryChangeSetSerializer writes a more compact encoding of the change sets.
+     * All of the services in the cluster must use the same serializer.
+     * @see org.eclipse.persistence.sessions.serializers.BinaryChangeSetSerializer
+     */
+    public void setSerializer(Serializer serializer) {
+        this.serializer = serializer;
+    }
+
     /**
      * INTERNAL:
      */
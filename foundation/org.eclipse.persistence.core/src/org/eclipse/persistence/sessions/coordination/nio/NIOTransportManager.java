@@ -0,0 +1,276 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.sessions.coordination.nio;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.persistence.exceptions.RemoteCommandManagerException;
+import org.eclipse.persistence.internal.sessions.coordination.RemoteConnection;
+import org.eclipse.persistence.internal.sessions.coordination.nio.NIOCommandListener;
+import org.eclipse.persistence.internal.sessions.coordination.nio.NIORemoteConnection;
+import org.eclipse.persistence.sessions.coordination.RemoteCommandManager;
+import org.eclipse.persistence.sessions.coordination.ServiceId;
+import org.eclipse.persistence.sessions.coordination.TransportManager;
+
+/**
+ * <p>
+ * <b>Purpose</b>: Provide a transport implementation for the Remote Command Module (RCM) using NIO sockets.
+ * <p>
+ * <b>Description</b>: Services are discovered through the multicast DiscoveryManager, the same as RMI.
+ * Commands are sent over a TCP connection to each service, and received on a non-blocking server socket
+ * serviced by a single selector thread.
+ * All the commands sent to a service within the coalescing window are written to the connection as a single frame,
+ * so under load the number of network writes is bounded by the window, not by the number of commits.
+ * <p>
+ * The URL of the service is of the form "nio://host:port", the port may be the
+ * {@link ServiceId#PORT_TOKEN} to use any free port. If no URL is set the local host address and any free port is used.
+ * <p>
+ * Commands are acknowledged once written to the connection, failures to execute the command on the remote service
+ * are logged by the remote service, the same as JMS.
+ *
+ * @see org.eclipse.persistence.config.CacheCoordinationProtocol#NIO
+ */
+public class NIOTransportManager extends TransportManager {
+
+    public static final String DEFAULT_URL_PROTOCOL = "nio";
+    /** Default coalescing window in milliseconds. */
+    public static final int DEFAULT_COALESCING_WINDOW = 2;
+    /** Default maximum size in bytes of the commands coalesced into a frame. */
+    public static final int DEFAULT_MAX_FRAME_SIZE = 1024 * 1024;
+    /** Default maximum size in bytes of a frame received from a remote service. */
+    public static final int DEFAULT_MAX_RECEIVED_FRAME_SIZE = 64 * 1024 * 1024;
+
+    /** Number of milliseconds commands to a service are coalesced before they are written. */
+    protected int coalescingWindow;
+    /** Once the commands of a frame reach this size, further commands start a new frame. */
+    protected int maxFrameSize;
+    /** Frames received with a larger length are rejected, and their connection closed. */
+    protected int maxReceivedFrameSize;
+    /** Listens for and processes the commands sent to this service. */
+    protected NIOCommandListener listener;
+
+    /** Statistics of the frames and commands written, used to monitor the coalescing. */
+    protected AtomicLong framesSent;
+    protected AtomicLong commandsSent;
+
+    public NIOTransportManager(RemoteCommandManager rcm) {
+        this.rcm = rcm;
+        this.initialize();
+    }
+
+    /**
+     * INTERNAL:
+     * Initialize default properties.
+     */
+    public void initialize() {
+        super.initialize();
+        this.coalescingWindow = DEFAULT_COALESCING_WINDOW;
+        this.maxFrameSize = DEFAULT_MAX_FRAME_SIZE;
+        this.maxReceivedFrameSize = DEFAULT_MAX_RECEIVED_FRAME_SIZE;
+        this.framesSent = new AtomicLong();
+        this.commandsSent = new AtomicLong();
+    }
+
+    /**
+     * INTERNAL:
+     * Create and return a connection to the service.
+     * The connection is opened when the first command is sent.
+     */
+    public RemoteConnection createConnection(ServiceId connectionServiceId) {
+        try {
+            NIORemoteConnection connection = new NIORemoteConnection(this, parseURL(connectionServiceId.getURL()));
+            connection.setServiceId(connectionServiceId);
+            return connection;
+        } catch (Exception exception) {
+            try {
+                rcm.handleException(RemoteCommandManagerException.errorLookingUpRemoteConnection(connectionServiceId.getId(), connectionServiceId.getURL(), exception));
+            } catch (Exception ex2) {
+                // Must catch this exception and log a debug message
+                Object[] args = { connectionServiceId.getURL() };
+                rcm.logDebug("nio_invalid_url", args);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * INTERNAL:
+     * Bind the server socket and start the listener thread.
+     * If the URL is not set, or its port is the port token, the URL is updated to the bound port,
+     * so the announcement of the service contains the actual URL.
+     */
+    public void createLocalConnection() {
+        String url = rcm.getUrl();
+        try {
+            InetSocketAddress address;
+            if (url == null) {
+                address = new InetSocketAddress(0);
+            } else {
+                address = parseURL(url);
+            }
+            this.listener = new NIOCommandListener(rcm, address, this.maxReceivedFrameSize);
+            int port = this.listener.getLocalPort();
+            if (url == null) {
+                rcm.setUrl(DEFAULT_URL_PROTOCOL + "://" + InetAddress.getLocalHost().getHostAddress() + ":" + port);
+            } else if (url.indexOf(ServiceId.PORT_TOKEN) >= 0) {
+                rcm.replaceTransportPortNumber(String.valueOf(port));
+            }
+            Object[] args = { rcm.getUrl() };
+            rcm.logDebug("nio_local_connection_bound", args);
+            this.localConnection = new NIORemoteConnection(this, parseURL(rcm.getUrl()));
+            this.localConnection.setServiceId(rcm.getServiceId());
+            rcm.getServerPlatform().launchContainerRunnable(this.listener);
+        } catch (Exception exception) {
+            if (this.listener != null) {
+                this.listener.stop();
+                this.listener = null;
+            }
+            rcm.handleException(RemoteCommandManagerException.errorBindingConnection(String.valueOf(url), exception));
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Stop the listener thread and close the server socket.
+     */
+    public void removeLocalConnection() {
+        if (this.listener != null) {
+            this.listener.stop();
+            this.listener = null;
+        }
+        if (this.localConnection != null) {
+            this.localConnection.close();
+            this.localConnection = null;
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Return the socket address of the URL, of the form "nio://host:port" or "host:port".
+     * The port token is parsed as 0, any free port.
+     */
+    public InetSocketAddress parseURL(String url) throws IOException {
+        if (url == null) {
+            throw new IOException("null URL");
+        }
+        String address = url;
+        int protocolIndex = address.indexOf("://");
+        if (protocolIndex >= 0) {
+            address = address.substring(protocolIndex + 3);
+        }
+        if (address.endsWith("/")) {
+            address = address.substring(0, address.length() - 1);
+        }
+        int portIndex = address.lastIndexOf(':');
+        if (portIndex <= 0) {
+            throw new IOException("invalid URL: " + url);
+        }
+        String host = address.substring(0, portIndex);
+        String port = address.substring(portIndex + 1);
+        if (port.equals(ServiceId.PORT_TOKEN)) {
+            return new InetSocketAddress(host, 0);
+        }
+        try {
+            return new InetSocketAddress(host, Integer.parseInt(port));
+        } catch (NumberFormatException exception) {
+            throw new IOException("invalid URL: " + url);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Record that a frame containing the number of commands was written.
+     */
+    public void frameSent(int numberOfCommands) {
+        this.framesSent.incrementAndGet();
+        this.commandsSent.addAndGet(numberOfCommands);
+    }
+
+    /**
+     * PUBLIC:
+     * Return the number of frames written to remote services.
+     */
+    public long getFramesSent() {
+        return this.framesSent.get();
+    }
+
+    /**
+     * PUBLIC:
+     * Return the number of commands written to remote services,
+     * this divided by the number of frames is the average number of commands coalesced into a frame.
+     */
+    public long getCommandsSent() {
+        return this.commandsSent.get();
+    }
+
+    /**
+     * PUBLIC:
+     * Return the number of milliseconds commands to a service are coalesced before they are written.
+     */
+    public int getCoalescingWindow() {
+        return coalescingWindow;
+    }
+
+    /**
+     * PUBLIC:
+     * Set the number of milliseconds commands to a service are coalesced before they are written as a single frame.
+     * The first command of a frame waits for the window, so this adds to the propagation latency,
+     * with asynchronous propagation this does not delay the commit.
+     * A window of 0 only coalesces the commands sent concurrently.
+     * The default is 2 milliseconds.
+     */
+    public void setCoalescingWindow(int coalescingWindow) {
+        this.coalescingWindow = coalescingWindow;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the maximum size in bytes of the commands coalesced into a frame.
+     */
+    public int getMaxFrameSize() {
+        return maxFrameSize;
+    }
+
+    /**
+     * PUBLIC:
+     * Set the maximum size in bytes of the commands coalesced into a frame,
+     * once reached further commands are written in a new frame.
+     * The default is 1 megabyte.
+     */
+    public void setMaxFrameSize(int maxFrameSize) {
+        this.maxFrameSize = maxFrameSize;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the maximum size in bytes of a frame received from a remote service.
+     */
+    public int getMaxReceivedFrameSize() {
+        return maxReceivedFrameSize;
+    }
+
+    /**
+     * PUBLIC:
+     * Set the maximum size in bytes of a frame received from a remote service.
+     * The listener allocates the read buffer of a connection from the frame length sent by the remote service,
+     * a frame with a larger length is rejected and its connection closed.
+     * A command larger than the max frame size is written in a frame on its own, so this must be larger than the largest command.
+     * The default is 64 megabytes, it must be set before the local connection is created.
+     */
+    public void setMaxReceivedFrameSize(int maxReceivedFrameSize) {
+        this.maxReceivedFrameSize = maxReceivedFrameSize;
+    }
+}
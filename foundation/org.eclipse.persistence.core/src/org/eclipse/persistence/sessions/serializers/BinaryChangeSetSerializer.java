@@ -0,0 +1,241 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.sessions.serializers;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.eclipse.persistence.exceptions.RemoteCommandManagerException;
+import org.eclipse.persistence.internal.helper.CustomObjectInputStream;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.ChangeSetCodec;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkChangeSet;
+import org.eclipse.persistence.sessions.Session;
+
+/**
+ * <p>
+ * <b>Purpose</b>: Compact binary serialization of the change sets sent by cache coordination.
+ * <p>
+ * <b>Description</b>: A UnitOfWorkChangeSet is written using its descriptors,
+ * classes and attributes are written as indexes instead of names, ids and versions as variable length integers,
+ * and only the new values of the changed attributes are written.
+ * This is typically several times smaller and faster than Java serialization of the change set.
+ * Encodings larger than the compression threshold are compressed.
+ * Any other object is written using Java serialization.
+ * <p>
+ * All of the services in the cluster must use the same serializer and have the same project,
+ * as classes and attributes are identified by their position in the project.
+ * The header of a change set contains a hash of the project's class and attribute names,
+ * a change set written by a service with a different project is rejected instead of being decoded with the wrong names.
+ * <p>
+ * This is set on the RemoteCommandManager,
+ * or using the "eclipselink.cache.coordination.serializer" persistence unit property.
+ *
+ * @see org.eclipse.persistence.sessions.coordination.RemoteCommandManager#setSerializer(Serializer)
+ * @see org.eclipse.persistence.config.PersistenceUnitProperties#COORDINATION_SERIALIZER
+ */
+public class BinaryChangeSetSerializer implements Serializer {
+    /** The first byte of the encoding, to detect a mismatched serializer. */
+    protected static final byte MAGIC = (byte)0xEC;
+    protected static final byte FORMAT_SERIALIZED = 0;
+    protected static final byte FORMAT_CHANGE_SET = 1;
+    protected static final byte FORMAT_COMPRESSED_CHANGE_SET = 2;
+    protected static final int HEADER_SIZE = 2;
+    /** The header of a change set, followed by the hash of the project's class and attribute names. */
+    protected static final int CHANGE_SET_HEADER_SIZE = HEADER_SIZE + 8;
+
+    /** Default size in bytes from which change sets are compressed. */
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 4096;
+
+    protected int compressionThreshold;
+    protected ChangeSetCodec codec;
+
+    public BinaryChangeSetSerializer() {
+        this.compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD;
+        this.codec = new ChangeSetCodec();
+    }
+
+    /**
+     * PUBLIC:
+     * Return the size in bytes from which change sets are compressed.
+     */
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    /**
+     * PUBLIC:
+     * Set the size in bytes from which change sets are compressed, -1 never compresses.
+     * Compression reduces the size of large change sets, the values of which are often similar,
+     * at the cost of the time to compress and decompress them.
+     * The default is 4096 bytes.
+     */
+    public void setCompressionThreshold(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    public byte[] serialize(Object object, Session session) {
+        try {
+            if (!(object instanceof UnitOfWorkChangeSet)) {
+                ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+                byteOut.write(MAGIC);
+                byteOut.write(FORMAT_SERIALIZED);
+                ObjectOutputStream objectOut = new ObjectOutputStream(byteOut);
+                objectOut.writeObject(object);
+                objectOut.close();
+                return byteOut.toByteArray();
+            }
+            byte[] bytes = this.codec.encode((UnitOfWorkChangeSet)object, (AbstractSession)session);
+            long projectHash = this.codec.getProjectHash((AbstractSession)session);
+            if ((this.compressionThreshold >= 0) && (bytes.length >= this.compressionThreshold)) {
+                byte[] compressed = compress(bytes, projectHash);
+                if (compressed != null) {
+                    return compressed;
+                }
+            }
+            byte[] result = new byte[bytes.length + CHANGE_SET_HEADER_SIZE];
+            writeHeader(result, FORMAT_CHANGE_SET, projectHash);
+            System.arraycopy(bytes, 0, result, CHANGE_SET_HEADER_SIZE, bytes.length);
+            return result;
+        } catch (IOException exception) {
+            throw RemoteCommandManagerException.errorSerializeOrDeserialzeCommand(exception);
+        }
+    }
+
+    /**
+     * Write the header of a change set, the format and the hash of the project's class and attribute names.
+     */
+    protected void writeHeader(byte[] bytes, byte format, long projectHash) {
+        bytes[0] = MAGIC;
+        bytes[1] = format;
+        for (int index = 0; index < 8; index++) {
+            bytes[HEADER_SIZE + index] = (byte)(projectHash >>> (56 - (index * 8)));
+        }
+    }
+
+    /**
+     * Check that the change set was written by a service with the same project,
+     * otherwise its class and attribute indexes would be decoded as other classes and attributes.
+     */
+    protected void checkProjectHash(byte[] bytes, Session session) throws IOException {
+        if (bytes.length < CHANGE_SET_HEADER_SIZE) {
+            throw new IOException("invalid change set");
+        }
+        long projectHash = 0;
+        for (int index = 0; index < 8; index++) {
+            projectHash = (projectHash << 8) | (bytes[HEADER_SIZE + index] & 0xFF);
+        }
+        if (projectHash != this.codec.getProjectHash((AbstractSession)session)) {
+            throw new IOException("the change set was written by a service with a different project, the class and attribute names of the projects do not match");
+        }
+    }
+
+    /**
+     * Return the compressed encoding, with the header and uncompressed size,
+     * or null if compressing does not reduce the size.
+     */
+    protected byte[] compress(byte[] bytes, long projectHash) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            byte[] buffer = new byte[bytes.length];
+            int size = CHANGE_SET_HEADER_SIZE + 4;
+            while (!deflater.finished()) {
+                if (size >= buffer.length) {
+                    return null;
+                }
+                size = size + deflater.deflate(buffer, size, buffer.length - size);
+            }
+            writeHeader(buffer, FORMAT_COMPRESSED_CHANGE_SET, projectHash);
+            buffer[CHANGE_SET_HEADER_SIZE] = (byte)(bytes.length >>> 24);
+            buffer[CHANGE_SET_HEADER_SIZE + 1] = (byte)(bytes.length >>> 16);
+            buffer[CHANGE_SET_HEADER_SIZE + 2] = (byte)(bytes.length >>> 8);
+            buffer[CHANGE_SET_HEADER_SIZE + 3] = (byte)bytes.length;
+            byte[] result = new byte[size];
+            System.arraycopy(buffer, 0, result, 0, size);
+            return result;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public Object deserialize(byte[] bytes, Session session) {
+        try {
+            if ((bytes.length < HEADER_SIZE) || (bytes[0] != MAGIC)) {
+                throw new IOException("not written by " + this);
+            }
+            byte format = bytes[1];
+            if (format == FORMAT_SERIALIZED) {
+                ByteArrayInputStream byteIn = new ByteArrayInputStream(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE);
+                ObjectInputStream objectIn;
+                if (session == null) {
+                    objectIn = new ObjectInputStream(byteIn);
+                } else {
+                    objectIn = new CustomObjectInputStream(byteIn, session);
+                }
+                return objectIn.readObject();
+            } else if (format == FORMAT_CHANGE_SET) {
+                checkProjectHash(bytes, session);
+                return this.codec.decode(bytes, CHANGE_SET_HEADER_SIZE, bytes.length - CHANGE_SET_HEADER_SIZE, (AbstractSession)session);
+            } else if (format == FORMAT_COMPRESSED_CHANGE_SET) {
+                checkProjectHash(bytes, session);
+                byte[] uncompressed = decompress(bytes);
+                return this.codec.decode(uncompressed, 0, uncompressed.length, (AbstractSession)session);
+            }
+            throw new IOException("invalid format: " + format);
+        } catch (Exception exception) {
+            throw RemoteCommandManagerException.errorSerializeOrDeserialzeCommand(exception);
+        }
+    }
+
+    protected byte[] decompress(byte[] bytes) throws IOException, DataFormatException {
+        int offset = CHANGE_SET_HEADER_SIZE;
+        if (bytes.length < offset + 4) {
+            throw new IOException("invalid compressed change set");
+        }
+        int length = ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16) | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+        if (length < 0) {
+            throw new IOException("invalid compressed change set");
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, offset + 4, bytes.length - offset - 4);
+            byte[] result = new byte[length];
+            int size = 0;
+            while ((size < length) && !inflater.finished()) {
+                int count = inflater.inflate(result, size, length - size);
+                if ((count == 0) && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("invalid compressed change set");
+                }
+                size = size + count;
+            }
+            if (size != length) {
+                throw new IOException("invalid compressed change set");
+            }
+            return result;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    public String toString() {
+        return getClass().getSimpleName();
+    }
+}
@@ -137,6 +137,7 @@ public class ClientSession extends AbstractSession {
         } else {
             this.descriptors = parent.getDescriptors();
         }
+        this.lazyDescriptorInitializer = parent.getLazyDescriptorInitializer();
         
         incrementProfile(SessionProfiler.ClientSessionCreated);
     }
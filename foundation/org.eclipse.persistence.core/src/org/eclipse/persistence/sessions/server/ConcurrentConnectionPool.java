@@ -0,0 +1,476 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.sessions.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.persistence.exceptions.ConcurrencyException;
+import org.eclipse.persistence.exceptions.DatabaseException;
+import org.eclipse.persistence.internal.databaseaccess.Accessor;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.sessions.Login;
+
+/**
+ * <p>
+ * <b>Purpose</b>: Exclusive connection pool that does not serialize clients through the pool's monitor.
+ * <p>
+ * Available connections are kept on a lock-free stack (the most recently released, "hot" connection is used first),
+ * each thread first tries to re-acquire the connection it last released, and threads that must wait for a connection
+ * are queued in FIFO order on a fair semaphore sized to the maximum number of connections.
+ * Logging and profiling are done outside of any lock.
+ * <p>
+ * The pooling semantics (initial, min, max, wait, fail-over and connection health checking) are the same as
+ * {@link ConnectionPool}. Changes to the maximum number of connections take effect on the next {@link #startUp()}.
+ * <p>
+ * This pool can be configured in JPA through the "eclipselink.connection-pool.concurrent" property.
+ * @see org.eclipse.persistence.config.PersistenceUnitProperties#CONNECTION_POOL_CONCURRENT
+ * @see ConnectionPool
+ */
+public class ConcurrentConnectionPool extends ConnectionPool {
+    /** Top of the stack of available connections. */
+    protected AtomicReference<StackNode> availableConnections;
+    /** All connections built by this pool, used or available. */
+    protected Map<Accessor, PooledConnection> pooledConnections;
+    protected AtomicInteger totalNumberOfConnections;
+    protected AtomicInteger numberOfConnectionsUsed;
+    /**
+     * One permit per connection that can be used, waiting threads are granted permits in FIFO order.
+     * The same permits are used for the life of the pool, so clients waiting during a shutDown are not stranded.
+     */
+    protected Permits permits;
+    /** The number of permits of the pool, the maximum number of connections at the last startUp. */
+    protected int numberOfPermits;
+    /** The connection last released by each thread, tried first to give thread affinity. */
+    protected ThreadLocal<PooledConnection> lastConnection;
+
+    /**
+     * PUBLIC:
+     * Build a new concurrent connection pool.
+     */
+    public ConcurrentConnectionPool() {
+        super();
+    }
+
+    /**
+     * PUBLIC:
+     * Build a new concurrent connection pool.
+     */
+    public ConcurrentConnectionPool(String name, Login login, ServerSession owner) {
+        super(name, login, owner);
+    }
+
+    /**
+     * PUBLIC:
+     * Build a new concurrent connection pool.
+     */
+    public ConcurrentConnectionPool(String name, Login login, int minNumberOfConnections, int maxNumberOfConnections, ServerSession owner) {
+        super(name, login, minNumberOfConnections, maxNumberOfConnections, owner);
+    }
+
+    /**
+     * PUBLIC:
+     * Build a new concurrent connection pool.
+     */
+    public ConcurrentConnectionPool(String name, Login login, int initialNumberOfConnections, int minNumberOfConnections, int maxNumberOfConnections, ServerSession owner) {
+        super(name, login, initialNumberOfConnections, minNumberOfConnections, maxNumberOfConnections, owner);
+    }
+
+    /**
+     * INTERNAL:
+     * Wait until a connection is available and allocate the connection for the client.
+     * Waiting clients are served in the order they started waiting.
+     */
+    public Accessor acquireConnection() throws ConcurrencyException {
+        // Check for dead database and fail-over.
+        if (this.isDead) {
+            return failover();
+        }
+        Semaphore permits = this.permits;
+        // PERF: Avoid queuing if a connection is free, only waiting clients are ordered.
+        if (!permits.tryAcquire()) {
+            try {
+                if (this.waitTimeout > 0) {
+                    // Same as the monitor based pool, the wait is retried after each timeout.
+                    while (!permits.tryAcquire(this.waitTimeout, TimeUnit.MILLISECONDS)) {
+                        if (this.isDead) {
+                            return failover();
+                        }
+                    }
+                } else {
+                    permits.acquire();
+                }
+            } catch (InterruptedException exception) {
+                throw ConcurrencyException.waitFailureOnClientSession(exception);
+            }
+        }
+        PooledConnection pooledConnection = null;
+        try {
+            // First try the connection this thread last used, then the hottest available connection.
+            pooledConnection = this.lastConnection.get();
+            if ((pooledConnection == null) || !pooledConnection.acquire()) {
+                pooledConnection = popAvailableConnection();
+            }
+            // EclipseLink has encountered a problem with a connection where the database no longer responded
+            // We need to now ensure that the failure was specific to that connection or we need to empty
+            // the pool of dead connections in the case of a database failover.
+            while (this.checkConnections && (pooledConnection != null)) {
+                Accessor connection = pooledConnection.accessor;
+                if (this.owner.getLogin().isConnectionHealthValidatedOnError() && this.owner.getServerPlatform().wasFailureCommunicationBased(null, connection, this.owner)) {
+                    removeConnection(pooledConnection);
+                    try {
+                        //connection failed connect test
+                        connection.closeConnection();
+                    } catch (Exception ex){
+                        //ignore
+                    } finally {
+                        connection.releaseCustomizer();
+                    }
+                    //test next connection, if all connections are emptied out let's have the connection pool build more
+                    pooledConnection = popAvailableConnection();
+                    if (pooledConnection == null) {
+                        this.checkConnections = false;
+                    }
+                } else {
+                    //connection was good use it.  And make sure we stop testing connections
+                    this.checkConnections = false;
+                }
+            }
+            if (pooledConnection == null) {
+                // Holding a permit with no available connection means the pool is below its maximum.
+                Accessor connection = buildConnection();
+                pooledConnection = new PooledConnection(connection);
+                this.pooledConnections.put(connection, pooledConnection);
+                this.totalNumberOfConnections.incrementAndGet();
+            }
+        } catch (RuntimeException failed) {
+            if (pooledConnection != null) {
+                // The connection was acquired from the available stack, return it before giving up the permit.
+                pooledConnection.release();
+                pushAvailableConnection(pooledConnection);
+            }
+            permits.release();
+            if (!this.failoverConnectionPools.isEmpty()) {
+                this.isDead = true;
+                this.timeOfDeath = System.currentTimeMillis();
+                this.owner.logThrowable(SessionLog.WARNING, SessionLog.SQL, failed);
+                return acquireConnection();
+            } else {
+                throw failed;
+            }
+        }
+        Accessor connection = pooledConnection.accessor;
+        int used = this.numberOfConnectionsUsed.incrementAndGet();
+        if (this.owner.isInProfile()) {
+            this.owner.updateProfile(MONITOR_HEADER + this.name, Integer.valueOf(used));
+        }
+        if (this.owner.shouldLog(SessionLog.FINEST, SessionLog.CONNECTION)) {
+            Object[] args = new Object[1];
+            args[0] = this.name;
+            this.owner.log(SessionLog.FINEST, SessionLog.CONNECTION, "acquire_connection", args, connection);
+        }
+        return connection;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the connection to the pool and hand its permit to the next waiting client.
+     */
+    public void releaseConnection(Accessor connection) throws DatabaseException {
+        if (this.owner.shouldLog(SessionLog.FINEST, SessionLog.CONNECTION)) {
+            Object[] args = new Object[1];
+            args[0] = this.name;
+            this.owner.log(SessionLog.FINEST, SessionLog.CONNECTION, "release_connection", args, connection);
+        }
+        connection.reset();
+        PooledConnection pooledConnection = this.pooledConnections.get(connection);
+        if (pooledConnection == null) {
+            // The pool was shut down while the connection was in use, its permit is still held.
+            try {
+                connection.disconnect(this.owner);
+            } catch (DatabaseException ex) {
+                // Ignore.
+            } finally {
+                this.permits.release();
+            }
+            return;
+        }
+        int used = this.numberOfConnectionsUsed.decrementAndGet();
+        try {
+            if (!connection.isValid()) {
+                this.checkConnections = true;
+                removeConnection(pooledConnection);
+                try {
+                    connection.disconnect(this.owner);
+                } catch (DatabaseException ex) {
+                    //this is an invalid connection so expect an exception.
+                }
+            } else if (shouldDisconnectReleasedConnection()) {
+                this.pooledConnections.remove(connection);
+                connection.disconnect(this.owner);
+            } else {
+                pooledConnection.release();
+                this.lastConnection.set(pooledConnection);
+                pushAvailableConnection(pooledConnection);
+            }
+        } finally {
+            this.permits.release();
+        }
+        if (this.owner.isInProfile()) {
+            this.owner.updateProfile(MONITOR_HEADER + this.name, Integer.valueOf(used));
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Return if the released connection is beyond the minimum number of connections and should be disconnected.
+     * If so, the connection is removed from the total count.
+     */
+    protected boolean shouldDisconnectReleasedConnection() {
+        while (true) {
+            int total = this.totalNumberOfConnections.get();
+            if (total <= this.minNumberOfConnections) {
+                return false;
+            }
+            if (this.totalNumberOfConnections.compareAndSet(total, total - 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Remove the connection from the pool, it will not be used again.
+     */
+    protected void removeConnection(PooledConnection pooledConnection) {
+        if (this.pooledConnections.remove(pooledConnection.accessor) != null) {
+            this.totalNumberOfConnections.decrementAndGet();
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Pop and acquire the hottest available connection, or return null if none are available.
+     * Connections already acquired through thread affinity are skipped.
+     */
+    protected PooledConnection popAvailableConnection() {
+        while (true) {
+            StackNode top = this.availableConnections.get();
+            if (top == null) {
+                return null;
+            }
+            if (this.availableConnections.compareAndSet(top, top.next)) {
+                PooledConnection pooledConnection = top.connection;
+                // Must be cleared before the acquire, so a concurrent release re-pushes the connection if the acquire fails.
+                pooledConnection.isOnStack.set(false);
+                if (pooledConnection.acquire()) {
+                    return pooledConnection;
+                }
+            }
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Push the released connection on the available stack, unless it is already on it.
+     */
+    protected void pushAvailableConnection(PooledConnection pooledConnection) {
+        if (!pooledConnection.isOnStack.compareAndSet(false, true)) {
+            return;
+        }
+        StackNode node = new StackNode(pooledConnection);
+        while (true) {
+            StackNode top = this.availableConnections.get();
+            node.next = top;
+            if (this.availableConnections.compareAndSet(top, node)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Return a snapshot of the connections currently available for use in the pool.
+     */
+    public List<Accessor> getConnectionsAvailable() {
+        List<Accessor> connections = new ArrayList<Accessor>();
+        for (PooledConnection pooledConnection : this.pooledConnections.values()) {
+            if (pooledConnection.isAvailable.get()) {
+                connections.add(pooledConnection.accessor);
+            }
+        }
+        return connections;
+    }
+
+    /**
+     * Return a snapshot of the connections that are being used.
+     */
+    protected List<Accessor> getConnectionsUsed() {
+        List<Accessor> connections = new ArrayList<Accessor>();
+        for (PooledConnection pooledConnection : this.pooledConnections.values()) {
+            if (!pooledConnection.isAvailable.get()) {
+                connections.add(pooledConnection.accessor);
+            }
+        }
+        return connections;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the total number of connections built by the pool, both used and available.
+     */
+    public int getTotalNumberOfConnections() {
+        return this.totalNumberOfConnections.get();
+    }
+
+    /**
+     * INTERNAL:
+     * Return if a connection is available without waiting.
+     */
+    public boolean hasConnectionAvailable() {
+        return this.availableConnections.get() != null;
+    }
+
+    /**
+     * INTERNAL:
+     * Reset the connections on shutDown and when the pool is started.
+     */
+    public void resetConnections() {
+        super.resetConnections();
+        this.availableConnections = new AtomicReference<StackNode>();
+        this.pooledConnections = new ConcurrentHashMap<Accessor, PooledConnection>();
+        this.totalNumberOfConnections = new AtomicInteger(0);
+        this.numberOfConnectionsUsed = new AtomicInteger(0);
+        if (this.permits == null) {
+            this.permits = new Permits(this.maxNumberOfConnections);
+            this.numberOfPermits = this.maxNumberOfConnections;
+        }
+        this.lastConnection = new ThreadLocal<PooledConnection>();
+    }
+
+    /**
+     * INTERNAL:
+     * Disconnect all connections.
+     */
+    public synchronized void shutDown() {
+        setIsConnected(false);
+        for (PooledConnection pooledConnection : this.pooledConnections.values()) {
+            // Ensure the connection cannot be acquired through thread affinity.
+            pooledConnection.isAvailable.set(false);
+            try {
+                pooledConnection.accessor.disconnect(getOwner());
+            } catch (DatabaseException exception) {
+                // Ignore.
+            }
+        }
+        resetConnections();
+    }
+
+    /**
+     * INTERNAL:
+     * Allocate the initial connections.
+     */
+    public synchronized void startUp() {
+        if (isConnected()) {
+            return;
+        }
+        resizePermits();
+        for (int index = getInitialNumberOfConnections(); index > 0; index--) {
+            Accessor connection = buildConnection();
+            PooledConnection pooledConnection = new PooledConnection(connection);
+            pooledConnection.isAvailable.set(true);
+            this.pooledConnections.put(connection, pooledConnection);
+            this.totalNumberOfConnections.incrementAndGet();
+            pushAvailableConnection(pooledConnection);
+        }
+
+        setIsConnected(true);
+    }
+
+    /**
+     * INTERNAL:
+     * Add or remove permits to match the maximum number of connections.
+     * Permits held by connections in use are returned when the connections are released.
+     */
+    protected void resizePermits() {
+        int difference = this.maxNumberOfConnections - this.numberOfPermits;
+        if (difference > 0) {
+            this.permits.release(difference);
+        } else if (difference < 0) {
+            this.permits.reducePermits(-difference);
+        }
+        this.numberOfPermits = this.maxNumberOfConnections;
+    }
+
+    /**
+     * INTERNAL:
+     * Fair semaphore whose number of permits can be reduced when the maximum number of connections is lowered.
+     */
+    protected static final class Permits extends Semaphore {
+        protected Permits(int permits) {
+            super(permits, true);
+        }
+
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * A connection managed by the pool, it can be acquired by only one thread at a time.
+     */
+    protected static final class PooledConnection {
+        protected final Accessor accessor;
+        protected final AtomicBoolean isAvailable;
+        protected final AtomicBoolean isOnStack;
+
+        protected PooledConnection(Accessor accessor) {
+            this.accessor = accessor;
+            this.isAvailable = new AtomicBoolean(false);
+            this.isOnStack = new AtomicBoolean(false);
+        }
+
+        /**
+         * Return if the connection was available and is now acquired by the current thread.
+         */
+        protected boolean acquire() {
+            return this.isAvailable.compareAndSet(true, false);
+        }
+
+        protected void release() {
+            this.isAvailable.set(true);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Entry of the available connection stack.
+     * A new node is used for each push, so nodes are never reused and the compare-and-set cannot suffer from ABA.
+     */
+    protected static final class StackNode {
+        protected final PooledConnection connection;
+        protected StackNode next;
+
+        protected StackNode(PooledConnection connection) {
+            this.connection = connection;
+        }
+    }
+}
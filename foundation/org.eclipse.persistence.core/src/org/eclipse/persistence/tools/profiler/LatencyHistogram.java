@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.tools.profiler;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p><b>Purpose</b>: Histogram of the latencies of an operation, used by the PerformanceMonitor.
+ * <p>Values are recorded into log-linear buckets, each power of two range is split into 64 buckets,
+ * so a percentile is accurate to within 1/64 (1.6%) of its value, for any value up to about 18 minutes in nanoseconds.
+ * Recording is lock-free, it only increments atomic counters, so it can be used from any thread.
+ * Reading a percentile while values are recorded may not include the latest values.
+ *
+ * @see PerformanceMonitor
+ */
+public class LatencyHistogram implements Serializable {
+    /** Values smaller than this are recorded exactly, larger values are recorded into 64 buckets per power of two. */
+    protected static final int LINEAR_BUCKETS = 128;
+    protected static final int SUB_BUCKETS = 64;
+    protected static final int SUB_BUCKET_BITS = 6;
+    /** Larger values are recorded as the maximum value. */
+    public static final long MAX_VALUE = (1L << 40) - 1;
+
+    protected AtomicLongArray counts;
+    protected AtomicLong count;
+    protected AtomicLong total;
+    protected AtomicLong max;
+
+    /**
+     * PUBLIC:
+     * Create a new empty histogram.
+     */
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(bucketIndex(MAX_VALUE) + 1);
+        this.count = new AtomicLong();
+        this.total = new AtomicLong();
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * Return the index of the bucket for the value.
+     */
+    protected static int bucketIndex(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int)value;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        return (shift * SUB_BUCKETS) + (int)(value >>> shift);
+    }
+
+    /**
+     * Return the largest value recorded in the bucket.
+     */
+    protected static long highestValueInBucket(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int shift = (index / SUB_BUCKETS) - 1;
+        long subBucket = (index % SUB_BUCKETS) + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * PUBLIC:
+     * Record the value, normally a time in nanoseconds.
+     * Negative values are ignored.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            return;
+        }
+        long bucketValue = value;
+        if (bucketValue > MAX_VALUE) {
+            bucketValue = MAX_VALUE;
+        }
+        this.counts.incrementAndGet(bucketIndex(bucketValue));
+        this.count.incrementAndGet();
+        this.total.addAndGet(value);
+        long currentMax = this.max.get();
+        while ((value > currentMax) && !this.max.compareAndSet(currentMax, value)) {
+            currentMax = this.max.get();
+        }
+    }
+
+    /**
+     * PUBLIC:
+     * Return the number of values recorded.
+     */
+    public long getCount() {
+        return this.count.get();
+    }
+
+    /**
+     * PUBLIC:
+     * Return the total of the values recorded.
+     */
+    public long getTotal() {
+        return this.total.get();
+    }
+
+    /**
+     * PUBLIC:
+     * Return the largest value recorded.
+     */
+    public long getMax() {
+        return this.max.get();
+    }
+
+    /**
+     * PUBLIC:
+     * Return the mean of the values recorded, or 0 if none have been recorded.
+     */
+    public long getMean() {
+        long count = this.count.get();
+        if (count == 0) {
+            return 0;
+        }
+        return this.total.get() / count;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the value at the percentile (0 to 100), i.e. 99.9 returns the value that 99.9% of the values are less than or equal to.
+     * The value returned is the largest value of the bucket containing the percentile, but never larger than the maximum value.
+     * Return 0 if no values have been recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = 0;
+        int length = this.counts.length();
+        long[] counts = new long[length];
+        for (int index = 0; index < length; index++) {
+            counts[index] = this.counts.get(index);
+            count = count + counts[index];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        if (percentile > 100) {
+            percentile = 100;
+        }
+        long target = (long)Math.ceil((percentile / 100) * count);
+        if (target < 1) {
+            target = 1;
+        }
+        long max = getMax();
+        long total = 0;
+        for (int index = 0; index < length; index++) {
+            total = total + counts[index];
+            if (total >= target) {
+                // The last bucket also contains the values larger than the maximum value.
+                if (index == (length - 1)) {
+                    return max;
+                }
+                return Math.min(highestValueInBucket(index), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * PUBLIC:
+     * Clear all of the recorded values.
+     */
+    public void reset() {
+        for (int index = 0; index < this.counts.length(); index++) {
+            this.counts.set(index, 0);
+        }
+        this.count.set(0);
+        this.total.set(0);
+        this.max.set(0);
+    }
+
+    public String toString() {
+        return "LatencyHistogram(count=" + getCount() + ", mean=" + getMean() + ", 50%=" + getValueAtPercentile(50)
+            + ", 99%=" + getValueAtPercentile(99) + ", 99.9%=" + getValueAtPercentile(99.9) + ", max=" + getMax() + ")";
+    }
+}
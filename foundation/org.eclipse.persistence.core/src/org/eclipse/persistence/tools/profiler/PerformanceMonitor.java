@@ -15,6 +15,7 @@ package org.eclipse.persistence.tools.profiler;
 import java.text.NumberFormat;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.io.*;
 
 import org.eclipse.persistence.queries.*;
@@ -25,6 +26,11 @@ import org.eclipse.persistence.internal.sessions.AbstractSession;
 
 /**
  * <p><b>Purpose</b>: A tool used to provide performance monitoring information in a server environment.
+ * <p>The total time and count of each operation and query are recorded,
+ * as well as a latency histogram for each timed operation, giving the 50th, 99th and 99.9th percentile times,
+ * the number of rows read by each query, and each query's cache hit ratio.
+ * The results can be accessed through the monitor's API, or the RuntimeServices MBean, and are logged periodically.
+ * Recording is lock-free, so the monitor can be used in production.
  *
  * @since EclipseLink 2.2
  * @author James Sutherland
@@ -32,9 +38,16 @@ import org.eclipse.persistence.internal.sessions.AbstractSession;
 public class PerformanceMonitor implements Serializable, Cloneable, SessionProfiler {
     protected static final String COUNTER = "Counter:";
     protected static final String TIMER = "Timer:";
+    protected static final String ROWS_READ = "RowsRead";
+    protected static final String CACHE_HITS = ":CacheHits";
+    protected static final String CACHE_MISSES = ":CacheMisses";
     
     transient protected AbstractSession session;
     protected Map<String, Object> operationTimings;
+    /** Latency histogram of each timed operation, keyed by the same name as the operation's timing. */
+    protected Map<String, LatencyHistogram> latencyHistograms;
+    /** The monitor names of the queries that have been executed. */
+    protected Map<String, String> queryNames;
     protected Map<Integer, Map<String, Long>> operationStartTimesByThread;//facilitates concurrency
     protected long lastDumpTime;
     protected long dumpTime;
@@ -47,6 +60,8 @@ public class PerformanceMonitor implements Serializable, Cloneable, SessionProfi
      */
     public PerformanceMonitor() {
         this.operationTimings = new ConcurrentHashMap();
+        this.latencyHistograms = new ConcurrentHashMap();
+        this.queryNames = new ConcurrentHashMap();
         this.operationStartTimesByThread = new ConcurrentHashMap();
         this.lastDumpTime = System.currentTimeMillis();
         this.dumpTime = 60000; // 1 minute
@@ -109,6 +124,25 @@ public class PerformanceMonitor implements Serializable, Cloneable, SessionProfi
             }
             writer.write("\n");
         }
+        writer.write("\nOperation\tCount\tMean (ns)\t50% (ns)\t99% (ns)\t99.9% (ns)\tMax (ns)\n");
+        Set<String> timedOperations = new TreeSet<String>(this.latencyHistograms.keySet());
+        for (String operation : timedOperations) {
+            LatencyHistogram histogram = this.latencyHistograms.get(operation);
+            writer.write(operation);
+            writer.write("\t");
+            writer.write(formater.format(histogram.getCount()));
+            writer.write("\t");
+            writer.write(formater.format(histogram.getMean()));
+            writer.write("\t");
+            writer.write(formater.format(histogram.getValueAtPercentile(50)));
+            writer.write("\t");
+            writer.write(formater.format(histogram.getValueAtPercentile(99)));
+            writer.write("\t");
+            writer.write(formater.format(histogram.getValueAtPercentile(99.9)));
+            writer.write("\t");
+            writer.write(formater.format(histogram.getMax()));
+            writer.write("\n");
+        }
         try {
             this.session.getLog().write(writer.toString());
             this.session.getLog().flush();
@@ -131,17 +165,45 @@ public class PerformanceMonitor implements Serializable, Cloneable, SessionProfi
             return;
         }
         long time = endTime - startTime.longValue();
+        increment(operationName, time);
+        getLatencyHistogramForRecording(operationName).record(time);
+    }
 
-        synchronized (this.operationTimings) {
-            Long totalTime = (Long)this.operationTimings.get(operationName);
-            if (totalTime == null) {
-                this.operationTimings.put(operationName, Long.valueOf(time));
-            } else {
-                this.operationTimings.put(operationName, Long.valueOf(totalTime.longValue() + time));
+    /**
+     * INTERNAL:
+     * Add the value to the operation's total.
+     * This is lock-free, the total is replaced if it has not changed, otherwise the add is retried.
+     */
+    protected void increment(String operationName, long value) {
+        ConcurrentMap<String, Object> operationTimings = (ConcurrentMap<String, Object>)this.operationTimings;
+        while (true) {
+            Long total = (Long)operationTimings.get(operationName);
+            if (total == null) {
+                if (operationTimings.putIfAbsent(operationName, Long.valueOf(value)) == null) {
+                    return;
+                }
+            } else if (operationTimings.replace(operationName, total, Long.valueOf(total.longValue() + value))) {
+                return;
             }
         }
     }
 
+    /**
+     * INTERNAL:
+     * Return the operation's latency histogram, creating it if required.
+     */
+    protected LatencyHistogram getLatencyHistogramForRecording(String operationName) {
+        LatencyHistogram histogram = this.latencyHistograms.get(operationName);
+        if (histogram == null) {
+            histogram = new LatencyHistogram();
+            LatencyHistogram existing = ((ConcurrentMap<String, LatencyHistogram>)this.latencyHistograms).putIfAbsent(operationName, histogram);
+            if (existing != null) {
+                histogram = existing;
+            }
+        }
+        return histogram;
+    }
+
     /**
      * INTERNAL:
      * End the operation timing.
@@ -182,6 +244,97 @@ public class PerformanceMonitor implements Serializable, Cloneable, SessionProfi
         return session;
     }
 
+    /**
+     * PUBLIC:
+     * Return the latency histogram of the timed operation, or null if the operation has not been timed.
+     * Operations are named the same as their timing, i.e. "Timer:ReadAllQuery" or "Timer:RowFetch",
+     * a query is named "Timer:" followed by its monitor name, i.e. "Timer:ReadAllQuery:Employee:findAll",
+     * and an operation of a query is named "Timer:" followed by its monitor name and operation, i.e. "Timer:ReadAllQuery:Employee:findAll:RowFetch".
+     * @see DatabaseQuery#getMonitorName()
+     */
+    public LatencyHistogram getLatencyHistogram(String operationName) {
+        return this.latencyHistograms.get(operationName);
+    }
+
+    /**
+     * PUBLIC:
+     * Return the latency histograms of all timed operations, keyed by operation name.
+     */
+    public Map<String, LatencyHistogram> getLatencyHistograms() {
+        return latencyHistograms;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the time in nanoseconds at the percentile (0 to 100) of the operation's latency, or 0 if the operation has not been timed.
+     * @see #getLatencyHistogram(String)
+     */
+    public long getLatencyPercentile(String operationName, double percentile) {
+        LatencyHistogram histogram = this.latencyHistograms.get(operationName);
+        if (histogram == null) {
+            return 0;
+        }
+        return histogram.getValueAtPercentile(percentile);
+    }
+
+    /**
+     * PUBLIC:
+     * Return the monitor names of all of the queries that have been executed.
+     * @see DatabaseQuery#getMonitorName()
+     */
+    public Set<String> getQueryNames() {
+        return new TreeSet<String>(this.queryNames.keySet());
+    }
+
+    /**
+     * PUBLIC:
+     * Return the latency histogram of the query with the monitor name, or null if the query has not been executed.
+     * @see DatabaseQuery#getMonitorName()
+     */
+    public LatencyHistogram getQueryLatencyHistogram(String queryName) {
+        return this.latencyHistograms.get(TIMER + queryName);
+    }
+
+    /**
+     * PUBLIC:
+     * Return the total number of rows (or objects) returned by the read query with the monitor name.
+     * @see DatabaseQuery#getMonitorName()
+     */
+    public long getRowsRead(String queryName) {
+        Long rows = (Long)this.operationTimings.get(COUNTER + queryName + ":" + ROWS_READ);
+        if (rows == null) {
+            return 0;
+        }
+        return rows.longValue();
+    }
+
+    /**
+     * PUBLIC:
+     * Return the ratio (0 to 1) of the executions of the query with the monitor name that were answered from the cache,
+     * of the executions that checked the cache, or 0 if the query has not checked the cache.
+     * @see DatabaseQuery#getMonitorName()
+     */
+    public double getCacheHitRatio(String queryName) {
+        Long hits = (Long)this.operationTimings.get(COUNTER + queryName + CACHE_HITS);
+        Long misses = (Long)this.operationTimings.get(COUNTER + queryName + CACHE_MISSES);
+        long hitCount = (hits == null) ? 0 : hits.longValue();
+        long total = hitCount + ((misses == null) ? 0 : misses.longValue());
+        if (total == 0) {
+            return 0;
+        }
+        return (double)hitCount / total;
+    }
+
+    /**
+     * PUBLIC:
+     * Clear all of the recorded timings, counts and latencies.
+     */
+    public void resetStatistics() {
+        this.operationTimings.clear();
+        this.latencyHistograms.clear();
+        this.queryNames.clear();
+    }
+
     /**
      * INTERNAL:
      * Monitoring is done on the endOperation only.
@@ -190,12 +343,28 @@ public class PerformanceMonitor implements Serializable, Cloneable, SessionProfi
         if (this.profileWeight < SessionProfiler.HEAVY) {
             return session.internalExecuteQuery(query, (AbstractRecord)row);
         }
-        startOperationProfile(TIMER + query.getMonitorName());
+        String queryName = query.getMonitorName();
+        if (!this.queryNames.containsKey(queryName)) {
+            this.queryNames.put(queryName, queryName);
+        }
+        startOperationProfile(TIMER + queryName);
         startOperationProfile(TIMER + query.getClass().getSimpleName());
         occurred(COUNTER + query.getClass().getSimpleName(), session);
-        occurred(COUNTER + query.getMonitorName(), session);
+        occurred(COUNTER + queryName, session);
         try {
-            return session.internalExecuteQuery(query, (AbstractRecord)row);
+            Object result = session.internalExecuteQuery(query, (AbstractRecord)row);
+            if (query.isReadQuery()) {
+                long rows = 0;
+                if (result instanceof Collection) {
+                    rows = ((Collection)result).size();
+                } else if (result instanceof Map) {
+                    rows = ((Map)result).size();
+                } else if ((result != null) && !(result instanceof Cursor)) {
+                    rows = 1;
+                }
+                increment(COUNTER + queryName + ":" + ROWS_READ, rows);
+            }
+            return result;
         } finally {
             endOperationProfile(TIMER + query.getMonitorName());
             endOperationProfile(TIMER + query.getClass().getSimpleName());
@@ -237,14 +406,7 @@ public class PerformanceMonitor implements Serializable, Cloneable, SessionProfi
         if (this.profileWeight < SessionProfiler.NORMAL) {
             return;
         }
-        synchronized (this.operationTimings) {
-            Long occurred = (Long)this.operationTimings.get(operationName);
-            if (occurred == null) {
-                this.operationTimings.put(operationName, Long.valueOf(1));
-            } else {
-                this.operationTimings.put(operationName, Long.valueOf(occurred.longValue() + 1));
-            }
-        }
+        increment(operationName, 1);
     }
 
     public void occurred(String operationName, DatabaseQuery query, AbstractSession session) {
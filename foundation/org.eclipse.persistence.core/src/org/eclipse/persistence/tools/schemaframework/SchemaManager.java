@@ -1009,6 +1009,10 @@ public class SchemaManager {
      */
     protected TableCreator getDefaultTableCreator(boolean generateFKConstraints) {
         if(defaultTableCreator == null) {
+            // The tables are generated from the initialized descriptors.
+            if (session.getLazyDescriptorInitializer() != null) {
+                session.getLazyDescriptorInitializer().initializeAll();
+            }
             defaultTableCreator = new DefaultTableGenerator(session.getProject(),generateFKConstraints).generateDefaultTableCreator();
             defaultTableCreator.setIgnoreDatabaseException(true);
         }
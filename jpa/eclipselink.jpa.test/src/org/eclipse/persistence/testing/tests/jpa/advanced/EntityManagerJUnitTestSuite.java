@@ -149,7 +149,9 @@ import org.eclipse.persistence.internal.descriptors.PersistenceEntity;
 import org.eclipse.persistence.internal.expressions.QueryKeyExpression;
 import org.eclipse.persistence.internal.jpa.EntityManagerImpl;
 import org.eclipse.persistence.internal.jpa.jdbc.DataSourceImpl;
+import org.eclipse.persistence.internal.queries.JPQLPlanCache;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.LazyDescriptorInitializer;
 import org.eclipse.persistence.internal.sessions.RepeatableWriteUnitOfWork;
 import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
 import org.eclipse.persistence.internal.weaving.PersistenceWeaved;
@@ -255,6 +257,8 @@ public class EntityManagerJUnitTestSuite extends JUnitTestCase {
         tests.add("testBatchQueryHint");
         tests.add("testQueryHints");
         tests.add("testParallelMultipleFactories");
+        tests.add("testLazyDescriptorInitializationMetamodel");
+        tests.add("testJPQLPlanCacheWarmUp");
         tests.add("testMultipleFactories");
         tests.add("testPersistenceProperties");
         tests.add("testBeginTransactionCloseCommitTransaction");
@@ -5340,6 +5344,91 @@ public class EntityManagerJUnitTestSuite extends JUnitTestCase {
         }
     }
     
+    /**
+     * Test that the metamodel of a factory with lazily initialized descriptors is built from all of the descriptors.
+     */
+    public void testLazyDescriptorInitializationMetamodel() {
+        if (isOnServer()) {
+            // Cannot connect locally on server.
+            return;
+        }
+        Map properties = new HashMap(JUnitTestCaseHelper.getDatabaseProperties());
+        properties.put(PersistenceUnitProperties.SESSION_NAME, "lazy-descriptor-initialization");
+        properties.put(PersistenceUnitProperties.LAZY_DESCRIPTOR_INITIALIZATION, "true");
+        // Generating DDL would initialize all descriptors at login.
+        properties.put(PersistenceUnitProperties.DDL_GENERATION, PersistenceUnitProperties.NONE);
+        EntityManagerFactory factory = Persistence.createEntityManagerFactory(getPersistenceUnitName(), properties);
+        try {
+            factory.createEntityManager().close();
+            AbstractSession session = JpaHelper.getEntityManagerFactory(factory).getDatabaseSession();
+            LazyDescriptorInitializer initializer = session.getLazyDescriptorInitializer();
+            if (initializer == null) {
+                fail("The descriptors were not initialized lazily.");
+            }
+            if (initializer.getPendingCount() == 0) {
+                fail("All descriptors were initialized at login.");
+            }
+            ClassDescriptor descriptor = session.getProject().getDescriptors().get(Employee.class);
+            if (factory.getMetamodel().entity(Employee.class) == null) {
+                fail("The metamodel does not contain the employee entity.");
+            }
+            if (initializer.getPendingCount() != 0) {
+                fail("Building the metamodel did not initialize all descriptors, pending: " + initializer.getPendingCount());
+            }
+            if (!descriptor.isFullyInitialized()) {
+                fail("The employee descriptor was not initialized for the metamodel.");
+            }
+        } finally {
+            factory.close();
+        }
+    }
+
+    /**
+     * Test that the named queries are parsed into the JPQL plan cache at login, and their plans are removed on close.
+     */
+    public void testJPQLPlanCacheWarmUp() {
+        if (isOnServer()) {
+            // Cannot connect locally on server.
+            return;
+        }
+        JPQLPlanCache previousCache = JPQLPlanCache.getSharedCache();
+        JPQLPlanCache cache = new JPQLPlanCache(JPQLPlanCache.DEFAULT_MAX_SIZE);
+        JPQLPlanCache.setSharedCache(cache);
+        Map properties = new HashMap(JUnitTestCaseHelper.getDatabaseProperties());
+        properties.put(PersistenceUnitProperties.SESSION_NAME, "jpql-plan-cache-warm-up");
+        properties.put(PersistenceUnitProperties.JPQL_PLAN_CACHE, "true");
+        properties.put(PersistenceUnitProperties.JPQL_PLAN_CACHE_WARM_UP, JPQLPlanCache.ALL_QUERIES);
+        EntityManagerFactory factory = Persistence.createEntityManagerFactory(getPersistenceUnitName(), properties);
+        try {
+            factory.createEntityManager().close();
+            if (cache.getSize() == 0) {
+                fail("The named queries were not parsed at login.");
+            }
+            AbstractSession session = JpaHelper.getEntityManagerFactory(factory).getDatabaseSession();
+            // The plans of the named queries are used, queries with hints that are not cached are parsed again.
+            long hits = cache.getHits();
+            for (List<DatabaseQuery> queries : session.getQueries().values()) {
+                for (DatabaseQuery query : queries) {
+                    if (query.getJPQLString() != null) {
+                        cache.buildQuery(query.getJPQLString(), session);
+                    }
+                }
+            }
+            if (cache.getHits() == hits) {
+                fail("The named queries were not parsed by the warm-up.");
+            }
+            factory.close();
+            if (cache.getSize() != 0) {
+                fail("The plans were not removed when the factory was closed, plans: " + cache.getSize());
+            }
+        } finally {
+            if (factory.isOpen()) {
+                factory.close();
+            }
+            JPQLPlanCache.setSharedCache(previousCache);
+        }
+    }
+
     public void testQueryHints() {
         EntityManager em = (EntityManager)getEntityManagerFactory().createEntityManager().getDelegate();
         Query query = em.createQuery("SELECT OBJECT(e) FROM Employee e WHERE e.firstName = 'testQueryHints'");
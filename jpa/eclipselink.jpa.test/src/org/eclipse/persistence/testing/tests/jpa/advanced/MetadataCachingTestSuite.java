@@ -25,6 +25,7 @@ import javax.persistence.EntityManager;
 import org.eclipse.persistence.config.PersistenceUnitProperties;
 import org.eclipse.persistence.jpa.JpaHelper;
 import org.eclipse.persistence.jpa.metadata.FileBasedProjectCache;
+import org.eclipse.persistence.jpa.metadata.MappedFileProjectCache;
 import org.eclipse.persistence.logging.SessionLog;
 import org.eclipse.persistence.sessions.Project;
 import org.eclipse.persistence.sessions.Session;
@@ -41,6 +42,7 @@ import org.eclipse.persistence.testing.framework.junit.JUnitTestCase;
 public class MetadataCachingTestSuite extends JUnitTestCase {
     
     String fileName = "MetadataCachingTestProject.file";
+    String mappedFileName = "MetadataCachingTestProject.mapped";
 
     public MetadataCachingTestSuite() {
         super();
@@ -54,6 +56,7 @@ public class MetadataCachingTestSuite extends JUnitTestCase {
         TestSuite suite = new TestSuite();
         suite.setName("MetadataCachingTestSuite");
         suite.addTest(new MetadataCachingTestSuite("testProjectCacheALLWithDefaultPU"));
+        suite.addTest(new MetadataCachingTestSuite("testMappedFileProjectCacheWithDefaultPU"));
         return suite;
     }
     
@@ -68,6 +71,14 @@ public class MetadataCachingTestSuite extends JUnitTestCase {
         return properties;
     }
     
+    public Map getMappedFileProperties() {
+        Map properties = getProperties();
+        properties.put(PersistenceUnitProperties.PROJECT_CACHE, "memory-mapped");
+        properties.put(PersistenceUnitProperties.PROJECT_CACHE_MAPPED_FILE, mappedFileName);
+        properties.put(PersistenceUnitProperties.METADATA_LOADING_THREADS, "4");
+        return properties;
+    }
+    
     public void testSetup() {
         boolean exists = false;
         File file = new File(fileName);
@@ -131,6 +142,43 @@ public class MetadataCachingTestSuite extends JUnitTestCase {
         testFileBasedProjectCacheLoading("default");
     }
 
+    /* Test the memory-mapped project cache is written, read and used to deploy the default persistence unit */
+    public void testMappedFileProjectCacheWithDefaultPU() {
+        File file = new File(mappedFileName);
+        if (file.exists() && !file.delete()) {
+            fail("the file exists and could not be removed.  file: " + mappedFileName);
+        }
+        EntityManager em = createEntityManager("default");
+        beginTransaction(em);
+        try {
+            JpaHelper.getEntityManagerFactory(em).refreshMetadata(getMappedFileProperties());
+        } finally {
+            commitTransaction(em);
+            closeEntityManager(em);
+        }
+        if (!file.exists()) {
+            fail("the project cache file was not created on deployment using PROJECT_CACHE 'memory-mapped'");
+        }
+
+        Session session = getServerSession("default");
+        Project project = new MappedFileProjectCache().retrieveProject(getMappedFileProperties(), session.getDatasourcePlatform().getConversionManager().getLoader(), session.getSessionLog());
+        if (project == null) {
+            fail("Project returned from MappedFileProjectCache.retrieveProject() was null");
+        }
+        if (project.getOrderedDescriptors().isEmpty()) {
+            fail("Project returned from MappedFileProjectCache.retrieveProject() has no descriptors");
+        }
+
+        em = createEntityManager("default");
+        beginTransaction(em);
+        try {
+            JpaHelper.getEntityManagerFactory(em).refreshMetadata(getMappedFileProperties());
+        } finally {
+            commitTransaction(em);
+            closeEntityManager(em);
+        }
+    }
+
     /* Test project cache in runtime on JEE with default persistence unit*/
     public void testProjectCacheWithDefaultPU(){
         testFileBasedProjectCacheLoading("default"); 
@@ -44,13 +44,17 @@ import org.eclipse.persistence.descriptors.invalidation.DailyCacheInvalidationPo
 import org.eclipse.persistence.descriptors.invalidation.TimeToLiveCacheInvalidationPolicy;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
 import org.eclipse.persistence.jpa.JpaQuery;
+import org.eclipse.persistence.jpa.JpaResultStream;
 import org.eclipse.persistence.queries.Cursor;
 import org.eclipse.persistence.queries.ReadQuery;
 import org.eclipse.persistence.queries.ScrollableCursor;
 import org.eclipse.persistence.sessions.DatabaseSession;
+import org.eclipse.persistence.sessions.SessionProfiler;
 import org.eclipse.persistence.sessions.server.ServerSession;
 
 import org.eclipse.persistence.testing.framework.junit.JUnitTestCase;
+import org.eclipse.persistence.tools.profiler.LatencyHistogram;
+import org.eclipse.persistence.tools.profiler.PerformanceMonitor;
 import org.eclipse.persistence.testing.framework.QuerySQLTracker;
 import org.eclipse.persistence.testing.models.jpa.inheritance.Engineer;
 import org.eclipse.persistence.testing.models.jpa.inheritance.InheritancePopulator;
@@ -122,6 +126,8 @@ public class AdvancedQueryTestSuite extends JUnitTestCase {
         suite.addTest(new AdvancedQueryTestSuite("testObjectResultType"));
         suite.addTest(new AdvancedQueryTestSuite("testNativeResultType"));
         suite.addTest(new AdvancedQueryTestSuite("testCursors"));
+        suite.addTest(new AdvancedQueryTestSuite("testResultStream"));
+        suite.addTest(new AdvancedQueryTestSuite("testPerformanceMonitorLatency"));
         suite.addTest(new AdvancedQueryTestSuite("testFetchGroups"));
         suite.addTest(new AdvancedQueryTestSuite("testMultipleNamedJoinFetchs"));
         suite.addTest(new AdvancedQueryTestSuite("testNativeQueryTransactions"));
@@ -421,6 +427,102 @@ public class AdvancedQueryTestSuite extends JUnitTestCase {
         }
     }
 
+    /**
+     * Test streaming query results.
+     */
+    public void testResultStream() {
+        EntityManager em = createEntityManager();
+        beginTransaction(em);
+        try {
+            JpaQuery<Employee> jpaQuery = (JpaQuery<Employee>)((EntityManager)em.getDelegate()).createQuery("Select employee from Employee employee", Employee.class);
+            int size = jpaQuery.getResultList().size();
+            em.clear();
+            jpaQuery = (JpaQuery<Employee>)((EntityManager)em.getDelegate()).createQuery("Select employee from Employee employee", Employee.class);
+            jpaQuery.setHint(QueryHints.JDBC_FETCH_SIZE, 2);
+            JpaResultStream<Employee> stream = jpaQuery.streamResults();
+            if (stream.getWindowSize() != 2) {
+                fail("Window size should be the fetch size: " + stream.getWindowSize());
+            }
+            List<Employee> results = new ArrayList<Employee>();
+            while (stream.hasNext()) {
+                results.add(stream.next());
+            }
+            if (results.size() != size) {
+                fail("Stream returned " + results.size() + " results, expected " + size);
+            }
+            // Only the last window of results should still be managed.
+            int managed = 0;
+            for (Employee employee : results) {
+                if (em.contains(employee)) {
+                    managed++;
+                }
+            }
+            if ((size > 2) && (managed != 2)) {
+                fail("Only the last window of results should be managed: " + managed);
+            }
+            stream.close();
+            
+            // Test closing before the end of the results.
+            jpaQuery = (JpaQuery<Employee>)((EntityManager)em.getDelegate()).createQuery("Select employee from Employee employee", Employee.class);
+            stream = jpaQuery.streamResults();
+            stream.next();
+            stream.close();
+            if (stream.hasNext()) {
+                fail("Closed stream should not have more results.");
+            }
+            // The query should still return a list.
+            jpaQuery.getResultList();
+        } finally {
+            rollbackTransaction(em);
+            closeEntityManager(em);
+        }
+    }
+
+    /**
+     * Test the latency histograms, rows read and cache hit ratio of the performance monitor.
+     */
+    public void testPerformanceMonitorLatency() {
+        ServerSession session = getServerSession();
+        SessionProfiler profiler = session.getProfiler();
+        PerformanceMonitor monitor = new PerformanceMonitor();
+        session.setProfiler(monitor);
+        EntityManager em = createEntityManager();
+        try {
+            int size = 0;
+            for (int index = 0; index < 10; index++) {
+                size = em.createQuery("Select employee from Employee employee").getResultList().size();
+            }
+            boolean found = false;
+            for (String queryName : monitor.getQueryNames()) {
+                if (queryName.startsWith("ReadAllQuery") && (monitor.getRowsRead(queryName) == (size * 10))) {
+                    found = true;
+                    LatencyHistogram histogram = monitor.getQueryLatencyHistogram(queryName);
+                    if (histogram.getCount() != 10) {
+                        fail("Query latency count should be 10: " + histogram);
+                    }
+                    long median = histogram.getValueAtPercentile(50);
+                    long tail = histogram.getValueAtPercentile(99.9);
+                    if ((median <= 0) || (median > tail) || (tail > histogram.getMax())) {
+                        fail("Invalid query latency percentiles: " + histogram);
+                    }
+                    if (monitor.getLatencyPercentile("Timer:" + queryName, 50) != median) {
+                        fail("Latency percentile should be the query's latency percentile.");
+                    }
+                }
+            }
+            if (!found) {
+                fail("Query latency was not recorded: " + monitor.getQueryNames());
+            }
+            monitor.resetStatistics();
+            if (!monitor.getLatencyHistograms().isEmpty()) {
+                fail("Latency histograms should be cleared.");
+            }
+        } finally {
+            closeEntityManager(em);
+            session.setProfiler(profiler);
+        }
+    }
+
     /**
      * Test the result type of various queries.
      */
@@ -22,11 +22,15 @@ import javax.persistence.spi.PersistenceProvider;
 
 import org.eclipse.persistence.queries.ReadAllQuery;
 import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.UnitOfWork;
 import org.eclipse.persistence.sessions.server.ServerSession;
 import org.eclipse.persistence.testing.models.jpa.performance.*;
 import org.eclipse.persistence.testing.tests.performance.emulateddb.EmulatedDriver;
 import org.eclipse.persistence.config.CacheIsolationType;
 import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.changetracking.DeferredChangeDetectionPolicy;
+import org.eclipse.persistence.descriptors.changetracking.FingerprintChangeDetectionPolicy;
+import org.eclipse.persistence.descriptors.changetracking.ObjectChangePolicy;
 import org.eclipse.persistence.internal.helper.Helper;
 import org.eclipse.persistence.jpa.JpaCache;
 import org.eclipse.persistence.jpa.JpaEntityManager;
@@ -58,6 +62,7 @@ public class JPAPerformanceComparisonModel extends TestModel {
         suite.setName("WritingSuite");
         suite.addTest(buildBatchWriteTest());
         suite.addTest(buildBatchUpdateTest());
+        suite.addTest(buildChangeDetectionTest());
         addTest(suite);
     }
 
@@ -563,6 +568,105 @@ public class JPAPerformanceComparisonModel extends TestModel {
         em.close();
     }
     
+    /**
+     * Add a test to compare the change policies for a persistence context with many unchanged objects.
+     * The default is attribute change tracking if weaving is used.
+     */
+    public TestCase buildChangeDetectionTest() {
+        PerformanceComparisonTestCase test = new PerformanceComparisonTestCase() {
+            ObjectChangePolicy originalPolicy;
+
+            public void setup() {
+                this.originalPolicy = getDescriptor(Address.class).getObjectChangePolicy();
+
+                if (!getTests().isEmpty()) {
+                    return;
+                }
+
+                PerformanceComparisonTestCase test = new PerformanceComparisonTestCase() {
+                    public void startTest() {
+                        setChangePolicy(Address.class, new DeferredChangeDetectionPolicy());
+                    }
+                    public void test() {
+                        testChangeDetection();
+                    }
+                    public void endTest() {
+                        setChangePolicy(Address.class, originalPolicy);
+                    }
+                };
+                test.setName("DeferredChangeDetectionTest");
+                addTest(test);
+
+                test = new PerformanceComparisonTestCase() {
+                    public void startTest() {
+                        setChangePolicy(Address.class, new FingerprintChangeDetectionPolicy());
+                    }
+                    public void test() {
+                        testChangeDetection();
+                    }
+                    public void endTest() {
+                        setChangePolicy(Address.class, originalPolicy);
+                    }
+                };
+                test.setName("FingerprintChangeDetectionTest");
+                addTest(test);
+            }
+
+            public void test() throws Exception {
+                testChangeDetection();
+            }
+        };
+        test.setName("ChangeDetectionTest");
+        return test;
+    }
+
+    /**
+     * Return the server session's descriptor for the class.
+     */
+    protected ClassDescriptor getDescriptor(Class javaClass) {
+        EntityManager em = getExecutor().createEntityManager();
+        try {
+            return em.unwrap(ServerSession.class).getDescriptor(javaClass);
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Initialize and set the change policy of the class's descriptor.
+     */
+    protected void setChangePolicy(Class javaClass, ObjectChangePolicy policy) {
+        EntityManager em = getExecutor().createEntityManager();
+        try {
+            ServerSession session = em.unwrap(ServerSession.class);
+            ClassDescriptor descriptor = session.getDescriptor(javaClass);
+            policy.initialize(session, descriptor);
+            descriptor.setObjectChangePolicy(policy);
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Read all addresses in a persistence context, change one, and calculate the changes.
+     */
+    protected void testChangeDetection() {
+        EntityManager em = getExecutor().createEntityManager();
+        em.getTransaction().begin();
+        try {
+            List<Address> addresses = em.createQuery("Select a from Address a").getResultList();
+            Address address = addresses.get(0);
+            address.setCity(address.getCity() + "1");
+            int changes = em.unwrap(UnitOfWork.class).getCurrentChanges().getAllChangeSets().size();
+            if (changes != 1) {
+                throw new TestErrorException("Expected 1 changed object, found: " + changes);
+            }
+        } finally {
+            em.getTransaction().rollback();
+            em.close();
+        }
+    }
+
     /**
      * Add a test to compare various batch writing options.
      */
@@ -23,6 +23,7 @@ import javax.persistence.spi.PersistenceProvider;
 import org.eclipse.persistence.testing.models.jpa.performance.*;
 import org.eclipse.persistence.testing.tests.jpa.performance.misc.JPABootstrapPerformanceTest;
 import org.eclipse.persistence.testing.tests.jpa.performance.misc.JPAMetadataPerformanceTest;
+import org.eclipse.persistence.testing.tests.jpa.performance.misc.JPAParallelMetadataPerformanceTest;
 import org.eclipse.persistence.testing.tests.jpa.performance.reading.JPAReadAllAddressNamedQueryPerformanceComparisonTest;
 import org.eclipse.persistence.testing.tests.jpa.performance.reading.JPAReadAllAddressPerformanceComparisonTest;
 import org.eclipse.persistence.testing.tests.jpa.performance.reading.JPAReadAllAddressSimpleExpressionPerformanceComparisonTest;
@@ -166,6 +167,7 @@ public class JPAPerformanceRegressionModel extends TestModel {
 
         suite.addTest(new JPABootstrapPerformanceTest());
         suite.addTest(new JPAMetadataPerformanceTest());
+        suite.addTest(new JPAParallelMetadataPerformanceTest());
         
         return suite;        
     }
@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.jpa.performance.misc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.persistence.internal.jpa.EntityManagerFactoryImpl;
+import org.eclipse.persistence.internal.jpa.metadata.MetadataLogger;
+import org.eclipse.persistence.internal.jpa.metadata.accessors.objects.MetadataAsmFactory;
+import org.eclipse.persistence.testing.framework.*;
+
+/**
+ * This test compares the performance of reading the metadata classes serially and in parallel.
+ */
+public class JPAParallelMetadataPerformanceTest extends PerformanceComparisonTestCase {
+    public static int THREADS = 4;
+
+    protected List<String> classNames;
+
+    public JPAParallelMetadataPerformanceTest() {
+        setDescription("This tests reading the JPA metadata classes serially and in parallel.");
+        addParallelMetadataTest();
+    }
+
+    public void setup() {
+        this.classNames = new ArrayList<String>();
+        for (Class javaClass : ((EntityManagerFactoryImpl)getExecutor().getEntityManagerFactory()).getServerSession().getDescriptors().keySet()) {
+            this.classNames.add(javaClass.getName());
+        }
+    }
+
+    /**
+     * Read the classes serially.
+     */
+    public void test() throws Exception {
+        MetadataAsmFactory factory = new MetadataAsmFactory(new MetadataLogger(getAbstractSession()), getClass().getClassLoader());
+        for (String className : this.classNames) {
+            factory.getMetadataClass(className);
+        }
+    }
+
+    /**
+     * Read the classes in parallel.
+     */
+    public void addParallelMetadataTest() {
+        PerformanceComparisonTestCase test = new PerformanceComparisonTestCase() {
+            public void test() {
+                MetadataAsmFactory factory = new MetadataAsmFactory(new MetadataLogger(getAbstractSession()), getClass().getClassLoader());
+                factory.loadMetadataClasses(classNames, false, THREADS, getAbstractSession().getServerPlatform());
+            }
+        };
+        test.setName("ParallelMetadataTest");
+        addTest(test);
+    }
+}
@@ -46,8 +46,11 @@ import org.eclipse.persistence.internal.jpa.querydef.ParameterExpressionImpl;
 import org.eclipse.persistence.internal.localization.ExceptionLocalization;
 import org.eclipse.persistence.internal.queries.ContainerPolicy;
 import org.eclipse.persistence.internal.queries.JPQLCallQueryMechanism;
+import org.eclipse.persistence.internal.queries.JPQLPlanCache;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
 import org.eclipse.persistence.jpa.JpaQuery;
+import org.eclipse.persistence.jpa.JpaResultStream;
 import org.eclipse.persistence.queries.Cursor;
 import org.eclipse.persistence.queries.DataReadQuery;
 import org.eclipse.persistence.queries.DatabaseQuery;
@@ -58,7 +61,10 @@ import org.eclipse.persistence.queries.ReadAllQuery;
 import org.eclipse.persistence.queries.ReadObjectQuery;
 import org.eclipse.persistence.queries.ReadQuery;
 import org.eclipse.persistence.queries.ResultSetMappingQuery;
+import org.eclipse.persistence.queries.ScrollableCursor;
+import org.eclipse.persistence.queries.ScrollableCursorPolicy;
 import org.eclipse.persistence.sessions.DatabaseRecord;
+import org.eclipse.persistence.sessions.SessionProfiler;
 
 /**
  * Concrete JPA query class. The JPA query wraps a DatabaseQuery which is
@@ -138,8 +144,21 @@ public class EJBQueryImpl<X> extends QueryImpl implements JpaQuery<X> {
             databaseQuery = (DatabaseQuery) session.getProject().getJPQLParseCache().get(jpqlQuery);
         }
         if ((databaseQuery == null) || (!databaseQuery.isPrepared())) {
-            JPAQueryBuilder queryBuilder = session.getQueryBuilder();
-            databaseQuery = queryBuilder.buildQuery(jpqlQuery, session);
+            if (isCacheable) {
+                session.incrementProfile(SessionProfiler.JpqlParseCacheMisses);
+            }
+            if (session.getProject().shouldUseJPQLPlanCache()) {
+                // PERF: Use the query parsed by any session with the same descriptors.
+                databaseQuery = JPQLPlanCache.getSharedCache().buildQuery(jpqlQuery, session);
+            } else {
+                JPAQueryBuilder queryBuilder = session.getQueryBuilder();
+                session.startOperationProfile(SessionProfiler.JpqlParse, null, SessionProfiler.ALL);
+                try {
+                    databaseQuery = queryBuilder.buildQuery(jpqlQuery, session);
+                } finally {
+                    session.endOperationProfile(SessionProfiler.JpqlParse, null, SessionProfiler.ALL);
+                }
+            }
             
             // If the query uses fetch joins, need to use JPA default of not
             // filtering duplicates.
@@ -194,6 +213,8 @@ public class EJBQueryImpl<X> extends QueryImpl implements JpaQuery<X> {
                 databaseQuery.checkPrepare(session, new DatabaseRecord());
                 session.getProject().getJPQLParseCache().put(jpqlQuery, databaseQuery);
             }
+        } else {
+            session.incrementProfile(SessionProfiler.JpqlParseCacheHits);
         }
 
         return databaseQuery;
@@ -386,6 +407,86 @@ public class EJBQueryImpl<X> extends QueryImpl implements JpaQuery<X> {
         }
     }
     
+    /**
+     * Non-standard method to return the results of a ReadQuery as a stream over a forward only cursor.
+     * Only a window of the most recently read results is kept in the persistence context,
+     * the window size is the query's JDBC fetch size if set.
+     * 
+     * @return stream on results
+     */
+    public JpaResultStream<X> streamResults() {
+        // bug51411440: need to throw IllegalStateException if query executed on closed em
+        this.entityManager.verifyOpenWithSetRollbackOnly();
+        try {
+            setAsSQLReadQuery();
+            propagateResultProperties();
+            DatabaseQuery query = getDatabaseQueryInternal();
+            if (query.isReadObjectQuery()) {
+                throw QueryException.incorrectQueryObjectFound(query, ReadAllQuery.class);
+            } else if (!query.isReadAllQuery() && !query.isDataReadQuery()) {
+                throw new IllegalStateException(ExceptionLocalization.buildMessage("incorrect_query_for_get_result_list"));
+            }
+            int windowSize = ((ReadQuery)query).getFetchSize();
+            if (windowSize <= 0) {
+                windowSize = QueryResultStream.DEFAULT_WINDOW_SIZE;
+            }
+            ContainerPolicy containerPolicy = getContainerPolicy(query);
+            ScrollableCursorPolicy cursorPolicy = null;
+            if (!containerPolicy.isScrollableCursorPolicy()) {
+                // Use a forward only cursor, the page size is used as the fetch size if not set on the query.
+                cloneSharedQuery();
+                query = getDatabaseQueryInternal();
+                cursorPolicy = new ScrollableCursorPolicy((ReadQuery)query, windowSize);
+                cursorPolicy.setResultSetType(ScrollableCursorPolicy.TYPE_FORWARD_ONLY);
+                setContainerPolicy(query, cursorPolicy);
+            }
+            try {
+                ScrollableCursor cursor = (ScrollableCursor)executeReadQuery();
+                UnitOfWorkImpl unitOfWork = null;
+                if (getActiveSession().isUnitOfWork()) {
+                    unitOfWork = (UnitOfWorkImpl)getActiveSession();
+                }
+                return new QueryResultStream<X>(cursor, unitOfWork, windowSize);
+            } finally {
+                if (cursorPolicy != null) {
+                    setContainerPolicy(query, containerPolicy);
+                }
+            }
+        } catch (LockTimeoutException e) {
+            throw e;
+        } catch (PersistenceException exception) {
+            setRollbackOnly();
+            throw exception;
+        } catch (IllegalStateException exception) {
+            setRollbackOnly();
+            throw exception;
+        } catch (RuntimeException exception) {
+            setRollbackOnly();
+            throw new PersistenceException(exception);
+        }
+    }
+    
+    /**
+     * Return the container policy of the ReadAllQuery or DataReadQuery.
+     */
+    protected ContainerPolicy getContainerPolicy(DatabaseQuery query) {
+        if (query.isReadAllQuery()) {
+            return ((ReadAllQuery)query).getContainerPolicy();
+        }
+        return ((DataReadQuery)query).getContainerPolicy();
+    }
+    
+    /**
+     * Set the container policy of the ReadAllQuery or DataReadQuery.
+     */
+    protected void setContainerPolicy(DatabaseQuery query, ContainerPolicy containerPolicy) {
+        if (query.isReadAllQuery()) {
+            ((ReadAllQuery)query).setContainerPolicy(containerPolicy);
+        } else {
+            ((DataReadQuery)query).setContainerPolicy(containerPolicy);
+        }
+    }
+    
     /**
      * Execute a query that returns a single result.
      * 
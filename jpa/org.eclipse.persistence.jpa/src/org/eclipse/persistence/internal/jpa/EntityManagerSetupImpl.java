@@ -150,6 +150,7 @@ import org.eclipse.persistence.exceptions.ValidationException;
 import org.eclipse.persistence.internal.databaseaccess.BatchWritingMechanism;
 import org.eclipse.persistence.internal.databaseaccess.DatabaseAccessor;
 import org.eclipse.persistence.internal.databaseaccess.DatasourcePlatform;
+import org.eclipse.persistence.internal.databaseaccess.PipelinedSQLBatchWritingMechanism;
 import org.eclipse.persistence.internal.descriptors.OptimisticLockingPolicy;
 import org.eclipse.persistence.internal.descriptors.OptimisticLockingPolicy.LockOnChange;
 import org.eclipse.persistence.internal.helper.ClassConstants;
@@ -180,8 +181,10 @@ import org.eclipse.persistence.internal.security.SecurableObjectHolder;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
 import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
 import org.eclipse.persistence.internal.sessions.PropertiesHandler;
+import org.eclipse.persistence.internal.sessions.SQLResultCache;
 import org.eclipse.persistence.internal.sessions.remote.RemoteConnection;
 import org.eclipse.persistence.jpa.metadata.FileBasedProjectCache;
+import org.eclipse.persistence.jpa.metadata.MappedFileProjectCache;
 import org.eclipse.persistence.jpa.metadata.MetadataSource;
 import org.eclipse.persistence.jpa.metadata.ProjectCache;
 import org.eclipse.persistence.jpa.metadata.XMLMetadataSource;
@@ -212,6 +215,7 @@ import org.eclipse.persistence.sessions.coordination.RemoteCommandManager;
 import org.eclipse.persistence.sessions.coordination.TransportManager;
 import org.eclipse.persistence.sessions.coordination.jms.JMSPublishingTransportManager;
 import org.eclipse.persistence.sessions.coordination.jms.JMSTopicTransportManager;
+import org.eclipse.persistence.sessions.coordination.nio.NIOTransportManager;
 import org.eclipse.persistence.sessions.coordination.rmi.RMITransportManager;
 import org.eclipse.persistence.sessions.factories.SessionManager;
 import org.eclipse.persistence.sessions.factories.XMLSessionConfigLoader;
@@ -219,6 +223,8 @@ import org.eclipse.persistence.sessions.remote.RemoteSession;
 import org.eclipse.persistence.sessions.remote.rmi.RMIConnection;
 import org.eclipse.persistence.sessions.remote.rmi.RMIServerSessionManager;
 import org.eclipse.persistence.sessions.remote.rmi.RMIServerSessionManagerDispatcher;
+import org.eclipse.persistence.sessions.serializers.Serializer;
+import org.eclipse.persistence.sessions.server.ConcurrentConnectionPool;
 import org.eclipse.persistence.sessions.server.ConnectionPolicy;
 import org.eclipse.persistence.sessions.server.ConnectionPool;
 import org.eclipse.persistence.sessions.server.ExternalConnectionPool;
@@ -729,10 +735,13 @@ public class EntityManagerSetupImpl implements MetadataRefreshListener {
                     isLockAcquired = false;
                 }
                 // 266912: Initialize the Metamodel, a login should have already occurred.
-                try {
-                    this.getMetamodel();
-                } catch (Exception e) {
-                    this.session.log(SessionLog.FINEST, SessionLog.METAMODEL, "metamodel_init_failed", new Object[]{e.getMessage()});
+                // If the descriptors are initialized lazily, the Metamodel is initialized when first requested, as it initializes all descriptors.
+                if (this.session.getLazyDescriptorInitializer() == null) {
+                    try {
+                        this.getMetamodel();
+                    } catch (Exception e) {
+                        this.session.log(SessionLog.FINEST, SessionLog.METAMODEL, "metamodel_init_failed", new Object[]{e.getMessage()});
+                    }
                 }
             }
             // Clear the weaver's reference to meta-data information, as it is held by the class loader and will never gc.
@@ -1525,6 +1534,27 @@ public class EntityManagerSetupImpl implements MetadataRefreshListener {
                         readPool.setLogin(pool.getLogin());
                         serverSession.setReadConnectionPool(readPool);
                     }
+                } else if (attribute.equals(PersistenceUnitProperties.CONNECTION_POOL_CONCURRENT)) {
+                    boolean concurrent = Boolean.parseBoolean((String)entry.getValue());
+                    // Only applies to exclusive pools, shared read and external pools are left as is.
+                    if (concurrent && (pool.getClass() == ConnectionPool.class)) {
+                        ConcurrentConnectionPool concurrentPool = new ConcurrentConnectionPool(poolName, pool.getLogin(), serverSession);
+                        concurrentPool.setInitialNumberOfConnections(pool.getInitialNumberOfConnections());
+                        concurrentPool.setMinNumberOfConnections(pool.getMinNumberOfConnections());
+                        concurrentPool.setMaxNumberOfConnections(pool.getMaxNumberOfConnections());
+                        concurrentPool.setWaitTimeout(pool.getWaitTimeout());
+                        concurrentPool.setFailoverConnectionPools(pool.getFailoverConnectionPools());
+                        if (poolName.equals("read")) {
+                            serverSession.setReadConnectionPool(concurrentPool);
+                        } else if (poolName.equals("sequence")) {
+                            getDatabaseSession().getSequencingControl().setConnectionPool(concurrentPool);
+                        } else {
+                            if (serverSession.getReadConnectionPool() == pool) {
+                                serverSession.setReadConnectionPool(concurrentPool);
+                            }
+                            serverSession.addConnectionPool(concurrentPool);
+                        }
+                    }
                 }
             } catch (RuntimeException exception) {
                 this.session.handleException(ValidationException.invalidValueForProperty(entry.getValue(), entry.getKey(), exception));
@@ -2052,9 +2082,19 @@ public class EntityManagerSetupImpl implements MetadataRefreshListener {
                         transport.setShouldReuseJMSTopicPublisher(reuse_publisher.equalsIgnoreCase("true"));
                     }
                     
-                } else if (protocol.equalsIgnoreCase(CacheCoordinationProtocol.RMI) || protocol.equalsIgnoreCase(CacheCoordinationProtocol.RMIIIOP)) {
+                } else if (protocol.equalsIgnoreCase(CacheCoordinationProtocol.RMI) || protocol.equalsIgnoreCase(CacheCoordinationProtocol.RMIIIOP)
+                        || protocol.equalsIgnoreCase(CacheCoordinationProtocol.NIO)) {
                     if (protocol.equalsIgnoreCase(CacheCoordinationProtocol.RMIIIOP)) {
                         ((RMITransportManager)rcm.getTransportManager()).setIsRMIOverIIOP(true);
+                    } else if (protocol.equalsIgnoreCase(CacheCoordinationProtocol.NIO)) {
+                        NIOTransportManager transport = new NIOTransportManager(rcm);
+                        rcm.setTransportManager(transport);
+                        String window = getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.COORDINATION_NIO_COALESCING_WINDOW, m, this.session);
+                        property = PersistenceUnitProperties.COORDINATION_NIO_COALESCING_WINDOW;
+                        value = window;
+                        if (window != null) {
+                            transport.setCoalescingWindow(Integer.parseInt(window));
+                        }
                     }
                     // Default protocol.
                     String delay = getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.COORDINATION_RMI_ANNOUNCEMENT_DELAY, m, this.session);
@@ -2127,6 +2167,13 @@ public class EntityManagerSetupImpl implements MetadataRefreshListener {
                 if (channel != null) {
                     rcm.setChannel(channel);
                 }
+                String serializer = getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.COORDINATION_SERIALIZER, m, this.session);
+                if (serializer != null) {
+                    property = PersistenceUnitProperties.COORDINATION_SERIALIZER;
+                    value = serializer;
+                    Class serializerClass = findClassForProperty(serializer, PersistenceUnitProperties.COORDINATION_SERIALIZER, loader);
+                    rcm.setSerializer((Serializer)serializerClass.newInstance());
+                }
                 this.session.setCommandManager(rcm);
                 this.session.setShouldPropagateChanges(true);
             }
@@ -2568,6 +2615,9 @@ public class EntityManagerSetupImpl implements MetadataRefreshListener {
             setExceptionHandler(m, loader);
 
             updateBatchWritingSetting(m, loader);
+            updateFetchSizeSetting(m);
+            updateResultCacheSetting(m);
+            updateQueryCacheSizes(m);
     
             updateNativeSQLSetting(m);
             updateSequencing(m);
@@ -2576,6 +2626,8 @@ public class EntityManagerSetupImpl implements MetadataRefreshListener {
             updateUppercaseSetting(m);
             updateCacheStatementSettings(m);
             updateTemporalMutableSetting(m);
+            updateParallelObjectBuildingSetting(m);
+            updateLazyDescriptorInitializationSetting(m);
             updateTableCreationSettings(m);
             updateIndexForeignKeys(m);
             if (!session.hasBroker()) {
@@ -2894,6 +2946,10 @@ public class EntityManagerSetupImpl implements MetadataRefreshListener {
              } else if (batchWritingSettingString == BatchWriting.OracleJDBC) {
                  this.session.getPlatform().setUsesNativeBatchWriting(true);
                  this.session.getPlatform().setUsesJDBCBatchWriting(true);
+             } else if (batchWritingSettingString == BatchWriting.Pipelined) {
+                 this.session.getPlatform().setUsesJDBCBatchWriting(true);
+                 this.session.getPlatform().setUsesNativeBatchWriting(false);
+                 this.session.getPlatform().setBatchWritingMechanism(new PipelinedSQLBatchWritingMechanism());
              } else if (batchWritingSettingString == BatchWriting.None) {
                  // Nothing required.
              } else {
@@ -2924,6 +2980,69 @@ public class EntityManagerSetupImpl implements MetadataRefreshListener {
                 session.handleException(ValidationException.invalidValueForProperty(sizeString, PersistenceUnitProperties.BATCH_WRITING_SIZE, invalid));
             }
         }
+        // Set batch size auto-tuning.
+        String autoTuneString = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.BATCH_WRITING_AUTO_TUNE, persistenceProperties, this.session);
+        if (autoTuneString != null) {
+            this.session.getPlatform().setShouldAutoTuneBatchWritingSize(autoTuneString.equalsIgnoreCase("true"));
+        }
+    }
+
+    /**
+     * Update fetch size auto-tuning setting.
+     * The method needs to be called in deploy stage.
+     */
+    protected void updateFetchSizeSetting(Map persistenceProperties) {
+        String autoTuneString = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.JDBC_FETCH_SIZE_AUTO_TUNE, persistenceProperties, this.session);
+        if (autoTuneString != null) {
+            this.session.getPlatform().setShouldAutoTuneFetchSize(autoTuneString.equalsIgnoreCase("true"));
+        }
+    }
+
+    /**
+     * Enable or disable the SQL result cache of data and report queries.
+     */
+    protected void updateResultCacheSetting(Map persistenceProperties) {
+        String resultCacheSize = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.JDBC_RESULT_CACHE_SIZE, persistenceProperties, this.session);
+        if (resultCacheSize != null) {
+            try {
+                int size = Integer.parseInt(resultCacheSize.trim());
+                if (size > 0) {
+                    this.session.setSQLResultCache(new SQLResultCache(size));
+                } else {
+                    this.session.setSQLResultCache(null);
+                }
+            } catch (NumberFormatException exception) {
+                this.session.handleException(ValidationException.invalidValueForProperty(resultCacheSize, PersistenceUnitProperties.JDBC_RESULT_CACHE_SIZE, exception));
+            }
+        }
+    }
+
+    /**
+     * Set the size of the update call and expression query caches of all descriptors.
+     */
+    protected void updateQueryCacheSizes(Map persistenceProperties) {
+        String updateCallCacheSize = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.UPDATE_CALL_CACHE_SIZE, persistenceProperties, this.session);
+        if (updateCallCacheSize != null) {
+            try {
+                int size = Integer.parseInt(updateCallCacheSize.trim());
+                for (ClassDescriptor descriptor : this.session.getProject().getDescriptors().values()) {
+                    descriptor.getQueryManager().setUpdateCallCacheSize(size);
+                }
+            } catch (NumberFormatException exception) {
+                this.session.handleException(ValidationException.invalidValueForProperty(updateCallCacheSize, PersistenceUnitProperties.UPDATE_CALL_CACHE_SIZE, exception));
+            }
+        }
+        String expressionQueryCacheSize = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.EXPRESSION_QUERY_CACHE_SIZE, persistenceProperties, this.session);
+        if (expressionQueryCacheSize != null) {
+            try {
+                int size = Integer.parseInt(expressionQueryCacheSize.trim());
+                for (ClassDescriptor descriptor : this.session.getProject().getDescriptors().values()) {
+                    descriptor.getQueryManager().setExpressionQueryCacheMaxSize(size);
+                }
+            } catch (NumberFormatException exception) {
+                this.session.handleException(ValidationException.invalidValueForProperty(expressionQueryCacheSize, PersistenceUnitProperties.EXPRESSION_QUERY_CACHE_SIZE, exception));
+            }
+        }
     }
 
     /**
@@ -3027,6 +3146,14 @@ public class EntityManagerSetupImpl implements MetadataRefreshListener {
                this.session.handleException(ValidationException.invalidBooleanValueForProperty(useTable, PersistenceUnitProperties.SEQUENCING_SEQUENCE_DEFAULT));
            }
         }
+        String refillThreshold = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.SEQUENCING_PREALLOCATION_REFILL_THRESHOLD, m, this.session);
+        if (refillThreshold != null) {
+            try {
+                getDatabaseSession().getSequencingControl().setPreallocationRefillThreshold(Integer.parseInt(refillThreshold.trim()));
+            } catch (NumberFormatException exception) {
+                this.session.handleException(ValidationException.invalidValueForProperty(refillThreshold, PersistenceUnitProperties.SEQUENCING_PREALLOCATION_REFILL_THRESHOLD, exception));
+            }
+        }
     }
 
     /**
@@ -3041,6 +3168,8 @@ public class EntityManagerSetupImpl implements MetadataRefreshListener {
                 String accessorType = (String)accessor;
                 if (accessorType.equalsIgnoreCase("java-serialization")) {
                     projectCacheAccessor = new FileBasedProjectCache();
+                } else if (accessorType.equalsIgnoreCase("memory-mapped")) {
+                    projectCacheAccessor = new MappedFileProjectCache();
                 } else {
                     Class transportClass = findClassForProperty(accessorType, PersistenceUnitProperties.PROJECT_CACHE, loader);
                     try {
@@ -3073,6 +3202,38 @@ public class EntityManagerSetupImpl implements MetadataRefreshListener {
         if (validation != null) {
             this.session.setProperty(PersistenceUnitProperties.JPQL_VALIDATION, validation);
         }
+        // Set JPQL parse cache size if it was specified.
+        String parseCacheSize = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.JPQL_PARSE_CACHE_SIZE, m, this.session);
+        if (parseCacheSize != null) {
+            try {
+                this.session.getProject().setJPQLParseCacheMaxSize(Integer.parseInt(parseCacheSize.trim()));
+            } catch (NumberFormatException exception) {
+                this.session.handleException(ValidationException.invalidValueForProperty(parseCacheSize, PersistenceUnitProperties.JPQL_PARSE_CACHE_SIZE, exception));
+            }
+        }
+        // Share parsed queries with other sessions if specified.
+        String planCache = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.JPQL_PLAN_CACHE, m, this.session);
+        if (planCache != null) {
+            if (planCache.equalsIgnoreCase("true")) {
+                this.session.getProject().setShouldUseJPQLPlanCache(true);
+            } else if (planCache.equalsIgnoreCase("false")) {
+                this.session.getProject().setShouldUseJPQLPlanCache(false);
+            } else {
+                this.session.handleException(ValidationException.invalidBooleanValueForProperty(planCache, PersistenceUnitProperties.JPQL_PLAN_CACHE));
+            }
+        }
+        String warmUpQueries = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.JPQL_PLAN_CACHE_WARM_UP, m, this.session);
+        if (warmUpQueries != null) {
+            List<String> queryNames = new ArrayList<String>();
+            StringTokenizer tokenizer = new StringTokenizer(warmUpQueries, ",");
+            while (tokenizer.hasMoreTokens()) {
+                String queryName = tokenizer.nextToken().trim();
+                if (queryName.length() > 0) {
+                    queryNames.add(queryName);
+                }
+            }
+            this.session.getProject().setJPQLPlanCacheWarmUpQueries(queryNames);
+        }
     }
     
     /**
@@ -3252,6 +3413,39 @@ public class EntityManagerSetupImpl implements MetadataRefreshListener {
         }
     }
 
+    /**
+     * Enable or disable default parallel object building setting. 
+     */
+    protected void updateParallelObjectBuildingSetting(Map m) {
+        String parallelObjectBuilding = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.PARALLEL_OBJECT_BUILDING, m, session);
+        if (parallelObjectBuilding != null) {
+            if (parallelObjectBuilding.equalsIgnoreCase("true")) {
+               session.setShouldBuildObjectsInParallel(true);
+            } else if (parallelObjectBuilding.equalsIgnoreCase("false")) {
+               session.setShouldBuildObjectsInParallel(false);
+            } else {
+                session.handleException(ValidationException.invalidBooleanValueForProperty(parallelObjectBuilding, PersistenceUnitProperties.PARALLEL_OBJECT_BUILDING));
+            }
+        }
+    }
+
+    /**
+     * Enable or disable the initialization of descriptors on their first use.
+     * The method needs to be called in deploy stage, before login.
+     */
+    protected void updateLazyDescriptorInitializationSetting(Map m) {
+        String lazyInitialization = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.LAZY_DESCRIPTOR_INITIALIZATION, m, session);
+        if (lazyInitialization != null) {
+            if (lazyInitialization.equalsIgnoreCase("true")) {
+                getDatabaseSession().setShouldInitializeDescriptorsLazily(true);
+            } else if (lazyInitialization.equalsIgnoreCase("false")) {
+                getDatabaseSession().setShouldInitializeDescriptorsLazily(false);
+            } else {
+                session.handleException(ValidationException.invalidBooleanValueForProperty(lazyInitialization, PersistenceUnitProperties.LAZY_DESCRIPTOR_INITIALIZATION));
+            }
+        }
+    }
+
     /**
      * Enable or disable default temporal mutable setting. 
      * The method needs to be called in deploy stage. 
@@ -3381,6 +3575,10 @@ public class EntityManagerSetupImpl implements MetadataRefreshListener {
         // perform lazy initialisation
         Metamodel tempMetaModel = null;
         if(null == metaModel) {
+            // The metamodel is built from the initialized descriptors.
+            if ((this.session != null) && (this.session.getLazyDescriptorInitializer() != null)) {
+                this.session.getLazyDescriptorInitializer().initializeAll();
+            }
             // 338837: verify that the collection is not empty - this would mean entities did not make it into the search path
             tempMetaModel = new MetamodelImpl(this);
             // If the canonical metamodel classes exist, initialize them
@@ -243,11 +243,15 @@ public class QueryHintsHandler {
             addHint(new BatchHint());
             addHint(new BatchTypeHint());
             addHint(new BatchSizeHint());
+            addHint(new BatchAutoTuneHint());
+            addHint(new BatchPrefetchHint());
             addHint(new FetchHint());
             addHint(new LeftFetchHint());
             addHint(new ReadOnlyHint());
             addHint(new JDBCTimeoutHint());
             addHint(new JDBCFetchSizeHint());
+            addHint(new ColumnarRowsHint());
+            addHint(new ParallelObjectBuildingHint());
             addHint(new JDBCMaxRowsHint());
             addHint(new JDBCFirstResultHint());
             addHint(new ResultCollectionTypeHint());
@@ -1435,6 +1439,44 @@ public class QueryHintsHandler {
         }
     }
     
+    protected static class BatchAutoTuneHint extends Hint {
+        BatchAutoTuneHint() {
+            super(QueryHints.BATCH_AUTO_TUNE, HintValues.FALSE);
+            valueArray = new Object[][] { 
+                {HintValues.FALSE, Boolean.FALSE},
+                {HintValues.TRUE, Boolean.TRUE}
+            };
+        }
+    
+        DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, ClassLoader loader, AbstractSession activeSession) {
+            if (query.isObjectLevelReadQuery()) {
+                ((ObjectLevelReadQuery) query).getBatchFetchPolicy().setShouldAutoTuneSize(((Boolean)valueToApply).booleanValue());
+            } else {
+                throw new IllegalArgumentException(ExceptionLocalization.buildMessage("ejb30-wrong-type-for-query-hint",new Object[]{getQueryId(query), name, getPrintValue(valueToApply)}));
+            }
+            return query;
+        }
+    }
+    
+    protected static class BatchPrefetchHint extends Hint {
+        BatchPrefetchHint() {
+            super(QueryHints.BATCH_PREFETCH, HintValues.FALSE);
+            valueArray = new Object[][] { 
+                {HintValues.FALSE, Boolean.FALSE},
+                {HintValues.TRUE, Boolean.TRUE}
+            };
+        }
+    
+        DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, ClassLoader loader, AbstractSession activeSession) {
+            if (query.isObjectLevelReadQuery()) {
+                ((ObjectLevelReadQuery) query).getBatchFetchPolicy().setShouldPrefetch(((Boolean)valueToApply).booleanValue());
+            } else {
+                throw new IllegalArgumentException(ExceptionLocalization.buildMessage("ejb30-wrong-type-for-query-hint",new Object[]{getQueryId(query), name, getPrintValue(valueToApply)}));
+            }
+            return query;
+        }
+    }
+    
     protected static class FetchHint extends Hint {
         FetchHint() {
             super(QueryHints.FETCH, "");
@@ -1819,6 +1861,44 @@ public class QueryHintsHandler {
         }
     }
     
+    protected static class ColumnarRowsHint extends Hint {
+        ColumnarRowsHint() {
+            super(QueryHints.COLUMNAR_ROWS, HintValues.FALSE);
+            valueArray = new Object[][] { 
+                {HintValues.FALSE, Boolean.FALSE},
+                {HintValues.TRUE, Boolean.TRUE}
+            };
+        }
+    
+        DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, ClassLoader loader, AbstractSession activeSession) {
+            if (query.isObjectLevelReadQuery()) {
+                ((ObjectLevelReadQuery)query).setShouldUseColumnarRows(((Boolean)valueToApply).booleanValue());
+            } else {
+                throw new IllegalArgumentException(ExceptionLocalization.buildMessage("ejb30-wrong-type-for-query-hint",new Object[]{getQueryId(query), name, getPrintValue(valueToApply)}));
+            }
+            return query;
+        }
+    }
+    
+    protected static class ParallelObjectBuildingHint extends Hint {
+        ParallelObjectBuildingHint() {
+            super(QueryHints.PARALLEL_OBJECT_BUILDING, HintValues.FALSE);
+            valueArray = new Object[][] { 
+                {HintValues.FALSE, Boolean.FALSE},
+                {HintValues.TRUE, Boolean.TRUE}
+            };
+        }
+    
+        DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, ClassLoader loader, AbstractSession activeSession) {
+            if (query.isObjectLevelReadQuery()) {
+                ((ObjectLevelReadQuery)query).setShouldBuildObjectsInParallel(((Boolean)valueToApply).booleanValue());
+            } else {
+                throw new IllegalArgumentException(ExceptionLocalization.buildMessage("ejb30-wrong-type-for-query-hint",new Object[]{getQueryId(query), name, getPrintValue(valueToApply)}));
+            }
+            return query;
+        }
+    }
+    
     protected static class AsOfHint extends Hint {
         AsOfHint() {
             super(QueryHints.AS_OF, "");
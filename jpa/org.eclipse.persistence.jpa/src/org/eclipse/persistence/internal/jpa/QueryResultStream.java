@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.jpa;
+
+import java.util.NoSuchElementException;
+
+import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
+import org.eclipse.persistence.jpa.JpaResultStream;
+import org.eclipse.persistence.queries.ScrollableCursor;
+
+/**
+ * INTERNAL:
+ * JpaResultStream implementation over a forward only ScrollableCursor.
+ * The last windowSize results are kept in a ring, when a result leaves the ring it is
+ * unregistered from the unit of work (if registered), and the cursor is cleared once per window.
+ */
+public class QueryResultStream<X> implements JpaResultStream<X> {
+
+    /** Default window size, used if no fetch size is set on the query. */
+    public static final int DEFAULT_WINDOW_SIZE = 100;
+
+    protected ScrollableCursor cursor;
+    /** The unit of work the results are registered in, null if the query was not executed in a unit of work. */
+    protected UnitOfWorkImpl unitOfWork;
+    protected Object[] window;
+    protected int windowPosition;
+    protected boolean isWindowFull;
+
+    public QueryResultStream(ScrollableCursor cursor, UnitOfWorkImpl unitOfWork, int windowSize) {
+        this.cursor = cursor;
+        this.unitOfWork = unitOfWork;
+        this.window = new Object[windowSize];
+    }
+
+    /**
+     * INTERNAL:
+     * Return the underlying cursor.
+     */
+    public ScrollableCursor getCursor() {
+        return cursor;
+    }
+
+    public int getWindowSize() {
+        return this.window.length;
+    }
+
+    public boolean hasNext() {
+        if (this.cursor.isClosed()) {
+            return false;
+        }
+        if (this.cursor.hasNext()) {
+            return true;
+        }
+        close();
+        return false;
+    }
+
+    public X next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Object next = this.cursor.next();
+        int position = this.windowPosition;
+        if (this.isWindowFull) {
+            detach(this.window[position]);
+        }
+        this.window[position] = next;
+        position++;
+        if (position == this.window.length) {
+            position = 0;
+            this.isWindowFull = true;
+            // Release any 1-m join rows held by the cursor.
+            this.cursor.clear();
+        }
+        this.windowPosition = position;
+        return (X)next;
+    }
+
+    /**
+     * Detach the result from the unit of work, so it is no longer held by the persistence context.
+     * This cascades the same as EntityManager.detach().
+     * The entities of a multiple item report query result are each detached.
+     */
+    protected void detach(Object result) {
+        if (result instanceof Object[]) {
+            for (Object item : (Object[])result) {
+                detach(item);
+            }
+        } else if ((this.unitOfWork != null) && (result != null) && this.unitOfWork.isObjectRegistered(result)) {
+            this.unitOfWork.unregisterObject(result, 0, true);
+        }
+    }
+
+    /**
+     * Results cannot be removed from the stream.
+     */
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    public void close() {
+        this.cursor.close();
+    }
+}
@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.jpa.deployment;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+import org.eclipse.persistence.internal.libraries.asm.AnnotationVisitor;
+import org.eclipse.persistence.internal.libraries.asm.ClassReader;
+import org.eclipse.persistence.internal.libraries.asm.FieldVisitor;
+import org.eclipse.persistence.internal.libraries.asm.MethodVisitor;
+import org.eclipse.persistence.internal.libraries.asm.commons.EmptyVisitor;
+import org.eclipse.persistence.jpa.Archive;
+
+/**
+ * INTERNAL:
+ * An index of the classes of an archive that have persistence annotations,
+ * so deployment only reads these classes instead of every class of the archive.
+ * <p>
+ * The index is written into the archive by static weaving, as the entry "META-INF/eclipselink-annotation-index".
+ * It contains a checksum of the archive's classes, followed by the names of the classes
+ * with a class level javax.persistence or org.eclipse.persistence annotation, one per line.
+ * The checksum is computed from the CRC of each class entry, the index is ignored
+ * if the archive's classes have changed since it was written.
+ * @see PersistenceUnitProcessor#getPersistentClassNamesFromURL(java.net.URL, ClassLoader, Map)
+ * @see org.eclipse.persistence.tools.weaving.jpa.StaticWeaveProcessor
+ */
+public class AnnotationIndex {
+    /** The name of the index entry in the archive. */
+    public static final String INDEX_ENTRY = "META-INF/eclipselink-annotation-index";
+    protected static final String CHECKSUM_PREFIX = "checksum=";
+
+    /** The CRC of each class entry, by entry name. */
+    protected SortedMap<String, Long> entryCrcs;
+    /** The names of the classes with persistence annotations. */
+    protected SortedSet<String> classNames;
+
+    public AnnotationIndex() {
+        this.entryCrcs = new TreeMap<String, Long>();
+        this.classNames = new TreeSet<String>();
+    }
+
+    /**
+     * Add the class entry to the index, and its class name if the class has persistence annotations.
+     */
+    public void addClass(String entryName, byte[] classBytes) {
+        CRC32 crc = new CRC32();
+        crc.update(classBytes);
+        this.entryCrcs.put(entryName, Long.valueOf(crc.getValue()));
+        if (hasPersistenceAnnotation(classBytes)) {
+            this.classNames.add(PersistenceUnitProcessor.buildClassNameFromEntryString(entryName));
+        }
+    }
+
+    /**
+     * Return the names of the classes with persistence annotations.
+     */
+    public SortedSet<String> getClassNames() {
+        return classNames;
+    }
+
+    /**
+     * Return the bytes of the index entry.
+     */
+    public byte[] getBytes() throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        Writer writer = new OutputStreamWriter(stream, "UTF-8");
+        writer.write(CHECKSUM_PREFIX + Long.toHexString(computeChecksum(this.entryCrcs)) + "\n");
+        for (String className : this.classNames) {
+            writer.write(className + "\n");
+        }
+        writer.close();
+        return stream.toByteArray();
+    }
+
+    /**
+     * Return the class names of the archive's index,
+     * or null if the archive has no index, or its classes have changed since the index was written.
+     */
+    public static Set<String> readClassNames(Archive archive) throws IOException {
+        InputStream stream = archive.getEntry(INDEX_ENTRY);
+        if (stream == null) {
+            return null;
+        }
+        long checksum;
+        Set<String> classNames = new HashSet<String>();
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(stream, "UTF-8"));
+            String line = reader.readLine();
+            if ((line == null) || !line.startsWith(CHECKSUM_PREFIX)) {
+                return null;
+            }
+            try {
+                checksum = Long.parseLong(line.substring(CHECKSUM_PREFIX.length()), 16);
+            } catch (NumberFormatException invalid) {
+                return null;
+            }
+            line = reader.readLine();
+            while (line != null) {
+                if (line.length() > 0) {
+                    classNames.add(line);
+                }
+                line = reader.readLine();
+            }
+        } finally {
+            stream.close();
+        }
+        SortedMap<String, Long> entryCrcs = new TreeMap<String, Long>();
+        for (Iterator<String> entries = archive.getEntries(); entries.hasNext();) {
+            String entry = entries.next();
+            if (entry.endsWith(".class")) {
+                entryCrcs.put(entry, Long.valueOf(getEntryCrc(archive, entry)));
+            }
+        }
+        if (computeChecksum(entryCrcs) != checksum) {
+            return null;
+        }
+        return classNames;
+    }
+
+    /**
+     * Return the CRC of the archive's entry.
+     * The CRC of a jar file entry is read from the jar's directory, otherwise it is computed from the entry's bytes.
+     */
+    protected static long getEntryCrc(Archive archive, String entryName) throws IOException {
+        if (archive instanceof JarFileArchive) {
+            long crc = ((JarFileArchive)archive).getEntryCrc(entryName);
+            if (crc != -1) {
+                return crc;
+            }
+        }
+        CRC32 crc = new CRC32();
+        InputStream stream = archive.getEntry(entryName);
+        try {
+            byte[] buffer = new byte[8 * 1024];
+            int bytesRead = stream.read(buffer);
+            while (bytesRead >= 0) {
+                crc.update(buffer, 0, bytesRead);
+                bytesRead = stream.read(buffer);
+            }
+        } finally {
+            stream.close();
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Return the checksum of the entries' names and CRCs.
+     */
+    protected static long computeChecksum(SortedMap<String, Long> entryCrcs) throws IOException {
+        CRC32 checksum = new CRC32();
+        for (Map.Entry<String, Long> entry : entryCrcs.entrySet()) {
+            checksum.update(entry.getKey().getBytes("UTF-8"));
+            long crc = entry.getValue().longValue();
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                checksum.update((int)(crc >>> shift));
+            }
+        }
+        return checksum.getValue();
+    }
+
+    /**
+     * Return if the class has a class level persistence annotation.
+     * Classes that cannot be parsed are included, so they are processed as usual.
+     */
+    protected static boolean hasPersistenceAnnotation(byte[] classBytes) {
+        AnnotationDetector detector = new AnnotationDetector();
+        try {
+            new ClassReader(classBytes).accept(detector, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        } catch (RuntimeException invalid) {
+            return true;
+        }
+        return detector.hasPersistenceAnnotation;
+    }
+
+    /**
+     * INTERNAL:
+     * Detects the class level persistence annotations of a class, ignoring its members.
+     */
+    protected static class AnnotationDetector extends EmptyVisitor {
+        protected boolean hasPersistenceAnnotation;
+
+        public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+            if (desc.startsWith("Ljavax/persistence") || desc.startsWith("Lorg/eclipse/persistence")) {
+                this.hasPersistenceAnnotation = true;
+            }
+            return null;
+        }
+
+        public FieldVisitor visitField(int access, String name, String desc, String signature, Object value) {
+            return null;
+        }
+
+        public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+            return null;
+        }
+    }
+}
@@ -83,6 +83,14 @@ public class JarFileArchive extends ArchiveBase implements Archive {
         return is;
     }
 
+    /**
+     * Return the CRC of the entry's uncompressed bytes, or -1 if not known.
+     */
+    public long getEntryCrc(String entryPath) {
+        final ZipEntry entry = jarFile.getEntry(entryPath);
+        return (entry == null) ? -1 : entry.getCrc();
+    }
+
     public URL getEntryAsURL(String entryPath) throws IOException {
         return jarFile.getEntry(entryPath)!= null ?
                 new URL("jar:"+new File(jarFile.getName()).toURI().toURL()+"!/"+entryPath) : null; // NOI18N
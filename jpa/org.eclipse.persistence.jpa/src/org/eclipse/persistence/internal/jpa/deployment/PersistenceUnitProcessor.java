@@ -449,6 +449,35 @@ public class PersistenceUnitProcessor {
         }
         return classNames;
     }
+
+    /**
+     * Return the names of the classes at the URL that may have persistence annotations.
+     * If the archive has a valid annotation index, only its indexed classes are returned,
+     * otherwise all of the archive's classes are returned.
+     * @see AnnotationIndex
+     */
+    public static Set<String> getPersistentClassNamesFromURL(URL url, ClassLoader loader, Map properties) {
+        Archive archive = null;
+        try {
+            archive = PersistenceUnitProcessor.getArchiveFactory(loader).createArchive(url, properties);
+
+            if (archive != null) {
+                Set<String> classNames = AnnotationIndex.readClassNames(archive);
+                if (classNames != null) {
+                    return classNames;
+                }
+            }
+        } catch (URISyntaxException e) {
+            throw new RuntimeException("url = [" + url + "]", e);  // NOI18N
+        } catch (IOException e) {
+            throw new RuntimeException("url = [" + url + "]", e);  // NOI18N
+        } finally {
+            if (archive != null) {
+                archive.close();
+            }
+        }
+        return getClassNamesFromURL(url, loader, properties);
+    }
     
     /**
      * Return if a given class is annotated with @Embeddable.
@@ -54,6 +54,7 @@ import org.eclipse.persistence.config.DescriptorCustomizer;
 import org.eclipse.persistence.config.PersistenceUnitProperties;
 import org.eclipse.persistence.exceptions.PersistenceUnitLoadingException;
 import org.eclipse.persistence.exceptions.ValidationException;
+import org.eclipse.persistence.internal.jpa.EntityManagerFactoryProvider;
 import org.eclipse.persistence.internal.jpa.EntityManagerSetupImpl;
 import org.eclipse.persistence.internal.jpa.deployment.PersistenceUnitProcessor;
 import org.eclipse.persistence.internal.jpa.deployment.PersistenceUnitProcessor.Mode;
@@ -323,17 +324,22 @@ public class MetadataProcessor {
         // Add all the <class> specifications.
         classNames.addAll(persistenceUnitInfo.getManagedClassNames());
 
-        // Add all the classes from the <jar> specifications.
+        // Add all the classes from the <jar> specifications. Jars with an
+        // annotation index only add their annotated classes.
         for (URL url : persistenceUnitInfo.getJarFileUrls()) {
-            classNames.addAll(PersistenceUnitProcessor.getClassNamesFromURL(url, m_loader, null));
+            classNames.addAll(PersistenceUnitProcessor.getPersistentClassNamesFromURL(url, m_loader, null));
         }
 
         // Add all the classes off the classpath at the persistence unit root url.
         Set<String> unlistedClasses = Collections.EMPTY_SET;
         if (! persistenceUnitInfo.excludeUnlistedClasses()) {
-            unlistedClasses = PersistenceUnitProcessor.getClassNamesFromURL(persistenceUnitInfo.getPersistenceUnitRootUrl(), m_loader, m_predeployProperties);
+            unlistedClasses = PersistenceUnitProcessor.getPersistentClassNamesFromURL(persistenceUnitInfo.getPersistenceUnitRootUrl(), m_loader, m_predeployProperties);
         }
         
+        // Read the classes in parallel if configured, the loop below then
+        // finds them in the factory.
+        loadMetadataClasses(classNames, unlistedClasses);
+        
         // 5 - Go through all the class names we found and add those classes 
         // that have not yet been added. Be sure to check that the accessor
         // does not already exist since adding an accessor will merge its 
@@ -373,6 +379,34 @@ public class MetadataProcessor {
         }
     }
     
+    /**
+     * INTERNAL:
+     * Read the class metadata of the persistence unit classes using the
+     * number of threads of the "eclipselink.metadata.loading-threads" property.
+     * The listed classes are read fully, and the unlisted classes are read
+     * lazily. Nothing is done when reading serially, as the classes are then
+     * read on their first use.
+     */
+    protected void loadMetadataClasses(List<String> classNames, Set<String> unlistedClasses) {
+        if ((m_session == null) || !(m_factory instanceof MetadataAsmFactory)) {
+            return;
+        }
+        String threadsProperty = EntityManagerFactoryProvider.getConfigPropertyAsString(PersistenceUnitProperties.METADATA_LOADING_THREADS, m_predeployProperties);
+        if (threadsProperty == null) {
+            return;
+        }
+        int threads;
+        try {
+            threads = Integer.parseInt(threadsProperty.trim());
+        } catch (NumberFormatException exception) {
+            throw ValidationException.invalidValueForProperty(threadsProperty, PersistenceUnitProperties.METADATA_LOADING_THREADS, exception);
+        }
+        if (threads > 1) {
+            ((MetadataAsmFactory) m_factory).loadMetadataClasses(classNames, false, threads, m_session.getServerPlatform());
+            ((MetadataAsmFactory) m_factory).loadMetadataClasses(unlistedClasses, true, threads, m_session.getServerPlatform());
+        }
+    }
+    
     /**
      * INTERNAL:
      * This method is responsible for figuring out list of mapping files to
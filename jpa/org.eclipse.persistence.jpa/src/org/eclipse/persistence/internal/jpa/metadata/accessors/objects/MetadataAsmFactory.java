@@ -23,8 +23,12 @@ package org.eclipse.persistence.internal.jpa.metadata.accessors.objects;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
+import org.eclipse.persistence.exceptions.ConcurrencyException;
 import org.eclipse.persistence.internal.helper.Helper;
 import org.eclipse.persistence.internal.jpa.metadata.MetadataDescriptor;
 import org.eclipse.persistence.internal.jpa.metadata.MetadataLogger;
@@ -36,6 +40,7 @@ import org.eclipse.persistence.internal.libraries.asm.FieldVisitor;
 import org.eclipse.persistence.internal.libraries.asm.MethodVisitor;
 import org.eclipse.persistence.internal.libraries.asm.Type;
 import org.eclipse.persistence.internal.libraries.asm.commons.EmptyVisitor;
+import org.eclipse.persistence.platform.server.ServerPlatform;
 
 /**
  * INTERNAL: A metadata factory that uses ASM technology and no reflection
@@ -115,6 +120,130 @@ public class MetadataAsmFactory extends MetadataFactory {
         }
     }
 
+    /**
+     * INTERNAL:
+     * Read the class metadata for the class name using ASM, without adding it
+     * to the factory. This allows the classes to be read concurrently.
+     * Return null if the class cannot be read.
+     */
+    public MetadataClass readMetadataClass(String className, boolean isLazy) {
+        MetadataClass metadataClass = new MetadataClass(this, className, isLazy);
+        ClassMetadataVisitor visitor = new ClassMetadataVisitor(metadataClass, isLazy, false);
+        InputStream stream = null;
+        try {
+            String resourceString = className.replace('.', '/') + ".class";
+            stream = m_loader.getResourceAsStream(resourceString);
+
+            ClassReader reader = new ClassReader(stream);
+            Attribute[] attributes = new Attribute[0];
+            reader.accept(visitor, attributes, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        } catch (Exception exception) {
+            // The class is built on its first use, as it is when not read in advance.
+            return null;
+        } finally {
+            try {
+                if (stream != null) {
+                    stream.close();
+                }
+            } catch (IOException ignore) {
+                // Ignore.
+            }
+        }
+        // The class file is for a different class name.
+        if (visitor.classMetadata != metadataClass) {
+            return null;
+        }
+        return metadataClass;
+    }
+
+    /**
+     * INTERNAL:
+     * Read the class metadata of the class names using the number of threads,
+     * and add them to the factory. The classes are read and parsed on the
+     * server platform's threads and the current thread, and are added to the
+     * factory afterwards, as the factory is not thread safe. Classes already in
+     * the factory are not read again. Classes that cannot be read are not
+     * added, they are built on their first use.
+     */
+    public void loadMetadataClasses(Collection<String> classNames, boolean isLazy, int threads, ServerPlatform serverPlatform) {
+        List<String> unloadedClassNames = new ArrayList<String>(classNames.size());
+        for (String className : classNames) {
+            MetadataClass metadataClass = m_metadataClasses.get(className);
+            if ((metadataClass == null) || (!isLazy && metadataClass.isLazy())) {
+                unloadedClassNames.add(className);
+            }
+        }
+        if (unloadedClassNames.isEmpty()) {
+            return;
+        }
+        ParallelClassReader classReader = new ParallelClassReader(unloadedClassNames, isLazy);
+        threads = Math.min(threads, unloadedClassNames.size()) - 1;
+        for (int index = 0; index < threads; index++) {
+            serverPlatform.launchContainerRunnable(classReader);
+        }
+        classReader.run();
+        classReader.waitForCompletion();
+        for (MetadataClass metadataClass : classReader.classes) {
+            MetadataClass existing = m_metadataClasses.get(metadataClass.getName());
+            if ((existing == null) || (existing.isLazy() && !metadataClass.isLazy())) {
+                addMetadataClass(metadataClass);
+            }
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Reads the class metadata of a queue of class names, on each thread that runs it.
+     */
+    protected class ParallelClassReader implements Runnable {
+        protected Queue<String> classNames;
+        protected boolean isLazy;
+        /** The classes read, added to the factory after all are read. */
+        protected Queue<MetadataClass> classes;
+        /** The number of classes not yet read. */
+        protected int remaining;
+
+        public ParallelClassReader(List<String> classNames, boolean isLazy) {
+            this.classNames = new ConcurrentLinkedQueue<String>(classNames);
+            this.isLazy = isLazy;
+            this.classes = new ConcurrentLinkedQueue<MetadataClass>();
+            this.remaining = classNames.size();
+        }
+
+        public void run() {
+            String className = this.classNames.poll();
+            while (className != null) {
+                try {
+                    MetadataClass metadataClass = readMetadataClass(className, this.isLazy);
+                    if (metadataClass != null) {
+                        this.classes.add(metadataClass);
+                    }
+                } finally {
+                    synchronized (this) {
+                        this.remaining--;
+                        if (this.remaining == 0) {
+                            notifyAll();
+                        }
+                    }
+                }
+                className = this.classNames.poll();
+            }
+        }
+
+        /**
+         * Wait until all classes are read.
+         */
+        public synchronized void waitForCompletion() {
+            while (this.remaining > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException exception) {
+                    throw ConcurrencyException.waitWasInterrupted(exception.getMessage());
+                }
+            }
+        }
+    }
+
     /**
      * Return the class metadata for the class name.
      */
@@ -196,11 +325,20 @@ public class MetadataAsmFactory extends MetadataFactory {
     public class ClassMetadataVisitor implements ClassVisitor {
 
         private boolean isLazy;
+        private boolean isRegistering;
         private boolean processedMemeber;
         private MetadataClass classMetadata;
 
         ClassMetadataVisitor(MetadataClass metadataClass, boolean isLazy) {
+            this(metadataClass, isLazy, true);
+        }
+
+        /**
+         * If not registering, the class metadata is not added to the factory.
+         */
+        ClassMetadataVisitor(MetadataClass metadataClass, boolean isLazy, boolean isRegistering) {
             this.isLazy = isLazy;
+            this.isRegistering = isRegistering;
             this.classMetadata = metadataClass;
         }
 
@@ -208,7 +346,9 @@ public class MetadataAsmFactory extends MetadataFactory {
             String className = toClassName(name);
             if ((this.classMetadata == null) || !this.classMetadata.getName().equals(className)) {
                 this.classMetadata = new MetadataClass(MetadataAsmFactory.this, className, isLazy);
-                addMetadataClass(this.classMetadata);
+                if (this.isRegistering) {
+                    addMetadataClass(this.classMetadata);
+                }
             }
             this.classMetadata.setName(className);
             this.classMetadata.setSuperclassName(toClassName(superName));
@@ -251,6 +251,8 @@ public class CacheMetadata extends ORMetadata {
             classDescriptor.getCachePolicy().useSoftIdentityMap();
         } else if (m_type.equals(CacheType.HARD_WEAK.name())) {
             classDescriptor.getCachePolicy().useHardCacheWeakIdentityMap();
+        } else if (m_type.equals(CacheType.OFF_HEAP.name())) {
+            classDescriptor.getCachePolicy().useOffHeapIdentityMap();
         } else if (m_type.equals(CacheType.CACHE.name())) {
             classDescriptor.useCacheIdentityMap();
         } else if (m_type.equals(CacheType.NONE.name())) {
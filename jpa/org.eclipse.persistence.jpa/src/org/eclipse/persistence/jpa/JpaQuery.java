@@ -54,6 +54,17 @@ public interface JpaQuery<X> extends javax.persistence.TypedQuery<X> {
      */
     public Cursor getResultCursor();
     
+    /**
+     * PUBLIC:
+     * Non-standard method to return the results of a ReadQuery as a stream over a forward only cursor.
+     * Only a window of the most recently read results is kept in the persistence context,
+     * the window size is the query's JDBC fetch size if set.
+     * The stream must be closed if it is not read to the end.
+     * This is not the JPA 2.2 getResultStream() method, which returns a java.util.stream.Stream.
+     * @return stream on results
+     */
+    public JpaResultStream<X> streamResults();
+    
     /**
      * PUBLIC:
      * Replace the cached query with the given query.
@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.jpa;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * PUBLIC:
+ * Stream over the results of a query, read from a forward only database cursor.
+ * <p>Only a window of the most recently read results is kept in the persistence context,
+ * older entities are detached as the stream advances, so large results can be read with bounded memory.
+ * As with EntityManager.detach(), changes to a detached entity that have not been flushed are not written to the database.
+ * <p>The stream must be closed to release the cursor's statement and connection,
+ * it is closed automatically once the end of the results is reached.
+ * @see JpaQuery#streamResults()
+ */
+public interface JpaResultStream<X> extends Iterator<X>, Closeable {
+
+    /**
+     * PUBLIC:
+     * Close the stream's cursor, releasing its statement and connection.
+     */
+    public void close();
+
+    /**
+     * PUBLIC:
+     * Return the number of results kept in the persistence context, this is also the JDBC fetch size,
+     * unless a fetch size was set on the query.
+     */
+    public int getWindowSize();
+
+}
@@ -0,0 +1,385 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.jpa.metadata;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.eclipse.persistence.Version;
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.exceptions.ConcurrencyException;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.sessions.Project;
+
+/**
+ * <p><b>Purpose</b>: Support storing/retrieving a project representing application metadata
+ * to/from a versioned binary file that is memory-mapped when read.
+ * <p>
+ * The file contains a header with the format version and the EclipseLink version that wrote it,
+ * followed by a descriptor table of the class name, offset and length of each descriptor's block.
+ * The project without its descriptors and each descriptor are stored in separate blocks,
+ * so each descriptor is read independently of the others from the mapped file,
+ * and the descriptors are read in parallel using the number of threads of the
+ * <code>"eclipselink.metadata.loading-threads"</code> property.
+ * The blocks use Java serialization, but only store the name of each class instead of its full class description,
+ * as the file is only read by the same EclipseLink version.
+ * A file written by a different format or EclipseLink version is ignored, and the project is rebuilt from the metadata.
+ * 
+ * @see PersistenceUnitProperties#PROJECT_CACHE_MAPPED_FILE
+ */
+public class MappedFileProjectCache extends FileBasedProjectCache {
+    /** The first bytes of the file, "ELPC". */
+    public static final int MAGIC = 0x454C5043;
+    /** The version of the file format. */
+    public static final int FORMAT_VERSION = 1;
+
+    @Override
+    public Project retrieveProject(Map properties, ClassLoader loader, SessionLog log) {
+        String fileName = (String)getConfigPropertyLogDebug(PersistenceUnitProperties.PROJECT_CACHE_MAPPED_FILE, properties, log);
+        if ((fileName == null) || (fileName.length() == 0) || !new File(fileName).exists()) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = mapFile(fileName);
+            if ((buffer.getInt() != MAGIC) || (buffer.getInt() != FORMAT_VERSION) || !Version.getVersionString().equals(readString(buffer))) {
+                // Written by a different version, the project is rebuilt and stored again.
+                log.log(SessionLog.FINER, SessionLog.JPA, "project_cache_version_mismatch", new Object[] {fileName});
+                return null;
+            }
+            int size = buffer.getInt();
+            int[] offsets = new int[size + 1];
+            int[] lengths = new int[size + 1];
+            for (int index = 0; index <= size; index++) {
+                // The class name is only used to find a descriptor's block.
+                readString(buffer);
+                offsets[index] = buffer.getInt();
+                lengths[index] = buffer.getInt();
+            }
+            int base = buffer.position();
+            // The first block is the project.
+            Project project = (Project)readBlock(buffer, base + offsets[0], lengths[0], loader);
+            DescriptorReader reader = new DescriptorReader(buffer, base, offsets, lengths, loader);
+            int threads = Math.min(getThreads(properties, log), size) - 1;
+            for (int index = 0; index < threads; index++) {
+                Thread thread = new Thread(reader);
+                thread.setDaemon(true);
+                thread.start();
+            }
+            reader.run();
+            reader.waitForCompletion();
+            for (ClassDescriptor descriptor : reader.descriptors) {
+                project.addDescriptor(descriptor);
+            }
+            return project;
+        } catch (Exception exception) {
+            log.logThrowable(SessionLog.WARNING, SessionLog.JPA, exception);
+            return null;
+        }
+    }
+
+    @Override
+    public void storeProject(Project project, Map properties, SessionLog log) {
+        String fileName = (String)getConfigPropertyLogDebug(PersistenceUnitProperties.PROJECT_CACHE_MAPPED_FILE, properties, log);
+        if ((fileName == null) || (fileName.length() == 0)) {
+            return;
+        }
+        FileOutputStream fos = null;
+        try {
+            List<ClassDescriptor> descriptors = project.getOrderedDescriptors();
+            // Store the project without its descriptors, the descriptors are stored in their own blocks.
+            Project projectWithoutDescriptors = project.clone();
+            projectWithoutDescriptors.setOrderedDescriptors(new ArrayList<ClassDescriptor>());
+            projectWithoutDescriptors.setDescriptors(new HashMap());
+            projectWithoutDescriptors.setAliasDescriptors(null);
+            List<byte[]> blocks = new ArrayList<byte[]>(descriptors.size() + 1);
+            List<String> names = new ArrayList<String>(descriptors.size() + 1);
+            blocks.add(writeBlock(projectWithoutDescriptors));
+            names.add("");
+            for (ClassDescriptor descriptor : descriptors) {
+                blocks.add(writeBlock(descriptor));
+                names.add(descriptor.getJavaClassName() == null ? "" : descriptor.getJavaClassName());
+            }
+
+            ByteArrayOutputStream header = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(header);
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            writeString(out, Version.getVersionString());
+            out.writeInt(descriptors.size());
+            int offset = 0;
+            for (int index = 0; index < blocks.size(); index++) {
+                writeString(out, names.get(index));
+                out.writeInt(offset);
+                out.writeInt(blocks.get(index).length);
+                offset = offset + blocks.get(index).length;
+            }
+            out.flush();
+
+            fos = new FileOutputStream(fileName);
+            fos.write(header.toByteArray());
+            for (byte[] block : blocks) {
+                fos.write(block);
+            }
+        } catch (Exception exception) {
+            //the session is still usable, just not cachable so log a warning
+            log.logThrowable(SessionLog.WARNING, SessionLog.JPA, exception);
+        } finally {
+            try {
+                if (fos != null) {
+                    fos.close();
+                }
+            } catch (IOException ignore) {}
+        }
+    }
+
+    /**
+     * Return the number of threads reading the descriptors, 1 by default.
+     */
+    protected int getThreads(Map properties, SessionLog log) {
+        String threads = (String)getConfigPropertyLogDebug(PersistenceUnitProperties.METADATA_LOADING_THREADS, properties, log);
+        if (threads == null) {
+            return 1;
+        }
+        return Math.max(Integer.parseInt(threads.trim()), 1);
+    }
+
+    /**
+     * Map the file into memory, read only.
+     * The mapping remains valid after the file is closed.
+     */
+    protected ByteBuffer mapFile(String fileName) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(fileName, "r");
+        try {
+            FileChannel channel = file.getChannel();
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+            file.close();
+        }
+    }
+
+    /**
+     * Return the serialized bytes of the object.
+     */
+    protected byte[] writeBlock(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new CompactObjectOutputStream(bytes);
+        out.writeObject(object);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Return the object serialized in the block of the buffer.
+     * The buffer is not modified, so blocks can be read concurrently.
+     */
+    protected Object readBlock(ByteBuffer buffer, int offset, int length, ClassLoader loader) throws IOException, ClassNotFoundException {
+        ByteBuffer block = buffer.duplicate();
+        block.limit(offset + length);
+        block.position(offset);
+        ObjectInputStream in = new CompactObjectInputStream(new ByteBufferInputStream(block), loader);
+        try {
+            return in.readObject();
+        } finally {
+            in.close();
+        }
+    }
+
+    protected void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes("UTF-8");
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    protected String readString(ByteBuffer buffer) throws IOException {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, "UTF-8");
+    }
+
+    /**
+     * Reads the descriptor blocks of a queue of indexes, on each thread that runs it.
+     */
+    protected class DescriptorReader implements Runnable {
+        protected ByteBuffer buffer;
+        protected int base;
+        protected int[] offsets;
+        protected int[] lengths;
+        protected ClassLoader loader;
+        protected Queue<Integer> indexes;
+        /** The descriptors read, in the order of the project's descriptors. */
+        protected ClassDescriptor[] descriptors;
+        /** The number of descriptors not yet read. */
+        protected int remaining;
+        /** The first exception or error of a descriptor. */
+        protected volatile Throwable failure;
+
+        public DescriptorReader(ByteBuffer buffer, int base, int[] offsets, int[] lengths, ClassLoader loader) {
+            this.buffer = buffer;
+            this.base = base;
+            this.offsets = offsets;
+            this.lengths = lengths;
+            this.loader = loader;
+            int size = offsets.length - 1;
+            this.indexes = new ConcurrentLinkedQueue<Integer>();
+            for (int index = 1; index <= size; index++) {
+                this.indexes.add(Integer.valueOf(index));
+            }
+            this.descriptors = new ClassDescriptor[size];
+            this.remaining = size;
+        }
+
+        public void run() {
+            Integer index = this.indexes.poll();
+            while (index != null) {
+                try {
+                    if (this.failure == null) {
+                        int blockIndex = index.intValue();
+                        this.descriptors[blockIndex - 1] = (ClassDescriptor)readBlock(this.buffer, this.base + this.offsets[blockIndex], this.lengths[blockIndex], this.loader);
+                    }
+                } catch (Throwable throwable) {
+                    synchronized (this) {
+                        if (this.failure == null) {
+                            this.failure = throwable;
+                        }
+                    }
+                } finally {
+                    synchronized (this) {
+                        this.remaining--;
+                        if (this.remaining == 0) {
+                            notifyAll();
+                        }
+                    }
+                }
+                index = this.indexes.poll();
+            }
+        }
+
+        /**
+         * Wait until all descriptors are read, and throw the first failure.
+         */
+        public synchronized void waitForCompletion() throws Exception {
+            while (this.remaining > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException exception) {
+                    throw ConcurrencyException.waitWasInterrupted(exception.getMessage());
+                }
+            }
+            if (this.failure instanceof Exception) {
+                throw (Exception)this.failure;
+            } else if (this.failure instanceof Error) {
+                throw (Error)this.failure;
+            }
+        }
+    }
+
+    /**
+     * Writes only the name of each class, instead of its full class description.
+     */
+    protected static class CompactObjectOutputStream extends ObjectOutputStream {
+        public CompactObjectOutputStream(OutputStream stream) throws IOException {
+            super(stream);
+        }
+
+        @Override
+        protected void writeClassDescriptor(ObjectStreamClass description) throws IOException {
+            writeUTF(description.getName());
+        }
+    }
+
+    /**
+     * Reads the class names written by the compact stream, using the local class descriptions.
+     * Classes are loaded from EclipseLink's loader, and otherwise from the application loader.
+     */
+    protected static class CompactObjectInputStream extends ObjectInputStream {
+        protected ClassLoader loader;
+
+        public CompactObjectInputStream(InputStream stream, ClassLoader loader) throws IOException {
+            super(stream);
+            this.loader = loader;
+        }
+
+        @Override
+        protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+            return ObjectStreamClass.lookupAny(loadClass(readUTF()));
+        }
+
+        @Override
+        protected Class resolveClass(ObjectStreamClass description) throws IOException, ClassNotFoundException {
+            return loadClass(description.getName());
+        }
+
+        protected Class loadClass(String className) throws ClassNotFoundException {
+            try {
+                return Class.forName(className, false, MappedFileProjectCache.class.getClassLoader());
+            } catch (ClassNotFoundException notFound) {
+                if (this.loader == null) {
+                    throw notFound;
+                }
+                return Class.forName(className, false, this.loader);
+            }
+        }
+    }
+
+    /**
+     * Reads the remaining bytes of a buffer.
+     */
+    protected static class ByteBufferInputStream extends InputStream {
+        protected ByteBuffer buffer;
+
+        public ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            if (!this.buffer.hasRemaining()) {
+                return -1;
+            }
+            return this.buffer.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!this.buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, this.buffer.remaining());
+            this.buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return this.buffer.remaining();
+        }
+    }
+}
@@ -29,6 +29,7 @@ import java.util.jar.JarEntry;
 import java.util.jar.JarOutputStream;
 
 import org.eclipse.persistence.internal.helper.Helper;
+import org.eclipse.persistence.internal.jpa.deployment.AnnotationIndex;
 import org.eclipse.persistence.internal.jpa.deployment.ArchiveFactoryImpl;
 import org.eclipse.persistence.internal.jpa.deployment.PersistenceUnitProcessor;
 import org.eclipse.persistence.exceptions.StaticWeaveException;
@@ -253,10 +254,16 @@ public class StaticWeaveProcessor {
         // Starting process.
         Archive sourceArchive =(new ArchiveFactoryImpl()).createArchive(source, null, null);
         if (sourceArchive != null) {
+            // Index the annotated classes of the target, so deployment only reads these classes.
+            AnnotationIndex index = new AnnotationIndex();
             try {
                 Iterator entries = sourceArchive.getEntries();
                 while (entries.hasNext()){
                     String entryName = (String)entries.next();
+                    // The index of the source is replaced.
+                    if (entryName.equals(AnnotationIndex.INDEX_ENTRY)) {
+                        continue;
+                    }
                     InputStream entryInputStream = sourceArchive.getEntry(entryName);
                 
                     // Add a directory entry
@@ -280,7 +287,7 @@ public class StaticWeaveProcessor {
                         // If the class is not in the classpath, we simply copy the entry
                         // to the target(no weaving).
                         if (thisClass == null){
-                            swoh.addEntry(entryInputStream, newEntry);
+                            addClassEntry(swoh, index, entryInputStream, newEntry);
                             continue;
                         }
                     
@@ -304,7 +311,7 @@ public class StaticWeaveProcessor {
                                 is.close();
                             }
                         } else {
-                            swoh.addEntry(entryInputStream, newEntry);
+                            addClassEntry(swoh, index, entryInputStream, newEntry);
                             continue;
                         }
                     
@@ -314,31 +321,51 @@ public class StaticWeaveProcessor {
                     
                         // If transferredClassBytes is null means the class dose not get woven.
                         if (transferredClassBytes!=null){
+                            index.addClass(entryName, transferredClassBytes);
                             swoh.addEntry(newEntry, transferredClassBytes);
                         } else {
-                            swoh.addEntry(entryInputStream, newEntry);
+                            addClassEntry(swoh, index, entryInputStream, newEntry);
                         }
                     } catch (IllegalClassFormatException e) {
                         AbstractSessionLog.getLog().logThrowable(AbstractSessionLog.WARNING, AbstractSessionLog.WEAVER, e);
                         // Anything went wrong, we need log a warning message, copy the entry to the target and
                         // process next entry.
-                        swoh.addEntry(entryInputStream, newEntry);
+                        addClassEntry(swoh, index, entryInputStream, newEntry);
                         continue;
                     } catch (ClassNotFoundException e) {
                         AbstractSessionLog.getLog().logThrowable(AbstractSessionLog.WARNING, AbstractSessionLog.WEAVER, e);
-                        swoh.addEntry(entryInputStream, newEntry);
+                        addClassEntry(swoh, index, entryInputStream, newEntry);
                         continue;
                     } finally {
                         // Need close the inputstream for current entry before processing next one. 
                         entryInputStream.close();
                     }
                 }
+                swoh.addDirEntry(getDirectoryFromEntryName(AnnotationIndex.INDEX_ENTRY));
+                swoh.addEntry(new JarEntry(AnnotationIndex.INDEX_ENTRY), index.getBytes());
             } finally {
                 sourceArchive.close();
                 swoh.closeOutputStream();
             }
         }
     }
+
+    /**
+     * INTERNAL:
+     * Copy the class entry to the target, and add it to the annotation index.
+     */
+    private void addClassEntry(AbstractStaticWeaveOutputHandler swoh, AnnotationIndex index, InputStream entryInputStream, JarEntry newEntry) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        byte[] bytes = new byte[NUMBER_OF_BYTES];
+        int bytesRead = entryInputStream.read(bytes, 0, NUMBER_OF_BYTES);
+        while (bytesRead >= 0){
+            baos.write(bytes, 0, bytesRead);
+            bytesRead = entryInputStream.read(bytes, 0, NUMBER_OF_BYTES);
+        }
+        byte[] classBytes = baos.toByteArray();
+        index.addClass(newEntry.getName(), classBytes);
+        swoh.addEntry(newEntry, classBytes);
+    }
     
     //Extract directory from entry name.    
     public static String getDirectoryFromEntryName(String entryName){
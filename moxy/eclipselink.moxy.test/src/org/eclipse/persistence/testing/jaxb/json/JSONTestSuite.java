@@ -36,6 +36,7 @@ import org.eclipse.persistence.testing.jaxb.json.norootelement.InheritanceNoRoot
 import org.eclipse.persistence.testing.jaxb.json.norootelement.NoRootElementNSTestCases;
 import org.eclipse.persistence.testing.jaxb.json.norootelement.NoRootElementTestCases;
 import org.eclipse.persistence.testing.jaxb.json.padding.JSONWithPaddingTestCases;
+import org.eclipse.persistence.testing.jaxb.json.parser.JSONParserTestCases;
 import org.eclipse.persistence.testing.jaxb.json.rootlevellist.RootLevelListTestCases;
 import org.eclipse.persistence.testing.jaxb.json.wrapper.AllWrapperTestCases;
 import org.eclipse.persistence.testing.jaxb.json.xmlvalue.XMLValuePropDifferentTestCases;
@@ -77,6 +78,7 @@ public class JSONTestSuite extends TestSuite {
           suite.addTest(JSONWithPaddingTestCases.suite());
           suite.addTest(AnyTestCases.suite());
           suite.addTest(AllWrapperTestCases.suite());
+          suite.addTestSuite(JSONParserTestCases.class);
           return suite;
 	}
 }
@@ -0,0 +1,240 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.jaxb.json.parser;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import javax.xml.bind.UnmarshalException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.ValidationEvent;
+import javax.xml.bind.ValidationEventHandler;
+import javax.xml.transform.stream.StreamSource;
+
+import org.eclipse.persistence.jaxb.JAXBContext;
+import org.eclipse.persistence.jaxb.JAXBContextFactory;
+import org.eclipse.persistence.jaxb.JAXBContextProperties;
+import org.eclipse.persistence.jaxb.UnmarshallerProperties;
+import org.eclipse.persistence.testing.oxm.OXTestCase;
+
+/**
+ * Unmarshal tests for the JSON reader: escapes, numbers, literals, nested arrays,
+ * values and attributes after nested objects and arrays, and syntax errors.
+ */
+public class JSONParserTestCases extends OXTestCase {
+
+	private JAXBContext ctx;
+
+	public JSONParserTestCases(String name) throws Exception {
+		super(name);
+	}
+
+	public void setUp() throws Exception {
+		super.setUp();
+		HashMap props = new HashMap();
+		props.put(JAXBContextProperties.MEDIA_TYPE, "application/json");
+		ctx = (JAXBContext) JAXBContextFactory.createContext(new Class[]{ParserHolder.class}, props);
+	}
+
+	private Unmarshaller createUnmarshaller() throws Exception {
+		Unmarshaller unmarshaller = ctx.createUnmarshaller();
+		unmarshaller.setProperty(UnmarshallerProperties.JSON_INCLUDE_ROOT, false);
+		return unmarshaller;
+	}
+
+	private ParserHolder unmarshal(String json) throws Exception {
+		return createUnmarshaller().unmarshal(new StreamSource(new StringReader(json)), ParserHolder.class).getValue();
+	}
+
+	public void testEscapes() throws Exception {
+		ParserHolder holder = unmarshal("{\"text\":\"a\\\"b\\\\c\\/d\\be\\ff\\ng\\rh\\ti\"}");
+		assertEquals("a\"b\\c/d\be\ff\ng\rh\ti", holder.text);
+	}
+
+	public void testUnicodeEscapes() throws Exception {
+		ParserHolder holder = unmarshal("{\"text\":\"\\u00e9\\u4E2D\\ud83d\\ude00\\u0041\"}");
+		assertEquals("\u00e9\u4E2D\uD83D\uDE00A", holder.text);
+	}
+
+	public void testNumbers() throws Exception {
+		ParserHolder holder = unmarshal("{\"intValue\":-12,\"longValue\":12345678901234,\"doubleValue\":1.5e3,\"decimalValue\":-0.25E-2}");
+		assertEquals(Integer.valueOf(-12), holder.intValue);
+		assertEquals(Long.valueOf(12345678901234L), holder.longValue);
+		assertEquals(Double.valueOf(1500), holder.doubleValue);
+		assertEquals(0, new BigDecimal("-0.0025").compareTo(holder.decimalValue));
+
+		holder = unmarshal("{\"intValue\":0,\"doubleValue\":-2.5E+2}");
+		assertEquals(Integer.valueOf(0), holder.intValue);
+		assertEquals(Double.valueOf(-250), holder.doubleValue);
+	}
+
+	public void testLiterals() throws Exception {
+		ParserHolder holder = unmarshal("{\"flag\":true,\"otherFlag\":false,\"nullText\":null,\"text\":\"t\"}");
+		assertEquals(Boolean.TRUE, holder.flag);
+		assertEquals(Boolean.FALSE, holder.otherFlag);
+		assertNull(holder.nullText);
+		assertEquals("t", holder.text);
+	}
+
+	public void testNestedArrays() throws Exception {
+		ParserHolder holder = unmarshal("{\"matrix\":[[1,2],[3]],\"after\":\"end\"}");
+		assertEquals(2, holder.rows.size());
+		assertEquals(2, holder.rows.get(0).values.size());
+		assertEquals(Integer.valueOf(1), holder.rows.get(0).values.get(0));
+		assertEquals(Integer.valueOf(2), holder.rows.get(0).values.get(1));
+		assertEquals(1, holder.rows.get(1).values.size());
+		assertEquals(Integer.valueOf(3), holder.rows.get(1).values.get(0));
+		assertEquals("end", holder.after);
+	}
+
+	public void testPairsAfterObjectValue() throws Exception {
+		ParserHolder holder = unmarshal("{\"id\":\"h1\",\"child\":{\"id\":\"c1\",\"name\":\"child\"},\"text\":\"after child\","
+				+ "\"item\":[{\"id\":\"1\",\"name\":\"a\"},{\"id\":\"2\",\"name\":\"b\"},{\"id\":\"3\",\"name\":\"c\"}],"
+				+ "\"strings\":[\"x\",\"y\"],\"after\":\"end\"}");
+		assertEquals("h1", holder.id);
+		assertEquals("c1", holder.child.id);
+		assertEquals("child", holder.child.name);
+		assertEquals("after child", holder.text);
+		assertEquals(3, holder.items.size());
+		for(int index = 0; index < 3; index++) {
+			assertEquals(String.valueOf(index + 1), holder.items.get(index).id);
+			assertEquals(String.valueOf((char) ('a' + index)), holder.items.get(index).name);
+		}
+		assertEquals(2, holder.strings.size());
+		assertEquals("x", holder.strings.get(0));
+		assertEquals("y", holder.strings.get(1));
+		assertEquals("end", holder.after);
+	}
+
+	public void testAttributeAfterObjectValue() throws Exception {
+		ParserHolder holder = unmarshal("{\"child\":{\"name\":\"child\",\"id\":\"c1\"},\"id\":\"h1\"}");
+		assertEquals("h1", holder.id);
+		assertEquals("c1", holder.child.id);
+		assertEquals("child", holder.child.name);
+	}
+
+	public void testAttributeAfterArrayOfObjects() throws Exception {
+		ParserHolder holder = unmarshal("{\"item\":[{\"name\":\"a\",\"id\":\"1\"},{\"name\":\"b\",\"id\":\"2\"}],\"id\":\"h1\"}");
+		assertEquals("h1", holder.id);
+		assertEquals(2, holder.items.size());
+		assertEquals("1", holder.items.get(0).id);
+		assertEquals("2", holder.items.get(1).id);
+	}
+
+	public void testPrefixedAttributesAfterNestedValues() throws Exception {
+		Unmarshaller unmarshaller = createUnmarshaller();
+		unmarshaller.setProperty(UnmarshallerProperties.JSON_ATTRIBUTE_PREFIX, "@");
+		ParserHolder holder = unmarshaller.unmarshal(new StreamSource(new StringReader("{\"child\":{\"name\":\"child\",\"@id\":\"c1\"},"
+				+ "\"item\":[{\"name\":\"a\",\"@id\":\"1\"}],\"@id\":\"h1\",\"text\":\"t\"}")), ParserHolder.class).getValue();
+		assertEquals("h1", holder.id);
+		assertEquals("c1", holder.child.id);
+		assertEquals("child", holder.child.name);
+		assertEquals(1, holder.items.size());
+		assertEquals("1", holder.items.get(0).id);
+		assertEquals("t", holder.text);
+	}
+
+	public void testSingleItemArray() throws Exception {
+		ParserHolder holder = unmarshal("{\"item\":[{\"id\":\"1\",\"name\":\"a\"}],\"after\":\"end\"}");
+		assertEquals(1, holder.items.size());
+		assertEquals("1", holder.items.get(0).id);
+		assertEquals("a", holder.items.get(0).name);
+		assertEquals("end", holder.after);
+	}
+
+	public void testUnmappedValues() throws Exception {
+		ParserHolder holder = unmarshal("{\"unknown\":{\"deep\":[{\"x\":[1,[2]]}],\"more\":{\"y\":null}},\"text\":\"t\","
+				+ "\"unknownArray\":[{\"a\":1},[2]],\"after\":\"end\"}");
+		assertEquals("t", holder.text);
+		assertEquals("end", holder.after);
+	}
+
+	public void testIncludeRoot() throws Exception {
+		Unmarshaller unmarshaller = ctx.createUnmarshaller();
+		Object holder = unmarshaller.unmarshal(new StreamSource(new StringReader("{\"parserHolder\":{\"id\":\"h1\",\"child\":{\"name\":\"c\"},\"text\":\"t\"}}")));
+		assertTrue(holder instanceof ParserHolder);
+		assertEquals("h1", ((ParserHolder) holder).id);
+		assertEquals("c", ((ParserHolder) holder).child.name);
+		assertEquals("t", ((ParserHolder) holder).text);
+	}
+
+	public void testRootArray() throws Exception {
+		Object items = createUnmarshaller().unmarshal(new StreamSource(new StringReader("[{\"id\":\"1\",\"child\":{\"name\":\"c\"}},{\"id\":\"2\",\"text\":\"b\"}]")), ParserHolder.class).getValue();
+		assertTrue(items instanceof List);
+		assertEquals(2, ((List) items).size());
+		ParserHolder first = (ParserHolder) ((List) items).get(0);
+		ParserHolder second = (ParserHolder) ((List) items).get(1);
+		assertEquals("1", first.id);
+		assertEquals("c", first.child.name);
+		assertEquals("2", second.id);
+		assertEquals("b", second.text);
+	}
+
+	public void testErrorPosition() throws Exception {
+		EventCollector events = new EventCollector(false);
+		Unmarshaller unmarshaller = createUnmarshaller();
+		unmarshaller.setEventHandler(events);
+		try {
+			unmarshaller.unmarshal(new StreamSource(new StringReader("{\"text\":\"a\",\n\"flag\":tru}")), ParserHolder.class);
+			fail("An UnmarshalException should have been thrown.");
+		} catch(UnmarshalException e) {
+		}
+		assertEquals(1, events.events.size());
+		ValidationEvent event = events.events.get(0);
+		assertEquals(ValidationEvent.FATAL_ERROR, event.getSeverity());
+		assertEquals(2, event.getLocator().getLineNumber());
+		assertEquals(11, event.getLocator().getColumnNumber());
+	}
+
+	public void testErrorInArray() throws Exception {
+		EventCollector events = new EventCollector(false);
+		Unmarshaller unmarshaller = createUnmarshaller();
+		unmarshaller.setEventHandler(events);
+		try {
+			unmarshaller.unmarshal(new StreamSource(new StringReader("{\"item\":[{\"id\":\"1\"},{\"id\":\"2\"},]}")), ParserHolder.class);
+			fail("An UnmarshalException should have been thrown.");
+		} catch(UnmarshalException e) {
+		}
+		assertEquals(1, events.events.size());
+		assertEquals(1, events.events.get(0).getLocator().getLineNumber());
+		assertEquals(32, events.events.get(0).getLocator().getColumnNumber());
+	}
+
+	/**
+	 * An event handler that continues after a syntax error stops the parsing without an exception.
+	 */
+	public void testErrorIgnoredByHandler() throws Exception {
+		EventCollector events = new EventCollector(true);
+		Unmarshaller unmarshaller = createUnmarshaller();
+		unmarshaller.setEventHandler(events);
+		unmarshaller.unmarshal(new StreamSource(new StringReader("{\"text\":\"a\",\"flag\":tru}")), ParserHolder.class);
+		assertEquals(1, events.events.size());
+	}
+
+	private static class EventCollector implements ValidationEventHandler {
+		private boolean continueParsing;
+		private List<ValidationEvent> events = new ArrayList<ValidationEvent>();
+
+		EventCollector(boolean continueParsing) {
+			this.continueParsing = continueParsing;
+		}
+
+		public boolean handleEvent(ValidationEvent event) {
+			events.add(event);
+			return continueParsing;
+		}
+	}
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.jaxb.json.parser;
+
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+
+import javax.xml.bind.Unmarshaller;
+import javax.xml.transform.stream.StreamSource;
+
+import org.eclipse.persistence.jaxb.JAXBContext;
+import org.eclipse.persistence.jaxb.JAXBContextFactory;
+import org.eclipse.persistence.jaxb.JAXBContextProperties;
+import org.eclipse.persistence.jaxb.UnmarshallerProperties;
+import org.eclipse.persistence.logging.AbstractSessionLog;
+import org.eclipse.persistence.logging.SessionLog;
+
+/**
+ * Compares the throughput and allocation of unmarshalling a large array of objects from JSON,
+ * as a root array and as the array value of an object, with unmarshalling the same items from XML.
+ * Run it against two builds to compare JSON readers, the arguments are the number of items and iterations.
+ * Allocation is measured with the HotSpot ThreadMXBean, when it is not available only the time is reported.
+ * The results are logged to the default session log in the monitoring category.
+ */
+public class JSONUnmarshalBenchmark {
+
+    private static final int WARM_UP = 20;
+
+    public static void main(String[] args) throws Exception {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        StringBuilder items = new StringBuilder();
+        StringBuilder xml = new StringBuilder("<parserHolder>");
+        for (int index = 0; index < size; index++) {
+            if (index > 0) {
+                items.append(',');
+            }
+            items.append("{\"id\":\"").append(index).append("\",\"name\":\"item \\\"").append(index).append("\\\"\"}");
+            xml.append("<item id=\"").append(index).append("\"><name>item &quot;").append(index).append("&quot;</name></item>");
+        }
+        xml.append("</parserHolder>");
+        String rootArray = "[" + items + "]";
+        String object = "{\"text\":\"items\",\"item\":[" + items + "],\"after\":\"end\"}";
+
+        HashMap properties = new HashMap();
+        properties.put(JAXBContextProperties.MEDIA_TYPE, "application/json");
+        properties.put(JAXBContextProperties.JSON_INCLUDE_ROOT, Boolean.FALSE);
+        JAXBContext jsonContext = (JAXBContext) JAXBContextFactory.createContext(new Class[] {ParserHolder.class}, properties);
+        JAXBContext xmlContext = (JAXBContext) JAXBContextFactory.createContext(new Class[] {ParserHolder.class}, null);
+
+        log("items: " + size + ", iterations: " + iterations);
+        run("JSON root array", jsonContext, rootArray, ParserItem.class, size, iterations);
+        run("JSON object", jsonContext, object, ParserHolder.class, size, iterations);
+        run("XML object", xmlContext, xml.toString(), ParserHolder.class, size, iterations);
+    }
+
+    private static void run(String name, JAXBContext context, String document, Class type, int size, int iterations) throws Exception {
+        Unmarshaller unmarshaller = context.createUnmarshaller();
+        if (type == ParserItem.class) {
+            unmarshaller.setProperty(UnmarshallerProperties.JSON_INCLUDE_ROOT, Boolean.FALSE);
+        }
+        for (int index = 0; index < WARM_UP; index++) {
+            check(unmarshal(unmarshaller, document, type), size);
+        }
+        System.gc();
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        for (int index = 0; index < iterations; index++) {
+            check(unmarshal(unmarshaller, document, type), size);
+        }
+        long time = System.nanoTime() - start;
+        allocated = allocatedBytes() - allocated;
+        double seconds = time / 1e9;
+        StringBuilder result = new StringBuilder(name);
+        result.append(": ").append(time / iterations / 1000).append(" us/op, ");
+        result.append((long) (iterations * document.length() / seconds / 1024 / 1024)).append(" MB/s");
+        if (allocated >= 0) {
+            result.append(", ").append(allocated / iterations / 1024).append(" KB allocated/op");
+        }
+        log(result.toString());
+    }
+
+    private static void log(String message) {
+        AbstractSessionLog.getLog().log(SessionLog.INFO, SessionLog.MONITORING, message, null, false);
+    }
+
+    private static Object unmarshal(Unmarshaller unmarshaller, String document, Class type) throws Exception {
+        return unmarshaller.unmarshal(new StreamSource(new StringReader(document)), type).getValue();
+    }
+
+    private static void check(Object result, int size) {
+        List items;
+        if (result instanceof ParserHolder) {
+            items = ((ParserHolder) result).items;
+        } else {
+            items = (List) result;
+        }
+        if (items.size() != size) {
+            throw new IllegalStateException("Expected " + size + " items, unmarshalled " + items.size());
+        }
+    }
+
+    /**
+     * Return the bytes allocated by the current thread, or -1 if the JVM does not report it.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        try {
+            Method method = Class.forName("com.sun.management.ThreadMXBean").getMethod("getThreadAllocatedBytes", long.class);
+            return ((Long) method.invoke(bean, Long.valueOf(Thread.currentThread().getId()))).longValue();
+        } catch (Exception exception) {
+            return -1;
+        }
+    }
+}
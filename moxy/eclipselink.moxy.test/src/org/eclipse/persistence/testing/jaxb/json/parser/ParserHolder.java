@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.jaxb.json.parser;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+@XmlRootElement
+public class ParserHolder {
+	@XmlAttribute
+	public String id;
+	public String text;
+	public String nullText;
+	public Integer intValue;
+	public Long longValue;
+	public Double doubleValue;
+	public BigDecimal decimalValue;
+	public Boolean flag;
+	public Boolean otherFlag;
+	public ParserItem child;
+	@XmlElement(name="item")
+	public List<ParserItem> items;
+	public List<String> strings;
+	@XmlElement(name="matrix")
+	public List<ParserRow> rows;
+	public String after;
+}